@@ -0,0 +1,128 @@
+package chef.sheesh.eyeAI.ai.core.tactics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assigning size bots to size targets scattered over a 64x64 arena, as one group decision.
+ * Baseline is the greedy pick, each bot sorting the targets and taking the closest free one;
+ * then the optimal solve from scratch, and warm-started after the bots and targets drift a
+ * little, which is what a decision interval sees. Run with
+ * {@code ./gradlew jmh -PjmhInclude=AssignmentSolver}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AssignmentSolverBenchmark {
+
+    @Param({"10", "50", "100"})
+    public int size;
+
+    private float[] bots;
+    private float[] targets;
+    private float[] costs;
+    private int[] assignment;
+    private float[] potentials;
+    private AssignmentSolver solver;
+    private SplittableRandom random;
+    private double greedyCost;
+    private double optimalCost;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        random = new SplittableRandom(42L);
+        bots = scatter(size);
+        targets = scatter(size);
+        costs = new float[size * size];
+        assignment = new int[size];
+        potentials = new float[size];
+        solver = new AssignmentSolver();
+        fillCosts();
+        greedyCost += greedy();
+        Arrays.fill(assignment, -1);
+        optimalCost += solver.solve(costs, size, size, assignment, potentials);
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        if (optimalCost > 0) {
+            System.out.printf("%n%d: greedy costs %.0f%% of optimal%n", size, 100.0 * greedyCost / optimalCost);
+        }
+    }
+
+    @Benchmark
+    public float greedy() {
+        boolean[] taken = new boolean[size];
+        float total = 0f;
+        for (int i = 0; i < size; i++) {
+            List<Integer> order = new ArrayList<>(size);
+            for (int j = 0; j < size; j++) {
+                order.add(j);
+            }
+            int row = i * size;
+            order.sort((a, b) -> Float.compare(costs[row + a], costs[row + b]));
+            for (int j : order) {
+                if (!taken[j]) {
+                    taken[j] = true;
+                    total += costs[row + j];
+                    break;
+                }
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public float optimalCold() {
+        Arrays.fill(assignment, -1);
+        Arrays.fill(potentials, 0f);
+        return solver.solve(costs, size, size, assignment, potentials);
+    }
+
+    @Benchmark
+    public float optimalWarm() {
+        drift();
+        return solver.solve(costs, size, size, assignment, potentials);
+    }
+
+    private float[] scatter(int count) {
+        float[] points = new float[count * 2];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = (float) random.nextDouble(64.0);
+        }
+        return points;
+    }
+
+    /** Everyone moves up to a block, as between two decisions */
+    private void drift() {
+        for (int i = 0; i < bots.length; i++) {
+            bots[i] += (float) random.nextDouble(-1.0, 1.0);
+            targets[i] += (float) random.nextDouble(-1.0, 1.0);
+        }
+        fillCosts();
+    }
+
+    private void fillCosts() {
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                float dx = bots[i * 2] - targets[j * 2];
+                float dz = bots[i * 2 + 1] - targets[j * 2 + 1];
+                costs[i * size + j] = (float) Math.sqrt(dx * dx + dz * dz);
+            }
+        }
+    }
+}
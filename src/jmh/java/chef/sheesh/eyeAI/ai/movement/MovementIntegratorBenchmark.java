@@ -0,0 +1,91 @@
+package chef.sheesh.eyeAI.ai.movement;
+
+import org.bukkit.Location;
+import org.bukkit.util.Vector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous Location/Vector based movement step with the
+ * allocation-free {@link MovementIntegrator}. Run with the gc profiler
+ * ({@code ./gradlew jmh}) and compare {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MovementIntegratorBenchmark {
+
+    @Param({"1000"})
+    public int bots;
+
+    private Location[] locations;
+    private Location[] targets;
+    private MutableVec3[] positions;
+    private MutableVec3[] velocities;
+    private double[] targetCoords;
+
+    @Setup
+    public void setup() {
+        locations = new Location[bots];
+        targets = new Location[bots];
+        positions = new MutableVec3[bots];
+        velocities = new MutableVec3[bots];
+        targetCoords = new double[bots * 3];
+        for (int i = 0; i < bots; i++) {
+            locations[i] = new Location(null, i, 64, -i);
+            targets[i] = new Location(null, i + 500, 64, -i + 500);
+            positions[i] = new MutableVec3(i, 64, -i);
+            velocities[i] = new MutableVec3();
+            targetCoords[i * 3] = i + 500;
+            targetCoords[i * 3 + 1] = 64;
+            targetCoords[i * 3 + 2] = -i + 500;
+        }
+    }
+
+    /**
+     * Previous approach: clone on read, toVector/subtract/normalize, new Location per step
+     */
+    @Benchmark
+    public void locationVectorStep(Blackhole bh) {
+        for (int i = 0; i < bots; i++) {
+            Location current = locations[i].clone();
+            Vector direction = targets[i].toVector().subtract(current.toVector());
+            double distance = direction.length();
+            if (distance < 0.5) {
+                // Arrived; restart so every iteration does the same work
+                locations[i] = new Location(null, i, 64, -i);
+                continue;
+            }
+            direction.normalize();
+            Vector newPos = current.toVector().add(direction.multiply(0.2));
+            Location next = new Location(current.getWorld(), newPos.getX(), newPos.getY(), newPos.getZ());
+            locations[i] = next.clone();
+            bh.consume(distance);
+        }
+    }
+
+    /**
+     * New approach: primitive positions stepped in place
+     */
+    @Benchmark
+    public void integratorStep(Blackhole bh) {
+        for (int i = 0; i < bots; i++) {
+            double distance = MovementIntegrator.stepTowards(positions[i],
+                    targetCoords[i * 3], targetCoords[i * 3 + 1], targetCoords[i * 3 + 2],
+                    0.2, velocities[i]);
+            if (distance < 0.5) {
+                positions[i].set(i, 64, -i);
+            }
+            bh.consume(distance);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Path queries of 100-2000 blocks on a synthetic grid: plain block-level A* against HPA*
+ * with an empty section cache (cold) and with the sections along the route already
+ * summarised (warm). Run with {@code ./gradlew jmh -PjmhInclude=HierarchicalPathfinder}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HierarchicalPathfinderBenchmark {
+
+    @Param({"100", "500", "1000", "2000"})
+    public int distance;
+
+    private SyntheticGrid grid;
+    private GridSearch search;
+    private HierarchicalPathfinder warm;
+    private long start;
+    private long goal;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        grid = new SyntheticGrid(42L);
+        search = new GridSearch();
+        start = NavCells.pack(2, SyntheticGrid.FLOOR + 1, 2);
+        goal = grid.openCell(2 + distance, 2 + distance / 3);
+        warm = new HierarchicalPathfinder(grid);
+        if (warm.findPath(start, goal) == null) {
+            throw new IllegalStateException("Synthetic grid has no path for distance " + distance);
+        }
+    }
+
+    @Benchmark
+    public long[] plainAStar() {
+        return search.findPath(grid, start, goal, null, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public long[] hierarchicalCold() {
+        return new HierarchicalPathfinder(grid).findPath(start, goal);
+    }
+
+    @Benchmark
+    public long[] hierarchicalWarm() {
+        return warm.findPath(start, goal);
+    }
+
+    /**
+     * Flat floor with 4x4 pillars of wall (25%) and raised steps (15%), both placed by hash.
+     * The tiles around the origin stay open.
+     */
+    static final class SyntheticGrid implements NavGrid {
+        static final int FLOOR = 63;
+        private final long seed;
+
+        SyntheticGrid(long seed) {
+            this.seed = seed;
+        }
+
+        private int tile(int x, int z) {
+            int tx = x >> 2;
+            int tz = z >> 2;
+            if (Math.abs(tx) <= 1 && Math.abs(tz) <= 1) {
+                return 0;
+            }
+            long h = (tx * 0x9E3779B97F4A7C15L) ^ (tz * 0xC2B2AE3D27D4EB4FL) ^ seed;
+            h ^= h >>> 31;
+            h *= 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 29;
+            int roll = (int) ((h >>> 1) % 100);
+            return roll < 25 ? 2 : roll < 40 ? 1 : 0;
+        }
+
+        /** First floor-level cell at or after x in the row z */
+        long openCell(int x, int z) {
+            while (tile(x, z) != 0) {
+                x++;
+            }
+            return NavCells.pack(x, FLOOR + 1, z);
+        }
+
+        @Override
+        public boolean isSolid(int x, int y, int z) {
+            if (y <= FLOOR) {
+                return true;
+            }
+            int tile = tile(x, z);
+            return tile == 1 ? y == FLOOR + 1 : tile == 2 && y <= FLOOR + 3;
+        }
+
+        @Override
+        public boolean isHazard(int x, int y, int z) {
+            return false;
+        }
+
+        @Override
+        public int getMinHeight() {
+            return 0;
+        }
+
+        @Override
+        public int getMaxHeight() {
+            return 128;
+        }
+    }
+}
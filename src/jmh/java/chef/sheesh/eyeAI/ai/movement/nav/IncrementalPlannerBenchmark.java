@@ -0,0 +1,169 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One step of a chase per operation: the target wanders to a neighbouring cell, the chaser
+ * advances along its last path and replans, either with a fresh A* or with an
+ * {@link IncrementalPlanner}. The terrain scenario also flips a few blocks around the chaser
+ * every fifth step. Run with {@code ./gradlew jmh -PjmhInclude=IncrementalPlanner}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IncrementalPlannerBenchmark {
+
+    @Param({"40", "120"})
+    public int distance;
+
+    @Param({"target", "terrain"})
+    public String scenario;
+
+    private final long[] neighborCells = new long[8];
+    private final float[] neighborCosts = new float[8];
+
+    private ChangingGrid grid;
+    private GridSearch search;
+    private GridSearch probe;
+    private IncrementalPlanner planner;
+    private SplittableRandom random;
+    private long agent;
+    private long target;
+    private int step;
+    private long replans;
+    private long expansions;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        // Fresh terrain each iteration so the overlay stays small
+        grid = new ChangingGrid(new HierarchicalPathfinderBenchmark.SyntheticGrid(42L));
+        search = new GridSearch();
+        probe = new GridSearch();
+        planner = new IncrementalPlanner(grid);
+        random = new SplittableRandom(7L);
+        agent = NavCells.pack(2, HierarchicalPathfinderBenchmark.SyntheticGrid.FLOOR + 1, 2);
+        target = spawnTarget();
+        step = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.printf("%n%s/%s: %.0f expansions per replan%n", distance, scenario,
+                replans == 0 ? 0.0 : expansions / (double) replans);
+    }
+
+    @Benchmark
+    public long[] fullAStar() {
+        advanceWorld();
+        long[] path = search.findPath(grid, agent, target, null, 100_000);
+        expansions += search.getExpansions();
+        advanceAgent(path);
+        return path;
+    }
+
+    @Benchmark
+    public long[] incremental() {
+        advanceWorld();
+        long[] path = planner.plan(agent, target);
+        expansions += planner.getExpansions();
+        advanceAgent(path);
+        return path;
+    }
+
+    private void advanceWorld() {
+        step++;
+        replans++;
+        int count = GridSearch.neighbors(grid, target, neighborCells, neighborCosts);
+        if (count > 0) {
+            target = neighborCells[random.nextInt(count)];
+        }
+        if (!"terrain".equals(scenario) || step % 5 != 0) {
+            return;
+        }
+        for (int i = 0; i < 3; i++) {
+            int x = NavCells.x(agent) + random.nextInt(21) - 10;
+            int y = HierarchicalPathfinderBenchmark.SyntheticGrid.FLOOR + 1 + random.nextInt(2);
+            int z = NavCells.z(agent) + random.nextInt(21) - 10;
+            long cell = NavCells.pack(x, y, z);
+            // Never bury either end of the chase
+            if (cell == agent || cell == target || NavCells.pack(x, y - 1, z) == agent
+                    || NavCells.pack(x, y - 1, z) == target) {
+                continue;
+            }
+            grid.flip(x, y, z);
+            planner.invalidate(x, y, z);
+        }
+    }
+
+    private void advanceAgent(long[] path) {
+        if (path != null && path.length > 1) {
+            agent = path[Math.min(path.length - 1, 1 + random.nextInt(2))];
+        }
+        if (NavCells.chebyshev(agent, target) <= 1) {
+            // Caught: the target reappears further away
+            target = spawnTarget();
+        }
+    }
+
+    /** Open cell about distance blocks ahead of the chaser that it can reach */
+    private long spawnTarget() {
+        int x = NavCells.x(agent) + distance;
+        int z = NavCells.z(agent) + distance / 3;
+        while (true) {
+            long cell = grid.base.openCell(x, z);
+            if (probe.findPath(grid, agent, cell, null, 100_000) != null) {
+                return cell;
+            }
+            x = NavCells.x(cell) + 4;
+        }
+    }
+
+    /** Synthetic grid with single blocks placed or removed on top */
+    static final class ChangingGrid implements NavGrid {
+        final HierarchicalPathfinderBenchmark.SyntheticGrid base;
+        private final Map<Long, Boolean> changed = new HashMap<>();
+
+        ChangingGrid(HierarchicalPathfinderBenchmark.SyntheticGrid base) {
+            this.base = base;
+        }
+
+        void flip(int x, int y, int z) {
+            changed.put(NavCells.pack(x, y, z), !isSolid(x, y, z));
+        }
+
+        @Override
+        public boolean isSolid(int x, int y, int z) {
+            Boolean solid = changed.get(NavCells.pack(x, y, z));
+            return solid != null ? solid : base.isSolid(x, y, z);
+        }
+
+        @Override
+        public boolean isHazard(int x, int y, int z) {
+            return false;
+        }
+
+        @Override
+        public int getMinHeight() {
+            return base.getMinHeight();
+        }
+
+        @Override
+        public int getMaxHeight() {
+            return base.getMaxHeight();
+        }
+    }
+}
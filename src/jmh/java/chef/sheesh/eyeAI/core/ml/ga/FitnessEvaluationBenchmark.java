@@ -0,0 +1,59 @@
+package chef.sheesh.eyeAI.core.ml.ga;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates one generation of bot-parameter genomes with headless episodes.
+ * Compare the {@code threads} params to check that throughput scales with cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FitnessEvaluationBenchmark {
+
+    @Param({"1", "2", "4", "0"})
+    public int threads;
+
+    @Param({"64"})
+    public int populationSize;
+
+    private FitnessEvaluationPool pool;
+    private FitnessEvaluator evaluator;
+    private List<GAOptimizer.Genome> population;
+    private int generation;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        pool = new FitnessEvaluationPool(threads);
+        evaluator = new HeadlessEpisodeEvaluator();
+        Random random = new Random(42);
+        population = new ArrayList<>(populationSize);
+        for (int i = 0; i < populationSize; i++) {
+            population.add(new GAOptimizer.Genome(BotParameters.GENE_COUNT, random));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public double evaluateGeneration() {
+        return pool.evaluate(population, evaluator, 42L, generation++, 0).evaluationsPerSecond();
+    }
+}
@@ -0,0 +1,101 @@
+package chef.sheesh.eyeAI.core.ml.rnn;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forward and backward throughput of {@link LstmEngine} for scalar versus Vector API
+ * kernels and double versus float inference. Select one configuration with
+ * {@code ./gradlew jmh -PjmhInclude=LstmBenchmark}; the vector rows fall back to
+ * scalar if the fork is started without the incubator module.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LstmBenchmark {
+
+    @Param({"scalar", "vector"})
+    public String kernels;
+
+    @Param({"DOUBLE", "FLOAT"})
+    public String precision;
+
+    @Param({"32", "128"})
+    public int hiddenSize;
+
+    private static final int INPUT_SIZE = 6;
+    private static final int OUTPUT_SIZE = 6;
+    private static final int SEQUENCE_LENGTH = 20;
+
+    private LstmEngine engine;
+    private LstmWeights weights;
+    private LstmTrace trace;
+    private LstmGradients gradients;
+    private double[] inputs;
+    private double[] targets;
+    private double[] input;
+    private double[] hidden;
+    private double[] cell;
+    private double[] output;
+
+    @Setup
+    public void setup() {
+        LstmKernels selected = "vector".equals(kernels) ? LstmKernels.best() : LstmKernels.scalar();
+        engine = new LstmEngine(selected, LstmEngine.Precision.valueOf(precision));
+        Random random = new Random(42);
+        weights = LstmWeights.random(INPUT_SIZE, hiddenSize, OUTPUT_SIZE, random);
+        trace = new LstmTrace(weights, SEQUENCE_LENGTH);
+        gradients = new LstmGradients(weights);
+        inputs = new double[SEQUENCE_LENGTH * INPUT_SIZE];
+        targets = new double[SEQUENCE_LENGTH * OUTPUT_SIZE];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = random.nextGaussian();
+        }
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = random.nextGaussian() * 0.5;
+        }
+        input = new double[INPUT_SIZE];
+        System.arraycopy(inputs, 0, input, 0, INPUT_SIZE);
+        hidden = new double[hiddenSize];
+        cell = new double[hiddenSize];
+        output = new double[OUTPUT_SIZE];
+    }
+
+    /**
+     * One stateful inference step, as used by prediction
+     */
+    @Benchmark
+    public void forwardStep(Blackhole bh) {
+        engine.step(weights, input, hidden, cell, output);
+        bh.consume(output);
+    }
+
+    /**
+     * Training forward pass over one sequence, recording the trace
+     */
+    @Benchmark
+    public void forwardSequence(Blackhole bh) {
+        engine.forward(weights, inputs, 0, SEQUENCE_LENGTH, null, null, trace);
+        bh.consume(trace);
+    }
+
+    /**
+     * Forward plus full backpropagation through time over one sequence
+     */
+    @Benchmark
+    public double forwardBackwardSequence() {
+        engine.forward(weights, inputs, 0, SEQUENCE_LENGTH, null, null, trace);
+        gradients.clear();
+        return engine.backward(weights, trace, targets, 0, gradients);
+    }
+}
@@ -0,0 +1,131 @@
+package chef.sheesh.eyeAI.core.sim.replay;
+
+import chef.sheesh.eyeAI.ai.movement.MutableVec3;
+import chef.sheesh.eyeAI.core.ml.lifecycle.QTableSnapshot;
+import chef.sheesh.eyeAI.core.sim.TrainingStep;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Replays a recorded training session as a fixed workload for the decision path. Pass a real
+ * log with {@code -p replayFile=/path/to/replay.eyrp}; by default a synthetic session with a
+ * fixed seed is recorded in setup, so every run replays the same decisions.
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhInclude=TickReplayBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TickReplayBenchmark {
+
+    @Param({""})
+    public String replayFile;
+
+    @Param({"50"})
+    public int bots;
+
+    @Param({"1200"})
+    public int ticks;
+
+    private Recording recording;
+    private QTableSnapshot model;
+    private TickReplayer replayer;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        File file = replayFile.isEmpty() ? recordSyntheticSession() : new File(replayFile);
+        recording = Recording.read(file);
+        replayer = new TickReplayer();
+
+        // A model that knows every recorded state, so each decision does a real table lookup
+        Map<Long, double[]> table = new HashMap<>();
+        Random random = new Random(42);
+        replayer.replay(recording, (stateHash, maxActions) -> {
+            table.computeIfAbsent(stateHash, s -> random.doubles(maxActions).toArray());
+            return 0;
+        });
+        model = QTableSnapshot.copyOf(1L, table);
+
+        TickReplayer.Result first = replayer.replay(recording, model::selectAction);
+        System.out.printf("%n%s%n%s%n", recording, first);
+    }
+
+    @Benchmark
+    public long replay() {
+        return replayer.replay(recording, model::selectAction).checksum;
+    }
+
+    /** Bots wandering over terrain with every fifth block solid, nudged and hurt now and then */
+    private File recordSyntheticSession() throws IOException {
+        File directory = Files.createTempDirectory("tick-replay").toFile();
+        directory.deleteOnExit();
+        long seed = 42L;
+        TickRecorder recorder = new TickRecorder(Logger.getLogger(TickReplayBenchmark.class.getName()));
+        recorder.start(directory, seed, 0L);
+
+        Random world = new Random(seed);
+        TrainingStep step = new TrainingStep();
+        TickRandom random = new TickRandom();
+        TrainingStep.ActionSelector explorer = (stateHash, maxActions) ->
+                (int) Math.floorMod(SessionSeed.mix(seed, stateHash), (long) maxActions);
+        double[] x = new double[bots];
+        double[] y = new double[bots];
+        double[] z = new double[bots];
+        double[] health = new double[bots];
+        for (int bot = 0; bot < bots; bot++) {
+            x[bot] = world.nextInt(256) + 0.5;
+            y[bot] = 64;
+            z[bot] = world.nextInt(256) + 0.5;
+            health[bot] = 20;
+        }
+        int[] offset = new int[3];
+        for (long tick = 1; tick <= ticks; tick++) {
+            recorder.beginTick(tick);
+            for (int bot = 0; bot < bots; bot++) {
+                if (world.nextInt(200) == 0) {
+                    x[bot] += world.nextDouble() - 0.5;
+                }
+                if (world.nextInt(100) == 0) {
+                    health[bot] = Math.max(1, health[bot] - 2);
+                }
+                random.reset(TickRandom.seedFor(seed, bot, tick));
+                step.decide(x[bot], y[bot], z[bot], health[bot], random, explorer);
+                int solidMask = 0;
+                for (int destination = 0; destination < TrainingStep.DESTINATIONS; destination++) {
+                    TrainingStep.destinationOffset(destination, offset);
+                    long block = SessionSeed.mix((long) Math.floor(x[bot]) + offset[0],
+                            SessionSeed.mix((long) Math.floor(y[bot]) + offset[1], (long) Math.floor(z[bot]) + offset[2]));
+                    if (Math.floorMod(block, 5L) == 0) {
+                        solidMask |= 1 << destination;
+                    }
+                }
+                recorder.bot(bot, x[bot], y[bot], z[bot], health[bot], solidMask, step.getAction());
+                MutableVec3 next = step.getNext();
+                x[bot] = next.x;
+                y[bot] = next.y;
+                z[bot] = next.z;
+            }
+            recorder.endTick();
+        }
+        recorder.stop();
+        File file = recorder.getOutputFile();
+        file.deleteOnExit();
+        return file;
+    }
+}
@@ -1,5 +1,6 @@
 package chef.sheesh.eyeAI.ai.agents;
 
+import chef.sheesh.eyeAI.ai.behavior.BehaviorTreeProfiler;
 import chef.sheesh.eyeAI.ai.behavior.IBehaviorTree;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
 import chef.sheesh.eyeAI.ai.fakeplayer.IFakePlayer;
@@ -140,7 +141,7 @@ public abstract class AbstractAgent implements IAgent {
         try {
             // Execute behavior tree if available
             if (behaviorTree != null) {
-                IBehaviorTree.ExecutionResult result = behaviorTree.execute(fakePlayer);
+                IBehaviorTree.ExecutionResult result = BehaviorTreeProfiler.get().executeRoot(behaviorTree, fakePlayer);
                 onBehaviorTreeResult(result);
             }
 
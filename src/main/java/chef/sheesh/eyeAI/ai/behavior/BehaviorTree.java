@@ -76,6 +76,13 @@ public abstract class BehaviorTree implements IBehaviorTree {
         return "Action";
     }
 
+    /**
+     * Execute a child node, routed through the profiler so sampled ticks are timed
+     */
+    protected ExecutionResult executeChild(IBehaviorTree child, IFakePlayer fakePlayer) {
+        return BehaviorTreeProfiler.get().execute(child, fakePlayer);
+    }
+
     /**
      * Helper method to mark node as running
      */
@@ -1,7 +1,10 @@
 package chef.sheesh.eyeAI.ai.behavior;
 
 import chef.sheesh.eyeAI.ai.behavior.nodes.*;
+import chef.sheesh.eyeAI.ai.behavior.nodes.team.FollowTeamMemberNode;
+import chef.sheesh.eyeAI.ai.behavior.nodes.team.IsInTeamConditionNode;
 import chef.sheesh.eyeAI.ai.core.DecisionContext;
+import chef.sheesh.eyeAI.ai.core.team.TeamRole;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayerState;
 import chef.sheesh.eyeAI.ai.fakeplayer.IFakePlayer;
@@ -85,7 +88,7 @@ public class BehaviorTreeFactory {
                     lastPatrolUpdate = currentTime;
                 }
 
-                return patrolNode.execute(fakePlayer);
+                return executeChild(patrolNode, fakePlayer);
             }
 
             private chef.sheesh.eyeAI.ai.behavior.nodes.PatrolNode createBasicPatrol(org.bukkit.Location center) {
@@ -146,6 +149,19 @@ public class BehaviorTreeFactory {
         return fleeTree;
     }
 
+    /**
+     * Create a tree for team members that follow the holder of a role, e.g. the leader.
+     * The holder is looked up again only when the team blackboard announces a new one.
+     */
+    public IBehaviorTree createTeamFollowTree(TeamRole roleToFollow) {
+        SequenceNode followTree = new SequenceNode(
+            new IsInTeamConditionNode(),
+            new FollowTeamMemberNode(roleToFollow)
+        );
+        followTree.setName("TeamFollow");
+        return followTree;
+    }
+
     /**
      * Create a complex combat tree with flee behavior and modern features
      */
@@ -275,7 +291,7 @@ public class BehaviorTreeFactory {
                     lastTargetLocation = target.getLocation().clone();
                 }
 
-                return moveNode.execute(fakePlayer);
+                return executeChild(moveNode, fakePlayer);
             }
 
             @Override
@@ -0,0 +1,386 @@
+package chef.sheesh.eyeAI.ai.behavior;
+
+import chef.sheesh.eyeAI.ai.fakeplayer.IFakePlayer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in, sampled execution profiler for behavior trees.
+ * Aggregates per-node-type call counts, result ratios and nanosecond timing
+ * histograms across all bots without locking.
+ *
+ * Timings include children; self time (inclusive minus children) is kept alongside,
+ * so shares of sampled time add up to 100% however deep the tree is. Anonymous nodes
+ * are keyed by their name or description and their class, see {@link #nodeKey}.
+ *
+ * Sampling is decided once per root execution (1 in N ticks per thread), so
+ * un-sampled ticks only pay a volatile read and a thread-local lookup per node.
+ */
+public final class BehaviorTreeProfiler {
+
+    /** Number of power-of-two nanosecond buckets (covers up to ~2^40ns). */
+    public static final int HISTOGRAM_BUCKETS = 40;
+
+    private static final BehaviorTreeProfiler INSTANCE = new BehaviorTreeProfiler();
+
+    private final Map<String, NodeStats> stats = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, String> ANONYMOUS_KEYS = new ConcurrentHashMap<>();
+    private final ThreadLocal<SampleState> sampleState = ThreadLocal.withInitial(SampleState::new);
+    private final LongAdder sampledTicks = new LongAdder();
+    private volatile boolean enabled = false;
+    private volatile int sampleRate = 100;
+    private volatile long enabledSince = 0L;
+
+    private BehaviorTreeProfiler() {
+    }
+
+    /**
+     * Get the shared profiler instance
+     */
+    public static BehaviorTreeProfiler get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Enable profiling, sampling one in {@code sampleRate} root executions per thread
+     */
+    public void enable(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+        this.enabledSince = System.currentTimeMillis();
+        this.enabled = true;
+    }
+
+    /**
+     * Disable profiling; collected statistics are kept until {@link #reset()}
+     */
+    public void disable() {
+        this.enabled = false;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public long getEnabledSince() {
+        return enabledSince;
+    }
+
+    public long getSampledTicks() {
+        return sampledTicks.sum();
+    }
+
+    /**
+     * Clear all collected statistics
+     */
+    public void reset() {
+        stats.clear();
+        sampledTicks.reset();
+    }
+
+    /**
+     * Execute the root of a bot's tree, deciding whether this tick is sampled
+     */
+    public IBehaviorTree.ExecutionResult executeRoot(IBehaviorTree root, IFakePlayer fakePlayer) {
+        if (!enabled) {
+            return root.execute(fakePlayer);
+        }
+
+        SampleState state = sampleState.get();
+        if (state.active || ++state.counter < sampleRate) {
+            // Nested root (tree inside a node) or un-sampled tick
+            return state.active ? execute(root, fakePlayer) : root.execute(fakePlayer);
+        }
+
+        state.counter = 0;
+        state.active = true;
+        state.childNanos = 0;
+        sampledTicks.increment();
+        try {
+            return execute(root, fakePlayer);
+        } finally {
+            state.active = false;
+        }
+    }
+
+    /**
+     * Execute a node, timing it when the current tick is sampled
+     */
+    public IBehaviorTree.ExecutionResult execute(IBehaviorTree node, IFakePlayer fakePlayer) {
+        SampleState state = enabled ? sampleState.get() : null;
+        if (state == null || !state.active) {
+            return node.execute(fakePlayer);
+        }
+
+        // Children add their inclusive time to childNanos while this node runs
+        long outerChildNanos = state.childNanos;
+        state.childNanos = 0;
+        long start = System.nanoTime();
+        IBehaviorTree.ExecutionResult result = null;
+        try {
+            result = node.execute(fakePlayer);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            long self = elapsed - state.childNanos;
+            state.childNanos = outerChildNanos + elapsed;
+            if (result != null) {
+                record(nodeKey(node), result, elapsed, self);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Record a single execution of a leaf node, whose self time is its whole time
+     */
+    public void record(String nodeType, IBehaviorTree.ExecutionResult result, long nanos) {
+        record(nodeType, result, nanos, nanos);
+    }
+
+    /**
+     * Record a single node execution
+     *
+     * @param nanos     time including children
+     * @param selfNanos time spent in the node itself
+     */
+    public void record(String nodeType, IBehaviorTree.ExecutionResult result, long nanos, long selfNanos) {
+        NodeStats nodeStats = stats.get(nodeType);
+        if (nodeStats == null) {
+            nodeStats = stats.computeIfAbsent(nodeType, NodeStats::new);
+        }
+        nodeStats.record(result, nanos, selfNanos);
+    }
+
+    /**
+     * Key statistics are kept under: the class name, or for anonymous nodes their name or
+     * description together with the generated class name, e.g. {@code Patrol (BehaviorTreeFactory$1)}
+     */
+    public static String nodeKey(IBehaviorTree node) {
+        Class<?> type = node.getClass();
+        String simpleName = type.getSimpleName();
+        if (!simpleName.isEmpty()) {
+            return simpleName;
+        }
+        return ANONYMOUS_KEYS.computeIfAbsent(type, t -> {
+            String binaryName = t.getName().substring(t.getName().lastIndexOf('.') + 1);
+            String label = node.getName();
+            if (label == null || label.isBlank()) {
+                label = node.getDescription();
+            }
+            return label == null || label.isBlank() ? binaryName : label + " (" + binaryName + ")";
+        });
+    }
+
+    /**
+     * Get statistics for a node type, or null if it has not been sampled
+     */
+    public NodeStats getStats(String nodeType) {
+        return stats.get(nodeType);
+    }
+
+    /**
+     * Get all node statistics sorted by total sampled time, most expensive first
+     */
+    public List<NodeStats> getStatsByTotalTime() {
+        List<NodeStats> result = new ArrayList<>(stats.values());
+        result.sort(Comparator.comparingLong(NodeStats::getTotalNanos).reversed());
+        return result;
+    }
+
+    /**
+     * Get all node statistics sorted by sampled self time, most expensive first
+     */
+    public List<NodeStats> getStatsBySelfTime() {
+        List<NodeStats> result = new ArrayList<>(stats.values());
+        result.sort(Comparator.comparingLong(NodeStats::getSelfNanos).reversed());
+        return result;
+    }
+
+    /**
+     * Sampled time of all roots; the self times of all node types add up to it
+     */
+    public long getSampledNanos() {
+        long total = 0;
+        for (NodeStats nodeStats : stats.values()) {
+            total += nodeStats.getSelfNanos();
+        }
+        return total;
+    }
+
+    /**
+     * Export aggregated statistics as flat metric names and values
+     */
+    public Map<String, Double> exportMetrics() {
+        Map<String, Double> metrics = new java.util.HashMap<>();
+        metrics.put("behaviortree.sampled_ticks", (double) getSampledTicks());
+        for (NodeStats nodeStats : stats.values()) {
+            String prefix = "behaviortree.node." + nodeStats.getNodeType() + ".";
+            metrics.put(prefix + "calls", (double) nodeStats.getCalls());
+            metrics.put(prefix + "avg_nanos", nodeStats.getAverageNanos());
+            metrics.put(prefix + "avg_self_nanos", nodeStats.getAverageSelfNanos());
+            metrics.put(prefix + "p99_nanos", (double) nodeStats.getPercentileNanos(0.99));
+            metrics.put(prefix + "success_ratio", nodeStats.getRatio(IBehaviorTree.ExecutionResult.SUCCESS));
+            metrics.put(prefix + "failure_ratio", nodeStats.getRatio(IBehaviorTree.ExecutionResult.FAILURE));
+            metrics.put(prefix + "running_ratio", nodeStats.getRatio(IBehaviorTree.ExecutionResult.RUNNING));
+        }
+        return metrics;
+    }
+
+    /**
+     * Generate a human-readable report of the node types with the most self time; share is
+     * self time over all sampled time
+     */
+    public String generateReport(int limit) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== Behavior Tree Profile ===\n");
+        sb.append(String.format("Enabled: %s, sample rate: 1/%d, sampled ticks: %d%n",
+                enabled, sampleRate, getSampledTicks()));
+
+        List<NodeStats> sorted = getStatsBySelfTime();
+        long grandTotal = getSampledNanos();
+        for (int i = 0; i < Math.min(limit, sorted.size()); i++) {
+            NodeStats s = sorted.get(i);
+            sb.append(String.format("%-28s calls=%-8d avg=%-9s self=%-9s p99=%-9s S/F/R=%.0f%%/%.0f%%/%.0f%% share=%.1f%%%n",
+                    s.getNodeType(),
+                    s.getCalls(),
+                    formatNanos(s.getAverageNanos()),
+                    formatNanos(s.getAverageSelfNanos()),
+                    formatNanos(s.getPercentileNanos(0.99)),
+                    s.getRatio(IBehaviorTree.ExecutionResult.SUCCESS) * 100,
+                    s.getRatio(IBehaviorTree.ExecutionResult.FAILURE) * 100,
+                    s.getRatio(IBehaviorTree.ExecutionResult.RUNNING) * 100,
+                    grandTotal > 0 ? s.getSelfNanos() * 100.0 / grandTotal : 0.0));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Format a nanosecond duration with a suitable unit
+     */
+    public static String formatNanos(double nanos) {
+        if (nanos >= 1_000_000) {
+            return String.format("%.2fms", nanos / 1_000_000);
+        } else if (nanos >= 1_000) {
+            return String.format("%.1fus", nanos / 1_000);
+        }
+        return String.format("%.0fns", nanos);
+    }
+
+    /**
+     * Per-thread sampling state, never shared between threads
+     */
+    private static final class SampleState {
+        private int counter;
+        private boolean active;
+        /** Inclusive time of the children of the node being timed */
+        private long childNanos;
+    }
+
+    /**
+     * Lock-free aggregated statistics for one node type
+     */
+    public static final class NodeStats {
+        private final String nodeType;
+        private final LongAdder success = new LongAdder();
+        private final LongAdder failure = new LongAdder();
+        private final LongAdder running = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder selfNanos = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+
+        NodeStats(String nodeType) {
+            this.nodeType = nodeType;
+        }
+
+        void record(IBehaviorTree.ExecutionResult result, long nanos, long self) {
+            switch (result) {
+                case SUCCESS -> success.increment();
+                case FAILURE -> failure.increment();
+                case RUNNING -> running.increment();
+            }
+            long clamped = Math.max(1L, nanos);
+            totalNanos.add(clamped);
+            selfNanos.add(Math.max(0L, self));
+            int bucket = Math.min(HISTOGRAM_BUCKETS - 1, 63 - Long.numberOfLeadingZeros(clamped));
+            histogram.incrementAndGet(bucket);
+        }
+
+        public String getNodeType() {
+            return nodeType;
+        }
+
+        public long getCalls() {
+            return success.sum() + failure.sum() + running.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        /** Time spent in this node type itself, children excluded */
+        public long getSelfNanos() {
+            return selfNanos.sum();
+        }
+
+        public double getAverageSelfNanos() {
+            long calls = getCalls();
+            return calls > 0 ? (double) getSelfNanos() / calls : 0.0;
+        }
+
+        public double getAverageNanos() {
+            long calls = getCalls();
+            return calls > 0 ? (double) getTotalNanos() / calls : 0.0;
+        }
+
+        public double getRatio(IBehaviorTree.ExecutionResult result) {
+            long calls = getCalls();
+            if (calls == 0) {
+                return 0.0;
+            }
+            long count = switch (result) {
+                case SUCCESS -> success.sum();
+                case FAILURE -> failure.sum();
+                case RUNNING -> running.sum();
+            };
+            return (double) count / calls;
+        }
+
+        /**
+         * Get a histogram bucket count; bucket {@code i} holds durations in [2^i, 2^(i+1)) ns
+         */
+        public long getBucket(int index) {
+            return histogram.get(index);
+        }
+
+        /**
+         * Estimate a percentile from the histogram (upper bound of the matching bucket)
+         */
+        public long getPercentileNanos(double percentile) {
+            long total = 0;
+            for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+                total += histogram.get(i);
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long threshold = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+                seen += histogram.get(i);
+                if (seen >= threshold) {
+                    return 1L << (i + 1);
+                }
+            }
+            return 1L << HISTOGRAM_BUCKETS;
+        }
+    }
+}
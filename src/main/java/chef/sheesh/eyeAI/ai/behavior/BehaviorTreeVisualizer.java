@@ -44,6 +44,55 @@ public class BehaviorTreeVisualizer {
         return sb.toString();
     }
 
+    /**
+     * Generate a tree view annotated with profiler timings, marking nodes whose type
+     * accounts for at least {@code hotShare} of all sampled time, children excluded, as hot
+     */
+    public static String visualizeHotPath(IBehaviorTree tree, double hotShare) {
+        BehaviorTreeProfiler profiler = BehaviorTreeProfiler.get();
+        long grandTotal = profiler.getSampledNanos();
+        StringBuilder sb = new StringBuilder();
+        appendHotPath(sb, tree, "", true, profiler, grandTotal, hotShare);
+        return sb.toString();
+    }
+
+    private static void appendHotPath(StringBuilder sb, IBehaviorTree tree, String prefix, boolean isLast,
+                                      BehaviorTreeProfiler profiler, long grandTotal, double hotShare) {
+        sb.append(prefix);
+        if (!prefix.isEmpty()) {
+            sb.append(isLast ? "└── " : "├── ");
+        }
+
+        BehaviorTreeProfiler.NodeStats stats = profiler.getStats(BehaviorTreeProfiler.nodeKey(tree));
+        if (stats == null || stats.getCalls() == 0) {
+            sb.append(label(tree)).append(" [not sampled]");
+        } else {
+            double share = grandTotal > 0 ? (double) stats.getSelfNanos() / grandTotal : 0.0;
+            sb.append(share >= hotShare ? "[HOT] " : "")
+              .append(label(tree))
+              .append(String.format(" [avg %s, self %s, p99 %s, S/F/R %.0f/%.0f/%.0f%%, %.1f%% of time]",
+                      BehaviorTreeProfiler.formatNanos(stats.getAverageNanos()),
+                      BehaviorTreeProfiler.formatNanos(stats.getAverageSelfNanos()),
+                      BehaviorTreeProfiler.formatNanos(stats.getPercentileNanos(0.99)),
+                      stats.getRatio(IBehaviorTree.ExecutionResult.SUCCESS) * 100,
+                      stats.getRatio(IBehaviorTree.ExecutionResult.FAILURE) * 100,
+                      stats.getRatio(IBehaviorTree.ExecutionResult.RUNNING) * 100,
+                      share * 100));
+        }
+        sb.append("\n");
+
+        List<IBehaviorTree> children = getChildren(tree);
+        for (int i = 0; i < children.size(); i++) {
+            String childPrefix = prefix + (prefix.isEmpty() ? "" : (isLast ? "    " : "│   "));
+            appendHotPath(sb, children.get(i), childPrefix, i == children.size() - 1, profiler, grandTotal, hotShare);
+        }
+    }
+
+    private static String label(IBehaviorTree tree) {
+        String name = tree.getName();
+        return name == null || name.isEmpty() ? BehaviorTreeProfiler.nodeKey(tree) : name;
+    }
+
     /**
      * Generate a compact single-line representation
      */
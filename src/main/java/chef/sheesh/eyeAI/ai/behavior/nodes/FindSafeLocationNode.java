@@ -2,17 +2,18 @@ package chef.sheesh.eyeAI.ai.behavior.nodes;
 
 import chef.sheesh.eyeAI.ai.behavior.BehaviorTree;
 import chef.sheesh.eyeAI.ai.fakeplayer.IFakePlayer;
+import chef.sheesh.eyeAI.ai.movement.PathService;
+import chef.sheesh.eyeAI.ai.movement.nav.NavGrid;
 import org.bukkit.Location;
-import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.WorldBorder;
-import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.util.Vector;
 
 /**
  * A node that finds a safe location for the agent to flee to.
  * The safe location is calculated by moving away from the current target.
+ * Candidates are checked against the shared navigation grid, never the live world.
  */
 public class FindSafeLocationNode extends BehaviorTree {
 
@@ -51,11 +52,12 @@ public class FindSafeLocationNode extends BehaviorTree {
         fleeVector.normalize();
 
         // Find a safe candidate with retries (angle offsets and radii)
-        Location safe = findSafeFleeLocation(agentLocation, fleeVector);
+        NavGrid grid = PathService.get().grid(agentLocation.getWorld());
+        Location safe = findSafeFleeLocation(grid, agentLocation, fleeVector);
         if (safe == null) {
             // As a last resort, try on-top-of-highest-block in the raw flee direction
             Location fallback = agentLocation.clone().add(fleeVector.clone().multiply(FLEE_DISTANCE));
-            safe = projectToTopSafe(agentLocation.getWorld(), fallback);
+            safe = projectToTopSafe(grid, agentLocation.getWorld(), fallback);
         }
 
         if (safe == null) {
@@ -80,7 +82,7 @@ public class FindSafeLocationNode extends BehaviorTree {
 
     // ===== Helpers =====
 
-    private Location findSafeFleeLocation(Location origin, Vector baseDirection) {
+    private Location findSafeFleeLocation(NavGrid grid, Location origin, Vector baseDirection) {
         World world = origin.getWorld();
         if (world == null) {
             return null;
@@ -97,8 +99,8 @@ public class FindSafeLocationNode extends BehaviorTree {
                     break;
                 }
                 Location candidate = origin.clone().add(dir.clone().multiply(r));
-                Location projected = projectToTopSafe(world, candidate);
-                if (projected != null && isLocationSafe(world, projected)) {
+                Location projected = projectToTopSafe(grid, world, candidate);
+                if (projected != null && isLocationSafe(grid, projected)) {
                     return projected;
                 }
             }
@@ -106,59 +108,46 @@ public class FindSafeLocationNode extends BehaviorTree {
         return null;
     }
 
-    private Location projectToTopSafe(World world, Location locXZ) {
+    private Location projectToTopSafe(NavGrid grid, World world, Location locXZ) {
         if (world == null) {
             return null;
         }
         // Keep XZ, find a reasonable Y using highest solid block at XZ
-        Block highest = world.getHighestBlockAt(locXZ);
-        Location above = highest.getLocation().add(0, 1, 0);
+        int x = locXZ.getBlockX();
+        int z = locXZ.getBlockZ();
+        int highest = grid.getHighestBlockY(x, z);
+        if (highest < grid.getMinHeight()) {
+            return null; // Empty column, or not read yet
+        }
+        Location above = new Location(world, x, highest + 1, z);
         // Ensure within world border
         WorldBorder border = world.getWorldBorder();
         if (!border.isInside(above)) {
             return null;
         }
         // Validate not on dangerous surface and enough headroom
-        if (isLocationSafe(world, above)) {
+        if (isLocationSafe(grid, above)) {
             return centerOnBlock(above);
         }
         return null;
     }
 
-    private boolean isLocationSafe(World world, Location loc) {
-        if (world == null) {
-            return false;
-        }
-        // Check headroom blocks are not solid
+    private boolean isLocationSafe(NavGrid grid, Location loc) {
+        int x = loc.getBlockX();
+        int y = loc.getBlockY();
+        int z = loc.getBlockZ();
+        // Check headroom blocks are neither solid nor harmful
         for (int i = 0; i < HEADROOM_BLOCKS; i++) {
-            Block head = world.getBlockAt(loc.getBlockX(), loc.getBlockY() + i, loc.getBlockZ());
-            if (head.getType().isSolid()) {
-                return false;
-            }
-            if (isHarmful(head.getType())) {
+            if (grid.isSolid(x, y + i, z) || grid.isHazard(x, y + i, z)) {
                 return false;
             }
         }
         // Check the ground block
-        Block ground = world.getBlockAt(loc.getBlockX(), loc.getBlockY() - 1, loc.getBlockZ());
-        if (!ground.getType().isSolid()) {
-            return false;
-        }
-        if (isHarmful(ground.getType())) {
+        if (!grid.isSolid(x, y - 1, z) || grid.isHazard(x, y - 1, z)) {
             return false;
         }
         // Basic liquid check at feet
-        Block feet = world.getBlockAt(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
-        return !isLiquid(feet.getType());
-    }
-
-    private boolean isHarmful(Material m) {
-        // Keep list conservative for broader API compatibility
-        return m == Material.LAVA || m == Material.FIRE || m == Material.CACTUS;
-    }
-
-    private boolean isLiquid(Material m) {
-        return m == Material.WATER || m == Material.LAVA;
+        return !grid.isLiquid(x, y, z);
     }
 
     private Location centerOnBlock(Location loc) {
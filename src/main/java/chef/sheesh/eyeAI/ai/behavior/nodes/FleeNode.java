@@ -93,7 +93,7 @@ public class FleeNode extends BehaviorTree {
 
         // Execute flee movement
         if (currentMovement != null) {
-            ExecutionResult movementResult = currentMovement.execute(fakePlayer);
+            ExecutionResult movementResult = executeChild(currentMovement, fakePlayer);
 
             switch (movementResult) {
                 case SUCCESS:
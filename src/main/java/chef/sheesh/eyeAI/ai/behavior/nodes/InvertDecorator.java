@@ -23,7 +23,7 @@ public class InvertDecorator extends DecoratorNode {
             return failure();
         }
 
-        ExecutionResult childResult = child.execute(fakePlayer);
+        ExecutionResult childResult = executeChild(child, fakePlayer);
 
         return switch (childResult) {
             case SUCCESS -> failure();
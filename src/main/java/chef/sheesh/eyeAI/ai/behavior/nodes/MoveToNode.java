@@ -3,9 +3,13 @@ package chef.sheesh.eyeAI.ai.behavior.nodes;
 import chef.sheesh.eyeAI.ai.behavior.BehaviorTree;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
 import chef.sheesh.eyeAI.ai.fakeplayer.IFakePlayer;
+import chef.sheesh.eyeAI.ai.movement.MovementIntegrator;
+import chef.sheesh.eyeAI.ai.movement.MutableVec3;
+import chef.sheesh.eyeAI.ai.movement.PathService;
+import chef.sheesh.eyeAI.ai.movement.nav.NavGrid;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Entity;
-import org.bukkit.util.Vector;
 
 /**
  * Action node that moves a fake player towards a target location.
@@ -19,7 +23,13 @@ public class MoveToNode extends BehaviorTree {
     private final double tolerance;
     private final boolean usePathfinding;
 
-    private Location currentTarget;
+    private static final double[] ALTERNATIVE_OFFSETS = {-1.0, 1.0, -2.0, 2.0};
+
+    // Movement state kept in primitives so each step is allocation-free
+    private final MutableVec3 currentTarget = new MutableVec3();
+    private final MutableVec3 nextPosition = new MutableVec3();
+    private final Location entityTargetScratch = new Location(null, 0, 0, 0);
+    private boolean hasCurrentTarget = false;
     private long lastMovementTime = 0;
 
     /**
@@ -65,14 +75,24 @@ public class MoveToNode extends BehaviorTree {
             return failure();
         }
 
-        Location currentLocation = realFakePlayer.getLocation();
+        MutableVec3 currentPosition = realFakePlayer.getPosition();
+        double targetX = targetLocation.getX();
+        double targetY = targetLocation.getY();
+        double targetZ = targetLocation.getZ();
+        double toleranceSquared = tolerance * tolerance;
 
-        if (currentLocation.distance(targetLocation) <= tolerance) {
+        if (currentPosition.distanceSquared(targetX, targetY, targetZ) <= toleranceSquared) {
             realFakePlayer.setState(chef.sheesh.eyeAI.ai.fakeplayer.FakePlayerState.IDLE);
             reset();
             return success();
         }
 
+        // Follow a planned path that is replanned as the target moves; steer directly until it arrives
+        if (usePathfinding && realFakePlayer.getPathfinder().chase(targetLocation)) {
+            realFakePlayer.setState(chef.sheesh.eyeAI.ai.fakeplayer.FakePlayerState.MOVING);
+            return running();
+        }
+
         long currentTime = System.currentTimeMillis();
         // 100ms between movements
         long movementCooldown = 100;
@@ -80,37 +100,29 @@ public class MoveToNode extends BehaviorTree {
             return running();
         }
 
-        if (currentTarget == null || currentLocation.distance(currentTarget) <= tolerance) {
-            currentTarget = calculateNextTarget(currentLocation, targetLocation);
-        }
-
-        if (currentTarget == null) {
-            reset();
-            return failure();
+        if (!hasCurrentTarget || currentPosition.distanceSquared(currentTarget) <= toleranceSquared) {
+            calculateNextTarget(currentPosition, targetX, targetY, targetZ);
         }
 
-        Vector direction = currentTarget.toVector().subtract(currentLocation.toVector());
-        double distance = direction.length();
+        double distance = MovementIntegrator.nextStep(currentPosition,
+                currentTarget.x, currentTarget.y, currentTarget.z, speed, nextPosition);
 
         if (distance < 0.1) {
-            currentTarget = calculateNextTarget(currentLocation, targetLocation);
+            calculateNextTarget(currentPosition, targetX, targetY, targetZ);
             return running();
         }
 
-        direction.normalize().multiply(Math.min(speed, distance));
-        Location newLocation = currentLocation.clone().add(direction);
-
-        if (!isLocationSafe(newLocation, realFakePlayer)) {
-            Location alternativeTarget = findAlternativeTarget(currentLocation, targetLocation);
-            if (alternativeTarget != null) {
-                currentTarget = alternativeTarget;
+        World world = realFakePlayer.getWorld();
+        NavGrid grid = world != null ? PathService.get().grid(world) : null;
+        if (!isLocationSafe(grid, nextPosition.x, nextPosition.y, nextPosition.z)) {
+            if (findAlternativeTarget(grid, currentPosition, targetX, targetY, targetZ)) {
                 return running();
             }
             reset();
             return failure();
         }
 
-        realFakePlayer.moveTo(newLocation);
+        realFakePlayer.moveTo(nextPosition.x, nextPosition.y, nextPosition.z);
         realFakePlayer.setState(chef.sheesh.eyeAI.ai.fakeplayer.FakePlayerState.MOVING);
         lastMovementTime = currentTime;
 
@@ -124,7 +136,10 @@ public class MoveToNode extends BehaviorTree {
                 return (Location) target;
             }
             if (target instanceof Entity) {
-                return ((Entity) target).getLocation();
+                return ((Entity) target).getLocation(entityTargetScratch);
+            }
+            if (target instanceof FakePlayer) {
+                return ((FakePlayer) target).getLocation(entityTargetScratch);
             }
             if (target instanceof IFakePlayer) {
                 return ((IFakePlayer) target).getLocation();
@@ -135,55 +150,55 @@ public class MoveToNode extends BehaviorTree {
         }
         Entity targetEntity = fakePlayer.getTarget();
         if (targetEntity != null) {
-            return targetEntity.getLocation();
+            return targetEntity.getLocation(entityTargetScratch);
         }
         return null;
     }
 
-    private Location calculateNextTarget(Location current, Location target) {
+    private void calculateNextTarget(MutableVec3 current, double targetX, double targetY, double targetZ) {
+        hasCurrentTarget = true;
         if (!usePathfinding) {
-            return target.clone();
-        }
-        Vector direction = target.toVector().subtract(current.toVector());
-        double distance = direction.length();
-        if (distance <= 2.0) {
-            return target.clone();
+            currentTarget.set(targetX, targetY, targetZ);
+            return;
         }
-        direction.normalize().multiply(2.0);
-        return current.clone().add(direction);
+        // Intermediate waypoint at most 2 blocks ahead
+        MovementIntegrator.nextStep(current, targetX, targetY, targetZ, 2.0, currentTarget);
     }
 
-    private boolean isLocationSafe(Location location, FakePlayer fakePlayer) {
-        if (location.getWorld() == null) {
+    private boolean isLocationSafe(NavGrid grid, double x, double y, double z) {
+        if (grid == null) {
             return false;
         }
-        Location checkLocation = location.clone();
-        checkLocation.setY(checkLocation.getY() - 0.1);
-        if (checkLocation.getBlock().getType().isSolid()) {
+        int blockX = (int) Math.floor(x);
+        int blockZ = (int) Math.floor(z);
+        if (grid.isSolid(blockX, (int) Math.floor(y - 0.1), blockZ)) {
             return false;
         }
-        checkLocation.setY(checkLocation.getY() + 1.8);
-        return !checkLocation.getBlock().getType().isSolid();
+        return !grid.isSolid(blockX, (int) Math.floor(y + 1.7), blockZ);
     }
 
-    private Location findAlternativeTarget(Location current, Location target) {
-        double[] offsets = {-1.0, 1.0, -2.0, 2.0};
-        for (double xOffset : offsets) {
-            for (double zOffset : offsets) {
-                Location alternative = current.clone().add(xOffset, 0, zOffset);
-                if (alternative.distance(target) < current.distance(target)) {
-                    if (isLocationSafe(alternative, null)) {
-                        return alternative;
-                    }
+    private boolean findAlternativeTarget(NavGrid grid, MutableVec3 current, double targetX, double targetY, double targetZ) {
+        double currentDistance = current.distanceSquared(targetX, targetY, targetZ);
+        for (double xOffset : ALTERNATIVE_OFFSETS) {
+            for (double zOffset : ALTERNATIVE_OFFSETS) {
+                double x = current.x + xOffset;
+                double z = current.z + zOffset;
+                double dx = targetX - x;
+                double dy = targetY - current.y;
+                double dz = targetZ - z;
+                if (dx * dx + dy * dy + dz * dz < currentDistance && isLocationSafe(grid, x, current.y, z)) {
+                    currentTarget.set(x, current.y, z);
+                    hasCurrentTarget = true;
+                    return true;
                 }
             }
         }
-        return null;
+        return false;
     }
 
     @Override
     public void reset() {
-        currentTarget = null;
+        hasCurrentTarget = false;
         lastMovementTime = 0;
         markNotRunning();
     }
@@ -50,7 +50,7 @@ public class ParallelNode extends CompositeNode {
         int runningCount = 0;
 
         for (IBehaviorTree child : children) {
-            ExecutionResult result = child.execute(fakePlayer);
+            ExecutionResult result = executeChild(child, fakePlayer);
             childResults.add(result);
 
             switch (result) {
@@ -4,6 +4,7 @@ import chef.sheesh.eyeAI.ai.behavior.BehaviorTree;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayerState;
 import chef.sheesh.eyeAI.ai.fakeplayer.IFakePlayer;
+import chef.sheesh.eyeAI.core.sim.replay.SessionSeed;
 import org.bukkit.Location;
 
 import java.util.ArrayList;
@@ -26,7 +27,7 @@ public class PatrolNode extends BehaviorTree {
     private long lastArrivalTime = 0;
     private boolean isWaiting = false;
     private MoveToNode currentMovement = null;
-    private final Random random = new Random();
+    private final Random random = SessionSeed.random("PatrolNode");
 
     public enum PatrolPattern {
         SEQUENTIAL,     // Follow waypoints in order
@@ -82,7 +83,7 @@ public class PatrolNode extends BehaviorTree {
 
         // Execute the current movement
         if (currentMovement != null) {
-            ExecutionResult movementResult = currentMovement.execute(fakePlayer);
+            ExecutionResult movementResult = executeChild(currentMovement, fakePlayer);
 
             switch (movementResult) {
                 case SUCCESS:
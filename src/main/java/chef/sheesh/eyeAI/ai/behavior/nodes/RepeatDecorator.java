@@ -32,7 +32,7 @@ public class RepeatDecorator extends DecoratorNode {
             return failure(); // Max attempts reached
         }
 
-        ExecutionResult childResult = child.execute(fakePlayer);
+        ExecutionResult childResult = executeChild(child, fakePlayer);
 
         switch (childResult) {
             case SUCCESS:
@@ -37,7 +37,7 @@ public class SelectorNode extends CompositeNode {
             return failure();
         }
 
-        ExecutionResult childResult = currentChild.execute(fakePlayer);
+        ExecutionResult childResult = executeChild(currentChild, fakePlayer);
 
         return switch (childResult) {
             case SUCCESS -> {
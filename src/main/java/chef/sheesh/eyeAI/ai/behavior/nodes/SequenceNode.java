@@ -37,7 +37,7 @@ public class SequenceNode extends CompositeNode {
             return success();
         }
 
-        ExecutionResult childResult = currentChild.execute(fakePlayer);
+        ExecutionResult childResult = executeChild(currentChild, fakePlayer);
 
         return switch (childResult) {
             case SUCCESS -> {
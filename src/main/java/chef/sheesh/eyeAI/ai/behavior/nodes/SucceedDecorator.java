@@ -24,7 +24,7 @@ public class SucceedDecorator extends DecoratorNode {
         }
 
         // Execute child but ignore result
-        child.execute(fakePlayer);
+        executeChild(child, fakePlayer);
         return success();
     }
 
@@ -40,7 +40,7 @@ public class TimeoutDecorator extends DecoratorNode {
             return failure();
         }
 
-        ExecutionResult childResult = child.execute(fakePlayer);
+        ExecutionResult childResult = executeChild(child, fakePlayer);
 
         if (childResult.isSuccess() || childResult.isFailure()) {
             // Child completed, reset timer
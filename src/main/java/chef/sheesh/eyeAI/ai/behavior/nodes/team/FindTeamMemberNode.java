@@ -2,6 +2,8 @@ package chef.sheesh.eyeAI.ai.behavior.nodes.team;
 
 import chef.sheesh.eyeAI.ai.behavior.BehaviorTree;
 import chef.sheesh.eyeAI.ai.core.team.Team;
+import chef.sheesh.eyeAI.ai.core.team.TeamBlackboard;
+import chef.sheesh.eyeAI.ai.core.team.TeamKeys;
 import chef.sheesh.eyeAI.ai.core.team.TeamRole;
 import chef.sheesh.eyeAI.ai.fakeplayer.IFakePlayer;
 
@@ -32,10 +34,17 @@ public class FindTeamMemberNode extends BehaviorTree {
             return failure();
         }
 
-        Optional<IFakePlayer> foundMember = team.getMembers().entrySet().stream()
-                .filter(entry -> entry.getValue() == roleToFind)
-                .map(Map.Entry::getKey)
-                .findFirst();
+        Optional<IFakePlayer> foundMember;
+        TeamBlackboard.Snapshot board = team.getBlackboard().snapshot();
+        if (board.getVersion() > 0) {
+            // The team publishes who holds each role
+            foundMember = Optional.ofNullable(board.get(TeamKeys.holderOf(roleToFind)));
+        } else {
+            foundMember = team.getMembers().entrySet().stream()
+                    .filter(entry -> entry.getValue() == roleToFind)
+                    .map(Map.Entry::getKey)
+                    .findFirst();
+        }
 
         if (foundMember.isPresent()) {
             fakePlayer.getBlackboard().put(blackboardKey, foundMember.get());
@@ -2,32 +2,47 @@ package chef.sheesh.eyeAI.ai.behavior.nodes.team;
 
 import chef.sheesh.eyeAI.ai.behavior.BehaviorTree;
 import chef.sheesh.eyeAI.ai.behavior.nodes.MoveToNode;
-import chef.sheesh.eyeAI.ai.behavior.nodes.SequenceNode;
+import chef.sheesh.eyeAI.ai.core.team.TeamKeys;
 import chef.sheesh.eyeAI.ai.core.team.TeamRole;
 import chef.sheesh.eyeAI.ai.fakeplayer.IFakePlayer;
 
+/**
+ * Follows the team member holding a role. The member is looked up again only when the team
+ * publishes a new holder for the role, not on every tick.
+ */
 public class FollowTeamMemberNode extends BehaviorTree {
 
-    private final BehaviorTree root;
     private static final String LEADER_KEY = "team_leader_to_follow";
 
+    private final TeamBlackboardChangedNode holderChanged;
+    private final FindTeamMemberNode find;
+    private final MoveToNode moveTo;
+
     public FollowTeamMemberNode(TeamRole roleToFollow) {
         this.name = "FollowTeamMember";
         this.description = "Follows a team member with role " + roleToFollow;
-        this.root = new SequenceNode(
-            new FindTeamMemberNode(roleToFollow, LEADER_KEY),
-            new MoveToNode(LEADER_KEY)
-        );
+        this.holderChanged = new TeamBlackboardChangedNode(TeamKeys.holderOf(roleToFollow));
+        this.find = new FindTeamMemberNode(roleToFollow, LEADER_KEY);
+        this.moveTo = new MoveToNode(LEADER_KEY);
     }
 
     @Override
     public ExecutionResult execute(IFakePlayer fakePlayer) {
-        return root.execute(fakePlayer);
+        boolean changed = executeChild(holderChanged, fakePlayer) == ExecutionResult.SUCCESS;
+        if (changed || !fakePlayer.getBlackboard().containsKey(LEADER_KEY)) {
+            if (executeChild(find, fakePlayer) != ExecutionResult.SUCCESS) {
+                fakePlayer.getBlackboard().remove(LEADER_KEY);
+                return failure();
+            }
+        }
+        return executeChild(moveTo, fakePlayer);
     }
 
     @Override
     public void reset() {
-        root.reset();
+        holderChanged.reset();
+        find.reset();
+        moveTo.reset();
     }
 
     @Override
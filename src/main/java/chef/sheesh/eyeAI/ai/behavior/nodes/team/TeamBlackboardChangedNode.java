@@ -0,0 +1,49 @@
+package chef.sheesh.eyeAI.ai.behavior.nodes.team;
+
+import chef.sheesh.eyeAI.ai.behavior.BehaviorTree;
+import chef.sheesh.eyeAI.ai.core.team.BlackboardKey;
+import chef.sheesh.eyeAI.ai.core.team.Team;
+import chef.sheesh.eyeAI.ai.fakeplayer.IFakePlayer;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Succeeds once each time a key on the agent's team blackboard changes, so a branch reacts to
+ * team news instead of re-checking the team every tick.
+ */
+public class TeamBlackboardChangedNode extends BehaviorTree {
+
+    private final BlackboardKey<?> key;
+    /** Version of the key each agent last reacted to */
+    private final Map<UUID, Long> seen = new ConcurrentHashMap<>();
+
+    public TeamBlackboardChangedNode(BlackboardKey<?> key) {
+        this.key = key;
+        this.name = "TeamBlackboardChanged";
+        this.description = "Checks if team blackboard key " + key.getName() + " changed";
+    }
+
+    @Override
+    public ExecutionResult execute(IFakePlayer fakePlayer) {
+        Team team = fakePlayer.getTeam();
+        if (team == null) {
+            return failure();
+        }
+        long version = team.getBlackboard().snapshot().versionOf(key);
+        Long last = seen.put(fakePlayer.getId(), version);
+        boolean changed = last == null ? version != 0 : last != version;
+        return changed ? success() : failure();
+    }
+
+    @Override
+    public void reset() {
+        seen.clear();
+    }
+
+    @Override
+    public String getCategory() {
+        return "Condition";
+    }
+}
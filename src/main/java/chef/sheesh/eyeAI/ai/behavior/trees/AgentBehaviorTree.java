@@ -39,7 +39,7 @@ public class AgentBehaviorTree extends BehaviorTree {
 
     @Override
     public ExecutionResult execute(IFakePlayer fakePlayer) {
-        return root.execute(fakePlayer);
+        return executeChild(root, fakePlayer);
     }
 
     @Override
@@ -36,7 +36,7 @@ public class AggressiveCombatBehaviorTree extends BehaviorTree {
 
     @Override
     public ExecutionResult execute(IFakePlayer fakePlayer) {
-        return root.execute(fakePlayer);
+        return executeChild(root, fakePlayer);
     }
 
     @Override
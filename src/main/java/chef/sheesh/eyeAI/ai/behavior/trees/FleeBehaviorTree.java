@@ -33,7 +33,7 @@ public class FleeBehaviorTree extends BehaviorTree {
 
     @Override
     public ExecutionResult execute(IFakePlayer fakePlayer) {
-        return root.execute(fakePlayer);
+        return executeChild(root, fakePlayer);
     }
 
     @Override
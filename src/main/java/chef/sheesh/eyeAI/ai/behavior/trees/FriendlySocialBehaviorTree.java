@@ -26,7 +26,7 @@ public class FriendlySocialBehaviorTree extends BehaviorTree {
 
     @Override
     public ExecutionResult execute(IFakePlayer fakePlayer) {
-        return root.execute(fakePlayer);
+        return executeChild(root, fakePlayer);
     }
 
     @Override
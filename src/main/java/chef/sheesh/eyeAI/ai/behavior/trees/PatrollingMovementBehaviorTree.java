@@ -40,7 +40,7 @@ public class PatrollingMovementBehaviorTree extends BehaviorTree {
 
     @Override
     public ExecutionResult execute(IFakePlayer fakePlayer) {
-        return root.execute(fakePlayer);
+        return executeChild(root, fakePlayer);
     }
 
     @Override
@@ -24,7 +24,7 @@ public class LeaderBehaviorTree extends BehaviorTree {
     @Override
     public ExecutionResult execute(IFakePlayer fakePlayer) {
         // For now, the leader just stands still.
-        return root.execute(fakePlayer);
+        return executeChild(root, fakePlayer);
     }
 
     @Override
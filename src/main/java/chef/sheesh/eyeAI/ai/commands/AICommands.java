@@ -1,11 +1,33 @@
 package chef.sheesh.eyeAI.ai.commands;
 
+import chef.sheesh.eyeAI.ai.behavior.BehaviorTreeProfiler;
+import chef.sheesh.eyeAI.ai.behavior.BehaviorTreeVisualizer;
 import chef.sheesh.eyeAI.ai.core.IAIEngine;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayerManager;
 import chef.sheesh.eyeAI.ai.fakeplayer.IFakePlayer;
 import chef.sheesh.eyeAI.bootstrap.ChefAI;
 import chef.sheesh.eyeAI.core.ai.AIManager;
+import chef.sheesh.eyeAI.core.ml.MLCore;
+import chef.sheesh.eyeAI.core.ml.features.FeatureImportanceService;
+import chef.sheesh.eyeAI.core.ml.features.FeatureMask;
+import chef.sheesh.eyeAI.core.ml.features.FeatureReport;
+import chef.sheesh.eyeAI.core.ml.ga.BotParameters;
+import chef.sheesh.eyeAI.core.ml.ga.GAOptimizer;
+import chef.sheesh.eyeAI.core.ml.ga.IslandEvolutionEngine;
+import chef.sheesh.eyeAI.core.ml.lifecycle.ModelLifecycleManager;
+import chef.sheesh.eyeAI.core.ml.lifecycle.QTableSnapshot;
+import chef.sheesh.eyeAI.core.ml.registry.ModelCodecs;
+import chef.sheesh.eyeAI.core.ml.registry.ModelMetadata;
+import chef.sheesh.eyeAI.core.ml.registry.ModelRegistry;
+import chef.sheesh.eyeAI.core.ml.registry.ModelType;
+import chef.sheesh.eyeAI.core.sim.FakePlayerEngine;
+import chef.sheesh.eyeAI.core.sim.replay.Recording;
+import chef.sheesh.eyeAI.core.sim.replay.SessionSeed;
+import chef.sheesh.eyeAI.core.sim.replay.TickRecorder;
+import chef.sheesh.eyeAI.core.sim.replay.TickReplayer;
+import chef.sheesh.eyeAI.infra.diagnostic.AIEventLog;
+import chef.sheesh.eyeAI.infra.util.Async;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.command.Command;
@@ -15,7 +37,10 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -73,6 +98,18 @@ public class AICommands implements CommandExecutor, TabCompleter {
             case "training":
             case "status":
                 return handleTrainingStatus(sender);
+            case "profile":
+                return handleProfile(sender, args);
+            case "log":
+                return handleEventLog(sender, args);
+            case "model":
+                return handleModel(sender, args);
+            case "features":
+                return handleFeatures(sender, args);
+            case "replay":
+                return handleReplay(sender, args);
+            case "ga":
+                return handleGa(sender, args);
             default:
                 sender.sendMessage(ChatColor.RED + "Unknown command. Use /ai help for help.");
                 return false;
@@ -253,6 +290,390 @@ public class AICommands implements CommandExecutor, TabCompleter {
         return true;
     }
 
+    private boolean handleProfile(CommandSender sender, String[] args) {
+        BehaviorTreeProfiler profiler = BehaviorTreeProfiler.get();
+        String action = args.length >= 2 ? args[1].toLowerCase() : "report";
+
+        switch (action) {
+            case "on" -> {
+                int sampleRate = 100;
+                if (args.length >= 3) {
+                    try {
+                        sampleRate = Integer.parseInt(args[2]);
+                    } catch (NumberFormatException e) {
+                        sender.sendMessage(ChatColor.RED + "Invalid sample rate: " + args[2]);
+                        return true;
+                    }
+                }
+                profiler.enable(sampleRate);
+                sender.sendMessage(ChatColor.GREEN + "Behavior tree profiling enabled (1 in " + profiler.getSampleRate() + " ticks).");
+            }
+            case "off" -> {
+                profiler.disable();
+                sender.sendMessage(ChatColor.GREEN + "Behavior tree profiling disabled. Statistics are kept until reset.");
+            }
+            case "reset" -> {
+                profiler.reset();
+                sender.sendMessage(ChatColor.GREEN + "Behavior tree profile cleared.");
+            }
+            case "tree" -> {
+                if (args.length < 3) {
+                    sender.sendMessage(ChatColor.RED + "Usage: /ai profile tree <id|name>");
+                    return true;
+                }
+                Optional<FakePlayer> target = findFakePlayer(args[2]);
+                if (target.isEmpty() || target.get().getBehaviorTree() == null) {
+                    sender.sendMessage(ChatColor.RED + "No fake player with a behavior tree found: " + args[2]);
+                    return true;
+                }
+                sender.sendMessage(ChatColor.GOLD + "=== Hot Path: " + target.get().getName() + " ===");
+                for (String line : BehaviorTreeVisualizer.visualizeHotPath(target.get().getBehaviorTree(), 0.2).split("\n")) {
+                    sender.sendMessage(ChatColor.GRAY + line);
+                }
+            }
+            case "report" -> {
+                for (String line : profiler.generateReport(10).split("\n")) {
+                    sender.sendMessage(ChatColor.GRAY + line);
+                }
+            }
+            default -> sender.sendMessage(ChatColor.RED + "Usage: /ai profile <on [rate]|off|report|tree <id|name>|reset>");
+        }
+        return true;
+    }
+
+    private boolean handleEventLog(CommandSender sender, String[] args) {
+        AIEventLog eventLog = AIEventLog.get();
+        if (args.length >= 2 && !args[1].equalsIgnoreCase("status")) {
+            AIEventLog.Category category = AIEventLog.Category.fromKey(args[1]);
+            if (category == null || args.length < 4) {
+                sender.sendMessage(ChatColor.RED + "Usage: /ai log [status|<category> <sampleEvery> <maxPerSecond>]");
+                return true;
+            }
+            try {
+                eventLog.configure(category, Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+            } catch (NumberFormatException e) {
+                sender.sendMessage(ChatColor.RED + "Sample rate and limit must be numbers.");
+                return true;
+            }
+            sender.sendMessage(ChatColor.GREEN + "Event log " + category.getKey() + ": 1 in " + eventLog.getSampleEvery(category)
+                    + ", max " + eventLog.getMaxPerSecond(category) + "/s");
+            return true;
+        }
+
+        sender.sendMessage(ChatColor.GOLD + "=== AI Event Log ===");
+        sender.sendMessage(ChatColor.GRAY + "Writer: " + (eventLog.isRunning() ? ChatColor.GREEN + "running" : ChatColor.RED + "stopped")
+                + (eventLog.getOutputFile() != null ? ChatColor.GRAY + " (" + eventLog.getOutputFile().getName() + ")" : ""));
+        sender.sendMessage(ChatColor.GRAY + "Written: " + ChatColor.WHITE + eventLog.getWrittenCount()
+                + ChatColor.GRAY + ", pending: " + ChatColor.WHITE + eventLog.getPending()
+                + ChatColor.GRAY + ", dropped: " + ChatColor.WHITE + eventLog.getDroppedCount());
+        for (AIEventLog.Category category : AIEventLog.Category.values()) {
+            sender.sendMessage(ChatColor.YELLOW + category.getKey() + ChatColor.GRAY + ": 1 in " + eventLog.getSampleEvery(category)
+                    + ", max " + eventLog.getMaxPerSecond(category) + "/s, accepted " + eventLog.getAccepted(category)
+                    + ", rate limited " + eventLog.getSuppressed(category));
+        }
+        return true;
+    }
+
+    private boolean handleModel(CommandSender sender, String[] args) {
+        if (aiManager == null || aiManager.ml() == null) {
+            sender.sendMessage(ChatColor.RED + "ML Core not available");
+            return true;
+        }
+        ModelLifecycleManager lifecycle = aiManager.ml().getModelLifecycle();
+        String action = args.length >= 2 ? args[1].toLowerCase() : "status";
+
+        switch (action) {
+            case "evaluate" -> {
+                sender.sendMessage(ChatColor.YELLOW + "Evaluating candidate model in shadow...");
+                aiManager.ml().proposeCandidate().thenAccept(decision ->
+                        sender.sendMessage((decision.outcome == ModelLifecycleManager.PromotionDecision.Outcome.PROMOTED
+                                ? ChatColor.GREEN : ChatColor.YELLOW) + "Candidate " + decision));
+            }
+            case "validate" -> {
+                sender.sendMessage(ChatColor.YELLOW + "Cross-validating the Q-table on recorded experiences...");
+                aiManager.ml().crossValidateQTable(System.nanoTime()).whenComplete((result, throwable) ->
+                        sender.sendMessage(throwable == null
+                                ? ChatColor.GREEN + result.toString()
+                                : ChatColor.RED + "Validation failed: " + throwable.getMessage()));
+            }
+            case "rollback" -> {
+                if (lifecycle.rollback("manual rollback by " + sender.getName())) {
+                    sender.sendMessage(ChatColor.GREEN + "Rolled back to model v" + lifecycle.getStatus().servingVersion);
+                } else {
+                    sender.sendMessage(ChatColor.RED + "No previous model to roll back to.");
+                }
+            }
+            case "status" -> {
+                ModelLifecycleManager.LifecycleStatus status = lifecycle.getStatus();
+                sender.sendMessage(ChatColor.GOLD + "=== Model Lifecycle ===");
+                sender.sendMessage(ChatColor.GRAY + "Serving: " + ChatColor.WHITE + "v" + status.servingVersion
+                        + ChatColor.GRAY + " (" + status.servingStates + " states)"
+                        + (status.previousVersion >= 0 ? ", rollback to v" + status.previousVersion : ""));
+                sender.sendMessage(ChatColor.GRAY + "Live reward: " + ChatColor.WHITE + String.format("%.3f", status.liveRewardAverage)
+                        + (status.monitoring ? ChatColor.GRAY + String.format(" (watching, baseline %.3f, %d observed)",
+                        status.baselineReward, status.observedSincePromotion) : ""));
+                sender.sendMessage(ChatColor.GRAY + "Recorded: " + ChatColor.WHITE + status.recordedExperiences
+                        + ChatColor.GRAY + ", promotions: " + ChatColor.WHITE + status.promotions
+                        + ChatColor.GRAY + ", rejections: " + ChatColor.WHITE + status.rejections
+                        + ChatColor.GRAY + ", rollbacks: " + ChatColor.WHITE + status.rollbacks);
+                if (status.lastDecision != null) {
+                    sender.sendMessage(ChatColor.GRAY + "Last decision: " + ChatColor.WHITE + status.lastDecision);
+                    if (status.lastDecision.report != null) {
+                        sender.sendMessage(ChatColor.GRAY + "  live " + status.lastDecision.report.live);
+                        sender.sendMessage(ChatColor.GRAY + "  candidate " + status.lastDecision.report.candidate);
+                    }
+                }
+            }
+            case "versions" -> {
+                ModelType type = args.length >= 3 ? ModelType.fromKey(args[2]) : ModelType.Q_TABLE;
+                if (type == null) {
+                    sender.sendMessage(ChatColor.RED + "Unknown model type: " + args[2]);
+                    return true;
+                }
+                ModelRegistry registry = aiManager.ml().getModelRegistry();
+                long servingVersion = registry.getServing(type).map(m -> m.version).orElse(-1L);
+                sender.sendMessage(ChatColor.GOLD + "=== " + type.getKey() + " versions ===");
+                List<ModelMetadata> versions = registry.list(type);
+                for (ModelMetadata metadata : versions.subList(0, Math.min(10, versions.size()))) {
+                    sender.sendMessage((metadata.version == servingVersion ? ChatColor.GREEN + "* " : ChatColor.GRAY + "  ")
+                            + metadata + (metadata.note != null ? ChatColor.DARK_GRAY + " " + metadata.note : ""));
+                }
+                if (versions.isEmpty()) {
+                    sender.sendMessage(ChatColor.GRAY + "No versions published.");
+                }
+            }
+            case "serve" -> {
+                ModelType type = args.length >= 4 ? ModelType.fromKey(args[2]) : null;
+                if (type == null) {
+                    sender.sendMessage(ChatColor.RED + "Usage: /ai model serve <type> <version>");
+                    return true;
+                }
+                long version;
+                try {
+                    version = Long.parseLong(args[3]);
+                } catch (NumberFormatException e) {
+                    sender.sendMessage(ChatColor.RED + "Invalid version: " + args[3]);
+                    return true;
+                }
+                aiManager.ml().getModelRegistry().serve(type, version).whenComplete((metadata, throwable) ->
+                        sender.sendMessage(throwable == null
+                                ? ChatColor.GREEN + "Now serving " + metadata
+                                : ChatColor.RED + "Could not serve " + type.getKey() + " v" + version + ": " + throwable.getMessage()));
+            }
+            default -> sender.sendMessage(ChatColor.RED + "Usage: /ai model [status|evaluate|validate|rollback|versions [type]|serve <type> <version>]");
+        }
+        return true;
+    }
+
+    private boolean handleGa(CommandSender sender, String[] args) {
+        if (aiManager == null || aiManager.ml() == null) {
+            sender.sendMessage(ChatColor.RED + "ML Core not available");
+            return true;
+        }
+        MLCore ml = aiManager.ml();
+        String action = args.length >= 2 ? args[1].toLowerCase() : "status";
+
+        switch (action) {
+            case "status" -> {
+                BotParameters best = ml.getBestBotParameters();
+                sender.sendMessage(ChatColor.GOLD + "=== Bot Parameter Evolution ===");
+                sender.sendMessage(ChatColor.GRAY + "Best: " + ChatColor.WHITE + (best != null ? best : "nothing evolved yet"));
+                if (best != null) {
+                    sender.sendMessage(ChatColor.GRAY + "Nearest personality: " + ChatColor.WHITE + best.nearestPersonality());
+                }
+                sender.sendMessage(ChatColor.GRAY + "Applied to new training bots: " + ChatColor.WHITE + ml.isApplyParametersToBots());
+            }
+            case "evolve" -> {
+                sender.sendMessage(ChatColor.YELLOW + "Evolving one generation...");
+                ml.evolveGA().whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        sender.sendMessage(ChatColor.RED + "Evolution failed: " + throwable.getMessage());
+                    } else if (result instanceof GAOptimizer.GAEvolutionResult generation) {
+                        sender.sendMessage(ChatColor.GREEN + String.format("Generation %d: best %.3f, average %.3f, best ever %.3f",
+                                generation.generation, generation.bestFitness, generation.avgFitness, generation.historicalBestFitness));
+                    }
+                });
+            }
+            case "apply" -> {
+                BotParameters best = ml.getBestBotParameters();
+                if (best == null) {
+                    sender.sendMessage(ChatColor.RED + "Nothing evolved yet; run /ai ga evolve first.");
+                    return true;
+                }
+                int applied = 0;
+                for (FakePlayer fakePlayer : fakePlayerManager.getActiveFakePlayers()) {
+                    ml.applyBestParameters(fakePlayer);
+                    applied++;
+                }
+                sender.sendMessage(ChatColor.GREEN + "Applied " + best.nearestPersonality()
+                        + " personality to " + applied + " fake players.");
+            }
+            case "islands" -> handleGaIslands(sender, ml, args);
+            default -> sender.sendMessage(ChatColor.RED + "Usage: /ai ga [status|evolve|apply|islands]");
+        }
+        return true;
+    }
+
+    private void handleGaIslands(CommandSender sender, MLCore ml, String[] args) {
+        String action = args.length >= 3 ? args[2].toLowerCase() : "status";
+        switch (action) {
+            case "start" -> {
+                IslandEvolutionEngine.IslandConfig islandConfig = new IslandEvolutionEngine.IslandConfig();
+                if (args.length >= 4) {
+                    try {
+                        islandConfig.islands = Math.max(1, Integer.parseInt(args[3]));
+                    } catch (NumberFormatException e) {
+                        sender.sendMessage(ChatColor.RED + "Invalid island count: " + args[3]);
+                        return;
+                    }
+                }
+                ml.startIslandEvolution(islandConfig);
+                sender.sendMessage(ChatColor.GREEN + "Started island evolution on " + islandConfig.islands + " islands.");
+            }
+            case "stop" -> {
+                ml.stopIslandEvolution();
+                sender.sendMessage(ChatColor.GREEN + "Stopped island evolution.");
+            }
+            case "status" -> {
+                IslandEvolutionEngine engine = ml.getIslandEngine();
+                if (engine == null) {
+                    sender.sendMessage(ChatColor.YELLOW + "Island evolution has not been started.");
+                    return;
+                }
+                GAOptimizer.GAStatistics stats = engine.getStatistics();
+                sender.sendMessage(ChatColor.GOLD + "=== Island Evolution ===");
+                sender.sendMessage(ChatColor.GRAY + "Running: " + ChatColor.WHITE + engine.isRunning());
+                sender.sendMessage(ChatColor.GRAY + "Islands: " + ChatColor.WHITE + stats.islands.size()
+                        + ChatColor.GRAY + ", epoch: " + ChatColor.WHITE + stats.currentGeneration);
+                sender.sendMessage(ChatColor.GRAY + String.format("Best ever: %.3f, average: %.3f, %.1f evaluations/s",
+                        engine.getBestFitness(), stats.averageFitness, stats.evaluationsPerSecond));
+            }
+            default -> sender.sendMessage(ChatColor.RED + "Usage: /ai ga islands [status|start [count]|stop]");
+        }
+    }
+
+    private boolean handleReplay(CommandSender sender, String[] args) {
+        if (aiManager == null || aiManager.sim() == null || aiManager.ml() == null) {
+            sender.sendMessage(ChatColor.RED + "Training engine not available");
+            return true;
+        }
+        FakePlayerEngine engine = aiManager.sim();
+        TickRecorder recorder = engine.getRecorder();
+        File directory = new File(ChefAI.get().getDataFolder(), "replays");
+        String action = args.length >= 2 ? args[1].toLowerCase() : "status";
+
+        switch (action) {
+            case "start" -> sender.sendMessage(engine.startRecording(directory)
+                    ? ChatColor.GREEN + "Recording training ticks to " + recorder.getOutputFile().getName()
+                    : ChatColor.RED + "Could not start recording (already recording?)");
+            case "stop" -> {
+                engine.stopRecording();
+                sender.sendMessage(ChatColor.GREEN + "Recorded " + recorder.getTicks() + " ticks");
+            }
+            case "status" -> {
+                sender.sendMessage(ChatColor.GOLD + "=== Tick Replay ===");
+                sender.sendMessage(ChatColor.GRAY + "Session seed: " + ChatColor.WHITE + SessionSeed.get());
+                sender.sendMessage(ChatColor.GRAY + "Recorder: " + (recorder.isRecording() ? ChatColor.GREEN + "recording" : ChatColor.RED + "stopped")
+                        + (recorder.getOutputFile() != null ? ChatColor.GRAY + " (" + recorder.getOutputFile().getName() + ", "
+                        + recorder.getTicks() + " ticks, " + recorder.getWrittenBytes() / 1024 + " KiB)" : ""));
+            }
+            case "run", "diff" -> {
+                if (args.length < 3 || action.equals("diff") && args.length < 5) {
+                    sender.sendMessage(ChatColor.RED + "Usage: /ai replay run <file> [version|serving] | diff <file> <version|serving> <version|serving>");
+                    return true;
+                }
+                File file = new File(directory, new File(args[2]).getName());
+                if (!file.isFile()) {
+                    sender.sendMessage(ChatColor.RED + "No replay " + args[2] + " in " + directory.getName());
+                    return true;
+                }
+                String first = args.length >= 4 ? args[3] : "serving";
+                String second = action.equals("diff") ? args[4] : null;
+                sender.sendMessage(ChatColor.YELLOW + "Replaying " + file.getName() + "...");
+                CompletableFuture.runAsync(() -> {
+                    try {
+                        Recording recording = Recording.read(file);
+                        TickReplayer replayer = new TickReplayer();
+                        TickReplayer.Result a = replayer.replay(recording, loadQTable(first)::selectAction);
+                        sender.sendMessage(ChatColor.GRAY + recording.toString());
+                        sender.sendMessage(ChatColor.GREEN + first + ": " + a);
+                        if (second != null) {
+                            TickReplayer.Result b = replayer.replay(recording, loadQTable(second)::selectAction);
+                            sender.sendMessage(ChatColor.GREEN + second + ": " + b);
+                            sender.sendMessage(ChatColor.GOLD + TickReplayer.compare(a, b).toString());
+                        }
+                    } catch (IOException | NumberFormatException e) {
+                        sender.sendMessage(ChatColor.RED + "Replay failed: " + e.getMessage());
+                    }
+                }, Async.IO);
+            }
+            default -> sender.sendMessage(ChatColor.RED + "Usage: /ai replay [status|start|stop|run <file> [version]|diff <file> <a> <b>]");
+        }
+        return true;
+    }
+
+    /**
+     * A registry version of the Q-table, or the serving snapshot
+     */
+    private QTableSnapshot loadQTable(String version) throws IOException {
+        if (version.equalsIgnoreCase("serving")) {
+            return aiManager.ml().getModelLifecycle().getServingModel();
+        }
+        long registryVersion = Long.parseLong(version);
+        return QTableSnapshot.copyOf(registryVersion, aiManager.ml().getModelRegistry().load(ModelCodecs.Q_TABLE, registryVersion));
+    }
+
+    private boolean handleFeatures(CommandSender sender, String[] args) {
+        if (aiManager == null || aiManager.ml() == null) {
+            sender.sendMessage(ChatColor.RED + "ML Core not available");
+            return true;
+        }
+        FeatureImportanceService service = aiManager.ml().getFeatureImportance();
+        String action = args.length >= 2 ? args[1].toLowerCase() : "report";
+
+        switch (action) {
+            case "analyze" -> {
+                sender.sendMessage(ChatColor.YELLOW + "Analyzing " + service.getStore().size() + " feature samples...");
+                service.analyze().whenComplete((report, throwable) -> sender.sendMessage(throwable == null
+                        ? ChatColor.GREEN + "Feature analysis done: " + report
+                        : ChatColor.RED + "Feature analysis failed: " + throwable.getMessage()));
+            }
+            case "report" -> {
+                FeatureReport report = service.getLatestReport();
+                if (report == null) {
+                    sender.sendMessage(ChatColor.GRAY + "No analysis yet. Use /ai features analyze.");
+                    return true;
+                }
+                sender.sendMessage(ChatColor.GOLD + "=== Feature Importance ===");
+                sender.sendMessage(ChatColor.GRAY + "Samples: " + ChatColor.WHITE + report.samples
+                        + ChatColor.GRAY + ", reward surrogate R2: " + ChatColor.WHITE + String.format("%.3f", report.surrogateR2));
+                double[] permutation = report.permutationImportance;
+                for (int i = 0; i < report.names.size(); i++) {
+                    sender.sendMessage(ChatColor.YELLOW + report.names.get(i) + ChatColor.GRAY
+                            + String.format(" perm %.4f  MI(reward) %.3f  MI(action) %.3f  corr(reward) %+.2f",
+                            permutation[i], report.rewardInformation[i], report.actionInformation[i], report.rewardCorrelation[i]));
+                }
+                report.masks.forEach((type, mask) -> sender.sendMessage(ChatColor.GRAY + type.getKey() + ": "
+                        + ChatColor.WHITE + mask.size() + "/" + mask.getTotal() + " kept"));
+            }
+            case "mask" -> {
+                ModelType type = args.length >= 3 ? ModelType.fromKey(args[2]) : ModelType.DQN;
+                if (type == null) {
+                    sender.sendMessage(ChatColor.RED + "Unknown model type: " + args[2]);
+                    return true;
+                }
+                FeatureMask mask = service.getMask(type);
+                sender.sendMessage(ChatColor.GOLD + "=== " + type.getKey() + " feature mask (" + mask.size() + "/" + mask.getTotal() + ") ===");
+                sender.sendMessage(ChatColor.GREEN + "Kept: " + ChatColor.WHITE + String.join(", ", mask.getKeptNames()));
+                if (mask.size() < mask.getTotal()) {
+                    sender.sendMessage(ChatColor.RED + "Dropped: " + ChatColor.GRAY + String.join(", ", mask.getDroppedNames()));
+                }
+            }
+            default -> sender.sendMessage(ChatColor.RED + "Usage: /ai features [report|analyze|mask <type>]");
+        }
+        return true;
+    }
+
     private Optional<FakePlayer> findFakePlayer(String identifier) {
         try {
             UUID id = UUID.fromString(identifier);
@@ -279,6 +700,12 @@ public class AICommands implements CommandExecutor, TabCompleter {
         sender.sendMessage(ChatColor.YELLOW + "/ai tp <id|name>" + ChatColor.GRAY + " - Teleport to fake player");
         sender.sendMessage(ChatColor.YELLOW + "/ai training" + ChatColor.GRAY + " - Show training status");
         sender.sendMessage(ChatColor.YELLOW + "/ai status" + ChatColor.GRAY + " - Show AI system status");
+        sender.sendMessage(ChatColor.YELLOW + "/ai profile <on [rate]|off|report|tree|reset>" + ChatColor.GRAY + " - Behavior tree profiler");
+        sender.sendMessage(ChatColor.YELLOW + "/ai log [status|<category> <sampleEvery> <maxPerSecond>]" + ChatColor.GRAY + " - AI event log sampling");
+        sender.sendMessage(ChatColor.YELLOW + "/ai model [status|evaluate|validate|rollback|versions|serve]" + ChatColor.GRAY + " - Model promotion, rollback and registry");
+        sender.sendMessage(ChatColor.YELLOW + "/ai features [report|analyze|mask <type>]" + ChatColor.GRAY + " - Feature importance and input masks");
+        sender.sendMessage(ChatColor.YELLOW + "/ai replay [status|start|stop|run|diff]" + ChatColor.GRAY + " - Record training ticks and replay them offline");
+        sender.sendMessage(ChatColor.YELLOW + "/ai ga [status|evolve|apply|islands]" + ChatColor.GRAY + " - Evolve bot parameters and apply the best to bots");
     }
 
     private boolean handleGui(CommandSender sender) {
@@ -300,7 +727,7 @@ public class AICommands implements CommandExecutor, TabCompleter {
         }
 
         if (args.length == 1) {
-            return Arrays.asList("spawn", "despawn", "list", "info", "save", "load", "clear", "move", "tp", "gui", "stats", "training", "status");
+            return Arrays.asList("spawn", "despawn", "list", "info", "save", "load", "clear", "move", "tp", "gui", "stats", "training", "status", "profile", "log", "model", "features", "replay", "ga");
         }
 
         if (args.length == 2) {
@@ -309,11 +736,38 @@ public class AICommands implements CommandExecutor, TabCompleter {
                     return fakePlayerManager.getActiveFakePlayers().stream()
                             .map(IFakePlayer::getName)
                             .collect(Collectors.toList());
+                case "profile":
+                    return Arrays.asList("on", "off", "report", "tree", "reset");
+                case "log":
+                    List<String> options = new ArrayList<>();
+                    options.add("status");
+                    for (AIEventLog.Category category : AIEventLog.Category.values()) {
+                        options.add(category.getKey());
+                    }
+                    return options;
+                case "model":
+                    return Arrays.asList("status", "evaluate", "validate", "rollback", "versions", "serve");
+                case "features":
+                    return Arrays.asList("report", "analyze", "mask");
+                case "replay":
+                    return Arrays.asList("status", "start", "stop", "run", "diff");
+                case "ga":
+                    return Arrays.asList("status", "evolve", "apply", "islands");
                 default:
                     return Collections.emptyList();
             }
         }
 
+        if (args.length == 3 && (args[0].equalsIgnoreCase("model")
+                && (args[1].equalsIgnoreCase("versions") || args[1].equalsIgnoreCase("serve"))
+                || args[0].equalsIgnoreCase("features") && args[1].equalsIgnoreCase("mask"))) {
+            return Arrays.stream(ModelType.values()).map(ModelType::getKey).collect(Collectors.toList());
+        }
+
+        if (args.length == 3 && args[0].equalsIgnoreCase("ga") && args[1].equalsIgnoreCase("islands")) {
+            return Arrays.asList("status", "start", "stop");
+        }
+
         return Collections.emptyList();
     }
 
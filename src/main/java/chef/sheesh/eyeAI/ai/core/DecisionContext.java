@@ -1,5 +1,7 @@
 package chef.sheesh.eyeAI.ai.core;
 
+import chef.sheesh.eyeAI.ai.core.tactics.Threats;
+import chef.sheesh.eyeAI.ai.core.team.InfluenceMap;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
@@ -13,6 +15,9 @@ import java.util.Optional;
  */
 public class DecisionContext {
 
+    /** Health below which an agent should flee, 15% of 20 */
+    public static final double CRITICAL_HEALTH = 3.0;
+
     private final Location currentLocation;
     private final double health;
     private final List<Entity> nearbyEntities;
@@ -21,10 +26,20 @@ public class DecisionContext {
     private final boolean isDayTime;
     private final Optional<Entity> currentTarget;
     private final double threatLevel;
+    private final InfluenceMap influence;
 
     public DecisionContext(Location currentLocation, double health, List<Entity> nearbyEntities,
                          List<Player> nearbyPlayers, long worldTime, boolean isDayTime,
                          Optional<Entity> currentTarget, double threatLevel) {
+        this(currentLocation, health, nearbyEntities, nearbyPlayers, worldTime, isDayTime, currentTarget, threatLevel, null);
+    }
+
+    /**
+     * @param influence the agent's team map, answering hostile checks without a scan; may be null
+     */
+    public DecisionContext(Location currentLocation, double health, List<Entity> nearbyEntities,
+                         List<Player> nearbyPlayers, long worldTime, boolean isDayTime,
+                         Optional<Entity> currentTarget, double threatLevel, InfluenceMap influence) {
         this.currentLocation = currentLocation.clone();
         this.health = health;
         this.nearbyEntities = nearbyEntities;
@@ -33,6 +48,7 @@ public class DecisionContext {
         this.isDayTime = isDayTime;
         this.currentTarget = currentTarget;
         this.threatLevel = threatLevel;
+        this.influence = influence;
     }
 
     // Getters
@@ -68,12 +84,26 @@ public class DecisionContext {
         return threatLevel;
     }
 
+    /**
+     * The agent's team influence map, or null when it has none
+     */
+    public InfluenceMap getInfluence() {
+        return influence;
+    }
+
     /**
      * Check if there are any hostile entities nearby
      */
     public boolean hasHostileNearby() {
-        return nearbyEntities.stream()
-                .anyMatch(entity -> isHostile(entity));
+        if (influence != null) {
+            return influence.isThreatened(currentLocation.getX(), currentLocation.getZ());
+        }
+        for (Entity entity : nearbyEntities) {
+            if (Threats.isHostile(entity)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -94,7 +124,7 @@ public class DecisionContext {
      * Check if health is critical (below 15%)
      */
     public boolean isHealthCritical() {
-        return health < 3.0; // 15% of 20 health
+        return health < CRITICAL_HEALTH;
     }
 
     /**
@@ -118,13 +148,5 @@ public class DecisionContext {
                     currentLocation.distance(p2.getLocation())
                 ));
     }
-
-    private boolean isHostile(Entity entity) {
-        // Simple check for hostile mobs - can be expanded
-        return entity.getType().name().contains("ZOMBIE") ||
-               entity.getType().name().contains("SKELETON") ||
-               entity.getType().name().contains("CREEPER") ||
-               entity.getType().name().contains("SPIDER");
-    }
 }
 
@@ -1,13 +1,16 @@
 package chef.sheesh.eyeAI.ai.core.pathfinding;
 
+import chef.sheesh.eyeAI.ai.movement.PathService;
+import chef.sheesh.eyeAI.ai.movement.nav.MovementProfile;
+import chef.sheesh.eyeAI.ai.movement.nav.NavGrid;
 import org.bukkit.Location;
-import org.bukkit.Material;
 import org.bukkit.World;
 
 import java.util.*;
 
 /**
  * An optimized pathfinder using the A* algorithm.
+ * Walkability comes from the shared navigation grid rather than the live world.
  */
 public class OptimizedPathfinder {
 
@@ -20,6 +23,12 @@ public class OptimizedPathfinder {
     }
 
     public List<Location> findPath(Location start, Location end) {
+        List<Location> cached = PathService.get().lookup(start, end, MovementProfile.WALK);
+        if (cached != null) {
+            return cached;
+        }
+
+        NavGrid grid = PathService.get().grid(world);
         PriorityQueue<PathNode> openSet = new PriorityQueue<>();
         Set<Location> closedSet = new HashSet<>();
 
@@ -34,12 +43,14 @@ public class OptimizedPathfinder {
             PathNode currentNode = openSet.poll();
 
             if (currentNode.location.distance(end) < 1.5) {
-                return reconstructPath(currentNode);
+                List<Location> path = reconstructPath(currentNode);
+                PathService.get().store(path, MovementProfile.WALK);
+                return path;
             }
 
             closedSet.add(currentNode.location);
 
-            for (PathNode neighbor : getNeighbors(currentNode)) {
+            for (PathNode neighbor : getNeighbors(grid, currentNode)) {
                 if (closedSet.contains(neighbor.location)) {
                     continue;
                 }
@@ -61,7 +72,7 @@ public class OptimizedPathfinder {
         return null; // No path found
     }
 
-    private List<PathNode> getNeighbors(PathNode node) {
+    private List<PathNode> getNeighbors(NavGrid grid, PathNode node) {
         List<PathNode> neighbors = new ArrayList<>();
         Location loc = node.location;
 
@@ -72,9 +83,8 @@ public class OptimizedPathfinder {
                         continue;
                     }
 
-                    Location neighborLoc = loc.clone().add(x, y, z);
-                    if (isWalkable(neighborLoc)) {
-                        neighbors.add(new PathNode(neighborLoc));
+                    if (isWalkable(grid, loc.getBlockX() + x, loc.getBlockY() + y, loc.getBlockZ() + z)) {
+                        neighbors.add(new PathNode(loc.clone().add(x, y, z)));
                     }
                 }
             }
@@ -83,12 +93,9 @@ public class OptimizedPathfinder {
         return neighbors;
     }
 
-    private boolean isWalkable(Location loc) {
+    private boolean isWalkable(NavGrid grid, int x, int y, int z) {
         // A very simple check. A real implementation would be much more complex.
-        Material blockType = loc.getBlock().getType();
-        Material blockBelowType = loc.clone().subtract(0, 1, 0).getBlock().getType();
-
-        return !blockType.isSolid() && blockBelowType.isSolid();
+        return !grid.isSolid(x, y, z) && grid.isSolid(x, y - 1, z);
     }
 
     private double heuristic(Location a, Location b) {
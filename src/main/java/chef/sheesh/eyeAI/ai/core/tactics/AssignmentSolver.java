@@ -0,0 +1,166 @@
+package chef.sheesh.eyeAI.ai.core.tactics;
+
+import java.util.Arrays;
+
+/**
+ * Minimum-cost assignment of rows to distinct columns (Hungarian method, shortest augmenting
+ * path form), for at most as many rows as columns. Solves in O(cols^3); spare columns
+ * are soaked up by zero-cost virtual rows.
+ * <p>
+ * A solve can start from the previous one: pass the last assignment and column potentials
+ * back in, and pairs still within the tolerance of optimal are kept without searching. With
+ * a tolerance of t the total is at most {@code rows * t} above the optimum; at the default the
+ * result is exact. Work arrays are reused, so an instance is not thread-safe.
+ */
+public final class AssignmentSolver {
+
+    private static final float EPSILON = 1e-4f;
+
+    private float tolerance = EPSILON;
+    private float[] rowPotential = new float[0];
+    private int[] columnRow = new int[0];
+    private float[] minSlack = new float[0];
+    private int[] way = new int[0];
+    private boolean[] used = new boolean[0];
+    private int augmentations;
+
+    public AssignmentSolver() {
+    }
+
+    /**
+     * @param tolerance cost a kept pair may be above its best alternative; larger keeps more
+     *                  of the previous assignment when costs drift
+     */
+    public AssignmentSolver(float tolerance) {
+        this.tolerance = Math.max(EPSILON, tolerance);
+    }
+
+    /**
+     * Assign every row to a distinct column, minimising the total cost.
+     *
+     * @param costs       row-major matrix, {@code costs[row * cols + col]}
+     * @param assignment  per row the column it had, or -1; replaced with the new assignment
+     * @param potentials  per column its potential from the last solve, or 0 for new columns;
+     *                    updated for the next solve
+     * @return the total cost
+     */
+    public float solve(float[] costs, int rows, int cols, int[] assignment, float[] potentials) {
+        if (rows > cols) {
+            throw new IllegalArgumentException("More rows than columns: " + rows + " > " + cols);
+        }
+        ensureCapacity(cols);
+        augmentations = 0;
+        warmStart(costs, rows, cols, assignment, potentials);
+        for (int row = 0; row < cols; row++) {
+            if (row >= rows || assignment[row] < 0) {
+                augment(costs, rows, cols, row, potentials);
+                augmentations++;
+            }
+        }
+        // Potentials only fall; shifting them together keeps every reduced cost and stops
+        // them drifting out of float precision over many warm solves
+        float shift = Float.NEGATIVE_INFINITY;
+        for (int col = 0; col < cols; col++) {
+            shift = Math.max(shift, potentials[col]);
+        }
+        float total = 0f;
+        for (int col = 0; col < cols; col++) {
+            potentials[col] -= shift;
+            int row = columnRow[col];
+            if (row < rows) {
+                assignment[row] = col;
+                total += costs[row * cols + col];
+            }
+        }
+        return total;
+    }
+
+    /** Rows searched by the last solve, virtual ones included; the column count for a cold start */
+    public int getAugmentations() {
+        return augmentations;
+    }
+
+    /** Keep the previous pairs within tolerance of the cheapest column of their row */
+    private void warmStart(float[] costs, int rows, int cols, int[] assignment, float[] potentials) {
+        Arrays.fill(columnRow, 0, cols, -1);
+        for (int row = 0; row < cols; row++) {
+            float best = Float.POSITIVE_INFINITY;
+            for (int col = 0; col < cols; col++) {
+                best = Math.min(best, cost(costs, rows, cols, row, col) - potentials[col]);
+            }
+            rowPotential[row] = best;
+            if (row >= rows) {
+                continue;
+            }
+            int col = assignment[row];
+            if (col >= 0 && col < cols && columnRow[col] < 0
+                    && costs[row * cols + col] - potentials[col] - best <= tolerance) {
+                columnRow[col] = row;
+            } else {
+                assignment[row] = -1;
+            }
+        }
+    }
+
+    /** Dijkstra over reduced costs from a free row to the nearest free column, then flip the path */
+    private void augment(float[] costs, int rows, int cols, int start, float[] potentials) {
+        Arrays.fill(minSlack, 0, cols, Float.POSITIVE_INFINITY);
+        Arrays.fill(used, 0, cols, false);
+        Arrays.fill(way, 0, cols, -1);
+        int col = -1; // The virtual column holding the start row
+        while (true) {
+            if (col >= 0) {
+                used[col] = true;
+            }
+            int row = col < 0 ? start : columnRow[col];
+            float delta = Float.POSITIVE_INFINITY;
+            int next = -1;
+            for (int j = 0; j < cols; j++) {
+                if (used[j]) {
+                    continue;
+                }
+                float slack = cost(costs, rows, cols, row, j) - rowPotential[row] - potentials[j];
+                if (slack < minSlack[j]) {
+                    minSlack[j] = slack;
+                    way[j] = col;
+                }
+                if (minSlack[j] < delta) {
+                    delta = minSlack[j];
+                    next = j;
+                }
+            }
+            rowPotential[start] += delta;
+            for (int j = 0; j < cols; j++) {
+                if (used[j]) {
+                    rowPotential[columnRow[j]] += delta;
+                    potentials[j] -= delta;
+                } else {
+                    minSlack[j] -= delta;
+                }
+            }
+            col = next;
+            if (columnRow[col] < 0) {
+                break;
+            }
+        }
+        while (col >= 0) {
+            int previous = way[col];
+            columnRow[col] = previous < 0 ? start : columnRow[previous];
+            col = previous;
+        }
+    }
+
+    private static float cost(float[] costs, int rows, int cols, int row, int col) {
+        return row < rows ? costs[row * cols + col] : 0f;
+    }
+
+    private void ensureCapacity(int cols) {
+        if (columnRow.length < cols) {
+            rowPotential = new float[cols];
+            columnRow = new int[cols];
+            minSlack = new float[cols];
+            way = new int[cols];
+            used = new boolean[cols];
+        }
+    }
+}
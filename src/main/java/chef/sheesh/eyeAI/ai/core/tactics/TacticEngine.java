@@ -1,5 +1,6 @@
 package chef.sheesh.eyeAI.ai.core.tactics;
 
+import chef.sheesh.eyeAI.ai.core.team.InfluenceMap;
 import chef.sheesh.eyeAI.ai.fakeplayer.IFakePlayer;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
@@ -9,6 +10,7 @@ import java.util.List;
 /**
  * An engine for making tactical decisions.
  * This class provides methods for complex behaviors like flanking and kiting.
+ * Agents in a team pick their positions from the team's {@link InfluenceMap}.
  */
 public class TacticEngine {
 
@@ -20,9 +22,13 @@ public class TacticEngine {
      * @return A suitable flanking position, or null if none is found.
      */
     public Location findFlankingPosition(IFakePlayer agent, Entity target) {
-        // Placeholder implementation. A real implementation would be more complex.
         Location agentLoc = agent.getLocation();
         Location targetLoc = target.getLocation();
+        InfluenceMap influence = InfluenceMap.forMember(agent);
+        if (influence != null) {
+            // The side of the target least covered by other hostiles
+            return influence.flankPosition(targetLoc, agentLoc, 5.0);
+        }
         // Get the vector from target to agent, rotate it 90 degrees, and go 5 blocks out.
         double x = agentLoc.getX() - targetLoc.getX();
         double z = agentLoc.getZ() - targetLoc.getZ();
@@ -39,13 +45,28 @@ public class TacticEngine {
      * @return A suitable kiting position, or null if none is found.
      */
     public Location findKitingPosition(IFakePlayer agent, Entity target) {
-        // Placeholder implementation.
         Location agentLoc = agent.getLocation();
         Location targetLoc = target.getLocation();
         // Get the vector from target to agent, and go 10 blocks further.
         double x = agentLoc.getX() - targetLoc.getX();
         double z = agentLoc.getZ() - targetLoc.getZ();
-        return agentLoc.clone().add(x, 0, z);
+        Location away = agentLoc.clone().add(x, 0, z);
+        InfluenceMap influence = InfluenceMap.forMember(agent);
+        // Veer off the straight line if it leads into other hostiles
+        return influence != null ? influence.safestNear(away, 8.0) : away;
+    }
+
+    /**
+     * Finds where to fall back to: the least dangerous spot within a radius, away from
+     * threats, recent damage and towards allies.
+     *
+     * @param agent The agent that is retreating.
+     * @param radius How far to look, in blocks.
+     * @return A retreat position, or null if the agent has no team map to judge by.
+     */
+    public Location findRetreatPosition(IFakePlayer agent, double radius) {
+        InfluenceMap influence = InfluenceMap.forMember(agent);
+        return influence != null ? influence.safestNear(agent.getLocation(), radius) : null;
     }
 
     /**
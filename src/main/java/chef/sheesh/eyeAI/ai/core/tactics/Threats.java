@@ -0,0 +1,50 @@
+package chef.sheesh.eyeAI.ai.core.tactics;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+
+/**
+ * Which entities are hostile and how dangerous they are, looked up per entity type instead of
+ * matching type names on every check.
+ */
+public final class Threats {
+
+    /** Threat level per entity type ordinal; 0 when not hostile */
+    private static final byte[] LEVELS = new byte[EntityType.values().length];
+
+    static {
+        for (EntityType type : EntityType.values()) {
+            String name = type.name();
+            int level;
+            if (name.contains("CREEPER")) {
+                level = 5; // Highest threat
+            } else if (name.contains("SKELETON")) {
+                level = 4;
+            } else if (name.contains("ZOMBIE")) {
+                level = 3;
+            } else if (name.contains("SPIDER")) {
+                level = 2;
+            } else if (name.contains("ENDERMAN") || name.contains("BLAZE")
+                    || name.contains("WITCH") || name.contains("PHANTOM")) {
+                level = 1;
+            } else {
+                level = 0;
+            }
+            LEVELS[type.ordinal()] = (byte) level;
+        }
+    }
+
+    private Threats() {
+    }
+
+    public static boolean isHostile(Entity entity) {
+        return LEVELS[entity.getType().ordinal()] > 0;
+    }
+
+    /**
+     * Danger of an entity, 1-5 for hostiles and 0 otherwise
+     */
+    public static int level(Entity entity) {
+        return LEVELS[entity.getType().ordinal()];
+    }
+}
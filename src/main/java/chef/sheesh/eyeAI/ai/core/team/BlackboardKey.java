@@ -0,0 +1,39 @@
+package chef.sheesh.eyeAI.ai.core.team;
+
+/**
+ * Typed key of a {@link TeamBlackboard} entry. Keys compare by identity, so declare each one
+ * once as a constant, as in {@link TeamKeys}.
+ *
+ * @param <T> type of the value stored under the key
+ */
+public final class BlackboardKey<T> {
+
+    private final String name;
+    private final Class<T> type;
+
+    private BlackboardKey(String name, Class<T> type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    public static <T> BlackboardKey<T> of(String name, Class<T> type) {
+        return new BlackboardKey<>(name, type);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    T cast(Object value) {
+        return type.cast(value);
+    }
+
+    @Override
+    public String toString() {
+        return name + "<" + type.getSimpleName() + ">";
+    }
+}
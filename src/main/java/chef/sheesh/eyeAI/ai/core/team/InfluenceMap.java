@@ -0,0 +1,440 @@
+package chef.sheesh.eyeAI.ai.core.team;
+
+import chef.sheesh.eyeAI.ai.core.tactics.Threats;
+import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
+import chef.sheesh.eyeAI.ai.fakeplayer.IFakePlayer;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Coarse 2D picture of a team's surroundings: threat from hostiles, strength of its members
+ * and where members recently took damage, over a window of cells that follows the team.
+ * <ul>
+ *     <li>One entity scan per decision interval covers the whole team; members and tactics
+ *     then read any cell in O(1) instead of scanning for themselves.</li>
+ *     <li>The scan runs on the main thread and publishes an immutable {@link Scan}; the
+ *     layers are rebuilt from it on the AI tick thread, which never touches the world.</li>
+ *     <li>Each layer decays with its own half-life and fresh readings only raise it, so a
+ *     hostile that slips out of view is remembered for a while where it was last seen.</li>
+ * </ul>
+ * {@link #scan} runs on the main thread; {@link #update} and the readers on the AI tick thread.
+ */
+public class InfluenceMap {
+
+    public static final long DECISION_INTERVAL_MS = 500;
+
+    /** Blocks per cell side */
+    static final int CELL = 4;
+    /** Cells per window side; the window spans 256 blocks */
+    static final int SIZE = 64;
+    /** Blocks scanned for hostiles beyond the outermost members */
+    private static final double SCAN_MARGIN = 24.0;
+    /** Threat at or above this counts as hostiles nearby, about one weak mob a few blocks off */
+    private static final float THREATENED = 0.5f;
+
+    private static final int THREAT = 0;
+    private static final int ALLY = 1;
+    private static final int DAMAGE = 2;
+    /** Cells a stamp reaches, falling off linearly */
+    private static final int[] RADIUS = {3, 2, 1};
+    private static final long[] HALF_LIFE_MS = {2000, 1000, 5000};
+
+    private final float[][] layers = new float[3][SIZE * SIZE];
+    private final float[][] fresh = new float[3][SIZE * SIZE];
+    /** Health of each member at the last update, to spot damage taken */
+    private final Map<UUID, Double> lastHealth = new HashMap<>();
+    private List<Entity> hostiles = List.of();
+
+    /** Latest scan from the main thread, and the one the layers were last updated from */
+    private volatile Scan scan;
+    private Scan applied;
+    private final AtomicBoolean scanPending = new AtomicBoolean();
+    private long lastScanRequest = Long.MIN_VALUE;
+
+    private World world;
+    /** Cell coordinates of the window's corner */
+    private int originX;
+    private int originZ;
+    private long lastUpdate;
+
+    /**
+     * The team map a member can read now: updated recently and for the member's world; null
+     * when the member has no team or the map is stale
+     */
+    public static InfluenceMap forMember(IFakePlayer member) {
+        Team team = member.getTeam();
+        if (team == null) {
+            return null;
+        }
+        InfluenceMap map = team.getInfluence();
+        World memberWorld = member instanceof FakePlayer fakePlayer ? fakePlayer.getWorld() : member.getLocation().getWorld();
+        if (!map.isFresh(System.currentTimeMillis()) || memberWorld == null || !memberWorld.equals(map.world)) {
+            return null;
+        }
+        return map;
+    }
+
+    /**
+     * Queue an entity scan on the main thread once per decision interval; the next
+     * {@link #update} after it ran applies it. Safe from any thread.
+     */
+    public void requestScan(Collection<? extends IFakePlayer> members, long now, Executor mainThread) {
+        if (now - lastScanRequest < DECISION_INTERVAL_MS || !scanPending.compareAndSet(false, true)) {
+            return;
+        }
+        lastScanRequest = now;
+        List<IFakePlayer> snapshot = List.copyOf(members);
+        mainThread.execute(() -> {
+            try {
+                scan(snapshot);
+            } finally {
+                scanPending.set(false);
+            }
+        });
+    }
+
+    /**
+     * The one shared scan: hostiles in a box around all members, no wider than the window.
+     * Must run on the main thread.
+     */
+    public void scan(Collection<? extends IFakePlayer> members) {
+        World current = null;
+        double minX = Double.MAX_VALUE, minZ = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxZ = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (IFakePlayer member : members) {
+            Location location = member.getLocation();
+            if (!member.isAlive() || location.getWorld() == null) {
+                continue;
+            }
+            if (current == null) {
+                current = location.getWorld();
+            } else if (!current.equals(location.getWorld())) {
+                continue;
+            }
+            minX = Math.min(minX, location.getX());
+            maxX = Math.max(maxX, location.getX());
+            minY = Math.min(minY, location.getY());
+            maxY = Math.max(maxY, location.getY());
+            minZ = Math.min(minZ, location.getZ());
+            maxZ = Math.max(maxZ, location.getZ());
+        }
+        if (current == null) {
+            scan = new Scan(null, List.of());
+            return;
+        }
+
+        double reach = SIZE * CELL / 2.0;
+        Location center = new Location(current, (minX + maxX) / 2, (minY + maxY) / 2, (minZ + maxZ) / 2);
+        List<Sighting> sightings = new ArrayList<>();
+        for (Entity entity : current.getNearbyEntities(center, Math.min(reach, (maxX - minX) / 2 + SCAN_MARGIN),
+                Math.min(reach, (maxY - minY) / 2 + SCAN_MARGIN / 2), Math.min(reach, (maxZ - minZ) / 2 + SCAN_MARGIN))) {
+            int level = Threats.level(entity);
+            if (level == 0 || entity.isDead() || !(entity instanceof LivingEntity)) {
+                continue;
+            }
+            Location location = entity.getLocation();
+            sightings.add(new Sighting(entity, location.getX(), location.getZ(), level));
+        }
+        scan = new Scan(current, List.copyOf(sightings));
+    }
+
+    /**
+     * Rebuild the layers around the members from the latest scan; nothing until a new scan
+     * has been published. Reads no world state.
+     */
+    public void update(Collection<? extends IFakePlayer> members, long now) {
+        Scan latest = scan;
+        if (latest == null || latest == applied) {
+            return;
+        }
+        applied = latest;
+        World current = null;
+        double minX = Double.MAX_VALUE, minZ = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxZ = -Double.MAX_VALUE;
+        List<Location> positions = new ArrayList<>(members.size());
+        List<IFakePlayer> present = new ArrayList<>(members.size());
+        for (IFakePlayer member : members) {
+            Location location = member.getLocation();
+            if (!member.isAlive() || location.getWorld() == null) {
+                continue;
+            }
+            if (current == null) {
+                current = location.getWorld(); // The team acts in its first member's world
+            } else if (!current.equals(location.getWorld())) {
+                continue;
+            }
+            positions.add(location);
+            present.add(member);
+            minX = Math.min(minX, location.getX());
+            maxX = Math.max(maxX, location.getX());
+            minZ = Math.min(minZ, location.getZ());
+            maxZ = Math.max(maxZ, location.getZ());
+        }
+        if (current == null) {
+            clear();
+            return;
+        }
+
+        if (!current.equals(world)) {
+            clear();
+            world = current;
+            recenter((minX + maxX) / 2, (minZ + maxZ) / 2);
+        } else {
+            decay(now - lastUpdate);
+            recenter((minX + maxX) / 2, (minZ + maxZ) / 2);
+        }
+        lastUpdate = now;
+
+        for (float[] layer : fresh) {
+            Arrays.fill(layer, 0f);
+        }
+        for (int i = 0; i < present.size(); i++) {
+            IFakePlayer member = present.get(i);
+            Location location = positions.get(i);
+            double maxHealth = member instanceof FakePlayer fakePlayer ? fakePlayer.getMaxHealth() : 20.0;
+            double health = member.getHealth();
+            stamp(ALLY, location.getX(), location.getZ(), (float) Math.min(1.0, health / Math.max(1.0, maxHealth)));
+            Double previous = lastHealth.put(member.getId(), health);
+            if (previous != null && health < previous) {
+                stamp(DAMAGE, location.getX(), location.getZ(), (float) (previous - health));
+            }
+        }
+        Set<UUID> ids = new HashSet<>();
+        for (IFakePlayer member : present) {
+            ids.add(member.getId());
+        }
+        lastHealth.keySet().retainAll(ids);
+
+        // A scan from before the team changed worlds has nothing to say about this one
+        List<Entity> seen = new ArrayList<>();
+        if (current.equals(latest.world())) {
+            for (Sighting sighting : latest.sightings()) {
+                seen.add(sighting.entity());
+                stamp(THREAT, sighting.x(), sighting.z(), sighting.level());
+            }
+        }
+        hostiles = List.copyOf(seen);
+
+        for (int layer = 0; layer < layers.length; layer++) {
+            float[] values = layers[layer];
+            float[] readings = fresh[layer];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = Math.max(values[i], readings[i]);
+            }
+        }
+    }
+
+    /** Hostile threat at a block position; 0 outside the window */
+    public float threat(double x, double z) {
+        return read(THREAT, x, z);
+    }
+
+    /** Member strength, summed health fractions, at a block position */
+    public float allyStrength(double x, double z) {
+        return read(ALLY, x, z);
+    }
+
+    /** Health recently lost by members at a block position */
+    public float recentDamage(double x, double z) {
+        return read(DAMAGE, x, z);
+    }
+
+    /**
+     * How unsafe a position is for a member: threat and recent damage, offset by allies
+     */
+    public float danger(double x, double z) {
+        int index = index(x, z);
+        if (index < 0) {
+            return 0f;
+        }
+        return layers[THREAT][index] + layers[DAMAGE][index] - 0.5f * layers[ALLY][index];
+    }
+
+    public boolean isThreatened(double x, double z) {
+        return threat(x, z) >= THREATENED;
+    }
+
+    /**
+     * Hostiles seen by the last scan; may include ones that died since
+     */
+    public List<Entity> getHostiles() {
+        return hostiles;
+    }
+
+    /** Whether the map has been updated within the last few decision intervals */
+    public boolean isFresh(long now) {
+        return world != null && now - lastUpdate < 4 * DECISION_INTERVAL_MS;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Least dangerous cell centre within a radius, preferring nearer cells on ties; the start
+     * itself when nothing around is safer
+     */
+    public Location safestNear(Location from, double radius) {
+        int cells = (int) Math.ceil(radius / CELL);
+        int centerX = Math.floorDiv((int) Math.floor(from.getX()), CELL);
+        int centerZ = Math.floorDiv((int) Math.floor(from.getZ()), CELL);
+        Location best = from.clone();
+        float bestScore = danger(from.getX(), from.getZ());
+        for (int dz = -cells; dz <= cells; dz++) {
+            for (int dx = -cells; dx <= cells; dx++) {
+                if (dx * dx + dz * dz > cells * cells) {
+                    continue;
+                }
+                double x = (centerX + dx) * CELL + CELL / 2.0;
+                double z = (centerZ + dz) * CELL + CELL / 2.0;
+                if (index(x, z) < 0) {
+                    continue;
+                }
+                // A small pull towards the start breaks ties between equally safe cells
+                float score = danger(x, z) + 0.01f * (float) Math.sqrt(dx * dx + dz * dz);
+                if (score < bestScore) {
+                    bestScore = score;
+                    best = new Location(from.getWorld(), x, from.getY(), z);
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Point at a distance around a target with the least threat from other hostiles, for
+     * flanking; ties go to the side nearest the attacker
+     */
+    public Location flankPosition(Location target, Location from, double distance) {
+        Location best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = 0; i < 8; i++) {
+            double angle = i * Math.PI / 4;
+            double x = target.getX() + distance * Math.cos(angle);
+            double z = target.getZ() + distance * Math.sin(angle);
+            double dx = x - from.getX();
+            double dz = z - from.getZ();
+            double score = danger(x, z) + 0.01 * Math.sqrt(dx * dx + dz * dz);
+            if (score < bestScore) {
+                bestScore = score;
+                best = new Location(target.getWorld(), x, target.getY(), z);
+            }
+        }
+        return best;
+    }
+
+    public void clear() {
+        for (float[] layer : layers) {
+            Arrays.fill(layer, 0f);
+        }
+        lastHealth.clear();
+        hostiles = List.of();
+        world = null;
+    }
+
+    private float read(int layer, double x, double z) {
+        int index = index(x, z);
+        return index < 0 ? 0f : layers[layer][index];
+    }
+
+    private int index(double x, double z) {
+        int cellX = Math.floorDiv((int) Math.floor(x), CELL) - originX;
+        int cellZ = Math.floorDiv((int) Math.floor(z), CELL) - originZ;
+        if (cellX < 0 || cellZ < 0 || cellX >= SIZE || cellZ >= SIZE) {
+            return -1;
+        }
+        return cellZ * SIZE + cellX;
+    }
+
+    /** Add a reading that falls off linearly to zero past its radius */
+    private void stamp(int layer, double x, double z, float value) {
+        int radius = RADIUS[layer];
+        int cellX = Math.floorDiv((int) Math.floor(x), CELL) - originX;
+        int cellZ = Math.floorDiv((int) Math.floor(z), CELL) - originZ;
+        float[] target = fresh[layer];
+        for (int dz = -radius; dz <= radius; dz++) {
+            int row = cellZ + dz;
+            if (row < 0 || row >= SIZE) {
+                continue;
+            }
+            for (int dx = -radius; dx <= radius; dx++) {
+                int col = cellX + dx;
+                if (col < 0 || col >= SIZE) {
+                    continue;
+                }
+                int reach = Math.max(Math.abs(dx), Math.abs(dz));
+                target[row * SIZE + col] += value * (1f - reach / (radius + 1f));
+            }
+        }
+    }
+
+    private void decay(long elapsed) {
+        for (int layer = 0; layer < layers.length; layer++) {
+            float factor = (float) Math.pow(0.5, elapsed / (double) HALF_LIFE_MS[layer]);
+            float[] values = layers[layer];
+            for (int i = 0; i < values.length; i++) {
+                values[i] *= factor;
+            }
+        }
+    }
+
+    /**
+     * Keep the team in the middle half of the window, shifting what is known along with it
+     */
+    private void recenter(double x, double z) {
+        int cellX = Math.floorDiv((int) Math.floor(x), CELL);
+        int cellZ = Math.floorDiv((int) Math.floor(z), CELL);
+        int shiftX = 0;
+        int shiftZ = 0;
+        if (cellX - originX < SIZE / 4 || cellX - originX >= SIZE * 3 / 4) {
+            shiftX = cellX - SIZE / 2 - originX;
+        }
+        if (cellZ - originZ < SIZE / 4 || cellZ - originZ >= SIZE * 3 / 4) {
+            shiftZ = cellZ - SIZE / 2 - originZ;
+        }
+        if (shiftX == 0 && shiftZ == 0) {
+            return;
+        }
+        for (float[] values : layers) {
+            float[] shifted = new float[values.length];
+            for (int row = 0; row < SIZE; row++) {
+                int from = row + shiftZ;
+                if (from < 0 || from >= SIZE) {
+                    continue;
+                }
+                for (int col = 0; col < SIZE; col++) {
+                    int fromCol = col + shiftX;
+                    if (fromCol >= 0 && fromCol < SIZE) {
+                        shifted[row * SIZE + col] = values[from * SIZE + fromCol];
+                    }
+                }
+            }
+            System.arraycopy(shifted, 0, values, 0, values.length);
+        }
+        originX += shiftX;
+        originZ += shiftZ;
+    }
+
+    /** Hostile seen by a scan, with where it stood; the entity is only for identity */
+    private record Sighting(Entity entity, double x, double z, int level) {
+    }
+
+    /** Result of one main-thread scan; a null world when no member was in one */
+    private record Scan(World world, List<Sighting> sightings) {
+    }
+}
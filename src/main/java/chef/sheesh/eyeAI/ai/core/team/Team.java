@@ -2,6 +2,7 @@ package chef.sheesh.eyeAI.ai.core.team;
 
 import chef.sheesh.eyeAI.ai.fakeplayer.IFakePlayer;
 
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -14,11 +15,15 @@ public class Team {
 
     private final UUID teamId;
     private final Map<IFakePlayer, TeamRole> members;
+    private final InfluenceMap influence;
+    private final TeamBlackboard blackboard;
     private IFakePlayer leader;
 
     public Team(IFakePlayer leader) {
         this.teamId = UUID.randomUUID();
         this.members = new ConcurrentHashMap<>();
+        this.influence = new InfluenceMap();
+        this.blackboard = new TeamBlackboard();
         this.leader = leader;
         addMember(leader, TeamRole.LEADER);
     }
@@ -41,6 +46,7 @@ public class Team {
 
     public void addMember(IFakePlayer member, TeamRole role) {
         members.put(member, role);
+        publishRoles();
     }
 
     public void removeMember(IFakePlayer member) {
@@ -53,12 +59,27 @@ public class Team {
                 leader = null;
             }
         }
+        publishRoles();
     }
 
     public Map<IFakePlayer, TeamRole> getMembers() {
         return members;
     }
 
+    /**
+     * Shared threat and ally picture of the team, refreshed once per decision interval
+     */
+    public InfluenceMap getInfluence() {
+        return influence;
+    }
+
+    /**
+     * Shared typed state of the team, published once per decision interval
+     */
+    public TeamBlackboard getBlackboard() {
+        return blackboard;
+    }
+
     public TeamRole getRole(IFakePlayer member) {
         return members.get(member);
     }
@@ -66,6 +87,18 @@ public class Team {
     public void setRole(IFakePlayer member, TeamRole role) {
         if (members.containsKey(member)) {
             members.put(member, role);
+            publishRoles();
+        }
+    }
+
+    /**
+     * Stage who holds each role, so members look it up instead of scanning the team
+     */
+    private void publishRoles() {
+        Map<TeamRole, IFakePlayer> holders = new EnumMap<>(TeamRole.class);
+        members.forEach((member, role) -> holders.putIfAbsent(role, member));
+        for (TeamRole role : TeamRole.values()) {
+            blackboard.put(TeamKeys.holderOf(role), holders.get(role));
         }
     }
 }
@@ -0,0 +1,186 @@
+package chef.sheesh.eyeAI.ai.core.team;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Information a team shares, under typed keys.
+ * <ul>
+ *     <li>Reads go to an immutable {@link Snapshot}; members take the current one at the start
+ *     of their tick and see a consistent board without locking.</li>
+ *     <li>Writes from any thread are staged and published together once per decision
+ *     interval as a new snapshot with a higher version; the last write to a key wins.</li>
+ *     <li>Listeners hear about each key whose value changed, after the snapshot is out.</li>
+ * </ul>
+ */
+public class TeamBlackboard {
+
+    public static final long DECISION_INTERVAL_MS = InfluenceMap.DECISION_INTERVAL_MS;
+
+    /** Staged removal */
+    private static final Object REMOVED = new Object();
+
+    private volatile Snapshot current = new Snapshot(0, Collections.emptyMap());
+    private final Map<BlackboardKey<?>, Object> pending = new ConcurrentHashMap<>();
+    private final Map<BlackboardKey<?>, List<Listener<?>>> listeners = new ConcurrentHashMap<>();
+    private long lastPublish;
+
+    /** Called with the previous and new value of a key; either may be null */
+    @FunctionalInterface
+    public interface Listener<T> {
+        void changed(T previous, T current);
+    }
+
+    /**
+     * The board as of the last publish
+     */
+    public Snapshot snapshot() {
+        return current;
+    }
+
+    /**
+     * Value as of the last publish, or null
+     */
+    public <T> T get(BlackboardKey<T> key) {
+        return current.get(key);
+    }
+
+    /**
+     * Stage a value; it becomes visible with the next publish. A null value removes the key.
+     */
+    public <T> void put(BlackboardKey<T> key, T value) {
+        pending.put(key, value == null ? REMOVED : key.cast(value));
+    }
+
+    public void remove(BlackboardKey<?> key) {
+        pending.put(key, REMOVED);
+    }
+
+    public <T> void subscribe(BlackboardKey<T> key, Listener<? super T> listener) {
+        listeners.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public <T> void unsubscribe(BlackboardKey<T> key, Listener<? super T> listener) {
+        List<Listener<?>> registered = listeners.get(key);
+        if (registered != null) {
+            registered.remove(listener);
+        }
+    }
+
+    /**
+     * Publish staged writes if the decision interval has passed. Must not run concurrently
+     * with itself; the team tick calls it from the main thread.
+     *
+     * @return whether a new snapshot was published
+     */
+    public boolean publish(long now) {
+        if (pending.isEmpty() || now - lastPublish < DECISION_INTERVAL_MS) {
+            return false;
+        }
+        lastPublish = now;
+        return publishNow();
+    }
+
+    /**
+     * Publish staged writes immediately
+     */
+    public boolean publishNow() {
+        Snapshot previous = current;
+        long version = previous.version + 1;
+        Map<BlackboardKey<?>, Entry> entries = new HashMap<>(previous.entries);
+        Map<BlackboardKey<?>, Object> changed = new HashMap<>();
+        for (Map.Entry<BlackboardKey<?>, Object> write : pending.entrySet()) {
+            BlackboardKey<?> key = write.getKey();
+            Object value = write.getValue();
+            // A write racing this publish stays staged for the next one
+            pending.remove(key, value);
+            Entry old = entries.get(key);
+            Object oldValue = old == null ? null : old.value;
+            Object newValue = value == REMOVED ? null : value;
+            if (Objects.equals(oldValue, newValue)) {
+                continue;
+            }
+            if (newValue == null) {
+                entries.remove(key);
+            } else {
+                entries.put(key, new Entry(newValue, version));
+            }
+            changed.put(key, oldValue);
+        }
+        if (changed.isEmpty()) {
+            return false;
+        }
+        Snapshot next = new Snapshot(version, entries);
+        current = next;
+
+        for (Map.Entry<BlackboardKey<?>, Object> change : changed.entrySet()) {
+            notify(change.getKey(), change.getValue(), next);
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void notify(BlackboardKey<T> key, Object previous, Snapshot next) {
+        List<Listener<?>> registered = listeners.get(key);
+        if (registered == null) {
+            return;
+        }
+        T before = previous == null ? null : key.cast(previous);
+        T after = next.get(key);
+        for (Listener<?> listener : registered) {
+            ((Listener<T>) listener).changed(before, after);
+        }
+    }
+
+    private record Entry(Object value, long version) {
+    }
+
+    /**
+     * Immutable view of the board at one version
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final Map<BlackboardKey<?>, Entry> entries;
+
+        private Snapshot(long version, Map<BlackboardKey<?>, Entry> entries) {
+            this.version = version;
+            this.entries = entries;
+        }
+
+        /** Increases with every publish that changed something */
+        public long getVersion() {
+            return version;
+        }
+
+        public <T> T get(BlackboardKey<T> key) {
+            Entry entry = entries.get(key);
+            return entry == null ? null : key.cast(entry.value);
+        }
+
+        public <T> T getOrDefault(BlackboardKey<T> key, T fallback) {
+            T value = get(key);
+            return value != null ? value : fallback;
+        }
+
+        public boolean contains(BlackboardKey<?> key) {
+            return entries.containsKey(key);
+        }
+
+        /**
+         * Version at which a key last changed, or 0 when it has never been set
+         */
+        public long versionOf(BlackboardKey<?> key) {
+            Entry entry = entries.get(key);
+            return entry == null ? 0 : entry.version;
+        }
+
+        public int size() {
+            return entries.size();
+        }
+    }
+}
@@ -9,6 +9,8 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * Manages all AI teams in the system.
  * This class is the central point for creating, managing, and coordinating teams.
+ * Leadership changes reach members through each team's {@link TeamBlackboard}: when a team
+ * publishes a new leader, that member's own role is updated to match.
  */
 public class TeamCoordinator {
 
@@ -28,6 +30,12 @@ public class TeamCoordinator {
      */
     public Team createTeam(IFakePlayer leader) {
         Team team = new Team(leader);
+        team.getBlackboard().subscribe(TeamKeys.LEADER, (previous, current) -> {
+            // A leader removed from the team hands over to another member
+            if (current != null && current.getTeam() == team) {
+                current.setRole(TeamRole.LEADER);
+            }
+        });
         teams.put(team.getTeamId(), team);
         playerTeamMap.put(leader, team);
         leader.setTeam(team);
@@ -0,0 +1,33 @@
+package chef.sheesh.eyeAI.ai.core.team;
+
+import chef.sheesh.eyeAI.ai.fakeplayer.IFakePlayer;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Keys the team itself keeps up to date on its {@link TeamBlackboard}.
+ */
+public final class TeamKeys {
+
+    private static final Map<TeamRole, BlackboardKey<IFakePlayer>> HOLDERS = new EnumMap<>(TeamRole.class);
+
+    static {
+        for (TeamRole role : TeamRole.values()) {
+            HOLDERS.put(role, BlackboardKey.of("holder." + role.name().toLowerCase(), IFakePlayer.class));
+        }
+    }
+
+    /** The team's leader */
+    public static final BlackboardKey<IFakePlayer> LEADER = holderOf(TeamRole.LEADER);
+
+    private TeamKeys() {
+    }
+
+    /**
+     * A member holding a role; absent when nobody holds it
+     */
+    public static BlackboardKey<IFakePlayer> holderOf(TeamRole role) {
+        return HOLDERS.get(role);
+    }
+}
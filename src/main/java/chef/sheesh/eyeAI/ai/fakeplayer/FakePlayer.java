@@ -1,14 +1,19 @@
 package chef.sheesh.eyeAI.ai.fakeplayer;
 
+import chef.sheesh.eyeAI.ai.behavior.BehaviorTreeProfiler;
 import chef.sheesh.eyeAI.ai.behavior.IBehaviorTree;
 import chef.sheesh.eyeAI.ai.core.DecisionContext;
 import chef.sheesh.eyeAI.ai.core.emotions.EmotionSystem;
 import chef.sheesh.eyeAI.ai.core.personality.PersonalitySystem;
 import chef.sheesh.eyeAI.ai.core.personality.Personality;
+import chef.sheesh.eyeAI.ai.core.team.InfluenceMap;
 import chef.sheesh.eyeAI.ai.core.team.Team;
 import chef.sheesh.eyeAI.ai.core.team.TeamRole;
 import chef.sheesh.eyeAI.ai.fakeplayer.ai.*;
+import chef.sheesh.eyeAI.ai.movement.MutableVec3;
+import chef.sheesh.eyeAI.infra.diagnostic.AIEventLog;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
@@ -29,7 +34,17 @@ public class FakePlayer implements IFakePlayer {
 
     private final UUID id;
     private String name;
-    private Location location;
+    // Position kept in primitives; Location objects are only built at the Bukkit API boundary.
+    // Only the AI tick thread writes position and velocity. Main thread readers (damage
+    // proxies, team influence scans) read them unsynchronized and may see the previous tick's
+    // value or axes from two consecutive moves, at most one step apart. That race is accepted:
+    // those readers only use the position to place an entity or centre a scan, where one step
+    // of error does not matter, and publishing it safely would cost every move a fence.
+    private World world;
+    private final MutableVec3 position = new MutableVec3();
+    private final MutableVec3 velocity = new MutableVec3();
+    private float yaw;
+    private float pitch;
     private double health = 20.0;
     private IBehaviorTree behaviorTree;
     private volatile FakePlayerState state = FakePlayerState.IDLE;
@@ -55,7 +70,7 @@ public class FakePlayer implements IFakePlayer {
     public FakePlayer(UUID id, String name, Location spawn, FakePlayerManager manager) {
         this.id = id;
         this.name = name;
-        this.location = spawn.clone();
+        setLocation(spawn);
         this.manager = manager;
         this.lastActionTime = System.currentTimeMillis();
         
@@ -78,12 +93,11 @@ public class FakePlayer implements IFakePlayer {
             behaviorController.tick();
 
             if (behaviorTree != null) {
-                behaviorTree.tick(this);
+                BehaviorTreeProfiler.get().executeRoot(behaviorTree, this);
             }
 
-            if (needsPacketUpdate()) {
-                manager.getPacketController().queueUpdate(this);
-            }
+            // The packet controller skips bots whose position did not change
+            manager.getPacketController().queueUpdate(this);
 
             updateState();
 
@@ -96,13 +110,22 @@ public class FakePlayer implements IFakePlayer {
     }
 
     public void moveTo(Location loc) {
-        if (manager.getLogger() != null) {
-            manager.getLogger().info("FakePlayer " + name + " moving to location: " + loc);
+        if (loc.getWorld() != null) {
+            this.world = loc.getWorld();
         }
-        
-        this.location = loc.clone();
+        moveTo(loc.getX(), loc.getY(), loc.getZ());
+    }
+
+    /**
+     * Allocation-free move used by the movement controllers.
+     * The displacement from the previous position is kept as this tick's velocity.
+     */
+    public void moveTo(double x, double y, double z) {
+        velocity.set(x - position.x, y - position.y, z - position.z);
+        position.set(x, y, z);
         setState(FakePlayerState.MOVING);
         updateLastActionTime();
+        AIEventLog.get().move(id, x, y, z);
     }
 
     public void performAttack(Entity target) {
@@ -115,21 +138,28 @@ public class FakePlayer implements IFakePlayer {
         return manager.createDecisionContext(this);
     }
 
-    private boolean needsPacketUpdate() {
-        return (System.currentTimeMillis() - lastActionTime) > 50;
-    }
-
     private void updateState() {
         if (health <= 0) {
             setState(FakePlayerState.DEAD);
             return;
         }
 
-        DecisionContext context = createDecisionContext();
+        // Team members read the shared influence map instead of scanning for entities
+        InfluenceMap influence = InfluenceMap.forMember(this);
+        boolean hostileNearby;
+        boolean critical;
+        if (influence != null) {
+            hostileNearby = influence.isThreatened(position.x, position.z);
+            critical = health < DecisionContext.CRITICAL_HEALTH;
+        } else {
+            DecisionContext context = createDecisionContext();
+            hostileNearby = context.hasHostileNearby();
+            critical = context.isHealthCritical();
+        }
 
-        if (context.isHealthCritical()) {
+        if (critical) {
             setState(FakePlayerState.FLEEING);
-        } else if (context.hasHostileNearby()) {
+        } else if (hostileNearby) {
             setState(FakePlayerState.ATTACKING);
         } else if (state == FakePlayerState.MOVING) {
             if (movementController.hasReachedDestination()) {
@@ -172,14 +202,75 @@ public class FakePlayer implements IFakePlayer {
         return name;
     }
 
+    /**
+     * Materialize the current position as a new Location.
+     * Hot paths should prefer {@link #getPosition()} or {@link #getLocation(Location)}.
+     */
     @Override
     public Location getLocation() {
-        return location.clone();
+        return position.toLocation(world, yaw, pitch);
+    }
+
+    /**
+     * Copy the current position into an existing Location, avoiding an allocation
+     */
+    public Location getLocation(Location reuse) {
+        if (reuse == null) {
+            return getLocation();
+        }
+        reuse.setWorld(world);
+        reuse.setYaw(yaw);
+        reuse.setPitch(pitch);
+        return position.writeTo(reuse);
     }
 
     @Override
     public void setLocation(Location location) {
-        this.location = location;
+        this.world = location.getWorld();
+        this.yaw = location.getYaw();
+        this.pitch = location.getPitch();
+        this.position.set(location);
+        this.velocity.set(0, 0, 0);
+    }
+
+    /**
+     * Live position of this fake player; callers must not modify it. Off the AI tick thread
+     * the value may be a tick stale, see the field comment.
+     */
+    public MutableVec3 getPosition() {
+        return position;
+    }
+
+    /**
+     * Displacement applied by the most recent move; callers must not modify it
+     */
+    public MutableVec3 getVelocity() {
+        return velocity;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public double getX() {
+        return position.x;
+    }
+
+    public double getY() {
+        return position.y;
+    }
+
+    public double getZ() {
+        return position.z;
+    }
+
+    public float getYaw() {
+        return yaw;
+    }
+
+    public void setRotation(float yaw, float pitch) {
+        this.yaw = yaw;
+        this.pitch = pitch;
     }
 
     @Override
@@ -229,10 +320,10 @@ public class FakePlayer implements IFakePlayer {
 
     @Override
     public List<Entity> getNearbyEntities(double x, double y, double z) {
-        if (location == null || location.getWorld() == null) {
+        if (world == null) {
             return new ArrayList<>();
         }
-        return new ArrayList<>(location.getWorld().getNearbyEntities(location, x, y, z));
+        return new ArrayList<>(world.getNearbyEntities(getLocation(), x, y, z));
     }
 
     @Override
@@ -240,7 +331,7 @@ public class FakePlayer implements IFakePlayer {
         if (target instanceof LivingEntity) {
             ((LivingEntity) target).damage(5.0);
             this.state = FakePlayerState.COMBAT;
-            manager.getLogger().info(String.format("%s attacked %s", this.name, target.getName()));
+            AIEventLog.get().attack(id, target.getEntityId(), 5.0);
         }
     }
 
@@ -403,7 +494,8 @@ public class FakePlayer implements IFakePlayer {
                 ", name='" + name + "'" +
                 ", health=" + health +
                 ", state=" + state +
-                ", location=" + location +
+                ", world=" + (world != null ? world.getName() : null) +
+                ", position=" + position +
                 '}';
     }
 }
\ No newline at end of file
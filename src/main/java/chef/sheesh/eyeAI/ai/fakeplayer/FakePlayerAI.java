@@ -1,6 +1,8 @@
 package chef.sheesh.eyeAI.ai.fakeplayer;
 
 import chef.sheesh.eyeAI.ai.core.DecisionContext;
+import chef.sheesh.eyeAI.ai.core.team.InfluenceMap;
+import chef.sheesh.eyeAI.core.sim.replay.SessionSeed;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
@@ -15,7 +17,7 @@ import java.util.stream.Collectors;
  */
 public class FakePlayerAI {
     
-    private final Random random = new Random();
+    private final Random random = SessionSeed.random("FakePlayerAI");
     private static final int LOG_INTERVAL = 100; // Log every 100 ticks (5 seconds)
     private int tickCounter = 0;
     private FakePlayer fakePlayer;
@@ -38,7 +40,8 @@ public class FakePlayerAI {
             fakePlayer.getId().getMostSignificantBits(),
             fakePlayer.isInCombat(),
             Optional.empty(),
-            0.0
+            0.0,
+            InfluenceMap.forMember(fakePlayer)
         );
     }
     
@@ -2,10 +2,14 @@ package chef.sheesh.eyeAI.ai.fakeplayer;
 
 import chef.sheesh.eyeAI.ai.core.SchedulerService;
 import chef.sheesh.eyeAI.ai.core.DecisionContext;
+import chef.sheesh.eyeAI.ai.core.team.InfluenceMap;
+import chef.sheesh.eyeAI.ai.core.team.Team;
 import chef.sheesh.eyeAI.ai.fakeplayer.*;
 import chef.sheesh.eyeAI.ai.fakeplayer.persistence.FileBasedFakePlayerPersistence;
 import chef.sheesh.eyeAI.ai.fakeplayer.persistence.IFakePlayerPersistence;
 import chef.sheesh.eyeAI.ai.fakeplayer.persistence.FakePlayerStatistics;
+import chef.sheesh.eyeAI.bootstrap.ChefAI;
+import chef.sheesh.eyeAI.infra.packets.VirtualEntityPackets;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
@@ -67,7 +71,7 @@ public class FakePlayerManager implements IFakePlayerManager {
     public FakePlayerManager(JavaPlugin plugin, SchedulerService scheduler) {
         this.plugin = plugin;
         this.scheduler = scheduler;
-        this.packetController = new PacketNpcController(plugin);
+        this.packetController = createPacketController(plugin);
         this.behaviorTreeFactory = new FakePlayerAI();
         this.persistence = new FileBasedFakePlayerPersistence(plugin);
 
@@ -75,6 +79,19 @@ public class FakePlayerManager implements IFakePlayerManager {
         loadFromPersistence();
     }
 
+    /**
+     * Use client-side packet NPCs when a packet library is available, armor stands otherwise
+     */
+    private static IFakePlayerPacketController createPacketController(JavaPlugin plugin) {
+        if (plugin instanceof ChefAI chefAI && chefAI.getPacketBridge() != null) {
+            VirtualEntityPackets packets = chefAI.getPacketBridge().getVirtualEntityPackets();
+            if (packets != null) {
+                return new VirtualNpcController(plugin, packets);
+            }
+        }
+        return new PacketNpcController(plugin);
+    }
+
     /**
      * Spawn a new fake player at the given location
      */
@@ -235,7 +252,8 @@ public class FakePlayerManager implements IFakePlayerManager {
             worldTime,
             isDayTime,
             Optional.empty(), // Current target (to be implemented in behavior trees)
-            threatLevel
+            threatLevel,
+            InfluenceMap.forMember(fakePlayer)
         );
     }
 
@@ -390,6 +408,23 @@ public class FakePlayerManager implements IFakePlayerManager {
         }
         
         long currentTime = System.currentTimeMillis();
+
+        // One shared scan and blackboard publish per team and decision interval. The entity
+        // scan runs on the main thread; this thread only applies the last one published
+        Set<Team> teams = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (FakePlayer fp : active.values()) {
+            Team team = fp.getTeam();
+            if (team != null && teams.add(team)) {
+                InfluenceMap influence = team.getInfluence();
+                influence.requestScan(team.getMembers().keySet(), currentTime, scheduler::runOnMain);
+                influence.update(team.getMembers().keySet(), currentTime);
+                try {
+                    team.getBlackboard().publish(currentTime);
+                } catch (Exception e) {
+                    plugin.getLogger().warning("Error publishing team blackboard " + team.getTeamId() + ": " + e.getMessage());
+                }
+            }
+        }
         
         // Process active fake players
         Iterator<Map.Entry<UUID, FakePlayer>> iterator = active.entrySet().iterator();
@@ -398,8 +433,7 @@ public class FakePlayerManager implements IFakePlayerManager {
             FakePlayer fp = entry.getValue();
             
             // Skip if not loaded or invalid
-            if (fp == null || fp.getLocation() == null || 
-                fp.getLocation().getWorld() == null) {
+            if (fp == null || fp.getWorld() == null) {
                 continue;
             }
             
@@ -420,18 +454,16 @@ public class FakePlayerManager implements IFakePlayerManager {
             }
         }
         
-        // Update NPC visuals periodically
-        if (currentTime - lastVisualUpdate > 1000) { // Update every 1 second
-            updateNpcVisuals();
+        // Send this tick's batched position updates
+        packetController.flush();
+
+        // Recompute interest sets periodically so bots spawn/despawn as players move
+        if (currentTime - lastVisualUpdate > 500) { // Update every 10 ticks
+            packetController.updateVisibility();
             lastVisualUpdate = currentTime;
         }
     }
 
-    private void updateNpcVisuals() {
-        packetController.flush(); // Send batched packets
-        packetController.updateVisibility(); // Update NPC visibility
-    }
-
     /**
      * Save all fake players to persistence
      */
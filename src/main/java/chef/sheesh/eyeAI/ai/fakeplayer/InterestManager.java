@@ -0,0 +1,273 @@
+package chef.sheesh.eyeAI.ai.fakeplayer;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interest management for client-side NPCs.
+ * Bots are bucketed by chunk section (16x16x16); for every real player the set of
+ * bots within view range is recomputed from the surrounding sections only, and the
+ * listener is told which bots entered or left that set. Update frequency is
+ * throttled by distance so far-away bots cost less bandwidth.
+ */
+public class InterestManager {
+
+    /** Bots closer than this are updated every tick. */
+    public static final double FULL_RATE_DISTANCE = 16.0;
+    /** Bots closer than this (and beyond full rate) are updated every other tick. */
+    public static final double HALF_RATE_DISTANCE = 48.0;
+    /** Extra blocks a bot may move past the view range before it is despawned, to avoid flicker. */
+    private static final double HYSTERESIS = 8.0;
+
+    private final Map<Integer, Tracked> tracked = new ConcurrentHashMap<>();
+    private final Map<World, Map<Long, Set<Tracked>>> sections = new ConcurrentHashMap<>();
+    private final Map<UUID, ViewerInterest> viewers = new ConcurrentHashMap<>();
+    private double viewDistance;
+
+    public InterestManager(double viewDistance) {
+        setViewDistance(viewDistance);
+    }
+
+    public void setViewDistance(double viewDistance) {
+        this.viewDistance = Math.max(FULL_RATE_DISTANCE, viewDistance);
+    }
+
+    public double getViewDistance() {
+        return viewDistance;
+    }
+
+    /**
+     * Start tracking a bot under its client-side entity ID
+     */
+    public void track(int entityId, FakePlayer fakePlayer) {
+        Tracked entry = new Tracked(entityId, fakePlayer);
+        tracked.put(entityId, entry);
+        index(entry);
+    }
+
+    /**
+     * Stop tracking a bot; returns the viewers that still had it spawned
+     */
+    public List<UUID> untrack(int entityId) {
+        Tracked entry = tracked.remove(entityId);
+        List<UUID> hadVisible = new ArrayList<>();
+        if (entry == null) {
+            return hadVisible;
+        }
+        unindex(entry);
+        for (ViewerInterest interest : viewers.values()) {
+            if (interest.visible.remove(entityId)) {
+                hadVisible.add(interest.viewerId);
+            }
+        }
+        return hadVisible;
+    }
+
+    /**
+     * Recompute each player's interest set and report enter/leave transitions.
+     * Players that went offline are dropped without callbacks.
+     */
+    public void update(Collection<? extends Player> players, Listener listener) {
+        reindex();
+
+        Set<UUID> online = new HashSet<>();
+        Location scratch = new Location(null, 0, 0, 0);
+        for (Player player : players) {
+            online.add(player.getUniqueId());
+            ViewerInterest interest = viewers.computeIfAbsent(player.getUniqueId(), ViewerInterest::new);
+            player.getLocation(scratch);
+            interest.world = scratch.getWorld();
+            interest.x = scratch.getX();
+            interest.y = scratch.getY();
+            interest.z = scratch.getZ();
+            updateViewer(player, interest, listener);
+        }
+        viewers.keySet().retainAll(online);
+    }
+
+    private void updateViewer(Player player, ViewerInterest interest, Listener listener) {
+        Map<Long, Set<Tracked>> worldSections = interest.world != null ? sections.get(interest.world) : null;
+        Set<Integer> inRange = new HashSet<>();
+
+        if (worldSections != null) {
+            double enterSquared = viewDistance * viewDistance;
+            double stayDistance = viewDistance + HYSTERESIS;
+            double staySquared = stayDistance * stayDistance;
+            int radius = (int) Math.ceil(stayDistance / 16.0);
+            int centerX = (int) Math.floor(interest.x) >> 4;
+            int centerY = (int) Math.floor(interest.y) >> 4;
+            int centerZ = (int) Math.floor(interest.z) >> 4;
+
+            for (int sx = centerX - radius; sx <= centerX + radius; sx++) {
+                for (int sz = centerZ - radius; sz <= centerZ + radius; sz++) {
+                    for (int sy = centerY - radius; sy <= centerY + radius; sy++) {
+                        Set<Tracked> bucket = worldSections.get(sectionKey(sx, sy, sz));
+                        if (bucket == null) {
+                            continue;
+                        }
+                        for (Tracked entry : bucket) {
+                            double distanceSquared = entry.fakePlayer.getPosition()
+                                    .distanceSquared(interest.x, interest.y, interest.z);
+                            boolean alreadyVisible = interest.visible.contains(entry.entityId);
+                            if (distanceSquared <= enterSquared || (alreadyVisible && distanceSquared <= staySquared)) {
+                                inRange.add(entry.entityId);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Integer> left = new ArrayList<>();
+        for (Iterator<Integer> it = interest.visible.iterator(); it.hasNext(); ) {
+            Integer entityId = it.next();
+            if (!inRange.contains(entityId)) {
+                it.remove();
+                left.add(entityId);
+            }
+        }
+        if (!left.isEmpty()) {
+            listener.onLeave(player, left);
+        }
+
+        for (Integer entityId : inRange) {
+            if (interest.visible.add(entityId)) {
+                Tracked entry = tracked.get(entityId);
+                if (entry != null) {
+                    listener.onEnter(player, entityId, entry.fakePlayer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ticks between position updates for a bot at the given squared distance from a viewer
+     */
+    public static int updateInterval(double distanceSquared) {
+        if (distanceSquared < FULL_RATE_DISTANCE * FULL_RATE_DISTANCE) {
+            return 1;
+        }
+        if (distanceSquared < HALF_RATE_DISTANCE * HALF_RATE_DISTANCE) {
+            return 2;
+        }
+        return 4;
+    }
+
+    /**
+     * Squared distance between a bot and a viewer's last known position, or +Infinity if unknown
+     */
+    public double distanceSquaredToViewer(UUID viewerId, FakePlayer fakePlayer) {
+        ViewerInterest interest = viewers.get(viewerId);
+        if (interest == null || interest.world != fakePlayer.getWorld()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return fakePlayer.getPosition().distanceSquared(interest.x, interest.y, interest.z);
+    }
+
+    /**
+     * Number of bots a viewer currently has spawned
+     */
+    public int getVisibleCount(UUID viewerId) {
+        ViewerInterest interest = viewers.get(viewerId);
+        return interest != null ? interest.visible.size() : 0;
+    }
+
+    /**
+     * Move bots whose chunk section changed into their new bucket
+     */
+    private void reindex() {
+        for (Tracked entry : tracked.values()) {
+            FakePlayer fakePlayer = entry.fakePlayer;
+            long key = sectionKey((int) Math.floor(fakePlayer.getX()) >> 4,
+                    (int) Math.floor(fakePlayer.getY()) >> 4,
+                    (int) Math.floor(fakePlayer.getZ()) >> 4);
+            if (key != entry.sectionKey || fakePlayer.getWorld() != entry.world) {
+                unindex(entry);
+                index(entry);
+            }
+        }
+    }
+
+    private void index(Tracked entry) {
+        FakePlayer fakePlayer = entry.fakePlayer;
+        entry.world = fakePlayer.getWorld();
+        entry.sectionKey = sectionKey((int) Math.floor(fakePlayer.getX()) >> 4,
+                (int) Math.floor(fakePlayer.getY()) >> 4,
+                (int) Math.floor(fakePlayer.getZ()) >> 4);
+        if (entry.world == null) {
+            return;
+        }
+        sections.computeIfAbsent(entry.world, w -> new ConcurrentHashMap<>())
+                .computeIfAbsent(entry.sectionKey, k -> ConcurrentHashMap.newKeySet())
+                .add(entry);
+    }
+
+    private void unindex(Tracked entry) {
+        if (entry.world == null) {
+            return;
+        }
+        Map<Long, Set<Tracked>> worldSections = sections.get(entry.world);
+        if (worldSections == null) {
+            return;
+        }
+        Set<Tracked> bucket = worldSections.get(entry.sectionKey);
+        if (bucket != null) {
+            bucket.remove(entry);
+            if (bucket.isEmpty()) {
+                worldSections.remove(entry.sectionKey);
+            }
+        }
+    }
+
+    /**
+     * Pack section coordinates into one key (x/z: 22 bits, y: 20 bits, two's complement)
+     */
+    static long sectionKey(int sectionX, int sectionY, int sectionZ) {
+        return ((long) (sectionX & 0x3FFFFF) << 42) | ((long) (sectionZ & 0x3FFFFF) << 20) | (sectionY & 0xFFFFF);
+    }
+
+    /**
+     * Receives interest set transitions
+     */
+    public interface Listener {
+        void onEnter(Player viewer, int entityId, FakePlayer fakePlayer);
+
+        void onLeave(Player viewer, List<Integer> entityIds);
+    }
+
+    private static final class Tracked {
+        private final int entityId;
+        private final FakePlayer fakePlayer;
+        private World world;
+        private long sectionKey;
+
+        private Tracked(int entityId, FakePlayer fakePlayer) {
+            this.entityId = entityId;
+            this.fakePlayer = fakePlayer;
+        }
+    }
+
+    private static final class ViewerInterest {
+        private final UUID viewerId;
+        private final Set<Integer> visible = ConcurrentHashMap.newKeySet();
+        private World world;
+        private double x;
+        private double y;
+        private double z;
+
+        private ViewerInterest(UUID viewerId) {
+            this.viewerId = viewerId;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package chef.sheesh.eyeAI.ai.fakeplayer;
 
+import chef.sheesh.eyeAI.infra.diagnostic.AIEventLog;
+
 // ProtocolLib is not available, using fallback implementation
 
 // Adventure API import
@@ -23,6 +25,7 @@ public class PacketNpcController implements IFakePlayerPacketController {
     private final JavaPlugin plugin;
     private final Map<UUID, ArmorStand> visualEntities = new ConcurrentHashMap<>();
     private final Map<UUID, FakePlayer> entityIdToFakePlayer = new ConcurrentHashMap<>();
+    private final Set<FakePlayer> pendingUpdates = ConcurrentHashMap.newKeySet();
     private boolean enabled = true;
 
     public PacketNpcController(JavaPlugin plugin) {
@@ -42,12 +45,24 @@ public class PacketNpcController implements IFakePlayerPacketController {
 
     @Override
     public void queueUpdate(FakePlayer fakePlayer) {
-        updateLocation(fakePlayer, fakePlayer.getLocation());
+        if (enabled) {
+            pendingUpdates.add(fakePlayer);
+        }
     }
 
     @Override
     public void flush() {
-        // Flush any pending updates
+        // Teleports must happen on the main thread; collect this tick's updates into one task
+        if (pendingUpdates.isEmpty()) {
+            return;
+        }
+        List<FakePlayer> batch = new ArrayList<>(pendingUpdates);
+        pendingUpdates.removeAll(batch);
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            for (FakePlayer fakePlayer : batch) {
+                updateLocation(fakePlayer, fakePlayer.getLocation());
+            }
+        });
     }
 
     @SuppressWarnings("unused")
@@ -79,7 +94,7 @@ public class PacketNpcController implements IFakePlayerPacketController {
         entityIdToFakePlayer.put(armorStand.getUniqueId(), fp); // Add to reverse map
         fp.setVisibleNpc(armorStand);
 
-        plugin.getLogger().info("Created visual NPC for " + fp.getName() + " using armor stand");
+        AIEventLog.get().npcSpawn(fp.getId(), location.getX(), location.getY(), location.getZ());
     }
 
     @Override
@@ -118,6 +133,7 @@ public class PacketNpcController implements IFakePlayerPacketController {
         }
         visualEntities.clear();
         entityIdToFakePlayer.clear();
+        pendingUpdates.clear();
     }
 
     @Override
@@ -128,7 +144,9 @@ public class PacketNpcController implements IFakePlayerPacketController {
         
         ArmorStand armorStand = visualEntities.get(fakePlayer.getId());
         if (armorStand != null && !armorStand.isDead()) {
-            if (!armorStand.getLocation().equals(location)) {
+            Location current = armorStand.getLocation();
+            if (current.getX() != location.getX() || current.getY() != location.getY()
+                    || current.getZ() != location.getZ() || current.getWorld() != location.getWorld()) {
                 armorStand.teleport(location);
             }
         }
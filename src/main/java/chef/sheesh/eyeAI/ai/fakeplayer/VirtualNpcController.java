@@ -0,0 +1,394 @@
+package chef.sheesh.eyeAI.ai.fakeplayer;
+
+import chef.sheesh.eyeAI.infra.diagnostic.AIEventLog;
+import chef.sheesh.eyeAI.infra.packets.VirtualEntityPackets;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.ArmorStand;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Packet-based visual pipeline for fake players.
+ * Each bot is a client-side only entity: there is no server entity to tick or track.
+ * Position changes are collected during the tick and flushed once per tick as
+ * relative-move packets, and bots that did not move send nothing. Which players
+ * see which bots, and how often, is decided by the {@link InterestManager}.
+ */
+public class VirtualNpcController implements IFakePlayerPacketController {
+
+    /** Protocol unit for relative moves (1/4096 block). */
+    private static final double DELTA_SCALE = 4096.0;
+
+    // Entity IDs far above what the server hands out, so they never collide
+    private static final AtomicInteger NEXT_ENTITY_ID = new AtomicInteger(1_500_000_000);
+
+    private final JavaPlugin plugin;
+    private final VirtualEntityPackets packets;
+    private final Map<UUID, VirtualNpc> npcs = new ConcurrentHashMap<>();
+    private final Map<Integer, VirtualNpc> npcsByEntityId = new ConcurrentHashMap<>();
+    private final Set<VirtualNpc> dirty = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Proxy> proxyEntities = new ConcurrentHashMap<>();
+    private final Map<UUID, FakePlayer> entityIdToFakePlayer = new ConcurrentHashMap<>();
+    private final InterestManager interest;
+    private final InterestManager.Listener interestListener = new InterestListener();
+    private final AtomicBoolean proxySyncPending = new AtomicBoolean();
+    private final Runnable syncProxies = this::syncProxies;
+    private volatile boolean enabled = true;
+    private long tick = 0;
+
+    public VirtualNpcController(JavaPlugin plugin, VirtualEntityPackets packets) {
+        this.plugin = plugin;
+        this.packets = packets;
+        this.interest = new InterestManager(Math.min(Bukkit.getViewDistance(), 8) * 16.0);
+        plugin.getLogger().info("VirtualNpcController initialized - using client-side packet NPCs");
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Set the radius in blocks within which players receive a bot's packets
+     */
+    public void setViewDistance(double viewDistance) {
+        interest.setViewDistance(viewDistance);
+    }
+
+    public double getViewDistance() {
+        return interest.getViewDistance();
+    }
+
+    public InterestManager getInterestManager() {
+        return interest;
+    }
+
+    @Override
+    public void createVisualNpc(FakePlayer fakePlayer) {
+        if (!enabled) {
+            return;
+        }
+        boolean[] created = new boolean[1];
+        npcs.computeIfAbsent(fakePlayer.getId(), id -> {
+            VirtualNpc npc = new VirtualNpc(fakePlayer, NEXT_ENTITY_ID.getAndIncrement());
+            npcsByEntityId.put(npc.entityId, npc);
+            interest.track(npc.entityId, fakePlayer);
+            created[0] = true;
+            return npc;
+        });
+        if (created[0]) {
+            AIEventLog.get().npcSpawn(fakePlayer.getId(), fakePlayer.getX(), fakePlayer.getY(), fakePlayer.getZ());
+        }
+    }
+
+    @Override
+    public void removeVisualNpc(FakePlayer fakePlayer) {
+        VirtualNpc npc = npcs.remove(fakePlayer.getId());
+        if (npc != null) {
+            npcsByEntityId.remove(npc.entityId);
+            dirty.remove(npc);
+            List<Integer> ids = List.of(npc.entityId);
+            for (UUID viewerId : interest.untrack(npc.entityId)) {
+                Player viewer = Bukkit.getPlayer(viewerId);
+                if (viewer != null) {
+                    packets.destroy(viewer, ids);
+                }
+            }
+            npc.viewers.clear();
+        }
+
+        Proxy proxy = proxyEntities.remove(fakePlayer.getId());
+        if (proxy != null) {
+            entityIdToFakePlayer.remove(proxy.stand.getUniqueId());
+            if (!proxy.stand.isDead()) {
+                proxy.stand.remove();
+            }
+        }
+        fakePlayer.setVisibleNpc(null);
+    }
+
+    @Override
+    public void updateLocation(FakePlayer fakePlayer, Location newLocation) {
+        queueUpdate(fakePlayer);
+    }
+
+    @Override
+    public void queueUpdate(FakePlayer fakePlayer) {
+        if (!enabled) {
+            return;
+        }
+        VirtualNpc npc = npcs.get(fakePlayer.getId());
+        if (npc != null) {
+            dirty.add(npc);
+        }
+    }
+
+    @Override
+    public void flush() {
+        tick++;
+        // One main thread task, and only when a bot with a proxy moved since the last one ran
+        if (!proxyEntities.isEmpty() && !proxySyncPending.get() && markMovedProxies()) {
+            proxySyncPending.set(true);
+            Bukkit.getScheduler().runTask(plugin, syncProxies);
+        }
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<VirtualNpc> deferred = new ArrayList<>();
+        for (VirtualNpc npc : dirty) {
+            dirty.remove(npc);
+            if (!npc.viewers.isEmpty() && sendDeltas(npc)) {
+                deferred.add(npc);
+            }
+        }
+        // Far viewers skipped this tick still need the movement later
+        dirty.addAll(deferred);
+    }
+
+    /**
+     * Send the movement since each viewer's last update, encoded as a relative move when it fits.
+     *
+     * @return true if some viewer was throttled and still has movement pending
+     */
+    private boolean sendDeltas(VirtualNpc npc) {
+        FakePlayer fakePlayer = npc.fakePlayer;
+        long encodedX = Math.round(fakePlayer.getX() * DELTA_SCALE);
+        long encodedY = Math.round(fakePlayer.getY() * DELTA_SCALE);
+        long encodedZ = Math.round(fakePlayer.getZ() * DELTA_SCALE);
+        float yaw = fakePlayer.getYaw();
+        boolean pending = false;
+
+        for (ViewerSlot slot : npc.viewers.values()) {
+            long dx = encodedX - slot.sentX;
+            long dy = encodedY - slot.sentY;
+            long dz = encodedZ - slot.sentZ;
+            boolean rotate = yaw != slot.sentYaw;
+            if (dx == 0 && dy == 0 && dz == 0 && !rotate) {
+                continue; // Unchanged bots send nothing
+            }
+
+            // Full rate close by, reduced rate further away; offset by entity ID to spread load
+            int interval = InterestManager.updateInterval(interest.distanceSquaredToViewer(slot.viewerId, fakePlayer));
+            if (interval > 1 && (tick + npc.entityId) % interval != 0) {
+                pending = true;
+                continue;
+            }
+
+            Player viewer = Bukkit.getPlayer(slot.viewerId);
+            if (viewer == null) {
+                npc.viewers.remove(slot.viewerId);
+                continue;
+            }
+            if (fitsShort(dx) && fitsShort(dy) && fitsShort(dz)) {
+                packets.relativeMove(viewer, npc.entityId, (short) dx, (short) dy, (short) dz,
+                        yaw, 0f, rotate, true);
+            } else {
+                packets.teleport(viewer, npc.entityId, fakePlayer.getX(), fakePlayer.getY(), fakePlayer.getZ(),
+                        yaw, 0f, true);
+            }
+            slot.sentX = encodedX;
+            slot.sentY = encodedY;
+            slot.sentZ = encodedZ;
+            slot.sentYaw = yaw;
+        }
+        return pending;
+    }
+
+    @Override
+    public void updateVisibility() {
+        if (!enabled) {
+            return;
+        }
+        interest.update(Bukkit.getOnlinePlayers(), interestListener);
+    }
+
+    /**
+     * Spawns and destroys client-side NPCs as bots enter or leave a player's interest set
+     */
+    private final class InterestListener implements InterestManager.Listener {
+
+        @Override
+        public void onEnter(Player viewer, int entityId, FakePlayer fakePlayer) {
+            VirtualNpc npc = npcsByEntityId.get(entityId);
+            if (npc == null) {
+                return;
+            }
+            ViewerSlot slot = new ViewerSlot(viewer.getUniqueId());
+            slot.sentX = Math.round(fakePlayer.getX() * DELTA_SCALE);
+            slot.sentY = Math.round(fakePlayer.getY() * DELTA_SCALE);
+            slot.sentZ = Math.round(fakePlayer.getZ() * DELTA_SCALE);
+            slot.sentYaw = fakePlayer.getYaw();
+            packets.spawn(viewer, npc.entityId, npc.uuid, fakePlayer.getName(),
+                    slot.sentX / DELTA_SCALE, slot.sentY / DELTA_SCALE, slot.sentZ / DELTA_SCALE, slot.sentYaw, 0f);
+            npc.viewers.put(slot.viewerId, slot);
+        }
+
+        @Override
+        public void onLeave(Player viewer, List<Integer> entityIds) {
+            UUID viewerId = viewer.getUniqueId();
+            for (Integer entityId : entityIds) {
+                VirtualNpc npc = npcsByEntityId.get(entityId);
+                if (npc != null) {
+                    npc.viewers.remove(viewerId);
+                }
+            }
+            // One destroy packet per viewer
+            packets.destroy(viewer, entityIds);
+        }
+    }
+
+    /**
+     * Damage events need a real entity as the damager, so a marker armor stand is
+     * created lazily for bots that actually attack and then follows them. Visuals stay
+     * packet-only.
+     */
+    @Override
+    public Entity getOrCreateProxyEntity(FakePlayer fakePlayer) {
+        return proxyEntities.computeIfAbsent(fakePlayer.getId(), id -> {
+            Location location = fakePlayer.getLocation();
+            ArmorStand stand = (ArmorStand) location.getWorld().spawnEntity(location, EntityType.ARMOR_STAND);
+            stand.setInvisible(true);
+            stand.setInvulnerable(true);
+            stand.setGravity(false);
+            stand.setMarker(true);
+            stand.customName(Component.text(fakePlayer.getName()));
+            entityIdToFakePlayer.put(stand.getUniqueId(), fakePlayer);
+            return new Proxy(stand, fakePlayer, location);
+        }).stand;
+    }
+
+    /**
+     * Note where each proxied bot moved since its proxy was last placed; only called while
+     * no sync is pending, so the main thread never reads a target while it is written
+     *
+     * @return whether any proxy has to move
+     */
+    private boolean markMovedProxies() {
+        boolean moved = false;
+        for (Proxy proxy : proxyEntities.values()) {
+            FakePlayer fakePlayer = proxy.fakePlayer;
+            World world = fakePlayer.getWorld();
+            if (fakePlayer.getX() != proxy.x || fakePlayer.getY() != proxy.y || fakePlayer.getZ() != proxy.z
+                    || world != proxy.world) {
+                proxy.x = fakePlayer.getX();
+                proxy.y = fakePlayer.getY();
+                proxy.z = fakePlayer.getZ();
+                proxy.world = world;
+                proxy.moved = true;
+                moved = true;
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Move the damage proxies of bots that moved along with them; entities are only
+     * touched on the main thread
+     */
+    private void syncProxies() {
+        try {
+            for (Proxy proxy : proxyEntities.values()) {
+                if (!proxy.moved) {
+                    continue;
+                }
+                proxy.moved = false;
+                if (!proxy.stand.isDead() && proxy.world != null) {
+                    proxy.stand.teleport(new Location(proxy.world, proxy.x, proxy.y, proxy.z));
+                }
+            }
+        } finally {
+            proxySyncPending.set(false);
+        }
+    }
+
+    @Override
+    public Optional<FakePlayer> getFakePlayerByEntityId(UUID entityId) {
+        return Optional.ofNullable(entityIdToFakePlayer.get(entityId));
+    }
+
+    /**
+     * Number of virtual NPCs currently tracked
+     */
+    public int getNpcCount() {
+        return npcs.size();
+    }
+
+    private static boolean fitsShort(long value) {
+        return value >= Short.MIN_VALUE && value <= Short.MAX_VALUE;
+    }
+
+    /**
+     * Client-side entity state for one fake player
+     */
+    private static final class VirtualNpc {
+        private final FakePlayer fakePlayer;
+        private final int entityId;
+        private final UUID uuid = UUID.randomUUID();
+        private final Map<UUID, ViewerSlot> viewers = new ConcurrentHashMap<>();
+
+        private VirtualNpc(FakePlayer fakePlayer, int entityId) {
+            this.fakePlayer = fakePlayer;
+            this.entityId = entityId;
+        }
+    }
+
+    /**
+     * Damage proxy of a bot and where it was last sent; the target is written by the tick
+     * thread before a sync is scheduled and read by that sync on the main thread
+     */
+    private static final class Proxy {
+        private final ArmorStand stand;
+        private final FakePlayer fakePlayer;
+        private World world;
+        private double x;
+        private double y;
+        private double z;
+        private boolean moved;
+
+        private Proxy(ArmorStand stand, FakePlayer fakePlayer, Location location) {
+            this.stand = stand;
+            this.fakePlayer = fakePlayer;
+            this.world = location.getWorld();
+            this.x = location.getX();
+            this.y = location.getY();
+            this.z = location.getZ();
+        }
+    }
+
+    /**
+     * Per-viewer baseline; viewers are throttled independently so each needs its own
+     */
+    private static final class ViewerSlot {
+        private final UUID viewerId;
+        // Last position sent to this viewer, in protocol units
+        private long sentX;
+        private long sentY;
+        private long sentZ;
+        private float sentYaw;
+
+        private ViewerSlot(UUID viewerId) {
+            this.viewerId = viewerId;
+        }
+    }
+}
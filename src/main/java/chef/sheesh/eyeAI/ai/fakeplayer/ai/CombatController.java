@@ -84,8 +84,8 @@ public class CombatController {
         Location playerLoc = fakePlayer.getLocation();
         double distance = playerLoc.distance(targetLoc);
 
-        if (distance > ATTACK_RANGE - 1.0) {
-            // Move closer
+        if (distance > ATTACK_RANGE - 1.0 && !fakePlayer.getPathfinder().chase(targetLoc)) {
+            // Move closer directly until a chase path arrives
             fakePlayer.getMovementController().moveTowards(targetLoc);
         }
     }
@@ -1,6 +1,12 @@
 package chef.sheesh.eyeAI.ai.fakeplayer.ai;
 
+import chef.sheesh.eyeAI.ai.core.tactics.Threats;
+import chef.sheesh.eyeAI.ai.core.team.InfluenceMap;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
+import chef.sheesh.eyeAI.ai.movement.MutableVec3;
+import chef.sheesh.eyeAI.ai.movement.PathService;
+import chef.sheesh.eyeAI.ai.movement.nav.FlowField;
+import chef.sheesh.eyeAI.ai.movement.nav.NavCells;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
 
@@ -9,16 +15,34 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
- * Group coordination system for fake players to work together
+ * Group coordination system for fake players to work together.
+ * Members heading for the same destination share one flow field, so moving a group costs
+ * about the same however many members it has. In combat, each group's attackers are assigned
+ * to threats in one batched solve per decision interval, see {@link TargetAssigner}.
  */
 public class GroupCoordinator {
 
+    /** Members this close to their slot, or to the destination, walk straight to the slot */
+    private static final double SLOT_RANGE = 6.0;
+    /** Flow-field steps looked ahead, so members aim past the next block */
+    private static final int LOOKAHEAD = 3;
+    /**
+     * Flow fields are requested for the centre of the goal's column of this many blocks, so a
+     * target moving around inside it keeps its field; the centre is at most SLOT_RANGE away
+     */
+    private static final int GOAL_CELL = 8;
+    /** Members closer than this push each other apart */
+    private static final double SEPARATION_RADIUS = 1.5;
+    private static final double SEPARATION_WEIGHT = 1.0;
+
     private final Map<UUID, Group> groups;
     private final Map<UUID, GroupAssignment> assignments;
+    private final Map<UUID, TargetAssigner> targetAssigners;
 
     public GroupCoordinator() {
         this.groups = new ConcurrentHashMap<>();
         this.assignments = new ConcurrentHashMap<>();
+        this.targetAssigners = new ConcurrentHashMap<>();
     }
 
     /**
@@ -128,6 +152,7 @@ public class GroupCoordinator {
     private void updateFormation(Group group) {
         Location center = group.getCenter();
         List<Map.Entry<FakePlayer, GroupRole>> members = new ArrayList<>(group.getMembers().entrySet());
+        List<FakePlayer> crowd = members.stream().map(Map.Entry::getKey).toList();
 
         for (int i = 0; i < members.size(); i++) {
             FakePlayer member = members.get(i).getKey();
@@ -138,23 +163,84 @@ public class GroupCoordinator {
 
             // Move towards formation position if too far
             if (member.getLocation().distance(targetPos) > 3.0) {
-                // Use pathfinding to move to position - integrated with PathFinder
-                moveToFormationPosition(member, targetPos);
+                moveTowardsSlot(crowd, member, center, targetPos);
             }
         }
     }
 
     /**
-     * Move member to formation position
+     * Move a member towards its slot near a destination shared with other members. Far from
+     * the slot it follows the destination's flow field; its own path is only planned while
+     * the field is being built or when it stands outside the field.
      */
-    private void moveToFormationPosition(FakePlayer member, Location targetPos) {
-        // Safely call pathfinder and movement controller with null checks
-        if (member.getPathfinder() != null) {
-            member.getPathfinder().findPath(targetPos);
+    private void moveTowardsSlot(Collection<FakePlayer> crowd, FakePlayer member, Location destination, Location slot) {
+        MovementController movement = member.getMovementController();
+        if (movement == null) {
+            return;
         }
-        if (member.getMovementController() != null) {
-            member.getMovementController().moveTowards(targetPos);
+        Location position = member.getLocation();
+        Location waypoint = slot;
+        if (position.getWorld() == slot.getWorld() && position.getWorld() == destination.getWorld()) {
+            double reach = slot.distance(destination) + SLOT_RANGE;
+            if (position.distanceSquared(slot) > SLOT_RANGE * SLOT_RANGE
+                    && position.distanceSquared(destination) > reach * reach) {
+                FlowField field = PathService.get().flowField(goalCell(destination));
+                long next = field != null
+                        ? field.ahead(position.getBlockX(), position.getBlockY(), position.getBlockZ(), LOOKAHEAD)
+                        : FlowField.NONE;
+                if (next != FlowField.NONE) {
+                    waypoint = new Location(slot.getWorld(), NavCells.x(next) + 0.5, NavCells.y(next), NavCells.z(next) + 0.5);
+                } else if (member.getPathfinder() != null) {
+                    member.getPathfinder().findPath(slot);
+                }
+            }
+        }
+        movement.moveTowards(separate(crowd, member, waypoint));
+    }
+
+    /**
+     * Centre of the {@link #GOAL_CELL} column holding a destination
+     */
+    private static Location goalCell(Location destination) {
+        double x = Math.floorDiv(destination.getBlockX(), GOAL_CELL) * GOAL_CELL + GOAL_CELL / 2.0;
+        double z = Math.floorDiv(destination.getBlockZ(), GOAL_CELL) * GOAL_CELL + GOAL_CELL / 2.0;
+        return new Location(destination.getWorld(), x, destination.getBlockY(), z);
+    }
+
+    /**
+     * Shift a waypoint away from members standing too close, so members do not stack
+     */
+    private Location separate(Collection<FakePlayer> crowd, FakePlayer member, Location waypoint) {
+        MutableVec3 position = member.getPosition();
+        double pushX = 0;
+        double pushZ = 0;
+        for (FakePlayer other : crowd) {
+            if (other == member || other.getWorld() != member.getWorld()) {
+                continue;
+            }
+            MutableVec3 otherPosition = other.getPosition();
+            double dx = position.x - otherPosition.x;
+            double dz = position.z - otherPosition.z;
+            double distanceSquared = dx * dx + dz * dz;
+            if (distanceSquared >= SEPARATION_RADIUS * SEPARATION_RADIUS) {
+                continue;
+            }
+            if (distanceSquared < 1.0E-4) {
+                // Exactly stacked: each member leaves in its own direction
+                double angle = (member.getId().hashCode() & 0xFFFF) * (2 * Math.PI / 0x10000);
+                pushX += Math.cos(angle);
+                pushZ += Math.sin(angle);
+                continue;
+            }
+            double distance = Math.sqrt(distanceSquared);
+            double strength = (SEPARATION_RADIUS - distance) / SEPARATION_RADIUS;
+            pushX += dx / distance * strength;
+            pushZ += dz / distance * strength;
+        }
+        if (pushX == 0 && pushZ == 0) {
+            return waypoint;
         }
+        return waypoint.clone().add(pushX * SEPARATION_WEIGHT, 0, pushZ * SEPARATION_WEIGHT);
     }
 
     /**
@@ -186,10 +272,15 @@ public class GroupCoordinator {
 
         if (!groupThreats.isEmpty()) {
             // Assign targets to group members
-            assignCombatTargets(group, groupThreats);
+            Map<FakePlayer, Entity> targets = assignCombatTargets(group, groupThreats);
 
             // Coordinate attack patterns
-            coordinateAttackPattern(group, groupThreats);
+            coordinateAttackPattern(group, groupThreats, targets);
+        } else {
+            TargetAssigner assigner = targetAssigners.get(group.getId());
+            if (assigner != null) {
+                assigner.reset();
+            }
         }
     }
 
@@ -201,6 +292,19 @@ public class GroupCoordinator {
         Location center = group.getCenter();
         double threatRange = 20.0;
 
+        // Members of a team share its map's scan; the group only filters it by range
+        for (FakePlayer member : group.getMembers().keySet()) {
+            InfluenceMap influence = InfluenceMap.forMember(member);
+            if (influence != null && influence.getWorld().equals(center.getWorld())) {
+                for (Entity entity : influence.getHostiles()) {
+                    if (!entity.isDead() && entity.getLocation().distanceSquared(center) <= threatRange * threatRange) {
+                        threats.add(entity);
+                    }
+                }
+                return threats;
+            }
+        }
+
         // Check for threats around group center
         for (Entity entity : center.getWorld().getNearbyEntities(center, threatRange, threatRange, threatRange)) {
             if (isHostile(entity)) {
@@ -214,7 +318,7 @@ public class GroupCoordinator {
     /**
      * Assign combat targets to group members
      */
-    private void assignCombatTargets(Group group, Set<Entity> threats) {
+    private Map<FakePlayer, Entity> assignCombatTargets(Group group, Set<Entity> threats) {
         List<Entity> threatList = new ArrayList<>(threats);
         List<FakePlayer> attackers = group.getMembers().entrySet().stream()
             .filter(entry -> entry.getValue() != GroupRole.HEALER && entry.getValue() != GroupRole.SUPPORT)
@@ -222,27 +326,30 @@ public class GroupCoordinator {
             .collect(Collectors.toList());
 
         // Assign targets to attackers
-        assignTargetsToAttackers(attackers, threatList);
+        return assignTargetsToAttackers(group, attackers, threatList);
     }
 
     /**
-     * Assign targets to attackers safely
+     * Assign targets to attackers in one batch, so threats are spread over the group
      */
-    private void assignTargetsToAttackers(List<FakePlayer> attackers, List<Entity> threatList) {
-        for (int i = 0; i < attackers.size() && i < threatList.size(); i++) {
-            FakePlayer attacker = attackers.get(i);
-            Entity target = threatList.get(i);
-
+    private Map<FakePlayer, Entity> assignTargetsToAttackers(Group group, List<FakePlayer> attackers, List<Entity> threatList) {
+        TargetAssigner assigner = targetAssigners.computeIfAbsent(group.getId(), id -> new TargetAssigner());
+        Map<FakePlayer, Entity> targets = assigner.assign(attackers, threatList, System.currentTimeMillis());
+        for (Map.Entry<FakePlayer, Entity> entry : targets.entrySet()) {
             // Set target for attacker - integrated with TargetSelector
-            setAttackerTarget(attacker, target);
+            setAttackerTarget(entry.getKey(), entry.getValue());
         }
+        return targets;
     }
 
     /**
-     * Set target for attacker with null checks
+     * Set target for attacker with null checks; re-engaging the same target is skipped
      */
     private void setAttackerTarget(FakePlayer attacker, Entity target) {
         if (attacker.getTargetSelector() != null) {
+            if (attacker.getTargetSelector().getCurrentTarget() == target) {
+                return;
+            }
             attacker.getTargetSelector().setTarget(target);
         }
         if (attacker.getCombatController() != null) {
@@ -253,14 +360,14 @@ public class GroupCoordinator {
     /**
      * Coordinate attack patterns
      */
-    private void coordinateAttackPattern(Group group, Set<Entity> threats) {
+    private void coordinateAttackPattern(Group group, Set<Entity> threats, Map<FakePlayer, Entity> targets) {
         // Implement flanking, pincer, or other coordinated attack patterns
         if (threats.size() == 1) {
             // Surround single target
             implementSurroundPattern(group, threats.iterator().next());
         } else if (threats.size() > 1) {
             // Divide and conquer
-            implementDivideAndConquerPattern(group, threats);
+            implementDivideAndConquerPattern(targets);
         }
     }
 
@@ -277,9 +384,9 @@ public class GroupCoordinator {
      * Execute surround movement for flankers
      */
     private void executeSurroundMovement(List<FakePlayer> flankers, Entity target) {
+        Location targetLoc = target.getLocation();
         for (int i = 0; i < flankers.size(); i++) {
-            // Move flanker to flanking position - integrated with movement system
-            Location targetLoc = target.getLocation();
+            // Move flanker to flanking position through the target's shared flow field
             double angle = (2 * Math.PI * i) / flankers.size();
             double distance = 5.0;
             double x = targetLoc.getX() + distance * Math.cos(angle);
@@ -287,20 +394,15 @@ public class GroupCoordinator {
             Location flankPos = new Location(targetLoc.getWorld(), x, targetLoc.getY(), z);
 
             FakePlayer flanker = flankers.get(i);
-            moveToFlankPosition(flanker, flankPos, target);
+            moveToFlankPosition(flankers, flanker, flankPos, target);
         }
     }
 
     /**
      * Move flanker to flank position
      */
-    private void moveToFlankPosition(FakePlayer flanker, Location flankPos, Entity target) {
-        if (flanker.getPathfinder() != null) {
-            flanker.getPathfinder().findPath(flankPos);
-        }
-        if (flanker.getMovementController() != null) {
-            flanker.getMovementController().moveTowards(flankPos);
-        }
+    private void moveToFlankPosition(List<FakePlayer> flankers, FakePlayer flanker, Location flankPos, Entity target) {
+        moveTowardsSlot(flankers, flanker, target.getLocation(), flankPos);
         if (flanker.getTargetSelector() != null) {
             flanker.getTargetSelector().setTarget(target);
         }
@@ -309,48 +411,31 @@ public class GroupCoordinator {
     /**
      * Implement divide and conquer pattern
      */
-    private void implementDivideAndConquerPattern(Group group, Set<Entity> threats) {
-        List<Entity> threatList = new ArrayList<>(threats);
-        List<FakePlayer> attackers = new ArrayList<>(group.getMembers().keySet());
+    private void implementDivideAndConquerPattern(Map<FakePlayer, Entity> targets) {
+        List<FakePlayer> attackers = new ArrayList<>(targets.keySet());
 
-        // Assign each attacker to a different threat
-        executeDivideAndConquer(attackers, threatList);
+        // Each attacker works the threat it was assigned
+        executeDivideAndConquer(attackers, targets);
     }
 
     /**
      * Execute divide and conquer strategy
      */
-    private void executeDivideAndConquer(List<FakePlayer> attackers, List<Entity> threatList) {
-        for (int i = 0; i < attackers.size() && i < threatList.size(); i++) {
-            FakePlayer attacker = attackers.get(i);
-            Entity threat = threatList.get(i);
-
-            // Focus each attacker on a different target
-            assignAttackerToThreat(attacker, threat);
+    private void executeDivideAndConquer(List<FakePlayer> attackers, Map<FakePlayer, Entity> targets) {
+        for (FakePlayer attacker : attackers) {
+            assignAttackerToThreat(attackers, attacker, targets.get(attacker));
         }
     }
 
     /**
-     * Assign attacker to specific threat
+     * Move attacker up to its assigned threat
      */
-    private void assignAttackerToThreat(FakePlayer attacker, Entity threat) {
-        if (attacker.getTargetSelector() != null) {
-            attacker.getTargetSelector().setTarget(threat);
-        }
-        if (attacker.getCombatController() != null) {
-            attacker.getCombatController().engageTarget(threat);
-        }
-
+    private void assignAttackerToThreat(List<FakePlayer> attackers, FakePlayer attacker, Entity threat) {
         // Position attacker optimally for their assigned threat
         Location threatLoc = threat.getLocation();
         Location approachPos = calculateOptimalAttackPosition(threatLoc, attacker.getLocation());
 
-        if (attacker.getPathfinder() != null) {
-            attacker.getPathfinder().findPath(approachPos);
-        }
-        if (attacker.getMovementController() != null) {
-            attacker.getMovementController().moveTowards(approachPos);
-        }
+        moveTowardsSlot(attackers, attacker, threatLoc, approachPos);
     }
 
     /**
@@ -405,14 +490,15 @@ public class GroupCoordinator {
      * Move stragglers towards center
      */
     private void moveStragglersToCenter(Group group, Location center) {
-        for (Map.Entry<FakePlayer, GroupRole> entry : group.getMembers().entrySet()) {
+        Map<FakePlayer, GroupRole> members = group.getMembers();
+        for (Map.Entry<FakePlayer, GroupRole> entry : members.entrySet()) {
             FakePlayer member = entry.getKey();
             Location memberLoc = member.getLocation();
 
             if (memberLoc.distance(center) > group.getMaxSpread()) {
                 // Move towards center - integrated with movement system
                 Location targetPos = calculateFormationPosition(center, 0, 1, entry.getValue());
-                moveToFormationPosition(member, targetPos);
+                moveTowardsSlot(members.keySet(), member, center, targetPos);
 
                 if (member.getMovementController() != null) {
                     member.getMovementController().setUrgent(true); // High priority movement
@@ -450,11 +536,8 @@ public class GroupCoordinator {
     private void reuniteIsolatedMember(Group group, FakePlayer member) {
         Location groupCenter = calculateGroupCenter(group);
 
-        if (member.getPathfinder() != null) {
-            member.getPathfinder().findPath(groupCenter);
-        }
+        moveTowardsSlot(group.getMembers().keySet(), member, groupCenter, groupCenter);
         if (member.getMovementController() != null) {
-            member.getMovementController().moveTowards(groupCenter);
             member.getMovementController().setUrgent(true); // High priority to rejoin group
         }
 
@@ -519,18 +602,14 @@ public class GroupCoordinator {
      * Arrange combat formation
      */
     private void arrangeCombatFormation(Group group, Location threatLoc) {
-        for (Map.Entry<FakePlayer, GroupRole> entry : group.getMembers().entrySet()) {
+        Map<FakePlayer, GroupRole> members = group.getMembers();
+        for (Map.Entry<FakePlayer, GroupRole> entry : members.entrySet()) {
             FakePlayer member = entry.getKey();
             GroupRole role = entry.getValue();
 
-            Location combatPos = calculateCombatPosition(threatLoc, role, group.getMembers().size());
+            Location combatPos = calculateCombatPosition(threatLoc, role, members.size());
 
-            if (member.getPathfinder() != null) {
-                member.getPathfinder().findPath(combatPos);
-            }
-            if (member.getMovementController() != null) {
-                member.getMovementController().moveTowards(combatPos);
-            }
+            moveTowardsSlot(members.keySet(), member, threatLoc, combatPos);
         }
     }
 
@@ -568,18 +647,14 @@ public class GroupCoordinator {
      * Arrange patrol formation
      */
     private void arrangePatrolFormation(List<Map.Entry<FakePlayer, GroupRole>> members, Location center) {
+        List<FakePlayer> crowd = members.stream().map(Map.Entry::getKey).toList();
         for (int i = 0; i < members.size(); i++) {
             FakePlayer member = members.get(i).getKey();
             GroupRole role = members.get(i).getValue();
 
             Location patrolPos = calculateFormationPosition(center, i, members.size(), role);
 
-            if (member.getPathfinder() != null) {
-                member.getPathfinder().findPath(patrolPos);
-            }
-            if (member.getMovementController() != null) {
-                member.getMovementController().moveTowards(patrolPos);
-            }
+            moveTowardsSlot(crowd, member, center, patrolPos);
         }
     }
 
@@ -663,10 +738,7 @@ public class GroupCoordinator {
      * Check if entity is hostile
      */
     private boolean isHostile(Entity entity) {
-        String entityType = entity.getType().name();
-        return entityType.contains("ZOMBIE") || entityType.contains("SKELETON") ||
-               entityType.contains("CREEPER") || entityType.contains("SPIDER") ||
-               entityType.contains("ENDERMAN") || entityType.contains("BLAZE");
+        return Threats.isHostile(entity);
     }
 
     /**
@@ -681,6 +753,7 @@ public class GroupCoordinator {
      */
     public void cleanupEmptyGroups() {
         groups.entrySet().removeIf(entry -> entry.getValue().getMembers().isEmpty());
+        targetAssigners.keySet().retainAll(groups.keySet());
     }
 
     /**
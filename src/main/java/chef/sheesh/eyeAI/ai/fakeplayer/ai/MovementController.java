@@ -2,8 +2,10 @@ package chef.sheesh.eyeAI.ai.fakeplayer.ai;
 
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayerState;
+import chef.sheesh.eyeAI.ai.movement.MovementIntegrator;
+import chef.sheesh.eyeAI.ai.movement.MutableVec3;
 import org.bukkit.Location;
-import org.bukkit.util.Vector;
+import org.bukkit.World;
 
 /**
  * Movement controller for fake players
@@ -11,7 +13,11 @@ import org.bukkit.util.Vector;
 public class MovementController {
 
     private final FakePlayer fakePlayer;
-    private Location targetLocation;
+    // Target kept in primitives so per-tick movement does not allocate
+    private final MutableVec3 target = new MutableVec3();
+    private final MutableVec3 nextPosition = new MutableVec3();
+    private World targetWorld;
+    private boolean hasTarget = false;
     private double movementSpeed = 0.2; // blocks per tick
     private boolean isUrgent = false;
     private boolean waitingForGroup = false;
@@ -25,7 +31,7 @@ public class MovementController {
      * Update movement logic
      */
     public void tick() {
-        if (targetLocation != null && !hasReachedDestination()) {
+        if (hasTarget && !hasReachedDestination()) {
             performMovement();
         }
     }
@@ -34,11 +40,13 @@ public class MovementController {
      * Move towards a target location
      */
     public void moveTowards(Location target) {
-        if (target == null || target.getWorld() != fakePlayer.getLocation().getWorld()) {
+        if (target == null || target.getWorld() != fakePlayer.getWorld()) {
             return;
         }
 
-        this.targetLocation = target.clone();
+        this.target.set(target);
+        this.targetWorld = target.getWorld();
+        this.hasTarget = true;
         fakePlayer.setState(FakePlayerState.MOVING);
     }
 
@@ -46,44 +54,36 @@ public class MovementController {
      * Perform the actual movement
      */
     private void performMovement() {
-        Location currentLoc = fakePlayer.getLocation();
+        double actualSpeed = movementSpeed * speedMultiplier;
+        if (isUrgent) {
+            actualSpeed *= 1.5; // 50% speed boost when urgent
+        }
 
-        // Calculate direction vector
-        Vector direction = targetLocation.toVector().subtract(currentLoc.toVector());
-        double distance = direction.length();
+        // Calculate new position without touching Bukkit Location/Vector
+        double distance = MovementIntegrator.nextStep(fakePlayer.getPosition(), target.x, target.y, target.z,
+                actualSpeed, nextPosition);
 
         if (distance < 0.5) {
             // Close enough, consider reached
-            fakePlayer.moveTo(targetLocation);
-            targetLocation = null;
+            fakePlayer.moveTo(target.x, target.y, target.z);
+            hasTarget = false;
             fakePlayer.setState(FakePlayerState.IDLE);
             return;
         }
 
-        // Normalize and apply speed
-        direction.normalize();
-        double actualSpeed = movementSpeed * speedMultiplier;
-        if (isUrgent) {
-            actualSpeed *= 1.5; // 50% speed boost when urgent
-        }
-
-        // Calculate new position
-        Vector newPos = currentLoc.toVector().add(direction.multiply(actualSpeed));
-        Location newLocation = new Location(currentLoc.getWorld(), newPos.getX(), newPos.getY(), newPos.getZ());
-
         // Update player location
-        fakePlayer.moveTo(newLocation);
+        fakePlayer.moveTo(nextPosition.x, nextPosition.y, nextPosition.z);
     }
 
     /**
      * Check if reached destination
      */
     public boolean hasReachedDestination() {
-        if (targetLocation == null) {
+        if (!hasTarget) {
             return true;
         }
 
-        return fakePlayer.getLocation().distance(targetLocation) < 1.0;
+        return fakePlayer.getPosition().distanceSquared(target) < 1.0;
     }
 
     /**
@@ -123,7 +123,7 @@ public class MovementController {
      * Stop current movement
      */
     public void stop() {
-        this.targetLocation = null;
+        this.hasTarget = false;
         this.isUrgent = false;
         this.speedMultiplier = 1.0;
         fakePlayer.setState(FakePlayerState.IDLE);
@@ -133,14 +133,14 @@ public class MovementController {
      * Get current target location
      */
     public Location getTarget() {
-        return targetLocation != null ? targetLocation.clone() : null;
+        return hasTarget ? target.toLocation(targetWorld, 0f, 0f) : null;
     }
 
     /**
      * Check if currently moving
      */
     public boolean isMoving() {
-        return targetLocation != null && !hasReachedDestination();
+        return hasTarget && !hasReachedDestination();
     }
 
     /**
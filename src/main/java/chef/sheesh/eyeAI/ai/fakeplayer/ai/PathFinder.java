@@ -2,22 +2,39 @@ package chef.sheesh.eyeAI.ai.fakeplayer.ai;
 
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
 import chef.sheesh.eyeAI.ai.movement.Path;
+import chef.sheesh.eyeAI.ai.movement.PathService;
+import chef.sheesh.eyeAI.ai.movement.nav.IncrementalPlanner;
+import chef.sheesh.eyeAI.ai.movement.nav.MovementProfile;
+import chef.sheesh.eyeAI.ai.movement.nav.PathScheduler;
 import org.bukkit.Location;
+import org.bukkit.World;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Pathfinding controller for fake players
+ * Pathfinding controller for fake players.
+ * Paths come from the shared {@link PathService}; the bot walks straight at its target
+ * until the planned path arrives or when none exists.
  */
 public class PathFinder {
 
     private final FakePlayer fakePlayer;
-    private Path currentPath;
-    private Location targetLocation;
+    // Replaced from the main thread when a planned path arrives
+    private volatile Path currentPath;
+    private volatile Location targetLocation;
     private boolean isPathfinding = false;
     private long lastPathfindTime = 0;
     private static final long PATHFIND_COOLDOWN = 1000; // 1 second cooldown
+    private static final long REPLAN_INTERVAL = 250;
+
+    // Chase state; the planner keeps its search between replans of the same chase
+    private IncrementalPlanner planner;
+    private World plannerWorld;
+    private Location chaseCell;
+    private volatile Path chasePath;
+    private volatile boolean replanPending;
+    private long lastReplanTime = 0;
 
     public PathFinder(FakePlayer fakePlayer) {
         this.fakePlayer = fakePlayer;
@@ -37,6 +54,13 @@ public class PathFinder {
      * Find a path to the target location
      */
     public boolean findPath(Location target) {
+        return findPath(target, PathScheduler.Priority.NORMAL);
+    }
+
+    /**
+     * Find a path to the target location; urgent requests are planned before other bots' requests
+     */
+    public boolean findPath(Location target, PathScheduler.Priority priority) {
         if (target == null || target.getWorld() != fakePlayer.getLocation().getWorld()) {
             return false;
         }
@@ -47,20 +71,73 @@ public class PathFinder {
             return false;
         }
 
-        this.targetLocation = target.clone();
+        Location goal = target.clone();
+        Location start = fakePlayer.getLocation().clone();
+        this.targetLocation = goal;
         this.lastPathfindTime = currentTime;
         this.isPathfinding = true;
 
-        // Simple pathfinding - direct line for now
-        // TODO: Implement A* pathfinding algorithm
+        // Direct line until the planned path arrives
         List<Location> waypoints = new ArrayList<>();
-        waypoints.add(fakePlayer.getLocation().clone());
-        waypoints.add(target.clone());
-
+        waypoints.add(start);
+        waypoints.add(goal.clone());
         this.currentPath = new Path(waypoints);
+
+        PathService paths = PathService.get();
+        if (paths.isRunning()) {
+            paths.request(start, goal, MovementProfile.WALK, priority).thenAccept(path -> {
+                // Ignore paths for a target that was replaced or cleared meanwhile
+                if (!path.isEmpty() && targetLocation == goal) {
+                    currentPath = path;
+                }
+            });
+        }
         return true;
     }
 
+    /**
+     * Chase a moving target: replans incrementally as the target moves, reusing the previous
+     * search instead of planning from scratch. Returns false when no planned path is being
+     * followed yet, so the caller should steer directly.
+     */
+    public boolean chase(Location target) {
+        World world = fakePlayer.getLocation().getWorld();
+        PathService paths = PathService.get();
+        if (target == null || world == null || target.getWorld() != world || !paths.isRunning()) {
+            return false;
+        }
+        if (planner == null || plannerWorld != world) {
+            planner = paths.planner(world, MovementProfile.WALK);
+            plannerWorld = world;
+            chaseCell = null;
+            if (planner == null) {
+                return false;
+            }
+        }
+
+        boolean moved = chaseCell == null || chaseCell.getBlockX() != target.getBlockX()
+                || chaseCell.getBlockY() != target.getBlockY() || chaseCell.getBlockZ() != target.getBlockZ();
+        boolean stale = currentPath == null || currentPath.isFinished();
+        long currentTime = System.currentTimeMillis();
+        if ((moved || stale) && !replanPending && currentTime - lastReplanTime >= REPLAN_INTERVAL) {
+            Location goal = target.clone();
+            this.chaseCell = goal;
+            this.targetLocation = goal;
+            this.lastReplanTime = currentTime;
+            this.isPathfinding = true;
+            this.replanPending = true;
+            paths.replan(planner, fakePlayer.getLocation(), goal, PathScheduler.Priority.HIGH).whenComplete((path, error) -> {
+                replanPending = false;
+                if (path != null && !path.isEmpty() && targetLocation == goal) {
+                    chasePath = path;
+                    currentPath = path;
+                }
+            });
+        }
+        Path path = currentPath;
+        return path != null && path == chasePath && !path.isFinished();
+    }
+
     /**
      * Follow the current path
      */
@@ -87,6 +164,7 @@ public class PathFinder {
      */
     public void clearPath() {
         this.currentPath = null;
+        this.chasePath = null;
         this.targetLocation = null;
         this.isPathfinding = false;
     }
@@ -0,0 +1,205 @@
+package chef.sheesh.eyeAI.ai.fakeplayer.ai;
+
+import chef.sheesh.eyeAI.ai.core.tactics.AssignmentSolver;
+import chef.sheesh.eyeAI.ai.core.tactics.Threats;
+import chef.sheesh.eyeAI.ai.core.team.TeamRole;
+import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
+import chef.sheesh.eyeAI.ai.movement.MutableVec3;
+import org.bukkit.Location;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Batched target assignment for one group. Attackers and threats are costed together and
+ * assigned optimally in one solve, so the group spreads over the threats instead of every
+ * member picking the nearest one.
+ * <ul>
+ *     <li>Each threat offers as many slots as needed to seat every attacker; each extra
+ *     attacker on the same threat costs more, so threats are covered before doubling up.</li>
+ *     <li>The assignment is kept for a decision interval. An attacker or threat joining or
+ *     leaving re-solves at once, starting from the last solution.</li>
+ * </ul>
+ * Main thread only.
+ */
+final class TargetAssigner {
+
+    static final long DECISION_INTERVAL_MS = 500;
+
+    /** Cost per block to the threat */
+    private static final float DISTANCE_WEIGHT = 1.0f;
+    /** Cost removed per threat level, 1-5 */
+    private static final float THREAT_WEIGHT = 3.0f;
+    /** Cost of a threat at full health over one that is nearly dead */
+    private static final float HEALTH_WEIGHT = 6.0f;
+    /** Cost of each attacker already on the threat */
+    private static final float CROWD_PENALTY = 12.0f;
+    /** Cost removed for keeping the current target, so close calls do not flip-flop */
+    private static final float STICKINESS = 2.0f;
+    /** Cost of a threat in another world */
+    private static final float UNREACHABLE = 1000.0f;
+
+    /** Cost a kept target may be above the best choice, so drifting costs rarely force a full search */
+    private static final float TOLERANCE = 0.5f;
+
+    private final AssignmentSolver solver = new AssignmentSolver(TOLERANCE);
+    private final Location scratch = new Location(null, 0, 0, 0);
+    private float[] costs = new float[0];
+    private int[] rows = new int[0];
+    private float[] potentials = new float[0];
+
+    private Set<UUID> attackerIds = Set.of();
+    private Set<UUID> threatIds = Set.of();
+    /** Attacker to the threat and slot it holds */
+    private final Map<UUID, Seat> seats = new HashMap<>();
+    /** Column potentials of each threat's slots, carried between solves */
+    private final Map<UUID, float[]> slotPotentials = new HashMap<>();
+    private long lastSolve;
+
+    /**
+     * Targets for the attackers; every attacker gets one while there is any threat
+     */
+    Map<FakePlayer, Entity> assign(List<FakePlayer> attackers, List<Entity> threats, long now) {
+        Map<FakePlayer, Entity> result = new LinkedHashMap<>();
+        if (attackers.isEmpty() || threats.isEmpty()) {
+            reset();
+            return result;
+        }
+        List<UUID> attackerKeys = new ArrayList<>(attackers.size());
+        for (FakePlayer attacker : attackers) {
+            attackerKeys.add(attacker.getId());
+        }
+        List<UUID> threatKeys = new ArrayList<>(threats.size());
+        for (Entity threat : threats) {
+            threatKeys.add(threat.getUniqueId());
+        }
+        // Threats come from an unordered set, so compare members rather than order
+        boolean sameMembers = attackerIds.size() == attackerKeys.size() && attackerIds.containsAll(attackerKeys)
+                && threatIds.size() == threatKeys.size() && threatIds.containsAll(threatKeys);
+        if (!sameMembers || now - lastSolve >= DECISION_INTERVAL_MS) {
+            solve(attackers, threats, attackerKeys, threatKeys);
+            lastSolve = now;
+        }
+
+        for (int i = 0; i < attackers.size(); i++) {
+            Seat seat = seats.get(attackerKeys.get(i));
+            if (seat != null) {
+                result.put(attackers.get(i), threats.get(threatKeys.indexOf(seat.threat)));
+            }
+        }
+        return result;
+    }
+
+    void reset() {
+        attackerIds = Set.of();
+        threatIds = Set.of();
+        seats.clear();
+        slotPotentials.clear();
+    }
+
+    private void solve(List<FakePlayer> attackers, List<Entity> threats, List<UUID> attackerKeys, List<UUID> threatKeys) {
+        int n = attackers.size();
+        int m = threats.size();
+        int slots = (n + m - 1) / m;
+        int cols = m * slots;
+        if (costs.length < n * cols) {
+            costs = new float[n * cols];
+        }
+        if (rows.length < n) {
+            rows = new int[n];
+        }
+        if (potentials.length < cols) {
+            potentials = new float[cols];
+        }
+
+        float[] threatLevel = new float[m];
+        float[] healthFraction = new float[m];
+        for (int t = 0; t < m; t++) {
+            Entity threat = threats.get(t);
+            threatLevel[t] = Threats.level(threat);
+            healthFraction[t] = healthFraction(threat);
+            float[] previous = slotPotentials.get(threatKeys.get(t));
+            for (int s = 0; s < slots; s++) {
+                potentials[t * slots + s] = previous != null && s < previous.length ? previous[s] : 0f;
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            FakePlayer attacker = attackers.get(i);
+            TeamRole role = attacker.getRole();
+            float distanceWeight = DISTANCE_WEIGHT * switch (role) {
+                case SCOUT -> 0.5f; // Ranges out to stragglers
+                case SUPPORT -> 1.5f; // Stays near the group
+                default -> 1.0f;
+            };
+            float threatWeight = role == TeamRole.TANK ? THREAT_WEIGHT * 2 : THREAT_WEIGHT;
+            float healthWeight = role == TeamRole.DAMAGE_DEALER ? HEALTH_WEIGHT * 2 : HEALTH_WEIGHT;
+            MutableVec3 position = attacker.getPosition();
+            Seat seat = seats.get(attackerKeys.get(i));
+            rows[i] = -1;
+
+            int base = i * cols;
+            for (int t = 0; t < m; t++) {
+                Location at = threats.get(t).getLocation(scratch);
+                float cost;
+                if (at.getWorld() == null || !at.getWorld().equals(attacker.getWorld())) {
+                    cost = UNREACHABLE;
+                } else {
+                    double dx = at.getX() - position.x;
+                    double dy = at.getY() - position.y;
+                    double dz = at.getZ() - position.z;
+                    cost = distanceWeight * (float) Math.sqrt(dx * dx + dy * dy + dz * dz)
+                            - threatWeight * threatLevel[t]
+                            + healthWeight * healthFraction[t];
+                }
+                boolean current = seat != null && seat.threat.equals(threatKeys.get(t));
+                if (current) {
+                    cost -= STICKINESS;
+                }
+                for (int s = 0; s < slots; s++) {
+                    costs[base + t * slots + s] = cost + s * CROWD_PENALTY;
+                }
+                if (current && seat.slot < slots) {
+                    rows[i] = t * slots + seat.slot;
+                }
+            }
+        }
+
+        solver.solve(costs, n, cols, rows, potentials);
+
+        seats.clear();
+        for (int i = 0; i < n; i++) {
+            int col = rows[i];
+            seats.put(attackerKeys.get(i), new Seat(threatKeys.get(col / slots), col % slots));
+        }
+        slotPotentials.clear();
+        for (int t = 0; t < m; t++) {
+            slotPotentials.put(threatKeys.get(t), Arrays.copyOfRange(potentials, t * slots, (t + 1) * slots));
+        }
+        attackerIds = new HashSet<>(attackerKeys);
+        threatIds = new HashSet<>(threatKeys);
+    }
+
+    private static float healthFraction(Entity entity) {
+        if (!(entity instanceof LivingEntity living)) {
+            return 1f;
+        }
+        AttributeInstance maxHealth = living.getAttribute(Attribute.GENERIC_MAX_HEALTH);
+        double max = maxHealth != null ? maxHealth.getValue() : 20.0;
+        return max <= 0 ? 1f : (float) Math.min(1.0, living.getHealth() / max);
+    }
+
+    private record Seat(UUID threat, int slot) {
+    }
+}
@@ -1,5 +1,7 @@
 package chef.sheesh.eyeAI.ai.fakeplayer.ai;
 
+import chef.sheesh.eyeAI.ai.core.tactics.Threats;
+import chef.sheesh.eyeAI.ai.core.team.InfluenceMap;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayerState;
 import org.bukkit.Location;
@@ -9,7 +11,6 @@ import org.bukkit.entity.Player;
 import org.bukkit.util.Vector;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
@@ -69,6 +70,17 @@ public class TargetSelector {
         Location playerLoc = fakePlayer.getLocation();
         List<Entity> potentialTargets = new ArrayList<>();
 
+        // Team members pick from the hostiles their team map already found
+        InfluenceMap influence = InfluenceMap.forMember(fakePlayer);
+        if (influence != null) {
+            for (Entity entity : influence.getHostiles()) {
+                if (isValidTarget(entity)) {
+                    potentialTargets.add(entity);
+                }
+            }
+            return closest(potentialTargets, playerLoc);
+        }
+
         // Find all nearby hostile entities - must run on main thread
         // We'll schedule this to run on main thread and wait for result
         try {
@@ -94,42 +106,27 @@ public class TargetSelector {
             return null;
         }
 
-        if (potentialTargets.isEmpty()) {
-            return null;
-        }
+        return closest(potentialTargets, playerLoc);
+    }
 
-        // Sort by priority (distance, health, threat level)
-        potentialTargets.sort((e1, e2) -> {
-            if (!(e1 instanceof LivingEntity) || !(e2 instanceof LivingEntity)) {
-                return 0;
-            }
-            
-            LivingEntity le1 = (LivingEntity) e1;
-            LivingEntity le2 = (LivingEntity) e2;
-            
-            // Distance priority (closer is better)
-            double dist1 = e1.getLocation().distance(playerLoc);
-            double dist2 = e2.getLocation().distance(playerLoc);
-            int distanceComparison = Double.compare(dist1, dist2);
-            
-            if (distanceComparison != 0) {
-                return distanceComparison;
-            }
-            
-            // Health priority (lower health is better)
-            double health1 = le1.getHealth();
-            double health2 = le2.getHealth();
-            int healthComparison = Double.compare(health1, health2);
-            
-            if (healthComparison != 0) {
-                return healthComparison;
+    /**
+     * Closest candidate, then lowest health
+     */
+    private static Entity closest(List<Entity> potentialTargets, Location playerLoc) {
+        // Closest first, then lowest health; one pass with each distance computed once
+        Entity best = null;
+        double bestDistance = Double.MAX_VALUE;
+        double bestHealth = Double.MAX_VALUE;
+        for (Entity entity : potentialTargets) {
+            double distance = entity.getLocation().distanceSquared(playerLoc);
+            double health = entity instanceof LivingEntity living ? living.getHealth() : Double.MAX_VALUE;
+            if (distance < bestDistance || (distance == bestDistance && health < bestHealth)) {
+                best = entity;
+                bestDistance = distance;
+                bestHealth = health;
             }
-            
-            // Default to 0 if all else equal
-            return 0;
-        });
-
-        return potentialTargets.get(0); // Return closest target
+        }
+        return best;
     }
 
     /**
@@ -140,11 +137,7 @@ public class TargetSelector {
             return false;
         }
 
-        String entityType = entity.getType().name();
-        return entityType.contains("ZOMBIE") || entityType.contains("SKELETON") ||
-               entityType.contains("CREEPER") || entityType.contains("SPIDER") ||
-               entityType.contains("ENDERMAN") || entityType.contains("BLAZE") ||
-               entityType.contains("WITCH") || entityType.contains("PHANTOM");
+        return Threats.isHostile(entity);
     }
 
     /**
@@ -200,51 +193,4 @@ public class TargetSelector {
 
         return fakePlayer.getLocation().distance(currentTarget.getLocation());
     }
-
-    /**
-     * Target priority comparator
-     */
-    private static class TargetPriorityComparator implements Comparator<Entity> {
-        private final Location playerLocation;
-
-        public TargetPriorityComparator(Location playerLocation) {
-            this.playerLocation = playerLocation;
-        }
-
-        @Override
-        public int compare(Entity e1, Entity e2) {
-            // Prioritize by distance (closer is better)
-            double dist1 = playerLocation.distance(e1.getLocation());
-            double dist2 = playerLocation.distance(e2.getLocation());
-
-            // Add threat level consideration
-            int threat1 = getThreatLevel(e1);
-            int threat2 = getThreatLevel(e2);
-
-            // Higher threat = higher priority (lower value)
-            if (threat1 != threat2) {
-                return Integer.compare(threat2, threat1);
-            }
-
-            // If same threat level, prioritize by distance
-            return Double.compare(dist1, dist2);
-        }
-
-        private int getThreatLevel(Entity entity) {
-            String type = entity.getType().name();
-            if (type.contains("CREEPER")) {
-                return 5; // Highest threat
-            }
-            if (type.contains("SKELETON")) {
-                return 4;
-            }
-            if (type.contains("ZOMBIE")) {
-                return 3;
-            }
-            if (type.contains("SPIDER")) {
-                return 2;
-            }
-            return 1; // Default threat level
-        }
-    }
 }
@@ -1,5 +1,6 @@
 package chef.sheesh.eyeAI.ai.fakeplayer.monitoring;
 
+import chef.sheesh.eyeAI.ai.behavior.BehaviorTreeProfiler;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayerManager;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -142,14 +143,15 @@ public class PerformanceMonitor {
      * Update behavior tree performance metrics
      */
     private void updateBehaviorTreeMetrics() {
-        // Behavior tree execution times
-        // This would integrate with behavior tree system to track execution times
-
-        // Success/failure rates
-        // This would track behavior tree success rates
+        BehaviorTreeProfiler profiler = BehaviorTreeProfiler.get();
+        if (profiler.getSampledTicks() == 0) {
+            return;
+        }
 
-        // Most used behavior trees
-        // This would track which behavior trees are most frequently used
+        // Execution times and success/failure rates per node type
+        for (Map.Entry<String, Double> entry : profiler.exportMetrics().entrySet()) {
+            recordMetric(entry.getKey(), entry.getValue());
+        }
     }
 
     /**
@@ -267,7 +269,11 @@ public class PerformanceMonitor {
         }
 
         // Analyze behavior tree performance
-        // This would analyze which behavior trees are slow
+        List<BehaviorTreeProfiler.NodeStats> hotNodes = BehaviorTreeProfiler.get().getStatsBySelfTime();
+        if (!hotNodes.isEmpty() && hotNodes.get(0).getPercentileNanos(0.99) > 1_000_000) {
+            recommendations.add("Behavior tree node " + hotNodes.get(0).getNodeType()
+                + " has p99 above 1ms - consider caching its world queries");
+        }
 
         if (!recommendations.isEmpty()) {
             plugin.getLogger().info("[PerformanceMonitor] Optimization Recommendations:");
@@ -1,15 +1,17 @@
 package chef.sheesh.eyeAI.ai.fakeplayer.pathfinding;
 
+import chef.sheesh.eyeAI.ai.movement.PathService;
+import chef.sheesh.eyeAI.ai.movement.nav.MovementProfile;
+import chef.sheesh.eyeAI.ai.movement.nav.NavGrid;
 import org.bukkit.Location;
-import org.bukkit.Material;
 import org.bukkit.World;
-import org.bukkit.block.Block;
 import org.bukkit.util.Vector;
 
 import java.util.*;
 
 /**
- * Advanced pathfinding system for fake players
+ * Advanced pathfinding system for fake players.
+ * Block checks read the shared navigation grid, so searches may run off the main thread.
  */
 public class PathFinder {
 
@@ -46,13 +48,20 @@ public class PathFinder {
             return createDirectPath(start, target);
         }
 
-        return aStarPathfinding(start, target);
+        // Reuse a path another pathfinder already found between these blocks
+        MovementProfile profile = avoidWater ? MovementProfile.CAUTIOUS : MovementProfile.WALK;
+        List<Location> cached = PathService.get().lookup(start, target, profile);
+        if (cached != null) {
+            return cached;
+        }
+
+        return aStarPathfinding(PathService.get().grid(world), start, target);
     }
 
     /**
      * A* pathfinding algorithm
      */
-    private List<Location> aStarPathfinding(Location start, Location target) {
+    private List<Location> aStarPathfinding(NavGrid grid, Location start, Location target) {
         PriorityQueue<Node> openSet = new PriorityQueue<>(Comparator.comparingDouble(Node::getF));
         Set<Vector> closedSet = new HashSet<>();
         Map<Vector, Node> nodeMap = new HashMap<>();
@@ -71,7 +80,9 @@ public class PathFinder {
             Vector currentVec = current.getPosition();
 
             if (currentVec.distance(targetVec) < 1.0) {
-                return reconstructPath(current, start, target);
+                List<Location> path = reconstructPath(current, start, target);
+                PathService.get().store(path, avoidWater ? MovementProfile.CAUTIOUS : MovementProfile.WALK);
+                return path;
             }
 
             closedSet.add(currentVec);
@@ -89,8 +100,7 @@ public class PathFinder {
                         continue;
                     }
 
-                    Location neighborLoc = neighborVec.toLocation(world);
-                    if (!isWalkable(neighborLoc)) {
+                    if (!isWalkable(grid, neighborVec.getBlockX(), neighborVec.getBlockY(), neighborVec.getBlockZ())) {
                         continue;
                     }
 
@@ -146,57 +156,55 @@ public class PathFinder {
     }
 
     /**
-     * Check if a location is walkable
+     * Check if a block position is walkable
      */
-    private boolean isWalkable(Location location) {
-        Block block = location.getBlock();
-        Block above = location.clone().add(0, 1, 0).getBlock();
-        Block below = location.clone().add(0, -1, 0).getBlock();
-
-        // Check if block is solid
-        if (block.getType().isSolid() && block.getType() != Material.LADDER && block.getType() != Material.VINE) {
-            return false;
-        }
-
-        // Check if block above is solid (can't fit)
-        if (above.getType().isSolid()) {
+    private boolean isWalkable(NavGrid grid, int x, int y, int z) {
+        // Check if block is solid, or the block above (can't fit)
+        if (grid.isSolid(x, y, z) || grid.isSolid(x, y + 1, z)) {
             return false;
         }
 
-        // Check if there's a block below (need support)
-        if (!below.getType().isSolid() && below.getType() != Material.WATER) {
+        // Check if there's a block below (need support); water carries too
+        if (!grid.isSolid(x, y - 1, z) && !isWater(grid, x, y - 1, z)) {
             return false;
         }
 
         // Avoid dangerous blocks
-        if (avoidWater && (block.getType() == Material.WATER || above.getType() == Material.WATER)) {
+        if (avoidWater && (isWater(grid, x, y, z) || isWater(grid, x, y + 1, z))) {
             return false;
         }
 
-        if (avoidLava && (block.getType() == Material.LAVA || above.getType() == Material.LAVA)) {
+        if (avoidLava && (isLava(grid, x, y, z) || isLava(grid, x, y + 1, z))) {
             return false;
         }
 
         // Avoid cliffs (sharp drops)
-        if (avoidCliffs && isNearCliff(location)) {
+        if (avoidCliffs && isNearCliff(grid, x, y, z)) {
             return false;
         }
 
         return true;
     }
 
+    private static boolean isWater(NavGrid grid, int x, int y, int z) {
+        return grid.isLiquid(x, y, z) && !grid.isHazard(x, y, z);
+    }
+
+    private static boolean isLava(NavGrid grid, int x, int y, int z) {
+        return grid.isLiquid(x, y, z) && grid.isHazard(x, y, z);
+    }
+
     /**
-     * Check if location is near a cliff
+     * Check if position is near a cliff
      */
-    private boolean isNearCliff(Location location) {
+    private boolean isNearCliff(NavGrid grid, int blockX, int blockY, int blockZ) {
         for (int x = -1; x <= 1; x++) {
             for (int z = -1; z <= 1; z++) {
                 if (x == 0 && z == 0) {
                     continue;
                 }
 
-                Location check = location.clone().add(x, -2, z);
-                if (!check.getBlock().getType().isSolid()) {
+                if (!grid.isSolid(blockX + x, blockY - 2, blockZ + z)) {
                     return true; // 2 blocks down is air, potential cliff
                 }
             }
@@ -234,6 +242,7 @@ public class PathFinder {
             return path;
         }
 
+        NavGrid grid = PathService.get().grid(world);
         List<Location> smoothed = new ArrayList<>();
         smoothed.add(path.get(0)); // Always include start
 
@@ -243,7 +252,7 @@ public class PathFinder {
             Location next = path.get(i + 1);
 
             // Check if we can skip this waypoint
-            if (hasLineOfSight(prev, next)) {
+            if (hasLineOfSight(grid, prev, next)) {
                 // Skip current waypoint
                 continue;
             } else {
@@ -261,15 +270,14 @@ public class PathFinder {
     /**
      * Check line of sight between two locations
      */
-    private boolean hasLineOfSight(Location from, Location to) {
+    private boolean hasLineOfSight(NavGrid grid, Location from, Location to) {
         Vector direction = to.toVector().subtract(from.toVector()).normalize();
         double distance = from.distance(to);
 
         for (double d = 0; d < distance; d += 0.5) {
             Vector point = from.toVector().add(direction.clone().multiply(d));
-            Location check = point.toLocation(world);
 
-            if (check.getBlock().getType().isSolid()) {
+            if (grid.isSolid(point.getBlockX(), point.getBlockY(), point.getBlockZ())) {
                 return false; // Blocked by solid block
             }
         }
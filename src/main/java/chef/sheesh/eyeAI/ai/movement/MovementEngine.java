@@ -27,8 +27,12 @@ public class MovementEngine implements IMovementEngine {
      * @return CompletableFuture that resolves to the computed path
      */
     public CompletableFuture<Path> computePathAsync(Location from, Location to) {
-        // Run pathfinding on async thread
-        return CompletableFuture.supplyAsync(() -> navGraph.findPath(from, to));
+        // Shared service: cached, coalesced with other bots and computed on the main thread within budget
+        PathService paths = PathService.get();
+        if (paths.isRunning()) {
+            return paths.request(from, to);
+        }
+        return CompletableFuture.completedFuture(navGraph.findPath(from, to));
     }
 
     /**
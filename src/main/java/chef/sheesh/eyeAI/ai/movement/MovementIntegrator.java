@@ -0,0 +1,59 @@
+package chef.sheesh.eyeAI.ai.movement;
+
+/**
+ * Allocation-free movement integrator.
+ * Advances a position towards a target by a fixed step using only primitive
+ * math, writing the result into caller-owned {@link MutableVec3} instances.
+ */
+public final class MovementIntegrator {
+
+    private MovementIntegrator() {
+    }
+
+    /**
+     * Step {@code position} towards the target by at most {@code step} blocks.
+     * The applied displacement is written to {@code velocity}.
+     *
+     * @return the distance to the target before the step was applied
+     */
+    public static double stepTowards(MutableVec3 position, double targetX, double targetY, double targetZ,
+                                     double step, MutableVec3 velocity) {
+        double dx = targetX - position.x;
+        double dy = targetY - position.y;
+        double dz = targetZ - position.z;
+        double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+        if (distance <= step || distance == 0.0) {
+            velocity.set(dx, dy, dz);
+            position.set(targetX, targetY, targetZ);
+            return distance;
+        }
+
+        double scale = step / distance;
+        velocity.set(dx * scale, dy * scale, dz * scale);
+        position.add(velocity.x, velocity.y, velocity.z);
+        return distance;
+    }
+
+    /**
+     * Compute the position one step towards the target without moving {@code from}.
+     * The next position is written to {@code out}.
+     *
+     * @return the distance to the target before the step
+     */
+    public static double nextStep(MutableVec3 from, double targetX, double targetY, double targetZ,
+                                  double step, MutableVec3 out) {
+        double dx = targetX - from.x;
+        double dy = targetY - from.y;
+        double dz = targetZ - from.z;
+        double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+        if (distance <= step || distance == 0.0) {
+            out.set(targetX, targetY, targetZ);
+        } else {
+            double scale = step / distance;
+            out.set(from.x + dx * scale, from.y + dy * scale, from.z + dz * scale);
+        }
+        return distance;
+    }
+}
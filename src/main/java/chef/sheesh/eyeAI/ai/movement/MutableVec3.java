@@ -0,0 +1,102 @@
+package chef.sheesh.eyeAI.ai.movement;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * Mutable 3D vector of primitive doubles used on the movement hot path.
+ * All operations modify this instance in place and return it for chaining,
+ * so a bot can reuse the same instances every tick without allocating.
+ */
+public final class MutableVec3 {
+
+    public double x;
+    public double y;
+    public double z;
+
+    public MutableVec3() {
+    }
+
+    public MutableVec3(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    public MutableVec3 set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    public MutableVec3 set(MutableVec3 other) {
+        return set(other.x, other.y, other.z);
+    }
+
+    /**
+     * Copy the coordinates of a Bukkit location without retaining it
+     */
+    public MutableVec3 set(Location location) {
+        return set(location.getX(), location.getY(), location.getZ());
+    }
+
+    public MutableVec3 add(double dx, double dy, double dz) {
+        x += dx;
+        y += dy;
+        z += dz;
+        return this;
+    }
+
+    public MutableVec3 multiply(double factor) {
+        x *= factor;
+        y *= factor;
+        z *= factor;
+        return this;
+    }
+
+    public double lengthSquared() {
+        return x * x + y * y + z * z;
+    }
+
+    public double length() {
+        return Math.sqrt(lengthSquared());
+    }
+
+    public double distanceSquared(double ox, double oy, double oz) {
+        double dx = x - ox;
+        double dy = y - oy;
+        double dz = z - oz;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    public double distanceSquared(MutableVec3 other) {
+        return distanceSquared(other.x, other.y, other.z);
+    }
+
+    public double distance(MutableVec3 other) {
+        return Math.sqrt(distanceSquared(other));
+    }
+
+    /**
+     * Write this vector into an existing location, keeping its world/yaw/pitch
+     */
+    public Location writeTo(Location target) {
+        target.setX(x);
+        target.setY(y);
+        target.setZ(z);
+        return target;
+    }
+
+    /**
+     * Materialize a new Bukkit location; only call at the Bukkit API boundary
+     */
+    public Location toLocation(World world, float yaw, float pitch) {
+        return new Location(world, x, y, z, yaw, pitch);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ", " + z + ")";
+    }
+}
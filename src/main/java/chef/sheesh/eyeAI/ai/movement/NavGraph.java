@@ -1,231 +1,189 @@
 package chef.sheesh.eyeAI.ai.movement;
 
+import chef.sheesh.eyeAI.ai.movement.nav.HierarchicalPathfinder;
+import chef.sheesh.eyeAI.ai.movement.nav.MovementProfile;
+import chef.sheesh.eyeAI.ai.movement.nav.NavCells;
+import chef.sheesh.eyeAI.ai.movement.nav.VoxelNavGrid;
 import org.bukkit.Location;
-import org.bukkit.Material;
 import org.bukkit.World;
-import org.bukkit.block.Block;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Navigation graph for pathfinding.
- * Uses A* algorithm to find paths between locations in the game world.
+ * Keeps one {@link HierarchicalPathfinder} per world and movement profile: an abstract graph
+ * over chunk sections is searched first and only the sections along that route are searched
+ * block by block. Both read a {@link VoxelNavGrid} per world, built from chunk snapshots on a
+ * background thread, so searches and safety checks may run on any thread.
  */
 public class NavGraph {
 
-    private final World world;
-    private final int maxPathLength = 1000; // Maximum nodes to explore
+    /** Block change seen by the grids, after the change was read */
+    @FunctionalInterface
+    public interface ChangeListener {
+        void changed(UUID world, int x, int y, int z);
+    }
 
-    public NavGraph(World world) {
-        this.world = world;
+    /** Chunk column loaded or unloaded, after the section summaries in it were dropped */
+    @FunctionalInterface
+    public interface ChunkListener {
+        void changed(UUID world, int chunkX, int chunkZ);
     }
 
+    private final Map<WorldProfile, HierarchicalPathfinder> pathfinders = new ConcurrentHashMap<>();
+    private final Map<UUID, VoxelNavGrid> grids = new ConcurrentHashMap<>();
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "Nav-ChunkBuilder");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
     /**
-     * Find a path between two locations using A* algorithm
+     * Find a walking path between two locations in the same world
      */
     public Path findPath(Location start, Location end) {
-        if (start.getWorld() != end.getWorld()) {
+        World world = start.getWorld();
+        if (world == null || world != end.getWorld()) {
             return new Path(Collections.emptyList()); // Different worlds
         }
 
-        // Convert locations to nodes
-        Node startNode = new Node(start.getBlockX(), start.getBlockY(), start.getBlockZ());
-        Node endNode = new Node(end.getBlockX(), end.getBlockY(), end.getBlockZ());
-
-        // A* algorithm
-        PriorityQueue<Node> openSet = new PriorityQueue<>(Comparator.comparingDouble(Node::getFCost));
-        Set<Node> closedSet = new HashSet<>();
-        Map<Node, Node> cameFrom = new HashMap<>();
-
-        startNode.setGCost(0);
-        startNode.setHCost(calculateHeuristic(startNode, endNode));
-        openSet.add(startNode);
-
-        while (!openSet.isEmpty()) {
-            Node current = openSet.poll();
-
-            if (current.equals(endNode)) {
-                return reconstructPath(cameFrom, current, start, end);
-            }
-
-            closedSet.add(current);
-
-            for (Node neighbor : getNeighbors(current)) {
-                if (closedSet.contains(neighbor)) {
-                    continue;
-                }
-
-                double tentativeGCost = current.getGCost() + calculateDistance(current, neighbor);
-
-                if (tentativeGCost < neighbor.getGCost() || !openSet.contains(neighbor)) {
-                    cameFrom.put(neighbor, current);
-                    neighbor.setGCost(tentativeGCost);
-                    neighbor.setHCost(calculateHeuristic(neighbor, endNode));
-
-                    if (!openSet.contains(neighbor)) {
-                        openSet.add(neighbor);
-                    }
-                }
-            }
-
-            // Prevent infinite loops
-            if (closedSet.size() > maxPathLength) {
-                break;
-            }
-        }
-
-        // No path found, return empty path
-        return new Path(Collections.emptyList());
+        long[] cells = forWorld(world, MovementProfile.WALK).findPath(
+                start.getBlockX(), start.getBlockY(), start.getBlockZ(),
+                end.getBlockX(), end.getBlockY(), end.getBlockZ());
+        return toPath(world, cells, start, end);
     }
 
     /**
-     * Get walkable neighbors of a node
+     * Walking pathfinder of a world, created on first use
      */
-    private List<Node> getNeighbors(Node node) {
-        List<Node> neighbors = new ArrayList<>();
-
-        // Check all 8 directions (including diagonals)
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dz = -1; dz <= 1; dz++) {
-                if (dx == 0 && dz == 0) {
-                    continue; // Skip center
-                }
-
-                int newX = node.getX() + dx;
-                int newZ = node.getZ() + dz;
-
-                // Check if we can walk there
-                if (isWalkable(newX, node.getY(), newZ)) {
-                    neighbors.add(new Node(newX, node.getY(), newZ));
-                } else {
-                    // Try jumping up
-                    if (isWalkable(newX, node.getY() + 1, newZ)) {
-                        neighbors.add(new Node(newX, node.getY() + 1, newZ));
-                    }
-                }
-            }
-        }
-
-        // Check if we can move down
-        if (isWalkable(node.getX(), node.getY() - 1, node.getZ())) {
-            neighbors.add(new Node(node.getX(), node.getY() - 1, node.getZ()));
-        }
+    public HierarchicalPathfinder forWorld(World world) {
+        return forWorld(world, MovementProfile.WALK);
+    }
 
-        return neighbors;
+    public HierarchicalPathfinder forWorld(World world, MovementProfile profile) {
+        return pathfinders.computeIfAbsent(new WorldProfile(world.getUID(), profile),
+                key -> new HierarchicalPathfinder(profile.apply(grid(world))));
     }
 
     /**
-     * Check if a position is walkable
+     * Navigation grid of a world, created on first use; safe to query from any thread
      */
-    private boolean isWalkable(int x, int y, int z) {
-        Block block = world.getBlockAt(x, y, z);
-        Block above = world.getBlockAt(x, y + 1, z);
-        Block below = world.getBlockAt(x, y - 1, z);
-
-        // Check if the block itself is solid (can't walk through it)
-        if (block.getType().isSolid()) {
-            return false;
-        }
+    public VoxelNavGrid grid(World world) {
+        return grids.computeIfAbsent(world.getUID(), id -> new VoxelNavGrid(world, builder));
+    }
 
-        // Check if there's a solid block above (can't fit)
-        if (above.getType().isSolid()) {
-            return false;
-        }
+    /**
+     * A block changed; the grid re-reads it on the next {@link #tick}, which drops the cached
+     * section summaries around it
+     */
+    public void invalidate(World world, int x, int y, int z) {
+        grid(world).changed(x, y, z);
+    }
 
-        // Check if there's nothing below (would fall)
-        if (!below.getType().isSolid() && y > world.getMinHeight()) {
-            return false;
+    public void invalidate(Location location) {
+        if (location.getWorld() != null) {
+            invalidate(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
         }
-
-        // Avoid dangerous blocks
-        return !isDangerous(block.getType());
     }
 
     /**
-     * Check if a material is dangerous for walking
+     * Apply block changes, chunk loads and unloads and chunk builds to the grids; blocks and
+     * chunks that changed are reported to the listeners after the section summaries around
+     * them were dropped. Main thread only.
      */
-    private boolean isDangerous(Material material) {
-        return material == Material.LAVA ||
-               material == Material.FIRE ||
-               material.name().contains("MAGMA");
+    public void tick(ChangeListener listener, ChunkListener chunkListener) {
+        for (VoxelNavGrid grid : grids.values()) {
+            UUID id = grid.getWorld().getUID();
+            grid.tick(block -> {
+                int x = NavCells.x(block);
+                int y = NavCells.y(block);
+                int z = NavCells.z(block);
+                pathfinders.forEach((key, pathfinder) -> {
+                    if (key.world().equals(id)) {
+                        pathfinder.invalidate(x, y, z);
+                    }
+                });
+                listener.changed(id, x, y, z);
+            }, (chunkX, chunkZ) -> {
+                pathfinders.forEach((key, pathfinder) -> {
+                    if (key.world().equals(id)) {
+                        pathfinder.invalidateChunk(chunkX, chunkZ);
+                    }
+                });
+                chunkListener.changed(id, chunkX, chunkZ);
+            });
+        }
     }
 
     /**
-     * Calculate heuristic distance (Manhattan distance)
+     * A chunk was loaded; whatever was read from it while it was missing is dropped on the
+     * next {@link #tick}
      */
-    private double calculateHeuristic(Node a, Node b) {
-        return Math.abs(a.getX() - b.getX()) + Math.abs(a.getZ() - b.getZ());
+    public void load(World world, int chunkX, int chunkZ) {
+        VoxelNavGrid grid = grids.get(world.getUID());
+        if (grid != null) {
+            grid.loaded(chunkX, chunkZ);
+        }
     }
 
     /**
-     * Calculate actual distance between nodes
+     * Forget a chunk that was unloaded
      */
-    private double calculateDistance(Node a, Node b) {
-        int dx = Math.abs(a.getX() - b.getX());
-        int dz = Math.abs(a.getZ() - b.getZ());
-        return Math.sqrt(dx * dx + dz * dz);
+    public void unload(World world, int chunkX, int chunkZ) {
+        VoxelNavGrid grid = grids.get(world.getUID());
+        if (grid != null) {
+            grid.unload(chunkX, chunkZ);
+        }
     }
 
     /**
-     * Reconstruct the path from the cameFrom map
+     * Forget a world, e.g. when it is unloaded
      */
-    private Path reconstructPath(Map<Node, Node> cameFrom, Node current, Location start, Location end) {
-        List<Location> path = new ArrayList<>();
-        path.add(end); // Add end location
-
-        while (cameFrom.containsKey(current)) {
-            current = cameFrom.get(current);
-            path.add(new Location(world, current.getX() + 0.5, current.getY(), current.getZ() + 0.5));
+    public void forget(World world) {
+        UUID id = world.getUID();
+        pathfinders.keySet().removeIf(key -> key.world().equals(id));
+        VoxelNavGrid grid = grids.remove(id);
+        if (grid != null) {
+            grid.clear();
         }
+    }
 
-        path.add(start); // Add start location
-        Collections.reverse(path); // Reverse to get correct order
-
-        return new Path(path);
+    /**
+     * Stop building chunks; called once from plugin disable
+     */
+    public void shutdown() {
+        builder.shutdownNow();
+        grids.values().forEach(VoxelNavGrid::clear);
+        grids.clear();
+        pathfinders.clear();
     }
 
     /**
-     * Internal node class for A* algorithm
+     * Waypoints for a cell path: the exact start and end locations with block centres in between.
+     * A null path becomes an empty one.
      */
-    private static class Node {
-        private final int x, y, z;
-        private double gCost = Double.MAX_VALUE;
-        private double hCost = 0;
-
-        public Node(int x, int y, int z) {
-            this.x = x;
-            this.y = y;
-            this.z = z;
+    public static Path toPath(World world, long[] cells, Location start, Location end) {
+        if (cells == null) {
+            return new Path(Collections.emptyList());
         }
-
-        public int getX() { return x; }
-        public int getY() { return y; }
-        public int getZ() { return z; }
-
-        public double getGCost() { return gCost; }
-        public void setGCost(double gCost) { this.gCost = gCost; }
-
-        @SuppressWarnings("unused") // Method available for external use or future implementation
-        public double getHCost() { return hCost; }
-        public void setHCost(double hCost) { this.hCost = hCost; }
-
-        public double getFCost() { return gCost + hCost; }
-
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj) {
-                return true;
-            }
-            if (!(obj instanceof Node)) {
-                return false;
-            }
-            Node node = (Node) obj;
-            return x == node.x && y == node.y && z == node.z;
+        List<Location> path = new ArrayList<>(cells.length + 1);
+        path.add(start);
+        for (int i = 1; i < cells.length - 1; i++) {
+            long cell = cells[i];
+            path.add(new Location(world, NavCells.x(cell) + 0.5, NavCells.y(cell), NavCells.z(cell) + 0.5));
         }
+        path.add(end);
+        return new Path(path);
+    }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(x, y, z);
-        }
+    private record WorldProfile(UUID world, MovementProfile profile) {
     }
 }
@@ -0,0 +1,268 @@
+package chef.sheesh.eyeAI.ai.movement;
+
+import chef.sheesh.eyeAI.ai.movement.nav.FlowField;
+import chef.sheesh.eyeAI.ai.movement.nav.FlowFieldCache;
+import chef.sheesh.eyeAI.ai.movement.nav.FlowFieldConfig;
+import chef.sheesh.eyeAI.ai.movement.nav.IncrementalPlanner;
+import chef.sheesh.eyeAI.ai.movement.nav.MovementProfile;
+import chef.sheesh.eyeAI.ai.movement.nav.NavCells;
+import chef.sheesh.eyeAI.ai.movement.nav.NavGrid;
+import chef.sheesh.eyeAI.ai.movement.nav.PathScheduler;
+import chef.sheesh.eyeAI.ai.movement.nav.PathSchedulerConfig;
+import chef.sheesh.eyeAI.ai.movement.nav.WorldNavGrid;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Shared path service for every bot and pathfinder. Wraps a {@link PathScheduler} and a
+ * {@link FlowFieldCache} that are ticked on the main thread, so searches read the world safely
+ * and stay within a per-tick budget no matter how many bots ask at once. Block changes reach
+ * both through the navigation grids, which re-read them first.
+ */
+public class PathService {
+
+    private static final PathService INSTANCE = new PathService();
+
+    private volatile PathScheduler scheduler;
+    private volatile FlowFieldCache flowFields;
+    private volatile NavGraph navGraph;
+    private int taskId = -1;
+
+    public static PathService get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Start ticking the scheduler; called once from plugin enable
+     */
+    public synchronized void start(JavaPlugin plugin, NavGraph navGraph, PathSchedulerConfig config,
+                                   FlowFieldConfig flowConfig) {
+        if (scheduler != null) {
+            return;
+        }
+        this.navGraph = navGraph;
+        PathScheduler created = new PathScheduler((id, profile) -> {
+            World world = Bukkit.getWorld(id);
+            return world != null ? navGraph.forWorld(world, profile) : null;
+        }, config);
+        FlowFieldCache fields = new FlowFieldCache((id, profile) -> {
+            World world = Bukkit.getWorld(id);
+            return world != null ? navGraph.forWorld(world, profile).getGrid() : null;
+        }, flowConfig);
+        this.taskId = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+            navGraph.tick((id, x, y, z) -> {
+                created.invalidate(id, x, y, z);
+                fields.invalidate(id, x, y, z);
+            }, (id, chunkX, chunkZ) -> {
+                created.invalidateChunk(id, chunkX, chunkZ);
+                fields.invalidateChunk(id, chunkX, chunkZ);
+            });
+            created.tick();
+            fields.tick();
+        }, 1L, 1L).getTaskId();
+        this.flowFields = fields;
+        this.scheduler = created;
+    }
+
+    public synchronized void stop() {
+        if (taskId != -1) {
+            Bukkit.getScheduler().cancelTask(taskId);
+            taskId = -1;
+        }
+        if (scheduler != null) {
+            scheduler.clear();
+            scheduler = null;
+        }
+        if (flowFields != null) {
+            flowFields.clear();
+            flowFields = null;
+        }
+        if (navGraph != null) {
+            navGraph.shutdown();
+            navGraph = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    public PathScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public FlowFieldCache getFlowFields() {
+        return flowFields;
+    }
+
+    /**
+     * Navigation grid of a world, safe to query from any thread. When the service is not
+     * running this reads the live world, which only the main thread may do.
+     */
+    public NavGrid grid(World world) {
+        NavGraph graph = navGraph;
+        return scheduler != null && graph != null ? graph.grid(world) : new WorldNavGrid(world);
+    }
+
+    /**
+     * Walking path at normal priority
+     */
+    public CompletableFuture<Path> request(Location from, Location to) {
+        return request(from, to, MovementProfile.WALK, PathScheduler.Priority.NORMAL);
+    }
+
+    /**
+     * Queue a path request; completes on the main thread, with an empty path when none exists
+     */
+    public CompletableFuture<Path> request(Location from, Location to, MovementProfile profile, PathScheduler.Priority priority) {
+        World world = from.getWorld();
+        PathScheduler current = scheduler;
+        if (current == null || world == null || world != to.getWorld()) {
+            return CompletableFuture.completedFuture(new Path(Collections.emptyList()));
+        }
+        Location start = from.clone();
+        Location end = to.clone();
+        return current.submit(world.getUID(), cell(start), cell(end), profile, priority)
+                .thenApply(cells -> NavGraph.toPath(world, cells, start, end));
+    }
+
+    /**
+     * New chase planner for a world, or null when the service is not running. Keep one per
+     * chaser and pass it to every {@link #replan} of that chase.
+     */
+    public IncrementalPlanner planner(World world, MovementProfile profile) {
+        NavGraph graph = navGraph;
+        if (scheduler == null || graph == null) {
+            return null;
+        }
+        return new IncrementalPlanner(graph.forWorld(world, profile).getGrid());
+    }
+
+    /**
+     * Queue a replan of a chase towards a moving target; completes on the main thread, with an
+     * empty path when the target is unreachable
+     */
+    public CompletableFuture<Path> replan(IncrementalPlanner planner, Location from, Location to, PathScheduler.Priority priority) {
+        World world = from.getWorld();
+        PathScheduler current = scheduler;
+        if (current == null || world == null || world != to.getWorld()) {
+            return CompletableFuture.completedFuture(new Path(Collections.emptyList()));
+        }
+        Location start = from.clone();
+        Location end = to.clone();
+        return current.replan(world.getUID(), planner, cell(start), cell(end), priority)
+                .thenApply(cells -> NavGraph.toPath(world, cells, start, end));
+    }
+
+    /**
+     * Walking flow field towards a destination shared by every caller heading there, or null
+     * while it is being built or when the service is not running
+     */
+    public FlowField flowField(Location destination) {
+        return flowField(destination, MovementProfile.WALK);
+    }
+
+    public FlowField flowField(Location destination, MovementProfile profile) {
+        FlowFieldCache current = flowFields;
+        World world = destination.getWorld();
+        if (current == null || world == null) {
+            return null;
+        }
+        FlowField field = current.acquire(world.getUID(), cell(destination), profile);
+        return field != null && field.isValid() ? field : null;
+    }
+
+    /**
+     * Cached path between two locations as block-centre waypoints, or null when nothing is cached
+     */
+    public List<Location> lookup(Location from, Location to, MovementProfile profile) {
+        World world = from.getWorld();
+        PathScheduler current = scheduler;
+        if (current == null || world == null) {
+            return null;
+        }
+        long[] cells = current.lookup(world.getUID(), cell(from), cell(to), profile);
+        if (cells == null) {
+            return null;
+        }
+        List<Location> path = new ArrayList<>(cells.length);
+        for (long cell : cells) {
+            path.add(new Location(world, NavCells.x(cell) + 0.5, NavCells.y(cell), NavCells.z(cell) + 0.5));
+        }
+        return path;
+    }
+
+    /**
+     * Share a path computed by another pathfinder through the cache
+     */
+    public void store(List<Location> path, MovementProfile profile) {
+        PathScheduler current = scheduler;
+        if (current == null || path == null || path.isEmpty() || path.get(0).getWorld() == null) {
+            return;
+        }
+        long[] cells = new long[path.size()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = cell(path.get(i));
+        }
+        current.store(path.get(0).getWorld().getUID(), cells, profile);
+    }
+
+    /**
+     * A block changed: on the next tick the grid re-reads it and, when its flags changed, cached
+     * paths and section summaries around it are dropped and flow fields repaired
+     */
+    public void invalidate(World world, int x, int y, int z) {
+        NavGraph graph = navGraph;
+        if (scheduler != null && graph != null) {
+            graph.invalidate(world, x, y, z);
+        }
+    }
+
+    /**
+     * A chunk was loaded; on the next tick cached paths, section summaries and flow fields
+     * that saw it missing are dropped
+     */
+    public void load(World world, int chunkX, int chunkZ) {
+        NavGraph graph = navGraph;
+        if (graph != null) {
+            graph.load(world, chunkX, chunkZ);
+        }
+    }
+
+    /**
+     * A chunk was unloaded; its grid data is dropped, and on the next tick so are cached paths,
+     * section summaries and flow fields that read it
+     */
+    public void unload(World world, int chunkX, int chunkZ) {
+        NavGraph graph = navGraph;
+        if (graph != null) {
+            graph.unload(world, chunkX, chunkZ);
+        }
+    }
+
+    public void forget(World world) {
+        PathScheduler current = scheduler;
+        if (current != null) {
+            current.forget(world.getUID());
+        }
+        FlowFieldCache fields = flowFields;
+        if (fields != null) {
+            fields.forget(world.getUID());
+        }
+        NavGraph graph = navGraph;
+        if (graph != null) {
+            graph.forget(world);
+        }
+    }
+
+    private static long cell(Location location) {
+        return NavCells.pack(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+}
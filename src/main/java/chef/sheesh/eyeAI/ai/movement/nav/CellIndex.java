@@ -0,0 +1,91 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from packed cells to node ids. {@link #clear()} is O(1)
+ * through a generation stamp, so one instance serves every search of a thread.
+ */
+final class CellIndex {
+
+    private long[] keys;
+    private int[] values;
+    private int[] stamps;
+    private int generation = 1;
+    private int size;
+    private int mask;
+
+    CellIndex(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        stamps = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    void clear() {
+        size = 0;
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Node id of a cell, or -1 */
+    int get(long key) {
+        int slot = mix(key) & mask;
+        while (stamps[slot] == generation) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    void put(long key, int value) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        int slot = mix(key) & mask;
+        while (stamps[slot] == generation) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        stamps[slot] = generation;
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        int[] oldStamps = stamps;
+        int oldGeneration = generation;
+        allocate(keys.length * 2);
+        generation = 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldStamps[i] == oldGeneration) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,473 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+import java.util.Arrays;
+
+/**
+ * Integration field towards one goal over a bounded box around it: Dijkstra runs once from
+ * the goal over a snapshot of the box, after which every cell knows its cost to the goal and
+ * its next step, so any number of agents read their route in O(1).
+ * <p>
+ * The field is built, and {@link #repair} must run, on the thread that may read the grid.
+ * Readers may be on any thread; during a repair they can briefly see cells without a step.
+ */
+public final class FlowField {
+
+    /** Returned for cells outside the box or without a route to the goal */
+    public static final long NONE = Long.MIN_VALUE;
+
+    /** Direction of a cell without a step */
+    private static final byte NO_STEP = -1;
+
+    private final Snapshot snapshot;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final long goal;
+    private final int goalIndex;
+
+    private final float[] cost;
+    /** Packed (dx, dz, dy) of the step towards the goal, see {@link #direction} */
+    private final byte[] step;
+
+    // Scratch, only used on the repairing thread
+    private final long[] neighborCells = new long[8];
+    private final float[] neighborCosts = new float[8];
+    private final long[] affected;
+    private int[] heapNode = new int[1024];
+    private float[] heapKey = new float[1024];
+    private int heapSize;
+    private int[] stack = new int[256];
+
+    private int expansions;
+
+    /**
+     * Snapshot the box of {@code radius} blocks horizontally and {@code height} blocks vertically
+     * around the goal and integrate it. A goal that is not walkable is moved to the nearest
+     * walkable cell within two blocks; without one the field has no routes.
+     */
+    public FlowField(NavGrid grid, long goal, int radius, int height) {
+        this.minX = NavCells.x(goal) - radius;
+        this.minY = Math.max(NavCells.y(goal) - height, grid.getMinHeight());
+        this.minZ = NavCells.z(goal) - radius;
+        this.sizeX = 2 * radius + 1;
+        this.sizeY = Math.min(NavCells.y(goal) + height, grid.getMaxHeight() - 1) - minY + 1;
+        this.sizeZ = 2 * radius + 1;
+        // Walkability and moves look one block sideways and two up or down
+        this.snapshot = new Snapshot(grid, minX - 1, minY - 2, minZ - 1, sizeX + 2, sizeY + 4, sizeZ + 2);
+
+        int cells = sizeX * Math.max(0, sizeY) * sizeZ;
+        this.cost = new float[cells];
+        this.step = new byte[cells];
+        this.affected = new long[(cells + 63) >>> 6];
+        Arrays.fill(cost, Float.POSITIVE_INFINITY);
+        Arrays.fill(step, NO_STEP);
+
+        this.goal = snapGoal(goal);
+        this.goalIndex = this.goal != NONE ? index(this.goal) : -1;
+        if (goalIndex >= 0) {
+            cost[goalIndex] = 0f;
+            push(goalIndex, 0f);
+            integrate();
+        }
+    }
+
+    /** Walkable goal the field leads to, or {@link #NONE} */
+    public long getGoal() {
+        return goal;
+    }
+
+    /** False once the goal stopped being walkable; the field then has no routes */
+    public boolean isValid() {
+        return goalIndex >= 0 && cost[goalIndex] == 0f;
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return x >= minX && x < minX + sizeX && y >= minY && y < minY + sizeY && z >= minZ && z < minZ + sizeZ;
+    }
+
+    /** Whether the field read any block of a chunk column */
+    public boolean overlapsChunk(int chunkX, int chunkZ) {
+        int x = chunkX << 4;
+        int z = chunkZ << 4;
+        // The snapshot reaches one block beyond the field
+        return x + 15 >= minX - 1 && x <= minX + sizeX && z + 15 >= minZ - 1 && z <= minZ + sizeZ;
+    }
+
+    /** Nodes expanded by the last build or repair */
+    public int getExpansions() {
+        return expansions;
+    }
+
+    /**
+     * Cost of the route to the goal from the cell at or next to the given feet position
+     */
+    public float cost(int x, int y, int z) {
+        int i = locate(x, y, z);
+        return i >= 0 ? cost[i] : Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * The next cell on the route from the given feet position; the goal maps to itself
+     */
+    public long next(int x, int y, int z) {
+        return ahead(x, y, z, 1);
+    }
+
+    /**
+     * The cell {@code steps} moves along the route, or the goal when it is closer
+     */
+    public long ahead(int x, int y, int z, int steps) {
+        int i = locate(x, y, z);
+        if (i < 0) {
+            return NONE;
+        }
+        for (int n = 0; n < steps && i != goalIndex; n++) {
+            int d = step[i];
+            if (d == NO_STEP) {
+                return NONE; // Repair in progress
+            }
+            i = offset(i, d);
+        }
+        return cell(i);
+    }
+
+    /**
+     * Blocks changed: re-read them from the grid and repair the routes they can affect.
+     * Every cell whose route passed next to a change is reset and settled again from its
+     * untouched neighbours, so the work is proportional to the affected area rather than the box.
+     * Returns the number of nodes expanded.
+     */
+    public int repair(long[] blocks, int count) {
+        expansions = 0;
+        if (goalIndex < 0) {
+            return 0;
+        }
+        Arrays.fill(affected, 0L);
+        int top = 0;
+        for (int b = 0; b < count; b++) {
+            int x = NavCells.x(blocks[b]);
+            int y = NavCells.y(blocks[b]);
+            int z = NavCells.z(blocks[b]);
+            snapshot.refresh(x, y, z);
+            snapshot.refresh(x, y - 1, z);
+            // Cells whose walkability or moves read the block
+            for (int dy = -2; dy <= 2; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        if (contains(x + dx, y + dy, z + dz)) {
+                            top = mark(index(x + dx, y + dy, z + dz), top);
+                        }
+                    }
+                }
+            }
+        }
+
+        // Everything routed through a changed cell has to be settled again
+        int marked = 0;
+        while (marked < top) {
+            int i = stack[marked++];
+            int x = minX + i % sizeX;
+            int z = minZ + (i / sizeX) % sizeZ;
+            int y = minY + i / (sizeX * sizeZ);
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        if ((dx | dy | dz) == 0 || !contains(x + dx, y + dy, z + dz)) {
+                            continue;
+                        }
+                        int n = index(x + dx, y + dy, z + dz);
+                        if (step[n] == direction(-dx, -dy, -dz) && !isAffected(n)) {
+                            top = mark(n, top);
+                        }
+                    }
+                }
+            }
+        }
+        for (int k = 0; k < top; k++) {
+            cost[stack[k]] = Float.POSITIVE_INFINITY;
+            step[stack[k]] = NO_STEP;
+        }
+
+        // Seed the reset cells from the settled cells around them
+        heapSize = 0;
+        for (int k = 0; k < top; k++) {
+            int i = stack[k];
+            long cell = cell(i);
+            if (!snapshot.isWalkable(NavCells.x(cell), NavCells.y(cell), NavCells.z(cell))) {
+                continue;
+            }
+            if (i == goalIndex) {
+                cost[i] = 0f;
+                push(i, 0f);
+                continue;
+            }
+            int found = GridSearch.neighbors(snapshot, cell, neighborCells, neighborCosts);
+            for (int m = 0; m < found; m++) {
+                int n = indexOrNegative(neighborCells[m]);
+                if (n < 0 || isAffected(n) || cost[n] == Float.POSITIVE_INFINITY) {
+                    continue;
+                }
+                float candidate = cost[n] + neighborCosts[m];
+                if (candidate < cost[i]) {
+                    cost[i] = candidate;
+                    step[i] = towards(i, n);
+                }
+            }
+            if (cost[i] != Float.POSITIVE_INFINITY) {
+                push(i, cost[i]);
+            }
+        }
+        integrate();
+        return expansions;
+    }
+
+    /** Dijkstra from the queued cells; improvements spread into settled cells too */
+    private void integrate() {
+        while (heapSize > 0) {
+            float key = heapKey[0];
+            int i = pop();
+            if (key > cost[i]) {
+                continue; // Stale entry
+            }
+            expansions++;
+            int found = GridSearch.neighbors(snapshot, cell(i), neighborCells, neighborCosts);
+            for (int m = 0; m < found; m++) {
+                int n = indexOrNegative(neighborCells[m]);
+                if (n < 0) {
+                    continue;
+                }
+                float candidate = key + neighborCosts[m];
+                if (candidate < cost[n]) {
+                    cost[n] = candidate;
+                    step[n] = towards(n, i);
+                    push(n, candidate);
+                }
+            }
+        }
+    }
+
+    private long snapGoal(long target) {
+        int x = NavCells.x(target);
+        int y = NavCells.y(target);
+        int z = NavCells.z(target);
+        long best = NONE;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int dy = -2; dy <= 2; dy++) {
+            for (int dz = -2; dz <= 2; dz++) {
+                for (int dx = -2; dx <= 2; dx++) {
+                    int distance = dx * dx + dz * dz + 2 * dy * dy;
+                    if (distance < bestDistance && contains(x + dx, y + dy, z + dz)
+                            && snapshot.isWalkable(x + dx, y + dy, z + dz)) {
+                        best = NavCells.pack(x + dx, y + dy, z + dz);
+                        bestDistance = distance;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /** The cell at the feet position, or the one below or above it, that has a route */
+    private int locate(int x, int y, int z) {
+        for (int dy = 0; dy >= -1; dy--) {
+            if (contains(x, y + dy, z)) {
+                int i = index(x, y + dy, z);
+                if (cost[i] != Float.POSITIVE_INFINITY) {
+                    return i;
+                }
+            }
+        }
+        if (contains(x, y + 1, z)) {
+            int i = index(x, y + 1, z);
+            if (cost[i] != Float.POSITIVE_INFINITY) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int mark(int i, int top) {
+        if (isAffected(i)) {
+            return top;
+        }
+        affected[i >>> 6] |= 1L << i;
+        if (top == stack.length) {
+            stack = Arrays.copyOf(stack, top * 2);
+        }
+        stack[top] = i;
+        return top + 1;
+    }
+
+    private boolean isAffected(int i) {
+        return (affected[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private int index(int x, int y, int z) {
+        return ((y - minY) * sizeZ + (z - minZ)) * sizeX + (x - minX);
+    }
+
+    private int index(long cell) {
+        return index(NavCells.x(cell), NavCells.y(cell), NavCells.z(cell));
+    }
+
+    private int indexOrNegative(long cell) {
+        int x = NavCells.x(cell);
+        int y = NavCells.y(cell);
+        int z = NavCells.z(cell);
+        return contains(x, y, z) ? index(x, y, z) : -1;
+    }
+
+    private long cell(int i) {
+        return NavCells.pack(minX + i % sizeX, minY + i / (sizeX * sizeZ), minZ + (i / sizeX) % sizeZ);
+    }
+
+    private byte towards(int from, int to) {
+        long a = cell(from);
+        long b = cell(to);
+        return direction(NavCells.x(b) - NavCells.x(a), NavCells.y(b) - NavCells.y(a), NavCells.z(b) - NavCells.z(a));
+    }
+
+    private int offset(int i, int d) {
+        int dx = d / 9 - 1;
+        int dz = d / 3 % 3 - 1;
+        int dy = d % 3 - 1;
+        return i + (dy * sizeZ + dz) * sizeX + dx;
+    }
+
+    private static byte direction(int dx, int dy, int dz) {
+        return (byte) (((dx + 1) * 3 + (dz + 1)) * 3 + (dy + 1));
+    }
+
+    // Binary min-heap with lazy deletion, as in GridSearch
+
+    private void push(int node, float key) {
+        if (heapSize == heapNode.length) {
+            heapNode = Arrays.copyOf(heapNode, heapSize * 2);
+            heapKey = Arrays.copyOf(heapKey, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heapKey[up] <= key) {
+                break;
+            }
+            heapNode[i] = heapNode[up];
+            heapKey[i] = heapKey[up];
+            i = up;
+        }
+        heapNode[i] = node;
+        heapKey[i] = key;
+    }
+
+    private int pop() {
+        int top = heapNode[0];
+        int lastNode = heapNode[--heapSize];
+        float lastKey = heapKey[heapSize];
+        int i = 0;
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && heapKey[child + 1] < heapKey[child]) {
+                child++;
+            }
+            if (lastKey <= heapKey[child]) {
+                break;
+            }
+            heapNode[i] = heapNode[child];
+            heapKey[i] = heapKey[child];
+            i = child;
+        }
+        heapNode[i] = lastNode;
+        heapKey[i] = lastKey;
+        return top;
+    }
+
+    /**
+     * Solid and hazard bits of a box copied from the grid on first access, since the search
+     * only reads the blocks around walkable cells; everything outside counts as solid
+     */
+    private static final class Snapshot implements NavGrid {
+        private final NavGrid source;
+        private final int originX;
+        private final int originY;
+        private final int originZ;
+        private final int sizeX;
+        private final int sizeY;
+        private final int sizeZ;
+        private final long[] known;
+        private final long[] solid;
+        private final long[] hazard;
+
+        Snapshot(NavGrid source, int originX, int originY, int originZ, int sizeX, int sizeY, int sizeZ) {
+            this.source = source;
+            this.originX = originX;
+            this.originY = originY;
+            this.originZ = originZ;
+            this.sizeX = sizeX;
+            this.sizeY = Math.max(0, sizeY);
+            this.sizeZ = sizeZ;
+            int words = (sizeX * this.sizeY * sizeZ + 63) >>> 6;
+            this.known = new long[words];
+            this.solid = new long[words];
+            this.hazard = new long[words];
+        }
+
+        void refresh(int x, int y, int z) {
+            int bit = bit(x, y, z);
+            if (bit >= 0) {
+                load(bit, x, y, z);
+            }
+        }
+
+        private void load(int bit, int x, int y, int z) {
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            known[word] |= mask;
+            solid[word] = source.isSolid(x, y, z) ? solid[word] | mask : solid[word] & ~mask;
+            hazard[word] = source.isHazard(x, y, z) ? hazard[word] | mask : hazard[word] & ~mask;
+        }
+
+        private int loaded(int x, int y, int z) {
+            int bit = bit(x, y, z);
+            if (bit >= 0 && (known[bit >>> 6] & (1L << bit)) == 0) {
+                load(bit, x, y, z);
+            }
+            return bit;
+        }
+
+        private int bit(int x, int y, int z) {
+            int bx = x - originX;
+            int by = y - originY;
+            int bz = z - originZ;
+            if (bx < 0 || by < 0 || bz < 0 || bx >= sizeX || by >= sizeY || bz >= sizeZ) {
+                return -1;
+            }
+            return (by * sizeZ + bz) * sizeX + bx;
+        }
+
+        @Override
+        public boolean isSolid(int x, int y, int z) {
+            int bit = loaded(x, y, z);
+            return bit < 0 || (solid[bit >>> 6] & (1L << bit)) != 0;
+        }
+
+        @Override
+        public boolean isHazard(int x, int y, int z) {
+            int bit = loaded(x, y, z);
+            return bit >= 0 && (hazard[bit >>> 6] & (1L << bit)) != 0;
+        }
+
+        @Override
+        public int getMinHeight() {
+            return source.getMinHeight();
+        }
+
+        @Override
+        public int getMaxHeight() {
+            return source.getMaxHeight();
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared {@link FlowField}s, one per destination: agents heading for about the same place
+ * read the same field, so moving a group costs the same however many members it has.
+ * Fields are requested from any thread and built, repaired and dropped in {@link #tick()},
+ * which must run on the thread that may read the world.
+ */
+public class FlowFieldCache {
+
+    /** Grid of a world under a profile, or null when the world is gone */
+    @FunctionalInterface
+    public interface Resolver {
+        NavGrid get(UUID world, MovementProfile profile);
+    }
+
+    private final Resolver resolver;
+    private final FlowFieldConfig config;
+    private final long budgetNanos;
+
+    private final List<Entry> fields = new CopyOnWriteArrayList<>();
+    private final Object lock = new Object();
+    private final ArrayDeque<Request> queue = new ArrayDeque<>();
+    private final Queue<Change> changes = new ConcurrentLinkedQueue<>();
+    private volatile long tick;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder built = new LongAdder();
+    private final LongAdder repaired = new LongAdder();
+    private final LongAdder buildExpansions = new LongAdder();
+    private final LongAdder repairExpansions = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+
+    public FlowFieldCache(Resolver resolver, FlowFieldConfig config) {
+        this.resolver = resolver;
+        this.config = config;
+        this.budgetNanos = (long) (config.budgetMillisPerTick * TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Field leading to the goal, or null while it is being built. Check
+     * {@link FlowField#isValid()}: a goal without walkable ground has no routes.
+     */
+    public FlowField acquire(UUID world, long goal, MovementProfile profile) {
+        requests.increment();
+        for (Entry entry : fields) {
+            if (entry.matches(world, profile, goal, config.coalesceRadius)) {
+                entry.lastUsed = tick;
+                hits.increment();
+                return entry.field;
+            }
+        }
+        synchronized (lock) {
+            for (Request request : queue) {
+                if (request.world.equals(world) && request.profile == profile
+                        && NavCells.chebyshev(request.goal, goal) <= config.coalesceRadius) {
+                    return null;
+                }
+            }
+            queue.add(new Request(world, goal, profile));
+        }
+        return null;
+    }
+
+    /**
+     * Apply block changes to the fields they touch, drop unused fields and build requested
+     * ones until this tick's budget is spent. Returns the number of fields built.
+     */
+    public int tick() {
+        long now = ++tick;
+        long begin = System.nanoTime();
+        long deadline = begin + budgetNanos;
+
+        repairChanged();
+        for (Entry entry : fields) {
+            if (now - entry.lastUsed > config.ttlTicks) {
+                fields.remove(entry);
+            }
+        }
+
+        int ran = 0;
+        while (true) {
+            Request request;
+            synchronized (lock) {
+                request = queue.poll();
+            }
+            if (request == null) {
+                break;
+            }
+            build(request, now);
+            ran++;
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+        busyNanos.add(System.nanoTime() - begin);
+        return ran;
+    }
+
+    /**
+     * A block changed; fields containing it are repaired on the next tick
+     */
+    public void invalidate(UUID world, int x, int y, int z) {
+        for (Entry entry : fields) {
+            if (entry.world.equals(world) && entry.field.contains(x, y, z)) {
+                changes.add(new Change(world, NavCells.pack(x, y, z)));
+                return;
+            }
+        }
+    }
+
+    /**
+     * A chunk was loaded or unloaded; fields reading it are dropped and rebuilt on the next request
+     */
+    public void invalidateChunk(UUID world, int chunkX, int chunkZ) {
+        fields.removeIf(entry -> entry.world.equals(world) && entry.field.overlapsChunk(chunkX, chunkZ));
+    }
+
+    public void forget(UUID world) {
+        fields.removeIf(entry -> entry.world.equals(world));
+        changes.removeIf(change -> change.world.equals(world));
+        synchronized (lock) {
+            queue.removeIf(request -> request.world.equals(world));
+        }
+    }
+
+    public void clear() {
+        fields.clear();
+        changes.clear();
+        synchronized (lock) {
+            queue.clear();
+        }
+    }
+
+    public int size() {
+        return fields.size();
+    }
+
+    public Stats getStats() {
+        int queued;
+        synchronized (lock) {
+            queued = queue.size();
+        }
+        long builds = built.sum();
+        long repairs = repaired.sum();
+        return new Stats(requests.sum(), hits.sum(), builds, repairs, fields.size(), queued,
+                builds > 0 ? buildExpansions.sum() / (double) builds : 0.0,
+                repairs > 0 ? repairExpansions.sum() / (double) repairs : 0.0,
+                busyNanos.sum() / (double) TimeUnit.MILLISECONDS.toNanos(1) / Math.max(1, tick));
+    }
+
+    private void repairChanged() {
+        if (changes.isEmpty()) {
+            return;
+        }
+        // Batch the changes per field so each field is repaired once
+        Map<Entry, long[]> batches = new IdentityHashMap<>();
+        Map<Entry, Integer> counts = new IdentityHashMap<>();
+        Change change;
+        while ((change = changes.poll()) != null) {
+            int x = NavCells.x(change.block);
+            int y = NavCells.y(change.block);
+            int z = NavCells.z(change.block);
+            for (Entry entry : fields) {
+                if (!entry.world.equals(change.world) || !entry.field.contains(x, y, z)) {
+                    continue;
+                }
+                int count = counts.getOrDefault(entry, 0);
+                long[] batch = batches.computeIfAbsent(entry, key -> new long[8]);
+                if (count == batch.length) {
+                    batch = Arrays.copyOf(batch, count * 2);
+                    batches.put(entry, batch);
+                }
+                batch[count] = change.block;
+                counts.put(entry, count + 1);
+            }
+        }
+        for (Map.Entry<Entry, long[]> batch : batches.entrySet()) {
+            FlowField field = batch.getKey().field;
+            repairExpansions.add(field.repair(batch.getValue(), counts.get(batch.getKey())));
+            repaired.increment();
+            if (!field.isValid()) {
+                // The goal itself changed; rebuild around a new goal cell on the next request
+                fields.remove(batch.getKey());
+            }
+        }
+    }
+
+    private void build(Request request, long now) {
+        NavGrid grid = resolver.get(request.world, request.profile);
+        if (grid == null) {
+            return;
+        }
+        FlowField field = new FlowField(grid, request.goal, config.radius, config.height);
+        built.increment();
+        buildExpansions.add(field.getExpansions());
+        // Fields without a reachable goal are kept too, so unreachable destinations are not rebuilt every tick
+        while (fields.size() >= config.maxFields) {
+            evictLeastRecentlyUsed();
+        }
+        fields.add(new Entry(request.world, request.profile, request.goal, field, now));
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Entry oldest = null;
+        for (Entry entry : fields) {
+            if (oldest == null || entry.lastUsed < oldest.lastUsed) {
+                oldest = entry;
+            }
+        }
+        if (oldest != null) {
+            fields.remove(oldest);
+        }
+    }
+
+    private record Request(UUID world, long goal, MovementProfile profile) {
+    }
+
+    private record Change(UUID world, long block) {
+    }
+
+    private static final class Entry {
+        final UUID world;
+        final MovementProfile profile;
+        /** Destination the field was requested for, before snapping to a walkable cell */
+        final long target;
+        final FlowField field;
+        volatile long lastUsed;
+
+        Entry(UUID world, MovementProfile profile, long target, FlowField field, long lastUsed) {
+            this.world = world;
+            this.profile = profile;
+            this.target = target;
+            this.field = field;
+            this.lastUsed = lastUsed;
+        }
+
+        boolean matches(UUID world, MovementProfile profile, long goal, int radius) {
+            return this.profile == profile && this.world.equals(world)
+                    && (NavCells.chebyshev(target, goal) <= radius || NavCells.chebyshev(field.getGoal(), goal) <= radius);
+        }
+    }
+
+    public static class Stats {
+        public final long requests;
+        public final long hits;
+        public final long built;
+        public final long repaired;
+        public final int fields;
+        public final int queued;
+        public final double avgBuildExpansions;
+        public final double avgRepairExpansions;
+        public final double avgMillisPerTick;
+
+        public Stats(long requests, long hits, long built, long repaired, int fields, int queued,
+                     double avgBuildExpansions, double avgRepairExpansions, double avgMillisPerTick) {
+            this.requests = requests;
+            this.hits = hits;
+            this.built = built;
+            this.repaired = repaired;
+            this.fields = fields;
+            this.queued = queued;
+            this.avgBuildExpansions = avgBuildExpansions;
+            this.avgRepairExpansions = avgRepairExpansions;
+            this.avgMillisPerTick = avgMillisPerTick;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("FlowFields{requests=%d, hits=%d, built=%d, repaired=%d, fields=%d, queued=%d, "
+                            + "expansions/build=%.0f, expansions/repair=%.0f, %.3fms/tick}",
+                    requests, hits, built, repaired, fields, queued, avgBuildExpansions, avgRepairExpansions,
+                    avgMillisPerTick);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+import chef.sheesh.eyeAI.infra.config.ConfigurationManager;
+
+/**
+ * Size and budget settings of {@link FlowFieldCache}.
+ */
+public class FlowFieldConfig {
+    /** Main-thread time spent building and repairing fields per tick; at least one build runs every tick */
+    public double budgetMillisPerTick = 1.0;
+    /** Horizontal reach of a field around its goal */
+    public int radius = 32;
+    /** Vertical reach of a field around its goal */
+    public int height = 12;
+    /** Fields kept at once, least recently used dropped first */
+    public int maxFields = 16;
+    /** Ticks a field survives without being read */
+    public int ttlTicks = 200;
+    /** Destinations this close to an existing field's goal share that field */
+    public int coalesceRadius = 3;
+
+    /**
+     * Values from {@code pathing.flowFields.*}, falling back to the defaults above
+     */
+    public static FlowFieldConfig from(ConfigurationManager cfg) {
+        FlowFieldConfig config = new FlowFieldConfig();
+        if (cfg == null) {
+            return config;
+        }
+        config.budgetMillisPerTick = Math.max(0.1, cfg.getDouble("pathing.flowFields.budgetMillisPerTick", config.budgetMillisPerTick));
+        config.radius = Math.max(4, cfg.getInt("pathing.flowFields.radius", config.radius));
+        config.height = Math.max(2, cfg.getInt("pathing.flowFields.height", config.height));
+        config.maxFields = Math.max(1, cfg.getInt("pathing.flowFields.maxFields", config.maxFields));
+        config.ttlTicks = Math.max(1, cfg.getInt("pathing.flowFields.ttlTicks", config.ttlTicks));
+        config.coalesceRadius = Math.max(0, cfg.getInt("pathing.flowFields.coalesceRadius", config.coalesceRadius));
+        return config;
+    }
+}
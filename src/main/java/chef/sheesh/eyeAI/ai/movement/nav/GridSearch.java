@@ -0,0 +1,256 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Block-level A* and Dijkstra over a {@link NavGrid} with primitive bookkeeping.
+ * Moves go to the 8 horizontal neighbours, stepping up or down by at most one block;
+ * every move is reversible, so costs are symmetric. Scratch arrays are reused between
+ * searches, so an instance must stay on one thread.
+ */
+public final class GridSearch {
+
+    private static final int[] DX = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] DZ = {0, 0, 1, -1, 1, -1, 1, -1};
+    private static final float DIAGONAL = (float) Math.sqrt(2.0);
+    /** Extra cost of a one-block step up or down */
+    private static final float CLIMB = 0.5f;
+
+    private final CellIndex index = new CellIndex(4096);
+    private long[] cells = new long[1024];
+    private float[] g = new float[1024];
+    private int[] parent = new int[1024];
+    private boolean[] closed = new boolean[1024];
+    private int count;
+
+    private int[] heapNode = new int[1024];
+    private float[] heapKey = new float[1024];
+    private int heapSize;
+
+    private final long[] neighborCells = new long[8];
+    private final float[] neighborCosts = new float[8];
+
+    private int expansions;
+    private float cost;
+
+    /**
+     * A* from start to goal through cells accepted by {@code allowed} (null accepts all).
+     * Returns the cells from start to goal inclusive, or null when the goal was not reached
+     * within {@code maxExpansions}.
+     */
+    public long[] findPath(NavGrid grid, long start, long goal, LongPredicate allowed, int maxExpansions) {
+        reset();
+        expansions = 0;
+        cost = Float.POSITIVE_INFINITY;
+        push(node(start, 0f, -1), heuristic(start, goal));
+        while (heapSize > 0) {
+            int current = pop();
+            if (closed[current]) {
+                continue;
+            }
+            closed[current] = true;
+            long cell = cells[current];
+            if (cell == goal) {
+                cost = g[current];
+                return trace(current);
+            }
+            if (++expansions > maxExpansions) {
+                return null;
+            }
+            relax(grid, current, allowed, goal, true);
+        }
+        return null;
+    }
+
+    /**
+     * Dijkstra from start until every target was settled. Writes the path cost to each target
+     * ({@code POSITIVE_INFINITY} when unreachable) into {@code costs}.
+     */
+    public void flood(NavGrid grid, long start, LongPredicate allowed, long[] targets, float[] costs, int maxExpansions) {
+        reset();
+        expansions = 0;
+        Arrays.fill(costs, 0, targets.length, Float.POSITIVE_INFINITY);
+        int remaining = targets.length;
+        push(node(start, 0f, -1), 0f);
+        while (heapSize > 0 && remaining > 0) {
+            int current = pop();
+            if (closed[current]) {
+                continue;
+            }
+            closed[current] = true;
+            long cell = cells[current];
+            for (int i = 0; i < targets.length; i++) {
+                if (targets[i] == cell && costs[i] == Float.POSITIVE_INFINITY) {
+                    costs[i] = g[current];
+                    remaining--;
+                }
+            }
+            if (++expansions > maxExpansions) {
+                return;
+            }
+            relax(grid, current, allowed, 0L, false);
+        }
+    }
+
+    /** Nodes expanded by the last search */
+    public int getExpansions() {
+        return expansions;
+    }
+
+    /** Cost of the last path found by {@link #findPath} */
+    public float getCost() {
+        return cost;
+    }
+
+    /**
+     * Write the legal moves out of a walkable cell into {@code out}/{@code costs}; returns their count
+     */
+    public static int neighbors(NavGrid grid, long cell, long[] out, float[] costs) {
+        int x = NavCells.x(cell);
+        int y = NavCells.y(cell);
+        int z = NavCells.z(cell);
+        int n = 0;
+        for (int d = 0; d < 8; d++) {
+            int nx = x + DX[d];
+            int nz = z + DZ[d];
+            // At most one of the three heights can be walkable, so the order does not matter
+            for (int dy = -1; dy <= 1; dy++) {
+                int ny = y + dy;
+                if (!grid.isWalkable(nx, ny, nz)) {
+                    continue;
+                }
+                if (dy == 1 && !grid.isPassable(x, y + 2, z)) {
+                    break;
+                }
+                if (dy == -1 && !grid.isPassable(nx, y + 1, nz)) {
+                    break;
+                }
+                boolean diagonal = d >= 4;
+                if (diagonal) {
+                    int top = Math.max(y, ny);
+                    if (!grid.isPassable(nx, top, z) || !grid.isPassable(nx, top + 1, z)
+                            || !grid.isPassable(x, top, nz) || !grid.isPassable(x, top + 1, nz)) {
+                        break;
+                    }
+                }
+                out[n] = NavCells.pack(nx, ny, nz);
+                costs[n] = (diagonal ? DIAGONAL : 1f) + (dy != 0 ? CLIMB : 0f);
+                n++;
+                break;
+            }
+        }
+        return n;
+    }
+
+    /** Octile distance plus the climb cost; never overestimates */
+    public static float heuristic(long a, long b) {
+        int dx = Math.abs(NavCells.x(a) - NavCells.x(b));
+        int dz = Math.abs(NavCells.z(a) - NavCells.z(b));
+        int dy = Math.abs(NavCells.y(a) - NavCells.y(b));
+        int min = Math.min(dx, dz);
+        int max = Math.max(dx, dz);
+        return (DIAGONAL - 1f) * min + max + CLIMB * dy;
+    }
+
+    private void relax(NavGrid grid, int current, LongPredicate allowed, long goal, boolean informed) {
+        int found = neighbors(grid, cells[current], neighborCells, neighborCosts);
+        float base = g[current];
+        for (int i = 0; i < found; i++) {
+            long next = neighborCells[i];
+            if (allowed != null && !allowed.test(next)) {
+                continue;
+            }
+            float tentative = base + neighborCosts[i];
+            int id = index.get(next);
+            if (id < 0) {
+                id = node(next, tentative, current);
+            } else if (closed[id] || tentative >= g[id]) {
+                continue;
+            } else {
+                g[id] = tentative;
+                parent[id] = current;
+            }
+            push(id, informed ? tentative + heuristic(next, goal) : tentative);
+        }
+    }
+
+    private long[] trace(int node) {
+        int length = 0;
+        for (int n = node; n >= 0; n = parent[n]) {
+            length++;
+        }
+        long[] path = new long[length];
+        for (int n = node; n >= 0; n = parent[n]) {
+            path[--length] = cells[n];
+        }
+        return path;
+    }
+
+    private void reset() {
+        index.clear();
+        count = 0;
+        heapSize = 0;
+    }
+
+    private int node(long cell, float cost, int from) {
+        if (count == cells.length) {
+            int capacity = count * 2;
+            cells = Arrays.copyOf(cells, capacity);
+            g = Arrays.copyOf(g, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            closed = Arrays.copyOf(closed, capacity);
+        }
+        int id = count++;
+        cells[id] = cell;
+        g[id] = cost;
+        parent[id] = from;
+        closed[id] = false;
+        index.put(cell, id);
+        return id;
+    }
+
+    // Binary min-heap with lazy deletion: improved nodes are pushed again and stale entries skipped
+
+    private void push(int node, float key) {
+        if (heapSize == heapNode.length) {
+            heapNode = Arrays.copyOf(heapNode, heapSize * 2);
+            heapKey = Arrays.copyOf(heapKey, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heapKey[up] <= key) {
+                break;
+            }
+            heapNode[i] = heapNode[up];
+            heapKey[i] = heapKey[up];
+            i = up;
+        }
+        heapNode[i] = node;
+        heapKey[i] = key;
+    }
+
+    private int pop() {
+        int top = heapNode[0];
+        int lastNode = heapNode[--heapSize];
+        float lastKey = heapKey[heapSize];
+        int i = 0;
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && heapKey[child + 1] < heapKey[child]) {
+                child++;
+            }
+            if (lastKey <= heapKey[child]) {
+                break;
+            }
+            heapNode[i] = heapNode[child];
+            heapKey[i] = heapKey[child];
+            i = child;
+        }
+        heapNode[i] = lastNode;
+        heapKey[i] = lastKey;
+        return top;
+    }
+}
@@ -0,0 +1,816 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongPredicate;
+
+/**
+ * HPA* over one {@link NavGrid}. Chunk sections (16x16x16) are clusters; each keeps a
+ * walkability bitset and the portal cells where it connects to its neighbours. A query
+ * searches the graph of portals first and then refines the result with block-level A*
+ * confined to one cluster at a time. Clusters are summarised lazily the first time a
+ * search reaches them, so the cost of a long query grows with the clusters along the
+ * corridor rather than with the blocks in it. Safe to query from several threads.
+ * A {@link Query} runs the same search in slices, so a long cold query can be spread
+ * over several ticks.
+ */
+public class HierarchicalPathfinder {
+
+    private static final int SECTION_CELLS = NavCells.SECTION_SIZE * NavCells.SECTION_SIZE * NavCells.SECTION_SIZE;
+    /** Long entrances get one portal per this many border cells */
+    private static final int PORTAL_SPACING = 8;
+    private static final int CLUSTER_EXPANSIONS = SECTION_CELLS * 2;
+    /** Times a paused query starts over after a block change before it ignores further changes */
+    private static final int MAX_RESTARTS = 2;
+
+    private final NavGrid grid;
+    private final int directRange;
+    private final int maxDirectExpansions;
+    private final int maxAbstractExpansions;
+    private final float heuristicWeight;
+    private final int maxClusters;
+
+    private final Map<Long, Cluster> clusters = new ConcurrentHashMap<>();
+    private final Map<Pair, Entrance[]> entrances = new ConcurrentHashMap<>();
+    private final ThreadLocal<GridSearch> searches = ThreadLocal.withInitial(GridSearch::new);
+    /** Bumped when block changes drop summaries, so paused queries know their portals may be stale */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder clustersBuilt = new LongAdder();
+    private final LongAdder abstractExpansions = new LongAdder();
+    private final LongAdder localExpansions = new LongAdder();
+
+    public HierarchicalPathfinder(NavGrid grid) {
+        this(grid, 24, 2000, 20000, 1.2f, 16384);
+    }
+
+    /**
+     * @param directRange       queries spanning at most this many blocks first try plain A*
+     * @param maxDirectExpansions node budget of that plain A* attempt
+     * @param maxAbstractExpansions portal budget of the abstract search
+     * @param heuristicWeight   above 1 the abstract search stays in a narrower band of sections,
+     *                          returning paths at most this factor longer than the portal graph allows
+     * @param maxClusters       summaries kept before the cache is dropped and rebuilt on demand
+     */
+    public HierarchicalPathfinder(NavGrid grid, int directRange, int maxDirectExpansions,
+                                  int maxAbstractExpansions, float heuristicWeight, int maxClusters) {
+        this.grid = grid;
+        this.directRange = directRange;
+        this.maxDirectExpansions = maxDirectExpansions;
+        this.maxAbstractExpansions = maxAbstractExpansions;
+        this.heuristicWeight = Math.max(1f, heuristicWeight);
+        this.maxClusters = maxClusters;
+    }
+
+    public NavGrid getGrid() {
+        return grid;
+    }
+
+    public long[] findPath(int sx, int sy, int sz, int tx, int ty, int tz) {
+        return findPath(NavCells.pack(sx, sy, sz), NavCells.pack(tx, ty, tz));
+    }
+
+    /**
+     * Cells from start to goal inclusive, or null when no path was found. Start and goal
+     * are snapped one block up or down onto a walkable cell when needed.
+     */
+    public long[] findPath(long start, long goal) {
+        Query query = query(start, goal);
+        query.step(Long.MAX_VALUE);
+        return query.getPath();
+    }
+
+    /**
+     * A query to run in slices with {@link Query#step}; finds the same path as {@link #findPath(long, long)}
+     */
+    public Query query(long start, long goal) {
+        return new Query(start, goal);
+    }
+
+    /**
+     * Forget summaries affected by a block change. Walkability of a cell depends on the blocks
+     * from two below to two above it, and a cluster's portal links depend on its neighbours.
+     */
+    public void invalidate(int x, int y, int z) {
+        generation.incrementAndGet();
+        long previous = Long.MIN_VALUE;
+        for (int dy = -2; dy <= 2; dy++) {
+            long key = NavCells.section(x, y + dy, z);
+            if (key != previous) {
+                invalidateSection(key);
+                previous = key;
+            }
+        }
+    }
+
+    /**
+     * Forget the summaries of a whole chunk column, e.g. after it was loaded or unloaded
+     */
+    public void invalidateChunk(int chunkX, int chunkZ) {
+        generation.incrementAndGet();
+        int top = (grid.getMaxHeight() - 1) >> NavCells.SECTION_SHIFT;
+        for (int sy = grid.getMinHeight() >> NavCells.SECTION_SHIFT; sy <= top; sy++) {
+            invalidateSection(NavCells.pack(chunkX, sy, chunkZ));
+        }
+    }
+
+    /** Forget every summary, e.g. after a world reload */
+    public void clear() {
+        generation.incrementAndGet();
+        dropSummaries();
+    }
+
+    private void dropSummaries() {
+        clusters.clear();
+        entrances.clear();
+    }
+
+    public int getClusterCount() {
+        return clusters.size();
+    }
+
+    public Stats getStats() {
+        return new Stats(queries.sum(), failures.sum(), clustersBuilt.sum(), clusters.size(),
+                abstractExpansions.sum(), localExpansions.sum());
+    }
+
+    private void invalidateSection(long key) {
+        int cx = NavCells.x(key);
+        int cy = NavCells.y(key);
+        int cz = NavCells.z(key);
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    long neighbor = NavCells.pack(cx + dx, cy + dy, cz + dz);
+                    // Neighbours link to the portals of the dropped entrances, so they are rebuilt too
+                    clusters.remove(neighbor);
+                    if (neighbor != key) {
+                        entrances.remove(Pair.of(key, neighbor));
+                    }
+                }
+            }
+        }
+    }
+
+    private void offer(PriorityQueue<Visit> open, Map<Portal, Visit> best, Portal portal,
+                       float g, Visit from, long goal) {
+        Visit known = best.get(portal);
+        if (known != null && known.g <= g) {
+            return;
+        }
+        Visit visit = new Visit(portal, g, g + heuristicWeight * GridSearch.heuristic(portal.cell, goal), from);
+        best.put(portal, visit);
+        open.add(visit);
+    }
+
+    private boolean appendLeg(GridSearch search, LongList cells, long from, long to) {
+        Cluster cluster = cluster(NavCells.section(from));
+        long[] leg = search.findPath(cluster, from, to, cluster, CLUSTER_EXPANSIONS);
+        localExpansions.add(search.getExpansions());
+        if (leg == null) {
+            return false;
+        }
+        for (int i = 1; i < leg.length; i++) {
+            cells.add(leg[i]);
+        }
+        return true;
+    }
+
+    /**
+     * The cell itself, or the cell one block below or above it, whichever is walkable first;
+     * {@code Long.MIN_VALUE} when none is
+     */
+    public long snap(long cell) {
+        int x = NavCells.x(cell);
+        int y = NavCells.y(cell);
+        int z = NavCells.z(cell);
+        for (int dy : new int[]{0, -1, 1}) {
+            if (grid.isWalkable(x, y + dy, z)) {
+                return NavCells.pack(x, y + dy, z);
+            }
+        }
+        return Long.MIN_VALUE;
+    }
+
+    private static LongPredicate box(long a, long b, int margin) {
+        int minX = Math.min(NavCells.x(a), NavCells.x(b)) - margin;
+        int maxX = Math.max(NavCells.x(a), NavCells.x(b)) + margin;
+        int minY = Math.min(NavCells.y(a), NavCells.y(b)) - margin;
+        int maxY = Math.max(NavCells.y(a), NavCells.y(b)) + margin;
+        int minZ = Math.min(NavCells.z(a), NavCells.z(b)) - margin;
+        int maxZ = Math.max(NavCells.z(a), NavCells.z(b)) + margin;
+        return cell -> {
+            int x = NavCells.x(cell);
+            int y = NavCells.y(cell);
+            int z = NavCells.z(cell);
+            return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+        };
+    }
+
+    private Cluster cluster(long key) {
+        Cluster cluster = clusters.get(key);
+        if (cluster != null) {
+            return cluster;
+        }
+        if (clusters.size() >= maxClusters) {
+            // Summaries are rebuilt identically, so queries in progress stay valid
+            dropSummaries();
+        }
+        return clusters.computeIfAbsent(key, this::build);
+    }
+
+    /**
+     * Summarise one section: walkability bits, entrances to every neighbour and the
+     * cluster-local cost between each pair of its portals
+     */
+    private Cluster build(long key) {
+        clustersBuilt.increment();
+        Cluster cluster = new Cluster(key, grid);
+        if (cluster.walkableCount == 0) {
+            cluster.setPortals(new Portal[0]);
+            return cluster;
+        }
+
+        // Border moves grouped by the neighbouring section they lead into
+        Map<Long, Map<Long, long[]>> crossings = new HashMap<>();
+        long[] next = new long[8];
+        float[] costs = new float[8];
+        int last = NavCells.SECTION_SIZE - 1;
+        for (int i = 0; i < SECTION_CELLS; i++) {
+            int lx = i & last;
+            int lz = (i >> NavCells.SECTION_SHIFT) & last;
+            int ly = i >> (2 * NavCells.SECTION_SHIFT);
+            if (!cluster.isSet(lx, ly, lz)) {
+                continue;
+            }
+            if (lx != 0 && lx != last && lz != 0 && lz != last && ly != 0 && ly != last) {
+                continue;
+            }
+            long cell = NavCells.pack(cluster.originX + lx, cluster.originY + ly, cluster.originZ + lz);
+            int found = GridSearch.neighbors(cluster, cell, next, costs);
+            for (int n = 0; n < found; n++) {
+                long other = NavCells.section(next[n]);
+                if (other == key) {
+                    continue;
+                }
+                long[] crossing = crossings.computeIfAbsent(other, k -> new HashMap<>()).get(cell);
+                if (crossing == null || Float.intBitsToFloat((int) crossing[2]) > costs[n]) {
+                    crossings.get(other).put(cell, new long[]{cell, next[n], Float.floatToIntBits(costs[n])});
+                }
+            }
+        }
+
+        List<Portal> portals = new ArrayList<>();
+        for (Map.Entry<Long, Map<Long, long[]>> entry : crossings.entrySet()) {
+            long other = entry.getKey();
+            Entrance[] shared = entrances.computeIfAbsent(Pair.of(key, other),
+                    pair -> createEntrances(key, other, entry.getValue()));
+            for (Entrance entrance : shared) {
+                portals.add(entrance.a.cluster == key ? entrance.a : entrance.b);
+            }
+        }
+        cluster.setPortals(portals.toArray(new Portal[0]));
+        link(cluster);
+        return cluster;
+    }
+
+    /**
+     * Split the border moves between two sections into connected runs and place portals along each run
+     */
+    private static Entrance[] createEntrances(long key, long other, Map<Long, long[]> crossings) {
+        List<Entrance> result = new ArrayList<>();
+        Map<Long, long[]> remaining = new HashMap<>(crossings);
+        ArrayDeque<Long> queue = new ArrayDeque<>();
+        List<long[]> run = new ArrayList<>();
+        while (!remaining.isEmpty()) {
+            // Seed from the smallest cell so runs are split the same way on every rebuild
+            long seed = Long.MAX_VALUE;
+            for (long cell : remaining.keySet()) {
+                seed = Math.min(seed, cell);
+            }
+            run.clear();
+            queue.add(seed);
+            run.add(remaining.remove(seed));
+            while (!queue.isEmpty()) {
+                long cell = queue.poll();
+                int x = NavCells.x(cell);
+                int y = NavCells.y(cell);
+                int z = NavCells.z(cell);
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dy = -1; dy <= 1; dy++) {
+                        for (int dz = -1; dz <= 1; dz++) {
+                            long adjacent = NavCells.pack(x + dx, y + dy, z + dz);
+                            long[] crossing = remaining.remove(adjacent);
+                            if (crossing != null) {
+                                run.add(crossing);
+                                queue.add(adjacent);
+                            }
+                        }
+                    }
+                }
+            }
+            int portals = Math.max(1, run.size() / PORTAL_SPACING);
+            for (int p = 0; p < portals; p++) {
+                long[] crossing = run.get((2 * p + 1) * run.size() / (2 * portals));
+                Portal inside = new Portal(crossing[0], key);
+                Portal outside = new Portal(crossing[1], other);
+                float cost = Float.intBitsToFloat((int) crossing[2]);
+                inside.partner = outside;
+                inside.partnerCost = cost;
+                outside.partner = inside;
+                outside.partnerCost = cost;
+                result.add(new Entrance(inside, outside));
+            }
+        }
+        return result.toArray(new Entrance[0]);
+    }
+
+    /** Cluster-local costs between every pair of portals, one Dijkstra per portal */
+    private void link(Cluster cluster) {
+        Portal[] portals = cluster.portals;
+        int count = portals.length;
+        float[][] costs = new float[count][count];
+        GridSearch search = searches.get();
+        for (int i = 0; i < count; i++) {
+            costs[i][i] = 0f;
+            if (i + 1 < count) {
+                long[] targets = Arrays.copyOfRange(cluster.cells, i + 1, count);
+                float[] reached = new float[targets.length];
+                search.flood(cluster, portals[i].cell, cluster, targets, reached, CLUSTER_EXPANSIONS);
+                localExpansions.add(search.getExpansions());
+                for (int j = 0; j < reached.length; j++) {
+                    costs[i][i + 1 + j] = reached[j];
+                    costs[i + 1 + j][i] = reached[j];
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int reachable = 0;
+            for (int j = 0; j < count; j++) {
+                if (j != i && costs[i][j] != Float.POSITIVE_INFINITY) {
+                    reachable++;
+                }
+            }
+            Portal[] to = new Portal[reachable];
+            float[] cost = new float[reachable];
+            for (int j = 0, k = 0; j < count; j++) {
+                if (j != i && costs[i][j] != Float.POSITIVE_INFINITY) {
+                    to[k] = portals[j];
+                    cost[k++] = costs[i][j];
+                }
+            }
+            portals[i].links = new Links(to, cost);
+        }
+    }
+
+    /**
+     * One path query whose state survives between {@link #step} calls: the direct attempt,
+     * the open list of the portal search, and the refinement leg reached. If a block change
+     * drops summaries while the query is paused it starts over, at most {@code MAX_RESTARTS}
+     * times. Not thread-safe; step a query from one thread at a time.
+     */
+    public final class Query {
+        private final long start;
+        private final long goal;
+        private Phase phase = Phase.START;
+        private long startGeneration;
+        private int restarts;
+        private long s;
+        private long t;
+
+        private PriorityQueue<Visit> open;
+        private Map<Portal, Visit> best;
+        private Map<Portal, Float> exits;
+        private Visit arrival;
+        private float arrivalCost;
+        private int expanded;
+
+        private List<Portal> chain;
+        private int nextLeg;
+        private LongList cells;
+        private long at;
+        private long[] path;
+
+        private Query(long start, long goal) {
+            this.start = start;
+            this.goal = goal;
+            queries.increment();
+        }
+
+        /**
+         * Work until the query is answered or the clock passes the deadline, whichever comes
+         * first; at least one unit of work is done per call
+         *
+         * @param deadlineNanos {@link System#nanoTime()} at which to pause
+         * @return whether the query is answered
+         */
+        public boolean step(long deadlineNanos) {
+            GridSearch search = searches.get();
+            while (phase != Phase.DONE) {
+                if (phase != Phase.START && startGeneration != generation.get() && restarts < MAX_RESTARTS) {
+                    restarts++;
+                    phase = Phase.START;
+                }
+                switch (phase) {
+                    case START -> begin(search);
+                    case SEARCH -> expand();
+                    case REFINE -> refineLeg(search);
+                    default -> { }
+                }
+                if (phase != Phase.DONE && System.nanoTime() >= deadlineNanos) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public boolean isDone() {
+            return phase == Phase.DONE;
+        }
+
+        /** The path once {@link #isDone()}; null when there is none */
+        public long[] getPath() {
+            return path;
+        }
+
+        private void begin(GridSearch search) {
+            startGeneration = generation.get();
+            s = snap(start);
+            t = snap(goal);
+            if (s == Long.MIN_VALUE || t == Long.MIN_VALUE) {
+                finish(null);
+                return;
+            }
+            if (s == t) {
+                finish(new long[]{s});
+                return;
+            }
+            if (NavCells.chebyshev(s, t) <= directRange) {
+                long[] direct = search.findPath(grid, s, t, box(s, t, NavCells.SECTION_SIZE), maxDirectExpansions);
+                localExpansions.add(search.getExpansions());
+                if (direct != null) {
+                    finish(direct);
+                    return;
+                }
+            }
+
+            Cluster startCluster = cluster(NavCells.section(s));
+            Cluster goalCluster = cluster(NavCells.section(t));
+            Portal[] startPortals = startCluster.portals;
+            Portal[] goalPortals = goalCluster.portals;
+            if (startPortals.length == 0 || goalPortals.length == 0) {
+                finish(null);
+                return;
+            }
+
+            float[] startCosts = new float[startPortals.length];
+            search.flood(startCluster, s, startCluster, startCluster.cells, startCosts, CLUSTER_EXPANSIONS);
+            localExpansions.add(search.getExpansions());
+            float[] goalCosts = new float[goalPortals.length];
+            search.flood(goalCluster, t, goalCluster, goalCluster.cells, goalCosts, CLUSTER_EXPANSIONS);
+            localExpansions.add(search.getExpansions());
+            exits = new IdentityHashMap<>();
+            for (int i = 0; i < goalPortals.length; i++) {
+                if (goalCosts[i] != Float.POSITIVE_INFINITY) {
+                    exits.put(goalPortals[i], goalCosts[i]);
+                }
+            }
+            if (exits.isEmpty()) {
+                finish(null);
+                return;
+            }
+
+            open = new PriorityQueue<>();
+            best = new IdentityHashMap<>();
+            for (int i = 0; i < startPortals.length; i++) {
+                if (startCosts[i] != Float.POSITIVE_INFINITY) {
+                    offer(open, best, startPortals[i], startCosts[i], null, t);
+                }
+            }
+            arrival = null;
+            arrivalCost = Float.POSITIVE_INFINITY;
+            expanded = 0;
+            phase = Phase.SEARCH;
+        }
+
+        /** Take one visit off the open list of the portal search */
+        private void expand() {
+            Visit visit = open.poll();
+            if (visit == null) {
+                endSearch();
+                return;
+            }
+            if (visit != best.get(visit.portal)) {
+                return;
+            }
+            if (visit.f >= arrivalCost || ++expanded > maxAbstractExpansions) {
+                endSearch();
+                return;
+            }
+            Float exit = exits.get(visit.portal);
+            if (exit != null && visit.g + exit < arrivalCost) {
+                arrivalCost = visit.g + exit;
+                arrival = visit;
+            }
+            Portal portal = visit.portal;
+            offer(open, best, portal.partner, visit.g + portal.partnerCost, visit, t);
+            // Make sure the portal's own cluster is summarised before following its links
+            cluster(portal.cluster);
+            Links links = portal.links;
+            if (links != null) {
+                for (int i = 0; i < links.to.length; i++) {
+                    offer(open, best, links.to[i], visit.g + links.cost[i], visit, t);
+                }
+            }
+        }
+
+        private void endSearch() {
+            abstractExpansions.add(expanded);
+            open = null;
+            best = null;
+            exits = null;
+            if (arrival == null) {
+                finish(null);
+                return;
+            }
+            chain = new ArrayList<>();
+            for (Visit v = arrival; v != null; v = v.from) {
+                chain.add(v.portal);
+            }
+            java.util.Collections.reverse(chain);
+            arrival = null;
+            cells = new LongList(chain.size() * NavCells.SECTION_SIZE);
+            cells.add(s);
+            at = s;
+            nextLeg = 0;
+            phase = Phase.REFINE;
+        }
+
+        /**
+         * Expand the next link of the portal chain into blocks: a cluster-local A* inside a
+         * cluster, a single move across a border
+         */
+        private void refineLeg(GridSearch search) {
+            if (nextLeg < chain.size()) {
+                Portal portal = chain.get(nextLeg++);
+                if (portal.cell == at) {
+                    return;
+                }
+                if (NavCells.section(at) != portal.cluster) {
+                    // Border crossing between partner portals: a single move
+                    cells.add(portal.cell);
+                } else if (!appendLeg(search, cells, at, portal.cell)) {
+                    finish(null);
+                    return;
+                }
+                at = portal.cell;
+                return;
+            }
+            if (at != t && !appendLeg(search, cells, at, t)) {
+                finish(null);
+                return;
+            }
+            finish(cells.toArray());
+        }
+
+        private void finish(long[] result) {
+            path = result;
+            phase = Phase.DONE;
+            open = null;
+            best = null;
+            exits = null;
+            arrival = null;
+            chain = null;
+            cells = null;
+            if (result == null) {
+                failures.increment();
+            }
+        }
+    }
+
+    private enum Phase {
+        START, SEARCH, REFINE, DONE
+    }
+
+    /**
+     * One chunk section: solid bits of the section plus a two-block margin, walkable bits plus a
+     * one-block ring, and its portals. Doubles as a grid view answering from those bits, so searches
+     * confined to the section never touch the underlying grid, and as the predicate doing the confining.
+     */
+    private static final class Cluster implements NavGrid, LongPredicate {
+        private static final int MARGIN = 2;
+        private static final int PADDED = NavCells.SECTION_SIZE + 2 * MARGIN;
+        private static final int RING = NavCells.SECTION_SIZE + 2;
+
+        final long key;
+        final int originX;
+        final int originY;
+        final int originZ;
+        final NavGrid grid;
+        final long[] walkable = new long[(RING * RING * RING + 63) / 64];
+        final long[] solid = new long[(PADDED * PADDED * PADDED + 63) / 64];
+        final int walkableCount;
+        Portal[] portals;
+        long[] cells;
+
+        Cluster(long key, NavGrid grid) {
+            this.key = key;
+            this.grid = grid;
+            this.originX = NavCells.x(key) << NavCells.SECTION_SHIFT;
+            this.originY = NavCells.y(key) << NavCells.SECTION_SHIFT;
+            this.originZ = NavCells.z(key) << NavCells.SECTION_SHIFT;
+            int count = 0;
+            if (originY + NavCells.SECTION_SIZE > grid.getMinHeight() && originY < grid.getMaxHeight()) {
+                for (int py = 0; py < PADDED; py++) {
+                    for (int pz = 0; pz < PADDED; pz++) {
+                        for (int px = 0; px < PADDED; px++) {
+                            if (grid.isSolid(originX + px - MARGIN, originY + py - MARGIN, originZ + pz - MARGIN)) {
+                                int bit = (py * PADDED + pz) * PADDED + px;
+                                solid[bit >> 6] |= 1L << bit;
+                            }
+                        }
+                    }
+                }
+                for (int ry = 0; ry < RING; ry++) {
+                    for (int rz = 0; rz < RING; rz++) {
+                        for (int rx = 0; rx < RING; rx++) {
+                            int x = originX + rx - 1;
+                            int y = originY + ry - 1;
+                            int z = originZ + rz - 1;
+                            if (NavGrid.super.isWalkable(x, y, z)) {
+                                int bit = (ry * RING + rz) * RING + rx;
+                                walkable[bit >> 6] |= 1L << bit;
+                                if (test(NavCells.pack(x, y, z))) {
+                                    count++;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            this.walkableCount = count;
+        }
+
+        void setPortals(Portal[] portals) {
+            this.portals = portals;
+            this.cells = new long[portals.length];
+            for (int i = 0; i < portals.length; i++) {
+                cells[i] = portals[i].cell;
+            }
+        }
+
+        /** Walkability of a cell in section-local coordinates, -1 to 16 on each axis */
+        boolean isSet(int lx, int ly, int lz) {
+            int bit = ((ly + 1) * RING + lz + 1) * RING + lx + 1;
+            return (walkable[bit >> 6] & (1L << bit)) != 0;
+        }
+
+        @Override
+        public boolean test(long cell) {
+            return NavCells.section(cell) == key;
+        }
+
+        @Override
+        public boolean isWalkable(int x, int y, int z) {
+            int lx = x - originX;
+            int ly = y - originY;
+            int lz = z - originZ;
+            if (lx >= -1 && ly >= -1 && lz >= -1 && lx <= NavCells.SECTION_SIZE && ly <= NavCells.SECTION_SIZE && lz <= NavCells.SECTION_SIZE) {
+                return isSet(lx, ly, lz);
+            }
+            return NavGrid.super.isWalkable(x, y, z);
+        }
+
+        @Override
+        public boolean isSolid(int x, int y, int z) {
+            int px = x - originX + MARGIN;
+            int py = y - originY + MARGIN;
+            int pz = z - originZ + MARGIN;
+            if ((px | py | pz) < 0 || px >= PADDED || py >= PADDED || pz >= PADDED) {
+                return grid.isSolid(x, y, z);
+            }
+            int bit = (py * PADDED + pz) * PADDED + px;
+            return (solid[bit >> 6] & (1L << bit)) != 0;
+        }
+
+        @Override
+        public boolean isHazard(int x, int y, int z) {
+            return grid.isHazard(x, y, z);
+        }
+
+        @Override
+        public int getMinHeight() {
+            return grid.getMinHeight();
+        }
+
+        @Override
+        public int getMaxHeight() {
+            return grid.getMaxHeight();
+        }
+    }
+
+    /** A border cell of one cluster, paired with the cell it steps to in the neighbouring cluster */
+    private static final class Portal {
+        final long cell;
+        final long cluster;
+        Portal partner;
+        float partnerCost;
+        /** Set when the owning cluster is summarised; replaced wholesale on rebuild */
+        volatile Links links;
+
+        Portal(long cell, long cluster) {
+            this.cell = cell;
+            this.cluster = cluster;
+        }
+    }
+
+    private record Links(Portal[] to, float[] cost) {
+    }
+
+    private record Entrance(Portal a, Portal b) {
+    }
+
+    /** Unordered pair of section keys */
+    private record Pair(long low, long high) {
+        static Pair of(long a, long b) {
+            return a < b ? new Pair(a, b) : new Pair(b, a);
+        }
+    }
+
+    private static final class Visit implements Comparable<Visit> {
+        final Portal portal;
+        final float g;
+        final float f;
+        final Visit from;
+
+        Visit(Portal portal, float g, float f, Visit from) {
+            this.portal = portal;
+            this.g = g;
+            this.f = f;
+            this.from = from;
+        }
+
+        @Override
+        public int compareTo(Visit other) {
+            int order = Float.compare(f, other.f);
+            // On ties prefer the visit closer to the goal; open terrain has many equal estimates
+            return order != 0 ? order : Float.compare(other.g, g);
+        }
+    }
+
+    private static final class LongList {
+        private long[] values;
+        private int size;
+
+        LongList(int capacity) {
+            values = new long[Math.max(8, capacity)];
+        }
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    public static class Stats {
+        public final long queries;
+        public final long failures;
+        public final long clustersBuilt;
+        public final int clustersCached;
+        public final long abstractExpansions;
+        public final long localExpansions;
+
+        public Stats(long queries, long failures, long clustersBuilt, int clustersCached,
+                     long abstractExpansions, long localExpansions) {
+            this.queries = queries;
+            this.failures = failures;
+            this.clustersBuilt = clustersBuilt;
+            this.clustersCached = clustersCached;
+            this.abstractExpansions = abstractExpansions;
+            this.localExpansions = localExpansions;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("HPA{queries=%d, failures=%d, clusters=%d (built %d), abstract=%d, local=%d}",
+                    queries, failures, clustersCached, clustersBuilt, abstractExpansions, localExpansions);
+        }
+    }
+}
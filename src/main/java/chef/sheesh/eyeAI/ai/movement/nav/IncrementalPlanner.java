@@ -0,0 +1,595 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+import java.util.Arrays;
+
+/**
+ * Incremental planner for one chase, after Moving Target D* Lite: a forward LPA* rooted at
+ * the chaser that keeps its search tree between replans instead of starting over.
+ * <ul>
+ *     <li>When the target moves, only the open list is re-keyed; a goal already inside the
+ *     settled part of the tree is answered without expanding anything.</li>
+ *     <li>When the chaser moves onto a cell of its tree, the subtree below that cell is kept
+ *     with its costs shifted, and the rest is discarded and reopened from its border.</li>
+ *     <li>Changed blocks update the cells around them; only the region whose best route
+ *     changed is expanded again.</li>
+ * </ul>
+ * {@link #plan} must run on the thread that may read the grid; {@link #invalidate} may be
+ * called from any thread.
+ */
+public final class IncrementalPlanner {
+
+    private static final float INF = Float.POSITIVE_INFINITY;
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final NavGrid grid;
+    private final int maxNodes;
+    private final int maxExpansions;
+
+    private final CellIndex index = new CellIndex(4096);
+    private long[] cells = new long[1024];
+    private float[] g = new float[1024];
+    private float[] rhs = new float[1024];
+    private int[] parent = new int[1024];
+    private int[] heapPos = new int[1024];
+    private byte[] mark = new byte[1024];
+    private int count;
+
+    private int[] heapNode = new int[1024];
+    private float[] heapPrimary = new float[1024];
+    private float[] heapSecondary = new float[1024];
+    private int heapSize;
+
+    private final long[] neighborCells = new long[8];
+    private final float[] neighborCosts = new float[8];
+    private int[] chain = new int[256];
+
+    private final Object changeLock = new Object();
+    private long[] changes = new long[16];
+    private int changeCount;
+
+    private long start = NONE;
+    private long goal = NONE;
+    private int startId = -1;
+    private int goalId = -1;
+
+    private int expansions;
+    private long replans;
+    private long resets;
+    private long totalExpansions;
+
+    public IncrementalPlanner(NavGrid grid) {
+        this(grid, 65536, 20000);
+    }
+
+    /**
+     * @param maxNodes      search tree size at which the next replan starts over
+     * @param maxExpansions node budget of one replan; an unfinished search resumes on the next call
+     */
+    public IncrementalPlanner(NavGrid grid, int maxNodes, int maxExpansions) {
+        this.grid = grid;
+        this.maxNodes = maxNodes;
+        this.maxExpansions = maxExpansions;
+    }
+
+    public NavGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Path from the chaser's cell to the target's cell, both snapped to walkable ground,
+     * reusing everything the previous replans settled. Returns null when the target is
+     * unreachable or the expansion budget ran out.
+     */
+    public long[] plan(long from, long to) {
+        expansions = 0;
+        replans++;
+        long source = snap(from);
+        long target = snap(to);
+        if (source == NONE || target == NONE) {
+            return null;
+        }
+
+        applyChanges();
+        if (startId < 0 || count > maxNodes) {
+            restart(source);
+        } else if (source != start) {
+            moveStart(source);
+        }
+        if (target != goal) {
+            goal = target;
+            goalId = node(target);
+            rebuildHeap(); // Keys depend on the goal
+        }
+
+        boolean done = computeShortestPath();
+        totalExpansions += expansions;
+        if (!done || g[goalId] == INF) {
+            return null;
+        }
+        return trace(goalId);
+    }
+
+    /**
+     * A block changed; the cells around it are updated on the next {@link #plan}
+     */
+    public void invalidate(int x, int y, int z) {
+        synchronized (changeLock) {
+            if (changeCount == changes.length) {
+                changes = Arrays.copyOf(changes, changeCount * 2);
+            }
+            changes[changeCount++] = NavCells.pack(x, y, z);
+        }
+    }
+
+    /**
+     * Forget the search tree; the next plan searches from scratch
+     */
+    public void reset() {
+        startId = -1;
+        start = NONE;
+        goal = NONE;
+        goalId = -1;
+    }
+
+    /** Nodes expanded by the last replan */
+    public int getExpansions() {
+        return expansions;
+    }
+
+    public int getNodeCount() {
+        return count;
+    }
+
+    public long getReplans() {
+        return replans;
+    }
+
+    /** Replans that had to start from scratch */
+    public long getResets() {
+        return resets;
+    }
+
+    public double getAverageExpansions() {
+        return replans == 0 ? 0.0 : totalExpansions / (double) replans;
+    }
+
+    // Search
+
+    private boolean computeShortestPath() {
+        while (heapSize > 0) {
+            // The goal's key: its heuristic is zero
+            float goalKey = Math.min(g[goalId], rhs[goalId]);
+            if (rhs[goalId] == g[goalId] && !less(heapPrimary[0], heapSecondary[0], goalKey, goalKey)) {
+                return true;
+            }
+            if (++expansions > maxExpansions) {
+                return false;
+            }
+            int u = heapNode[0];
+            long cell = cells[u];
+            if (g[u] > rhs[u]) {
+                g[u] = rhs[u];
+                remove(u);
+                int found = GridSearch.neighbors(grid, cell, neighborCells, neighborCosts);
+                for (int i = 0; i < found; i++) {
+                    int v = node(neighborCells[i]);
+                    float candidate = g[u] + neighborCosts[i];
+                    if (v != startId && candidate < rhs[v]) {
+                        rhs[v] = candidate;
+                        parent[v] = u;
+                        queue(v);
+                    }
+                }
+            } else {
+                g[u] = INF;
+                updateVertex(u);
+                int x = NavCells.x(cell);
+                int y = NavCells.y(cell);
+                int z = NavCells.z(cell);
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dz = -1; dz <= 1; dz++) {
+                        for (int dx = -1; dx <= 1; dx++) {
+                            int v = index.get(NavCells.pack(x + dx, y + dy, z + dz));
+                            if (v >= 0 && parent[v] == u) {
+                                updateVertex(v);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return rhs[goalId] == g[goalId];
+    }
+
+    /** Recompute a node's best predecessor and queue it when inconsistent */
+    private void updateVertex(int u) {
+        if (u != startId) {
+            recompute(u);
+        }
+        queue(u);
+    }
+
+    private void recompute(int u) {
+        float best = INF;
+        int bestParent = -1;
+        long cell = cells[u];
+        if (grid.isWalkable(NavCells.x(cell), NavCells.y(cell), NavCells.z(cell))) {
+            int found = GridSearch.neighbors(grid, cell, neighborCells, neighborCosts);
+            for (int i = 0; i < found; i++) {
+                int v = index.get(neighborCells[i]);
+                if (v >= 0 && g[v] + neighborCosts[i] < best) {
+                    best = g[v] + neighborCosts[i];
+                    bestParent = v;
+                }
+            }
+        }
+        rhs[u] = best;
+        parent[u] = bestParent;
+    }
+
+    /**
+     * Re-root the tree at a cell the chaser moved to. Cells reached through it keep their
+     * routes, shifted by its cost; everything else is cleared and reopened from the border.
+     */
+    private void moveStart(long source) {
+        int root = index.get(source);
+        if (root < 0 || g[root] == INF || g[root] != rhs[root]) {
+            restart(source);
+            return;
+        }
+        float shift = g[root];
+
+        // mark: 0 unknown, 1 kept, 2 dropped, 3 dropped but reachable before the move. A cell
+        // is kept when its route runs through consistent cells back to the new root.
+        Arrays.fill(mark, 0, count, (byte) 0);
+        mark[root] = 1;
+        for (int i = 0; i < count; i++) {
+            int length = 0;
+            int n = i;
+            while (mark[n] == 0) {
+                if (length == chain.length) {
+                    chain = Arrays.copyOf(chain, length * 2);
+                }
+                chain[length++] = n;
+                int up = parent[n];
+                if (up < 0 || g[up] != rhs[up]) {
+                    mark[n] = 2;
+                    length--;
+                    break;
+                }
+                n = up;
+            }
+            byte state = mark[n];
+            while (length > 0) {
+                mark[chain[--length]] = state;
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (mark[i] == 1) {
+                boolean consistent = g[i] == rhs[i];
+                rhs[i] -= shift;
+                g[i] = consistent ? g[i] - shift : INF;
+            } else {
+                if (rhs[i] != INF) {
+                    mark[i] = 3;
+                }
+                g[i] = INF;
+                rhs[i] = INF;
+                parent[i] = -1;
+            }
+        }
+        start = source;
+        startId = root;
+        g[root] = 0f;
+        rhs[root] = 0f;
+        parent[root] = -1;
+
+        // Dropped cells next to kept ones can be reached again; cells that were unreachable
+        // before had no reachable neighbours then and have none now
+        for (int i = 0; i < count; i++) {
+            if (mark[i] == 3 && touchesKept(cells[i])) {
+                recompute(i); // Queued by the rebuild below
+            }
+        }
+        compact();
+        rebuildHeap();
+    }
+
+    /**
+     * Forget cells that are neither reachable nor queued, so the passes over the tree on
+     * every move stay proportional to the part still in use
+     */
+    private void compact() {
+        int dead = 0;
+        for (int i = 0; i < count; i++) {
+            if (g[i] == INF && rhs[i] == INF && i != goalId) {
+                dead++;
+            }
+        }
+        if (dead < count / 4) {
+            return; // Not worth renumbering yet
+        }
+        if (chain.length < count) {
+            chain = new int[count];
+        }
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (g[i] == INF && rhs[i] == INF && i != goalId) {
+                chain[i] = -1;
+                continue;
+            }
+            chain[i] = kept;
+            cells[kept] = cells[i];
+            g[kept] = g[i];
+            rhs[kept] = rhs[i];
+            parent[kept] = parent[i];
+            kept++;
+        }
+        index.clear();
+        for (int i = 0; i < kept; i++) {
+            if (parent[i] >= 0) {
+                parent[i] = chain[parent[i]];
+            }
+            index.put(cells[i], i);
+        }
+        startId = chain[startId];
+        if (goalId >= 0) {
+            goalId = chain[goalId];
+        }
+        count = kept;
+    }
+
+    private void restart(long source) {
+        resets++;
+        index.clear();
+        count = 0;
+        heapSize = 0;
+        synchronized (changeLock) {
+            changeCount = 0; // The grid is read afresh
+        }
+        start = source;
+        startId = node(source);
+        rhs[startId] = 0f;
+        goal = NONE;
+        goalId = -1;
+    }
+
+    /** Update the cells around every block reported since the last replan */
+    private void applyChanges() {
+        long[] pending;
+        int pendingCount;
+        synchronized (changeLock) {
+            if (changeCount == 0) {
+                return;
+            }
+            pending = Arrays.copyOf(changes, changeCount);
+            pendingCount = changeCount;
+            changeCount = 0;
+        }
+        if (startId < 0) {
+            return;
+        }
+        for (int c = 0; c < pendingCount; c++) {
+            int x = NavCells.x(pending[c]);
+            int y = NavCells.y(pending[c]);
+            int z = NavCells.z(pending[c]);
+            if (!nearTree(x, y, z)) {
+                continue;
+            }
+            // Cells whose walkability or moves read the block
+            for (int dy = -2; dy <= 2; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        int id = index.get(NavCells.pack(x + dx, y + dy, z + dz));
+                        if (id < 0 && grid.isWalkable(x + dx, y + dy, z + dz)) {
+                            id = node(NavCells.pack(x + dx, y + dy, z + dz));
+                        }
+                        if (id >= 0) {
+                            updateVertex(id);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean nearTree(int x, int y, int z) {
+        for (int dy = -3; dy <= 3; dy++) {
+            for (int dz = -2; dz <= 2; dz++) {
+                for (int dx = -2; dx <= 2; dx++) {
+                    if (index.get(NavCells.pack(x + dx, y + dy, z + dz)) >= 0) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean touchesKept(long cell) {
+        int x = NavCells.x(cell);
+        int y = NavCells.y(cell);
+        int z = NavCells.z(cell);
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    int v = index.get(NavCells.pack(x + dx, y + dy, z + dz));
+                    if (v >= 0 && mark[v] == 1 && g[v] != INF) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private long[] trace(int node) {
+        int length = 0;
+        for (int n = node; n >= 0 && length <= count; n = parent[n]) {
+            length++;
+            if (n == startId) {
+                break;
+            }
+        }
+        long[] path = new long[length];
+        int n = node;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = cells[n];
+            n = parent[n];
+        }
+        return path[0] == start ? path : null;
+    }
+
+    private long snap(long cell) {
+        int x = NavCells.x(cell);
+        int y = NavCells.y(cell);
+        int z = NavCells.z(cell);
+        for (int dy : new int[]{0, -1, 1}) {
+            if (grid.isWalkable(x, y + dy, z)) {
+                return NavCells.pack(x, y + dy, z);
+            }
+        }
+        return NONE;
+    }
+
+    private int node(long cell) {
+        int id = index.get(cell);
+        if (id >= 0) {
+            return id;
+        }
+        if (count == cells.length) {
+            int capacity = count * 2;
+            cells = Arrays.copyOf(cells, capacity);
+            g = Arrays.copyOf(g, capacity);
+            rhs = Arrays.copyOf(rhs, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            heapPos = Arrays.copyOf(heapPos, capacity);
+            mark = Arrays.copyOf(mark, capacity);
+        }
+        id = count++;
+        cells[id] = cell;
+        g[id] = INF;
+        rhs[id] = INF;
+        parent[id] = -1;
+        heapPos[id] = -1;
+        index.put(cell, id);
+        return id;
+    }
+
+    // Indexed binary min-heap on (min(g, rhs) + h, min(g, rhs))
+
+    private void queue(int u) {
+        if (g[u] == rhs[u]) {
+            remove(u);
+            return;
+        }
+        float secondary = Math.min(g[u], rhs[u]);
+        float primary = secondary + (goal != NONE ? GridSearch.heuristic(cells[u], goal) : 0f);
+        int i = heapPos[u];
+        if (i < 0) {
+            if (heapSize == heapNode.length) {
+                heapNode = Arrays.copyOf(heapNode, heapSize * 2);
+                heapPrimary = Arrays.copyOf(heapPrimary, heapSize * 2);
+                heapSecondary = Arrays.copyOf(heapSecondary, heapSize * 2);
+            }
+            i = heapSize++;
+        }
+        heapNode[i] = u;
+        heapPrimary[i] = primary;
+        heapSecondary[i] = secondary;
+        heapPos[u] = i;
+        siftDown(siftUp(i));
+    }
+
+    private void remove(int u) {
+        int i = heapPos[u];
+        if (i < 0) {
+            return;
+        }
+        heapPos[u] = -1;
+        int last = --heapSize;
+        if (i == last) {
+            return;
+        }
+        move(last, i);
+        siftDown(siftUp(i));
+    }
+
+    /** Re-key every inconsistent cell, e.g. after the goal moved */
+    private void rebuildHeap() {
+        heapSize = 0;
+        for (int u = 0; u < count; u++) {
+            heapPos[u] = -1;
+        }
+        for (int u = 0; u < count; u++) {
+            if (g[u] != rhs[u]) {
+                float secondary = Math.min(g[u], rhs[u]);
+                if (heapSize == heapNode.length) {
+                    heapNode = Arrays.copyOf(heapNode, heapSize * 2);
+                    heapPrimary = Arrays.copyOf(heapPrimary, heapSize * 2);
+                    heapSecondary = Arrays.copyOf(heapSecondary, heapSize * 2);
+                }
+                heapNode[heapSize] = u;
+                heapSecondary[heapSize] = secondary;
+                heapPrimary[heapSize] = secondary + (goal != NONE ? GridSearch.heuristic(cells[u], goal) : 0f);
+                heapPos[u] = heapSize++;
+            }
+        }
+        for (int i = (heapSize >>> 1) - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    private int siftUp(int i) {
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (!less(heapPrimary[i], heapSecondary[i], heapPrimary[up], heapSecondary[up])) {
+                break;
+            }
+            swap(i, up);
+            i = up;
+        }
+        return i;
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                return;
+            }
+            if (child + 1 < heapSize && less(heapPrimary[child + 1], heapSecondary[child + 1],
+                    heapPrimary[child], heapSecondary[child])) {
+                child++;
+            }
+            if (!less(heapPrimary[child], heapSecondary[child], heapPrimary[i], heapSecondary[i])) {
+                return;
+            }
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int node = heapNode[a];
+        float primary = heapPrimary[a];
+        float secondary = heapSecondary[a];
+        move(b, a);
+        heapNode[b] = node;
+        heapPrimary[b] = primary;
+        heapSecondary[b] = secondary;
+        heapPos[node] = b;
+    }
+
+    private void move(int from, int to) {
+        heapNode[to] = heapNode[from];
+        heapPrimary[to] = heapPrimary[from];
+        heapSecondary[to] = heapSecondary[from];
+        heapPos[heapNode[to]] = to;
+    }
+
+    private static boolean less(float primaryA, float secondaryA, float primaryB, float secondaryB) {
+        return primaryA < primaryB || (primaryA == primaryB && secondaryA < secondaryB);
+    }
+}
@@ -0,0 +1,57 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+/**
+ * Movement rules a path was computed with; part of every cache key, since paths
+ * are only interchangeable between requests using the same rules.
+ */
+public enum MovementProfile {
+    /** The walkability rules of {@link NavGrid} */
+    WALK,
+    /** Like {@link #WALK}, but never stands in water or lava */
+    CAUTIOUS;
+
+    /**
+     * View of a grid under this profile's rules
+     */
+    public NavGrid apply(NavGrid grid) {
+        return this == CAUTIOUS ? new DryGrid(grid) : grid;
+    }
+
+    private static final class DryGrid implements NavGrid {
+        private final NavGrid grid;
+
+        DryGrid(NavGrid grid) {
+            this.grid = grid;
+        }
+
+        @Override
+        public boolean isSolid(int x, int y, int z) {
+            return grid.isSolid(x, y, z);
+        }
+
+        @Override
+        public boolean isHazard(int x, int y, int z) {
+            return grid.isHazard(x, y, z) || grid.isLiquid(x, y, z) || grid.isLiquid(x, y + 1, z);
+        }
+
+        @Override
+        public boolean isLiquid(int x, int y, int z) {
+            return grid.isLiquid(x, y, z);
+        }
+
+        @Override
+        public int getHighestBlockY(int x, int z) {
+            return grid.getHighestBlockY(x, z);
+        }
+
+        @Override
+        public int getMinHeight() {
+            return grid.getMinHeight();
+        }
+
+        @Override
+        public int getMaxHeight() {
+            return grid.getMaxHeight();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+/**
+ * Packs block coordinates into a single {@code long} (26 bits x, 26 bits z, 12 bits y),
+ * so searches can key their bookkeeping on primitives instead of node objects.
+ */
+public final class NavCells {
+
+    /** Chunk sections are the clusters of the hierarchical search */
+    public static final int SECTION_SHIFT = 4;
+    public static final int SECTION_SIZE = 1 << SECTION_SHIFT;
+
+    private NavCells() {
+    }
+
+    public static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    public static int x(long cell) {
+        return (int) (cell >> 38);
+    }
+
+    public static int y(long cell) {
+        return (int) (cell << 52 >> 52);
+    }
+
+    public static int z(long cell) {
+        return (int) (cell << 26 >> 38);
+    }
+
+    /** Section coordinates of a cell, packed the same way */
+    public static long section(long cell) {
+        return pack(x(cell) >> SECTION_SHIFT, y(cell) >> SECTION_SHIFT, z(cell) >> SECTION_SHIFT);
+    }
+
+    public static long section(int x, int y, int z) {
+        return pack(x >> SECTION_SHIFT, y >> SECTION_SHIFT, z >> SECTION_SHIFT);
+    }
+
+    /** Largest per-axis distance between two cells */
+    public static int chebyshev(long a, long b) {
+        return Math.max(Math.abs(x(a) - x(b)), Math.max(Math.abs(y(a) - y(b)), Math.abs(z(a) - z(b))));
+    }
+}
@@ -0,0 +1,232 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+/**
+ * Navigation flags of one chunk column, bit-packed per 16x16x16 section: a plane of 4096
+ * bits each for solid, liquid, hazard and walkable cells. Sections without any flag set are
+ * not stored. Instances never change once published; a block change produces a patched copy
+ * that shares the untouched sections, so readers on any thread need no locks.
+ */
+final class NavChunk {
+
+    /** Block flags as read from a material */
+    static final int SOLID = 1;
+    static final int LIQUID = 2;
+    static final int HAZARD = 4;
+
+    private static final int SOLID_PLANE = 0;
+    private static final int LIQUID_PLANE = 1;
+    private static final int HAZARD_PLANE = 2;
+    private static final int WALKABLE_PLANE = 3;
+    /** Longs per plane of a section */
+    private static final int WORDS = 64;
+    /** Longs per 16x16 layer of a plane */
+    private static final int LAYER_WORDS = 4;
+
+    /** Flags of the blocks of a column being built */
+    @FunctionalInterface
+    interface Source {
+        /**
+         * @param x block x within the chunk, 0-15
+         * @param z block z within the chunk, 0-15
+         */
+        int flags(int x, int y, int z);
+
+        /** Whether a section, counted from the bottom of the world, is known to be all air */
+        default boolean isEmpty(int section) {
+            return false;
+        }
+    }
+
+    final int chunkX;
+    final int chunkZ;
+    private final int minHeight;
+    private final int maxHeight;
+    private final long[][] sections;
+    /** Set once a patched copy replaced this one; readers caching it fetch again */
+    volatile boolean retired;
+
+    private NavChunk(int chunkX, int chunkZ, int minHeight, int maxHeight, long[][] sections) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.minHeight = minHeight;
+        this.maxHeight = maxHeight;
+        this.sections = sections;
+    }
+
+    /**
+     * Read a whole column. Walkability follows {@link NavGrid#isWalkable}, computed a layer
+     * of 256 cells at a time from the planes.
+     */
+    static NavChunk build(int chunkX, int chunkZ, int minHeight, int maxHeight, Source source) {
+        long[][] sections = new long[(maxHeight - minHeight + 15) >> 4][];
+        for (int s = 0; s < sections.length; s++) {
+            if (source.isEmpty(s)) {
+                continue;
+            }
+            long[] section = null;
+            int base = minHeight + (s << 4);
+            int top = Math.min(maxHeight, base + 16);
+            for (int y = base; y < top; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        int flags = source.flags(x, y, z);
+                        if (flags == 0) {
+                            continue;
+                        }
+                        if (section == null) {
+                            section = new long[4 * WORDS];
+                        }
+                        int bit = ((y - base) << 8) | (z << 4) | x;
+                        long mask = 1L << bit;
+                        int word = bit >>> 6;
+                        if ((flags & SOLID) != 0) {
+                            section[SOLID_PLANE * WORDS + word] |= mask;
+                        }
+                        if ((flags & LIQUID) != 0) {
+                            section[LIQUID_PLANE * WORDS + word] |= mask;
+                        }
+                        if ((flags & HAZARD) != 0) {
+                            section[HAZARD_PLANE * WORDS + word] |= mask;
+                        }
+                    }
+                }
+            }
+            sections[s] = section;
+        }
+
+        NavChunk chunk = new NavChunk(chunkX, chunkZ, minHeight, maxHeight, sections);
+        for (int y = minHeight + 1; y < maxHeight - 1; y++) {
+            for (int w = 0; w < LAYER_WORDS; w++) {
+                long walkable = chunk.layer(SOLID_PLANE, y - 1, w)
+                        & ~chunk.layer(SOLID_PLANE, y, w)
+                        & ~chunk.layer(SOLID_PLANE, y + 1, w)
+                        & ~chunk.layer(HAZARD_PLANE, y, w);
+                if (walkable != 0) {
+                    chunk.writable(y, sections)[WALKABLE_PLANE * WORDS + chunk.word(y, w)] = walkable;
+                }
+            }
+        }
+        return chunk;
+    }
+
+    boolean isSolid(int x, int y, int z) {
+        return get(SOLID_PLANE, x, y, z);
+    }
+
+    boolean isLiquid(int x, int y, int z) {
+        return get(LIQUID_PLANE, x, y, z);
+    }
+
+    boolean isHazard(int x, int y, int z) {
+        return get(HAZARD_PLANE, x, y, z);
+    }
+
+    boolean isWalkable(int x, int y, int z) {
+        return get(WALKABLE_PLANE, x, y, z);
+    }
+
+    int flags(int x, int y, int z) {
+        return (isSolid(x, y, z) ? SOLID : 0)
+                | (isLiquid(x, y, z) ? LIQUID : 0)
+                | (isHazard(x, y, z) ? HAZARD : 0);
+    }
+
+    /**
+     * Highest solid or liquid block of a column, or {@code minHeight - 1} when there is none
+     */
+    int highestBlockY(int x, int z) {
+        int bit = ((z & 15) << 4) | (x & 15);
+        for (int s = sections.length - 1; s >= 0; s--) {
+            long[] section = sections[s];
+            if (section == null) {
+                continue;
+            }
+            for (int dy = 15; dy >= 0; dy--) {
+                int index = (dy << 8) | bit;
+                long mask = 1L << index;
+                int word = index >>> 6;
+                if (((section[SOLID_PLANE * WORDS + word] | section[LIQUID_PLANE * WORDS + word]) & mask) != 0) {
+                    return minHeight + (s << 4) + dy;
+                }
+            }
+        }
+        return minHeight - 1;
+    }
+
+    /**
+     * Copy with one block's flags replaced and the walkability of the cells reading it
+     * recomputed; this instance when nothing changed
+     */
+    NavChunk patch(int x, int y, int z, int flags) {
+        if (y < minHeight || y >= maxHeight || flags(x, y, z) == flags) {
+            return this;
+        }
+        long[][] copy = sections.clone();
+        NavChunk patched = new NavChunk(chunkX, chunkZ, minHeight, maxHeight, copy);
+        boolean[] cloned = new boolean[copy.length];
+        patched.set(copy, cloned, SOLID_PLANE, x, y, z, (flags & SOLID) != 0);
+        patched.set(copy, cloned, LIQUID_PLANE, x, y, z, (flags & LIQUID) != 0);
+        patched.set(copy, cloned, HAZARD_PLANE, x, y, z, (flags & HAZARD) != 0);
+        // The block is the ground of the cell above, the feet of its own and the head of the one below
+        for (int cell = y - 1; cell <= y + 1; cell++) {
+            if (cell > minHeight && cell < maxHeight - 1) {
+                boolean walkable = patched.isSolid(x, cell - 1, z)
+                        && !patched.isSolid(x, cell, z)
+                        && !patched.isSolid(x, cell + 1, z)
+                        && !patched.isHazard(x, cell, z);
+                patched.set(copy, cloned, WALKABLE_PLANE, x, cell, z, walkable);
+            }
+        }
+        return patched;
+    }
+
+    private boolean get(int plane, int x, int y, int z) {
+        if (y < minHeight || y >= maxHeight) {
+            return false;
+        }
+        long[] section = sections[(y - minHeight) >> 4];
+        if (section == null) {
+            return false;
+        }
+        int bit = (((y - minHeight) & 15) << 8) | ((z & 15) << 4) | (x & 15);
+        return (section[plane * WORDS + (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    private void set(long[][] target, boolean[] cloned, int plane, int x, int y, int z, boolean value) {
+        int s = (y - minHeight) >> 4;
+        if (target[s] == null && !value) {
+            return;
+        }
+        if (!cloned[s]) {
+            target[s] = target[s] == null ? new long[4 * WORDS] : target[s].clone();
+            cloned[s] = true;
+        }
+        int bit = (((y - minHeight) & 15) << 8) | ((z & 15) << 4) | (x & 15);
+        if (value) {
+            target[s][plane * WORDS + (bit >>> 6)] |= 1L << bit;
+        } else {
+            target[s][plane * WORDS + (bit >>> 6)] &= ~(1L << bit);
+        }
+    }
+
+    /** One long of a 16x16 layer of a plane; layers outside the column are empty */
+    private long layer(int plane, int y, int w) {
+        if (y < minHeight || y >= maxHeight) {
+            return 0L;
+        }
+        long[] section = sections[(y - minHeight) >> 4];
+        return section == null ? 0L : section[plane * WORDS + word(y, w)];
+    }
+
+    private int word(int y, int w) {
+        return ((y - minHeight) & 15) * LAYER_WORDS + w;
+    }
+
+    private long[] writable(int y, long[][] target) {
+        int s = (y - minHeight) >> 4;
+        if (target[s] == null) {
+            target[s] = new long[4 * WORDS];
+        }
+        return target[s];
+    }
+}
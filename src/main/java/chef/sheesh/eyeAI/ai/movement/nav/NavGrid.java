@@ -0,0 +1,46 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+/**
+ * Block-level view of a world used by the pathfinders. A cell is walkable when the
+ * feet and head blocks are free, the block below is solid and the feet block is not a hazard.
+ */
+public interface NavGrid {
+
+    boolean isSolid(int x, int y, int z);
+
+    /** Blocks that hurt when stood in (lava, fire, ...) */
+    boolean isHazard(int x, int y, int z);
+
+    /** Water or lava; only consulted by profiles that avoid liquids */
+    default boolean isLiquid(int x, int y, int z) {
+        return false;
+    }
+
+    int getMinHeight();
+
+    int getMaxHeight();
+
+    /** Highest solid or liquid block of a column, or {@code getMinHeight() - 1} when there is none */
+    default int getHighestBlockY(int x, int z) {
+        for (int y = getMaxHeight() - 1; y >= getMinHeight(); y--) {
+            if (isSolid(x, y, z) || isLiquid(x, y, z)) {
+                return y;
+            }
+        }
+        return getMinHeight() - 1;
+    }
+
+    default boolean isPassable(int x, int y, int z) {
+        return !isSolid(x, y, z);
+    }
+
+    default boolean isWalkable(int x, int y, int z) {
+        if (y <= getMinHeight() || y + 1 >= getMaxHeight()) {
+            return false;
+        }
+        return isSolid(x, y - 1, z)
+                && !isSolid(x, y, z)
+                && !isSolid(x, y + 1, z)
+                && !isHazard(x, y, z);
+    }
+}
@@ -0,0 +1,669 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single entry point for path requests of every bot. Requests may come from any thread;
+ * the work runs in {@link #tick()} under a per-tick time budget, most urgent first. A search
+ * that outlasts the budget is paused and resumed at the head of the queue next tick, so one
+ * long cold search never stalls a tick.
+ * <ul>
+ *     <li>Finished paths are cached by (world, profile, start cell, goal cell) and dropped
+ *     when a block changes in a chunk they pass through, or after a TTL.</li>
+ *     <li>A request whose start lies on or near a cached path to the same goal reuses that
+ *     path's suffix, joined by a short local search when needed.</li>
+ *     <li>A request to the goal of an in-flight request with a nearby start waits for that
+ *     request and joins its result instead of searching again.</li>
+ *     <li>Chases replan through their own {@link IncrementalPlanner}, which is told about
+ *     block changes in its world.</li>
+ * </ul>
+ * Futures complete on the thread calling {@link #tick()}, with null when no path exists.
+ * Returned arrays are shared with the cache and must not be modified.
+ */
+public class PathScheduler {
+
+    /** Queue order; ties run first come, first served */
+    public enum Priority {
+        URGENT, HIGH, NORMAL, LOW
+    }
+
+    /** Pathfinder for a world and profile, or null when the world is gone */
+    @FunctionalInterface
+    public interface Resolver {
+        HierarchicalPathfinder get(UUID world, MovementProfile profile);
+    }
+
+    /** Cached paths kept per goal for suffix reuse */
+    private static final int PATHS_PER_GOAL = 8;
+
+    private final Resolver resolver;
+    private final PathSchedulerConfig config;
+    private final long budgetNanos;
+    // Only used from the ticking thread
+    private final GridSearch joinSearch = new GridSearch();
+
+    private final Object lock = new Object();
+    private final PriorityQueue<Job> queue = new PriorityQueue<>();
+    private final Map<GoalKey, List<Job>> inFlight = new HashMap<>();
+    private final LinkedHashMap<RouteKey, Entry> cache = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<GoalKey, List<Entry>> byGoal = new HashMap<>();
+    private final Map<ChunkKey, List<Entry>> byChunk = new HashMap<>();
+    /** Chase planners by world, dropped once their chase is garbage */
+    private final Map<IncrementalPlanner, UUID> planners = new WeakHashMap<>();
+    private long order;
+    private volatile long tick;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder suffixHits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+    private final LongAdder computed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder replanned = new LongAdder();
+    private final LongAdder replanExpansions = new LongAdder();
+    private final LongAdder deferredTicks = new LongAdder();
+    private final LongAdder paused = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+
+    public PathScheduler(Resolver resolver, PathSchedulerConfig config) {
+        this.resolver = resolver;
+        this.config = config;
+        this.budgetNanos = (long) (config.budgetMillisPerTick * TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Queue a request, or answer it straight from the cache
+     */
+    public CompletableFuture<long[]> submit(UUID world, long start, long goal, MovementProfile profile, Priority priority) {
+        requests.increment();
+        GoalKey goalKey = new GoalKey(world, profile, goal);
+        synchronized (lock) {
+            Entry exact = cache.get(new RouteKey(world, profile, start, goal));
+            if (exact != null && fresh(exact)) {
+                cacheHits.increment();
+                return CompletableFuture.completedFuture(exact.cells);
+            }
+
+            Job job = new Job(world, profile, start, goal, priority, order++);
+            Entry nearest = null;
+            int nearestIndex = -1;
+            int nearestDistance = Integer.MAX_VALUE;
+            for (Entry entry : byGoal.getOrDefault(goalKey, List.of()).toArray(new Entry[0])) {
+                if (!fresh(entry)) {
+                    continue;
+                }
+                int index = nearestIndex(entry.cells, start);
+                int distance = NavCells.chebyshev(entry.cells[index], start);
+                if (distance < nearestDistance) {
+                    nearest = entry;
+                    nearestIndex = index;
+                    nearestDistance = distance;
+                }
+            }
+            if (nearest != null && nearestDistance == 0) {
+                suffixHits.increment();
+                return CompletableFuture.completedFuture(Arrays.copyOfRange(nearest.cells, nearestIndex, nearest.cells.length));
+            }
+            if (nearest != null && nearestDistance <= config.joinRadius) {
+                job.base = nearest.cells;
+                job.baseIndex = nearestIndex;
+                queue.add(job);
+                return job.future;
+            }
+
+            for (Job leader : inFlight.getOrDefault(goalKey, List.of())) {
+                if (NavCells.chebyshev(leader.start, start) > config.coalesceRadius) {
+                    continue;
+                }
+                coalesced.increment();
+                if (priority.ordinal() < leader.priority.ordinal() && queue.remove(leader)) {
+                    // An urgent follower pulls its leader forward
+                    leader.priority = priority;
+                    queue.add(leader);
+                }
+                if (leader.start == start) {
+                    return leader.future;
+                }
+                leader.followers.add(job);
+                return job.future;
+            }
+
+            queue.add(job);
+            inFlight.computeIfAbsent(goalKey, key -> new ArrayList<>()).add(job);
+            return job.future;
+        }
+    }
+
+    /**
+     * Queue a replan of a chase; the planner keeps its search state between calls. Not cached,
+     * since the route exists for one chaser only.
+     */
+    public CompletableFuture<long[]> replan(UUID world, IncrementalPlanner planner, long start, long goal, Priority priority) {
+        requests.increment();
+        Job job;
+        synchronized (lock) {
+            planners.put(planner, world);
+            job = new Job(world, null, start, goal, priority, order++);
+            job.planner = planner;
+            queue.add(job);
+        }
+        return job.future;
+    }
+
+    /**
+     * Cached path for a route, exact or as the suffix of a path passing through the start; null when absent
+     */
+    public long[] lookup(UUID world, long start, long goal, MovementProfile profile) {
+        synchronized (lock) {
+            Entry exact = cache.get(new RouteKey(world, profile, start, goal));
+            if (exact != null && fresh(exact)) {
+                cacheHits.increment();
+                return exact.cells;
+            }
+            for (Entry entry : byGoal.getOrDefault(new GoalKey(world, profile, goal), List.of()).toArray(new Entry[0])) {
+                int index = nearestIndex(entry.cells, start);
+                if (fresh(entry) && entry.cells[index] == start) {
+                    suffixHits.increment();
+                    return Arrays.copyOfRange(entry.cells, index, entry.cells.length);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Cache a path computed elsewhere, keyed by its first and last cell
+     */
+    public void store(UUID world, long[] cells, MovementProfile profile) {
+        if (cells == null || cells.length == 0) {
+            return;
+        }
+        synchronized (lock) {
+            put(world, profile, cells[0], cells[cells.length - 1], cells);
+        }
+    }
+
+    /**
+     * Run queued requests until this tick's budget is spent; a search still running at the
+     * deadline is paused, and requests whose future was cancelled are dropped without
+     * searching. Every tick makes progress, so the queue always drains. Returns the number of
+     * requests finished.
+     */
+    public int tick() {
+        tick++;
+        long begin = System.nanoTime();
+        long deadline = begin + budgetNanos;
+        int ran = 0;
+        while (true) {
+            Job job;
+            synchronized (lock) {
+                job = queue.poll();
+            }
+            if (job == null) {
+                break;
+            }
+            boolean done = true;
+            try {
+                done = run(job, deadline);
+            } catch (RuntimeException e) {
+                job.search = null;
+                job.future.completeExceptionally(e);
+                for (Job follower : finish(job, null)) {
+                    follower.future.completeExceptionally(e);
+                }
+            }
+            if (!done) {
+                // Keeps its place: same priority and order, so it resumes first next tick
+                paused.increment();
+                synchronized (lock) {
+                    queue.add(job);
+                }
+                break;
+            }
+            ran++;
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+        busyNanos.add(System.nanoTime() - begin);
+        synchronized (lock) {
+            if (!queue.isEmpty()) {
+                deferredTicks.increment();
+            }
+        }
+        return ran;
+    }
+
+    /**
+     * Drop cached paths through the chunks touching a changed block
+     */
+    public void invalidate(UUID world, int x, int y, int z) {
+        synchronized (lock) {
+            planners.forEach((planner, plannerWorld) -> {
+                if (plannerWorld.equals(world)) {
+                    planner.invalidate(x, y, z);
+                }
+            });
+            for (int dx = -1; dx <= 1; dx += 2) {
+                for (int dz = -1; dz <= 1; dz += 2) {
+                    List<Entry> entries = byChunk.get(new ChunkKey(world, chunk(x + dx, z + dz)));
+                    if (entries != null) {
+                        for (Entry entry : entries.toArray(new Entry[0])) {
+                            unindex(entry);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop cached paths through a chunk that was loaded or unloaded and restart the chase
+     * planners of its world
+     */
+    public void invalidateChunk(UUID world, int chunkX, int chunkZ) {
+        synchronized (lock) {
+            planners.forEach((planner, plannerWorld) -> {
+                if (plannerWorld.equals(world)) {
+                    planner.reset();
+                }
+            });
+            List<Entry> entries = byChunk.get(new ChunkKey(world, chunk(chunkX << 4, chunkZ << 4)));
+            if (entries != null) {
+                for (Entry entry : entries.toArray(new Entry[0])) {
+                    unindex(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop everything cached for a world and fail its queued requests
+     */
+    public void forget(UUID world) {
+        List<Job> dropped = new ArrayList<>();
+        synchronized (lock) {
+            for (Entry entry : cache.values().toArray(new Entry[0])) {
+                if (entry.key.world().equals(world)) {
+                    unindex(entry);
+                }
+            }
+            for (Iterator<Job> it = queue.iterator(); it.hasNext(); ) {
+                Job job = it.next();
+                if (job.world.equals(world)) {
+                    it.remove();
+                    dropped.add(job);
+                }
+            }
+            inFlight.keySet().removeIf(key -> key.world().equals(world));
+            planners.values().removeIf(world::equals);
+        }
+        for (Job job : dropped) {
+            completeAll(job, null);
+        }
+    }
+
+    /**
+     * Empty the cache and answer every queued request with null
+     */
+    public void clear() {
+        List<Job> dropped;
+        synchronized (lock) {
+            dropped = new ArrayList<>(queue);
+            queue.clear();
+            inFlight.clear();
+            cache.clear();
+            byGoal.clear();
+            byChunk.clear();
+            planners.clear();
+        }
+        for (Job job : dropped) {
+            completeAll(job, null);
+        }
+    }
+
+    public int getQueueSize() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    public Stats getStats() {
+        int cached;
+        int queued;
+        synchronized (lock) {
+            cached = cache.size();
+            queued = queue.size();
+        }
+        long replans = replanned.sum();
+        return new Stats(requests.sum(), cacheHits.sum(), suffixHits.sum(), coalesced.sum(), joined.sum(),
+                computed.sum(), failed.sum(), replans, replans > 0 ? replanExpansions.sum() / (double) replans : 0.0,
+                paused.sum(), deferredTicks.sum(), cached, queued,
+                busyNanos.sum() / (double) TimeUnit.MILLISECONDS.toNanos(1) / Math.max(1, tick));
+    }
+
+    /**
+     * Work on a request until it is answered or the deadline passes; false when its search was paused
+     */
+    private boolean run(Job job, long deadline) {
+        if (job.future.isCancelled()) {
+            // The caller gave up; followers starting elsewhere search for themselves
+            job.search = null;
+            List<Job> followers = finish(job, null);
+            synchronized (lock) {
+                for (Job follower : followers) {
+                    if (!follower.future.isDone()) {
+                        queue.add(follower);
+                    }
+                }
+            }
+            return true;
+        }
+        if (job.planner != null) {
+            long[] path = job.planner.plan(job.start, job.goal);
+            replanned.increment();
+            replanExpansions.add(job.planner.getExpansions());
+            job.future.complete(path);
+            return true;
+        }
+        if (job.search == null) {
+            HierarchicalPathfinder pathfinder = resolver.get(job.world, job.profile);
+            if (pathfinder == null) {
+                job.future.complete(null);
+                for (Job follower : finish(job, null)) {
+                    follower.future.complete(null);
+                }
+                return true;
+            }
+            if (job.base != null) {
+                long[] path = join(pathfinder, job.start, job.base, job.baseIndex);
+                if (path != null) {
+                    // Not cached: it shares its suffix with the base, which stays the entry worth keeping
+                    joined.increment();
+                    job.future.complete(path);
+                    return true;
+                }
+            }
+            job.search = pathfinder.query(job.start, job.goal);
+        }
+
+        if (!job.search.step(deadline)) {
+            return false;
+        }
+        long[] path = job.search.getPath();
+        job.search = null;
+        computed.increment();
+        if (path == null) {
+            failed.increment();
+        }
+        List<Job> followers = finish(job, path);
+        job.future.complete(path);
+        for (Job follower : followers) {
+            if (path == null || follower.start == job.start) {
+                follower.future.complete(path);
+                continue;
+            }
+            int index = nearestIndex(path, follower.start);
+            if (NavCells.chebyshev(path[index], follower.start) <= config.coalesceRadius + config.joinRadius) {
+                follower.base = path;
+                follower.baseIndex = index;
+            }
+            synchronized (lock) {
+                queue.add(follower);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Short search from start onto base[index], followed by the rest of base; null when they do not connect
+     */
+    private long[] join(HierarchicalPathfinder pathfinder, long start, long[] base, int index) {
+        long from = pathfinder.snap(start);
+        if (from == Long.MIN_VALUE) {
+            return null;
+        }
+        long target = base[index];
+        int reach = config.joinRadius + 2;
+        long[] connector = joinSearch.findPath(pathfinder.getGrid(), from, target,
+                cell -> NavCells.chebyshev(cell, target) <= reach, config.joinExpansions);
+        if (connector == null) {
+            return null;
+        }
+        long[] path = Arrays.copyOf(connector, connector.length + base.length - index - 1);
+        System.arraycopy(base, index + 1, path, connector.length, base.length - index - 1);
+        return path;
+    }
+
+    /**
+     * Cache a finished route and detach it from the in-flight table; returns its followers
+     */
+    private List<Job> finish(Job job, long[] path) {
+        synchronized (lock) {
+            GoalKey goalKey = new GoalKey(job.world, job.profile, job.goal);
+            List<Job> flights = inFlight.get(goalKey);
+            if (flights != null && flights.remove(job) && flights.isEmpty()) {
+                inFlight.remove(goalKey);
+            }
+            if (path != null) {
+                put(job.world, job.profile, job.start, job.goal, path);
+            }
+            List<Job> followers = new ArrayList<>(job.followers);
+            job.followers.clear();
+            return followers;
+        }
+    }
+
+    private void completeAll(Job job, long[] path) {
+        job.future.complete(path);
+        for (Job follower : job.followers) {
+            follower.future.complete(path);
+        }
+    }
+
+    // Cache bookkeeping; callers hold the lock
+
+    private void put(UUID world, MovementProfile profile, long start, long goal, long[] cells) {
+        if (config.cacheSize == 0) {
+            return;
+        }
+        RouteKey key = new RouteKey(world, profile, start, goal);
+        Entry previous = cache.get(key);
+        if (previous != null) {
+            unindex(previous);
+        }
+        Entry entry = new Entry(key, cells, chunksOf(cells), tick);
+        cache.put(key, entry);
+        List<Entry> sameGoal = byGoal.computeIfAbsent(new GoalKey(world, profile, goal), k -> new ArrayList<>());
+        sameGoal.add(entry);
+        if (sameGoal.size() > PATHS_PER_GOAL) {
+            unindex(sameGoal.get(0));
+        }
+        for (long chunk : entry.chunks) {
+            byChunk.computeIfAbsent(new ChunkKey(world, chunk), k -> new ArrayList<>(2)).add(entry);
+        }
+        while (cache.size() > config.cacheSize) {
+            unindex(cache.values().iterator().next());
+        }
+    }
+
+    private void unindex(Entry entry) {
+        RouteKey key = entry.key;
+        if (cache.get(key) == entry) {
+            cache.remove(key);
+        }
+        GoalKey goalKey = new GoalKey(key.world(), key.profile(), key.goal());
+        List<Entry> sameGoal = byGoal.get(goalKey);
+        if (sameGoal != null && sameGoal.remove(entry) && sameGoal.isEmpty()) {
+            byGoal.remove(goalKey);
+        }
+        for (long chunk : entry.chunks) {
+            ChunkKey chunkKey = new ChunkKey(key.world(), chunk);
+            List<Entry> entries = byChunk.get(chunkKey);
+            if (entries != null && entries.remove(entry) && entries.isEmpty()) {
+                byChunk.remove(chunkKey);
+            }
+        }
+    }
+
+    private boolean fresh(Entry entry) {
+        if (tick - entry.tick <= config.cacheTtlTicks) {
+            return true;
+        }
+        unindex(entry);
+        return false;
+    }
+
+    private static int nearestIndex(long[] cells, long cell) {
+        int best = 0;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < cells.length; i++) {
+            int distance = NavCells.chebyshev(cells[i], cell);
+            if (distance < bestDistance) {
+                best = i;
+                bestDistance = distance;
+                if (distance == 0) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static long chunk(int x, int z) {
+        return ((long) (x >> 4) << 32) | ((z >> 4) & 0xFFFFFFFFL);
+    }
+
+    /** Distinct chunk columns a path passes through */
+    private static long[] chunksOf(long[] cells) {
+        long[] chunks = new long[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            chunks[i] = chunk(NavCells.x(cells[i]), NavCells.z(cells[i]));
+        }
+        Arrays.sort(chunks);
+        int unique = 0;
+        for (int i = 0; i < chunks.length; i++) {
+            if (i == 0 || chunks[i] != chunks[unique - 1]) {
+                chunks[unique++] = chunks[i];
+            }
+        }
+        return Arrays.copyOf(chunks, unique);
+    }
+
+    private record RouteKey(UUID world, MovementProfile profile, long start, long goal) {
+    }
+
+    private record GoalKey(UUID world, MovementProfile profile, long goal) {
+    }
+
+    private record ChunkKey(UUID world, long chunk) {
+    }
+
+    private static final class Entry {
+        final RouteKey key;
+        final long[] cells;
+        final long[] chunks;
+        final long tick;
+
+        Entry(RouteKey key, long[] cells, long[] chunks, long tick) {
+            this.key = key;
+            this.cells = cells;
+            this.chunks = chunks;
+            this.tick = tick;
+        }
+    }
+
+    private static final class Job implements Comparable<Job> {
+        final UUID world;
+        final MovementProfile profile;
+        final long start;
+        final long goal;
+        final long order;
+        final CompletableFuture<long[]> future = new CompletableFuture<>();
+        /** Requests waiting on this one's result; guarded by the scheduler lock */
+        final List<Job> followers = new ArrayList<>(0);
+        Priority priority;
+        /** Set when the request joins an existing path instead of searching from scratch */
+        long[] base;
+        int baseIndex;
+        /** Set for chase replans */
+        IncrementalPlanner planner;
+        /** Search in progress, kept while the job waits for its next slice */
+        HierarchicalPathfinder.Query search;
+
+        Job(UUID world, MovementProfile profile, long start, long goal, Priority priority, long order) {
+            this.world = world;
+            this.profile = profile;
+            this.start = start;
+            this.goal = goal;
+            this.priority = priority;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            int byPriority = Integer.compare(priority.ordinal(), other.priority.ordinal());
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+    }
+
+    public static class Stats {
+        public final long requests;
+        public final long cacheHits;
+        public final long suffixHits;
+        public final long coalesced;
+        public final long joined;
+        public final long computed;
+        public final long failed;
+        public final long replanned;
+        public final double avgReplanExpansions;
+        /** Searches paused at a tick's deadline and resumed the next tick */
+        public final long paused;
+        /** Ticks that ended with requests still queued */
+        public final long deferredTicks;
+        public final int cached;
+        public final int queued;
+        public final double avgMillisPerTick;
+
+        public Stats(long requests, long cacheHits, long suffixHits, long coalesced, long joined, long computed,
+                     long failed, long replanned, double avgReplanExpansions, long paused, long deferredTicks,
+                     int cached, int queued, double avgMillisPerTick) {
+            this.requests = requests;
+            this.cacheHits = cacheHits;
+            this.suffixHits = suffixHits;
+            this.coalesced = coalesced;
+            this.joined = joined;
+            this.computed = computed;
+            this.failed = failed;
+            this.replanned = replanned;
+            this.avgReplanExpansions = avgReplanExpansions;
+            this.paused = paused;
+            this.deferredTicks = deferredTicks;
+            this.cached = cached;
+            this.queued = queued;
+            this.avgMillisPerTick = avgMillisPerTick;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Paths{requests=%d, hits=%d, suffix=%d, coalesced=%d, joined=%d, computed=%d, "
+                            + "failed=%d, replanned=%d (%.0f expansions), cached=%d, queued=%d, paused=%d, deferredTicks=%d, "
+                            + "%.3fms/tick}",
+                    requests, cacheHits, suffixHits, coalesced, joined, computed, failed, replanned,
+                    avgReplanExpansions, cached, queued, paused, deferredTicks, avgMillisPerTick);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+import chef.sheesh.eyeAI.infra.config.ConfigurationManager;
+
+/**
+ * Budget and cache settings of {@link PathScheduler}.
+ */
+public class PathSchedulerConfig {
+    /** Main-thread time spent computing paths per tick; a search running past it is paused until the next tick */
+    public double budgetMillisPerTick = 2.0;
+    /** Cached paths kept, least recently used evicted first */
+    public int cacheSize = 2048;
+    /** Ticks a cached path stays valid even without block changes along it */
+    public int cacheTtlTicks = 600;
+    /** Requests whose start lies this close to an in-flight request to the same goal share its result */
+    public int coalesceRadius = 4;
+    /** A cached path to the same goal is reused when it passes this close to the start */
+    public int joinRadius = 4;
+    /** Node budget of the short search connecting a start to a reused path */
+    public int joinExpansions = 512;
+
+    /**
+     * Values from {@code pathing.*}, falling back to the defaults above
+     */
+    public static PathSchedulerConfig from(ConfigurationManager cfg) {
+        PathSchedulerConfig config = new PathSchedulerConfig();
+        if (cfg == null) {
+            return config;
+        }
+        config.budgetMillisPerTick = Math.max(0.1, cfg.getDouble("pathing.budgetMillisPerTick", config.budgetMillisPerTick));
+        config.cacheSize = Math.max(0, cfg.getInt("pathing.cacheSize", config.cacheSize));
+        config.cacheTtlTicks = Math.max(1, cfg.getInt("pathing.cacheTtlTicks", config.cacheTtlTicks));
+        config.coalesceRadius = Math.max(0, cfg.getInt("pathing.coalesceRadius", config.coalesceRadius));
+        config.joinRadius = Math.max(0, cfg.getInt("pathing.joinRadius", config.joinRadius));
+        config.joinExpansions = Math.max(16, cfg.getInt("pathing.joinExpansions", config.joinExpansions));
+        return config;
+    }
+}
@@ -0,0 +1,380 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * {@link NavGrid} of a world backed by {@link NavChunk}s: bit-packed flags read from chunk
+ * snapshots on a background thread, so queries from any thread never touch the live world.
+ * <ul>
+ *     <li>Chunks are built on first use. Until then the main thread reads the live world and
+ *     other threads see solid ground, as if the chunk were not loaded.</li>
+ *     <li>Block changes are re-read and patched in on the next {@link #tick}, which reports
+ *     the blocks whose flags actually changed.</li>
+ *     <li>Chunks that were loaded or unloaded are reported on the next {@link #tick} as a
+ *     whole, since everything read from them before may be stale.</li>
+ * </ul>
+ * Only {@link #tick}, {@link #unload} and {@link #clear} mutate the grid, all on the main thread.
+ */
+public class VoxelNavGrid implements NavGrid {
+
+    /** Chunk column that was loaded or unloaded */
+    @FunctionalInterface
+    public interface ChunkListener {
+        void changed(int chunkX, int chunkZ);
+    }
+
+    /** Chunk snapshots taken per tick; building them runs elsewhere */
+    private static final int SNAPSHOTS_PER_TICK = 4;
+
+    private static final byte[] FLAGS = new byte[Material.values().length];
+
+    static {
+        for (Material material : Material.values()) {
+            if (material.name().startsWith("LEGACY_")) {
+                continue;
+            }
+            int flags = 0;
+            if (material.isSolid()) {
+                flags |= NavChunk.SOLID;
+            }
+            if (material == Material.WATER || material == Material.LAVA || material == Material.BUBBLE_COLUMN) {
+                flags |= NavChunk.LIQUID;
+            }
+            if (material == Material.LAVA || material == Material.FIRE || material == Material.SOUL_FIRE
+                    || material == Material.CACTUS || material == Material.SWEET_BERRY_BUSH
+                    || material == Material.WITHER_ROSE || material.name().contains("MAGMA")
+                    || material.name().endsWith("CAMPFIRE")) {
+                flags |= NavChunk.HAZARD;
+            }
+            FLAGS[material.ordinal()] = (byte) flags;
+        }
+    }
+
+    private final World world;
+    private final WorldNavGrid live;
+    private final Executor builder;
+    private final int minHeight;
+    private final int maxHeight;
+
+    private final Map<Long, NavChunk> chunks = new ConcurrentHashMap<>();
+    /** Last chunk read; a racy hint, checked against its position and retirement */
+    private volatile NavChunk last;
+    private final Set<Long> wanted = ConcurrentHashMap.newKeySet();
+    private final Queue<Long> changes = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> chunkChanges = new ConcurrentLinkedQueue<>();
+    private final Queue<Built> built = new ConcurrentLinkedQueue<>();
+    // Main thread only
+    private final Set<Long> building = new HashSet<>();
+    /** Blocks changed while their chunk was being built, re-read once it arrives */
+    private final Map<Long, List<Long>> pendingChanges = new HashMap<>();
+
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder builds = new LongAdder();
+    private final LongAdder patches = new LongAdder();
+
+    public VoxelNavGrid(World world, Executor builder) {
+        this.world = world;
+        this.live = new WorldNavGrid(world);
+        this.builder = builder;
+        this.minHeight = world.getMinHeight();
+        this.maxHeight = world.getMaxHeight();
+    }
+
+    /** Flags a material contributes to its cell */
+    static int flags(Material material) {
+        return FLAGS[material.ordinal()];
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    @Override
+    public boolean isSolid(int x, int y, int z) {
+        if (y < minHeight || y >= maxHeight) {
+            return true;
+        }
+        NavChunk chunk = chunk(x, z);
+        if (chunk == null) {
+            return !Bukkit.isPrimaryThread() || live.isSolid(x, y, z);
+        }
+        return chunk.isSolid(x, y, z);
+    }
+
+    @Override
+    public boolean isHazard(int x, int y, int z) {
+        NavChunk chunk = chunk(x, z);
+        if (chunk == null) {
+            return Bukkit.isPrimaryThread() && live.isHazard(x, y, z);
+        }
+        return chunk.isHazard(x, y, z);
+    }
+
+    @Override
+    public boolean isLiquid(int x, int y, int z) {
+        NavChunk chunk = chunk(x, z);
+        if (chunk == null) {
+            return Bukkit.isPrimaryThread() && live.isLiquid(x, y, z);
+        }
+        return chunk.isLiquid(x, y, z);
+    }
+
+    @Override
+    public boolean isWalkable(int x, int y, int z) {
+        if (y <= minHeight || y + 1 >= maxHeight) {
+            return false;
+        }
+        NavChunk chunk = chunk(x, z);
+        if (chunk == null) {
+            return Bukkit.isPrimaryThread() && live.isWalkable(x, y, z);
+        }
+        return chunk.isWalkable(x, y, z);
+    }
+
+    @Override
+    public int getHighestBlockY(int x, int z) {
+        NavChunk chunk = chunk(x, z);
+        if (chunk == null) {
+            return Bukkit.isPrimaryThread() ? live.getHighestBlockY(x, z) : minHeight - 1;
+        }
+        return chunk.highestBlockY(x, z);
+    }
+
+    @Override
+    public int getMinHeight() {
+        return minHeight;
+    }
+
+    @Override
+    public int getMaxHeight() {
+        return maxHeight;
+    }
+
+    /** Whether the chunk holding a block has been built */
+    public boolean isReady(int x, int z) {
+        return chunks.containsKey(key(x >> 4, z >> 4));
+    }
+
+    /**
+     * A block changed; it is re-read on the next {@link #tick}. Safe from any thread.
+     */
+    public void changed(int x, int y, int z) {
+        changes.add(NavCells.pack(x, y, z));
+    }
+
+    /**
+     * A chunk was loaded; until then it read as solid, so it is reported on the next {@link #tick}
+     */
+    public void loaded(int chunkX, int chunkZ) {
+        chunkChanges.add(key(chunkX, chunkZ));
+    }
+
+    /**
+     * Report loaded and unloaded chunks, publish finished chunks, patch changed blocks and
+     * snapshot requested chunks. Blocks whose flags changed, or that lie in chunks not built
+     * yet, are passed to the block listener. Must run on the main thread.
+     */
+    public void tick(LongConsumer changedBlocks, ChunkListener changedChunks) {
+        Long chunk;
+        while ((chunk = chunkChanges.poll()) != null) {
+            long key = chunk;
+            changedChunks.changed((int) (key >> 32), (int) key);
+        }
+
+        Built done;
+        while ((done = built.poll()) != null) {
+            building.remove(done.key);
+            List<Long> pending = pendingChanges.remove(done.key);
+            if (done.chunk == null || !world.isChunkLoaded(done.chunk.chunkX, done.chunk.chunkZ)) {
+                continue;
+            }
+            publish(done.key, done.chunk);
+            builds.increment();
+            if (pending != null) {
+                for (long block : pending) {
+                    patch(block, changedBlocks);
+                }
+            }
+        }
+
+        Long block;
+        while ((block = changes.poll()) != null) {
+            long key = key(NavCells.x(block) >> 4, NavCells.z(block) >> 4);
+            if (building.contains(key)) {
+                pendingChanges.computeIfAbsent(key, k -> new ArrayList<>()).add(block);
+                changedBlocks.accept(block);
+            } else if (chunks.containsKey(key)) {
+                patch(block, changedBlocks);
+            } else {
+                changedBlocks.accept(block); // Read from the live world so far
+            }
+        }
+
+        int snapshots = 0;
+        Iterator<Long> requests = wanted.iterator();
+        while (snapshots < SNAPSHOTS_PER_TICK && requests.hasNext()) {
+            long key = requests.next();
+            requests.remove();
+            int chunkX = (int) (key >> 32);
+            int chunkZ = (int) key;
+            if (chunks.containsKey(key) || building.contains(key) || !world.isChunkLoaded(chunkX, chunkZ)) {
+                continue;
+            }
+            snapshot(key, chunkX, chunkZ);
+            snapshots++;
+        }
+    }
+
+    /**
+     * Forget a chunk that was unloaded; it is reported on the next {@link #tick}
+     */
+    public void unload(int chunkX, int chunkZ) {
+        long key = key(chunkX, chunkZ);
+        NavChunk removed = chunks.remove(key);
+        if (removed != null) {
+            removed.retired = true;
+        }
+        wanted.remove(key);
+        pendingChanges.remove(key);
+        chunkChanges.add(key);
+    }
+
+    public void clear() {
+        for (NavChunk chunk : chunks.values()) {
+            chunk.retired = true;
+        }
+        chunks.clear();
+        wanted.clear();
+        changes.clear();
+        chunkChanges.clear();
+        pendingChanges.clear();
+        last = null;
+    }
+
+    public int size() {
+        return chunks.size();
+    }
+
+    public Stats getStats() {
+        return new Stats(chunks.size(), wanted.size(), building.size(), misses.sum(), builds.sum(), patches.sum());
+    }
+
+    private NavChunk chunk(int x, int z) {
+        int chunkX = x >> 4;
+        int chunkZ = z >> 4;
+        NavChunk hint = last;
+        if (hint != null && hint.chunkX == chunkX && hint.chunkZ == chunkZ && !hint.retired) {
+            return hint;
+        }
+        long key = key(chunkX, chunkZ);
+        NavChunk chunk = chunks.get(key);
+        if (chunk == null) {
+            misses.increment();
+            wanted.add(key);
+            return null;
+        }
+        last = chunk;
+        return chunk;
+    }
+
+    private void snapshot(long key, int chunkX, int chunkZ) {
+        ChunkSnapshot snapshot = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+        building.add(key);
+        try {
+            builder.execute(() -> {
+                NavChunk chunk = null;
+                try {
+                    chunk = NavChunk.build(chunkX, chunkZ, minHeight, maxHeight, new NavChunk.Source() {
+                        @Override
+                        public int flags(int x, int y, int z) {
+                            return FLAGS[snapshot.getBlockType(x, y, z).ordinal()];
+                        }
+
+                        @Override
+                        public boolean isEmpty(int section) {
+                            return snapshot.isSectionEmpty(section);
+                        }
+                    });
+                } finally {
+                    built.add(new Built(key, chunk));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            building.remove(key); // Shutting down
+        }
+    }
+
+    private void patch(long block, LongConsumer changedBlocks) {
+        int x = NavCells.x(block);
+        int y = NavCells.y(block);
+        int z = NavCells.z(block);
+        long key = key(x >> 4, z >> 4);
+        NavChunk chunk = chunks.get(key);
+        if (chunk == null) {
+            return;
+        }
+        NavChunk patched = chunk.patch(x, y, z, flags(world.getBlockAt(x, y, z).getType()));
+        if (patched != chunk) {
+            publish(key, patched);
+            patches.increment();
+            changedBlocks.accept(block);
+        }
+    }
+
+    private void publish(long key, NavChunk chunk) {
+        NavChunk previous = chunks.put(key, chunk);
+        if (previous != null) {
+            previous.retired = true;
+        }
+    }
+
+    private static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private record Built(long key, NavChunk chunk) {
+    }
+
+    public static class Stats {
+        public final int chunks;
+        public final int wanted;
+        public final int building;
+        /** Queries that found their chunk not built yet */
+        public final long misses;
+        public final long builds;
+        public final long patches;
+
+        public Stats(int chunks, int wanted, int building, long misses, long builds, long patches) {
+            this.chunks = chunks;
+            this.wanted = wanted;
+            this.building = building;
+            this.misses = misses;
+            this.builds = builds;
+            this.patches = patches;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("VoxelNavGrid{chunks=%d, wanted=%d, building=%d, misses=%d, builds=%d, patches=%d}",
+                    chunks, wanted, building, misses, builds, patches);
+        }
+    }
+}
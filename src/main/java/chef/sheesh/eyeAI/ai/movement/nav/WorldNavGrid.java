@@ -0,0 +1,66 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+import org.bukkit.World;
+
+/**
+ * {@link NavGrid} reading a live world. Unloaded chunks count as solid so a search
+ * never triggers chunk loads; like every live block access it belongs on the main thread.
+ */
+public class WorldNavGrid implements NavGrid {
+
+    private final World world;
+    private final int minHeight;
+    private final int maxHeight;
+
+    public WorldNavGrid(World world) {
+        this.world = world;
+        this.minHeight = world.getMinHeight();
+        this.maxHeight = world.getMaxHeight();
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    @Override
+    public boolean isSolid(int x, int y, int z) {
+        if (y < minHeight || y >= maxHeight || !world.isChunkLoaded(x >> 4, z >> 4)) {
+            return true;
+        }
+        return world.getBlockAt(x, y, z).getType().isSolid();
+    }
+
+    @Override
+    public boolean isHazard(int x, int y, int z) {
+        if (y < minHeight || y >= maxHeight || !world.isChunkLoaded(x >> 4, z >> 4)) {
+            return false;
+        }
+        return (VoxelNavGrid.flags(world.getBlockAt(x, y, z).getType()) & NavChunk.HAZARD) != 0;
+    }
+
+    @Override
+    public boolean isLiquid(int x, int y, int z) {
+        if (y < minHeight || y >= maxHeight || !world.isChunkLoaded(x >> 4, z >> 4)) {
+            return false;
+        }
+        return (VoxelNavGrid.flags(world.getBlockAt(x, y, z).getType()) & NavChunk.LIQUID) != 0;
+    }
+
+    @Override
+    public int getHighestBlockY(int x, int z) {
+        if (!world.isChunkLoaded(x >> 4, z >> 4)) {
+            return minHeight - 1;
+        }
+        return world.getHighestBlockYAt(x, z);
+    }
+
+    @Override
+    public int getMinHeight() {
+        return minHeight;
+    }
+
+    @Override
+    public int getMaxHeight() {
+        return maxHeight;
+    }
+}
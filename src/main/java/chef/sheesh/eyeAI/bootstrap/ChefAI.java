@@ -6,18 +6,24 @@ import chef.sheesh.eyeAI.ai.core.SchedulerService;
 import chef.sheesh.eyeAI.ai.movement.IMovementEngine;
 import chef.sheesh.eyeAI.ai.movement.MovementEngine;
 import chef.sheesh.eyeAI.ai.movement.NavGraph;
+import chef.sheesh.eyeAI.ai.movement.PathService;
+import chef.sheesh.eyeAI.ai.movement.nav.FlowFieldConfig;
+import chef.sheesh.eyeAI.ai.movement.nav.PathSchedulerConfig;
 import chef.sheesh.eyeAI.core.ai.AIManager;
 import chef.sheesh.eyeAI.data.CachedPlayerDataManager;
 import chef.sheesh.eyeAI.infra.config.ConfigurationManager;
+import chef.sheesh.eyeAI.infra.diagnostic.AIEventLog;
 import chef.sheesh.eyeAI.infra.diagnostic.Diagnostic;
 import chef.sheesh.eyeAI.infra.events.EventBus;
 import chef.sheesh.eyeAI.infra.packets.PacketBridge;
 import chef.sheesh.eyeAI.scoreboard.ScoreboardManager;
 import chef.sheesh.eyeAI.ui.AdminGui;
 import chef.sheesh.eyeAI.listeners.EmotionListener;
+import chef.sheesh.eyeAI.listeners.NavigationListener;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
 import java.util.Objects;
 
 public final class ChefAI extends JavaPlugin {
@@ -37,6 +43,12 @@ public final class ChefAI extends JavaPlugin {
         Diagnostic.bootstrapLogger(getLogger());
 
         ConfigurationManager config = new ConfigurationManager(this, "config/chefai.yml");
+        if (config.getBoolean("diagnostics.eventLog.enabled", false)) {
+            AIEventLog.get().start(new File(getDataFolder(), "logs"), getLogger(),
+                    config.getLong("diagnostics.eventLog.maxFileMb", 64) << 20,
+                    config.getInt("diagnostics.eventLog.maxFiles", 5));
+        }
+
         EventBus eventBus = new EventBus();
 
         // Initialize data manager
@@ -55,7 +67,9 @@ public final class ChefAI extends JavaPlugin {
         this.aiManager.enable();
         
         // Initialize AIEngine with proper MovementEngine and NavGraph
-        NavGraph navGraph = new NavGraph(Bukkit.getWorlds().get(0)); // Use first world for now
+        NavGraph navGraph = new NavGraph(); // Resolves the world per query
+        PathService.get().start(this, navGraph, PathSchedulerConfig.from(config), FlowFieldConfig.from(config));
+        getServer().getPluginManager().registerEvents(new NavigationListener(PathService.get()), this);
         SchedulerService schedulerService = new SchedulerService(this);
         IMovementEngine movementEngine = new MovementEngine(navGraph, schedulerService);
         this.aiEngine = new AIEngine(this, config, movementEngine, navGraph);
@@ -74,6 +88,7 @@ public final class ChefAI extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        PathService.get().stop();
         if (aiManager != null) {
             aiManager.disable();
         }
@@ -97,6 +112,13 @@ public final class ChefAI extends JavaPlugin {
         return scoreboardManager;
     }
 
+    /**
+     * Get the packet bridge
+     */
+    public PacketBridge getPacketBridge() {
+        return packets;
+    }
+
     /**
      * Get the AI manager
      */
@@ -2,11 +2,14 @@ package chef.sheesh.eyeAI.core.ai;
 
 import chef.sheesh.eyeAI.core.ml.MLCore;
 import chef.sheesh.eyeAI.core.sim.FakePlayerEngine;
+import chef.sheesh.eyeAI.core.sim.replay.SessionSeed;
 import chef.sheesh.eyeAI.infra.config.ConfigurationManager;
 import chef.sheesh.eyeAI.infra.events.EventBus;
 import chef.sheesh.eyeAI.infra.packets.PacketBridge;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
+
 public final class AIManager {
     private final EventBus bus;
     private final ConfigurationManager config;
@@ -21,6 +24,11 @@ public final class AIManager {
         this.config = config;
         this.packets = packets;
         this.plugin = plugin;
+        // Seed before any component creates its random source; 0 picks a new seed per start
+        long seed = config.getLong("training.seed", 0L);
+        if (seed != 0L) {
+            SessionSeed.set(seed);
+        }
         // Enable ML components - they are complete and ready for training
         this.mlCore = new MLCore(bus, config, plugin);
         this.simEngine = new FakePlayerEngine(bus, mlCore, packets);
@@ -48,7 +56,10 @@ public final class AIManager {
         if (simEngine != null && !simEngine.isTrainingActive()) {
             int fakePlayerCount = config.getInt("training.fakePlayers", 50);
             simEngine.start(fakePlayerCount);
-            getLogger().info("Started training with " + fakePlayerCount + " fake players");
+            getLogger().info("Started training with " + fakePlayerCount + " fake players, session seed " + SessionSeed.get());
+            if (config.getBoolean("training.replay.recordOnStart", false)) {
+                simEngine.startRecording(new File(plugin.getDataFolder(), "replays"));
+            }
         }
 
         if (scheduler != null && config.getBoolean("training.enabled", true)) {
@@ -70,6 +81,9 @@ public final class AIManager {
             simEngine.stop();
             getLogger().info("Fake player training stopped");
         }
+        if (simEngine != null) {
+            simEngine.stopRecording();
+        }
     }
 
     /**
@@ -12,6 +12,7 @@ public final class TrainingScheduler {
     private final ConfigurationManager cfg;
     private int taskId = -1;
     private boolean running = false;
+    private long ticks = 0;
 
     public TrainingScheduler(MLCore ml, FakePlayerEngine sim, ConfigurationManager cfg) {
         this.ml = ml; this.sim = sim; this.cfg = cfg;
@@ -29,8 +30,19 @@ public final class TrainingScheduler {
                         return;
                     }
                     // Run training cycle
+                    ticks++;
                     sim.tick();
                     ml.trainIncremental(cfg.getInt("training.batchSize", 128));
+                    // Periodically offer the trained table for shadow evaluation and promotion
+                    int promotionInterval = cfg.getInt("training.promotion.intervalTicks", 1200);
+                    if (promotionInterval > 0 && ticks % promotionInterval == 0) {
+                        ml.proposeCandidate();
+                    }
+                    // Movement model rounds run on their own trainer thread; overlapping requests are skipped
+                    int rnnInterval = cfg.getInt("training.rnn.intervalTicks", 100);
+                    if (rnnInterval > 0 && ticks % rnnInterval == 0) {
+                        ml.trainMovementModel();
+                    }
                 },
                 1L, period);
         running = true;
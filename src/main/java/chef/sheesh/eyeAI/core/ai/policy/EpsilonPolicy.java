@@ -1,5 +1,7 @@
 package chef.sheesh.eyeAI.core.ai.policy;
 
+import chef.sheesh.eyeAI.core.sim.replay.SessionSeed;
+
 import java.util.Random;
 
 /**
@@ -9,7 +11,7 @@ import java.util.Random;
  */
 public class EpsilonPolicy {
 
-    protected final Random random = new Random();
+    protected final Random random = SessionSeed.random("EpsilonPolicy");
     protected double epsilon;
     protected double minEpsilon;
     protected double epsilonDecay;
@@ -1,7 +1,23 @@
 package chef.sheesh.eyeAI.core.ml;
 
+import chef.sheesh.eyeAI.core.ml.features.FeatureImportanceService;
+import chef.sheesh.eyeAI.core.ml.features.FeatureMatrix;
+import chef.sheesh.eyeAI.core.ml.features.FeaturePipeline;
+import chef.sheesh.eyeAI.core.ml.ga.BotParameters;
+import chef.sheesh.eyeAI.core.ml.ga.IslandEvolutionEngine;
+import chef.sheesh.eyeAI.core.ml.lifecycle.ModelLifecycleManager;
+import chef.sheesh.eyeAI.core.ml.registry.ModelRegistry;
+import chef.sheesh.eyeAI.core.ml.registry.RetentionPolicy;
+import chef.sheesh.eyeAI.core.ml.rnn.MovementRNN;
+import chef.sheesh.eyeAI.core.ml.rnn.RnnTrainer;
+import chef.sheesh.eyeAI.core.ml.trajectory.TrajectoryConfig;
+import chef.sheesh.eyeAI.core.ml.trajectory.TrajectoryRecorder;
+import chef.sheesh.eyeAI.core.ml.trajectory.TrajectorySampler;
+import chef.sheesh.eyeAI.core.ml.trajectory.TrajectoryStore;
+import chef.sheesh.eyeAI.core.ml.validation.ModelValidator;
 import chef.sheesh.eyeAI.core.sim.SimExperience;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
+import chef.sheesh.eyeAI.ai.fakeplayer.IFakePlayer;
 import chef.sheesh.eyeAI.infra.config.ConfigurationManager;
 import chef.sheesh.eyeAI.infra.events.EventBus;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -9,7 +25,9 @@ import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
-import java.util.Optional;
+import java.io.File;
+import java.util.Collection;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -21,7 +39,10 @@ public final class MLCore {
     private final EventBus bus;
     private final ConfigurationManager cfg;
     private final MLManager mlManager;
-    private final MLModelPersistenceManager persistenceManager;
+    private final ModelRegistry registry;
+    private final JavaPlugin plugin;
+    private final TrajectoryRecorder trajectories;
+    private int samplerTaskId = -1;
 
     // Legacy compatibility fields
     private boolean initialized = false;
@@ -30,7 +51,13 @@ public final class MLCore {
         this.bus = bus;
         this.cfg = cfg;
         this.mlManager = new MLManager(bus, cfg);
-        this.persistenceManager = new MLModelPersistenceManager(plugin.getDataFolder(), bus);
+        RetentionPolicy retention = new RetentionPolicy();
+        retention.keepLatest = cfg != null ? cfg.getInt("ml.registry.keepLatest", 10) : 10;
+        this.registry = new ModelRegistry(plugin.getDataFolder(), bus, retention);
+        this.plugin = plugin;
+        TrajectoryConfig trajectoryConfig = TrajectoryConfig.from(cfg);
+        this.trajectories = new TrajectoryRecorder(
+                new TrajectoryStore(new File(plugin.getDataFolder(), "trajectories"), trajectoryConfig), trajectoryConfig);
     }
 
     /**
@@ -42,6 +69,14 @@ public final class MLCore {
         // Try to load existing models
         loadExistingModels();
 
+        // Record players and bots; recorded history also trains the movement model
+        mlManager.attachTrajectories(trajectories).whenComplete((sequences, throwable) -> {
+            if (throwable != null) {
+                bus.post(new RuntimeException("Trajectory replay failed", throwable));
+            }
+        });
+        samplerTaskId = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, new TrajectorySampler(trajectories), 1L, 1L);
+
         initialized = true;
     }
 
@@ -52,6 +87,13 @@ public final class MLCore {
         // Export models before shutdown
         MLManager.MLModels models = mlManager.exportModels();
         persistModels(models);
+        if (samplerTaskId != -1) {
+            plugin.getServer().getScheduler().cancelTask(samplerTaskId);
+            samplerTaskId = -1;
+        }
+        trajectories.shutdown();
+        mlManager.shutdown();
+        registry.shutdown();
         initialized = false;
     }
 
@@ -102,6 +144,92 @@ public final class MLCore {
         });
     }
 
+    /**
+     * Offer the current training state for shadow evaluation and promotion
+     */
+    public CompletableFuture<ModelLifecycleManager.PromotionDecision> proposeCandidate() {
+        return mlManager.proposeCandidate().whenComplete((decision, throwable) -> {
+            if (throwable != null) {
+                bus.post(new RuntimeException("MLCore model promotion error", throwable));
+            }
+        });
+    }
+
+    /**
+     * Record a bot or player position sample for the movement model
+     */
+    public void recordMovement(UUID entity, double x, double y, double z) {
+        mlManager.recordMovement(entity, x, y, z);
+    }
+
+    /**
+     * Record a bot's movement on the main thread; only primitives are copied, encoding happens off-thread
+     */
+    public void captureTrajectory(UUID entity, double x, double y, double z, double vx, double vy, double vz, float yaw) {
+        trajectories.capture(entity, x, y, z, vx, vy, vz, yaw);
+    }
+
+    public TrajectoryRecorder getTrajectoryRecorder() {
+        return trajectories;
+    }
+
+    /**
+     * Run one round of movement model mini-batches on its trainer thread
+     */
+    public CompletableFuture<RnnTrainer.TrainingStats> trainMovementModel() {
+        return mlManager.trainMovementModel().whenComplete((stats, throwable) -> {
+            if (throwable != null) {
+                bus.post(new RuntimeException("MLCore movement training error", throwable));
+            }
+        });
+    }
+
+    public MovementRNN getMovementModel() {
+        return mlManager.getMovementModel();
+    }
+
+    /**
+     * Extract features of all live bots into one reused matrix; main thread only
+     */
+    public FeatureMatrix extractFeatures(Collection<? extends FakePlayer> bots) {
+        return mlManager.extractFeatures(bots);
+    }
+
+    /**
+     * Pipeline for extracting features for analysis this tick, or null when this is not a sample tick
+     */
+    public FeaturePipeline beginFeatureSample() {
+        if (!mlManager.featureSampleTick()) {
+            return null;
+        }
+        FeaturePipeline pipeline = mlManager.getFeaturePipeline();
+        pipeline.begin();
+        return pipeline;
+    }
+
+    public void recordFeatureSample(FeatureMatrix features, int row, int action, double reward) {
+        mlManager.recordFeatureSample(features, row, action, reward);
+    }
+
+    public FeatureImportanceService getFeatureImportance() {
+        return mlManager.getFeatureImportance();
+    }
+
+    public ModelLifecycleManager getModelLifecycle() {
+        return mlManager.getLifecycle();
+    }
+
+    /**
+     * K-fold cross-validation of the Q-table training rule on the recorded live experiences
+     */
+    public CompletableFuture<ModelValidator.CrossValidationResult> crossValidateQTable(long seed) {
+        return mlManager.crossValidateQTable(seed);
+    }
+
+    public ModelRegistry getModelRegistry() {
+        return registry;
+    }
+
     /**
      * Run GA evolution
      */
@@ -109,6 +237,48 @@ public final class MLCore {
         return mlManager.evolveGAAsync();
     }
 
+    /**
+     * Parameters decoded from the best genome evolved so far, or null
+     */
+    public BotParameters getBestBotParameters() {
+        return mlManager.getBestBotParameters();
+    }
+
+    public boolean isApplyParametersToBots() {
+        return mlManager.isApplyParametersToBots();
+    }
+
+    public double getTrainingExploration() {
+        return mlManager.getTrainingExploration();
+    }
+
+    /**
+     * Start background island-model evolution, replacing any running engine
+     */
+    public IslandEvolutionEngine startIslandEvolution(IslandEvolutionEngine.IslandConfig islandConfig) {
+        return mlManager.startIslandEvolution(islandConfig);
+    }
+
+    public void stopIslandEvolution() {
+        mlManager.stopIslandEvolution();
+    }
+
+    /**
+     * The island engine last started, or null
+     */
+    public IslandEvolutionEngine getIslandEngine() {
+        return mlManager.getIslandEngine();
+    }
+
+    /**
+     * Give a bot the best evolved personality
+     *
+     * @return the parameters applied, or null when nothing has been evolved yet
+     */
+    public BotParameters applyBestParameters(IFakePlayer bot) {
+        return mlManager.applyBestParameters(bot);
+    }
+
     /**
      * Get comprehensive ML statistics
      */
@@ -157,31 +327,23 @@ public final class MLCore {
     // Private methods
 
     private void persistModels(MLManager.MLModels models) {
-        try {
-            persistenceManager.saveModelsWithBackup(models);
-            bus.post(new ModelsPersistedEvent(models.exportTime, true));
-        } catch (Exception e) {
-            bus.post(new ModelsPersistedEvent(System.currentTimeMillis(), false));
-            bus.post(new RuntimeException("Model persistence failed", e));
-        }
+        // exportModels already published to the registry; report what is now serving
+        bus.post(new ModelsPersistedEvent(models.exportTime, !models.registryVersions.isEmpty()));
     }
 
     /**
-     * Load existing models from persistent storage
+     * Serve the versions recorded as serving in the model registry
      */
     private void loadExistingModels() {
-        try {
-            Optional<MLManager.MLModels> existingModels = persistenceManager.loadLatestModels();
-            if (existingModels.isPresent()) {
-                mlManager.importModels(existingModels.get());
-                bus.post(new ModelsLoadedEvent(existingModels.get().exportTime, true));
-            } else {
+        mlManager.attachRegistry(registry);
+        registry.restoreServing().whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
                 bus.post(new ModelsLoadedEvent(System.currentTimeMillis(), false));
+                bus.post(new RuntimeException("Model loading failed", throwable));
+            } else {
+                bus.post(new ModelsLoadedEvent(System.currentTimeMillis(), true));
             }
-        } catch (Exception e) {
-            bus.post(new ModelsLoadedEvent(System.currentTimeMillis(), false));
-            bus.post(new RuntimeException("Model loading failed", e));
-        }
+        });
     }
 
     // Event classes
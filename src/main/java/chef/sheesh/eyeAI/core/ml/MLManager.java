@@ -7,16 +7,48 @@ import chef.sheesh.eyeAI.core.ml.models.Experience;
 import chef.sheesh.eyeAI.core.ml.models.GameState;
 import chef.sheesh.eyeAI.core.sim.SimExperience;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
+import chef.sheesh.eyeAI.ai.fakeplayer.IFakePlayer;
 import chef.sheesh.eyeAI.infra.config.ConfigurationManager;
 import chef.sheesh.eyeAI.infra.events.EventBus;
+import chef.sheesh.eyeAI.core.ml.features.FeatureAnalysisConfig;
+import chef.sheesh.eyeAI.core.ml.features.FeatureImportanceService;
+import chef.sheesh.eyeAI.core.ml.features.FeatureMatrix;
+import chef.sheesh.eyeAI.core.ml.features.FeaturePipeline;
+import chef.sheesh.eyeAI.core.ml.features.FeatureRegistry;
+import chef.sheesh.eyeAI.core.ml.features.FeatureSampleStore;
+import chef.sheesh.eyeAI.core.ml.ga.BotParameters;
 import chef.sheesh.eyeAI.core.ml.ga.GAOptimizer;
+import chef.sheesh.eyeAI.core.ml.ga.HeadlessEpisodeEvaluator;
+import chef.sheesh.eyeAI.core.ml.ga.IslandEvolutionEngine;
+import chef.sheesh.eyeAI.core.ml.lifecycle.ModelLifecycleManager;
+import chef.sheesh.eyeAI.core.ml.lifecycle.PromotionPolicy;
+import chef.sheesh.eyeAI.core.ml.lifecycle.QTableSnapshot;
+import chef.sheesh.eyeAI.core.ml.lifecycle.ShadowEvaluator;
+import chef.sheesh.eyeAI.core.ml.registry.ModelBindings;
+import chef.sheesh.eyeAI.core.ml.registry.ModelCodecs;
+import chef.sheesh.eyeAI.core.ml.registry.ModelMetadata;
+import chef.sheesh.eyeAI.core.ml.registry.ModelRegistry;
+import chef.sheesh.eyeAI.core.ml.registry.ModelType;
+import chef.sheesh.eyeAI.core.ml.rnn.LstmWeights;
+import chef.sheesh.eyeAI.core.ml.rnn.MovementRNN;
+import chef.sheesh.eyeAI.core.ml.rnn.MovementSequenceAssembler;
+import chef.sheesh.eyeAI.core.ml.rnn.RnnTrainer;
+import chef.sheesh.eyeAI.core.ml.trajectory.TrajectoryRecorder;
+import chef.sheesh.eyeAI.core.ml.trajectory.TrajectorySamples;
+import chef.sheesh.eyeAI.core.ml.trajectory.TrajectoryStore;
+import chef.sheesh.eyeAI.core.ml.validation.ModelValidator;
 
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
-import java.util.Map;
+import java.io.IOException;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.UUID;
 
 /**
@@ -25,13 +57,32 @@ import java.util.UUID;
  */
 public class MLManager {
 
+    private static final Logger LOGGER = Logger.getLogger(MLManager.class.getName());
     private static final int BATCH_SIZE = 32;
+    private static final int TABLE_ACTIONS = 10;
+    private static final double TABLE_LEARNING_RATE = 0.1;
+    private static final double TABLE_DISCOUNT = 0.99;
 
     private final QAgent qAgent;
     private final ExperienceBuffer experienceBuffer;
     private final EventBus eventBus;
     private final ConfigurationManager config;
-    private final GAOptimizer gaOptimizer = new GAOptimizer();
+    private final GAOptimizer gaOptimizer = GAOptimizer.forBotParameters(new GAOptimizer.GAConfig());
+    private volatile IslandEvolutionEngine islandEngine;
+    private final ModelLifecycleManager lifecycle;
+    private final ModelValidator validator = new ModelValidator(2);
+    private volatile ModelRegistry registry;
+    // Serving snapshot version -> registry version it was published or loaded as
+    private final Map<Long, Long> registryVersions = new ConcurrentHashMap<>();
+    private final MovementRNN movementModel = new MovementRNN();
+    private final MovementSequenceAssembler movementSequences = new MovementSequenceAssembler(movementModel.getDataset());
+    // Movement weights last published to or served from the registry
+    private volatile LstmWeights movementPublished;
+    // Main-thread batch feature extraction for bots and players
+    private final FeaturePipeline featurePipeline = new FeaturePipeline(FeatureRegistry.defaults());
+    private final FeatureAnalysisConfig featureAnalysisConfig;
+    private final FeatureImportanceService featureImportance;
+    private long featureTicks;
 
     private boolean learningEnabled = true;
     private int batchSize = BATCH_SIZE;
@@ -44,6 +95,9 @@ public class MLManager {
         this.qAgent = new QAgent(learningRate, discountFactor, explorationRate);
         this.eventBus = null;
         this.config = null;
+        this.lifecycle = new ModelLifecycleManager(null, promotionPolicy());
+        this.featureAnalysisConfig = new FeatureAnalysisConfig();
+        this.featureImportance = featureImportanceService(featurePipeline, featureAnalysisConfig);
     }
 
     // Compatibility constructor used by MLCore/MLService
@@ -53,6 +107,21 @@ public class MLManager {
         // Defaults if config not yet specifying values
         this.experienceBuffer = new ExperienceBuffer(10_000);
         this.qAgent = new QAgent(0.1, 0.99, 0.1);
+        this.lifecycle = new ModelLifecycleManager(eventBus, promotionPolicy());
+        this.featureAnalysisConfig = FeatureAnalysisConfig.from(config);
+        this.featureImportance = featureImportanceService(featurePipeline, featureAnalysisConfig);
+    }
+
+    private static FeatureImportanceService featureImportanceService(FeaturePipeline pipeline, FeatureAnalysisConfig analysisConfig) {
+        FeatureRegistry features = pipeline.getRegistry();
+        return new FeatureImportanceService(features,
+                new FeatureSampleStore(features.size(), analysisConfig.storeCapacity), analysisConfig);
+    }
+
+    private static PromotionPolicy promotionPolicy() {
+        PromotionPolicy policy = new PromotionPolicy();
+        policy.discountFactor = TABLE_DISCOUNT;
+        return policy;
     }
 
     /**
@@ -112,17 +181,146 @@ public class MLManager {
     // ===================== Compatibility API for MLCore/MLService =====================
 
     public void initializeMLComponents() {
-        // Initialize components if needed; currently no-op
+        featureImportance.start();
+        if (config != null && config.getBoolean("ml.ga.islands.autoStart", false)) {
+            startIslandEvolution(IslandEvolutionEngine.IslandConfig.from(config));
+        }
+    }
+
+    /**
+     * Use a model registry for persistence. Q-tables promoted by the lifecycle are published to it,
+     * and serving a registry version swaps it in without blocking ticks.
+     */
+    public void attachRegistry(ModelRegistry registry) {
+        this.registry = registry;
+        registry.bind(ModelCodecs.Q_TABLE, (Map<Long, double[]> table, ModelMetadata metadata) -> {
+            QTableSnapshot snapshot = lifecycle.install(table, "serving registry v" + metadata.version);
+            registryVersions.put(snapshot.getVersion(), metadata.version);
+            if (statistics.qStats.qTable.isEmpty()) {
+                // Continue training from the served model instead of from scratch
+                table.forEach((state, row) -> statistics.qStats.qTable.put(state, row.clone()));
+            }
+        });
+        ModelBindings.bindGAOptimizer(registry, gaOptimizer);
+        registry.bind(ModelCodecs.MOVEMENT_RNN, weights -> {
+            movementModel.importWeights(weights);
+            movementPublished = weights;
+        });
+        lifecycle.addServingListener(snapshot -> {
+            // Keep the registry's serving pointer in step with rollbacks
+            Long version = registryVersions.get(snapshot.getVersion());
+            if (version != null) {
+                registry.markServingAsync(ModelType.Q_TABLE, version);
+            } else if (snapshot == QTableSnapshot.EMPTY) {
+                registry.clearServingAsync(ModelType.Q_TABLE);
+            }
+        });
+    }
+
+    public ModelRegistry getRegistry() {
+        return registry;
     }
 
+    private void publishPromoted(ModelLifecycleManager.PromotionDecision decision) {
+        ModelRegistry target = registry;
+        QTableSnapshot snapshot = lifecycle.getServingModel();
+        if (target == null || snapshot.getVersion() != decision.candidateVersion) {
+            return; // No registry, or already rolled back or replaced
+        }
+        ShadowEvaluator.ShadowReport report = decision.report;
+        Map<String, Double> metrics = new HashMap<>();
+        metrics.put("shadow.samples", (double) report.samples);
+        metrics.put("shadow.agreement", report.agreement);
+        metrics.put("shadow.matchedReward", report.candidate.matchedReward);
+        metrics.put("shadow.liveMatchedReward", report.live.matchedReward);
+        metrics.put("shadow.tdError", report.candidate.tdError);
+        metrics.put("shadow.coverage", report.candidate.coverage);
+        metrics.put("shadow.accuracy", report.candidate.accuracy);
+        long parent = registryVersions.getOrDefault(report.live.version, -1L);
+
+        target.publishAsync(ModelCodecs.Q_TABLE, snapshot.asMap(), parent, metrics, "promoted snapshot v" + snapshot.getVersion())
+                .thenAccept(metadata -> {
+                    registryVersions.put(snapshot.getVersion(), metadata.version);
+                    // Runs on the registry thread, so it is ordered after any pending pointer update
+                    if (lifecycle.getServingModel() == snapshot) {
+                        try {
+                            target.markServing(ModelType.Q_TABLE, metadata.version);
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                })
+                .exceptionally(e -> {
+                    LOGGER.log(Level.WARNING, "Could not publish promoted Q-table", e);
+                    return null;
+                });
+    }
+
+    /**
+     * Publish models that are not yet in the registry and describe the serving versions.
+     * Without a registry only the export time is set.
+     */
     public MLModels exportModels() {
         MLModels models = new MLModels();
         models.exportTime = System.currentTimeMillis();
+        ModelRegistry target = registry;
+        if (target == null) {
+            return models;
+        }
+        try {
+            GAOptimizer.GAParameters parameters = gaOptimizer.exportParameters();
+            if (!parameters.population.isEmpty()) {
+                long parent = target.getServing(ModelType.GA_POPULATION).map(m -> m.version).orElse(-1L);
+                Map<String, Double> metrics = new HashMap<>();
+                metrics.put("ga.bestFitness", parameters.bestFitness);
+                metrics.put("ga.generation", (double) parameters.currentGeneration);
+                ModelMetadata metadata = target.publish(ModelCodecs.GA_POPULATION, parameters, parent, metrics,
+                        "generation " + parameters.currentGeneration);
+                target.markServing(ModelType.GA_POPULATION, metadata.version);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not publish GA population", e);
+        }
+        try {
+            MovementRNN.RNNStats rnnStats = movementModel.getStatistics();
+            LstmWeights weights = movementModel.getWeights();
+            if (rnnStats.trainingSteps > 0 && weights != movementPublished) {
+                long parent = target.getServing(ModelType.MOVEMENT_RNN).map(m -> m.version).orElse(-1L);
+                Map<String, Double> metrics = new HashMap<>();
+                metrics.put("rnn.batches", (double) rnnStats.trainingSteps);
+                metrics.put("rnn.averageLoss", rnnStats.averageLoss);
+                metrics.put("rnn.lastLoss", rnnStats.lastLoss);
+                ModelMetadata metadata = target.publish(ModelCodecs.MOVEMENT_RNN, weights, parent, metrics,
+                        rnnStats.trainingSteps + " batches");
+                target.markServing(ModelType.MOVEMENT_RNN, metadata.version);
+                movementPublished = weights;
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not publish movement model", e);
+        }
+        for (ModelType type : ModelType.values()) {
+            target.getServing(type).ifPresent(m -> models.registryVersions.put(type.getKey(), m.version));
+        }
         return models;
     }
 
+    /**
+     * Serve the registry versions named in an export; swaps happen off the calling thread
+     */
     public void importModels(MLModels models) {
-        // No-op placeholder for model import
+        ModelRegistry target = registry;
+        if (target == null || models == null) {
+            return;
+        }
+        models.registryVersions.forEach((key, version) -> {
+            ModelType type = ModelType.fromKey(key);
+            if (type != null) {
+                target.serve(type, version).exceptionally(e -> {
+                    LOGGER.log(Level.WARNING, "Could not serve " + key + " v" + version, e);
+                    return null;
+                });
+            }
+        });
     }
 
     public void addExperience(SimExperience exp) {
@@ -132,9 +330,57 @@ public class MLManager {
             ? (rewardRunningTotal / statistics.totalExperiencesProcessed)
             : 0.0;
 
-        // Update placeholder Q-stats table with simple heuristic (expand if needed)
-        statistics.qStats.qTable.computeIfAbsent(exp.getStateHash(), k -> new double[Math.max(1, 10)]);
+        // Train the table in place; bots act on the serving snapshot, never on this table
+        if (learningEnabled) {
+            tdUpdate(statistics.qStats.qTable, exp);
+        } else {
+            statistics.qStats.qTable.computeIfAbsent(exp.getStateHash(), k -> new double[TABLE_ACTIONS]);
+        }
         statistics.qStats.updateCount++;
+        lifecycle.observe(exp);
+    }
+
+    /**
+     * One tabular Q-learning step, the rule the training table and cross-validation both use
+     */
+    private static void tdUpdate(Map<Long, double[]> table, SimExperience exp) {
+        double[] row = table.computeIfAbsent(exp.getStateHash(), k -> new double[TABLE_ACTIONS]);
+        if (exp.isQUpdate() && exp.getAction() >= 0 && exp.getAction() < row.length) {
+            double target = exp.getReward();
+            if (!exp.isTerminal()) {
+                target += TABLE_DISCOUNT * maxQ(table.get(exp.getNextStateHash()));
+            }
+            row[exp.getAction()] += TABLE_LEARNING_RATE * (target - row[exp.getAction()]);
+        }
+    }
+
+    /**
+     * K-fold cross-validation of the Q-table training rule on the recorded live experiences.
+     * Every fold replays the other folds into a fresh table and is scored on its own experiences.
+     */
+    public CompletableFuture<ModelValidator.CrossValidationResult> crossValidateQTable(long seed) {
+        return validator.crossValidateQAgent(experiences -> {
+            Map<Long, double[]> table = new HashMap<>();
+            for (SimExperience exp : experiences) {
+                tdUpdate(table, exp);
+            }
+            return table;
+        }, lifecycle.getRecordedExperiences(), seed);
+    }
+
+    public ModelValidator getValidator() {
+        return validator;
+    }
+
+    private static double maxQ(double[] qValues) {
+        if (qValues == null || qValues.length == 0) {
+            return 0.0;
+        }
+        double max = Double.NEGATIVE_INFINITY;
+        for (double q : qValues) {
+            max = Math.max(max, q);
+        }
+        return max;
     }
 
     public void addPlayerExperience(FakePlayer fakePlayer, SimExperience experience) {
@@ -147,20 +393,28 @@ public class MLManager {
     }
 
     public int selectAction(long stateHash, int maxActions) {
-        // Epsilon-greedy placeholder using stored qTable if present
-        double[] qValues = statistics.qStats.qTable.get(stateHash);
-        if (qValues == null || qValues.length == 0) {
-            return 0;
-        }
-        int bestIdx = 0;
-        double bestVal = Double.NEGATIVE_INFINITY;
-        for (int i = 0; i < Math.min(qValues.length, maxActions); i++) {
-            if (qValues[i] > bestVal) {
-                bestVal = qValues[i];
-                bestIdx = i;
+        // Greedy over the promoted snapshot; one volatile read, no locking on the tick thread
+        return lifecycle.getServingModel().selectAction(stateHash, maxActions);
+    }
+
+    /**
+     * Snapshot the training table as a candidate and promote it if it beats the serving model in shadow
+     */
+    public CompletableFuture<ModelLifecycleManager.PromotionDecision> proposeCandidate() {
+        return lifecycle.submitCandidate(statistics.qStats.qTable).thenApply(decision -> {
+            if (decision.outcome == ModelLifecycleManager.PromotionDecision.Outcome.PROMOTED) {
+                publishPromoted(decision);
             }
-        }
-        return bestIdx;
+            return decision;
+        });
+    }
+
+    public QTableSnapshot getServingModel() {
+        return lifecycle.getServingModel();
+    }
+
+    public ModelLifecycleManager getLifecycle() {
+        return lifecycle;
     }
 
     public int getBestAction(long stateHash, int maxActions) {
@@ -184,6 +438,72 @@ public class MLManager {
         return gaOptimizer.evolveGenerationAsync();
     }
 
+    /**
+     * Start background island-model evolution of bot parameters, replacing any running engine
+     */
+    public IslandEvolutionEngine startIslandEvolution(IslandEvolutionEngine.IslandConfig islandConfig) {
+        stopIslandEvolution();
+        GAOptimizer.GAConfig gaConfig = new GAOptimizer.GAConfig();
+        gaConfig.genomeSize = BotParameters.GENE_COUNT;
+        IslandEvolutionEngine engine = new IslandEvolutionEngine(gaConfig, islandConfig, new HeadlessEpisodeEvaluator());
+        engine.start();
+        islandEngine = engine;
+        return engine;
+    }
+
+    public void stopIslandEvolution() {
+        IslandEvolutionEngine engine = islandEngine;
+        if (engine != null) {
+            engine.stop();
+        }
+    }
+
+    public IslandEvolutionEngine getIslandEngine() {
+        return islandEngine;
+    }
+
+    /**
+     * Bot parameters decoded from the best genome evolved so far by either optimizer, or null if none
+     */
+    public BotParameters getBestBotParameters() {
+        GAOptimizer.Genome best = gaOptimizer.getHistoricalBest();
+        IslandEvolutionEngine engine = islandEngine;
+        GAOptimizer.Genome islandBest = engine != null ? engine.getBestGenome() : null;
+        if (islandBest != null && (best == null || islandBest.getFitness() > best.getFitness())) {
+            best = islandBest;
+        }
+        return best != null ? BotParameters.decode(best.getWeights()) : null;
+    }
+
+    /**
+     * Chance that a training bot takes a random action instead of the serving model's
+     * ({@code training.epsilon.bots}). Without it bots only ever take the serving model's
+     * greedy actions, and shadow evaluation has no matched samples for a candidate that differs.
+     */
+    public double getTrainingExploration() {
+        return config != null ? config.getDouble("training.epsilon.bots", 0.1) : 0.1;
+    }
+
+    /**
+     * Whether bots should get the best evolved parameters when they spawn ({@code ml.ga.applyToBots})
+     */
+    public boolean isApplyParametersToBots() {
+        return config != null && config.getBoolean("ml.ga.applyToBots", false);
+    }
+
+    /**
+     * Give a bot the predefined personality closest to the best evolved traits
+     *
+     * @return the parameters applied, or null when nothing has been evolved yet
+     */
+    public BotParameters applyBestParameters(IFakePlayer bot) {
+        BotParameters best = getBestBotParameters();
+        if (best != null) {
+            bot.getPersonalitySystem().setPersonality(best.nearestPersonality());
+        }
+        return best;
+    }
+
     public MLStatistics getStatistics() {
         // Keep compatibility field updated
         statistics.experienceBufferSize = experienceBuffer.getSize();
@@ -201,12 +521,126 @@ public class MLManager {
         statistics.qStats.qTable.clear();
         statistics.qStats.updateCount = 0;
         rewardRunningTotal = 0.0;
+        lifecycle.reset();
+        registryVersions.clear();
+    }
+
+    public void shutdown() {
+        stopIslandEvolution();
+        gaOptimizer.shutdown();
+        lifecycle.shutdown();
+        movementModel.shutdown();
+        featureImportance.shutdown();
+        validator.shutdown();
+    }
+
+    // ===================== Movement model =====================
+
+    /**
+     * Record a position sample of a bot or player for movement model training.
+     * Cheap enough for the tick thread: a few array writes, plus one sequence copy per window.
+     */
+    public void recordMovement(UUID entity, double x, double y, double z) {
+        movementSequences.record(entity, x, y, z);
+    }
+
+    /**
+     * Stop tracking an entity, e.g. after despawn or teleport
+     */
+    public void forgetMovement(UUID entity) {
+        movementSequences.forget(entity);
+    }
+
+    /**
+     * Feed recorded trajectories to the movement model: live samples from the recorder's encoder
+     * thread, plus a background replay of the segments already on disk.
+     */
+    public CompletableFuture<Integer> attachTrajectories(TrajectoryRecorder recorder) {
+        recorder.addListener(new TrajectoryRecorder.SampleListener() {
+            @Override
+            public void onSample(UUID entity, long tick, double x, double y, double z) {
+                movementSequences.record(entity, x, y, z);
+            }
+
+            @Override
+            public void onGap(UUID entity) {
+                movementSequences.forget(entity);
+            }
+        });
+        TrajectoryStore store = recorder.getStore();
+        int interval = recorder.getConfig().sampleIntervalTicks;
+        return CompletableFuture.supplyAsync(() -> {
+            // Separate assembler so replayed windows never join live ones
+            MovementSequenceAssembler replay = new MovementSequenceAssembler(movementModel.getDataset());
+            Map<UUID, Long> lastTicks = new HashMap<>();
+            TrajectorySamples samples = new TrajectorySamples(recorder.getConfig().blockSamples);
+            long before = movementModel.getDataset().getAddedCount();
+            store.readAll(block -> {
+                Long last = lastTicks.get(block.getEntity());
+                if (last == null || block.getStartTick() - last != interval) {
+                    replay.forget(block.getEntity());
+                }
+                samples.clear();
+                block.decodeInto(samples);
+                for (int i = 0; i < samples.size(); i++) {
+                    replay.record(block.getEntity(), samples.getX(i), samples.getY(i), samples.getZ(i));
+                }
+                lastTicks.put(block.getEntity(), samples.getTick(samples.size() - 1));
+            });
+            return (int) (movementModel.getDataset().getAddedCount() - before);
+        });
+    }
+
+    /**
+     * Run one round of mini-batches on the movement model's trainer thread
+     */
+    public CompletableFuture<RnnTrainer.TrainingStats> trainMovementModel() {
+        return movementModel.train(movementModel.getTrainingConfig().batchesPerRound);
+    }
+
+    public MovementRNN getMovementModel() {
+        return movementModel;
+    }
+
+    // ===================== Features =====================
+
+    /**
+     * Features of all live bots in one column-major matrix; main thread only.
+     * The matrix is reused by the next extraction.
+     */
+    public FeatureMatrix extractFeatures(Collection<? extends FakePlayer> bots) {
+        return featurePipeline.extract(bots);
+    }
+
+    public FeaturePipeline getFeaturePipeline() {
+        return featurePipeline;
+    }
+
+    /**
+     * True once every {@code features.analysis.sampleIntervalTicks} calls; the simulation asks once per tick
+     * whether to extract features for analysis
+     */
+    public boolean featureSampleTick() {
+        return featureTicks++ % featureAnalysisConfig.sampleIntervalTicks == 0;
+    }
+
+    /**
+     * Record a bot's pre-action features with the action it took and the reward it got
+     */
+    public void recordFeatureSample(FeatureMatrix features, int row, int action, double reward) {
+        featureImportance.getStore().add(features, row, action, reward);
+    }
+
+    public FeatureImportanceService getFeatureImportance() {
+        return featureImportance;
     }
 
     // ===================== Data classes =====================
 
     public static class MLModels {
         public long exportTime;
+        /** Serving registry version per model type key */
+        public final Map<String, Long> registryVersions = new HashMap<>();
     }
 
     public static class MLStatistics {
@@ -219,7 +653,8 @@ public class MLManager {
     }
 
     public static class QStats {
-        public final Map<Long, double[]> qTable = new HashMap<>();
+        // Training table; concurrent so candidates can be snapshotted while it is updated
+        public final Map<Long, double[]> qTable = new ConcurrentHashMap<>();
         public long updateCount;
     }
 
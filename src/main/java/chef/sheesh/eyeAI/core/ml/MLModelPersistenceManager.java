@@ -25,7 +25,11 @@ import java.util.Optional;
 /**
  * Persistence manager for ML models using JSON file storage.
  * Handles saving and loading of trained models for Q-learning, GA, and RNN components.
+ *
+ * @deprecated superseded by {@link chef.sheesh.eyeAI.core.ml.registry.ModelRegistry}, which versions,
+ * checksums and serves every model type
  */
+@Deprecated
 public class MLModelPersistenceManager {
 
     private final File modelsFolder;
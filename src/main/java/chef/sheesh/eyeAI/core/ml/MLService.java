@@ -1,6 +1,7 @@
 package chef.sheesh.eyeAI.core.ml;
 
 import chef.sheesh.eyeAI.core.ml.features.FeatureEngineer;
+import chef.sheesh.eyeAI.core.ml.features.FeatureMatrix;
 import chef.sheesh.eyeAI.core.ml.ga.GAOptimizer;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
 import chef.sheesh.eyeAI.core.sim.SimExperience;
@@ -89,7 +90,10 @@ public final class MLService {
         int bestAction = mlManager.getBestAction(stateHash, maxActions);
 
         // Calculate confidence based on Q-value difference
-        double[] qValues = mlManager.getStatistics().qStats.qTable.getOrDefault(stateHash, new double[maxActions]);
+        double[] qValues = mlManager.getServingModel().qValues(stateHash);
+        if (qValues == null) {
+            qValues = new double[maxActions];
+        }
         double bestQValue = Double.NEGATIVE_INFINITY;
         double secondBestQValue = Double.NEGATIVE_INFINITY;
 
@@ -148,6 +152,13 @@ public final class MLService {
         return FeatureEngineer.createComprehensiveFeatures(fakePlayer);
     }
 
+    /**
+     * Extract features of many bots at once into a reused column-major matrix (main thread)
+     */
+    public FeatureMatrix extractFeatures(Collection<? extends FakePlayer> fakePlayers) {
+        return mlManager.extractFeatures(fakePlayers);
+    }
+
     /**
      * Extract movement features only
      */
@@ -28,7 +28,7 @@ import java.util.ArrayList;
 
 public class DeepQNetwork implements ILearningAlgorithm {
     private static final Logger log = LoggerFactory.getLogger(DeepQNetwork.class);
-    private MultiLayerNetwork qNetwork;       // Main network for Q-values
+    private volatile MultiLayerNetwork qNetwork; // Main network for Q-values; replaced whole on swap
     private MultiLayerNetwork targetNetwork; // Target for stability (updated every N steps)
     private final Deque<EnhancedExperience> replayBuffer;  // Replay buffer for off-policy learning
     private final double discountFactor;           // Gamma for future rewards
@@ -175,6 +175,22 @@ public class DeepQNetwork implements ILearningAlgorithm {
         this.epsilon = explorationRate;
     }
 
+    /**
+     * Network used for prediction, e.g. to publish it to the model registry
+     */
+    public MultiLayerNetwork getNetwork() {
+        return qNetwork;
+    }
+
+    /**
+     * Replace the prediction network with one reference write; callers mid-prediction finish on the old one
+     */
+    public void swapNetwork(MultiLayerNetwork network) {
+        targetNetwork.setParams(network.params());
+        qNetwork = network;
+        log.info("Q-network swapped");
+    }
+
     @Override
     public void saveModel(String filepath) {
         try {
@@ -0,0 +1,226 @@
+package chef.sheesh.eyeAI.core.ml.features;
+
+import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
+import chef.sheesh.eyeAI.ai.movement.MutableVec3;
+import org.bukkit.Location;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.util.Vector;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Primitive per-entity inputs of one extraction, one row per entity.
+ * Filled on the main thread; the arrays are reused across ticks and only grow.
+ */
+public final class EntityBatch {
+
+    private final Location scratch = new Location(null, 0, 0, 0);
+    private int size;
+    UUID[] ids;
+    int[] world;
+    double[] x;
+    double[] y;
+    double[] z;
+    double[] vx;
+    double[] vy;
+    double[] vz;
+    float[] yaw;
+    float[] pitch;
+    float[] health;
+    float[] maxHealth;
+    boolean[] alive;
+    boolean[] inCombat;
+    /** Target position; NaN when the entity has no target */
+    double[] targetX;
+    double[] targetY;
+    double[] targetZ;
+
+    public EntityBatch(int capacity) {
+        allocate(Math.max(1, capacity));
+    }
+
+    public void clear() {
+        Arrays.fill(ids, 0, size, null);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Add a bot; returns its row, or -1 when it has no world
+     */
+    public int add(FakePlayer bot, WorldSnapshot snapshot) {
+        if (bot.getWorld() == null) {
+            return -1;
+        }
+        Location location = bot.getLocation(scratch);
+        MutableVec3 velocity = bot.getVelocity();
+        int row = add(bot.getId(), snapshot.worldIndex(bot.getWorld()),
+                location.getX(), location.getY(), location.getZ(), velocity.x, velocity.y, velocity.z,
+                location.getYaw(), location.getPitch(), (float) bot.getHealth(), (float) bot.getMaxHealth(),
+                bot.isAlive(), bot.isInCombat());
+        setTarget(row, bot.getTarget());
+        return row;
+    }
+
+    /**
+     * Add a real player; returns its row
+     */
+    public int add(Player player, WorldSnapshot snapshot) {
+        Location location = player.getLocation(scratch);
+        Vector velocity = player.getVelocity();
+        AttributeInstance maxHealthAttribute = player.getAttribute(Attribute.GENERIC_MAX_HEALTH);
+        double max = maxHealthAttribute != null ? maxHealthAttribute.getValue() : 20.0;
+        return add(player.getUniqueId(), snapshot.worldIndex(player.getWorld()),
+                location.getX(), location.getY(), location.getZ(), velocity.getX(), velocity.getY(), velocity.getZ(),
+                location.getYaw(), location.getPitch(), (float) player.getHealth(), (float) max,
+                !player.isDead(), false);
+    }
+
+    /**
+     * Add a row from primitives; {@code worldIndex} comes from {@link WorldSnapshot#worldIndex}
+     */
+    public int add(UUID id, int worldIndex, double px, double py, double pz, double dx, double dy, double dz,
+                   float yawDegrees, float pitchDegrees, float currentHealth, float maximumHealth,
+                   boolean isAlive, boolean combat) {
+        if (size == ids.length) {
+            grow(size * 2);
+        }
+        int row = size++;
+        ids[row] = id;
+        world[row] = worldIndex;
+        x[row] = px;
+        y[row] = py;
+        z[row] = pz;
+        vx[row] = dx;
+        vy[row] = dy;
+        vz[row] = dz;
+        yaw[row] = yawDegrees;
+        pitch[row] = pitchDegrees;
+        health[row] = currentHealth;
+        maxHealth[row] = maximumHealth;
+        alive[row] = isAlive;
+        inCombat[row] = combat;
+        targetX[row] = Double.NaN;
+        targetY[row] = Double.NaN;
+        targetZ[row] = Double.NaN;
+        return row;
+    }
+
+    public void setTarget(int row, Entity target) {
+        if (target == null || !target.isValid()) {
+            return;
+        }
+        Location location = target.getLocation(scratch);
+        targetX[row] = location.getX();
+        targetY[row] = location.getY();
+        targetZ[row] = location.getZ();
+    }
+
+    public UUID getId(int row) {
+        return ids[row];
+    }
+
+    public int getWorld(int row) {
+        return world[row];
+    }
+
+    public double getX(int row) {
+        return x[row];
+    }
+
+    public double getY(int row) {
+        return y[row];
+    }
+
+    public double getZ(int row) {
+        return z[row];
+    }
+
+    /** Velocity in blocks per tick */
+    public double getVelocityX(int row) {
+        return vx[row];
+    }
+
+    public double getVelocityY(int row) {
+        return vy[row];
+    }
+
+    public double getVelocityZ(int row) {
+        return vz[row];
+    }
+
+    public float getYaw(int row) {
+        return yaw[row];
+    }
+
+    public float getPitch(int row) {
+        return pitch[row];
+    }
+
+    public float getHealth(int row) {
+        return health[row];
+    }
+
+    public float getMaxHealth(int row) {
+        return maxHealth[row];
+    }
+
+    public boolean isAlive(int row) {
+        return alive[row];
+    }
+
+    public boolean isInCombat(int row) {
+        return inCombat[row];
+    }
+
+    public boolean hasTarget(int row) {
+        return !Double.isNaN(targetX[row]);
+    }
+
+    private void allocate(int capacity) {
+        ids = new UUID[capacity];
+        world = new int[capacity];
+        x = new double[capacity];
+        y = new double[capacity];
+        z = new double[capacity];
+        vx = new double[capacity];
+        vy = new double[capacity];
+        vz = new double[capacity];
+        yaw = new float[capacity];
+        pitch = new float[capacity];
+        health = new float[capacity];
+        maxHealth = new float[capacity];
+        alive = new boolean[capacity];
+        inCombat = new boolean[capacity];
+        targetX = new double[capacity];
+        targetY = new double[capacity];
+        targetZ = new double[capacity];
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        world = Arrays.copyOf(world, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        z = Arrays.copyOf(z, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        vz = Arrays.copyOf(vz, capacity);
+        yaw = Arrays.copyOf(yaw, capacity);
+        pitch = Arrays.copyOf(pitch, capacity);
+        health = Arrays.copyOf(health, capacity);
+        maxHealth = Arrays.copyOf(maxHealth, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+        inCombat = Arrays.copyOf(inCombat, capacity);
+        targetX = Arrays.copyOf(targetX, capacity);
+        targetY = Arrays.copyOf(targetY, capacity);
+        targetZ = Arrays.copyOf(targetZ, capacity);
+    }
+}
@@ -0,0 +1,50 @@
+package chef.sheesh.eyeAI.core.ml.features;
+
+import chef.sheesh.eyeAI.infra.config.ConfigurationManager;
+
+/**
+ * Sampling and selection thresholds of {@link FeatureImportanceService}.
+ */
+public class FeatureAnalysisConfig {
+    /** Ticks between feature samples of the bots */
+    public int sampleIntervalTicks = 20;
+    /** Samples kept for analysis; older ones are overwritten */
+    public int storeCapacity = 16384;
+    /** Uniform sample of all seen rows used for mutual information and permutation importance */
+    public int reservoirSize = 4096;
+    /** Samples needed before masks are chosen */
+    public int minSamples = 500;
+    /** Equal-width bins per feature for mutual information */
+    public int bins = 16;
+    /** Ridge penalty of the linear reward surrogate, relative to the sample count */
+    public double ridge = 1e-3;
+    /** Keep a feature when its share of total importance reaches this */
+    public double minImportanceShare = 0.01;
+    /** Of two features correlated at least this strongly, only the more important is kept */
+    public double redundancyCorrelation = 0.95;
+    /** Never prune below this many features */
+    public int minFeatures = 4;
+    /** Seconds between background analysis passes */
+    public int intervalSeconds = 120;
+
+    /**
+     * Values from {@code features.analysis.*}, falling back to the defaults above
+     */
+    public static FeatureAnalysisConfig from(ConfigurationManager cfg) {
+        FeatureAnalysisConfig config = new FeatureAnalysisConfig();
+        if (cfg == null) {
+            return config;
+        }
+        config.sampleIntervalTicks = Math.max(1, cfg.getInt("features.analysis.sampleIntervalTicks", config.sampleIntervalTicks));
+        config.storeCapacity = Math.max(1, cfg.getInt("features.analysis.storeCapacity", config.storeCapacity));
+        config.reservoirSize = Math.max(16, cfg.getInt("features.analysis.reservoirSize", config.reservoirSize));
+        config.minSamples = cfg.getInt("features.analysis.minSamples", config.minSamples);
+        config.bins = Math.max(2, cfg.getInt("features.analysis.bins", config.bins));
+        config.ridge = Math.max(0.0, cfg.getDouble("features.analysis.ridge", config.ridge));
+        config.minImportanceShare = cfg.getDouble("features.analysis.minImportanceShare", config.minImportanceShare);
+        config.redundancyCorrelation = cfg.getDouble("features.analysis.redundancyCorrelation", config.redundancyCorrelation);
+        config.minFeatures = Math.max(1, cfg.getInt("features.analysis.minFeatures", config.minFeatures));
+        config.intervalSeconds = Math.max(1, cfg.getInt("features.analysis.intervalSeconds", config.intervalSeconds));
+        return config;
+    }
+}
@@ -0,0 +1,288 @@
+package chef.sheesh.eyeAI.core.ml.features;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Inputs of one batch extraction plus neighbourhood values derived once per row and shared
+ * by every feature that needs them (block scans, entity proximity, health history).
+ */
+public final class FeatureContext {
+
+    /** Radius of the obstacle / liquid scan at feet level */
+    public static final int NEAR_RADIUS = 2;
+    /** Radius of the cover scan at feet level */
+    public static final int COVER_RADIUS = 5;
+    public static final double ENTITY_RADIUS = 20.0;
+    public static final double PLAYER_RADIUS = 50.0;
+    public static final double ALLY_RADIUS = 16.0;
+    private static final double DAMAGE_DECAY = 0.9;
+
+    private final EntityBatch batch;
+    private final WorldSnapshot world;
+    private final Map<UUID, Memory> memory = new HashMap<>();
+    private long tick;
+
+    // Derived, one entry per row
+    boolean[] onGround = new boolean[0];
+    int[] obstacles = new int[0];
+    float[] cover = new float[0];
+    boolean[] nearWater = new boolean[0];
+    boolean[] nearLava = new boolean[0];
+    boolean[] hazardBelow = new boolean[0];
+    int[] light = new int[0];
+    int[] nearbyEntities = new int[0];
+    int[] nearbyHostiles = new int[0];
+    double[] nearestHostile = new double[0];
+    int[] nearbyPlayers = new int[0];
+    double[] nearestPlayer = new double[0];
+    int[] nearbyAllies = new int[0];
+    float[] healthTrend = new float[0];
+    float[] recentDamage = new float[0];
+
+    FeatureContext(EntityBatch batch, WorldSnapshot world) {
+        this.batch = batch;
+        this.world = world;
+    }
+
+    public EntityBatch getBatch() {
+        return batch;
+    }
+
+    public WorldSnapshot getWorld() {
+        return world;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Compute the derived columns for every row of the batch
+     */
+    void prepare(long currentTick) {
+        this.tick = currentTick;
+        int rows = batch.size();
+        ensure(rows);
+        for (int row = 0; row < rows; row++) {
+            scanBlocks(row);
+            scanEntities(row);
+            updateMemory(row);
+        }
+        scanAllies(rows);
+        if (currentTick % 200 == 0) {
+            memory.values().removeIf(m -> currentTick - m.lastSeen > 200);
+        }
+    }
+
+    private void scanBlocks(int row) {
+        int w = batch.world[row];
+        int bx = (int) Math.floor(batch.x[row]);
+        int by = (int) Math.floor(batch.y[row]);
+        int bz = (int) Math.floor(batch.z[row]);
+        int solidNear = 0;
+        int solidCover = 0;
+        boolean water = false;
+        boolean lava = false;
+        for (int dx = -COVER_RADIUS; dx <= COVER_RADIUS; dx++) {
+            for (int dz = -COVER_RADIUS; dz <= COVER_RADIUS; dz++) {
+                int flags = world.flagsAt(w, bx + dx, by, bz + dz);
+                boolean solid = (flags & MaterialCategories.SOLID) != 0;
+                if (solid) {
+                    solidCover++;
+                }
+                if (Math.abs(dx) <= NEAR_RADIUS && Math.abs(dz) <= NEAR_RADIUS) {
+                    if (solid) {
+                        solidNear++;
+                    }
+                    water |= (flags & MaterialCategories.WATER) != 0;
+                    lava |= (flags & MaterialCategories.LAVA) != 0;
+                }
+            }
+        }
+        int below = world.flagsAt(w, bx, by - 1, bz);
+        int side = 2 * COVER_RADIUS + 1;
+        obstacles[row] = solidNear;
+        cover[row] = solidCover / (float) (side * side);
+        nearWater[row] = water;
+        nearLava[row] = lava;
+        onGround[row] = (below & MaterialCategories.SOLID) != 0;
+        hazardBelow[row] = (below & MaterialCategories.HAZARD) != 0;
+        light[row] = world.lightAt(w, bx, by, bz);
+    }
+
+    private void scanEntities(int row) {
+        int w = batch.world[row];
+        double x = batch.x[row];
+        double y = batch.y[row];
+        double z = batch.z[row];
+        double entityRadiusSq = ENTITY_RADIUS * ENTITY_RADIUS;
+        double playerRadiusSq = PLAYER_RADIUS * PLAYER_RADIUS;
+        int entities = 0;
+        int hostiles = 0;
+        int players = 0;
+        double hostileSq = Double.POSITIVE_INFINITY;
+        double playerSq = Double.POSITIVE_INFINITY;
+        int count = world.getEntityCount(w);
+        for (int i = 0; i < count; i++) {
+            double dx = world.getEntityX(w, i) - x;
+            double dy = world.getEntityY(w, i) - y;
+            double dz = world.getEntityZ(w, i) - z;
+            double distSq = dx * dx + dy * dy + dz * dz;
+            if (distSq < 1e-6) {
+                // The entity itself, when a real player is extracted
+                continue;
+            }
+            byte kind = world.getEntityKind(w, i);
+            if (distSq <= entityRadiusSq) {
+                entities++;
+                if (kind == WorldSnapshot.KIND_HOSTILE) {
+                    hostiles++;
+                }
+            }
+            if (kind == WorldSnapshot.KIND_HOSTILE && distSq < hostileSq) {
+                hostileSq = distSq;
+            } else if (kind == WorldSnapshot.KIND_PLAYER && distSq <= playerRadiusSq) {
+                players++;
+                playerSq = Math.min(playerSq, distSq);
+            }
+        }
+        nearbyEntities[row] = entities;
+        nearbyHostiles[row] = hostiles;
+        nearestHostile[row] = Math.sqrt(hostileSq);
+        nearbyPlayers[row] = players;
+        nearestPlayer[row] = Math.sqrt(playerSq);
+    }
+
+    private void scanAllies(int rows) {
+        double radiusSq = ALLY_RADIUS * ALLY_RADIUS;
+        Arrays.fill(nearbyAllies, 0, rows, 0);
+        for (int a = 0; a < rows; a++) {
+            for (int b = a + 1; b < rows; b++) {
+                if (batch.world[a] != batch.world[b]) {
+                    continue;
+                }
+                double dx = batch.x[a] - batch.x[b];
+                double dy = batch.y[a] - batch.y[b];
+                double dz = batch.z[a] - batch.z[b];
+                if (dx * dx + dy * dy + dz * dz <= radiusSq) {
+                    nearbyAllies[a]++;
+                    nearbyAllies[b]++;
+                }
+            }
+        }
+    }
+
+    private void updateMemory(int row) {
+        float ratio = batch.maxHealth[row] > 0 ? batch.health[row] / batch.maxHealth[row] : 0f;
+        Memory m = memory.get(batch.ids[row]);
+        if (m == null) {
+            m = new Memory();
+            m.lastRatio = ratio;
+            memory.put(batch.ids[row], m);
+        }
+        float change = ratio - m.lastRatio;
+        m.damage = (float) (m.damage * DAMAGE_DECAY + Math.max(0f, -change));
+        m.lastRatio = ratio;
+        m.lastSeen = tick;
+        healthTrend[row] = change;
+        recentDamage[row] = m.damage;
+    }
+
+    private void ensure(int rows) {
+        if (onGround.length >= rows) {
+            return;
+        }
+        int size = Math.max(rows, onGround.length * 2);
+        onGround = new boolean[size];
+        obstacles = new int[size];
+        cover = new float[size];
+        nearWater = new boolean[size];
+        nearLava = new boolean[size];
+        hazardBelow = new boolean[size];
+        light = new int[size];
+        nearbyEntities = new int[size];
+        nearbyHostiles = new int[size];
+        nearestHostile = new double[size];
+        nearbyPlayers = new int[size];
+        nearestPlayer = new double[size];
+        nearbyAllies = new int[size];
+        healthTrend = new float[size];
+        recentDamage = new float[size];
+    }
+
+    public boolean isOnGround(int row) {
+        return onGround[row];
+    }
+
+    /** Solid blocks at feet level within {@link #NEAR_RADIUS} */
+    public int getObstacles(int row) {
+        return obstacles[row];
+    }
+
+    /** Fraction of solid blocks at feet level within {@link #COVER_RADIUS} */
+    public float getCover(int row) {
+        return cover[row];
+    }
+
+    public boolean isNearWater(int row) {
+        return nearWater[row];
+    }
+
+    public boolean isNearLava(int row) {
+        return nearLava[row];
+    }
+
+    public boolean isHazardBelow(int row) {
+        return hazardBelow[row];
+    }
+
+    public int getLight(int row) {
+        return light[row];
+    }
+
+    public int getNearbyEntities(int row) {
+        return nearbyEntities[row];
+    }
+
+    public int getNearbyHostiles(int row) {
+        return nearbyHostiles[row];
+    }
+
+    /** Distance to the nearest hostile in the same world; infinite when there is none */
+    public double getNearestHostile(int row) {
+        return nearestHostile[row];
+    }
+
+    public int getNearbyPlayers(int row) {
+        return nearbyPlayers[row];
+    }
+
+    /** Distance to the nearest player within {@link #PLAYER_RADIUS}; infinite when there is none */
+    public double getNearestPlayer(int row) {
+        return nearestPlayer[row];
+    }
+
+    /** Other batch rows within {@link #ALLY_RADIUS} */
+    public int getNearbyAllies(int row) {
+        return nearbyAllies[row];
+    }
+
+    /** Change of the health ratio since the entity's previous extraction */
+    public float getHealthTrend(int row) {
+        return healthTrend[row];
+    }
+
+    /** Exponentially decayed sum of recent health ratio losses */
+    public float getRecentDamage(int row) {
+        return recentDamage[row];
+    }
+
+    private static final class Memory {
+        float lastRatio;
+        float damage;
+        long lastSeen;
+    }
+}
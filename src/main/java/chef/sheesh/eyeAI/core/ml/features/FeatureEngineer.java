@@ -11,6 +11,10 @@ import java.util.*;
 /**
  * Feature engineering for ML models.
  * Extracts relevant features from game state for better ML performance.
+ * <p>
+ * These per-entity methods query the world directly and allocate per call; for extracting
+ * many entities per tick use {@link FeaturePipeline}, which fills one reused matrix from a
+ * single {@link WorldSnapshot}.
  */
 public final class FeatureEngineer {
 
@@ -213,10 +217,16 @@ public final class FeatureEngineer {
         double[] normalized = new double[features.length];
 
         // Z-score normalization (simplified)
-        double mean = Arrays.stream(features).average().orElse(0.0);
-        double std = Math.sqrt(Arrays.stream(features)
-            .map(x -> Math.pow(x - mean, 2))
-            .average().orElse(1.0));
+        double sum = 0.0;
+        for (double feature : features) {
+            sum += feature;
+        }
+        double mean = features.length > 0 ? sum / features.length : 0.0;
+        double squares = 0.0;
+        for (double feature : features) {
+            squares += (feature - mean) * (feature - mean);
+        }
+        double std = features.length > 0 ? Math.sqrt(squares / features.length) : 1.0;
 
         if (std == 0.0) {
             std = 1.0; // Avoid division by zero
@@ -246,12 +256,7 @@ public final class FeatureEngineer {
         }
 
         // Select features with highest variance
-        Integer[] indices = new Integer[features.length];
-        for (int i = 0; i < features.length; i++) {
-            indices[i] = i;
-        }
-
-        Arrays.sort(indices, Comparator.comparingDouble((Integer i) -> variances[i]).reversed());
+        int[] indices = FeatureImportanceService.rankDescending(variances);
 
         double[] selected = new double[maxFeatures];
         for (int i = 0; i < maxFeatures; i++) {
@@ -261,6 +266,13 @@ public final class FeatureEngineer {
         return selected;
     }
 
+    /**
+     * Keep the features a {@link FeatureImportanceService} mask selected for a model
+     */
+    public static double[] selectFeatures(double[] features, FeatureMask mask) {
+        return mask.select(features);
+    }
+
     // Private helper methods (implementations would be specific to your game mechanics)
 
     private static double[] calculateVelocity(FakePlayer fakePlayer) {
@@ -399,7 +411,7 @@ public final class FeatureEngineer {
         // Check nearby blocks for water
         for (int x = -2; x <= 2; x++) {
             for (int z = -2; z <= 2; z++) {
-                if (location.getWorld().getBlockAt(location.getBlockX() + x, location.getBlockY(), location.getBlockZ() + z).getType().toString().contains("WATER")) {
+                if (MaterialCategories.is(location.getWorld().getBlockAt(location.getBlockX() + x, location.getBlockY(), location.getBlockZ() + z).getType(), MaterialCategories.WATER)) {
                     return true;
                 }
             }
@@ -411,7 +423,7 @@ public final class FeatureEngineer {
         // Check nearby blocks for lava
         for (int x = -2; x <= 2; x++) {
             for (int z = -2; z <= 2; z++) {
-                if (location.getWorld().getBlockAt(location.getBlockX() + x, location.getBlockY(), location.getBlockZ() + z).getType().toString().contains("LAVA")) {
+                if (MaterialCategories.is(location.getWorld().getBlockAt(location.getBlockX() + x, location.getBlockY(), location.getBlockZ() + z).getType(), MaterialCategories.LAVA)) {
                     return true;
                 }
             }
@@ -0,0 +1,434 @@
+package chef.sheesh.eyeAI.core.ml.features;
+
+import chef.sheesh.eyeAI.core.ml.registry.ModelType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Background analysis of which features matter, over samples in a {@link FeatureSampleStore}.
+ * <p>
+ * Each pass drains only the samples added since the previous one: they update streaming
+ * correlations ({@link FeatureStatistics}) and a uniform reservoir. From those it computes
+ * permutation importance against a ridge-regression reward surrogate, mutual information with
+ * reward and with the chosen action, and picks a pruned {@link FeatureMask} per model type:
+ * features below a share of the total importance are dropped, and of strongly correlated
+ * pairs only the more important one is kept. Runs on one minimum-priority daemon thread.
+ */
+public final class FeatureImportanceService {
+
+    private static final Logger LOGGER = Logger.getLogger(FeatureImportanceService.class.getName());
+    private static final int MAX_ACTIONS = 64;
+
+    /**
+     * What a model's inputs should explain
+     */
+    public enum Target {
+        /** Value models: features that predict reward */
+        REWARD,
+        /** Policies: features that tell chosen actions apart */
+        ACTION
+    }
+
+    private final FeatureRegistry registry;
+    private final FeatureSampleStore store;
+    private final FeatureAnalysisConfig config;
+    private final int columns;
+    private final Map<ModelType, Target> targets = new EnumMap<>(ModelType.class);
+    private final ScheduledExecutorService executor;
+    /** Pass in flight, scheduled or requested, or null when idle */
+    private final AtomicReference<CompletableFuture<FeatureReport>> inFlight = new AtomicReference<>();
+    private volatile FeatureReport latest;
+
+    // Analysis thread only
+    private final FeatureStatistics statistics;
+    private final FeatureSampleStore.Batch batch = new FeatureSampleStore.Batch(1024);
+    private final float[] reservoir;
+    private final float[] reservoirRewards;
+    private final int[] reservoirActions;
+    private final Random random = new Random(42);
+    private int reservoirCount;
+    private long seen;
+    private long cursor;
+
+    public FeatureImportanceService(FeatureRegistry registry, FeatureSampleStore store, FeatureAnalysisConfig config) {
+        this.registry = registry;
+        this.store = store;
+        this.config = config;
+        this.columns = store.getColumns();
+        this.statistics = new FeatureStatistics(columns);
+        this.reservoir = new float[config.reservoirSize * columns];
+        this.reservoirRewards = new float[config.reservoirSize];
+        this.reservoirActions = new int[config.reservoirSize];
+        targets.put(ModelType.DQN, Target.REWARD);
+        targets.put(ModelType.Q_TABLE, Target.ACTION);
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ML-FeatureAnalysis");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Analyze periodically in the background
+     */
+    public void start() {
+        executor.scheduleWithFixedDelay(() -> {
+            // Already on the analysis thread, so run the pass inline; analyze() callers get its future
+            CompletableFuture<FeatureReport> future = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, future)) {
+                complete(future);
+            }
+        }, config.intervalSeconds, config.intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Run a pass now; while one is running, returns that pass instead of starting another
+     */
+    public CompletableFuture<FeatureReport> analyze() {
+        CompletableFuture<FeatureReport> future = new CompletableFuture<>();
+        while (!inFlight.compareAndSet(null, future)) {
+            CompletableFuture<FeatureReport> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+        }
+        try {
+            executor.execute(() -> complete(future));
+        } catch (RejectedExecutionException e) {
+            inFlight.compareAndSet(future, null);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Let a model type's mask be chosen for the given target
+     */
+    public synchronized void setTarget(ModelType type, Target target) {
+        targets.put(type, target);
+    }
+
+    /** Most recent report, or null before the first pass */
+    public FeatureReport getLatestReport() {
+        return latest;
+    }
+
+    /**
+     * Input mask for a model type; all features until enough samples were analyzed
+     */
+    public FeatureMask getMask(ModelType type) {
+        FeatureReport report = latest;
+        FeatureMask mask = report != null ? report.masks.get(type) : null;
+        return mask != null ? mask : FeatureMask.all(registry);
+    }
+
+    public FeatureSampleStore getStore() {
+        return store;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        // A requested pass that never started would otherwise leave its callers waiting
+        CompletableFuture<FeatureReport> pending = inFlight.getAndSet(null);
+        if (pending != null) {
+            pending.cancel(false);
+        }
+    }
+
+    // ===================== Analysis thread =====================
+
+    /**
+     * Run a pass for the future in flight; the slot is freed before callers are woken, on
+     * every path
+     */
+    private void complete(CompletableFuture<FeatureReport> future) {
+        FeatureReport report = null;
+        RuntimeException failure = null;
+        try {
+            report = runPass();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Feature analysis failed", e);
+            failure = e;
+        } finally {
+            inFlight.compareAndSet(future, null);
+        }
+        if (failure != null) {
+            future.completeExceptionally(failure);
+        } else {
+            future.complete(report);
+        }
+    }
+
+    private FeatureReport runPass() {
+        long available = store.getAddedCount();
+        while (cursor < available) {
+            long next = store.drain(cursor, batch);
+            for (int i = 0; i < batch.size; i++) {
+                statistics.accept(batch.features, i * columns, batch.rewards[i]);
+                offerReservoir(batch.features, i * columns, batch.rewards[i], batch.actions[i]);
+            }
+            if (next == cursor) {
+                break;
+            }
+            cursor = next;
+        }
+
+        double[] weights = statistics.fitRidge(config.ridge);
+        double[] permutation = new double[columns];
+        double r2 = permutationImportance(weights, permutation);
+        double[] rewardInformation = new double[columns];
+        double[] actionInformation = new double[columns];
+        double[] rewardCorrelation = new double[columns];
+        double[] correlation = new double[columns * columns];
+        for (int c = 0; c < columns; c++) {
+            rewardInformation[c] = mutualInformation(c, false);
+            actionInformation[c] = mutualInformation(c, true);
+            rewardCorrelation[c] = statistics.rewardCorrelation(c);
+            for (int d = 0; d < columns; d++) {
+                correlation[c * columns + d] = c == d ? 1.0 : statistics.correlation(c, d);
+            }
+        }
+
+        Map<ModelType, FeatureMask> masks = new EnumMap<>(ModelType.class);
+        if (statistics.getCount() >= config.minSamples) {
+            Map<ModelType, Target> snapshot;
+            synchronized (this) {
+                snapshot = new EnumMap<>(targets);
+            }
+            for (Map.Entry<ModelType, Target> entry : snapshot.entrySet()) {
+                double[] scores = entry.getValue() == Target.REWARD
+                        ? combine(share(permutation), share(rewardInformation))
+                        : share(actionInformation);
+                masks.put(entry.getKey(), selectMask(scores, correlation));
+            }
+        }
+        FeatureReport report = new FeatureReport(System.currentTimeMillis(), statistics.getCount(), registry.getNames(),
+                permutation, rewardInformation, actionInformation, rewardCorrelation, correlation, r2, masks);
+        latest = report;
+        return report;
+    }
+
+    /**
+     * Reservoir sampling (Algorithm R): every sample seen has equal chance to be in the reservoir
+     */
+    private void offerReservoir(float[] features, int offset, float reward, int action) {
+        seen++;
+        int slot;
+        if (reservoirCount < reservoirRewards.length) {
+            slot = reservoirCount++;
+        } else {
+            long pick = (long) (random.nextDouble() * seen);
+            if (pick >= reservoirRewards.length) {
+                return;
+            }
+            slot = (int) pick;
+        }
+        System.arraycopy(features, offset, reservoir, slot * columns, columns);
+        reservoirRewards[slot] = reward;
+        reservoirActions[slot] = action;
+    }
+
+    /**
+     * Fills {@code importance} with the MSE increase per shuffled column; returns the surrogate's R^2
+     */
+    private double permutationImportance(double[] weights, double[] importance) {
+        int n = reservoirCount;
+        if (n < 2) {
+            return 0.0;
+        }
+        double[] predictions = new double[n];
+        double baseError = 0.0;
+        double rewardMean = 0.0;
+        for (int i = 0; i < n; i++) {
+            double prediction = weights[columns];
+            int base = i * columns;
+            for (int c = 0; c < columns; c++) {
+                prediction += weights[c] * reservoir[base + c];
+            }
+            predictions[i] = prediction;
+            double error = prediction - reservoirRewards[i];
+            baseError += error * error;
+            rewardMean += reservoirRewards[i];
+        }
+        rewardMean /= n;
+        double variance = 0.0;
+        for (int i = 0; i < n; i++) {
+            double d = reservoirRewards[i] - rewardMean;
+            variance += d * d;
+        }
+
+        int[] order = new int[n];
+        for (int c = 0; c < columns; c++) {
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            // A linear model lets the shuffled prediction be patched instead of recomputed
+            double error = 0.0;
+            double w = weights[c];
+            for (int i = 0; i < n; i++) {
+                double shuffled = predictions[i] + w * (reservoir[order[i] * columns + c] - reservoir[i * columns + c]);
+                double e = shuffled - reservoirRewards[i];
+                error += e * e;
+            }
+            importance[c] = Math.max(0.0, (error - baseError) / n);
+        }
+        return variance > 1e-12 ? 1.0 - baseError / variance : 0.0;
+    }
+
+    /**
+     * Mutual information between a binned feature column and the binned reward or the action
+     */
+    private double mutualInformation(int column, boolean action) {
+        int n = reservoirCount;
+        if (n < 2) {
+            return 0.0;
+        }
+        int bins = config.bins;
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            float v = reservoir[i * columns + column];
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        if (max - min < 1e-9f) {
+            return 0.0;
+        }
+        float targetMin = Float.POSITIVE_INFINITY;
+        float targetMax = Float.NEGATIVE_INFINITY;
+        if (!action) {
+            for (int i = 0; i < n; i++) {
+                targetMin = Math.min(targetMin, reservoirRewards[i]);
+                targetMax = Math.max(targetMax, reservoirRewards[i]);
+            }
+            if (targetMax - targetMin < 1e-9f) {
+                return 0.0;
+            }
+        }
+        int targetBins = action ? MAX_ACTIONS : bins;
+        int[] joint = new int[bins * targetBins];
+        int[] featureCounts = new int[bins];
+        int[] targetCounts = new int[targetBins];
+        for (int i = 0; i < n; i++) {
+            int fb = bin(reservoir[i * columns + column], min, max, bins);
+            int tb = action
+                    ? Math.floorMod(reservoirActions[i], MAX_ACTIONS)
+                    : bin(reservoirRewards[i], targetMin, targetMax, bins);
+            joint[fb * targetBins + tb]++;
+            featureCounts[fb]++;
+            targetCounts[tb]++;
+        }
+        double information = 0.0;
+        for (int f = 0; f < bins; f++) {
+            if (featureCounts[f] == 0) {
+                continue;
+            }
+            for (int t = 0; t < targetBins; t++) {
+                int count = joint[f * targetBins + t];
+                if (count > 0) {
+                    information += (double) count / n * Math.log((double) count * n / ((double) featureCounts[f] * targetCounts[t]));
+                }
+            }
+        }
+        return Math.max(0.0, information);
+    }
+
+    private static int bin(float value, float min, float max, int bins) {
+        int b = (int) ((value - min) / (max - min) * bins);
+        return Math.min(bins - 1, Math.max(0, b));
+    }
+
+    private static double[] share(double[] values) {
+        double total = 0.0;
+        for (double value : values) {
+            total += value;
+        }
+        double[] result = new double[values.length];
+        if (total > 0) {
+            for (int i = 0; i < values.length; i++) {
+                result[i] = values[i] / total;
+            }
+        }
+        return result;
+    }
+
+    private static double[] combine(double[] a, double[] b) {
+        double[] result = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            result[i] = Math.max(a[i], b[i]);
+        }
+        return result;
+    }
+
+    private FeatureMask selectMask(double[] scores, double[] correlation) {
+        int[] order = rankDescending(scores);
+        boolean[] kept = new boolean[columns];
+        for (int c = 0; c < columns; c++) {
+            kept[c] = scores[c] >= config.minImportanceShare;
+        }
+        // Walk from most to least important, dropping weaker near-duplicates of kept features
+        for (int i = 0; i < columns; i++) {
+            int a = order[i];
+            if (!kept[a]) {
+                continue;
+            }
+            for (int j = i + 1; j < columns; j++) {
+                int b = order[j];
+                if (kept[b] && Math.abs(correlation[a * columns + b]) >= config.redundancyCorrelation) {
+                    kept[b] = false;
+                }
+            }
+        }
+        int count = 0;
+        for (boolean k : kept) {
+            if (k) {
+                count++;
+            }
+        }
+        for (int i = 0; i < columns && count < Math.min(config.minFeatures, columns); i++) {
+            if (!kept[order[i]]) {
+                kept[order[i]] = true;
+                count++;
+            }
+        }
+        return new FeatureMask(registry.getNames(), kept);
+    }
+
+    /**
+     * Column indices by descending score, without boxing
+     */
+    static int[] rankDescending(double[] scores) {
+        int[] order = new int[scores.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        // Insertion sort: feature counts are small and this keeps ties in column order
+        for (int i = 1; i < order.length; i++) {
+            int index = order[i];
+            int j = i - 1;
+            while (j >= 0 && scores[order[j]] < scores[index]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = index;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,109 @@
+package chef.sheesh.eyeAI.core.ml.features;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable selection of feature columns used as a model's input.
+ */
+public final class FeatureMask {
+
+    private final List<String> names;
+    private final boolean[] kept;
+    private final int[] indices;
+
+    public FeatureMask(List<String> names, boolean[] kept) {
+        if (names.size() != kept.length) {
+            throw new IllegalArgumentException("Mask has " + kept.length + " entries for " + names.size() + " features");
+        }
+        this.names = List.copyOf(names);
+        this.kept = kept.clone();
+        int count = 0;
+        for (boolean k : kept) {
+            if (k) {
+                count++;
+            }
+        }
+        this.indices = new int[count];
+        for (int i = 0, j = 0; i < kept.length; i++) {
+            if (kept[i]) {
+                indices[j++] = i;
+            }
+        }
+    }
+
+    /** Every feature of a registry */
+    public static FeatureMask all(FeatureRegistry registry) {
+        boolean[] kept = new boolean[registry.size()];
+        Arrays.fill(kept, true);
+        return new FeatureMask(registry.getNames(), kept);
+    }
+
+    public boolean isKept(int column) {
+        return kept[column];
+    }
+
+    /** Number of kept columns, i.e. the model input size */
+    public int size() {
+        return indices.length;
+    }
+
+    public int getTotal() {
+        return kept.length;
+    }
+
+    /** Source columns of the kept features, ascending */
+    public int[] getIndices() {
+        return indices.clone();
+    }
+
+    public List<String> getKeptNames() {
+        List<String> result = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            result.add(names.get(index));
+        }
+        return result;
+    }
+
+    public List<String> getDroppedNames() {
+        List<String> result = new ArrayList<>(kept.length - indices.length);
+        for (int i = 0; i < kept.length; i++) {
+            if (!kept[i]) {
+                result.add(names.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copy the kept columns of {@code source} into {@code target}; with column-major storage
+     * that is one array copy per kept feature
+     */
+    public FeatureMatrix select(FeatureMatrix source, FeatureMatrix target) {
+        int rows = source.getRows();
+        target.reshape(rows, indices.length);
+        float[] from = source.getData();
+        float[] to = target.getData();
+        for (int j = 0; j < indices.length; j++) {
+            System.arraycopy(from, indices[j] * rows, to, j * rows, rows);
+        }
+        return target;
+    }
+
+    /**
+     * Kept values of one full feature vector
+     */
+    public double[] select(double[] features) {
+        double[] result = new double[indices.length];
+        for (int j = 0; j < indices.length; j++) {
+            result[j] = features[indices[j]];
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "FeatureMask{" + indices.length + "/" + kept.length + " kept}";
+    }
+}
@@ -0,0 +1,88 @@
+package chef.sheesh.eyeAI.core.ml.features;
+
+import java.util.Arrays;
+
+/**
+ * Dense column-major {@code rows x columns} float matrix backed by a reused buffer.
+ * Column {@code c} occupies {@code data[c * rows .. (c + 1) * rows)}, so one feature of the
+ * whole batch is contiguous and the used prefix of {@link #getData()} is the full matrix.
+ */
+public final class FeatureMatrix {
+
+    private float[] data;
+    private int rows;
+    private int columns;
+
+    public FeatureMatrix(int rowCapacity, int columns) {
+        this.data = new float[Math.max(1, rowCapacity * columns)];
+        this.columns = columns;
+    }
+
+    /**
+     * Resize for a new batch; the buffer only grows, contents are not preserved
+     */
+    void reshape(int newRows, int newColumns) {
+        int needed = newRows * newColumns;
+        if (needed > data.length) {
+            data = new float[Math.max(needed, data.length + (data.length >> 1))];
+        }
+        rows = newRows;
+        columns = newColumns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Backing buffer; the first {@code rows * columns} entries are the matrix
+     */
+    public float[] getData() {
+        return data;
+    }
+
+    public int columnOffset(int column) {
+        return column * rows;
+    }
+
+    public float get(int row, int column) {
+        return data[column * rows + row];
+    }
+
+    public void set(int row, int column, float value) {
+        data[column * rows + row] = value;
+    }
+
+    /**
+     * Copy one entity's features, e.g. for a model taking a single state vector
+     */
+    public double[] copyRow(int row, double[] out) {
+        double[] target = out != null && out.length >= columns ? out : new double[columns];
+        for (int c = 0; c < columns; c++) {
+            target[c] = data[c * rows + row];
+        }
+        return target;
+    }
+
+    /**
+     * Copy the matrix row-major into {@code out}, for consumers that want one row per entity
+     */
+    public float[] copyRowMajor(float[] out) {
+        float[] target = out != null && out.length >= rows * columns ? out : new float[rows * columns];
+        for (int c = 0; c < columns; c++) {
+            int offset = c * rows;
+            for (int r = 0; r < rows; r++) {
+                target[r * columns + c] = data[offset + r];
+            }
+        }
+        return target;
+    }
+
+    public void clear() {
+        Arrays.fill(data, 0, rows * columns, 0f);
+    }
+}
@@ -0,0 +1,141 @@
+package chef.sheesh.eyeAI.core.ml.features;
+
+import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+
+/**
+ * Batch feature extraction: all entities of a tick into one column-major {@link FeatureMatrix}.
+ * <p>
+ * Usage on the main thread: {@link #begin}, {@link #add} each entity, then {@link #finish}.
+ * World state is read once per tick through a {@link WorldSnapshot}; derived neighbourhood values
+ * are computed once per row in {@link FeatureContext}; each registered feature then fills its
+ * column in one loop. The batch, matrix and snapshot buffers are reused, so steady-state
+ * extraction does not allocate per entity. Optionally each batch updates and applies
+ * {@link RunningNormalizer} statistics.
+ */
+public final class FeaturePipeline {
+
+    private final FeatureRegistry registry;
+    private final WorldSnapshot snapshot;
+    private final EntityBatch batch;
+    private final FeatureContext context;
+    private final FeatureMatrix matrix;
+    private final RunningNormalizer normalizer;
+    private boolean normalize = true;
+    private long tick;
+
+    public FeaturePipeline(FeatureRegistry registry) {
+        this(registry, 64, 20);
+    }
+
+    /**
+     * @param chunkRefreshTicks ticks a chunk snapshot is reused before it is captured again
+     */
+    public FeaturePipeline(FeatureRegistry registry, int initialCapacity, int chunkRefreshTicks) {
+        this.registry = registry;
+        this.snapshot = new WorldSnapshot(chunkRefreshTicks);
+        this.batch = new EntityBatch(initialCapacity);
+        this.context = new FeatureContext(batch, snapshot);
+        this.matrix = new FeatureMatrix(initialCapacity, registry.size());
+        this.normalizer = new RunningNormalizer(registry.size());
+    }
+
+    /** Start a batch one tick after the previous one */
+    public void begin() {
+        begin(tick + 1);
+    }
+
+    public void begin(long currentTick) {
+        this.tick = currentTick;
+        batch.clear();
+        snapshot.begin(currentTick);
+    }
+
+    /** Add a bot; returns its row or -1 when it was skipped */
+    public int add(FakePlayer bot) {
+        int row = batch.add(bot, snapshot);
+        if (row >= 0) {
+            ensureArea(row);
+        }
+        return row;
+    }
+
+    /** Add a real player; returns its row */
+    public int add(Player player) {
+        int row = batch.add(player, snapshot);
+        ensureArea(row);
+        return row;
+    }
+
+    private void ensureArea(int row) {
+        snapshot.ensureArea(batch.getWorld(row), (int) Math.floor(batch.getX(row)), (int) Math.floor(batch.getZ(row)),
+                FeatureContext.COVER_RADIUS);
+    }
+
+    /**
+     * Compute every registered feature for the rows added since {@link #begin}
+     */
+    public FeatureMatrix finish() {
+        int rows = batch.size();
+        int columns = registry.size();
+        matrix.reshape(rows, columns);
+        context.prepare(tick);
+        float[] data = matrix.getData();
+        for (int c = 0; c < columns; c++) {
+            FeatureRegistry.RowExtractor extractor = registry.get(c).extractor;
+            int offset = c * rows;
+            for (int r = 0; r < rows; r++) {
+                data[offset + r] = extractor.extract(context, r);
+            }
+        }
+        if (normalize) {
+            normalizer.update(matrix);
+            normalizer.apply(matrix);
+        }
+        return matrix;
+    }
+
+    /**
+     * Extract features of all live bots in one call
+     */
+    public FeatureMatrix extract(Collection<? extends FakePlayer> bots) {
+        begin();
+        for (FakePlayer bot : bots) {
+            if (bot.isAlive()) {
+                add(bot);
+            }
+        }
+        return finish();
+    }
+
+    /** Row inputs of the last extraction, e.g. to map rows back to entity ids */
+    public EntityBatch getBatch() {
+        return batch;
+    }
+
+    public FeatureMatrix getMatrix() {
+        return matrix;
+    }
+
+    public FeatureRegistry getRegistry() {
+        return registry;
+    }
+
+    public RunningNormalizer getNormalizer() {
+        return normalizer;
+    }
+
+    public WorldSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public void setNormalize(boolean normalize) {
+        this.normalize = normalize;
+    }
+
+    public boolean isNormalize() {
+        return normalize;
+    }
+}
@@ -0,0 +1,152 @@
+package chef.sheesh.eyeAI.core.ml.features;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ordered, named feature columns for {@link FeaturePipeline}.
+ * Each feature is a scalar per entity computed from a {@link FeatureContext}; its registration
+ * index is its column in the {@link FeatureMatrix}. Register everything before extraction starts.
+ */
+public final class FeatureRegistry {
+
+    public enum Group {
+        MOVEMENT, COMBAT, ENVIRONMENT, SOCIAL
+    }
+
+    /**
+     * Value of one feature for one batch row
+     */
+    @FunctionalInterface
+    public interface RowExtractor {
+        float extract(FeatureContext context, int row);
+    }
+
+    public static final class Feature {
+        public final String name;
+        public final Group group;
+        public final int index;
+        final RowExtractor extractor;
+
+        Feature(String name, Group group, int index, RowExtractor extractor) {
+            this.name = name;
+            this.group = group;
+            this.index = index;
+            this.extractor = extractor;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private final List<Feature> features = new ArrayList<>();
+    private final Map<String, Feature> byName = new HashMap<>();
+
+    public FeatureRegistry register(String name, Group group, RowExtractor extractor) {
+        if (byName.containsKey(name)) {
+            throw new IllegalArgumentException("Feature already registered: " + name);
+        }
+        Feature feature = new Feature(name, group, features.size(), extractor);
+        features.add(feature);
+        byName.put(name, feature);
+        return this;
+    }
+
+    public int size() {
+        return features.size();
+    }
+
+    public Feature get(int index) {
+        return features.get(index);
+    }
+
+    /** Column of a feature, or -1 */
+    public int indexOf(String name) {
+        Feature feature = byName.get(name);
+        return feature == null ? -1 : feature.index;
+    }
+
+    public List<Feature> getFeatures() {
+        return Collections.unmodifiableList(features);
+    }
+
+    public List<String> getNames() {
+        List<String> names = new ArrayList<>(features.size());
+        for (Feature feature : features) {
+            names.add(feature.name);
+        }
+        return names;
+    }
+
+    /**
+     * Movement, combat, environment and social features of bots and players, scaled to roughly [0, 1]
+     */
+    public static FeatureRegistry defaults() {
+        FeatureRegistry r = new FeatureRegistry();
+        r.register("movement.x", Group.MOVEMENT, (c, i) -> (float) (c.getBatch().x[i] / 10000.0));
+        r.register("movement.y", Group.MOVEMENT, (c, i) -> (float) (c.getBatch().y[i] / 256.0));
+        r.register("movement.z", Group.MOVEMENT, (c, i) -> (float) (c.getBatch().z[i] / 10000.0));
+        r.register("movement.vx", Group.MOVEMENT, (c, i) -> (float) c.getBatch().vx[i]);
+        r.register("movement.vy", Group.MOVEMENT, (c, i) -> (float) c.getBatch().vy[i]);
+        r.register("movement.vz", Group.MOVEMENT, (c, i) -> (float) c.getBatch().vz[i]);
+        r.register("movement.yaw", Group.MOVEMENT, (c, i) -> floorMod(c.getBatch().yaw[i], 360f) / 360f);
+        r.register("movement.pitch", Group.MOVEMENT, (c, i) -> (c.getBatch().pitch[i] + 90f) / 180f);
+        r.register("movement.alive", Group.MOVEMENT, (c, i) -> c.getBatch().alive[i] ? 1f : 0f);
+        r.register("movement.onGround", Group.MOVEMENT, (c, i) -> c.onGround[i] ? 1f : 0f);
+        r.register("movement.obstacles", Group.MOVEMENT, (c, i) -> c.obstacles[i] / 25f);
+
+        r.register("combat.health", Group.COMBAT, (c, i) -> healthRatio(c.getBatch(), i));
+        r.register("combat.healthTrend", Group.COMBAT, (c, i) -> c.healthTrend[i]);
+        r.register("combat.recentDamage", Group.COMBAT, (c, i) -> c.recentDamage[i]);
+        r.register("combat.nearbyEntities", Group.COMBAT, (c, i) -> c.nearbyEntities[i] / 10f);
+        r.register("combat.nearbyHostiles", Group.COMBAT, (c, i) -> c.nearbyHostiles[i] / 10f);
+        r.register("combat.hostileDistance", Group.COMBAT, (c, i) -> (float) Math.min(1.0, c.nearestHostile[i] / 50.0));
+        r.register("combat.inCombat", Group.COMBAT, (c, i) -> c.getBatch().inCombat[i] ? 1f : 0f);
+        r.register("combat.hasTarget", Group.COMBAT, (c, i) -> c.getBatch().hasTarget(i) ? 1f : 0f);
+        r.register("combat.targetDistance", Group.COMBAT, FeatureRegistry::targetDistance);
+
+        r.register("environment.time", Group.ENVIRONMENT, (c, i) -> c.getWorld().getTime(c.getBatch().world[i]) / 24000f);
+        r.register("environment.night", Group.ENVIRONMENT, (c, i) -> isNight(c.getWorld().getTime(c.getBatch().world[i])) ? 1f : 0f);
+        r.register("environment.light", Group.ENVIRONMENT, (c, i) -> c.light[i] / 15f);
+        r.register("environment.thunder", Group.ENVIRONMENT, (c, i) -> c.getWorld().isThundering(c.getBatch().world[i]) ? 1f : 0f);
+        r.register("environment.storm", Group.ENVIRONMENT, (c, i) -> c.getWorld().hasStorm(c.getBatch().world[i]) ? 1f : 0f);
+        r.register("environment.nearWater", Group.ENVIRONMENT, (c, i) -> c.nearWater[i] ? 1f : 0f);
+        r.register("environment.nearLava", Group.ENVIRONMENT, (c, i) -> c.nearLava[i] ? 1f : 0f);
+        r.register("environment.hazardBelow", Group.ENVIRONMENT, (c, i) -> c.hazardBelow[i] ? 1f : 0f);
+        r.register("environment.cover", Group.ENVIRONMENT, (c, i) -> c.cover[i]);
+
+        r.register("social.nearbyPlayers", Group.SOCIAL, (c, i) -> c.nearbyPlayers[i] / 10f);
+        r.register("social.playerDistance", Group.SOCIAL, (c, i) -> (float) Math.min(1.0, c.nearestPlayer[i] / FeatureContext.PLAYER_RADIUS));
+        r.register("social.nearbyAllies", Group.SOCIAL, (c, i) -> c.nearbyAllies[i] / 10f);
+        return r;
+    }
+
+    private static float healthRatio(EntityBatch batch, int row) {
+        return batch.maxHealth[row] > 0 ? batch.health[row] / batch.maxHealth[row] : 0f;
+    }
+
+    private static float targetDistance(FeatureContext context, int row) {
+        EntityBatch batch = context.getBatch();
+        if (!batch.hasTarget(row)) {
+            return 1f;
+        }
+        double dx = batch.targetX[row] - batch.x[row];
+        double dy = batch.targetY[row] - batch.y[row];
+        double dz = batch.targetZ[row] - batch.z[row];
+        return (float) Math.min(1.0, Math.sqrt(dx * dx + dy * dy + dz * dz) / 50.0);
+    }
+
+    private static boolean isNight(long time) {
+        return time > 13000 && time < 23000;
+    }
+
+    private static float floorMod(float value, float modulus) {
+        float result = value % modulus;
+        return result < 0 ? result + modulus : result;
+    }
+}
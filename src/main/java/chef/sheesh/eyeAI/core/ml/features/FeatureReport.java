@@ -0,0 +1,55 @@
+package chef.sheesh.eyeAI.core.ml.features;
+
+import chef.sheesh.eyeAI.core.ml.registry.ModelType;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of one feature analysis pass. Arrays are indexed by feature column.
+ */
+public class FeatureReport {
+    public final long timestamp;
+    /** Samples folded into the statistics so far */
+    public final long samples;
+    public final List<String> names;
+    /** Increase in surrogate MSE when the column is shuffled */
+    public final double[] permutationImportance;
+    /** Mutual information with the reward, in nats */
+    public final double[] rewardInformation;
+    /** Mutual information with the chosen action, in nats */
+    public final double[] actionInformation;
+    public final double[] rewardCorrelation;
+    /** Pearson correlation between features, row-major */
+    public final double[] correlation;
+    /** Fit of the linear reward surrogate on the reservoir */
+    public final double surrogateR2;
+    /** Chosen masks; empty until enough samples were seen */
+    public final Map<ModelType, FeatureMask> masks;
+
+    public FeatureReport(long timestamp, long samples, List<String> names, double[] permutationImportance,
+                         double[] rewardInformation, double[] actionInformation, double[] rewardCorrelation,
+                         double[] correlation, double surrogateR2, Map<ModelType, FeatureMask> masks) {
+        this.timestamp = timestamp;
+        this.samples = samples;
+        this.names = names;
+        this.permutationImportance = permutationImportance;
+        this.rewardInformation = rewardInformation;
+        this.actionInformation = actionInformation;
+        this.rewardCorrelation = rewardCorrelation;
+        this.correlation = correlation;
+        this.surrogateR2 = surrogateR2;
+        this.masks = Collections.unmodifiableMap(masks);
+    }
+
+    public double correlation(int a, int b) {
+        return correlation[a * names.size() + b];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FeatureReport{samples=%d, features=%d, r2=%.3f, masks=%s}",
+                samples, names.size(), surrogateR2, masks);
+    }
+}
@@ -0,0 +1,100 @@
+package chef.sheesh.eyeAI.core.ml.features;
+
+/**
+ * Bounded ring of (feature row, action, reward) samples for feature analysis.
+ * Rows are copied out of a {@link FeatureMatrix} on the tick thread; readers drain new rows
+ * with a cursor, so an analysis pass only touches samples it has not seen yet.
+ */
+public final class FeatureSampleStore {
+
+    private final int columns;
+    private final int capacity;
+    private final float[] features;
+    private final int[] actions;
+    private final float[] rewards;
+    private long added;
+
+    public FeatureSampleStore(int columns, int capacity) {
+        this.columns = columns;
+        this.capacity = Math.max(1, capacity);
+        this.features = new float[this.capacity * columns];
+        this.actions = new int[this.capacity];
+        this.rewards = new float[this.capacity];
+    }
+
+    /**
+     * Record the state features of one matrix row with the action taken and the reward it earned
+     */
+    public synchronized void add(FeatureMatrix matrix, int row, int action, double reward) {
+        if (matrix.getColumns() != columns) {
+            throw new IllegalArgumentException("Expected " + columns + " feature columns, got " + matrix.getColumns());
+        }
+        int slot = (int) (added % capacity);
+        float[] data = matrix.getData();
+        int rows = matrix.getRows();
+        int base = slot * columns;
+        for (int c = 0; c < columns; c++) {
+            features[base + c] = data[c * rows + row];
+        }
+        actions[slot] = action;
+        rewards[slot] = (float) reward;
+        added++;
+    }
+
+    /**
+     * Copy samples added after {@code cursor} into {@code out}, oldest first, up to its capacity.
+     * Samples already overwritten are skipped. Returns the cursor to pass next time.
+     */
+    public synchronized long drain(long cursor, Batch out) {
+        long from = Math.max(cursor, added - capacity);
+        int count = (int) Math.min(added - from, out.capacity);
+        out.ensureColumns(columns);
+        for (int i = 0; i < count; i++) {
+            int slot = (int) ((from + i) % capacity);
+            System.arraycopy(features, slot * columns, out.features, i * columns, columns);
+            out.actions[i] = actions[slot];
+            out.rewards[i] = rewards[slot];
+        }
+        out.size = count;
+        return from + count;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public synchronized int size() {
+        return (int) Math.min(added, capacity);
+    }
+
+    public synchronized long getAddedCount() {
+        return added;
+    }
+
+    /**
+     * Row-major staging buffer for {@link #drain}
+     */
+    public static final class Batch {
+        final int capacity;
+        float[] features = new float[0];
+        final int[] actions;
+        final float[] rewards;
+        int size;
+
+        public Batch(int capacity) {
+            this.capacity = capacity;
+            this.actions = new int[capacity];
+            this.rewards = new float[capacity];
+        }
+
+        void ensureColumns(int columns) {
+            if (features.length < capacity * columns) {
+                features = new float[capacity * columns];
+            }
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package chef.sheesh.eyeAI.core.ml.features;
+
+/**
+ * Streaming means and co-moments of the feature columns and the reward.
+ * Updated one sample at a time (Welford), so correlations and the linear reward surrogate
+ * are available at any point without revisiting old samples.
+ */
+public final class FeatureStatistics {
+
+    private final int columns;
+    // Columns 0..columns-1 are features, the last one is the reward
+    private final int width;
+    private final double[] mean;
+    private final double[] comoment;
+    private final double[] delta;
+    private long count;
+
+    public FeatureStatistics(int columns) {
+        this.columns = columns;
+        this.width = columns + 1;
+        this.mean = new double[width];
+        this.comoment = new double[width * width];
+        this.delta = new double[width];
+    }
+
+    /**
+     * Add one sample: {@code columns} features starting at {@code offset}, plus its reward
+     */
+    public void accept(float[] features, int offset, double reward) {
+        count++;
+        for (int i = 0; i < width; i++) {
+            double value = i < columns ? features[offset + i] : reward;
+            delta[i] = value - mean[i];
+            mean[i] += delta[i] / count;
+        }
+        for (int i = 0; i < width; i++) {
+            double after = (i < columns ? features[offset + i] : reward) - mean[i];
+            int row = i * width;
+            for (int j = 0; j < width; j++) {
+                comoment[row + j] += delta[j] * after;
+            }
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public double getMean(int column) {
+        return mean[column];
+    }
+
+    public double getVariance(int column) {
+        return count > 1 ? comoment[column * width + column] / count : 0.0;
+    }
+
+    /** Pearson correlation of two features; 0 when either is constant */
+    public double correlation(int a, int b) {
+        double denominator = Math.sqrt(comoment[a * width + a] * comoment[b * width + b]);
+        return denominator > 1e-12 ? comoment[a * width + b] / denominator : 0.0;
+    }
+
+    /** Pearson correlation of a feature with the reward */
+    public double rewardCorrelation(int column) {
+        return correlation(column, columns);
+    }
+
+    /**
+     * Ridge regression of reward on the features. Returns {@code columns} weights followed by the intercept.
+     */
+    public double[] fitRidge(double lambda) {
+        int n = columns;
+        double[] a = new double[n * n];
+        double[] b = new double[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a[i * n + j] = comoment[i * width + j];
+            }
+            a[i * n + i] += lambda * Math.max(1, count);
+            b[i] = comoment[i * width + columns];
+        }
+        double[] weights = solveCholesky(a, b, n);
+        double[] result = new double[n + 1];
+        double intercept = mean[columns];
+        for (int i = 0; i < n; i++) {
+            result[i] = weights[i];
+            intercept -= weights[i] * mean[i];
+        }
+        result[n] = intercept;
+        return result;
+    }
+
+    /**
+     * Solve {@code A x = b} for symmetric positive definite A (row-major, n x n); A is overwritten
+     */
+    private static double[] solveCholesky(double[] a, double[] b, int n) {
+        for (int j = 0; j < n; j++) {
+            double diagonal = a[j * n + j];
+            for (int k = 0; k < j; k++) {
+                diagonal -= a[j * n + k] * a[j * n + k];
+            }
+            double l = Math.sqrt(Math.max(diagonal, 1e-12));
+            a[j * n + j] = l;
+            for (int i = j + 1; i < n; i++) {
+                double sum = a[i * n + j];
+                for (int k = 0; k < j; k++) {
+                    sum -= a[i * n + k] * a[j * n + k];
+                }
+                a[i * n + j] = sum / l;
+            }
+        }
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            double sum = b[i];
+            for (int k = 0; k < i; k++) {
+                sum -= a[i * n + k] * y[k];
+            }
+            y[i] = sum / a[i * n + i];
+        }
+        double[] x = new double[n];
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = y[i];
+            for (int k = i + 1; k < n; k++) {
+                sum -= a[k * n + i] * x[k];
+            }
+            x[i] = sum / a[i * n + i];
+        }
+        return x;
+    }
+}
@@ -0,0 +1,78 @@
+package chef.sheesh.eyeAI.core.ml.features;
+
+import org.bukkit.Material;
+
+/**
+ * Category bit flags per {@link Material}, computed once so feature extraction
+ * never touches material names or block state at runtime.
+ */
+public final class MaterialCategories {
+
+    public static final int SOLID = 1;
+    public static final int WATER = 1 << 1;
+    public static final int LAVA = 1 << 2;
+    /** Blocks that hurt when walked into or on */
+    public static final int HAZARD = 1 << 3;
+    public static final int CLIMBABLE = 1 << 4;
+    /** Neither solid nor liquid: air, plants, signs */
+    public static final int PASSABLE = 1 << 5;
+
+    private static final byte[] FLAGS;
+
+    static {
+        Material[] materials = Material.values();
+        FLAGS = new byte[materials.length];
+        for (Material material : materials) {
+            FLAGS[material.ordinal()] = (byte) classify(material);
+        }
+    }
+
+    private MaterialCategories() {
+    }
+
+    public static int flags(Material material) {
+        return material == null ? PASSABLE : FLAGS[material.ordinal()];
+    }
+
+    public static boolean is(Material material, int category) {
+        return (flags(material) & category) != 0;
+    }
+
+    private static int classify(Material material) {
+        if (material.isLegacy()) {
+            return 0;
+        }
+        String name = material.name();
+        int flags = 0;
+        boolean solid;
+        try {
+            solid = material.isBlock() && material.isSolid();
+        } catch (RuntimeException e) {
+            solid = false;
+        }
+        if (solid) {
+            flags |= SOLID;
+        }
+        if (material == Material.WATER || material == Material.BUBBLE_COLUMN
+                || material == Material.KELP || material == Material.KELP_PLANT
+                || material == Material.SEAGRASS || material == Material.TALL_SEAGRASS) {
+            flags |= WATER;
+        }
+        if (material == Material.LAVA) {
+            flags |= LAVA | HAZARD;
+        }
+        if (material == Material.FIRE || material == Material.SOUL_FIRE || material == Material.CACTUS
+                || material == Material.SWEET_BERRY_BUSH || material == Material.WITHER_ROSE
+                || material == Material.POWDER_SNOW || name.contains("MAGMA") || name.endsWith("CAMPFIRE")) {
+            flags |= HAZARD;
+        }
+        if (material == Material.LADDER || material == Material.VINE || material == Material.SCAFFOLDING
+                || name.startsWith("TWISTING_VINES") || name.startsWith("WEEPING_VINES")) {
+            flags |= CLIMBABLE;
+        }
+        if (!solid && (flags & (WATER | LAVA)) == 0) {
+            flags |= PASSABLE;
+        }
+        return flags;
+    }
+}
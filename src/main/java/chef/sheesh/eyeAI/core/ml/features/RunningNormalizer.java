@@ -0,0 +1,119 @@
+package chef.sheesh.eyeAI.core.ml.features;
+
+import java.util.Arrays;
+
+/**
+ * Per-column running mean and variance for z-score normalization.
+ * Each batch is reduced to its own mean and squared deviation and merged into the totals
+ * (Chan et al.), so updating costs one pass over the batch regardless of history length.
+ */
+public final class RunningNormalizer {
+
+    private static final double EPSILON = 1e-8;
+
+    private long[] counts;
+    private double[] means;
+    private double[] m2;
+    private double clip = 5.0;
+    private boolean frozen;
+
+    public RunningNormalizer(int columns) {
+        counts = new long[columns];
+        means = new double[columns];
+        m2 = new double[columns];
+    }
+
+    /**
+     * Fold the rows of {@code matrix} into the statistics, unless frozen
+     */
+    public synchronized void update(FeatureMatrix matrix) {
+        int rows = matrix.getRows();
+        if (frozen || rows == 0) {
+            return;
+        }
+        ensureColumns(matrix.getColumns());
+        float[] data = matrix.getData();
+        for (int c = 0; c < matrix.getColumns(); c++) {
+            int offset = matrix.columnOffset(c);
+            double sum = 0.0;
+            for (int r = 0; r < rows; r++) {
+                sum += data[offset + r];
+            }
+            double batchMean = sum / rows;
+            double batchM2 = 0.0;
+            for (int r = 0; r < rows; r++) {
+                double d = data[offset + r] - batchMean;
+                batchM2 += d * d;
+            }
+            long n = counts[c];
+            long total = n + rows;
+            double delta = batchMean - means[c];
+            means[c] += delta * rows / total;
+            m2[c] += batchM2 + delta * delta * ((double) n * rows / total);
+            counts[c] = total;
+        }
+    }
+
+    /**
+     * Normalize {@code matrix} in place with the current statistics, clipping to +-clip standard deviations
+     */
+    public synchronized void apply(FeatureMatrix matrix) {
+        int rows = matrix.getRows();
+        ensureColumns(matrix.getColumns());
+        float[] data = matrix.getData();
+        for (int c = 0; c < matrix.getColumns(); c++) {
+            if (counts[c] < 2) {
+                continue;
+            }
+            float mean = (float) means[c];
+            float scale = (float) (1.0 / Math.sqrt(m2[c] / counts[c] + EPSILON));
+            float limit = (float) clip;
+            int offset = matrix.columnOffset(c);
+            for (int r = 0; r < rows; r++) {
+                float z = (data[offset + r] - mean) * scale;
+                data[offset + r] = Math.max(-limit, Math.min(limit, z));
+            }
+        }
+    }
+
+    public synchronized double getMean(int column) {
+        return column < means.length ? means[column] : 0.0;
+    }
+
+    public synchronized double getStd(int column) {
+        return column < counts.length && counts[column] > 0 ? Math.sqrt(m2[column] / counts[column]) : 0.0;
+    }
+
+    public synchronized long getCount(int column) {
+        return column < counts.length ? counts[column] : 0;
+    }
+
+    /**
+     * Stop updating, e.g. to keep inference inputs comparable with what a model was trained on
+     */
+    public synchronized void setFrozen(boolean frozen) {
+        this.frozen = frozen;
+    }
+
+    public synchronized boolean isFrozen() {
+        return frozen;
+    }
+
+    public synchronized void setClip(double clip) {
+        this.clip = clip;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(means, 0.0);
+        Arrays.fill(m2, 0.0);
+    }
+
+    private void ensureColumns(int columns) {
+        if (columns > counts.length) {
+            counts = Arrays.copyOf(counts, columns);
+            means = Arrays.copyOf(means, columns);
+            m2 = Arrays.copyOf(m2, columns);
+        }
+    }
+}
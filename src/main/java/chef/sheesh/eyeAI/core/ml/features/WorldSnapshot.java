@@ -0,0 +1,256 @@
+package chef.sheesh.eyeAI.core.ml.features;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Monster;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-tick view of the worlds feature extraction reads from.
+ * <p>
+ * World state (time, weather, living entity positions) is captured once per world per tick,
+ * and chunks around the extracted entities are kept as {@link ChunkSnapshot}s that are refreshed
+ * every {@code refreshTicks}. Block queries are then array lookups into the snapshot plus a
+ * {@link MaterialCategories} table, with no {@code getBlockAt} calls.
+ * Not thread-safe: capture and extraction both run on the main thread.
+ */
+public final class WorldSnapshot {
+
+    public static final byte KIND_OTHER = 0;
+    public static final byte KIND_HOSTILE = 1;
+    public static final byte KIND_PLAYER = 2;
+
+    private final int refreshTicks;
+    private final List<WorldView> worlds = new ArrayList<>();
+    private final Location scratch = new Location(null, 0, 0, 0);
+    private long tick;
+
+    public WorldSnapshot(int refreshTicks) {
+        this.refreshTicks = Math.max(1, refreshTicks);
+    }
+
+    /**
+     * Start a new tick; world state is recaptured lazily on first use
+     */
+    public void begin(long tick) {
+        this.tick = tick;
+        Iterator<WorldView> it = worlds.iterator();
+        while (it.hasNext()) {
+            WorldView view = it.next();
+            if (tick - view.usedTick > refreshTicks * 4L) {
+                // Do not keep unloaded worlds alive through this cache
+                it.remove();
+                continue;
+            }
+            view.captured = false;
+            view.lastKey = Long.MIN_VALUE;
+            view.chunks.values().removeIf(chunk -> tick - chunk.usedTick > refreshTicks * 4L);
+        }
+        for (int i = 0; i < worlds.size(); i++) {
+            worlds.get(i).index = i;
+        }
+    }
+
+    /**
+     * Index of a world for this tick, capturing its state on first use
+     */
+    public int worldIndex(World world) {
+        for (int i = 0; i < worlds.size(); i++) {
+            WorldView view = worlds.get(i);
+            if (view.world == world) {
+                if (!view.captured) {
+                    capture(view);
+                }
+                return i;
+            }
+        }
+        WorldView view = new WorldView(world);
+        view.index = worlds.size();
+        worlds.add(view);
+        capture(view);
+        return view.index;
+    }
+
+    private void capture(WorldView view) {
+        World world = view.world;
+        view.captured = true;
+        view.usedTick = tick;
+        view.time = world.getTime();
+        view.storm = world.hasStorm();
+        view.thundering = world.isThundering();
+        view.minHeight = world.getMinHeight();
+        view.maxHeight = world.getMaxHeight();
+        view.entityCount = 0;
+        for (LivingEntity entity : world.getLivingEntities()) {
+            Location location = entity.getLocation(scratch);
+            byte kind = entity instanceof Player ? KIND_PLAYER : entity instanceof Monster ? KIND_HOSTILE : KIND_OTHER;
+            view.addEntity(kind, location.getX(), location.getY(), location.getZ());
+        }
+    }
+
+    /**
+     * Make sure chunks within {@code radius} blocks of a column are snapshotted. Unloaded chunks are skipped.
+     */
+    public void ensureArea(int world, int blockX, int blockZ, int radius) {
+        WorldView view = worlds.get(world);
+        for (int cx = (blockX - radius) >> 4; cx <= (blockX + radius) >> 4; cx++) {
+            for (int cz = (blockZ - radius) >> 4; cz <= (blockZ + radius) >> 4; cz++) {
+                long key = chunkKey(cx, cz);
+                CachedChunk chunk = view.chunks.get(key);
+                if (chunk == null || tick - chunk.capturedTick >= refreshTicks) {
+                    if (!view.world.isChunkLoaded(cx, cz)) {
+                        continue;
+                    }
+                    if (chunk == null) {
+                        chunk = new CachedChunk();
+                        view.chunks.put(key, chunk);
+                    }
+                    chunk.snapshot = view.world.getChunkAt(cx, cz).getChunkSnapshot(false, false, false);
+                    chunk.capturedTick = tick;
+                    view.lastKey = Long.MIN_VALUE;
+                }
+                chunk.usedTick = tick;
+            }
+        }
+    }
+
+    /**
+     * {@link MaterialCategories} flags of a block; 0 when its chunk was not snapshotted
+     */
+    public int flagsAt(int world, int x, int y, int z) {
+        WorldView view = worlds.get(world);
+        if (y < view.minHeight || y >= view.maxHeight) {
+            return MaterialCategories.PASSABLE;
+        }
+        ChunkSnapshot snapshot = view.chunk(x >> 4, z >> 4);
+        return snapshot == null ? 0 : MaterialCategories.flags(snapshot.getBlockType(x & 15, y, z & 15));
+    }
+
+    /**
+     * Brightest of sky and block light at a block, 0-15
+     */
+    public int lightAt(int world, int x, int y, int z) {
+        WorldView view = worlds.get(world);
+        if (y < view.minHeight || y >= view.maxHeight) {
+            return y >= view.maxHeight ? 15 : 0;
+        }
+        ChunkSnapshot snapshot = view.chunk(x >> 4, z >> 4);
+        if (snapshot == null) {
+            return 0;
+        }
+        return Math.max(snapshot.getBlockSkyLight(x & 15, y, z & 15), snapshot.getBlockEmittedLight(x & 15, y, z & 15));
+    }
+
+    public int getWorldCount() {
+        return worlds.size();
+    }
+
+    public long getTime(int world) {
+        return worlds.get(world).time;
+    }
+
+    public boolean hasStorm(int world) {
+        return worlds.get(world).storm;
+    }
+
+    public boolean isThundering(int world) {
+        return worlds.get(world).thundering;
+    }
+
+    public int getEntityCount(int world) {
+        return worlds.get(world).entityCount;
+    }
+
+    public byte getEntityKind(int world, int i) {
+        return worlds.get(world).kinds[i];
+    }
+
+    public double getEntityX(int world, int i) {
+        return worlds.get(world).xs[i];
+    }
+
+    public double getEntityY(int world, int i) {
+        return worlds.get(world).ys[i];
+    }
+
+    public double getEntityZ(int world, int i) {
+        return worlds.get(world).zs[i];
+    }
+
+    public int getCachedChunks() {
+        int total = 0;
+        for (WorldView view : worlds) {
+            total += view.chunks.size();
+        }
+        return total;
+    }
+
+    private static long chunkKey(int cx, int cz) {
+        return ((long) cx << 32) ^ (cz & 0xFFFFFFFFL);
+    }
+
+    private static final class CachedChunk {
+        ChunkSnapshot snapshot;
+        long capturedTick;
+        long usedTick;
+    }
+
+    private static final class WorldView {
+        final World world;
+        final Map<Long, CachedChunk> chunks = new HashMap<>();
+        int index;
+        boolean captured;
+        long usedTick;
+        long time;
+        boolean storm;
+        boolean thundering;
+        int minHeight;
+        int maxHeight;
+        int entityCount;
+        byte[] kinds = new byte[64];
+        double[] xs = new double[64];
+        double[] ys = new double[64];
+        double[] zs = new double[64];
+        // Neighbouring lookups mostly hit the same chunk
+        long lastKey = Long.MIN_VALUE;
+        ChunkSnapshot lastChunk;
+
+        WorldView(World world) {
+            this.world = world;
+        }
+
+        void addEntity(byte kind, double x, double y, double z) {
+            if (entityCount == kinds.length) {
+                int size = entityCount * 2;
+                kinds = Arrays.copyOf(kinds, size);
+                xs = Arrays.copyOf(xs, size);
+                ys = Arrays.copyOf(ys, size);
+                zs = Arrays.copyOf(zs, size);
+            }
+            kinds[entityCount] = kind;
+            xs[entityCount] = x;
+            ys[entityCount] = y;
+            zs[entityCount] = z;
+            entityCount++;
+        }
+
+        ChunkSnapshot chunk(int cx, int cz) {
+            long key = chunkKey(cx, cz);
+            if (key != lastKey) {
+                CachedChunk cached = chunks.get(key);
+                lastKey = key;
+                lastChunk = cached == null ? null : cached.snapshot;
+            }
+            return lastChunk;
+        }
+    }
+}
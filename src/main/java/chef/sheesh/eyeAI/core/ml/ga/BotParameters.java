@@ -0,0 +1,108 @@
+package chef.sheesh.eyeAI.core.ml.ga;
+
+import chef.sheesh.eyeAI.ai.core.personality.Personality;
+import chef.sheesh.eyeAI.core.ml.rl.RewardModel;
+
+/**
+ * Bot parameters decoded from a genome.
+ * Every gene is in [0, 1] and is mapped linearly onto the range of one parameter:
+ * personality traits, reward model weights, the epsilon schedule and the learning rates.
+ */
+public final class BotParameters {
+
+    /** Number of genes a genome needs to be decoded into bot parameters. */
+    public static final int GENE_COUNT = 14;
+
+    // Personality traits, same scale as Personality modifiers
+    public final double aggression;
+    public final double defensive;
+    public final double strategic;
+    public final double chaotic;
+
+    // RewardModel weights
+    public final double combatWeight;
+    public final double movementWeight;
+    public final double survivalWeight;
+    public final double explorationWeight;
+    public final double timePenaltyWeight;
+
+    // Exploration schedule, applied per episode
+    public final double epsilonStart;
+    public final double epsilonDecay;
+    public final double epsilonMin;
+
+    public final double learningRate;
+    public final double discountFactor;
+
+    private BotParameters(double[] g) {
+        this.aggression = scale(g[0], 0.0, 2.0);
+        this.defensive = scale(g[1], 0.0, 2.0);
+        this.strategic = scale(g[2], 0.0, 2.0);
+        this.chaotic = scale(g[3], 0.0, 2.0);
+        this.combatWeight = scale(g[4], 0.0, 2.0);
+        this.movementWeight = scale(g[5], 0.0, 2.0);
+        this.survivalWeight = scale(g[6], 0.0, 3.0);
+        this.explorationWeight = scale(g[7], 0.0, 1.0);
+        this.timePenaltyWeight = scale(g[8], -0.05, 0.0);
+        this.epsilonStart = scale(g[9], 0.05, 1.0);
+        this.epsilonDecay = scale(g[10], 0.90, 0.999);
+        this.epsilonMin = scale(g[11], 0.0, 0.2);
+        this.learningRate = scale(g[12], 0.01, 0.5);
+        this.discountFactor = scale(g[13], 0.80, 0.999);
+    }
+
+    /**
+     * Decode genes into parameters; values outside [0, 1] are clamped
+     */
+    public static BotParameters decode(double[] genes) {
+        if (genes.length < GENE_COUNT) {
+            throw new IllegalArgumentException("Genome has " + genes.length + " genes, need " + GENE_COUNT);
+        }
+        return new BotParameters(genes);
+    }
+
+    /**
+     * Copy the reward weights into a live reward model
+     */
+    public void applyTo(RewardModel rewardModel) {
+        rewardModel.setCombatRewardWeight(combatWeight);
+        rewardModel.setMovementRewardWeight(movementWeight);
+        rewardModel.setSurvivalRewardWeight(survivalWeight);
+        rewardModel.setExplorationRewardWeight(explorationWeight);
+        rewardModel.setTimePenaltyWeight(timePenaltyWeight);
+    }
+
+    /**
+     * The predefined personality whose trait modifiers are closest to the evolved traits
+     */
+    public Personality nearestPersonality() {
+        Personality nearest = Personality.STRATEGIC;
+        double best = Double.MAX_VALUE;
+        for (Personality personality : Personality.values()) {
+            double da = personality.getAggressionModifier() - aggression;
+            double dd = personality.getDefensiveModifier() - defensive;
+            double ds = personality.getStrategicModifier() - strategic;
+            double dc = personality.getChaoticModifier() - chaotic;
+            double distance = da * da + dd * dd + ds * ds + dc * dc;
+            if (distance < best) {
+                best = distance;
+                nearest = personality;
+            }
+        }
+        return nearest;
+    }
+
+    private static double scale(double gene, double min, double max) {
+        double clamped = Math.max(0.0, Math.min(1.0, gene));
+        return min + clamped * (max - min);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BotParameters{traits=[%.2f, %.2f, %.2f, %.2f], weights=[%.2f, %.2f, %.2f, %.2f, %.3f], " +
+                        "epsilon=%.2f*%.3f>=%.2f, alpha=%.3f, gamma=%.3f}",
+                aggression, defensive, strategic, chaotic,
+                combatWeight, movementWeight, survivalWeight, explorationWeight, timePenaltyWeight,
+                epsilonStart, epsilonDecay, epsilonMin, learningRate, discountFactor);
+    }
+}
@@ -0,0 +1,163 @@
+package chef.sheesh.eyeAI.core.ml.ga;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates a population in parallel on a dedicated work-stealing pool.
+ * The population is split recursively so idle workers steal the remaining genomes,
+ * which keeps all cores busy even when evaluation times vary. Every genome gets a
+ * seed derived from the base seed, the generation and its index, so results do not
+ * depend on scheduling. Genomes not started before the time budget runs out are
+ * reported as skipped and keep the worst fitness seen in that generation.
+ */
+public final class FitnessEvaluationPool implements AutoCloseable {
+
+    private final ForkJoinPool pool;
+
+    /**
+     * @param parallelism worker threads; 0 or less uses all available processors
+     */
+    public FitnessEvaluationPool(int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("GA-Fitness-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Evaluate all genomes and store their fitness.
+     *
+     * @param budgetNanos time budget for the whole generation; 0 or less means unlimited
+     */
+    public EvaluationReport evaluate(List<GAOptimizer.Genome> genomes, FitnessEvaluator evaluator,
+                                     long baseSeed, int generation, long budgetNanos) {
+        int size = genomes.size();
+        double[] fitness = new double[size];
+        boolean[] evaluated = new boolean[size];
+        long start = System.nanoTime();
+        long deadline = budgetNanos > 0 ? start + budgetNanos : 0L;
+
+        if (size > 0) {
+            pool.invoke(new EvaluateRange(genomes, evaluator, baseSeed, generation, deadline, fitness, evaluated, 0, size));
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int evaluatedCount = 0;
+        double worst = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            if (evaluated[i]) {
+                evaluatedCount++;
+                worst = Math.min(worst, fitness[i]);
+            }
+        }
+        if (evaluatedCount == 0) {
+            worst = 0.0;
+        }
+        for (int i = 0; i < size; i++) {
+            genomes.get(i).setFitness(evaluated[i] ? fitness[i] : worst);
+        }
+        return new EvaluationReport(evaluatedCount, size - evaluatedCount, elapsed, pool.getParallelism());
+    }
+
+    /**
+     * Seed for one genome in one generation (SplitMix64 finalizer over the inputs)
+     */
+    static long seedFor(long baseSeed, int generation, int index) {
+        long z = baseSeed + 0x9E3779B97F4A7C15L * (((long) generation << 32) ^ index) + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+        try {
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Splits the index range in halves until a single genome is left
+     */
+    private static final class EvaluateRange extends RecursiveAction {
+        private final List<GAOptimizer.Genome> genomes;
+        private final FitnessEvaluator evaluator;
+        private final long baseSeed;
+        private final int generation;
+        private final long deadline;
+        private final double[] fitness;
+        private final boolean[] evaluated;
+        private final int from;
+        private final int to;
+
+        private EvaluateRange(List<GAOptimizer.Genome> genomes, FitnessEvaluator evaluator, long baseSeed,
+                              int generation, long deadline, double[] fitness, boolean[] evaluated, int from, int to) {
+            this.genomes = genomes;
+            this.evaluator = evaluator;
+            this.baseSeed = baseSeed;
+            this.generation = generation;
+            this.deadline = deadline;
+            this.fitness = fitness;
+            this.evaluated = evaluated;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new EvaluateRange(genomes, evaluator, baseSeed, generation, deadline, fitness, evaluated, from, mid),
+                        new EvaluateRange(genomes, evaluator, baseSeed, generation, deadline, fitness, evaluated, mid, to));
+                return;
+            }
+            if (deadline != 0L && System.nanoTime() - deadline > 0) {
+                return; // Out of budget; left unevaluated
+            }
+            double[] genes = genomes.get(from).getWeights();
+            fitness[from] = evaluator.evaluate(genes, seedFor(baseSeed, generation, from));
+            evaluated[from] = true;
+        }
+    }
+
+    /**
+     * Outcome of evaluating one generation
+     */
+    public static class EvaluationReport {
+        public final int evaluated;
+        public final int skipped;
+        public final long elapsedNanos;
+        public final int parallelism;
+
+        public EvaluationReport(int evaluated, int skipped, long elapsedNanos, int parallelism) {
+            this.evaluated = evaluated;
+            this.skipped = skipped;
+            this.elapsedNanos = elapsedNanos;
+            this.parallelism = parallelism;
+        }
+
+        public double evaluationsPerSecond() {
+            return elapsedNanos > 0 ? evaluated * 1_000_000_000.0 / elapsedNanos : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("EvaluationReport{evaluated=%d, skipped=%d, %.1f evals/s on %d threads}",
+                    evaluated, skipped, evaluationsPerSecond(), parallelism);
+        }
+    }
+}
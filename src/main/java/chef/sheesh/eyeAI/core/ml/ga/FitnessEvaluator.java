@@ -0,0 +1,18 @@
+package chef.sheesh.eyeAI.core.ml.ga;
+
+/**
+ * Scores a genome for the genetic algorithm.
+ * Implementations are called concurrently from the evaluation pool, so they must be
+ * thread-safe and must derive all randomness from {@code seed} for reproducible runs.
+ */
+@FunctionalInterface
+public interface FitnessEvaluator {
+
+    /**
+     * Evaluate the given genes; higher is better
+     *
+     * @param genes genome values in [0, 1]; must not be modified
+     * @param seed  deterministic seed for this genome in this generation
+     */
+    double evaluate(double[] genes, long seed);
+}
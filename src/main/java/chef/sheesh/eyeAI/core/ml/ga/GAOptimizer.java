@@ -1,25 +1,33 @@
 package chef.sheesh.eyeAI.core.ml.ga;
 
 import chef.sheesh.eyeAI.core.sim.SimExperience;
+import chef.sheesh.eyeAI.core.sim.replay.SessionSeed;
 import chef.sheesh.eyeAI.infra.util.Async;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Advanced Genetic Algorithm optimizer for AI learning.
  * Evolves populations of AI parameters to find optimal solutions.
  * Supports multi-objective optimization and elitism.
+ * Fitness is computed by a pluggable {@link FitnessEvaluator}, in parallel on a
+ * {@link FitnessEvaluationPool}.
  */
 public final class GAOptimizer {
 
-    private final Random random = new Random();
+    private final Random random;
     private final GAConfig config;
+    private final long baseSeed;
+    private final FitnessEvaluationPool evaluationPool;
+    private volatile FitnessEvaluator fitnessEvaluator;
+    private volatile FitnessEvaluationPool.EvaluationReport lastEvaluation;
 
     // Current population
-    private List<Genome> population = new ArrayList<>();
+    private volatile List<Genome> population = new ArrayList<>();
     private int currentGeneration = 0;
-    private Genome bestGenome = null;
+    private volatile Genome bestGenome = null;
     private double bestFitness = Double.NEGATIVE_INFINITY;
 
     // Evolution statistics
@@ -27,7 +35,23 @@ public final class GAOptimizer {
     private long lastEvolutionTime = 0;
 
     public GAOptimizer(GAConfig config) {
+        this(config, GAOptimizer::balancedWeightsFitness);
+    }
+
+    public GAOptimizer(GAConfig config, FitnessEvaluator fitnessEvaluator) {
         this.config = config;
+        this.baseSeed = config.seed != 0 ? config.seed : SessionSeed.mix(SessionSeed.get(), "GAOptimizer".hashCode());
+        this.random = new Random(baseSeed);
+        this.fitnessEvaluator = fitnessEvaluator;
+        this.evaluationPool = new FitnessEvaluationPool(config.evaluationThreads);
+    }
+
+    /**
+     * Optimizer whose genomes are decoded into {@link BotParameters} and scored by headless episodes
+     */
+    public static GAOptimizer forBotParameters(GAConfig config) {
+        config.genomeSize = BotParameters.GENE_COUNT;
+        return new GAOptimizer(config, new HeadlessEpisodeEvaluator());
     }
 
     public GAOptimizer() {
@@ -40,7 +64,7 @@ public final class GAOptimizer {
     public void initializePopulation() {
         population.clear();
         for (int i = 0; i < config.populationSize; i++) {
-            population.add(new Genome(config.genomeSize));
+            population.add(new Genome(config.genomeSize, random));
         }
         currentGeneration = 0;
         bestGenome = null;
@@ -100,23 +124,18 @@ public final class GAOptimizer {
     }
 
     /**
-     * Evaluate fitness for the entire population
+     * Evaluate fitness for the entire population in parallel
      */
     private void evaluatePopulation() {
-        for (Genome genome : population) {
-            double fitness = evaluateGenomeFitness(genome);
-            genome.setFitness(fitness);
-        }
+        long budgetNanos = TimeUnit.MILLISECONDS.toNanos(config.generationTimeBudgetMs);
+        lastEvaluation = evaluationPool.evaluate(population, fitnessEvaluator, baseSeed, currentGeneration, budgetNanos);
     }
 
     /**
-     * Evaluate the fitness of a single genome
+     * Default evaluator: a simple fitness function that favours balanced weights.
+     * Use {@link #setFitnessEvaluator} or {@link #forBotParameters} to optimize real bot behaviour.
      */
-    private double evaluateGenomeFitness(Genome genome) {
-        // This should be implemented based on your specific AI goals
-        // For now, we'll use a simple fitness function based on genome values
-
-        double[] weights = genome.getWeights();
+    private static double balancedWeightsFitness(double[] weights, long seed) {
         double fitness = 0.0;
 
         // Example fitness calculation - optimize for balanced weights
@@ -127,7 +146,7 @@ public final class GAOptimizer {
         }
 
         // Add some noise to prevent convergence to identical solutions
-        fitness += random.nextGaussian() * 0.01;
+        fitness += new Random(seed).nextGaussian() * 0.01;
 
         return fitness / weights.length;
     }
@@ -193,6 +212,8 @@ public final class GAOptimizer {
                 offspringWeights[i] = weights2[i];
             }
         }
+        // getWeights() returns a copy, so write the result back
+        offspring.setWeights(offspringWeights);
 
         return offspring;
     }
@@ -213,6 +234,7 @@ public final class GAOptimizer {
                 weights[i] = Math.max(0.0, Math.min(1.0, weights[i] + mutation));
             }
         }
+        genome.setWeights(weights);
     }
 
     /**
@@ -250,6 +272,28 @@ public final class GAOptimizer {
                 .orElse(0.0);
     }
 
+    public void setFitnessEvaluator(FitnessEvaluator fitnessEvaluator) {
+        this.fitnessEvaluator = fitnessEvaluator;
+    }
+
+    public FitnessEvaluator getFitnessEvaluator() {
+        return fitnessEvaluator;
+    }
+
+    /**
+     * Report for the most recent generation's evaluation, or null before the first
+     */
+    public FitnessEvaluationPool.EvaluationReport getLastEvaluation() {
+        return lastEvaluation;
+    }
+
+    /**
+     * Stop the evaluation threads
+     */
+    public void shutdown() {
+        evaluationPool.close();
+    }
+
     /**
      * Check if evolution should stop
      */
@@ -262,13 +306,16 @@ public final class GAOptimizer {
      * Get evolution statistics
      */
     public GAStatistics getStatistics() {
+        FitnessEvaluationPool.EvaluationReport evaluation = lastEvaluation;
         return new GAStatistics(
             currentGeneration,
             getAverageFitness(),
             getBestFitness(),
             bestFitness,
             fitnessHistory,
-            lastEvolutionTime
+            lastEvolutionTime,
+            evaluation != null ? evaluation.evaluationsPerSecond() : 0.0,
+            evaluation != null ? evaluation.skipped : 0
         );
     }
 
@@ -310,12 +357,16 @@ public final class GAOptimizer {
     public static class Genome implements Cloneable {
         private double[] weights;
         private double fitness;
-        private static final Random random = new Random();
+        private static final Random random = SessionSeed.random("Genome");
 
         public Genome(int size) {
+            this(size, random);
+        }
+
+        public Genome(int size, Random rng) {
             weights = new double[size];
             for (int i = 0; i < size; i++) {
-                weights[i] = random.nextDouble();
+                weights[i] = rng.nextDouble();
             }
         }
 
@@ -370,6 +421,9 @@ public final class GAOptimizer {
         public int tournamentSize = 3;
         public int genomeSize = 10;
         public double targetFitness = 0.0; // 0 means no target
+        public int evaluationThreads = 0; // 0 means all cores
+        public long generationTimeBudgetMs = 0; // 0 means no budget
+        public long seed = 0; // 0 means seeded from the clock
 
         public GAConfig() {}
     }
@@ -414,9 +468,12 @@ public final class GAOptimizer {
         // Update config
         // Note: In a real implementation, you'd copy config values
 
-        // Update population
-        population.clear();
-        population.addAll(parameters.population);
+        // Replace the population in one assignment; a generation already running finishes on the old list
+        List<Genome> restored = new ArrayList<>(parameters.population.size());
+        for (Genome genome : parameters.population) {
+            restored.add(genome.clone());
+        }
+        population = restored;
 
         // Update best genome
         bestGenome = parameters.bestGenome != null ? parameters.bestGenome.clone() : null;
@@ -456,16 +513,69 @@ public final class GAOptimizer {
         public final double historicalBestFitness;
         public final List<Double> fitnessHistory;
         public final long lastEvolutionTimeMs;
+        public final double evaluationsPerSecond;
+        public final int skippedEvaluations;
+        public final List<IslandStatistics> islands;
 
         public GAStatistics(int currentGeneration, double averageFitness, double bestFitness,
                           double historicalBestFitness, List<Double> fitnessHistory,
                           long lastEvolutionTimeMs) {
+            this(currentGeneration, averageFitness, bestFitness, historicalBestFitness, fitnessHistory,
+                 lastEvolutionTimeMs, 0.0, 0);
+        }
+
+        public GAStatistics(int currentGeneration, double averageFitness, double bestFitness,
+                          double historicalBestFitness, List<Double> fitnessHistory,
+                          long lastEvolutionTimeMs, double evaluationsPerSecond, int skippedEvaluations) {
+            this(currentGeneration, averageFitness, bestFitness, historicalBestFitness, fitnessHistory,
+                 lastEvolutionTimeMs, evaluationsPerSecond, skippedEvaluations, List.of());
+        }
+
+        public GAStatistics(int currentGeneration, double averageFitness, double bestFitness,
+                          double historicalBestFitness, List<Double> fitnessHistory,
+                          long lastEvolutionTimeMs, double evaluationsPerSecond, int skippedEvaluations,
+                          List<IslandStatistics> islands) {
             this.currentGeneration = currentGeneration;
             this.averageFitness = averageFitness;
             this.bestFitness = bestFitness;
             this.historicalBestFitness = historicalBestFitness;
             this.fitnessHistory = new ArrayList<>(fitnessHistory);
             this.lastEvolutionTimeMs = lastEvolutionTimeMs;
+            this.evaluationsPerSecond = evaluationsPerSecond;
+            this.skippedEvaluations = skippedEvaluations;
+            this.islands = List.copyOf(islands);
+        }
+    }
+
+    /**
+     * Per-island statistics for island-model evolution
+     */
+    public static class IslandStatistics {
+        public final int island;
+        public final int epoch;
+        public final long evaluations;
+        public final double bestFitness;
+        public final double averageFitness;
+        public final double diversity;
+        public final double evaluationsPerSecond;
+        public final long migrantsReceived;
+
+        public IslandStatistics(int island, int epoch, long evaluations, double bestFitness, double averageFitness,
+                              double diversity, double evaluationsPerSecond, long migrantsReceived) {
+            this.island = island;
+            this.epoch = epoch;
+            this.evaluations = evaluations;
+            this.bestFitness = bestFitness;
+            this.averageFitness = averageFitness;
+            this.diversity = diversity;
+            this.evaluationsPerSecond = evaluationsPerSecond;
+            this.migrantsReceived = migrantsReceived;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Island{%d, epoch=%d, best=%.4f, avg=%.4f, diversity=%.4f, %.1f evals/s, migrants=%d}",
+                               island, epoch, bestFitness, averageFitness, diversity, evaluationsPerSecond, migrantsReceived);
         }
     }
 }
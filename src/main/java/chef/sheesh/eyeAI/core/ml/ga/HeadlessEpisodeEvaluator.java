@@ -0,0 +1,280 @@
+package chef.sheesh.eyeAI.core.ml.ga;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Fitness evaluator that scores bot parameters by running short headless episodes.
+ * A tabular Q-learning bot is trained in a small grid arena with one opponent and a
+ * moving objective, using the genome's reward weights, epsilon schedule and learning
+ * rates for shaping and its personality traits as action biases. Fitness is the task
+ * score of the trained policy (objectives reached, kills, deaths), not the shaped reward,
+ * so the GA is free to find whatever shaping trains the best bots.
+ * No Bukkit state is touched, so evaluations can run on any thread.
+ */
+public final class HeadlessEpisodeEvaluator implements FitnessEvaluator {
+
+    private static final int ARENA_SIZE = 16;
+    private static final int ACTIONS = 6;
+    private static final int STATES = 9 * 3 * 3;
+    private static final double MAX_HEALTH = 20.0;
+
+    // Same base values as RewardModel, scaled by the evolved weights
+    private static final double KILL_REWARD = 10.0;
+    private static final double DAMAGE_DEALT_REWARD = 0.1;
+    private static final double DAMAGE_TAKEN_PENALTY = -0.2;
+    private static final double MOVEMENT_REWARD = 0.05;
+    private static final double EXPLORATION_REWARD = 0.02;
+    private static final double GOAL_REWARD = 5.0;
+    private static final double DEATH_PENALTY = -15.0;
+
+    // Task score used as fitness
+    private static final double OBJECTIVE_SCORE = 1.0;
+    private static final double KILL_SCORE = 0.5;
+    private static final double DEATH_SCORE = -1.0;
+
+    private static final int[] MOVE_X = {0, 1, 0, -1};
+    private static final int[] MOVE_Z = {-1, 0, 1, 0};
+
+    private final int trainingEpisodes;
+    private final int evaluationEpisodes;
+    private final int stepsPerEpisode;
+
+    public HeadlessEpisodeEvaluator() {
+        this(40, 10, 100);
+    }
+
+    public HeadlessEpisodeEvaluator(int trainingEpisodes, int evaluationEpisodes, int stepsPerEpisode) {
+        this.trainingEpisodes = Math.max(0, trainingEpisodes);
+        this.evaluationEpisodes = Math.max(1, evaluationEpisodes);
+        this.stepsPerEpisode = Math.max(1, stepsPerEpisode);
+    }
+
+    @Override
+    public double evaluate(double[] genes, long seed) {
+        BotParameters params = BotParameters.decode(genes);
+        Arena arena = new Arena(params, new SplittableRandom(seed));
+
+        double epsilon = params.epsilonStart;
+        for (int i = 0; i < trainingEpisodes; i++) {
+            arena.run(epsilon, true, stepsPerEpisode);
+            epsilon = Math.max(params.epsilonMin, epsilon * params.epsilonDecay);
+        }
+
+        // Score the learned policy at its final exploration rate
+        double score = 0.0;
+        for (int i = 0; i < evaluationEpisodes; i++) {
+            score += arena.run(params.epsilonMin, false, stepsPerEpisode);
+        }
+        return score / evaluationEpisodes;
+    }
+
+    /**
+     * Episode state for one evaluation; owned by a single thread
+     */
+    private static final class Arena {
+        private final BotParameters params;
+        private final SplittableRandom random;
+        private final double[] qTable = new double[STATES * ACTIONS];
+        private final boolean[] visited = new boolean[ARENA_SIZE * ARENA_SIZE];
+
+        private int agentX;
+        private int agentZ;
+        private double agentHealth;
+        private int opponentX;
+        private int opponentZ;
+        private double opponentHealth;
+        private int objectiveX;
+        private int objectiveZ;
+
+        // Outcome of the last step
+        private double stepScore;
+        private boolean died;
+
+        private Arena(BotParameters params, SplittableRandom random) {
+            this.params = params;
+            this.random = random;
+        }
+
+        /**
+         * Play one episode; returns its task score
+         */
+        private double run(double epsilon, boolean learn, int steps) {
+            reset();
+            double score = 0.0;
+            int state = encodeState();
+
+            for (int step = 0; step < steps; step++) {
+                int action = selectAction(state, epsilon);
+                double reward = step(action);
+                score += stepScore;
+                int nextState = encodeState();
+
+                if (learn) {
+                    int index = state * ACTIONS + action;
+                    double target = died ? reward : reward + params.discountFactor * maxQ(nextState);
+                    qTable[index] += params.learningRate * (target - qTable[index]);
+                }
+                if (died) {
+                    break;
+                }
+                state = nextState;
+            }
+            return score;
+        }
+
+        private void reset() {
+            Arrays.fill(visited, false);
+            agentX = random.nextInt(ARENA_SIZE);
+            agentZ = random.nextInt(ARENA_SIZE);
+            agentHealth = MAX_HEALTH;
+            visited[agentX * ARENA_SIZE + agentZ] = true;
+            respawnOpponent();
+            respawnObjective();
+        }
+
+        private int selectAction(int state, double epsilon) {
+            // Chaotic bots explore more
+            if (random.nextDouble() < epsilon + params.chaotic * 0.05) {
+                return random.nextInt(ACTIONS);
+            }
+            int base = state * ACTIONS;
+            int best = 0;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int action = 0; action < ACTIONS; action++) {
+                double value = qTable[base + action] + personalityBias(action);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = action;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Small preference added on top of the Q-values, so traits shape behaviour before learning converges
+         */
+        private double personalityBias(int action) {
+            if (action == 4) {
+                return params.aggression * 0.05;
+            }
+            if (action == 5) {
+                return agentHealth < MAX_HEALTH * 0.35 ? params.defensive * 0.05 : 0.0;
+            }
+            int before = Math.abs(objectiveX - agentX) + Math.abs(objectiveZ - agentZ);
+            int after = Math.abs(objectiveX - clamp(agentX + MOVE_X[action]))
+                    + Math.abs(objectiveZ - clamp(agentZ + MOVE_Z[action]));
+            return after < before ? params.strategic * 0.05 : 0.0;
+        }
+
+        /**
+         * Apply an action and the opponent's response; returns the shaped reward
+         */
+        private double step(int action) {
+            stepScore = 0.0;
+            died = false;
+            double damageDealt = 0.0;
+            double damageTaken = 0.0;
+            boolean kill = false;
+            int distanceBefore = Math.abs(objectiveX - agentX) + Math.abs(objectiveZ - agentZ);
+
+            if (action < 4) {
+                agentX = clamp(agentX + MOVE_X[action]);
+                agentZ = clamp(agentZ + MOVE_Z[action]);
+            } else if (action == 4) {
+                if (opponentAdjacent()) {
+                    damageDealt = 4.0;
+                    opponentHealth -= damageDealt;
+                    if (opponentHealth <= 0) {
+                        kill = true;
+                        stepScore += KILL_SCORE;
+                        respawnOpponent();
+                    }
+                }
+            } else {
+                // Retreat: step away from the opponent
+                agentX = clamp(agentX + Integer.signum(agentX - opponentX));
+                agentZ = clamp(agentZ + Integer.signum(agentZ - opponentZ));
+            }
+
+            int distanceAfter = Math.abs(objectiveX - agentX) + Math.abs(objectiveZ - agentZ);
+            boolean reachedObjective = distanceAfter == 0;
+            if (reachedObjective) {
+                stepScore += OBJECTIVE_SCORE;
+                respawnObjective();
+            }
+
+            int cell = agentX * ARENA_SIZE + agentZ;
+            boolean explored = !visited[cell];
+            visited[cell] = true;
+
+            // Opponent chases and attacks
+            if (opponentAdjacent()) {
+                if (random.nextDouble() < 0.5) {
+                    damageTaken = 2.0;
+                    agentHealth -= damageTaken;
+                }
+            } else if (random.nextDouble() < 0.7) {
+                opponentX += Integer.signum(agentX - opponentX);
+                opponentZ += Integer.signum(agentZ - opponentZ);
+            }
+            if (agentHealth <= 0) {
+                died = true;
+                stepScore += DEATH_SCORE;
+            }
+
+            double combat = damageDealt * DAMAGE_DEALT_REWARD + (kill ? KILL_REWARD : 0.0);
+            double survival = damageTaken * DAMAGE_TAKEN_PENALTY + (died ? DEATH_PENALTY : 0.0);
+            double movement = distanceAfter < distanceBefore ? MOVEMENT_REWARD : 0.0;
+            double exploration = explored ? EXPLORATION_REWARD : 0.0;
+            return params.combatWeight * combat
+                    + params.survivalWeight * survival
+                    + params.movementWeight * movement
+                    + params.explorationWeight * exploration
+                    + params.timePenaltyWeight
+                    + (reachedObjective ? GOAL_REWARD : 0.0);
+        }
+
+        private double maxQ(int state) {
+            int base = state * ACTIONS;
+            double max = qTable[base];
+            for (int action = 1; action < ACTIONS; action++) {
+                max = Math.max(max, qTable[base + action]);
+            }
+            return max;
+        }
+
+        /**
+         * Direction to the objective (3x3), opponent range (3) and health bucket (3)
+         */
+        private int encodeState() {
+            int dx = Integer.signum(objectiveX - agentX) + 1;
+            int dz = Integer.signum(objectiveZ - agentZ) + 1;
+            int range = Math.max(Math.abs(opponentX - agentX), Math.abs(opponentZ - agentZ));
+            int opponent = range <= 1 ? 0 : range <= 4 ? 1 : 2;
+            int health = agentHealth > MAX_HEALTH * 0.66 ? 2 : agentHealth > MAX_HEALTH * 0.33 ? 1 : 0;
+            return ((dx * 3 + dz) * 3 + opponent) * 3 + health;
+        }
+
+        private boolean opponentAdjacent() {
+            return Math.abs(opponentX - agentX) <= 1 && Math.abs(opponentZ - agentZ) <= 1;
+        }
+
+        private void respawnOpponent() {
+            opponentX = random.nextInt(ARENA_SIZE);
+            opponentZ = random.nextInt(ARENA_SIZE);
+            opponentHealth = MAX_HEALTH;
+        }
+
+        private void respawnObjective() {
+            do {
+                objectiveX = random.nextInt(ARENA_SIZE);
+                objectiveZ = random.nextInt(ARENA_SIZE);
+            } while (objectiveX == agentX && objectiveZ == agentZ);
+        }
+
+        private static int clamp(int coordinate) {
+            return Math.max(0, Math.min(ARENA_SIZE - 1, coordinate));
+        }
+    }
+}
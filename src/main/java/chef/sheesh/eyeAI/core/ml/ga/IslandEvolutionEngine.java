@@ -0,0 +1,432 @@
+package chef.sheesh.eyeAI.core.ml.ga;
+
+import chef.sheesh.eyeAI.infra.config.ConfigurationManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Island-model evolution engine.
+ * Several sub-populations evolve independently, each on its own thread, and
+ * periodically send copies of their best genomes to the next island in a ring.
+ * In generational mode an island evaluates and rebuilds its whole population each
+ * epoch. In steady-state mode it breeds one child at a time and the child replaces
+ * the worst individual as soon as its fitness is known. Either way, a slow evaluation
+ * only stalls its own island. Populations are stored as {@link PopulationMatrix}
+ * instances, so breeding allocates nothing.
+ * Each island is seeded independently, but migration timing depends on thread
+ * scheduling, so multi-island runs are not bit-for-bit reproducible.
+ */
+public final class IslandEvolutionEngine {
+
+    private static final Logger logger = Logger.getLogger(IslandEvolutionEngine.class.getName());
+
+    /**
+     * How islands replace individuals
+     */
+    public enum Mode {
+        GENERATIONAL,
+        STEADY_STATE
+    }
+
+    private final GAOptimizer.GAConfig config;
+    private final IslandConfig islandConfig;
+    private final FitnessEvaluator evaluator;
+    private final long baseSeed;
+    private final Island[] islands;
+
+    private final Object bestLock = new Object();
+    private final double[] bestGenes;
+    private volatile double bestFitness = Double.NEGATIVE_INFINITY;
+
+    private volatile boolean running;
+    private long startNanos;
+
+    public IslandEvolutionEngine(GAOptimizer.GAConfig config, IslandConfig islandConfig, FitnessEvaluator evaluator) {
+        this.config = config;
+        this.islandConfig = islandConfig;
+        this.evaluator = evaluator;
+        this.baseSeed = config.seed != 0 ? config.seed : System.nanoTime();
+        this.bestGenes = new double[config.genomeSize];
+        this.islands = new Island[Math.max(1, islandConfig.islands)];
+        int islandSize = Math.max(2, config.populationSize / islands.length);
+        for (int i = 0; i < islands.length; i++) {
+            islands[i] = new Island(i, islandSize);
+        }
+    }
+
+    /**
+     * Start one thread per island. Runs until {@link #stop()} or until every island
+     * has completed {@code config.maxGenerations} epochs.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        startNanos = System.nanoTime();
+        for (Island island : islands) {
+            Thread thread = new Thread(island, "GA-Island-" + island.index);
+            thread.setDaemon(true);
+            island.thread = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Signal all islands to stop and wait for them to finish their current evaluation
+     */
+    public synchronized void stop() {
+        running = false;
+        for (Island island : islands) {
+            Thread thread = island.thread;
+            if (thread != null) {
+                try {
+                    thread.join(TimeUnit.SECONDS.toMillis(10));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Run until every island is done or the timeout elapses, then stop
+     */
+    public void runFor(long timeout, TimeUnit unit) {
+        start();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Island island : islands) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            try {
+                island.thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        stop();
+    }
+
+    public boolean isRunning() {
+        if (!running) {
+            return false;
+        }
+        for (Island island : islands) {
+            Thread thread = island.thread;
+            if (thread != null && thread.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copy of the best genome found on any island, or null before the first evaluation
+     */
+    public GAOptimizer.Genome getBestGenome() {
+        synchronized (bestLock) {
+            if (bestFitness == Double.NEGATIVE_INFINITY) {
+                return null;
+            }
+            GAOptimizer.Genome genome = new GAOptimizer.Genome(0);
+            genome.setWeights(bestGenes);
+            genome.setFitness(bestFitness);
+            return genome;
+        }
+    }
+
+    public double getBestFitness() {
+        return bestFitness;
+    }
+
+    /**
+     * Statistics across all islands, with one entry per island
+     */
+    public GAOptimizer.GAStatistics getStatistics() {
+        List<GAOptimizer.IslandStatistics> perIsland = new ArrayList<>(islands.length);
+        int maxEpoch = 0;
+        double averageSum = 0.0;
+        double currentBest = Double.NEGATIVE_INFINITY;
+        double throughput = 0.0;
+        for (Island island : islands) {
+            GAOptimizer.IslandStatistics stats = island.snapshot();
+            perIsland.add(stats);
+            maxEpoch = Math.max(maxEpoch, stats.epoch);
+            averageSum += stats.averageFitness;
+            currentBest = Math.max(currentBest, stats.bestFitness);
+            throughput += stats.evaluationsPerSecond;
+        }
+        long elapsedMs = startNanos > 0 ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) : 0;
+        return new GAOptimizer.GAStatistics(
+            maxEpoch,
+            averageSum / islands.length,
+            currentBest == Double.NEGATIVE_INFINITY ? 0.0 : currentBest,
+            bestFitness,
+            List.of(),
+            elapsedMs,
+            throughput,
+            0,
+            perIsland
+        );
+    }
+
+    private void offerBest(PopulationMatrix population, int row) {
+        double fitness = population.getFitness(row);
+        if (fitness <= bestFitness) {
+            return;
+        }
+        synchronized (bestLock) {
+            if (fitness > bestFitness) {
+                population.copyRowTo(row, bestGenes);
+                bestFitness = fitness;
+            }
+        }
+    }
+
+    /**
+     * One sub-population and the thread state that evolves it
+     */
+    private final class Island implements Runnable {
+        private final int index;
+        private final Random random;
+        private final long islandSeed;
+        private PopulationMatrix current;
+        private PopulationMatrix next;
+        private final int[] order;
+        private final double[] scratch;
+        private final Queue<double[]> inbox = new ConcurrentLinkedQueue<>();
+        private volatile Thread thread;
+
+        // Written by the island thread, read by statistics snapshots
+        private volatile int epoch;
+        private volatile long evaluations;
+        private volatile long migrantsReceived;
+        private volatile double lastBest = Double.NEGATIVE_INFINITY;
+        private volatile double lastAverage;
+        private volatile double lastDiversity;
+        private volatile long activeNanos;
+
+        private Island(int index, int size) {
+            this.index = index;
+            this.islandSeed = FitnessEvaluationPool.seedFor(baseSeed, -1, index);
+            this.random = new Random(islandSeed);
+            this.current = new PopulationMatrix(size, config.genomeSize);
+            this.next = new PopulationMatrix(size, config.genomeSize);
+            this.order = new int[size];
+            this.scratch = new double[config.genomeSize];
+            current.randomize(random);
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            try {
+                while (running && epoch < config.maxGenerations) {
+                    acceptMigrants();
+                    if (islandConfig.mode == Mode.STEADY_STATE) {
+                        steadyStateEpoch();
+                    } else {
+                        generationalEpoch();
+                    }
+                    epoch++;
+                    activeNanos = System.nanoTime() - start;
+                    if (islands.length > 1 && islandConfig.migrationInterval > 0
+                            && epoch % islandConfig.migrationInterval == 0) {
+                        emigrate();
+                    }
+                }
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Island " + index + " stopped after an evaluation error", e);
+            }
+        }
+
+        /**
+         * Evaluate new rows, then breed the next population into the spare matrix and swap
+         */
+        private void generationalEpoch() {
+            for (int row = 0; row < current.getRows() && running; row++) {
+                if (!current.isEvaluated(row)) {
+                    evaluateRow(current, row);
+                }
+            }
+            recordStatistics();
+            current.sortByFitness(order);
+
+            int size = current.getRows();
+            int eliteCount = Math.max(1, (int) (size * config.elitismRate));
+            for (int i = 0; i < eliteCount; i++) {
+                next.copyRow(current, order[i], i);
+            }
+            for (int row = eliteCount; row < size; row++) {
+                breedInto(next, row, selectParent(), selectParent());
+            }
+
+            PopulationMatrix swap = current;
+            current = next;
+            next = swap;
+        }
+
+        /**
+         * Breed and evaluate one child per population slot, replacing the worst on arrival
+         */
+        private void steadyStateEpoch() {
+            // Initial population still needs fitness before tournaments make sense
+            for (int row = 0; row < current.getRows() && running; row++) {
+                if (!current.isEvaluated(row)) {
+                    evaluateRow(current, row);
+                }
+            }
+            for (int i = 0; i < current.getRows() && running; i++) {
+                int parent1 = selectParent();
+                int parent2 = selectParent();
+                breedInto(next, 0, parent1, parent2);
+                evaluateRow(next, 0);
+                int worst = current.worstRow();
+                if (next.getFitness(0) > current.getFitness(worst)) {
+                    current.copyRow(next, 0, worst);
+                }
+            }
+            recordStatistics();
+        }
+
+        /**
+         * Capture statistics while the current population is fully evaluated
+         */
+        private void recordStatistics() {
+            int bestRow = current.bestRow();
+            if (current.isEvaluated(bestRow)) {
+                lastBest = current.getFitness(bestRow);
+            }
+            lastAverage = current.averageFitness();
+            lastDiversity = current.diversity();
+        }
+
+        private void evaluateRow(PopulationMatrix population, int row) {
+            population.copyRowTo(row, scratch);
+            long seed = FitnessEvaluationPool.seedFor(islandSeed, epoch, (int) evaluations);
+            population.setFitness(row, evaluator.evaluate(scratch, seed));
+            evaluations++;
+            offerBest(population, row);
+        }
+
+        /**
+         * Tournament selection over the current population
+         */
+        private int selectParent() {
+            int rows = current.getRows();
+            int best = random.nextInt(rows);
+            for (int i = 1; i < config.tournamentSize; i++) {
+                int contender = random.nextInt(rows);
+                if (current.getFitness(contender) > current.getFitness(best)) {
+                    best = contender;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Uniform crossover of two current rows plus gaussian mutation, written into a target row
+         */
+        private void breedInto(PopulationMatrix target, int targetRow, int parent1, int parent2) {
+            for (int gene = 0; gene < config.genomeSize; gene++) {
+                double value = random.nextDouble() < 0.5
+                        ? current.getGene(parent1, gene)
+                        : current.getGene(parent2, gene);
+                if (random.nextDouble() < config.mutationRate) {
+                    double strength = config.mutationStrength * (1.0 + random.nextGaussian() * 0.1);
+                    value = Math.max(0.0, Math.min(1.0, value + random.nextGaussian() * strength));
+                }
+                target.setGene(targetRow, gene, value);
+            }
+            target.setFitness(targetRow, Double.NaN);
+        }
+
+        /**
+         * Send copies of the best rows to the next island; fitness travels in the last slot
+         */
+        private void emigrate() {
+            Island neighbour = islands[(index + 1) % islands.length];
+            current.sortByFitness(order);
+            int count = Math.min(islandConfig.migrants, current.getRows());
+            for (int i = 0; i < count; i++) {
+                int row = order[i];
+                if (!current.isEvaluated(row)) {
+                    continue;
+                }
+                double[] migrant = new double[config.genomeSize + 1];
+                current.copyRowTo(row, migrant);
+                migrant[config.genomeSize] = current.getFitness(row);
+                neighbour.inbox.offer(migrant);
+            }
+        }
+
+        /**
+         * Migrants replace the worst individuals they beat
+         */
+        private void acceptMigrants() {
+            double[] migrant;
+            while ((migrant = inbox.poll()) != null) {
+                double fitness = migrant[config.genomeSize];
+                int worst = current.worstRow();
+                if (!current.isEvaluated(worst) || fitness > current.getFitness(worst)) {
+                    current.setRow(worst, migrant, fitness);
+                    migrantsReceived++;
+                }
+            }
+        }
+
+        private GAOptimizer.IslandStatistics snapshot() {
+            long nanos = activeNanos;
+            long evaluated = evaluations;
+            return new GAOptimizer.IslandStatistics(
+                index,
+                epoch,
+                evaluated,
+                lastBest == Double.NEGATIVE_INFINITY ? 0.0 : lastBest,
+                lastAverage,
+                lastDiversity,
+                nanos > 0 ? evaluated * 1_000_000_000.0 / nanos : 0.0,
+                migrantsReceived
+            );
+        }
+    }
+
+    /**
+     * Island topology and replacement settings
+     */
+    public static class IslandConfig {
+        public int islands = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+        public int migrationInterval = 5; // Epochs between migrations, 0 disables
+        public int migrants = 2;
+        public Mode mode = Mode.GENERATIONAL;
+
+        public IslandConfig() {}
+
+        /**
+         * Values from {@code ml.ga.islands.*}, falling back to the defaults above
+         */
+        public static IslandConfig from(ConfigurationManager cfg) {
+            IslandConfig config = new IslandConfig();
+            if (cfg == null) {
+                return config;
+            }
+            config.islands = Math.max(1, cfg.getInt("ml.ga.islands.count", config.islands));
+            config.migrationInterval = Math.max(0, cfg.getInt("ml.ga.islands.migrationInterval", config.migrationInterval));
+            config.migrants = Math.max(0, cfg.getInt("ml.ga.islands.migrants", config.migrants));
+            if (cfg.getBoolean("ml.ga.islands.steadyState", false)) {
+                config.mode = Mode.STEADY_STATE;
+            }
+            return config;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package chef.sheesh.eyeAI.core.ml.ga;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Population stored as one flat row-major gene matrix plus a fitness column.
+ * Breeding writes straight into rows, so evolving a population creates no
+ * per-genome objects. Unevaluated rows have NaN fitness.
+ */
+public final class PopulationMatrix {
+
+    private final int rows;
+    private final int genomeSize;
+    private final double[] genes;
+    private final double[] fitness;
+
+    public PopulationMatrix(int rows, int genomeSize) {
+        this.rows = rows;
+        this.genomeSize = genomeSize;
+        this.genes = new double[rows * genomeSize];
+        this.fitness = new double[rows];
+        Arrays.fill(fitness, Double.NaN);
+    }
+
+    /**
+     * Fill every row with uniform random genes in [0, 1] and clear fitness
+     */
+    public void randomize(Random random) {
+        for (int i = 0; i < genes.length; i++) {
+            genes[i] = random.nextDouble();
+        }
+        Arrays.fill(fitness, Double.NaN);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getGenomeSize() {
+        return genomeSize;
+    }
+
+    public double getGene(int row, int gene) {
+        return genes[row * genomeSize + gene];
+    }
+
+    public void setGene(int row, int gene, double value) {
+        genes[row * genomeSize + gene] = value;
+    }
+
+    public double getFitness(int row) {
+        return fitness[row];
+    }
+
+    public void setFitness(int row, double value) {
+        fitness[row] = value;
+    }
+
+    public boolean isEvaluated(int row) {
+        return !Double.isNaN(fitness[row]);
+    }
+
+    /**
+     * Copy a row's genes into {@code out}, which must hold at least genomeSize values
+     */
+    public void copyRowTo(int row, double[] out) {
+        System.arraycopy(genes, row * genomeSize, out, 0, genomeSize);
+    }
+
+    /**
+     * Overwrite a row with the given genes and fitness
+     */
+    public void setRow(int row, double[] values, double rowFitness) {
+        System.arraycopy(values, 0, genes, row * genomeSize, genomeSize);
+        fitness[row] = rowFitness;
+    }
+
+    /**
+     * Copy a row (genes and fitness) from another matrix of the same genome size
+     */
+    public void copyRow(PopulationMatrix source, int sourceRow, int targetRow) {
+        System.arraycopy(source.genes, sourceRow * genomeSize, genes, targetRow * genomeSize, genomeSize);
+        fitness[targetRow] = source.fitness[sourceRow];
+    }
+
+    /**
+     * Row with the lowest fitness; unevaluated rows count as worst
+     */
+    public int worstRow() {
+        int worst = 0;
+        for (int row = 0; row < rows; row++) {
+            if (!isEvaluated(row)) {
+                return row;
+            }
+            if (fitness[row] < fitness[worst]) {
+                worst = row;
+            }
+        }
+        return worst;
+    }
+
+    public int bestRow() {
+        int best = -1;
+        for (int row = 0; row < rows; row++) {
+            if (isEvaluated(row) && (best < 0 || fitness[row] > fitness[best])) {
+                best = row;
+            }
+        }
+        return Math.max(best, 0);
+    }
+
+    /**
+     * Write row indices into {@code order}, best fitness first (insertion sort, no boxing)
+     */
+    public void sortByFitness(int[] order) {
+        for (int i = 0; i < rows; i++) {
+            order[i] = i;
+        }
+        for (int i = 1; i < rows; i++) {
+            int row = order[i];
+            double value = sortKey(row);
+            int j = i - 1;
+            while (j >= 0 && sortKey(order[j]) < value) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = row;
+        }
+    }
+
+    private double sortKey(int row) {
+        return isEvaluated(row) ? fitness[row] : Double.NEGATIVE_INFINITY;
+    }
+
+    public double averageFitness() {
+        double sum = 0.0;
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            if (isEvaluated(row)) {
+                sum += fitness[row];
+                count++;
+            }
+        }
+        return count > 0 ? sum / count : 0.0;
+    }
+
+    /**
+     * Mean per-gene standard deviation across rows; 0 means every row is identical
+     */
+    public double diversity() {
+        if (rows < 2) {
+            return 0.0;
+        }
+        double total = 0.0;
+        for (int gene = 0; gene < genomeSize; gene++) {
+            double mean = 0.0;
+            for (int row = 0; row < rows; row++) {
+                mean += genes[row * genomeSize + gene];
+            }
+            mean /= rows;
+            double variance = 0.0;
+            for (int row = 0; row < rows; row++) {
+                double d = genes[row * genomeSize + gene] - mean;
+                variance += d * d;
+            }
+            total += Math.sqrt(variance / rows);
+        }
+        return total / genomeSize;
+    }
+}
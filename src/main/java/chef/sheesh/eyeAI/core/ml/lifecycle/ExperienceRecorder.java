@@ -0,0 +1,75 @@
+package chef.sheesh.eyeAI.core.ml.lifecycle;
+
+import chef.sheesh.eyeAI.core.sim.SimExperience;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free ring of the most recent live experiences.
+ * Tick threads record with one atomic increment and one slot write; shadow
+ * evaluation copies the current window so every model in a comparison is
+ * scored on exactly the same experiences.
+ */
+public final class ExperienceRecorder {
+
+    private final AtomicReferenceArray<SimExperience> slots;
+    private final int mask;
+    private final AtomicLong written = new AtomicLong();
+
+    /**
+     * @param capacity window size, rounded up to a power of two
+     */
+    public ExperienceRecorder(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public void record(SimExperience experience) {
+        long index = written.getAndIncrement();
+        slots.set((int) (index & mask), experience);
+    }
+
+    /**
+     * Copy of the recorded window, oldest first. A slot claimed by a writer that
+     * has not stored yet still holds an older experience, which is harmless here.
+     */
+    public List<SimExperience> window() {
+        return since(0L);
+    }
+
+    /**
+     * Copy of the experiences recorded at or after a {@link #getRecordedCount() count}
+     * that are still in the window, oldest first
+     */
+    public List<SimExperience> since(long recordedCount) {
+        long end = written.get();
+        long start = Math.max(recordedCount, end - slots.length());
+        List<SimExperience> window = new ArrayList<>((int) Math.max(0L, end - start));
+        for (long i = start; i < end; i++) {
+            SimExperience experience = slots.get((int) (i & mask));
+            if (experience != null && experience.isQUpdate()) {
+                window.add(experience);
+            }
+        }
+        return window;
+    }
+
+    public long getRecordedCount() {
+        return written.get();
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+        written.set(0);
+    }
+}
@@ -0,0 +1,479 @@
+package chef.sheesh.eyeAI.core.ml.lifecycle;
+
+import chef.sheesh.eyeAI.core.sim.SimExperience;
+import chef.sheesh.eyeAI.infra.events.EventBus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Gatekeeper between training and serving.
+ * Training keeps mutating its own table; tick threads only ever see an immutable
+ * {@link QTableSnapshot} read through one {@link AtomicReference}. A candidate is
+ * snapshotted, then scored in shadow against the serving model on the live experiences
+ * recorded after the snapshot, which neither model was trained on, and swapped in with a
+ * single compare-and-set only if it passes the {@link PromotionPolicy}. After a promotion the live reward is watched for one
+ * window; if it falls below the pre-promotion baseline the previous model is
+ * swapped back the same way.
+ */
+public final class ModelLifecycleManager {
+
+    private static final Logger LOGGER = Logger.getLogger(ModelLifecycleManager.class.getName());
+
+    private final EventBus eventBus;
+    private final PromotionPolicy policy;
+    private final ExperienceRecorder recorder;
+    private final AtomicReference<ServingState> serving = new AtomicReference<>(ServingState.initial());
+    private final AtomicBoolean evaluating = new AtomicBoolean();
+    private final AtomicReference<PendingCandidate> pending = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    // Exponentially weighted live reward, stored as raw double bits; NaN until the first sample
+    private final AtomicLong rewardEwmaBits = new AtomicLong(Double.doubleToRawLongBits(Double.NaN));
+    private final AtomicInteger promotions = new AtomicInteger();
+    private final AtomicInteger rejections = new AtomicInteger();
+    private final AtomicInteger rollbacks = new AtomicInteger();
+    private final ExecutorService executor;
+    private final List<Consumer<QTableSnapshot>> servingListeners = new CopyOnWriteArrayList<>();
+    private volatile PromotionDecision lastDecision;
+
+    /**
+     * @param eventBus receives promotion, rejection and rollback events; may be null
+     */
+    public ModelLifecycleManager(EventBus eventBus, PromotionPolicy policy) {
+        this.eventBus = eventBus;
+        this.policy = policy;
+        this.recorder = new ExperienceRecorder(policy.recorderCapacity);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "ML-ShadowEvaluator");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+    }
+
+    /**
+     * Model the bots should act with. Lock-free; safe from any tick thread.
+     */
+    public QTableSnapshot getServingModel() {
+        return serving.get().model;
+    }
+
+    /**
+     * Record a live experience for shadow evaluation and feed the rollback guard.
+     * Called on tick threads; never blocks.
+     */
+    public void observe(SimExperience experience) {
+        if (!experience.isQUpdate()) {
+            return;
+        }
+        recorder.record(experience);
+        double reward = experience.getReward();
+        updateRewardEwma(reward);
+
+        PendingCandidate candidate = pending.get();
+        if (candidate != null && recorder.getRecordedCount() - candidate.recordedCount >= policy.minSamples
+                && pending.compareAndSet(candidate, null)) {
+            evaluateLater(candidate);
+        }
+
+        ServingState state = serving.get();
+        if (!state.monitoring) {
+            return;
+        }
+        state.rewardSinceSwap.add(reward);
+        long observed = state.observedSinceSwap.incrementAndGet();
+        // Exactly one caller sees the window boundary, so the check runs once per promotion
+        if (observed == policy.rollbackWindow) {
+            double average = state.rewardSinceSwap.sum() / observed;
+            if (average < state.baselineReward - policy.rollbackTolerance) {
+                rollbackFrom(state, String.format("live reward %.3f fell below baseline %.3f",
+                        average, state.baselineReward));
+            }
+        }
+    }
+
+    /**
+     * Snapshot the training table on a background thread and evaluate it in shadow once
+     * {@link PromotionPolicy#minSamples} further experiences have been recorded. A candidate
+     * still waiting for its window is replaced as skipped; calls made while a snapshot is
+     * taken or scored complete immediately as skipped.
+     */
+    public CompletableFuture<PromotionDecision> submitCandidate(Map<Long, double[]> trainingTable) {
+        PendingCandidate waiting = pending.getAndSet(null);
+        if (waiting != null) {
+            waiting.result.complete(PromotionDecision.skipped(waiting.model.getVersion(), "superseded by a newer candidate"));
+        } else if (!evaluating.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(
+                    PromotionDecision.skipped(-1L, "an evaluation is already running"));
+        }
+        CompletableFuture<PromotionDecision> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    QTableSnapshot candidate = QTableSnapshot.copyOf(versions.incrementAndGet(), trainingTable);
+                    // Training updates the table before recording an experience, so everything
+                    // recorded from here on is held out from the candidate
+                    pending.set(new PendingCandidate(candidate, recorder.getRecordedCount(), result));
+                } catch (RuntimeException e) {
+                    evaluating.set(false);
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            evaluating.set(false);
+            throw e;
+        }
+        return result;
+    }
+
+    private void evaluateLater(PendingCandidate candidate) {
+        try {
+            executor.execute(() -> {
+                try {
+                    candidate.result.complete(evaluate(candidate));
+                } catch (RuntimeException e) {
+                    candidate.result.completeExceptionally(e);
+                } finally {
+                    evaluating.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            evaluating.set(false);
+            candidate.result.complete(PromotionDecision.skipped(candidate.model.getVersion(), "lifecycle shut down"));
+        }
+    }
+
+    private PromotionDecision evaluate(PendingCandidate pendingCandidate) {
+        QTableSnapshot candidate = pendingCandidate.model;
+        List<SimExperience> window = recorder.since(pendingCandidate.recordedCount);
+        if (window.size() < policy.minSamples) {
+            return record(PromotionDecision.skipped(candidate.getVersion(),
+                    "only " + window.size() + " held-out experiences, need " + policy.minSamples));
+        }
+
+        ServingState current = serving.get();
+        ShadowEvaluator.ShadowReport report = ShadowEvaluator.compare(current.model, candidate, window, policy.discountFactor);
+        String reason = policy.rejectionReason(report);
+        if (reason != null) {
+            rejections.incrementAndGet();
+            LOGGER.fine("Rejected model v" + candidate.getVersion() + ": " + reason);
+            post(new ModelRejectedEvent(candidate.getVersion(), reason, report));
+            return record(new PromotionDecision(PromotionDecision.Outcome.REJECTED, candidate.getVersion(), reason, report));
+        }
+
+        ServingState next = new ServingState(candidate, current.model, getLiveRewardAverage(), true);
+        if (!serving.compareAndSet(current, next)) {
+            return record(PromotionDecision.skipped(candidate.getVersion(), "serving model changed during evaluation"));
+        }
+        promotions.incrementAndGet();
+        LOGGER.info("Promoted model v" + candidate.getVersion() + " over v" + current.model.getVersion() + ": " + report);
+        post(new ModelPromotedEvent(candidate.getVersion(), current.model.getVersion(), report));
+        notifyServing(candidate);
+        return record(new PromotionDecision(PromotionDecision.Outcome.PROMOTED, candidate.getVersion(), "passed", report));
+    }
+
+    /**
+     * Swap the previous model back in, if there is one
+     */
+    public boolean rollback(String reason) {
+        ServingState state = serving.get();
+        return state.previous != null && rollbackFrom(state, reason);
+    }
+
+    private boolean rollbackFrom(ServingState state, String reason) {
+        if (state.previous == null) {
+            return false;
+        }
+        ServingState restored = new ServingState(state.previous, null, Double.NaN, false);
+        if (!serving.compareAndSet(state, restored)) {
+            return false; // Another promotion or rollback got there first
+        }
+        rollbacks.incrementAndGet();
+        LOGGER.warning("Rolled back model v" + state.model.getVersion() + " to v" + state.previous.getVersion() + ": " + reason);
+        post(new ModelRolledBackEvent(state.model.getVersion(), state.previous.getVersion(), reason));
+        notifyServing(state.previous);
+        return true;
+    }
+
+    /**
+     * Serve a table without shadow evaluation, e.g. a version chosen from the model registry.
+     * The replaced model stays available for rollback and the live reward is still watched.
+     */
+    public QTableSnapshot install(Map<Long, double[]> table, String reason) {
+        QTableSnapshot snapshot = QTableSnapshot.copyOf(versions.incrementAndGet(), table);
+        ServingState current;
+        do {
+            current = serving.get();
+        } while (!serving.compareAndSet(current, new ServingState(snapshot, current.model, getLiveRewardAverage(), true)));
+        LOGGER.info("Installed model v" + snapshot.getVersion() + " over v" + current.model.getVersion() + ": " + reason);
+        notifyServing(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Called with the new serving model after every promotion, rollback and install.
+     * Runs on the thread that made the swap, which may be a tick thread; must not block.
+     */
+    public void addServingListener(Consumer<QTableSnapshot> listener) {
+        servingListeners.add(listener);
+    }
+
+    private void notifyServing(QTableSnapshot model) {
+        for (Consumer<QTableSnapshot> listener : servingListeners) {
+            try {
+                listener.accept(model);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Serving listener failed", e);
+            }
+        }
+    }
+
+    private void updateRewardEwma(double reward) {
+        double alpha = policy.rewardEwmaAlpha;
+        while (true) {
+            long bits = rewardEwmaBits.get();
+            double current = Double.longBitsToDouble(bits);
+            double next = Double.isNaN(current) ? reward : current + alpha * (reward - current);
+            if (rewardEwmaBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Smoothed live reward; NaN before the first experience
+     */
+    public double getLiveRewardAverage() {
+        return Double.longBitsToDouble(rewardEwmaBits.get());
+    }
+
+    private PromotionDecision record(PromotionDecision decision) {
+        lastDecision = decision;
+        return decision;
+    }
+
+    private void post(Object event) {
+        if (eventBus != null) {
+            eventBus.post(event);
+        }
+    }
+
+    /**
+     * Copy of the recorded live experiences, oldest first
+     */
+    public List<SimExperience> getRecordedExperiences() {
+        return recorder.window();
+    }
+
+    /**
+     * Whether a candidate is waiting for held-out experiences or being scored
+     */
+    public boolean isEvaluating() {
+        return evaluating.get();
+    }
+
+    public PromotionPolicy getPolicy() {
+        return policy;
+    }
+
+    public LifecycleStatus getStatus() {
+        ServingState state = serving.get();
+        return new LifecycleStatus(
+                state.model.getVersion(),
+                state.previous != null ? state.previous.getVersion() : -1L,
+                state.model.size(),
+                state.monitoring && state.observedSinceSwap.get() < policy.rollbackWindow,
+                state.observedSinceSwap.get(),
+                state.baselineReward,
+                getLiveRewardAverage(),
+                recorder.getRecordedCount(),
+                promotions.get(),
+                rejections.get(),
+                rollbacks.get(),
+                lastDecision
+        );
+    }
+
+    /**
+     * Drop all models and recorded experiences and serve the empty model again
+     */
+    public void reset() {
+        PendingCandidate candidate = pending.getAndSet(null);
+        if (candidate != null) {
+            evaluating.set(false);
+            candidate.result.complete(PromotionDecision.skipped(candidate.model.getVersion(), "lifecycle reset"));
+        }
+        serving.set(ServingState.initial());
+        recorder.clear();
+        rewardEwmaBits.set(Double.doubleToRawLongBits(Double.NaN));
+        lastDecision = null;
+    }
+
+    public void shutdown() {
+        PendingCandidate candidate = pending.getAndSet(null);
+        if (candidate != null) {
+            candidate.result.complete(PromotionDecision.skipped(candidate.model.getVersion(), "lifecycle shut down"));
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A snapshotted candidate and the recorder count its held-out window starts at
+     */
+    private static final class PendingCandidate {
+        private final QTableSnapshot model;
+        private final long recordedCount;
+        private final CompletableFuture<PromotionDecision> result;
+
+        private PendingCandidate(QTableSnapshot model, long recordedCount, CompletableFuture<PromotionDecision> result) {
+            this.model = model;
+            this.recordedCount = recordedCount;
+            this.result = result;
+        }
+    }
+
+    /**
+     * What is served, what it replaced, and the post-promotion reward tally.
+     * Replaced as a whole on every swap, so the tally restarts with each model.
+     */
+    private static final class ServingState {
+        private final QTableSnapshot model;
+        private final QTableSnapshot previous;
+        private final double baselineReward;
+        private final boolean monitoring;
+        private final AtomicLong observedSinceSwap = new AtomicLong();
+        private final DoubleAdder rewardSinceSwap = new DoubleAdder();
+
+        private ServingState(QTableSnapshot model, QTableSnapshot previous, double baselineReward, boolean monitoring) {
+            this.model = model;
+            this.previous = previous;
+            this.baselineReward = baselineReward;
+            // Without a baseline there is nothing to regress against
+            this.monitoring = monitoring && !Double.isNaN(baselineReward);
+        }
+
+        private static ServingState initial() {
+            return new ServingState(QTableSnapshot.EMPTY, null, Double.NaN, false);
+        }
+    }
+
+    // ===================== Data classes =====================
+
+    public static class PromotionDecision {
+        public enum Outcome { PROMOTED, REJECTED, SKIPPED }
+
+        public final Outcome outcome;
+        public final long candidateVersion;
+        public final String reason;
+        /** Null when the candidate was skipped before evaluation */
+        public final ShadowEvaluator.ShadowReport report;
+        public final long timestamp;
+
+        public PromotionDecision(Outcome outcome, long candidateVersion, String reason, ShadowEvaluator.ShadowReport report) {
+            this.outcome = outcome;
+            this.candidateVersion = candidateVersion;
+            this.reason = reason;
+            this.report = report;
+            this.timestamp = System.currentTimeMillis();
+        }
+
+        static PromotionDecision skipped(long candidateVersion, String reason) {
+            return new PromotionDecision(Outcome.SKIPPED, candidateVersion, reason, null);
+        }
+
+        @Override
+        public String toString() {
+            return outcome + " v" + candidateVersion + ": " + reason;
+        }
+    }
+
+    public static class LifecycleStatus {
+        public final long servingVersion;
+        /** Version a rollback would restore, or -1 */
+        public final long previousVersion;
+        public final int servingStates;
+        /** True while the post-promotion regression window is still open */
+        public final boolean monitoring;
+        public final long observedSincePromotion;
+        public final double baselineReward;
+        public final double liveRewardAverage;
+        public final long recordedExperiences;
+        public final int promotions;
+        public final int rejections;
+        public final int rollbacks;
+        public final PromotionDecision lastDecision;
+
+        public LifecycleStatus(long servingVersion, long previousVersion, int servingStates, boolean monitoring,
+                               long observedSincePromotion, double baselineReward, double liveRewardAverage,
+                               long recordedExperiences, int promotions, int rejections, int rollbacks,
+                               PromotionDecision lastDecision) {
+            this.servingVersion = servingVersion;
+            this.previousVersion = previousVersion;
+            this.servingStates = servingStates;
+            this.monitoring = monitoring;
+            this.observedSincePromotion = observedSincePromotion;
+            this.baselineReward = baselineReward;
+            this.liveRewardAverage = liveRewardAverage;
+            this.recordedExperiences = recordedExperiences;
+            this.promotions = promotions;
+            this.rejections = rejections;
+            this.rollbacks = rollbacks;
+            this.lastDecision = lastDecision;
+        }
+    }
+
+    public static class ModelPromotedEvent {
+        public final long version;
+        public final long replacedVersion;
+        public final ShadowEvaluator.ShadowReport report;
+
+        public ModelPromotedEvent(long version, long replacedVersion, ShadowEvaluator.ShadowReport report) {
+            this.version = version;
+            this.replacedVersion = replacedVersion;
+            this.report = report;
+        }
+    }
+
+    public static class ModelRejectedEvent {
+        public final long version;
+        public final String reason;
+        public final ShadowEvaluator.ShadowReport report;
+
+        public ModelRejectedEvent(long version, String reason, ShadowEvaluator.ShadowReport report) {
+            this.version = version;
+            this.reason = reason;
+            this.report = report;
+        }
+    }
+
+    public static class ModelRolledBackEvent {
+        public final long fromVersion;
+        public final long toVersion;
+        public final String reason;
+
+        public ModelRolledBackEvent(long fromVersion, long toVersion, String reason) {
+            this.fromVersion = fromVersion;
+            this.toVersion = toVersion;
+            this.reason = reason;
+        }
+    }
+}
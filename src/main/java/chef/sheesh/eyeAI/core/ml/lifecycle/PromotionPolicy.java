@@ -0,0 +1,52 @@
+package chef.sheesh.eyeAI.core.ml.lifecycle;
+
+/**
+ * Thresholds a candidate must beat in shadow evaluation, and the rollback guard
+ * applied to the live reward after a promotion.
+ */
+public class PromotionPolicy {
+    /** Experiences recorded after the candidate snapshot before it is judged */
+    public int minSamples = 500;
+    /** Matched experiences the candidate needs for its reward estimate to count */
+    public int minMatchedSamples = 100;
+    /** Required gain in matched reward over the live model; positive, so a tie is not a promotion */
+    public double minRewardGain = 0.005;
+    /** Candidate TD error may be at most this multiple of the live TD error */
+    public double maxTdErrorRatio = 1.0;
+    /** Minimum share of recorded states the candidate must know */
+    public double minCoverage = 0.5;
+    /** Discount used for TD error; should match training */
+    public double discountFactor = 0.99;
+
+    /** Live experiences observed after a promotion before the regression check runs */
+    public int rollbackWindow = 2000;
+    /** Allowed drop of the post-promotion average reward below the pre-promotion baseline */
+    public double rollbackTolerance = 0.05;
+    /** Smoothing of the live reward average used as baseline */
+    public double rewardEwmaAlpha = 0.01;
+    /** Size of the recorded experience window */
+    public int recorderCapacity = 1 << 16;
+
+    /**
+     * Why the candidate fails the thresholds, or null if it may be promoted
+     */
+    public String rejectionReason(ShadowEvaluator.ShadowReport report) {
+        ShadowEvaluator.ModelScore live = report.live;
+        ShadowEvaluator.ModelScore candidate = report.candidate;
+        if (candidate.coverage < minCoverage) {
+            return String.format("coverage %.1f%% below %.1f%%", candidate.coverage * 100, minCoverage * 100);
+        }
+        if (candidate.matchedSamples < minMatchedSamples) {
+            return "only " + candidate.matchedSamples + " matched samples, need " + minMatchedSamples;
+        }
+        if (candidate.matchedReward - live.matchedReward < minRewardGain) {
+            return String.format("reward %.3f vs live %.3f, need +%.3f",
+                    candidate.matchedReward, live.matchedReward, minRewardGain);
+        }
+        if (candidate.tdError > live.tdError * maxTdErrorRatio) {
+            return String.format("TD error %.3f vs live %.3f exceeds ratio %.2f",
+                    candidate.tdError, live.tdError, maxTdErrorRatio);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,114 @@
+package chef.sheesh.eyeAI.core.ml.lifecycle;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable, versioned copy of a Q-table.
+ * The table and its rows are deep-copied once and never written again, so any
+ * number of tick threads can read a snapshot without synchronization.
+ */
+public final class QTableSnapshot {
+
+    /** Snapshot served before any candidate has been promoted; knows no states. */
+    public static final QTableSnapshot EMPTY = new QTableSnapshot(0L, 0L, Collections.emptyMap(), 0);
+
+    private final long version;
+    private final long createdAt;
+    private final Map<Long, double[]> table;
+    private final int actions;
+
+    private QTableSnapshot(long version, long createdAt, Map<Long, double[]> table, int actions) {
+        this.version = version;
+        this.createdAt = createdAt;
+        this.table = table;
+        this.actions = actions;
+    }
+
+    /**
+     * Deep-copy a live table. Safe to call while the source is being trained as
+     * long as it is a concurrent map; a row written during the copy may be taken
+     * half-updated, which only matters as much as one extra training step.
+     */
+    public static QTableSnapshot copyOf(long version, Map<Long, double[]> source) {
+        Map<Long, double[]> copy = new HashMap<>(Math.max(16, (int) (source.size() / 0.75f) + 1));
+        int actions = 0;
+        for (Map.Entry<Long, double[]> entry : source.entrySet()) {
+            double[] row = entry.getValue().clone();
+            copy.put(entry.getKey(), row);
+            actions = Math.max(actions, row.length);
+        }
+        return new QTableSnapshot(version, System.currentTimeMillis(), copy, actions);
+    }
+
+    /**
+     * Q-values for a state, or null if the snapshot has never seen it.
+     * The returned row is shared and must not be modified.
+     */
+    public double[] qValues(long stateHash) {
+        return table.get(stateHash);
+    }
+
+    /**
+     * Greedy action among the first {@code maxActions}; 0 for unknown states
+     */
+    public int selectAction(long stateHash, int maxActions) {
+        double[] qValues = table.get(stateHash);
+        if (qValues == null || qValues.length == 0) {
+            return 0;
+        }
+        int bestIdx = 0;
+        double bestVal = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < Math.min(qValues.length, maxActions); i++) {
+            if (qValues[i] > bestVal) {
+                bestVal = qValues[i];
+                bestIdx = i;
+            }
+        }
+        return bestIdx;
+    }
+
+    /**
+     * Highest Q-value for a state, 0 for unknown states
+     */
+    public double maxQ(long stateHash) {
+        double[] qValues = table.get(stateHash);
+        if (qValues == null || qValues.length == 0) {
+            return 0.0;
+        }
+        double max = Double.NEGATIVE_INFINITY;
+        for (double q : qValues) {
+            max = Math.max(max, q);
+        }
+        return max;
+    }
+
+    /**
+     * Read-only view of the table, e.g. for {@code ModelValidator}
+     */
+    public Map<Long, double[]> asMap() {
+        return Collections.unmodifiableMap(table);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public int size() {
+        return table.size();
+    }
+
+    public int getActions() {
+        return actions;
+    }
+
+    @Override
+    public String toString() {
+        return "QTableSnapshot{v" + version + ", states=" + table.size() + ", actions=" + actions + "}";
+    }
+}
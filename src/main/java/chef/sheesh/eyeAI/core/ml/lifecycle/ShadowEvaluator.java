@@ -0,0 +1,143 @@
+package chef.sheesh.eyeAI.core.ml.lifecycle;
+
+import chef.sheesh.eyeAI.core.ml.validation.ActionMetricsAccumulator;
+import chef.sheesh.eyeAI.core.sim.SimExperience;
+
+import java.util.List;
+
+/**
+ * Scores a live and a candidate Q-table side by side on the same recorded experiences.
+ * Neither model acts: each one is only asked what it would have done. Per model this
+ * measures the reward of the experiences where its greedy action matches the action
+ * actually taken (a replay estimate of its policy's reward), the mean absolute TD
+ * error against the recorded transitions, and how many recorded states it knows.
+ */
+public final class ShadowEvaluator {
+
+    private ShadowEvaluator() {
+    }
+
+    public static ShadowReport compare(QTableSnapshot live, QTableSnapshot candidate,
+                                       List<SimExperience> experiences, double discountFactor) {
+        int actions = Math.max(1, Math.max(live.getActions(), candidate.getActions()));
+        ScoreAccumulator liveScore = new ScoreAccumulator(live, actions, discountFactor);
+        ScoreAccumulator candidateScore = new ScoreAccumulator(candidate, actions, discountFactor);
+        long agreements = 0;
+
+        for (SimExperience exp : experiences) {
+            int liveAction = liveScore.accept(exp);
+            int candidateAction = candidateScore.accept(exp);
+            if (liveAction == candidateAction) {
+                agreements++;
+            }
+        }
+
+        int samples = experiences.size();
+        return new ShadowReport(samples, samples > 0 ? (double) agreements / samples : 0.0,
+                liveScore.toScore(), candidateScore.toScore());
+    }
+
+    private static final class ScoreAccumulator {
+        private final QTableSnapshot model;
+        private final int actions;
+        private final double discountFactor;
+        private final ActionMetricsAccumulator metrics;
+        private long matched;
+        private double matchedReward;
+        private double tdErrorSum;
+
+        private ScoreAccumulator(QTableSnapshot model, int actions, double discountFactor) {
+            this.model = model;
+            this.actions = actions;
+            this.discountFactor = discountFactor;
+            this.metrics = new ActionMetricsAccumulator(actions);
+        }
+
+        /**
+         * Score one experience and return the model's greedy action for it
+         */
+        private int accept(SimExperience exp) {
+            double[] qValues = model.qValues(exp.getStateHash());
+            metrics.accept(exp.getAction(), exp.getReward(), qValues);
+
+            int greedy = model.selectAction(exp.getStateHash(), actions);
+            if (greedy == exp.getAction()) {
+                matched++;
+                matchedReward += exp.getReward();
+            }
+
+            double taken = qValues != null && exp.getAction() >= 0 && exp.getAction() < qValues.length
+                    ? qValues[exp.getAction()] : 0.0;
+            double target = exp.getReward() + (exp.isTerminal() ? 0.0 : discountFactor * model.maxQ(exp.getNextStateHash()));
+            tdErrorSum += Math.abs(target - taken);
+            return greedy;
+        }
+
+        private ModelScore toScore() {
+            long count = metrics.getCount();
+            return new ModelScore(
+                    model.getVersion(),
+                    metrics.getAccuracy(),
+                    matched,
+                    matched > 0 ? matchedReward / matched : 0.0,
+                    count > 0 ? tdErrorSum / count : 0.0,
+                    count > 0 ? 1.0 - (double) metrics.getUnseenStates() / count : 0.0
+            );
+        }
+    }
+
+    /**
+     * Shadow metrics of one model
+     */
+    public static class ModelScore {
+        public final long version;
+        /** Share of experiences where the greedy action equals the taken action */
+        public final double accuracy;
+        public final long matchedSamples;
+        /** Average reward over the matched experiences */
+        public final double matchedReward;
+        public final double tdError;
+        /** Share of recorded states present in the model */
+        public final double coverage;
+
+        public ModelScore(long version, double accuracy, long matchedSamples, double matchedReward,
+                          double tdError, double coverage) {
+            this.version = version;
+            this.accuracy = accuracy;
+            this.matchedSamples = matchedSamples;
+            this.matchedReward = matchedReward;
+            this.tdError = tdError;
+            this.coverage = coverage;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("v%d{reward=%.3f (n=%d), td=%.3f, coverage=%.1f%%, accuracy=%.1f%%}",
+                    version, matchedReward, matchedSamples, tdError, coverage * 100, accuracy * 100);
+        }
+    }
+
+    /**
+     * Side-by-side comparison of live and candidate
+     */
+    public static class ShadowReport {
+        public final int samples;
+        /** Share of experiences where both models pick the same action */
+        public final double agreement;
+        public final ModelScore live;
+        public final ModelScore candidate;
+
+        public ShadowReport(int samples, double agreement, ModelScore live, ModelScore candidate) {
+            this.samples = samples;
+            this.agreement = agreement;
+            this.live = live;
+            this.candidate = candidate;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ShadowReport{samples=%d, agreement=%.1f%%, live=%s, candidate=%s}",
+                    samples, agreement * 100, live, candidate);
+        }
+    }
+}
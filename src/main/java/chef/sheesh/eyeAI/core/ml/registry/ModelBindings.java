@@ -0,0 +1,21 @@
+package chef.sheesh.eyeAI.core.ml.registry;
+
+import chef.sheesh.eyeAI.core.ml.ga.GAOptimizer;
+
+/**
+ * Serving bindings for live model classes that need no extra bookkeeping.
+ * Each installer receives a fully decoded model and publishes it with reference swaps only;
+ * the Q-table and movement model are bound in {@code MLManager.attachRegistry}.
+ */
+public final class ModelBindings {
+
+    private ModelBindings() {
+    }
+
+    /**
+     * Serve a population into an optimizer to continue evolving from it
+     */
+    public static void bindGAOptimizer(ModelRegistry registry, GAOptimizer optimizer) {
+        registry.bind(ModelCodecs.GA_POPULATION, optimizer::importParameters);
+    }
+}
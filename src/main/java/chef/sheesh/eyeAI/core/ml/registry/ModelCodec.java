@@ -0,0 +1,18 @@
+package chef.sheesh.eyeAI.core.ml.registry;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Binary encoding of one model type.
+ * Readers receive the schema the artifact was written with so old artifacts can be migrated.
+ */
+public interface ModelCodec<M> {
+
+    ModelType getType();
+
+    void write(M model, DataOutputStream out) throws IOException;
+
+    M read(DataInputStream in, int schemaVersion) throws IOException;
+}
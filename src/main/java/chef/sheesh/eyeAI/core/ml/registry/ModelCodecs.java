@@ -0,0 +1,202 @@
+package chef.sheesh.eyeAI.core.ml.registry;
+
+import chef.sheesh.eyeAI.core.ml.ga.GAOptimizer;
+import chef.sheesh.eyeAI.core.ml.rnn.LstmWeights;
+import chef.sheesh.eyeAI.core.ml.rnn.MovementRNN;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.util.ModelSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codecs for the model types the plugin trains.
+ * All layouts are plain length-prefixed primitives; only the DQN delegates to DL4J's zip format.
+ */
+public final class ModelCodecs {
+
+    private ModelCodecs() {
+    }
+
+    /** State hash to Q-values, as held by {@code QTableAgent} and {@code MLManager} */
+    public static final ModelCodec<Map<Long, double[]>> Q_TABLE = new ModelCodec<>() {
+        @Override
+        public ModelType getType() {
+            return ModelType.Q_TABLE;
+        }
+
+        @Override
+        public void write(Map<Long, double[]> table, DataOutputStream out) throws IOException {
+            // Copy first so a concurrently trained table cannot change size mid-write
+            List<Map.Entry<Long, double[]>> entries = new ArrayList<>(table.entrySet());
+            out.writeInt(entries.size());
+            for (Map.Entry<Long, double[]> entry : entries) {
+                out.writeLong(entry.getKey());
+                writeArray(out, entry.getValue());
+            }
+        }
+
+        @Override
+        public Map<Long, double[]> read(DataInputStream in, int schemaVersion) throws IOException {
+            int size = in.readInt();
+            Map<Long, double[]> table = new HashMap<>(Math.max(16, (int) (size / 0.75f) + 1));
+            for (int i = 0; i < size; i++) {
+                table.put(in.readLong(), readArray(in));
+            }
+            return table;
+        }
+    };
+
+    /**
+     * Weights of a {@link MovementRNN}; the recurrent state is not part of the model.
+     * Schema 2 stores the flat fused-gate buffers, schema 1 payloads hold the previous
+     * shared-matrix layout and are converted on read.
+     */
+    public static final ModelCodec<LstmWeights> MOVEMENT_RNN = new ModelCodec<>() {
+        @Override
+        public ModelType getType() {
+            return ModelType.MOVEMENT_RNN;
+        }
+
+        @Override
+        public void write(LstmWeights weights, DataOutputStream out) throws IOException {
+            out.writeInt(weights.getInputSize());
+            out.writeInt(weights.getHiddenSize());
+            out.writeInt(weights.getOutputSize());
+            writeArray(out, weights.copyGates());
+            writeArray(out, weights.copyGateBias());
+            writeArray(out, weights.copyOutput());
+            writeArray(out, weights.copyOutputBias());
+        }
+
+        @Override
+        public LstmWeights read(DataInputStream in, int schemaVersion) throws IOException {
+            if (schemaVersion < 2) {
+                double[][] inputToHidden = readMatrix(in);
+                double[][] hiddenToHidden = readMatrix(in);
+                double[][] hiddenToOutput = readMatrix(in);
+                double[] hiddenBiases = readArray(in);
+                double[] outputBiases = readArray(in);
+                return LstmWeights.fromLegacy(new MovementRNN.RNNParameters(inputToHidden, hiddenToHidden, hiddenToOutput,
+                        hiddenBiases, outputBiases, new double[hiddenBiases.length], new double[hiddenBiases.length]));
+            }
+            int inputSize = in.readInt();
+            int hiddenSize = in.readInt();
+            int outputSize = in.readInt();
+            try {
+                return LstmWeights.of(inputSize, hiddenSize, outputSize,
+                        readArray(in), readArray(in), readArray(in), readArray(in));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt RNN payload: " + e.getMessage(), e);
+            }
+        }
+    };
+
+    /** Population, generation and best genome of a {@link GAOptimizer}; the config stays with the optimizer */
+    public static final ModelCodec<GAOptimizer.GAParameters> GA_POPULATION = new ModelCodec<>() {
+        @Override
+        public ModelType getType() {
+            return ModelType.GA_POPULATION;
+        }
+
+        @Override
+        public void write(GAOptimizer.GAParameters parameters, DataOutputStream out) throws IOException {
+            out.writeInt(parameters.currentGeneration);
+            out.writeDouble(parameters.bestFitness);
+            out.writeBoolean(parameters.bestGenome != null);
+            if (parameters.bestGenome != null) {
+                writeGenome(out, parameters.bestGenome);
+            }
+            out.writeInt(parameters.population.size());
+            for (GAOptimizer.Genome genome : parameters.population) {
+                writeGenome(out, genome);
+            }
+        }
+
+        @Override
+        public GAOptimizer.GAParameters read(DataInputStream in, int schemaVersion) throws IOException {
+            int generation = in.readInt();
+            double bestFitness = in.readDouble();
+            GAOptimizer.Genome best = in.readBoolean() ? readGenome(in) : null;
+            int size = in.readInt();
+            List<GAOptimizer.Genome> population = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                population.add(readGenome(in));
+            }
+            return new GAOptimizer.GAParameters(null, population, best, bestFitness, generation);
+        }
+    };
+
+    /** Q-network of a {@code DeepQNetwork}, without updater state */
+    public static final ModelCodec<MultiLayerNetwork> DQN = new ModelCodec<>() {
+        @Override
+        public ModelType getType() {
+            return ModelType.DQN;
+        }
+
+        @Override
+        public void write(MultiLayerNetwork network, DataOutputStream out) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ModelSerializer.writeModel(network, bytes, false);
+            out.writeInt(bytes.size());
+            bytes.writeTo(out);
+        }
+
+        @Override
+        public MultiLayerNetwork read(DataInputStream in, int schemaVersion) throws IOException {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return ModelSerializer.restoreMultiLayerNetwork(new ByteArrayInputStream(bytes), false);
+        }
+    };
+
+    private static void writeArray(DataOutputStream out, double[] values) throws IOException {
+        out.writeInt(values.length);
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static double[] readArray(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Negative array length " + length);
+        }
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+
+    private static void writeGenome(DataOutputStream out, GAOptimizer.Genome genome) throws IOException {
+        writeArray(out, genome.getWeights());
+        out.writeDouble(genome.getFitness());
+    }
+
+    private static GAOptimizer.Genome readGenome(DataInputStream in) throws IOException {
+        GAOptimizer.Genome genome = new GAOptimizer.Genome(0);
+        genome.setWeights(readArray(in));
+        genome.setFitness(in.readDouble());
+        return genome;
+    }
+
+    private static double[][] readMatrix(DataInputStream in) throws IOException {
+        int rows = in.readInt();
+        if (rows < 0) {
+            throw new IOException("Negative matrix size " + rows);
+        }
+        double[][] matrix = new double[rows][];
+        for (int i = 0; i < rows; i++) {
+            matrix[i] = readArray(in);
+        }
+        return matrix;
+    }
+}
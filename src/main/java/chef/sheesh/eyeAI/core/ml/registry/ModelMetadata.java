@@ -0,0 +1,40 @@
+package chef.sheesh.eyeAI.core.ml.registry;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable description of one registry artifact, stored next to its payload
+ */
+public final class ModelMetadata {
+    public final ModelType type;
+    public final long version;
+    public final int schemaVersion;
+    /** Version this artifact was derived from, or -1 */
+    public final long parentVersion;
+    public final long createdAt;
+    /** SHA-256 of the payload, hex encoded */
+    public final String checksum;
+    public final long sizeBytes;
+    public final Map<String, Double> metrics;
+    public final String note;
+
+    public ModelMetadata(ModelType type, long version, int schemaVersion, long parentVersion, long createdAt,
+                         String checksum, long sizeBytes, Map<String, Double> metrics, String note) {
+        this.type = type;
+        this.version = version;
+        this.schemaVersion = schemaVersion;
+        this.parentVersion = parentVersion;
+        this.createdAt = createdAt;
+        this.checksum = checksum;
+        this.sizeBytes = sizeBytes;
+        this.metrics = metrics != null ? Collections.unmodifiableMap(metrics) : Collections.emptyMap();
+        this.note = note;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s v%d (schema %d, parent %s, %d bytes, %s)", type.getKey(), version, schemaVersion,
+                parentVersion >= 0 ? "v" + parentVersion : "none", sizeBytes, checksum.substring(0, Math.min(12, checksum.length())));
+    }
+}
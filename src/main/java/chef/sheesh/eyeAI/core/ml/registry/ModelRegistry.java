@@ -0,0 +1,451 @@
+package chef.sheesh.eyeAI.core.ml.registry;
+
+import chef.sheesh.eyeAI.infra.events.EventBus;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Versioned, local-disk store for every trained model type.
+ * <p>
+ * Layout: {@code model_registry/<type>/v<version>.bin} holds the codec payload and
+ * {@code v<version>.json} its {@link ModelMetadata}. Both are written to a temp file and
+ * moved into place, metadata last, so an artifact either exists completely or not at all;
+ * once written they are never modified. {@code <type>/serving} names the version to load
+ * on startup. Metadata is indexed in memory, so listing and lookup never touch the disk.
+ * <p>
+ * Switching the serving version decodes the artifact off the tick thread and then hands
+ * the finished model to the type's installer, which must publish it with a single
+ * reference swap. Ticks keep using the old model until that swap.
+ */
+public final class ModelRegistry {
+
+    private static final Logger LOGGER = Logger.getLogger(ModelRegistry.class.getName());
+    private static final String SERVING_FILE = "serving";
+
+    private final File root;
+    private final EventBus eventBus;
+    private final RetentionPolicy retention;
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private final Map<ModelType, ConcurrentSkipListMap<Long, ModelMetadata>> index = new EnumMap<>(ModelType.class);
+    private final Map<ModelType, AtomicReference<ModelMetadata>> serving = new EnumMap<>(ModelType.class);
+    private final Map<ModelType, Binding<?>> bindings = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    /**
+     * @param eventBus receives publish and serve events; may be null
+     */
+    public ModelRegistry(File dataFolder, EventBus eventBus, RetentionPolicy retention) {
+        this.root = new File(dataFolder, "model_registry");
+        this.eventBus = eventBus;
+        this.retention = retention;
+        for (ModelType type : ModelType.values()) {
+            index.put(type, new ConcurrentSkipListMap<>());
+            serving.put(type, new AtomicReference<>());
+        }
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "ModelRegistry-IO");
+            thread.setDaemon(true);
+            return thread;
+        });
+        loadIndex();
+    }
+
+    /**
+     * Read all metadata files; payloads are only read when a version is loaded
+     */
+    private void loadIndex() {
+        for (ModelType type : ModelType.values()) {
+            File dir = typeDir(type);
+            File[] files = dir.listFiles();
+            if (files == null) {
+                continue;
+            }
+            for (File file : files) {
+                String name = file.getName();
+                if (name.endsWith(".tmp")) {
+                    file.delete(); // Interrupted write
+                } else if (name.startsWith("v") && name.endsWith(".json")) {
+                    try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                        ModelMetadata metadata = gson.fromJson(reader, ModelMetadata.class);
+                        if (metadata != null && metadata.type == type && payloadFile(type, metadata.version).exists()) {
+                            index.get(type).put(metadata.version, metadata);
+                        }
+                    } catch (Exception e) {
+                        LOGGER.log(Level.WARNING, "Skipping unreadable model metadata " + file, e);
+                    }
+                }
+            }
+            File pointer = new File(dir, SERVING_FILE);
+            if (pointer.exists()) {
+                try {
+                    long version = Long.parseLong(Files.readString(pointer.toPath(), StandardCharsets.UTF_8).trim());
+                    ModelMetadata metadata = index.get(type).get(version);
+                    if (metadata != null) {
+                        serving.get(type).set(metadata);
+                    }
+                } catch (IOException | NumberFormatException e) {
+                    LOGGER.log(Level.WARNING, "Ignoring unreadable serving pointer " + pointer, e);
+                }
+            }
+        }
+    }
+
+    // ===================== Publishing =====================
+
+    /**
+     * Encode a model and store it as the next version of its type.
+     *
+     * @param parentVersion version the model was derived from, or -1
+     * @param metrics       evaluation metrics to keep with the artifact; may be null
+     */
+    public <M> ModelMetadata publish(ModelCodec<M> codec, M model, long parentVersion,
+                                     Map<String, Double> metrics, String note) throws IOException {
+        ModelType type = codec.getType();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            codec.write(model, out);
+        }
+        byte[] payload = bytes.toByteArray();
+
+        ModelMetadata metadata;
+        synchronized (lock(type)) {
+            ConcurrentSkipListMap<Long, ModelMetadata> versions = index.get(type);
+            long version = versions.isEmpty() ? 1L : versions.lastKey() + 1;
+            File dir = typeDir(type);
+            Files.createDirectories(dir.toPath());
+
+            metadata = new ModelMetadata(type, version, type.getSchemaVersion(), parentVersion,
+                    System.currentTimeMillis(), sha256(payload), payload.length, metrics, note);
+            File payloadFile = payloadFile(type, version);
+            File metadataFile = metadataFile(type, version);
+            writeAtomically(payloadFile, payload);
+            writeAtomically(metadataFile, gson.toJson(metadata).getBytes(StandardCharsets.UTF_8));
+            payloadFile.setReadOnly();
+            metadataFile.setReadOnly();
+
+            versions.put(version, metadata);
+            applyRetention(type);
+        }
+        post(new ModelPublishedEvent(metadata));
+        return metadata;
+    }
+
+    /**
+     * Publish on the registry's I/O thread
+     */
+    public <M> CompletableFuture<ModelMetadata> publishAsync(ModelCodec<M> codec, M model, long parentVersion,
+                                                             Map<String, Double> metrics, String note) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return publish(codec, model, parentVersion, metrics, note);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to publish " + codec.getType().getKey() + " model", e);
+            }
+        }, executor);
+    }
+
+    // ===================== Lookup =====================
+
+    /**
+     * All versions of a type, newest first
+     */
+    public List<ModelMetadata> list(ModelType type) {
+        return new ArrayList<>(index.get(type).descendingMap().values());
+    }
+
+    public Optional<ModelMetadata> get(ModelType type, long version) {
+        return Optional.ofNullable(index.get(type).get(version));
+    }
+
+    public Optional<ModelMetadata> latest(ModelType type) {
+        Map.Entry<Long, ModelMetadata> entry = index.get(type).lastEntry();
+        return entry != null ? Optional.of(entry.getValue()) : Optional.empty();
+    }
+
+    /**
+     * Version currently served for a type, if one has been switched to
+     */
+    public Optional<ModelMetadata> getServing(ModelType type) {
+        return Optional.ofNullable(serving.get(type).get());
+    }
+
+    /**
+     * Read and decode an artifact, verifying its checksum
+     */
+    public <M> M load(ModelCodec<M> codec, long version) throws IOException {
+        ModelType type = codec.getType();
+        ModelMetadata metadata = index.get(type).get(version);
+        if (metadata == null) {
+            throw new IOException("No " + type.getKey() + " model v" + version);
+        }
+        byte[] payload = Files.readAllBytes(payloadFile(type, version).toPath());
+        if (!sha256(payload).equals(metadata.checksum)) {
+            throw new IOException("Checksum mismatch for " + type.getKey() + " model v" + version);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            return codec.read(in, metadata.schemaVersion);
+        }
+    }
+
+    // ===================== Serving =====================
+
+    /**
+     * Register how a decoded model is put into service.
+     * The installer runs on the registry's I/O thread and must swap the model in atomically.
+     */
+    public <M> void bind(ModelCodec<M> codec, Consumer<M> installer) {
+        bind(codec, (model, metadata) -> installer.accept(model));
+    }
+
+    /**
+     * As {@link #bind(ModelCodec, Consumer)}, for installers that need the artifact's metadata
+     */
+    public <M> void bind(ModelCodec<M> codec, BiConsumer<M, ModelMetadata> installer) {
+        bindings.put(codec.getType(), new Binding<>(codec, installer));
+    }
+
+    /**
+     * Switch the serving version of a bound type. Loading and decoding happen on the
+     * registry's I/O thread; the tick threads only ever observe the final swap.
+     */
+    public CompletableFuture<ModelMetadata> serve(ModelType type, long version) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return serveNow(type, version);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to serve " + type.getKey() + " model v" + version, e);
+            }
+        }, executor);
+    }
+
+    private <M> ModelMetadata serveNow(ModelType type, long version) throws IOException {
+        @SuppressWarnings("unchecked")
+        Binding<M> binding = (Binding<M>) bindings.get(type);
+        if (binding == null) {
+            throw new IOException("No serving binding for " + type.getKey());
+        }
+        M model = load(binding.codec, version);
+        ModelMetadata metadata = index.get(type).get(version);
+        binding.installer.accept(model, metadata);
+
+        ModelMetadata previous = serving.get(type).get();
+        markServing(type, version);
+        LOGGER.info("Serving " + metadata + (previous != null ? ", replacing v" + previous.version : ""));
+        post(new ModelServedEvent(type, version, previous != null ? previous.version : -1L));
+        return metadata;
+    }
+
+    /**
+     * Record a version as serving without installing it, for models that are already
+     * live in memory (e.g. right after publishing a promoted candidate)
+     */
+    public void markServing(ModelType type, long version) throws IOException {
+        ModelMetadata metadata = index.get(type).get(version);
+        if (metadata == null) {
+            throw new IOException("No " + type.getKey() + " model v" + version);
+        }
+        synchronized (lock(type)) {
+            serving.get(type).set(metadata);
+            writeAtomically(new File(typeDir(type), SERVING_FILE),
+                    Long.toString(version).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * {@link #markServing} on the registry's I/O thread; safe to call from tick threads
+     */
+    public CompletableFuture<Void> markServingAsync(ModelType type, long version) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                markServing(type, version);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to mark " + type.getKey() + " model v" + version + " as serving", e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Forget the serving version of a type, e.g. after rolling back to a model that was never published
+     */
+    public CompletableFuture<Void> clearServingAsync(ModelType type) {
+        return CompletableFuture.runAsync(() -> {
+            synchronized (lock(type)) {
+                serving.get(type).set(null);
+                delete(new File(typeDir(type), SERVING_FILE));
+            }
+        }, executor);
+    }
+
+    /**
+     * Install the recorded serving version of every bound type; used on startup
+     */
+    public CompletableFuture<Void> restoreServing() {
+        List<CompletableFuture<ModelMetadata>> restores = new ArrayList<>();
+        for (ModelType type : bindings.keySet()) {
+            ModelMetadata metadata = serving.get(type).get();
+            if (metadata != null) {
+                restores.add(serve(type, metadata.version).exceptionally(e -> {
+                    LOGGER.log(Level.WARNING, "Could not restore serving " + type.getKey() + " model", e);
+                    return null;
+                }));
+            }
+        }
+        return CompletableFuture.allOf(restores.toArray(new CompletableFuture[0]));
+    }
+
+    // ===================== Retention =====================
+
+    /**
+     * Delete artifacts beyond the policy; the newest, serving and serving parent are kept
+     */
+    private void applyRetention(ModelType type) {
+        ConcurrentSkipListMap<Long, ModelMetadata> versions = index.get(type);
+        ModelMetadata current = serving.get(type).get();
+        long now = System.currentTimeMillis();
+        int rank = 0;
+        for (ModelMetadata metadata : new ArrayList<>(versions.descendingMap().values())) {
+            boolean protectedVersion = rank == 0 || current != null
+                    && (metadata.version == current.version || metadata.version == current.parentVersion);
+            boolean expired = rank >= retention.keepLatest
+                    || retention.maxAgeMillis > 0 && now - metadata.createdAt > retention.maxAgeMillis;
+            rank++;
+            if (protectedVersion || !expired) {
+                continue;
+            }
+            versions.remove(metadata.version);
+            // Metadata first: a leftover payload without metadata is ignored on load
+            delete(metadataFile(type, metadata.version));
+            delete(payloadFile(type, metadata.version));
+        }
+    }
+
+    private static void delete(File file) {
+        file.setWritable(true);
+        if (file.exists() && !file.delete()) {
+            LOGGER.warning("Could not delete model file " + file);
+        }
+    }
+
+    // ===================== Helpers =====================
+
+    private Object lock(ModelType type) {
+        return index.get(type);
+    }
+
+    private File typeDir(ModelType type) {
+        return new File(root, type.getKey());
+    }
+
+    private File payloadFile(ModelType type, long version) {
+        return new File(typeDir(type), "v" + version + ".bin");
+    }
+
+    private File metadataFile(ModelType type, long version) {
+        return new File(typeDir(type), "v" + version + ".json");
+    }
+
+    private static void writeAtomically(File target, byte[] data) throws IOException {
+        Path tmp = new File(target.getParentFile(), target.getName() + ".tmp").toPath();
+        Files.write(tmp, data);
+        try {
+            Files.move(tmp, target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void post(Object event) {
+        if (eventBus != null) {
+            eventBus.post(event);
+        }
+    }
+
+    public RetentionPolicy getRetention() {
+        return retention;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Binding<M> {
+        private final ModelCodec<M> codec;
+        private final BiConsumer<M, ModelMetadata> installer;
+
+        private Binding(ModelCodec<M> codec, BiConsumer<M, ModelMetadata> installer) {
+            this.codec = codec;
+            this.installer = installer;
+        }
+    }
+
+    // Event classes
+
+    public static class ModelPublishedEvent {
+        public final ModelMetadata metadata;
+
+        public ModelPublishedEvent(ModelMetadata metadata) {
+            this.metadata = metadata;
+        }
+    }
+
+    public static class ModelServedEvent {
+        public final ModelType type;
+        public final long version;
+        public final long previousVersion;
+
+        public ModelServedEvent(ModelType type, long version, long previousVersion) {
+            this.type = type;
+            this.version = version;
+            this.previousVersion = previousVersion;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package chef.sheesh.eyeAI.core.ml.registry;
+
+/**
+ * Kinds of model kept in the registry, each with its own version sequence.
+ * The schema is bumped whenever a codec's binary layout changes.
+ */
+public enum ModelType {
+    Q_TABLE("q_table", 1),
+    DQN("dqn", 1),
+    MOVEMENT_RNN("movement_rnn", 2),
+    GA_POPULATION("ga_population", 1);
+
+    private final String key;
+    private final int schemaVersion;
+
+    ModelType(String key, int schemaVersion) {
+        this.key = key;
+        this.schemaVersion = schemaVersion;
+    }
+
+    /** Directory name and command argument */
+    public String getKey() {
+        return key;
+    }
+
+    public int getSchemaVersion() {
+        return schemaVersion;
+    }
+
+    public static ModelType fromKey(String key) {
+        for (ModelType type : values()) {
+            if (type.key.equalsIgnoreCase(key)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,12 @@
+package chef.sheesh.eyeAI.core.ml.registry;
+
+/**
+ * How many artifacts to keep per model type.
+ * The serving version and its parent are always kept, as is the newest artifact.
+ */
+public class RetentionPolicy {
+    /** Newest artifacts kept per type */
+    public int keepLatest = 10;
+    /** Artifacts older than this are deleted regardless of rank; 0 disables */
+    public long maxAgeMillis = 0L;
+}
@@ -9,7 +9,8 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public final class QTableAgent {
 
-    private final Map<Long, double[]> qTable = new ConcurrentHashMap<>();
+    // Replaced as a whole on import; methods read it once so they never mix two tables
+    private volatile Map<Long, double[]> qTable = new ConcurrentHashMap<>();
     private final Random random = new Random();
 
     // Learning parameters
@@ -81,8 +82,9 @@ public final class QTableAgent {
         totalReward += reward;
 
         // Get or create Q-values for current state
-        double[] currentQ = qTable.computeIfAbsent(currentState, k -> new double[maxActions]);
-        double[] nextQ = qTable.computeIfAbsent(nextState, k -> new double[maxActions]);
+        Map<Long, double[]> table = qTable;
+        double[] currentQ = table.computeIfAbsent(currentState, k -> new double[maxActions]);
+        double[] nextQ = table.computeIfAbsent(nextState, k -> new double[maxActions]);
 
         // Q-learning formula: Q(s,a) = Q(s,a) + α[r + γmaxQ(s',a') - Q(s,a)]
         double currentQValue = currentQ[action];
@@ -229,10 +231,13 @@ public final class QTableAgent {
      * Import Q-table from persistence
      */
     public void importQTable(Map<Long, double[]> qTable) {
-        this.qTable.clear();
+        // Build the whole table first and publish it with one reference write, so readers see
+        // either the old table or the new one, never a mix
+        Map<Long, double[]> imported = new ConcurrentHashMap<>(Math.max(16, qTable.size() * 4 / 3 + 1));
         for (Map.Entry<Long, double[]> entry : qTable.entrySet()) {
-            this.qTable.put(entry.getKey(), entry.getValue().clone());
+            imported.put(entry.getKey(), entry.getValue().clone());
         }
+        this.qTable = imported;
     }
 
     // Private helper methods
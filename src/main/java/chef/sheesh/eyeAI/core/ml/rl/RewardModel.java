@@ -2,6 +2,7 @@ package chef.sheesh.eyeAI.core.ml.rl;
 
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
 import chef.sheesh.eyeAI.core.sim.SimExperience;
+import chef.sheesh.eyeAI.infra.diagnostic.AIEventLog;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
@@ -44,7 +45,7 @@ public final class RewardModel {
 
     // Player-specific reward tracking
     private final Map<String, PlayerRewardStats> playerRewardStats = new HashMap<>();
-    private boolean detailedLoggingEnabled = true; // Configurable logging
+    private boolean detailedLoggingEnabled = false; // Text logging; structured events go to AIEventLog
 
     /**
      * Calculate reward for a fake player based on recent actions
@@ -87,6 +88,10 @@ public final class RewardModel {
         // Update player reward statistics
         stats.addReward(totalReward, combatReward, movementReward, survivalReward, explorationReward, timePenalty);
 
+        // Structured event; sampling and rate limits are applied by the event log
+        AIEventLog.get().reward(fakePlayer.getId(), stats.rewardCalculations, totalReward, combatReward,
+                movementReward, survivalReward, explorationReward, timePenalty);
+
         // Log detailed reward information
         if (detailedLoggingEnabled && (stats.rewardCalculations % 100 == 0 || Math.abs(totalReward) > 5.0)) {
             logPlayerRewardDetails(fakePlayer, stats, totalReward, combatReward, movementReward,
@@ -475,6 +480,10 @@ public final class RewardModel {
         this.explorationRewardWeight = weight;
     }
 
+    public void setTimePenaltyWeight(double weight) {
+        this.timePenaltyWeight = weight;
+    }
+
     public void setKillReward(double reward) {
         this.killReward = reward;
     }
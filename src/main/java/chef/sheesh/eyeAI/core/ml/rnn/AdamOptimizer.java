@@ -0,0 +1,52 @@
+package chef.sheesh.eyeAI.core.ml.rnn;
+
+/**
+ * Adam with bias correction over {@link LstmWeights}.
+ * Moment buffers are private to the trainer thread; every step returns new immutable weights.
+ */
+public final class AdamOptimizer {
+
+    private final RnnTrainingConfig config;
+    private final LstmGradients firstMoment;
+    private final LstmGradients secondMoment;
+    private long step;
+
+    public AdamOptimizer(LstmWeights shape, RnnTrainingConfig config) {
+        this.config = config;
+        this.firstMoment = new LstmGradients(shape);
+        this.secondMoment = new LstmGradients(shape);
+    }
+
+    /**
+     * Apply one update and return the resulting weights
+     */
+    public LstmWeights step(LstmWeights weights, LstmGradients gradients) {
+        step++;
+        double beta1 = config.beta1;
+        double beta2 = config.beta2;
+        // Fold both bias corrections into the step size
+        double stepSize = config.learningRate * Math.sqrt(1.0 - Math.pow(beta2, step)) / (1.0 - Math.pow(beta1, step));
+        double epsilon = config.epsilon;
+        return new LstmWeights(weights.inputSize, weights.hiddenSize, weights.outputSize,
+                update(weights.gates, gradients.gates, firstMoment.gates, secondMoment.gates, beta1, beta2, stepSize, epsilon),
+                update(weights.gateBias, gradients.gateBias, firstMoment.gateBias, secondMoment.gateBias, beta1, beta2, stepSize, epsilon),
+                update(weights.output, gradients.output, firstMoment.output, secondMoment.output, beta1, beta2, stepSize, epsilon),
+                update(weights.outputBias, gradients.outputBias, firstMoment.outputBias, secondMoment.outputBias, beta1, beta2, stepSize, epsilon));
+    }
+
+    public long getStep() {
+        return step;
+    }
+
+    private static double[] update(double[] values, double[] grads, double[] m, double[] v,
+                                   double beta1, double beta2, double stepSize, double epsilon) {
+        double[] result = new double[values.length];
+        for (int k = 0; k < values.length; k++) {
+            double g = grads[k];
+            m[k] = beta1 * m[k] + (1.0 - beta1) * g;
+            v[k] = beta2 * v[k] + (1.0 - beta2) * g * g;
+            result[k] = values[k] - stepSize * m[k] / (Math.sqrt(v[k]) + epsilon);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,340 @@
+package chef.sheesh.eyeAI.core.ml.rnn;
+
+import java.util.Arrays;
+
+/**
+ * Stateless LSTM compute over {@link LstmWeights}.
+ * <p>
+ * Gate pre-activations are one pass over the fused gate matrix against {@code [x, h]},
+ * so every weight is read once per step. Scratch buffers come from a per-thread workspace
+ * and are never allocated on the step path; recurrent state is owned by the caller.
+ * Inference can run in single precision; training always runs in double precision.
+ */
+public final class LstmEngine {
+
+    /**
+     * Arithmetic precision of inference steps
+     */
+    public enum Precision {
+        DOUBLE,
+        FLOAT
+    }
+
+    private static final ThreadLocal<Workspace> WORKSPACES = ThreadLocal.withInitial(Workspace::new);
+
+    private final LstmKernels kernels;
+    private final Precision precision;
+
+    public LstmEngine(LstmKernels kernels, Precision precision) {
+        this.kernels = kernels;
+        this.precision = precision;
+    }
+
+    /**
+     * Engine on the best kernels available in this JVM
+     */
+    public static LstmEngine create(Precision precision) {
+        return new LstmEngine(LstmKernels.best(), precision);
+    }
+
+    public LstmKernels getKernels() {
+        return kernels;
+    }
+
+    public Precision getPrecision() {
+        return precision;
+    }
+
+    /**
+     * One LSTM step. Updates {@code h} and {@code c} in place and writes the
+     * tanh-activated projection into {@code y} unless it is null.
+     */
+    public void step(LstmWeights w, double[] x, double[] h, double[] c, double[] y) {
+        Workspace ws = workspace(w);
+        if (precision == Precision.FLOAT) {
+            stepFloat(w, ws, x, h, c, y);
+            return;
+        }
+        int in = w.inputSize;
+        int hidden = w.hiddenSize;
+        double[] z = ws.concat;
+        System.arraycopy(x, 0, z, 0, in);
+        System.arraycopy(h, 0, z, in, hidden);
+
+        double[] act = ws.gates;
+        gatePreActivations(w, z, 0, act, 0, 4 * hidden);
+        activateGates(act, 0, hidden);
+        double[] tanhC = ws.hidden;
+        for (int j = 0; j < hidden; j++) {
+            c[j] = act[hidden + j] * c[j] + act[j] * act[2 * hidden + j];
+        }
+        System.arraycopy(c, 0, tanhC, 0, hidden);
+        kernels.tanh(tanhC, 0, hidden);
+        for (int j = 0; j < hidden; j++) {
+            h[j] = act[3 * hidden + j] * tanhC[j];
+        }
+        if (y != null) {
+            project(w, h, 0, y, 0);
+        }
+    }
+
+    /**
+     * One plain tanh-RNN step on the candidate block of the fused matrix; {@code c} is unused
+     */
+    public void stepSimple(LstmWeights w, double[] x, double[] h, double[] y) {
+        Workspace ws = workspace(w);
+        int in = w.inputSize;
+        int hidden = w.hiddenSize;
+        double[] z = ws.concat;
+        System.arraycopy(x, 0, z, 0, in);
+        System.arraycopy(h, 0, z, in, hidden);
+        int firstRow = LstmWeights.GATE_CANDIDATE * hidden;
+        for (int j = 0; j < hidden; j++) {
+            int row = firstRow + j;
+            h[j] = w.gateBias[row] + kernels.dot(w.gates, row * w.concatSize, z, 0, w.concatSize);
+        }
+        kernels.tanh(h, 0, hidden);
+        if (y != null) {
+            project(w, h, 0, y, 0);
+        }
+    }
+
+    /**
+     * Forward pass over {@code steps} inputs starting at {@code inputOffset}, recording
+     * everything backpropagation needs. {@code h0}/{@code c0} may be null for a zero state.
+     */
+    public void forward(LstmWeights w, double[] inputs, int inputOffset, int steps,
+                        double[] h0, double[] c0, LstmTrace trace) {
+        int in = w.inputSize;
+        int hidden = w.hiddenSize;
+        int concat = w.concatSize;
+        trace.ensureCapacity(steps);
+        trace.steps = steps;
+        if (h0 != null) {
+            System.arraycopy(h0, 0, trace.h0, 0, hidden);
+        } else {
+            Arrays.fill(trace.h0, 0.0);
+        }
+        if (c0 != null) {
+            System.arraycopy(c0, 0, trace.c0, 0, hidden);
+        } else {
+            Arrays.fill(trace.c0, 0.0);
+        }
+
+        for (int t = 0; t < steps; t++) {
+            int zOff = t * concat;
+            int gOff = t * 4 * hidden;
+            int hOff = t * hidden;
+            System.arraycopy(inputs, inputOffset + t * in, trace.concat, zOff, in);
+            if (t == 0) {
+                System.arraycopy(trace.h0, 0, trace.concat, zOff + in, hidden);
+            } else {
+                System.arraycopy(trace.hidden, hOff - hidden, trace.concat, zOff + in, hidden);
+            }
+
+            double[] act = trace.gates;
+            gatePreActivations(w, trace.concat, zOff, act, gOff, 4 * hidden);
+            activateGates(act, gOff, hidden);
+
+            double[] cPrev = t == 0 ? trace.c0 : trace.cell;
+            int cPrevOff = t == 0 ? 0 : hOff - hidden;
+            for (int j = 0; j < hidden; j++) {
+                trace.cell[hOff + j] = act[gOff + hidden + j] * cPrev[cPrevOff + j]
+                        + act[gOff + j] * act[gOff + 2 * hidden + j];
+            }
+            System.arraycopy(trace.cell, hOff, trace.tanhCell, hOff, hidden);
+            kernels.tanh(trace.tanhCell, hOff, hidden);
+            for (int j = 0; j < hidden; j++) {
+                trace.hidden[hOff + j] = act[gOff + 3 * hidden + j] * trace.tanhCell[hOff + j];
+            }
+            project(w, trace.hidden, hOff, trace.output, t * w.outputSize);
+        }
+    }
+
+    /**
+     * Backpropagation through the traced window against {@code targets} (one output vector per step).
+     * Gradients of the mean squared error are added to {@code grads}; gradients are not carried past
+     * the start of the window. Returns the summed per-step loss.
+     */
+    public double backward(LstmWeights w, LstmTrace trace, double[] targets, int targetOffset, LstmGradients grads) {
+        return backward(w, trace, targets, targetOffset, null, 0, grads);
+    }
+
+    /**
+     * As {@link #backward(LstmWeights, LstmTrace, double[], int, LstmGradients)}, with a per-step
+     * loss weight (0 for padding) read from {@code mask} unless it is null.
+     */
+    public double backward(LstmWeights w, LstmTrace trace, double[] targets, int targetOffset,
+                           double[] mask, int maskOffset, LstmGradients grads) {
+        Workspace ws = workspace(w);
+        int in = w.inputSize;
+        int hidden = w.hiddenSize;
+        int out = w.outputSize;
+        int concat = w.concatSize;
+        double[] dh = ws.hidden;
+        double[] dhNext = ws.dhNext;
+        double[] dcNext = ws.dcNext;
+        double[] dz = ws.gates;
+        double[] dy = ws.output;
+        Arrays.fill(dhNext, 0.0);
+        Arrays.fill(dcNext, 0.0);
+
+        double loss = 0.0;
+        for (int t = trace.steps - 1; t >= 0; t--) {
+            int hOff = t * hidden;
+            int gOff = t * 4 * hidden;
+            int yOff = t * out;
+            double weight = mask == null ? 1.0 : mask[maskOffset + t];
+
+            System.arraycopy(dhNext, 0, dh, 0, hidden);
+            if (weight != 0.0) {
+                double stepLoss = 0.0;
+                for (int k = 0; k < out; k++) {
+                    double y = trace.output[yOff + k];
+                    double diff = y - targets[targetOffset + t * out + k];
+                    stepLoss += diff * diff;
+                    dy[k] = weight * 2.0 * diff / out * (1.0 - y * y);
+                }
+                loss += weight * stepLoss / out;
+                for (int k = 0; k < out; k++) {
+                    grads.outputBias[k] += dy[k];
+                    kernels.axpy(dy[k], trace.hidden, hOff, grads.output, k * hidden, hidden);
+                    kernels.axpy(dy[k], w.output, k * hidden, dh, 0, hidden);
+                }
+            }
+
+            double[] cPrev = t == 0 ? trace.c0 : trace.cell;
+            int cPrevOff = t == 0 ? 0 : hOff - hidden;
+            double[] act = trace.gates;
+            for (int j = 0; j < hidden; j++) {
+                double i = act[gOff + j];
+                double f = act[gOff + hidden + j];
+                double g = act[gOff + 2 * hidden + j];
+                double o = act[gOff + 3 * hidden + j];
+                double tc = trace.tanhCell[hOff + j];
+                double dc = dh[j] * o * (1.0 - tc * tc) + dcNext[j];
+                dz[j] = dc * g * i * (1.0 - i);
+                dz[hidden + j] = dc * cPrev[cPrevOff + j] * f * (1.0 - f);
+                dz[2 * hidden + j] = dc * i * (1.0 - g * g);
+                dz[3 * hidden + j] = dh[j] * tc * o * (1.0 - o);
+                dcNext[j] = dc * f;
+            }
+
+            Arrays.fill(dhNext, 0.0);
+            int zOff = t * concat;
+            for (int r = 0; r < 4 * hidden; r++) {
+                double d = dz[r];
+                grads.gateBias[r] += d;
+                kernels.axpy(d, trace.concat, zOff, grads.gates, r * concat, concat);
+                kernels.axpy(d, w.gates, r * concat + in, dhNext, 0, hidden);
+            }
+        }
+        return loss;
+    }
+
+    private void gatePreActivations(LstmWeights w, double[] z, int zOff, double[] target, int targetOff, int rows) {
+        int concat = w.concatSize;
+        for (int r = 0; r < rows; r++) {
+            target[targetOff + r] = w.gateBias[r] + kernels.dot(w.gates, r * concat, z, zOff, concat);
+        }
+    }
+
+    private void activateGates(double[] act, int off, int hidden) {
+        // Input and forget gates are adjacent, so one sigmoid pass covers both
+        kernels.sigmoid(act, off, 2 * hidden);
+        kernels.tanh(act, off + 2 * hidden, hidden);
+        kernels.sigmoid(act, off + 3 * hidden, hidden);
+    }
+
+    private void project(LstmWeights w, double[] h, int hOff, double[] y, int yOff) {
+        int hidden = w.hiddenSize;
+        for (int k = 0; k < w.outputSize; k++) {
+            y[yOff + k] = w.outputBias[k] + kernels.dot(w.output, k * hidden, h, hOff, hidden);
+        }
+        kernels.tanh(y, yOff, w.outputSize);
+    }
+
+    private void stepFloat(LstmWeights w, Workspace ws, double[] x, double[] h, double[] c, double[] y) {
+        int in = w.inputSize;
+        int hidden = w.hiddenSize;
+        int concat = w.concatSize;
+        float[] z = ws.concatF;
+        for (int k = 0; k < in; k++) {
+            z[k] = (float) x[k];
+        }
+        for (int j = 0; j < hidden; j++) {
+            z[in + j] = (float) h[j];
+        }
+
+        float[] act = ws.gatesF;
+        for (int r = 0; r < 4 * hidden; r++) {
+            act[r] = w.gateBiasF[r] + kernels.dot(w.gatesF, r * concat, z, 0, concat);
+        }
+        kernels.sigmoid(act, 0, 2 * hidden);
+        kernels.tanh(act, 2 * hidden, hidden);
+        kernels.sigmoid(act, 3 * hidden, hidden);
+
+        float[] hf = ws.hiddenF;
+        for (int j = 0; j < hidden; j++) {
+            float cell = act[hidden + j] * (float) c[j] + act[j] * act[2 * hidden + j];
+            c[j] = cell;
+            hf[j] = cell;
+        }
+        kernels.tanh(hf, 0, hidden);
+        for (int j = 0; j < hidden; j++) {
+            hf[j] *= act[3 * hidden + j];
+            h[j] = hf[j];
+        }
+        if (y != null) {
+            float[] yf = ws.outputF;
+            for (int k = 0; k < w.outputSize; k++) {
+                yf[k] = w.outputBiasF[k] + kernels.dot(w.outputF, k * hidden, hf, 0, hidden);
+            }
+            kernels.tanh(yf, 0, w.outputSize);
+            for (int k = 0; k < w.outputSize; k++) {
+                y[k] = yf[k];
+            }
+        }
+    }
+
+    private static Workspace workspace(LstmWeights w) {
+        Workspace ws = WORKSPACES.get();
+        ws.ensure(w.inputSize, w.hiddenSize, w.outputSize);
+        return ws;
+    }
+
+    /**
+     * Per-thread scratch buffers, grown to the largest network used on the thread
+     */
+    private static final class Workspace {
+        double[] concat = new double[0];
+        double[] gates = new double[0];
+        double[] hidden = new double[0];
+        double[] output = new double[0];
+        double[] dhNext = new double[0];
+        double[] dcNext = new double[0];
+        float[] concatF = new float[0];
+        float[] gatesF = new float[0];
+        float[] hiddenF = new float[0];
+        float[] outputF = new float[0];
+
+        void ensure(int in, int hidden, int out) {
+            if (concat.length < in + hidden) {
+                concat = new double[in + hidden];
+                concatF = new float[in + hidden];
+            }
+            if (this.hidden.length < hidden) {
+                gates = new double[4 * hidden];
+                this.hidden = new double[hidden];
+                dhNext = new double[hidden];
+                dcNext = new double[hidden];
+                gatesF = new float[4 * hidden];
+                hiddenF = new float[hidden];
+            }
+            if (output.length < out) {
+                output = new double[out];
+                outputF = new float[out];
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package chef.sheesh.eyeAI.core.ml.rnn;
+
+import java.util.Arrays;
+
+/**
+ * Mutable gradient accumulators laid out exactly like {@link LstmWeights}.
+ * Owned by a single training thread.
+ */
+public final class LstmGradients {
+
+    final double[] gates;
+    final double[] gateBias;
+    final double[] output;
+    final double[] outputBias;
+
+    public LstmGradients(LstmWeights shape) {
+        this.gates = new double[shape.gates.length];
+        this.gateBias = new double[shape.gateBias.length];
+        this.output = new double[shape.output.length];
+        this.outputBias = new double[shape.outputBias.length];
+    }
+
+    /**
+     * True when these buffers fit the given weights
+     */
+    public boolean matches(LstmWeights weights) {
+        return gates.length == weights.gates.length && gateBias.length == weights.gateBias.length
+                && output.length == weights.output.length && outputBias.length == weights.outputBias.length;
+    }
+
+    public void clear() {
+        Arrays.fill(gates, 0.0);
+        Arrays.fill(gateBias, 0.0);
+        Arrays.fill(output, 0.0);
+        Arrays.fill(outputBias, 0.0);
+    }
+
+    public void scale(double factor) {
+        scale(gates, factor);
+        scale(gateBias, factor);
+        scale(output, factor);
+        scale(outputBias, factor);
+    }
+
+    /**
+     * L2 norm over all parameters
+     */
+    public double norm() {
+        return Math.sqrt(sumSquares(gates) + sumSquares(gateBias) + sumSquares(output) + sumSquares(outputBias));
+    }
+
+    /**
+     * Rescale so the global L2 norm is at most {@code maxNorm}; returns the norm before clipping
+     */
+    public double clipNorm(double maxNorm) {
+        double norm = norm();
+        if (norm > maxNorm && norm > 0.0) {
+            scale(maxNorm / norm);
+        }
+        return norm;
+    }
+
+    private static void scale(double[] values, double factor) {
+        for (int k = 0; k < values.length; k++) {
+            values[k] *= factor;
+        }
+    }
+
+    private static double sumSquares(double[] values) {
+        double sum = 0.0;
+        for (double value : values) {
+            sum += value * value;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,82 @@
+package chef.sheesh.eyeAI.core.ml.rnn;
+
+import java.util.logging.Logger;
+
+/**
+ * Numeric primitives used by {@link LstmEngine}.
+ * All operations work on offsets into flat arrays so weight rows are never copied.
+ */
+public interface LstmKernels {
+
+    /** Sum of {@code a[aOff + k] * b[bOff + k]} for k in [0, n) */
+    double dot(double[] a, int aOff, double[] b, int bOff, int n);
+
+    /** Single precision variant of {@link #dot(double[], int, double[], int, int)} */
+    float dot(float[] a, int aOff, float[] b, int bOff, int n);
+
+    /** {@code y[yOff + k] += alpha * x[xOff + k]} for k in [0, n) */
+    void axpy(double alpha, double[] x, int xOff, double[] y, int yOff, int n);
+
+    /** Logistic sigmoid applied in place */
+    void sigmoid(double[] a, int off, int n);
+
+    /** Single precision variant of {@link #sigmoid(double[], int, int)} */
+    void sigmoid(float[] a, int off, int n);
+
+    /** Hyperbolic tangent applied in place */
+    void tanh(double[] a, int off, int n);
+
+    /** Single precision variant of {@link #tanh(double[], int, int)} */
+    void tanh(float[] a, int off, int n);
+
+    /** True when backed by the Vector API */
+    boolean isVectorized();
+
+    /**
+     * Plain Java kernels, always available
+     */
+    static LstmKernels scalar() {
+        return ScalarLstmKernels.INSTANCE;
+    }
+
+    /**
+     * Vector API kernels when {@code jdk.incubator.vector} is resolved at runtime
+     * ({@code --add-modules jdk.incubator.vector}), otherwise the scalar kernels.
+     * Setting {@code -Deyeai.rnn.scalar=true} forces the scalar path.
+     */
+    static LstmKernels best() {
+        return Holder.BEST;
+    }
+
+    /**
+     * Lazily resolves the best kernels once per JVM
+     */
+    final class Holder {
+        private static final Logger LOGGER = Logger.getLogger(LstmKernels.class.getName());
+        private static final LstmKernels BEST = load();
+
+        private Holder() {
+        }
+
+        private static LstmKernels load() {
+            if (Boolean.getBoolean("eyeai.rnn.scalar")) {
+                return ScalarLstmKernels.INSTANCE;
+            }
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+                LOGGER.info("Using scalar RNN kernels; start the server with --add-modules jdk.incubator.vector"
+                        + " to use the Vector API kernels");
+                return ScalarLstmKernels.INSTANCE;
+            }
+            try {
+                // Loaded reflectively so this interface never links against the incubator module
+                Class<?> type = Class.forName("chef.sheesh.eyeAI.core.ml.rnn.VectorLstmKernels");
+                LstmKernels kernels = (LstmKernels) type.getDeclaredConstructor().newInstance();
+                LOGGER.info("RNN kernels: " + kernels);
+                return kernels;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                LOGGER.warning("Vector API unavailable, using scalar RNN kernels: " + e);
+                return ScalarLstmKernels.INSTANCE;
+            }
+        }
+    }
+}
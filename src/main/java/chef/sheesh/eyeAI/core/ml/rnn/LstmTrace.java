@@ -0,0 +1,87 @@
+package chef.sheesh.eyeAI.core.ml.rnn;
+
+/**
+ * Activations recorded by {@link LstmEngine#forward} for backpropagation through time.
+ * Buffers grow to the longest sequence seen and are reused afterwards; a trace belongs
+ * to one training thread.
+ */
+public final class LstmTrace {
+
+    final int inputSize;
+    final int hiddenSize;
+    final int outputSize;
+    final int concatSize;
+
+    int capacity;
+    int steps;
+
+    /** Initial recurrent state of the traced window */
+    final double[] h0;
+    final double[] c0;
+
+    /** Per step {@code [x_t, h_(t-1)]} */
+    double[] concat;
+    /** Per step activated gates in fused order */
+    double[] gates;
+    double[] cell;
+    double[] tanhCell;
+    double[] hidden;
+    double[] output;
+
+    public LstmTrace(LstmWeights shape, int capacity) {
+        this.inputSize = shape.inputSize;
+        this.hiddenSize = shape.hiddenSize;
+        this.outputSize = shape.outputSize;
+        this.concatSize = shape.concatSize;
+        this.h0 = new double[hiddenSize];
+        this.c0 = new double[hiddenSize];
+        allocate(Math.max(1, capacity));
+    }
+
+    /**
+     * True when this trace can record steps of the given weights
+     */
+    public boolean matches(LstmWeights weights) {
+        return weights.inputSize == inputSize && weights.hiddenSize == hiddenSize && weights.outputSize == outputSize;
+    }
+
+    void ensureCapacity(int required) {
+        if (required > capacity) {
+            allocate(Math.max(required, capacity * 2));
+        }
+    }
+
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        concat = new double[newCapacity * concatSize];
+        gates = new double[newCapacity * 4 * hiddenSize];
+        cell = new double[newCapacity * hiddenSize];
+        tanhCell = new double[newCapacity * hiddenSize];
+        hidden = new double[newCapacity * hiddenSize];
+        output = new double[newCapacity * outputSize];
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    /**
+     * Output of step {@code t} copied into {@code target}
+     */
+    public void copyOutput(int t, double[] target) {
+        System.arraycopy(output, t * outputSize, target, 0, outputSize);
+    }
+
+    /**
+     * Recurrent state after the last traced step, used to continue a truncated window
+     */
+    public void copyFinalState(double[] h, double[] c) {
+        if (steps == 0) {
+            System.arraycopy(h0, 0, h, 0, hiddenSize);
+            System.arraycopy(c0, 0, c, 0, hiddenSize);
+            return;
+        }
+        System.arraycopy(hidden, (steps - 1) * hiddenSize, h, 0, hiddenSize);
+        System.arraycopy(cell, (steps - 1) * hiddenSize, c, 0, hiddenSize);
+    }
+}
@@ -0,0 +1,204 @@
+package chef.sheesh.eyeAI.core.ml.rnn;
+
+import java.util.Random;
+
+/**
+ * Immutable LSTM parameters in flat row-major buffers.
+ * <p>
+ * The four gates are fused into one {@code [4H x (I + H)]} matrix in the order
+ * input, forget, candidate, output; each row holds the input weights followed by the
+ * recurrent weights, so one dot product against {@code [x, h]} yields a gate pre-activation.
+ * The output projection is {@code [O x H]}. Single precision mirrors are built once so the
+ * float path never converts weights per step. Training publishes a new instance instead of
+ * mutating one, which lets inference read weights without locking.
+ */
+public final class LstmWeights {
+
+    /** Gate block indices into the fused matrix, in units of {@code hiddenSize} rows */
+    public static final int GATE_INPUT = 0;
+    public static final int GATE_FORGET = 1;
+    public static final int GATE_CANDIDATE = 2;
+    public static final int GATE_OUTPUT = 3;
+
+    final int inputSize;
+    final int hiddenSize;
+    final int outputSize;
+    final int concatSize;
+
+    final double[] gates;
+    final double[] gateBias;
+    final double[] output;
+    final double[] outputBias;
+
+    final float[] gatesF;
+    final float[] gateBiasF;
+    final float[] outputF;
+    final float[] outputBiasF;
+
+    /**
+     * Takes ownership of the arrays; callers must not keep references to them
+     */
+    LstmWeights(int inputSize, int hiddenSize, int outputSize,
+                double[] gates, double[] gateBias, double[] output, double[] outputBias) {
+        int concat = inputSize + hiddenSize;
+        if (gates.length != 4 * hiddenSize * concat || gateBias.length != 4 * hiddenSize
+                || output.length != outputSize * hiddenSize || outputBias.length != outputSize) {
+            throw new IllegalArgumentException("Buffer sizes do not match " + inputSize + "/" + hiddenSize + "/" + outputSize);
+        }
+        this.inputSize = inputSize;
+        this.hiddenSize = hiddenSize;
+        this.outputSize = outputSize;
+        this.concatSize = concat;
+        this.gates = gates;
+        this.gateBias = gateBias;
+        this.output = output;
+        this.outputBias = outputBias;
+        this.gatesF = toFloat(gates);
+        this.gateBiasF = toFloat(gateBias);
+        this.outputF = toFloat(output);
+        this.outputBiasF = toFloat(outputBias);
+    }
+
+    /**
+     * Weights from caller-owned buffers; the arrays are copied
+     */
+    public static LstmWeights of(int inputSize, int hiddenSize, int outputSize,
+                                 double[] gates, double[] gateBias, double[] output, double[] outputBias) {
+        return new LstmWeights(inputSize, hiddenSize, outputSize,
+                gates.clone(), gateBias.clone(), output.clone(), outputBias.clone());
+    }
+
+    /**
+     * Xavier/Glorot initialized weights
+     */
+    public static LstmWeights random(int inputSize, int hiddenSize, int outputSize, Random random) {
+        int concat = inputSize + hiddenSize;
+        double inputScale = Math.sqrt(2.0 / (inputSize + hiddenSize));
+        double hiddenScale = Math.sqrt(2.0 / (hiddenSize + hiddenSize));
+        double outputScale = Math.sqrt(2.0 / (hiddenSize + outputSize));
+
+        double[] gates = new double[4 * hiddenSize * concat];
+        double[] gateBias = new double[4 * hiddenSize];
+        for (int row = 0; row < 4 * hiddenSize; row++) {
+            int base = row * concat;
+            for (int j = 0; j < inputSize; j++) {
+                gates[base + j] = random.nextGaussian() * inputScale;
+            }
+            for (int j = 0; j < hiddenSize; j++) {
+                gates[base + inputSize + j] = random.nextGaussian() * hiddenScale;
+            }
+            gateBias[row] = random.nextGaussian() * inputScale;
+        }
+
+        double[] output = new double[outputSize * hiddenSize];
+        double[] outputBias = new double[outputSize];
+        for (int k = 0; k < outputSize; k++) {
+            for (int j = 0; j < hiddenSize; j++) {
+                output[k * hiddenSize + j] = random.nextGaussian() * outputScale;
+            }
+            outputBias[k] = random.nextGaussian() * outputScale;
+        }
+        return new LstmWeights(inputSize, hiddenSize, outputSize, gates, gateBias, output, outputBias);
+    }
+
+    /**
+     * Convert the previous layout, where every gate shared one input and one recurrent matrix
+     * and differed only by a bias multiplier. The converted gates start identical to the old
+     * behaviour but can now be trained independently.
+     */
+    public static LstmWeights fromLegacy(MovementRNN.RNNParameters parameters) {
+        int hiddenSize = parameters.hiddenBiases.length;
+        int inputSize = parameters.inputToHiddenWeights[0].length;
+        int outputSize = parameters.outputBiases.length;
+        int concat = inputSize + hiddenSize;
+        double[] multipliers = new double[4];
+        multipliers[GATE_INPUT] = 1.1;
+        multipliers[GATE_FORGET] = 1.0;
+        multipliers[GATE_CANDIDATE] = 1.2;
+        multipliers[GATE_OUTPUT] = 1.3;
+
+        double[] gates = new double[4 * hiddenSize * concat];
+        double[] gateBias = new double[4 * hiddenSize];
+        for (int gate = 0; gate < 4; gate++) {
+            for (int j = 0; j < hiddenSize; j++) {
+                int row = gate * hiddenSize + j;
+                System.arraycopy(parameters.inputToHiddenWeights[j], 0, gates, row * concat, inputSize);
+                System.arraycopy(parameters.hiddenToHiddenWeights[j], 0, gates, row * concat + inputSize, hiddenSize);
+                gateBias[row] = parameters.hiddenBiases[j] * multipliers[gate];
+            }
+        }
+
+        double[] output = new double[outputSize * hiddenSize];
+        for (int k = 0; k < outputSize; k++) {
+            System.arraycopy(parameters.hiddenToOutputWeights[k], 0, output, k * hiddenSize, hiddenSize);
+        }
+        return new LstmWeights(inputSize, hiddenSize, outputSize, gates, gateBias, output, parameters.outputBiases.clone());
+    }
+
+    /**
+     * New weights with {@code scale * gradients} subtracted
+     */
+    public LstmWeights minus(LstmGradients gradients, double scale) {
+        return new LstmWeights(inputSize, hiddenSize, outputSize,
+                subtract(gates, gradients.gates, scale),
+                subtract(gateBias, gradients.gateBias, scale),
+                subtract(output, gradients.output, scale),
+                subtract(outputBias, gradients.outputBias, scale));
+    }
+
+    public int getInputSize() {
+        return inputSize;
+    }
+
+    public int getHiddenSize() {
+        return hiddenSize;
+    }
+
+    public int getOutputSize() {
+        return outputSize;
+    }
+
+    public int getParameterCount() {
+        return gates.length + gateBias.length + output.length + outputBias.length;
+    }
+
+    /** Copy of the fused gate matrix, {@code [4H x (I + H)]} */
+    public double[] copyGates() {
+        return gates.clone();
+    }
+
+    public double[] copyGateBias() {
+        return gateBias.clone();
+    }
+
+    /** Copy of the output projection, {@code [O x H]} */
+    public double[] copyOutput() {
+        return output.clone();
+    }
+
+    public double[] copyOutputBias() {
+        return outputBias.clone();
+    }
+
+    private static double[] subtract(double[] values, double[] deltas, double scale) {
+        double[] result = new double[values.length];
+        for (int k = 0; k < values.length; k++) {
+            result[k] = values[k] - scale * deltas[k];
+        }
+        return result;
+    }
+
+    private static float[] toFloat(double[] values) {
+        float[] result = new float[values.length];
+        for (int k = 0; k < values.length; k++) {
+            result[k] = (float) values[k];
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LstmWeights{in=%d, hidden=%d, out=%d, params=%d}",
+                inputSize, hiddenSize, outputSize, getParameterCount());
+    }
+}
@@ -1,7 +1,6 @@
 package chef.sheesh.eyeAI.core.ml.rnn;
 
 import chef.sheesh.eyeAI.core.sim.SimExperience;
-import chef.sheesh.eyeAI.infra.util.Async;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
@@ -9,6 +8,8 @@ import java.util.concurrent.CompletableFuture;
 /**
  * Recurrent Neural Network for movement pattern prediction and learning.
  * Uses LSTM-like architecture to predict future movement sequences based on past behavior.
+ * Training runs on a dedicated {@link RnnTrainer} thread that publishes immutable weight
+ * snapshots; prediction reads the latest snapshot and owns the recurrent state.
  */
 public final class MovementRNN {
 
@@ -17,29 +18,22 @@ public final class MovementRNN {
     private int hiddenSize = 32;
     private int outputSize = 6; // Predicted next position/delta
 
-    // Network parameters
-    private double[][] inputToHiddenWeights;
-    private double[][] hiddenToHiddenWeights;
-    private double[][] hiddenToOutputWeights;
-    private double[] hiddenBiases;
-    private double[] outputBiases;
+    // Network parameters, replaced wholesale by training so readers never see a partial update
+    private volatile LstmWeights weights;
+    private LstmEngine engine = LstmEngine.create(LstmEngine.Precision.DOUBLE);
 
     // Hidden state (persistent across time steps)
     private double[] hiddenState;
     private double[] cellState; // For LSTM-like behavior
 
-    // Training parameters
-    private double learningRate = 0.01;
-    private double gradientClipValue = 5.0;
-    private int sequenceLength = 20;
+    // Training pipeline; the trainer thread is only started once something is trained
+    private final RnnTrainingConfig trainingConfig = new RnnTrainingConfig();
+    private final SequenceDataset dataset;
+    private RnnTrainer trainer;
     private boolean useLSTM = true;
 
-    // Statistics
-    private long trainingSteps = 0;
-    private double averageLoss = 0.0;
-    private final List<Double> lossHistory = new ArrayList<>();
-
     public MovementRNN() {
+        this.dataset = new SequenceDataset(inputSize, trainingConfig.datasetCapacity);
         initializeNetwork();
     }
 
@@ -47,6 +41,7 @@ public final class MovementRNN {
         this.inputSize = inputSize;
         this.hiddenSize = hiddenSize;
         this.outputSize = outputSize;
+        this.dataset = new SequenceDataset(inputSize, trainingConfig.datasetCapacity);
         initializeNetwork();
     }
 
@@ -61,244 +56,100 @@ public final class MovementRNN {
      * Initialize network parameters
      */
     private void initializeNetwork() {
-        Random random = new Random();
-
         // Xavier/Glorot initialization
-        double inputScale = Math.sqrt(2.0 / (inputSize + hiddenSize));
-        double hiddenScale = Math.sqrt(2.0 / (hiddenSize + hiddenSize));
-        double outputScale = Math.sqrt(2.0 / (hiddenSize + outputSize));
-
-        inputToHiddenWeights = new double[hiddenSize][inputSize];
-        hiddenToHiddenWeights = new double[hiddenSize][hiddenSize];
-        hiddenToOutputWeights = new double[outputSize][hiddenSize];
-
-        hiddenBiases = new double[hiddenSize];
-        outputBiases = new double[outputSize];
-
-        // Initialize weights
-        for (int i = 0; i < hiddenSize; i++) {
-            for (int j = 0; j < inputSize; j++) {
-                inputToHiddenWeights[i][j] = random.nextGaussian() * inputScale;
-            }
-            for (int j = 0; j < hiddenSize; j++) {
-                hiddenToHiddenWeights[i][j] = random.nextGaussian() * hiddenScale;
-            }
-            hiddenBiases[i] = random.nextGaussian() * inputScale;
-        }
-
-        for (int i = 0; i < outputSize; i++) {
-            for (int j = 0; j < hiddenSize; j++) {
-                hiddenToOutputWeights[i][j] = random.nextGaussian() * outputScale;
-            }
-            outputBiases[i] = random.nextGaussian() * outputScale;
-        }
+        weights = LstmWeights.random(inputSize, hiddenSize, outputSize, new Random());
 
         // Initialize hidden and cell states
         hiddenState = new double[hiddenSize];
         cellState = new double[hiddenSize];
 
-        // Reset statistics
-        trainingSteps = 0;
-        averageLoss = 0.0;
-        lossHistory.clear();
+        // Restart optimizer state and statistics
+        resetTrainer();
     }
 
     /**
      * Predict next movement based on input sequence
      */
     public double[] predict(double[] input) {
+        double[] output = new double[outputSize];
+        predictInto(input, output);
+        return output;
+    }
+
+    /**
+     * Predict into a caller-owned buffer; advances the recurrent state without allocating
+     */
+    public void predictInto(double[] input, double[] output) {
         if (input.length != inputSize) {
             throw new IllegalArgumentException("Input size mismatch");
         }
-
-        // Forward pass
-        double[] newHiddenState = new double[hiddenSize];
-        double[] newCellState = new double[hiddenSize];
-
+        LstmWeights current = weights;
+        if (hiddenState.length != current.getHiddenSize()) {
+            // Served weights with another hidden size; the old state means nothing to them
+            hiddenState = new double[current.getHiddenSize()];
+            cellState = new double[current.getHiddenSize()];
+        }
         if (useLSTM) {
-            // LSTM forward pass
-            forwardLSTM(input, newHiddenState, newCellState);
+            engine.step(current, input, hiddenState, cellState, output);
         } else {
-            // Simple RNN forward pass
-            forwardRNN(input, newHiddenState);
+            engine.stepSimple(current, input, hiddenState, output);
         }
-
-        // Update hidden state
-        hiddenState = newHiddenState;
-        cellState = newCellState;
-
-        // Compute output
-        double[] output = new double[outputSize];
-        for (int i = 0; i < outputSize; i++) {
-            output[i] = outputBiases[i];
-            for (int j = 0; j < hiddenSize; j++) {
-                output[i] += hiddenToOutputWeights[i][j] * hiddenState[j];
-            }
-            output[i] = Math.tanh(output[i]); // Activation function
-        }
-
-        return output;
     }
 
     /**
-     * Train on a batch of movement sequences
+     * Add movement sequences to the training set and request a training round.
+     * Sequences are flat {@code [steps x inputSize]} arrays; malformed ones are skipped.
      */
     public void trainOnBatch(List<double[]> sequences) {
         if (sequences.isEmpty()) {
             return;
         }
-
-        // Offload heavy computation to background thread
-        Async.IO.submit(() -> {
-            try {
-                double totalLoss = 0.0;
-                int batchSize = sequences.size();
-
-                for (double[] sequence : sequences) {
-                    if (sequence.length % inputSize != 0) {
-                        continue; // Skip malformed sequences
-                    }
-
-                    // Convert sequence to training examples
-                    int numSteps = sequence.length / inputSize - 1;
-                    for (int t = 0; t < Math.min(numSteps, sequenceLength); t++) {
-                        // Input at time t
-                        double[] input = new double[inputSize];
-                        System.arraycopy(sequence, t * inputSize, input, 0, inputSize);
-
-                        // Target output (next position)
-                        double[] target = new double[outputSize];
-                        System.arraycopy(sequence, (t + 1) * inputSize, target, 0, outputSize);
-
-                        // Forward and backward pass
-                        double loss = trainSingleStep(input, target);
-                        totalLoss += loss;
-                    }
-                }
-
-                double batchLoss = totalLoss / batchSize;
-                updateLossStatistics(batchLoss);
-
-            } catch (Exception e) {
-                System.err.println("RNN training error: " + e.getMessage());
-            }
-        });
+        dataset.addAll(sequences);
+        train(trainingConfig.batchesPerRound);
     }
 
     /**
-     * Train on a single input-target pair
+     * Run up to {@code batches} mini-batches on the trainer thread. Returns immediately with the
+     * current statistics if a round is already running or the dataset is still too small.
      */
-    private double trainSingleStep(double[] input, double[] target) {
-        // Forward pass
-        double[] output = predict(input);
-
-        // Compute loss (Mean Squared Error)
-        double loss = 0.0;
-        for (int i = 0; i < outputSize; i++) {
-            double diff = output[i] - target[i];
-            loss += diff * diff;
-        }
-        loss /= outputSize;
-
-        // Backward pass (simplified gradient descent)
-        backpropagate(output, target);
-
-        return loss;
+    public CompletableFuture<RnnTrainer.TrainingStats> train(int batches) {
+        return trainer().train(batches);
     }
 
     /**
-     * Simple RNN forward pass
+     * Training data collected for this network
      */
-    private void forwardRNN(double[] input, double[] newHiddenState) {
-        for (int i = 0; i < hiddenSize; i++) {
-            newHiddenState[i] = hiddenBiases[i];
-
-            // Input to hidden
-            for (int j = 0; j < inputSize; j++) {
-                newHiddenState[i] += inputToHiddenWeights[i][j] * input[j];
-            }
-
-            // Hidden to hidden (recurrent connection)
-            for (int j = 0; j < hiddenSize; j++) {
-                newHiddenState[i] += hiddenToHiddenWeights[i][j] * hiddenState[j];
-            }
-
-            // Activation function
-            newHiddenState[i] = Math.tanh(newHiddenState[i]);
-        }
+    public SequenceDataset getDataset() {
+        return dataset;
     }
 
     /**
-     * LSTM forward pass
+     * Training settings; changes apply from the next batch
      */
-    private void forwardLSTM(double[] input, double[] newHiddenState, double[] newCellState) {
-        for (int i = 0; i < hiddenSize; i++) {
-            // Forget gate
-            double forgetGate = sigmoid(
-                hiddenBiases[i] +
-                dotProduct(inputToHiddenWeights[i], input) +
-                dotProduct(hiddenToHiddenWeights[i], hiddenState)
-            );
-
-            // Input gate
-            double inputGate = sigmoid(
-                hiddenBiases[i] * 1.1 + // Slight bias for input gate
-                dotProduct(inputToHiddenWeights[i], input) +
-                dotProduct(hiddenToHiddenWeights[i], hiddenState)
-            );
-
-            // Candidate values
-            double candidate = Math.tanh(
-                hiddenBiases[i] * 1.2 + // Slight bias for candidate
-                dotProduct(inputToHiddenWeights[i], input) +
-                dotProduct(hiddenToHiddenWeights[i], hiddenState)
-            );
-
-            // Output gate
-            double outputGate = sigmoid(
-                hiddenBiases[i] * 1.3 + // Slight bias for output gate
-                dotProduct(inputToHiddenWeights[i], input) +
-                dotProduct(hiddenToHiddenWeights[i], hiddenState)
-            );
-
-            // Update cell state
-            newCellState[i] = forgetGate * cellState[i] + inputGate * candidate;
-
-            // Update hidden state
-            newHiddenState[i] = outputGate * Math.tanh(newCellState[i]);
-        }
+    public RnnTrainingConfig getTrainingConfig() {
+        return trainingConfig;
     }
 
     /**
-     * Simplified backpropagation
+     * Stop the trainer thread, if one was started
      */
-    private void backpropagate(double[] output, double[] target) {
-        // Compute output layer gradients
-        double[] outputGradients = new double[outputSize];
-        for (int i = 0; i < outputSize; i++) {
-            double error = output[i] - target[i];
-            outputGradients[i] = error * (1 - output[i] * output[i]); // tanh derivative
+    public synchronized void shutdown() {
+        if (trainer != null) {
+            trainer.shutdown();
+            trainer = null;
         }
+    }
 
-        // Update output layer weights
-        for (int i = 0; i < outputSize; i++) {
-            outputBiases[i] -= learningRate * outputGradients[i];
-
-            for (int j = 0; j < hiddenSize; j++) {
-                double gradient = outputGradients[i] * hiddenState[j];
-                gradient = Math.max(-gradientClipValue, Math.min(gradientClipValue, gradient));
-                hiddenToOutputWeights[i][j] -= learningRate * gradient;
-            }
+    private synchronized RnnTrainer trainer() {
+        if (trainer == null) {
+            trainer = new RnnTrainer(weights, dataset, trainingConfig, published -> weights = published);
         }
+        return trainer;
+    }
 
-        // Simplified hidden layer update (would be more complex in full implementation)
-        for (int i = 0; i < hiddenSize; i++) {
-            double hiddenGradient = 0.0;
-            for (int j = 0; j < outputSize; j++) {
-                hiddenGradient += outputGradients[j] * hiddenToOutputWeights[j][i];
-            }
-
-            hiddenBiases[i] -= learningRate * hiddenGradient * 0.1; // Smaller learning rate for hidden layer
+    private synchronized void resetTrainer() {
+        if (trainer != null) {
+            trainer.reset(weights);
         }
     }
 
@@ -325,15 +176,16 @@ public final class MovementRNN {
      * Generate movement sequence prediction
      */
     public List<double[]> predictSequence(double[] initialInput, int steps) {
-        List<double[]> sequence = new ArrayList<>();
-        double[] currentInput = initialInput.clone();
+        List<double[]> sequence = new ArrayList<>(steps);
+        double[] currentInput = initialInput;
 
         for (int i = 0; i < steps; i++) {
-            double[] prediction = predict(currentInput);
-            sequence.add(prediction.clone());
+            double[] prediction = new double[outputSize];
+            predictInto(currentInput, prediction);
+            sequence.add(prediction);
 
-            // Use prediction as next input (autoregressive)
-            currentInput = prediction.clone();
+            // Use prediction as next input (autoregressive); it is never written again
+            currentInput = prediction;
         }
 
         return sequence;
@@ -362,18 +214,31 @@ public final class MovementRNN {
 
     // Configuration methods
 
+    /**
+     * Adam step size of the trainer
+     */
     public void setLearningRate(double learningRate) {
-        this.learningRate = learningRate;
+        trainingConfig.learningRate = learningRate;
     }
 
+    /**
+     * Truncated BPTT window length
+     */
     public void setSequenceLength(int sequenceLength) {
-        this.sequenceLength = sequenceLength;
+        trainingConfig.truncationLength = sequenceLength;
     }
 
     public void setUseLSTM(boolean useLSTM) {
         this.useLSTM = useLSTM;
     }
 
+    /**
+     * Arithmetic precision for prediction; training stays in double precision
+     */
+    public void setPrecision(LstmEngine.Precision precision) {
+        this.engine = LstmEngine.create(precision);
+    }
+
     public void setHiddenSize(int hiddenSize) {
         this.hiddenSize = hiddenSize;
         initializeNetwork(); // Reinitialize with new size
@@ -383,73 +248,56 @@ public final class MovementRNN {
      * Get training statistics
      */
     public RNNStats getStatistics() {
+        RnnTrainer current;
+        synchronized (this) {
+            current = trainer;
+        }
+        RnnTrainer.TrainingStats stats = current != null ? current.getStats() : null;
         return new RNNStats(
-            trainingSteps,
-            averageLoss,
-            lossHistory.size() > 0 ? lossHistory.get(lossHistory.size() - 1) : 0.0,
-            hiddenSize,
+            stats != null ? stats.batches : 0,
+            stats != null ? stats.averageLoss : 0.0,
+            stats != null ? stats.lastLoss : 0.0,
+            weights.getHiddenSize(),
             useLSTM
         );
     }
 
     /**
-     * Export network parameters
+     * Current weights; immutable, so they can be shared without copying
      */
-    public RNNParameters exportParameters() {
-        return new RNNParameters(
-            copyMatrix(inputToHiddenWeights),
-            copyMatrix(hiddenToHiddenWeights),
-            copyMatrix(hiddenToOutputWeights),
-            hiddenBiases.clone(),
-            outputBiases.clone(),
-            hiddenState.clone(),
-            cellState.clone()
-        );
+    public LstmWeights getWeights() {
+        return weights;
     }
 
     /**
-     * Import network parameters
+     * New network sized from and initialized with the given weights
      */
-    public void importParameters(RNNParameters parameters) {
-        inputToHiddenWeights = copyMatrix(parameters.inputToHiddenWeights);
-        hiddenToHiddenWeights = copyMatrix(parameters.hiddenToHiddenWeights);
-        hiddenToOutputWeights = copyMatrix(parameters.hiddenToOutputWeights);
-        hiddenBiases = parameters.hiddenBiases.clone();
-        outputBiases = parameters.outputBiases.clone();
-        hiddenState = parameters.hiddenState.clone();
-        cellState = parameters.cellState.clone();
+    public static MovementRNN fromWeights(LstmWeights weights) {
+        MovementRNN rnn = new MovementRNN(weights.getInputSize(), weights.getHiddenSize(), weights.getOutputSize());
+        rnn.importWeights(weights);
+        return rnn;
     }
 
-    // Private helper methods
-
-    private double sigmoid(double x) {
-        return 1.0 / (1.0 + Math.exp(-x));
-    }
-
-    private double dotProduct(double[] a, double[] b) {
-        double sum = 0.0;
-        for (int i = 0; i < a.length; i++) {
-            sum += a[i] * b[i];
-        }
-        return sum;
-    }
-
-    private void updateLossStatistics(double loss) {
-        trainingSteps++;
-        averageLoss = (averageLoss * (trainingSteps - 1) + loss) / trainingSteps;
-
-        lossHistory.add(loss);
-        if (lossHistory.size() > 1000) {
-            lossHistory.remove(0);
+    /**
+     * Serve other weights, e.g. from the registry; training continues from them.
+     * The hidden size may differ, the input and output sizes may not.
+     */
+    public void importWeights(LstmWeights weights) {
+        if (weights.getInputSize() != inputSize || weights.getOutputSize() != outputSize) {
+            throw new IllegalArgumentException("Weights do not match network shape: " + weights);
         }
+        this.hiddenSize = weights.getHiddenSize();
+        this.weights = weights;
+        resetTrainer();
     }
 
-    private double[][] copyMatrix(double[][] matrix) {
-        double[][] copy = new double[matrix.length][];
-        for (int i = 0; i < matrix.length; i++) {
-            copy[i] = matrix[i].clone();
-        }
-        return copy;
+    /**
+     * Import parameters in the previous shared-matrix layout
+     */
+    public void importParameters(RNNParameters parameters) {
+        importWeights(LstmWeights.fromLegacy(parameters));
+        hiddenState = parameters.hiddenState.clone();
+        cellState = parameters.cellState.clone();
     }
 
     /**
@@ -479,7 +327,7 @@ public final class MovementRNN {
     }
 
     /**
-     * Network parameters for serialization
+     * Previous shared-matrix parameter layout, still read from version 1 registry payloads
      */
     public static class RNNParameters {
         public final double[][] inputToHiddenWeights;
@@ -0,0 +1,123 @@
+package chef.sheesh.eyeAI.core.ml.rnn;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns sampled positions of bots and players into training sequences for {@link MovementRNN}.
+ * <p>
+ * Every entity keeps a short window of raw positions. Once the window holds
+ * {@code windowSteps + 1} samples it is emitted into the dataset with each step encoded as
+ * {@code [x, y, z, vx, vy, vz]}: the position relative to the window start divided by
+ * {@code positionScale}, and the per-sample velocity divided by {@code velocityScale}.
+ * Windows then slide by {@code stride} samples. Samples must be taken at a fixed interval.
+ */
+public final class MovementSequenceAssembler {
+
+    /** Features per step, matching the default {@link MovementRNN} input */
+    public static final int FEATURES = 6;
+
+    private final SequenceDataset dataset;
+    private final int windowSteps;
+    private final int stride;
+    private final double positionScale;
+    private final double velocityScale;
+    private final Map<UUID, Track> tracks = new ConcurrentHashMap<>();
+
+    public MovementSequenceAssembler(SequenceDataset dataset, int windowSteps, int stride,
+                                     double positionScale, double velocityScale) {
+        if (dataset.getInputSize() != FEATURES) {
+            throw new IllegalArgumentException("Dataset expects " + dataset.getInputSize() + " features, not " + FEATURES);
+        }
+        if (windowSteps < 2 || stride < 1) {
+            throw new IllegalArgumentException("Window must span two steps and stride must be positive");
+        }
+        this.dataset = dataset;
+        this.windowSteps = windowSteps;
+        this.stride = Math.min(stride, windowSteps);
+        this.positionScale = positionScale;
+        this.velocityScale = velocityScale;
+    }
+
+    /**
+     * Defaults for bots sampled every tick: 20-step windows with half overlap
+     */
+    public MovementSequenceAssembler(SequenceDataset dataset) {
+        this(dataset, 20, 10, 8.0, 1.0);
+    }
+
+    /**
+     * Record one position sample for an entity
+     */
+    public void record(UUID entity, double x, double y, double z) {
+        tracks.computeIfAbsent(entity, id -> new Track(windowSteps + 2)).add(x, y, z, this);
+    }
+
+    /**
+     * Drop the partial window of an entity that left or teleported
+     */
+    public void forget(UUID entity) {
+        tracks.remove(entity);
+    }
+
+    public int getTrackedEntities() {
+        return tracks.size();
+    }
+
+    public SequenceDataset getDataset() {
+        return dataset;
+    }
+
+    private void emit(double[] xs, double[] ys, double[] zs, int samples) {
+        // One extra leading sample supplies the velocity of the first step
+        int steps = samples - 1;
+        double[] sequence = new double[steps * FEATURES];
+        double x0 = xs[1];
+        double y0 = ys[1];
+        double z0 = zs[1];
+        for (int t = 0; t < steps; t++) {
+            int i = t + 1;
+            int base = t * FEATURES;
+            sequence[base] = (xs[i] - x0) / positionScale;
+            sequence[base + 1] = (ys[i] - y0) / positionScale;
+            sequence[base + 2] = (zs[i] - z0) / positionScale;
+            sequence[base + 3] = (xs[i] - xs[i - 1]) / velocityScale;
+            sequence[base + 4] = (ys[i] - ys[i - 1]) / velocityScale;
+            sequence[base + 5] = (zs[i] - zs[i - 1]) / velocityScale;
+        }
+        dataset.add(sequence);
+    }
+
+    /**
+     * Raw positions of one entity; samples of an entity arrive from one thread at a time
+     */
+    private static final class Track {
+        private final double[] xs;
+        private final double[] ys;
+        private final double[] zs;
+        private int count;
+
+        Track(int capacity) {
+            xs = new double[capacity];
+            ys = new double[capacity];
+            zs = new double[capacity];
+        }
+
+        synchronized void add(double x, double y, double z, MovementSequenceAssembler owner) {
+            xs[count] = x;
+            ys[count] = y;
+            zs[count] = z;
+            count++;
+            if (count == xs.length) {
+                owner.emit(xs, ys, zs, count);
+                // Keep the tail so consecutive windows overlap by windowSteps - stride
+                int keep = count - owner.stride;
+                System.arraycopy(xs, owner.stride, xs, 0, keep);
+                System.arraycopy(ys, owner.stride, ys, 0, keep);
+                System.arraycopy(zs, owner.stride, zs, 0, keep);
+                count = keep;
+            }
+        }
+    }
+}
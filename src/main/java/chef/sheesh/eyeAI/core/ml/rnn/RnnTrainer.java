@@ -0,0 +1,246 @@
+package chef.sheesh.eyeAI.core.ml.rnn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Mini-batch trainer for an LSTM on its own thread.
+ * <p>
+ * Each batch samples padded sequences from a {@link SequenceDataset}, runs truncated
+ * backpropagation through time (the recurrent state carries across windows, gradients do not),
+ * clips the averaged gradient by global norm and applies Adam. The resulting immutable weights
+ * are handed to the publisher, so inference never sees a half-updated network. All optimizer
+ * state lives on the trainer thread; {@link #reset} is queued onto it as well.
+ */
+public final class RnnTrainer {
+
+    private static final Logger LOGGER = Logger.getLogger(RnnTrainer.class.getName());
+    private static final double LOSS_EWMA_ALPHA = 0.05;
+
+    private final SequenceDataset dataset;
+    private final RnnTrainingConfig config;
+    private final Consumer<LstmWeights> publisher;
+    private final ExecutorService executor;
+    private final AtomicBoolean training = new AtomicBoolean(false);
+    private final LstmEngine engine = LstmEngine.create(LstmEngine.Precision.DOUBLE);
+    private final Random random = new Random();
+
+    // Trainer thread only
+    private LstmWeights weights;
+    private AdamOptimizer optimizer;
+    private LstmGradients gradients;
+    private LstmTrace trace;
+    private SequenceBatch batch;
+    private double[] hidden;
+    private double[] cell;
+    private final List<double[]> sampled = new ArrayList<>();
+
+    private volatile TrainingStats stats = TrainingStats.EMPTY;
+
+    public RnnTrainer(LstmWeights initial, SequenceDataset dataset, RnnTrainingConfig config, Consumer<LstmWeights> publisher) {
+        if (dataset.getInputSize() != initial.inputSize) {
+            throw new IllegalArgumentException("Dataset input size " + dataset.getInputSize() + " does not match " + initial);
+        }
+        this.dataset = dataset;
+        this.config = config;
+        this.publisher = publisher;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "ML-RnnTrainer");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+        adopt(initial);
+    }
+
+    /**
+     * Run up to {@code batches} mini-batches unless a round is already running or the dataset
+     * is still too small; completes with the statistics after the round
+     */
+    public CompletableFuture<TrainingStats> train(int batches) {
+        if (dataset.size() < config.minSequences || !training.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(stats);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> runBatches(batches), executor)
+                    .whenComplete((result, error) -> {
+                        training.set(false);
+                        if (error != null) {
+                            LOGGER.log(Level.WARNING, "RNN training round failed", error);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            training.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Continue training from other weights, e.g. ones served from the registry.
+     * Optimizer state and statistics start over.
+     */
+    public void reset(LstmWeights initial) {
+        if (dataset.getInputSize() != initial.inputSize) {
+            throw new IllegalArgumentException("Dataset input size " + dataset.getInputSize() + " does not match " + initial);
+        }
+        executor.execute(() -> {
+            adopt(initial);
+            stats = TrainingStats.EMPTY;
+        });
+    }
+
+    public TrainingStats getStats() {
+        return stats;
+    }
+
+    public boolean isTraining() {
+        return training.get();
+    }
+
+    public SequenceDataset getDataset() {
+        return dataset;
+    }
+
+    public RnnTrainingConfig getConfig() {
+        return config;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void adopt(LstmWeights initial) {
+        weights = initial;
+        optimizer = new AdamOptimizer(initial, config);
+        gradients = new LstmGradients(initial);
+        trace = new LstmTrace(initial, config.truncationLength);
+        batch = new SequenceBatch(initial.inputSize, initial.outputSize);
+        hidden = new double[initial.hiddenSize];
+        cell = new double[initial.hiddenSize];
+    }
+
+    private TrainingStats runBatches(int batches) {
+        long start = System.nanoTime();
+        long steps = 0;
+        int completed = 0;
+        double lossSum = 0.0;
+        double lastNorm = 0.0;
+        for (int b = 0; b < batches && !Thread.currentThread().isInterrupted(); b++) {
+            sampled.clear();
+            dataset.sample(Math.max(1, config.batchSize), random, sampled);
+            if (sampled.isEmpty()) {
+                break;
+            }
+            batch.fill(sampled, Math.max(1, config.maxSequenceLength));
+
+            BatchResult result = trainBatch();
+            if (result.steps == 0) {
+                continue;
+            }
+            steps += result.steps;
+            lossSum += result.loss;
+            lastNorm = result.gradientNorm;
+            completed++;
+            publisher.accept(weights);
+        }
+        if (completed == 0) {
+            return stats;
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        TrainingStats previous = stats;
+        double batchLoss = lossSum / completed;
+        double average = previous.batches == 0 ? batchLoss
+                : previous.averageLoss + LOSS_EWMA_ALPHA * (batchLoss - previous.averageLoss);
+        stats = new TrainingStats(previous.batches + completed, previous.steps + steps, batchLoss, average,
+                lastNorm, seconds > 0 ? steps / seconds : 0.0, optimizer.getStep());
+        return stats;
+    }
+
+    /**
+     * One mini-batch: accumulate gradients over every window of every sequence, then one Adam step
+     */
+    private BatchResult trainBatch() {
+        LstmWeights current = weights;
+        gradients.clear();
+        int window = Math.max(1, config.truncationLength);
+        double loss = 0.0;
+        long steps = 0;
+
+        for (int s = 0; s < batch.getSequences(); s++) {
+            int length = batch.getLength(s);
+            Arrays.fill(hidden, 0.0);
+            Arrays.fill(cell, 0.0);
+            for (int t = 0; t < length; t += window) {
+                int n = Math.min(window, length - t);
+                engine.forward(current, batch.inputs, batch.inputOffset(s, t), n, hidden, cell, trace);
+                loss += engine.backward(current, trace, batch.targets, batch.targetOffset(s, t),
+                        batch.mask, batch.maskOffset(s, t), gradients);
+                // Carry the state into the next window without backpropagating into it
+                trace.copyFinalState(hidden, cell);
+            }
+            steps += length;
+        }
+        if (steps == 0) {
+            return new BatchResult(0.0, 0, 0.0);
+        }
+
+        gradients.scale(1.0 / steps);
+        double norm = gradients.clipNorm(config.gradientClipNorm);
+        weights = optimizer.step(current, gradients);
+        return new BatchResult(loss / steps, steps, norm);
+    }
+
+    private record BatchResult(double loss, long steps, double gradientNorm) {
+    }
+
+    /**
+     * Training progress; replaced after every round
+     */
+    public static class TrainingStats {
+        static final TrainingStats EMPTY = new TrainingStats(0, 0, 0.0, 0.0, 0.0, 0.0, 0);
+
+        public final long batches;
+        public final long steps;
+        /** Mean per-step loss of the last round */
+        public final double lastLoss;
+        /** Smoothed per-step loss across rounds */
+        public final double averageLoss;
+        /** Gradient norm of the last batch before clipping */
+        public final double lastGradientNorm;
+        public final double stepsPerSecond;
+        public final long optimizerSteps;
+
+        public TrainingStats(long batches, long steps, double lastLoss, double averageLoss,
+                             double lastGradientNorm, double stepsPerSecond, long optimizerSteps) {
+            this.batches = batches;
+            this.steps = steps;
+            this.lastLoss = lastLoss;
+            this.averageLoss = averageLoss;
+            this.lastGradientNorm = lastGradientNorm;
+            this.stepsPerSecond = stepsPerSecond;
+            this.optimizerSteps = optimizerSteps;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("TrainingStats{batches=%d, steps=%d, lastLoss=%.5f, avgLoss=%.5f, gradNorm=%.3f, steps/s=%.0f}",
+                    batches, steps, lastLoss, averageLoss, lastGradientNorm, stepsPerSecond);
+        }
+    }
+}
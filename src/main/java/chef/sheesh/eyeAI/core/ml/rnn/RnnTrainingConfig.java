@@ -0,0 +1,28 @@
+package chef.sheesh.eyeAI.core.ml.rnn;
+
+/**
+ * Settings for {@link RnnTrainer}. Fields are read at the start of every batch,
+ * so changes apply to the next batch.
+ */
+public class RnnTrainingConfig {
+    /** Sequences per mini-batch */
+    public int batchSize = 32;
+    /** Steps per truncated BPTT window; state carries across windows, gradients do not */
+    public int truncationLength = 20;
+    /** Longer sequences are cut to this many steps when batched */
+    public int maxSequenceLength = 64;
+    /** Batches run per training request */
+    public int batchesPerRound = 8;
+    /** Sequences the dataset must hold before training starts */
+    public int minSequences = 64;
+    /** Sequences kept in the dataset; the oldest are dropped first */
+    public int datasetCapacity = 4096;
+
+    /** Adam step size */
+    public double learningRate = 1e-3;
+    public double beta1 = 0.9;
+    public double beta2 = 0.999;
+    public double epsilon = 1e-8;
+    /** Global L2 norm the batch gradient is clipped to */
+    public double gradientClipNorm = 5.0;
+}
@@ -0,0 +1,90 @@
+package chef.sheesh.eyeAI.core.ml.rnn;
+
+/**
+ * Plain loop kernels. Four independent accumulators in the dot products let
+ * the JIT pipeline the multiplies without reordering floating point sums.
+ */
+final class ScalarLstmKernels implements LstmKernels {
+
+    static final ScalarLstmKernels INSTANCE = new ScalarLstmKernels();
+
+    private ScalarLstmKernels() {
+    }
+
+    @Override
+    public double dot(double[] a, int aOff, double[] b, int bOff, int n) {
+        double s0 = 0.0, s1 = 0.0, s2 = 0.0, s3 = 0.0;
+        int k = 0;
+        for (; k + 3 < n; k += 4) {
+            s0 += a[aOff + k] * b[bOff + k];
+            s1 += a[aOff + k + 1] * b[bOff + k + 1];
+            s2 += a[aOff + k + 2] * b[bOff + k + 2];
+            s3 += a[aOff + k + 3] * b[bOff + k + 3];
+        }
+        for (; k < n; k++) {
+            s0 += a[aOff + k] * b[bOff + k];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public float dot(float[] a, int aOff, float[] b, int bOff, int n) {
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+        int k = 0;
+        for (; k + 3 < n; k += 4) {
+            s0 += a[aOff + k] * b[bOff + k];
+            s1 += a[aOff + k + 1] * b[bOff + k + 1];
+            s2 += a[aOff + k + 2] * b[bOff + k + 2];
+            s3 += a[aOff + k + 3] * b[bOff + k + 3];
+        }
+        for (; k < n; k++) {
+            s0 += a[aOff + k] * b[bOff + k];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public void axpy(double alpha, double[] x, int xOff, double[] y, int yOff, int n) {
+        for (int k = 0; k < n; k++) {
+            y[yOff + k] += alpha * x[xOff + k];
+        }
+    }
+
+    @Override
+    public void sigmoid(double[] a, int off, int n) {
+        for (int k = off; k < off + n; k++) {
+            a[k] = 1.0 / (1.0 + Math.exp(-a[k]));
+        }
+    }
+
+    @Override
+    public void sigmoid(float[] a, int off, int n) {
+        for (int k = off; k < off + n; k++) {
+            a[k] = (float) (1.0 / (1.0 + Math.exp(-a[k])));
+        }
+    }
+
+    @Override
+    public void tanh(double[] a, int off, int n) {
+        for (int k = off; k < off + n; k++) {
+            a[k] = Math.tanh(a[k]);
+        }
+    }
+
+    @Override
+    public void tanh(float[] a, int off, int n) {
+        for (int k = off; k < off + n; k++) {
+            a[k] = (float) Math.tanh(a[k]);
+        }
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,87 @@
+package chef.sheesh.eyeAI.core.ml.rnn;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A mini-batch of sequences padded to a common length in contiguous buffers.
+ * Step {@code t} of sequence {@code b} predicts the leading output features of step {@code t + 1};
+ * padded steps have mask 0. Buffers grow to the largest batch seen and are reused.
+ */
+public final class SequenceBatch {
+
+    private final int inputSize;
+    private final int outputSize;
+
+    private int sequences;
+    private int steps;
+    double[] inputs = new double[0];
+    double[] targets = new double[0];
+    double[] mask = new double[0];
+    int[] lengths = new int[0];
+
+    public SequenceBatch(int inputSize, int outputSize) {
+        this.inputSize = inputSize;
+        this.outputSize = outputSize;
+    }
+
+    /**
+     * Lay out the given sequences, cutting each to at most {@code maxSteps} training steps
+     */
+    public void fill(List<double[]> batch, int maxSteps) {
+        sequences = batch.size();
+        steps = 0;
+        if (lengths.length < sequences) {
+            lengths = new int[sequences];
+        }
+        for (int b = 0; b < sequences; b++) {
+            lengths[b] = Math.min(batch.get(b).length / inputSize - 1, maxSteps);
+            steps = Math.max(steps, lengths[b]);
+        }
+        int cells = sequences * steps;
+        if (mask.length < cells) {
+            inputs = new double[cells * inputSize];
+            targets = new double[cells * outputSize];
+            mask = new double[cells];
+        }
+        Arrays.fill(inputs, 0, cells * inputSize, 0.0);
+        Arrays.fill(targets, 0, cells * outputSize, 0.0);
+        Arrays.fill(mask, 0, cells, 0.0);
+
+        int copied = Math.min(inputSize, outputSize);
+        for (int b = 0; b < sequences; b++) {
+            double[] sequence = batch.get(b);
+            int length = lengths[b];
+            System.arraycopy(sequence, 0, inputs, b * steps * inputSize, length * inputSize);
+            for (int t = 0; t < length; t++) {
+                System.arraycopy(sequence, (t + 1) * inputSize, targets, (b * steps + t) * outputSize, copied);
+            }
+            Arrays.fill(mask, b * steps, b * steps + length, 1.0);
+        }
+    }
+
+    public int getSequences() {
+        return sequences;
+    }
+
+    /** Padded length of every sequence in the batch */
+    public int getSteps() {
+        return steps;
+    }
+
+    public int getLength(int sequence) {
+        return lengths[sequence];
+    }
+
+    int inputOffset(int sequence, int step) {
+        return (sequence * steps + step) * inputSize;
+    }
+
+    int targetOffset(int sequence, int step) {
+        return (sequence * steps + step) * outputSize;
+    }
+
+    int maskOffset(int sequence, int step) {
+        return sequence * steps + step;
+    }
+}
@@ -0,0 +1,91 @@
+package chef.sheesh.eyeAI.core.ml.rnn;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Bounded ring of movement sequences for RNN training.
+ * Each sequence is a flat {@code [steps x inputSize]} array; producers append from any
+ * thread and the trainer samples mini-batches. Sequences are never modified after adding.
+ */
+public final class SequenceDataset {
+
+    private final int inputSize;
+    private final double[][] sequences;
+    private int next;
+    private int size;
+    private long added;
+
+    public SequenceDataset(int inputSize, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.inputSize = inputSize;
+        this.sequences = new double[capacity][];
+    }
+
+    /**
+     * Add a sequence of at least two steps; returns false if it is malformed
+     */
+    public boolean add(double[] sequence) {
+        if (sequence == null || sequence.length % inputSize != 0 || sequence.length < 2 * inputSize) {
+            return false;
+        }
+        synchronized (this) {
+            sequences[next] = sequence;
+            next = (next + 1) % sequences.length;
+            size = Math.min(size + 1, sequences.length);
+            added++;
+        }
+        return true;
+    }
+
+    /**
+     * Add every well-formed sequence; returns how many were accepted
+     */
+    public int addAll(List<double[]> batch) {
+        int accepted = 0;
+        for (double[] sequence : batch) {
+            if (add(sequence)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Append {@code count} sequences drawn uniformly with replacement to {@code target}
+     */
+    public synchronized void sample(int count, Random random, List<double[]> target) {
+        if (size == 0) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            target.add(sequences[random.nextInt(size)]);
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /** Sequences ever added, including those evicted since */
+    public synchronized long getAddedCount() {
+        return added;
+    }
+
+    public int getInputSize() {
+        return inputSize;
+    }
+
+    public int getCapacity() {
+        return sequences.length;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(sequences, null);
+        next = 0;
+        size = 0;
+    }
+}
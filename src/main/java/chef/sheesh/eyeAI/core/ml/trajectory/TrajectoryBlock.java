@@ -0,0 +1,228 @@
+package chef.sheesh.eyeAI.core.ml.trajectory;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * An immutable run of samples of one entity, delta encoded.
+ * <p>
+ * Positions, velocities and yaw are quantized to fixed-point integers. The first sample is
+ * stored as an absolute keyframe; every further sample is the tick delta as an unsigned varint
+ * followed by the seven channel deltas as zigzag varints. Walking bots and players typically
+ * need 8-12 bytes per sample instead of 68 for the raw primitives.
+ */
+public final class TrajectoryBlock {
+
+    /** Fixed-point steps per block, per block/tick and per degree */
+    public static final int POSITION_SCALE = 32;
+    public static final int VELOCITY_SCALE = 256;
+    public static final int YAW_SCALE = 64;
+
+    private static final int CHANNELS = 7;
+    private static final int YAW_RANGE = 360 * YAW_SCALE;
+    private static final int MAX_SAMPLES = 1 << 20;
+
+    private final UUID entity;
+    private final long startTick;
+    private final int samples;
+    private final int[] keyframe;
+    private final byte[] deltas;
+
+    private TrajectoryBlock(UUID entity, long startTick, int samples, int[] keyframe, byte[] deltas) {
+        this.entity = entity;
+        this.startTick = startTick;
+        this.samples = samples;
+        this.keyframe = keyframe;
+        this.deltas = deltas;
+    }
+
+    public UUID getEntity() {
+        return entity;
+    }
+
+    public long getStartTick() {
+        return startTick;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    /** Approximate heap footprint */
+    public int getEncodedBytes() {
+        return deltas.length + CHANNELS * 4 + 48;
+    }
+
+    /**
+     * Append the decoded samples to {@code out}
+     */
+    public void decodeInto(TrajectorySamples out) {
+        out.setEntity(entity);
+        int[] q = keyframe.clone();
+        long tick = startTick;
+        emit(out, tick, q);
+        int[] cursor = {0};
+        for (int s = 1; s < samples; s++) {
+            tick += readUnsigned(deltas, cursor);
+            for (int c = 0; c < CHANNELS; c++) {
+                q[c] += zigzagDecode(readUnsigned(deltas, cursor));
+            }
+            q[6] = Math.floorMod(q[6], YAW_RANGE);
+            emit(out, tick, q);
+        }
+    }
+
+    private static void emit(TrajectorySamples out, long tick, int[] q) {
+        out.add(tick,
+                q[0] / (double) POSITION_SCALE, q[1] / (double) POSITION_SCALE, q[2] / (double) POSITION_SCALE,
+                q[3] / (double) VELOCITY_SCALE, q[4] / (double) VELOCITY_SCALE, q[5] / (double) VELOCITY_SCALE,
+                q[6] / (float) YAW_SCALE);
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeLong(entity.getMostSignificantBits());
+        out.writeLong(entity.getLeastSignificantBits());
+        out.writeLong(startTick);
+        out.writeInt(samples);
+        for (int value : keyframe) {
+            out.writeInt(value);
+        }
+        out.writeInt(deltas.length);
+        out.write(deltas);
+    }
+
+    static TrajectoryBlock read(DataInputStream in) throws IOException {
+        UUID entity = new UUID(in.readLong(), in.readLong());
+        long startTick = in.readLong();
+        int samples = in.readInt();
+        int[] keyframe = new int[CHANNELS];
+        for (int c = 0; c < CHANNELS; c++) {
+            keyframe[c] = in.readInt();
+        }
+        int length = in.readInt();
+        if (samples < 1 || samples > MAX_SAMPLES || length < 0 || length > samples * (CHANNELS * 5 + 10)) {
+            throw new IOException("Corrupt trajectory block: " + samples + " samples, " + length + " bytes");
+        }
+        byte[] deltas = new byte[length];
+        in.readFully(deltas);
+        return new TrajectoryBlock(entity, startTick, samples, keyframe, deltas);
+    }
+
+    /**
+     * Encoder for the open block of one entity; owned by the recorder's encoder thread
+     */
+    static final class Builder {
+        private final UUID entity;
+        private final int[] keyframe = new int[CHANNELS];
+        private final int[] previous = new int[CHANNELS];
+        private final int[] current = new int[CHANNELS];
+        private byte[] buffer;
+        private int length;
+        private long startTick;
+        private long lastTick;
+        private int samples;
+
+        Builder(UUID entity, int expectedSamples) {
+            this.entity = entity;
+            this.buffer = new byte[Math.max(16, expectedSamples * 10)];
+        }
+
+        int getSamples() {
+            return samples;
+        }
+
+        long getLastTick() {
+            return lastTick;
+        }
+
+        int getEncodedBytes() {
+            return buffer.length + CHANNELS * 12 + 64;
+        }
+
+        void append(long tick, double x, double y, double z, double vx, double vy, double vz, float yaw) {
+            current[0] = quantize(x, POSITION_SCALE);
+            current[1] = quantize(y, POSITION_SCALE);
+            current[2] = quantize(z, POSITION_SCALE);
+            current[3] = quantize(vx, VELOCITY_SCALE);
+            current[4] = quantize(vy, VELOCITY_SCALE);
+            current[5] = quantize(vz, VELOCITY_SCALE);
+            current[6] = Math.floorMod(quantize(yaw, YAW_SCALE), YAW_RANGE);
+            if (samples == 0) {
+                System.arraycopy(current, 0, keyframe, 0, CHANNELS);
+                startTick = tick;
+            } else {
+                ensure(CHANNELS * 5 + 10);
+                length = writeUnsigned(buffer, length, tick - lastTick);
+                for (int c = 0; c < CHANNELS; c++) {
+                    int delta = current[c] - previous[c];
+                    if (c == 6) {
+                        // Shortest way round, so turning past north stays a small delta
+                        delta = Math.floorMod(delta + YAW_RANGE / 2, YAW_RANGE) - YAW_RANGE / 2;
+                    }
+                    length = writeUnsigned(buffer, length, zigzagEncode(delta));
+                }
+            }
+            System.arraycopy(current, 0, previous, 0, CHANNELS);
+            lastTick = tick;
+            samples++;
+        }
+
+        TrajectoryBlock seal() {
+            TrajectoryBlock block = new TrajectoryBlock(entity, startTick, samples, keyframe.clone(),
+                    Arrays.copyOf(buffer, length));
+            samples = 0;
+            length = 0;
+            return block;
+        }
+
+        /** Copy of the open block; the builder keeps appending */
+        TrajectoryBlock snapshot() {
+            return new TrajectoryBlock(entity, startTick, samples, keyframe.clone(), Arrays.copyOf(buffer, length));
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+            }
+        }
+    }
+
+    private static int quantize(double value, int scale) {
+        long q = Math.round(value * scale);
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, q));
+    }
+
+    private static long zigzagEncode(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    private static int zigzagDecode(long value) {
+        return (int) (value >>> 1) ^ -(int) (value & 1);
+    }
+
+    private static int writeUnsigned(byte[] buffer, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[offset++] = (byte) value;
+        return offset;
+    }
+
+    private static long readUnsigned(byte[] buffer, int[] cursor) {
+        long value = 0;
+        int shift = 0;
+        int offset = cursor[0];
+        byte b;
+        do {
+            b = buffer[offset++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        cursor[0] = offset;
+        return value;
+    }
+}
@@ -0,0 +1,49 @@
+package chef.sheesh.eyeAI.core.ml.trajectory;
+
+import chef.sheesh.eyeAI.infra.config.ConfigurationManager;
+
+/**
+ * Sampling, memory and disk limits of the trajectory recorder.
+ * Memory is bounded by {@code maxEntities * (blocksPerEntity + 1) * blockSamples} encoded samples
+ * plus {@code framePool * frameCapacity} staged captures, whatever the player count.
+ */
+public class TrajectoryConfig {
+    /** Ticks between samples of one entity */
+    public int sampleIntervalTicks = 2;
+    /** Entities tracked at once; captures of further entities are dropped */
+    public int maxEntities = 1024;
+    /** Captures staged per frame before it is handed to the encoder */
+    public int frameCapacity = 1024;
+    /** Frames in flight; when all are queued, captures are dropped instead of blocking the tick */
+    public int framePool = 4;
+    /** Samples per encoded block; each block starts with an absolute keyframe */
+    public int blockSamples = 64;
+    /** Sealed blocks kept per entity until the next flush; the oldest is dropped when full */
+    public int blocksPerEntity = 8;
+    /** Ticks without samples after which an entity's open block is sealed and its track dropped */
+    public int idleTicks = 200;
+    /** Milliseconds between flushes of sealed blocks to disk */
+    public long flushIntervalMillis = 30_000;
+    /** Uncompressed bytes after which the current segment is closed and a new one started */
+    public long segmentBytes = 4L << 20;
+    /** Closed segments kept on disk; the oldest are deleted first */
+    public int maxSegments = 32;
+
+    /**
+     * Values from {@code trajectory.*}, falling back to the defaults above
+     */
+    public static TrajectoryConfig from(ConfigurationManager cfg) {
+        TrajectoryConfig config = new TrajectoryConfig();
+        if (cfg == null) {
+            return config;
+        }
+        config.sampleIntervalTicks = Math.max(1, cfg.getInt("trajectory.sampleIntervalTicks", config.sampleIntervalTicks));
+        config.maxEntities = cfg.getInt("trajectory.maxEntities", config.maxEntities);
+        config.blockSamples = Math.max(2, cfg.getInt("trajectory.blockSamples", config.blockSamples));
+        config.blocksPerEntity = Math.max(1, cfg.getInt("trajectory.blocksPerEntity", config.blocksPerEntity));
+        config.flushIntervalMillis = cfg.getInt("trajectory.flushIntervalSeconds", (int) (config.flushIntervalMillis / 1000)) * 1000L;
+        config.segmentBytes = cfg.getInt("trajectory.segmentMegabytes", (int) (config.segmentBytes >> 20)) * (1L << 20);
+        config.maxSegments = Math.max(1, cfg.getInt("trajectory.maxSegments", config.maxSegments));
+        return config;
+    }
+}
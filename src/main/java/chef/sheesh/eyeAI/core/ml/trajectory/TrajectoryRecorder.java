@@ -0,0 +1,438 @@
+package chef.sheesh.eyeAI.core.ml.trajectory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records movement of players and bots at a fixed sample rate.
+ * <p>
+ * The tick thread only copies primitives into a pooled capture frame ({@link #capture});
+ * full frames go to a single encoder thread, which appends them to per-entity
+ * {@link TrajectoryBlock} rings and periodically flushes sealed blocks to a {@link TrajectoryStore}.
+ * Nothing here blocks the tick: when every frame is still queued, captures are dropped and counted.
+ */
+public final class TrajectoryRecorder {
+
+    private static final Logger LOGGER = Logger.getLogger(TrajectoryRecorder.class.getName());
+
+    /**
+     * Receives every encoded sample on the encoder thread, e.g. to build training sequences
+     */
+    public interface SampleListener {
+        void onSample(UUID entity, long tick, double x, double y, double z);
+
+        /** The entity's samples stop being contiguous (idle timeout or tick gap) */
+        default void onGap(UUID entity) {
+        }
+    }
+
+    private final TrajectoryConfig config;
+    private final TrajectoryStore store;
+    private final ScheduledExecutorService encoder;
+    private final ArrayBlockingQueue<CaptureFrame> freeFrames;
+    private final List<SampleListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Written by the tick thread only; read by the encoder for idle checks
+    private volatile long tick;
+    // Tick thread only
+    private CaptureFrame frame;
+
+    // Encoder thread only
+    private final Map<UUID, EntityTrack> tracks = new HashMap<>();
+    private final List<TrajectoryBlock> pending = new ArrayList<>();
+
+    private final AtomicLong capturedSamples = new AtomicLong();
+    private final AtomicLong droppedSamples = new AtomicLong();
+    private final AtomicLong droppedBlocks = new AtomicLong();
+    private final AtomicLong flushedBlocks = new AtomicLong();
+    private volatile int trackedEntities;
+    private volatile long bufferedBytes;
+
+    public TrajectoryRecorder(TrajectoryStore store, TrajectoryConfig config) {
+        this.store = store;
+        this.config = config;
+        this.freeFrames = new ArrayBlockingQueue<>(Math.max(1, config.framePool));
+        for (int i = 0; i < Math.max(1, config.framePool); i++) {
+            freeFrames.add(new CaptureFrame(config.frameCapacity));
+        }
+        this.encoder = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ML-TrajectoryEncoder");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+        long flush = Math.max(1000, config.flushIntervalMillis);
+        encoder.scheduleWithFixedDelay(this::flushSafely, flush, flush, TimeUnit.MILLISECONDS);
+    }
+
+    public void addListener(SampleListener listener) {
+        listeners.add(listener);
+    }
+
+    // ===================== Tick thread =====================
+
+    /**
+     * Advance the recorder clock; call once per server tick before capturing.
+     * Returns true when this tick is a sample tick.
+     */
+    public boolean beginTick() {
+        // Captures made after last tick's endTick (e.g. by a later task) go out with their own tick
+        endTick();
+        tick++;
+        return isSampleTick();
+    }
+
+    /**
+     * Hand the captures of this tick to the encoder; call once per tick after capturing
+     */
+    public void endTick() {
+        if (frame != null && frame.count > 0) {
+            handOff();
+        }
+    }
+
+    public boolean isSampleTick() {
+        return tick % config.sampleIntervalTicks == 0;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Record one sample on a sample tick; ignored on other ticks. Pass {@code NaN} velocity
+     * to have it derived from the previous sample.
+     */
+    public void capture(UUID entity, double x, double y, double z, double vx, double vy, double vz, float yaw) {
+        if (!isSampleTick()) {
+            return;
+        }
+        if (frame != null && frame.tick != tick) {
+            handOff();
+        }
+        if (frame == null) {
+            frame = freeFrames.poll();
+            if (frame == null) {
+                droppedSamples.incrementAndGet();
+                return;
+            }
+            frame.tick = tick;
+        }
+        int i = frame.count++;
+        frame.msb[i] = entity.getMostSignificantBits();
+        frame.lsb[i] = entity.getLeastSignificantBits();
+        frame.x[i] = x;
+        frame.y[i] = y;
+        frame.z[i] = z;
+        frame.vx[i] = vx;
+        frame.vy[i] = vy;
+        frame.vz[i] = vz;
+        frame.yaw[i] = yaw;
+        if (frame.count == frame.msb.length) {
+            handOff();
+        }
+    }
+
+    private void handOff() {
+        CaptureFrame full = frame;
+        frame = null;
+        try {
+            encoder.execute(() -> encode(full));
+        } catch (RejectedExecutionException e) {
+            // Shut down; the frame is simply not recorded
+            full.count = 0;
+            freeFrames.offer(full);
+        }
+    }
+
+    // ===================== Encoder thread =====================
+
+    private void encode(CaptureFrame captured) {
+        try {
+            for (int i = 0; i < captured.count; i++) {
+                UUID entity = new UUID(captured.msb[i], captured.lsb[i]);
+                EntityTrack track = tracks.get(entity);
+                if (track == null) {
+                    if (tracks.size() >= config.maxEntities) {
+                        droppedSamples.incrementAndGet();
+                        continue;
+                    }
+                    track = new EntityTrack(entity, config.blockSamples);
+                    tracks.put(entity, track);
+                }
+                append(track, captured.tick, captured.x[i], captured.y[i], captured.z[i],
+                        captured.vx[i], captured.vy[i], captured.vz[i], captured.yaw[i]);
+            }
+            capturedSamples.addAndGet(captured.count);
+            trackedEntities = tracks.size();
+        } finally {
+            captured.count = 0;
+            freeFrames.offer(captured);
+        }
+    }
+
+    private void append(EntityTrack track, long sampleTick, double x, double y, double z,
+                        double vx, double vy, double vz, float yaw) {
+        boolean contiguous = track.hasLast && sampleTick - track.lastTick == config.sampleIntervalTicks;
+        if (track.hasLast && !contiguous) {
+            // Teleport, respawn or missed samples: start a fresh block with its own keyframe
+            sealOpen(track);
+            for (SampleListener listener : listeners) {
+                listener.onGap(track.entity);
+            }
+        }
+        if (Double.isNaN(vx) || Double.isNaN(vy) || Double.isNaN(vz)) {
+            if (contiguous) {
+                double dt = sampleTick - track.lastTick;
+                vx = (x - track.lastX) / dt;
+                vy = (y - track.lastY) / dt;
+                vz = (z - track.lastZ) / dt;
+            } else {
+                vx = 0.0;
+                vy = 0.0;
+                vz = 0.0;
+            }
+        }
+        track.builder.append(sampleTick, x, y, z, vx, vy, vz, yaw);
+        track.hasLast = true;
+        track.lastTick = sampleTick;
+        track.lastX = x;
+        track.lastY = y;
+        track.lastZ = z;
+        if (track.builder.getSamples() >= config.blockSamples) {
+            sealOpen(track);
+        }
+        for (SampleListener listener : listeners) {
+            listener.onSample(track.entity, sampleTick, x, y, z);
+        }
+    }
+
+    private void sealOpen(EntityTrack track) {
+        if (track.builder.getSamples() == 0) {
+            return;
+        }
+        track.sealed.addLast(track.builder.seal());
+        while (track.sealed.size() > config.blocksPerEntity) {
+            // Ring behaviour: the flush fell behind, so the oldest history goes first
+            track.sealed.removeFirst();
+            droppedBlocks.incrementAndGet();
+        }
+    }
+
+    /**
+     * Collect sealed blocks, retire idle tracks and write everything to the store
+     */
+    private void flush(boolean sealAll) throws IOException {
+        long bytes = 0;
+        Iterator<EntityTrack> it = tracks.values().iterator();
+        while (it.hasNext()) {
+            EntityTrack track = it.next();
+            boolean idle = tick - track.lastTick > config.idleTicks;
+            if (sealAll || idle) {
+                sealOpen(track);
+            }
+            pending.addAll(track.sealed);
+            track.sealed.clear();
+            if (idle) {
+                it.remove();
+                for (SampleListener listener : listeners) {
+                    listener.onGap(track.entity);
+                }
+            } else {
+                bytes += track.builder.getEncodedBytes();
+            }
+        }
+        trackedEntities = tracks.size();
+        bufferedBytes = bytes;
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            store.append(pending);
+            flushedBlocks.addAndGet(pending.size());
+        } finally {
+            pending.clear();
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush(false);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not flush trajectories", e);
+        }
+    }
+
+    // ===================== Any thread =====================
+
+    /**
+     * Write all buffered blocks now, including partial ones
+     */
+    public CompletableFuture<Void> flushAsync() {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                flush(true);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }, encoder);
+    }
+
+    /**
+     * Up to {@code maxSamples} most recent in-memory samples of an entity, decoded on the encoder thread
+     */
+    public CompletableFuture<TrajectorySamples> recent(UUID entity, int maxSamples) {
+        return CompletableFuture.supplyAsync(() -> {
+            TrajectorySamples samples = new TrajectorySamples(maxSamples);
+            EntityTrack track = tracks.get(entity);
+            if (track == null) {
+                return samples;
+            }
+            for (TrajectoryBlock block : track.sealed) {
+                block.decodeInto(samples);
+            }
+            if (track.builder.getSamples() > 0) {
+                // Decode a copy of the open block without sealing the live one
+                track.builder.snapshot().decodeInto(samples);
+            }
+            samples.keepLast(maxSamples);
+            samples.setEntity(entity);
+            return samples;
+        }, encoder);
+    }
+
+    /**
+     * Run a task on the encoder thread, e.g. replaying stored segments without racing the writer
+     */
+    public CompletableFuture<Void> runOnEncoder(Runnable task) {
+        return CompletableFuture.runAsync(task, encoder);
+    }
+
+    public TrajectoryStore getStore() {
+        return store;
+    }
+
+    public TrajectoryConfig getConfig() {
+        return config;
+    }
+
+    public RecorderStats getStats() {
+        return new RecorderStats(capturedSamples.get(), droppedSamples.get(), droppedBlocks.get(),
+                flushedBlocks.get(), trackedEntities, bufferedBytes, store.listSegments().size());
+    }
+
+    /**
+     * Flush everything, close the open segment and stop the encoder thread
+     */
+    public void shutdown() {
+        try {
+            encoder.submit(() -> {
+                try {
+                    flush(true);
+                    store.close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Could not write trajectories on shutdown", e);
+                }
+            }).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Trajectory shutdown flush did not complete", e);
+        } finally {
+            encoder.shutdownNow();
+        }
+    }
+
+    /**
+     * Pooled primitive staging area for one hand-off
+     */
+    private static final class CaptureFrame {
+        final long[] msb;
+        final long[] lsb;
+        final double[] x;
+        final double[] y;
+        final double[] z;
+        final double[] vx;
+        final double[] vy;
+        final double[] vz;
+        final float[] yaw;
+        long tick;
+        int count;
+
+        CaptureFrame(int capacity) {
+            int size = Math.max(1, capacity);
+            msb = new long[size];
+            lsb = new long[size];
+            x = new double[size];
+            y = new double[size];
+            z = new double[size];
+            vx = new double[size];
+            vy = new double[size];
+            vz = new double[size];
+            yaw = new float[size];
+        }
+    }
+
+    /**
+     * Open block and bounded ring of sealed blocks of one entity
+     */
+    private static final class EntityTrack {
+        final UUID entity;
+        final TrajectoryBlock.Builder builder;
+        final ArrayDeque<TrajectoryBlock> sealed = new ArrayDeque<>();
+        boolean hasLast;
+        long lastTick;
+        double lastX;
+        double lastY;
+        double lastZ;
+
+        EntityTrack(UUID entity, int blockSamples) {
+            this.entity = entity;
+            this.builder = new TrajectoryBlock.Builder(entity, blockSamples);
+        }
+    }
+
+    /**
+     * Counters since start
+     */
+    public static class RecorderStats {
+        public final long capturedSamples;
+        public final long droppedSamples;
+        public final long droppedBlocks;
+        public final long flushedBlocks;
+        public final int trackedEntities;
+        public final long bufferedBytes;
+        public final int segments;
+
+        public RecorderStats(long capturedSamples, long droppedSamples, long droppedBlocks, long flushedBlocks,
+                             int trackedEntities, long bufferedBytes, int segments) {
+            this.capturedSamples = capturedSamples;
+            this.droppedSamples = droppedSamples;
+            this.droppedBlocks = droppedBlocks;
+            this.flushedBlocks = flushedBlocks;
+            this.trackedEntities = trackedEntities;
+            this.bufferedBytes = bufferedBytes;
+            this.segments = segments;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("RecorderStats{captured=%d, dropped=%d, droppedBlocks=%d, flushed=%d, entities=%d, buffered=%dB, segments=%d}",
+                    capturedSamples, droppedSamples, droppedBlocks, flushedBlocks, trackedEntities, bufferedBytes, segments);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package chef.sheesh.eyeAI.core.ml.trajectory;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+/**
+ * Per-tick task that drives the recorder clock and captures online players.
+ * Runs on the main thread; per player it only reads the location into a reused {@link Location}
+ * and copies primitives. Velocity is left for the encoder to derive from consecutive samples.
+ */
+public final class TrajectorySampler implements Runnable {
+
+    private final TrajectoryRecorder recorder;
+    private final Location scratch = new Location(null, 0, 0, 0);
+
+    public TrajectorySampler(TrajectoryRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void run() {
+        if (!recorder.beginTick()) {
+            return;
+        }
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            Location location = player.getLocation(scratch);
+            recorder.capture(player.getUniqueId(), location.getX(), location.getY(), location.getZ(),
+                    Double.NaN, Double.NaN, Double.NaN, location.getYaw());
+        }
+        recorder.endTick();
+    }
+}
@@ -0,0 +1,127 @@
+package chef.sheesh.eyeAI.core.ml.trajectory;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Decoded samples of one entity in primitive arrays, oldest first.
+ * Reusable: {@link #clear} keeps the buffers.
+ */
+public final class TrajectorySamples {
+
+    private UUID entity;
+    private int count;
+    long[] ticks;
+    double[] x;
+    double[] y;
+    double[] z;
+    double[] vx;
+    double[] vy;
+    double[] vz;
+    float[] yaw;
+
+    public TrajectorySamples(int capacity) {
+        int size = Math.max(1, capacity);
+        ticks = new long[size];
+        x = new double[size];
+        y = new double[size];
+        z = new double[size];
+        vx = new double[size];
+        vy = new double[size];
+        vz = new double[size];
+        yaw = new float[size];
+    }
+
+    public void clear() {
+        entity = null;
+        count = 0;
+    }
+
+    void setEntity(UUID entity) {
+        this.entity = entity;
+    }
+
+    void add(long tick, double px, double py, double pz, double dx, double dy, double dz, float angle) {
+        if (count == ticks.length) {
+            int size = count * 2;
+            ticks = Arrays.copyOf(ticks, size);
+            x = Arrays.copyOf(x, size);
+            y = Arrays.copyOf(y, size);
+            z = Arrays.copyOf(z, size);
+            vx = Arrays.copyOf(vx, size);
+            vy = Arrays.copyOf(vy, size);
+            vz = Arrays.copyOf(vz, size);
+            yaw = Arrays.copyOf(yaw, size);
+        }
+        ticks[count] = tick;
+        x[count] = px;
+        y[count] = py;
+        z[count] = pz;
+        vx[count] = dx;
+        vy[count] = dy;
+        vz[count] = dz;
+        yaw[count] = angle;
+        count++;
+    }
+
+    /**
+     * Drop all but the newest {@code keep} samples
+     */
+    void keepLast(int keep) {
+        if (keep >= count) {
+            return;
+        }
+        int from = count - keep;
+        System.arraycopy(ticks, from, ticks, 0, keep);
+        System.arraycopy(x, from, x, 0, keep);
+        System.arraycopy(y, from, y, 0, keep);
+        System.arraycopy(z, from, z, 0, keep);
+        System.arraycopy(vx, from, vx, 0, keep);
+        System.arraycopy(vy, from, vy, 0, keep);
+        System.arraycopy(vz, from, vz, 0, keep);
+        System.arraycopy(yaw, from, yaw, 0, keep);
+        count = keep;
+    }
+
+    public UUID getEntity() {
+        return entity;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public long getTick(int i) {
+        return ticks[i];
+    }
+
+    public double getX(int i) {
+        return x[i];
+    }
+
+    public double getY(int i) {
+        return y[i];
+    }
+
+    public double getZ(int i) {
+        return z[i];
+    }
+
+    /** Velocity in blocks per tick */
+    public double getVelocityX(int i) {
+        return vx[i];
+    }
+
+    public double getVelocityY(int i) {
+        return vy[i];
+    }
+
+    public double getVelocityZ(int i) {
+        return vz[i];
+    }
+
+    /** Yaw in degrees, normalized to [0, 360) */
+    public float getYaw(int i) {
+        return yaw[i];
+    }
+}
@@ -0,0 +1,178 @@
+package chef.sheesh.eyeAI.core.ml.trajectory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Segmented, gzip-compressed trajectory files.
+ * <p>
+ * Blocks are appended to {@code seg-<n>.trj.part}. Once a segment reaches its size limit, or the
+ * store is closed, the part file is completed and renamed to {@code seg-<n>.trj}, so readers only
+ * ever see whole segments. Only the newest {@code maxSegments} closed segments are kept.
+ * Writes come from the recorder's encoder thread; reads may run on any thread.
+ */
+public final class TrajectoryStore {
+
+    private static final Logger LOGGER = Logger.getLogger(TrajectoryStore.class.getName());
+    private static final int MAGIC = 0x54524A31; // "TRJ1"
+    private static final String SUFFIX = ".trj";
+    private static final String PART_SUFFIX = ".trj.part";
+
+    private final File directory;
+    private final TrajectoryConfig config;
+
+    // Encoder thread only
+    private DataOutputStream current;
+    private File currentFile;
+    private long currentBytes;
+    private long nextSegment;
+
+    public TrajectoryStore(File directory, TrajectoryConfig config) {
+        this.directory = directory;
+        this.config = config;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            LOGGER.warning("Could not create trajectory directory " + directory);
+        }
+        // Part files are left by a crash; their gzip stream is incomplete
+        File[] stale = directory.listFiles((dir, name) -> name.endsWith(PART_SUFFIX));
+        if (stale != null) {
+            for (File file : stale) {
+                if (!file.delete()) {
+                    LOGGER.warning("Could not delete incomplete trajectory segment " + file);
+                }
+            }
+        }
+        List<File> segments = listSegments();
+        nextSegment = segments.isEmpty() ? 1 : segmentNumber(segments.get(segments.size() - 1)) + 1;
+    }
+
+    /**
+     * Append sealed blocks, rolling to a new segment when the current one is full
+     */
+    public synchronized void append(Collection<TrajectoryBlock> blocks) throws IOException {
+        for (TrajectoryBlock block : blocks) {
+            if (current == null) {
+                open();
+            }
+            int before = current.size();
+            block.write(current);
+            currentBytes += current.size() - before;
+            if (currentBytes >= config.segmentBytes) {
+                close();
+            }
+        }
+        if (current != null) {
+            current.flush();
+        }
+    }
+
+    /**
+     * Complete the open segment, if any, and make it readable
+     */
+    public synchronized void close() throws IOException {
+        if (current == null) {
+            return;
+        }
+        current.close();
+        File done = new File(directory, currentFile.getName().substring(0, currentFile.getName().length() - PART_SUFFIX.length()) + SUFFIX);
+        Files.move(currentFile.toPath(), done.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        current = null;
+        currentFile = null;
+        currentBytes = 0;
+        enforceRetention();
+    }
+
+    /**
+     * Closed segments, oldest first
+     */
+    public List<File> listSegments() {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith("seg-") && name.endsWith(SUFFIX));
+        if (files == null) {
+            return new ArrayList<>();
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)));
+        return new ArrayList<>(Arrays.asList(files));
+    }
+
+    /**
+     * Stream every block of every closed segment, oldest first. Unreadable segments are skipped.
+     */
+    public void readAll(Consumer<TrajectoryBlock> consumer) {
+        for (File segment : listSegments()) {
+            try {
+                read(segment, consumer);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Skipping unreadable trajectory segment " + segment.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Stream the blocks of one segment
+     */
+    public static void read(File segment, Consumer<TrajectoryBlock> consumer) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(segment.toPath()), 1 << 16)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a trajectory segment: " + segment.getName());
+            }
+            while (true) {
+                TrajectoryBlock block;
+                try {
+                    block = TrajectoryBlock.read(in);
+                } catch (EOFException end) {
+                    return;
+                }
+                consumer.accept(block);
+            }
+        }
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    private void open() throws IOException {
+        currentFile = new File(directory, String.format("seg-%06d%s", nextSegment++, PART_SUFFIX));
+        Path path = currentFile.toPath();
+        current = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(path), 1 << 16, true)));
+        current.writeInt(MAGIC);
+        currentBytes = 4;
+    }
+
+    private void enforceRetention() {
+        List<File> segments = listSegments();
+        for (int i = 0; i < segments.size() - config.maxSegments; i++) {
+            if (!segments.get(i).delete()) {
+                LOGGER.warning("Could not delete old trajectory segment " + segments.get(i));
+            }
+        }
+    }
+
+    private static long segmentNumber(File file) {
+        String name = file.getName();
+        int end = name.indexOf('.');
+        try {
+            return Long.parseLong(name.substring(4, end));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+}
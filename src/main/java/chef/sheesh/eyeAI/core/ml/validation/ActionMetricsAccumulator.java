@@ -0,0 +1,222 @@
+package chef.sheesh.eyeAI.core.ml.validation;
+
+/**
+ * Streaming, mergeable metrics for action-prediction models.
+ * Experiences are folded in one at a time without retaining them, and partial
+ * accumulators from parallel partitions are combined with {@link #merge}.
+ * Tracks accuracy, reward mean/variance, Q-value convergence, a confusion matrix
+ * (true action by predicted action) and confidence calibration bins, where
+ * confidence is the softmax probability of the predicted action.
+ */
+public final class ActionMetricsAccumulator {
+
+    /** Number of equal-width confidence bins used for calibration. */
+    public static final int CALIBRATION_BINS = 10;
+
+    private final int actions;
+    private long count;
+    private long correct;
+    private long convergent;
+    private long unseenStates;
+    private double rewardSum;
+    private double rewardSumSquares;
+    private final long[] confusion;
+    private final long[] binCount = new long[CALIBRATION_BINS];
+    private final long[] binCorrect = new long[CALIBRATION_BINS];
+    private final double[] binConfidence = new double[CALIBRATION_BINS];
+
+    public ActionMetricsAccumulator(int actions) {
+        this.actions = Math.max(1, actions);
+        this.confusion = new long[this.actions * this.actions];
+    }
+
+    /**
+     * Add one experience.
+     *
+     * @param qValues the model's Q-values for the state, or null if the state is unknown
+     */
+    public void accept(int trueAction, double reward, double[] qValues) {
+        count++;
+        rewardSum += reward;
+        rewardSumSquares += reward * reward;
+
+        int predicted = 0;
+        double maxQ = 0.0;
+        double confidence = 1.0 / actions;
+        double trueQ = 0.0;
+        if (qValues != null && qValues.length > 0) {
+            maxQ = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < qValues.length; i++) {
+                if (qValues[i] > maxQ) {
+                    maxQ = qValues[i];
+                    predicted = i;
+                }
+            }
+            // Softmax probability of the chosen action, shifted by max for stability
+            double denominator = 0.0;
+            for (double q : qValues) {
+                denominator += Math.exp(q - maxQ);
+            }
+            confidence = 1.0 / denominator;
+            trueQ = trueAction >= 0 && trueAction < qValues.length ? qValues[trueAction] : 0.0;
+        } else {
+            unseenStates++;
+        }
+
+        boolean hit = predicted == trueAction;
+        if (hit) {
+            correct++;
+        }
+        if (Math.abs(trueQ - reward) < 0.1) {
+            convergent++;
+        }
+        if (trueAction >= 0 && trueAction < actions && predicted < actions) {
+            confusion[trueAction * actions + predicted]++;
+        }
+
+        int bin = Math.min(CALIBRATION_BINS - 1, (int) (confidence * CALIBRATION_BINS));
+        binCount[bin]++;
+        binConfidence[bin] += confidence;
+        if (hit) {
+            binCorrect[bin]++;
+        }
+    }
+
+    /**
+     * Add another accumulator's counts into this one
+     */
+    public ActionMetricsAccumulator merge(ActionMetricsAccumulator other) {
+        if (other.actions != actions) {
+            throw new IllegalArgumentException("Cannot merge accumulators for " + other.actions + " and " + actions + " actions");
+        }
+        count += other.count;
+        correct += other.correct;
+        convergent += other.convergent;
+        unseenStates += other.unseenStates;
+        rewardSum += other.rewardSum;
+        rewardSumSquares += other.rewardSumSquares;
+        for (int i = 0; i < confusion.length; i++) {
+            confusion[i] += other.confusion[i];
+        }
+        for (int i = 0; i < CALIBRATION_BINS; i++) {
+            binCount[i] += other.binCount[i];
+            binCorrect[i] += other.binCorrect[i];
+            binConfidence[i] += other.binConfidence[i];
+        }
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getCorrect() {
+        return correct;
+    }
+
+    public long getUnseenStates() {
+        return unseenStates;
+    }
+
+    public double getAccuracy() {
+        return count > 0 ? (double) correct / count : 0.0;
+    }
+
+    public double getAverageReward() {
+        return count > 0 ? rewardSum / count : 0.0;
+    }
+
+    public double getRewardSum() {
+        return rewardSum;
+    }
+
+    public double getRewardStdDev() {
+        if (count == 0) {
+            return 0.0;
+        }
+        double mean = rewardSum / count;
+        return Math.sqrt(Math.max(0.0, rewardSumSquares / count - mean * mean));
+    }
+
+    /**
+     * Share of experiences whose Q-value for the taken action is within 0.1 of the observed reward
+     */
+    public double getConvergenceRate() {
+        return count > 0 ? (double) convergent / count : 0.0;
+    }
+
+    public long getConvergentCount() {
+        return convergent;
+    }
+
+    /**
+     * Expected calibration error: bin-weighted gap between confidence and accuracy
+     */
+    public double getExpectedCalibrationError() {
+        if (count == 0) {
+            return 0.0;
+        }
+        double error = 0.0;
+        for (int i = 0; i < CALIBRATION_BINS; i++) {
+            if (binCount[i] > 0) {
+                double accuracy = (double) binCorrect[i] / binCount[i];
+                double confidence = binConfidence[i] / binCount[i];
+                error += (double) binCount[i] / count * Math.abs(accuracy - confidence);
+            }
+        }
+        return error;
+    }
+
+    /**
+     * Macro-averaged F1 over actions that occur as true or predicted labels
+     */
+    public double getMacroF1() {
+        double sum = 0.0;
+        int labels = 0;
+        for (int a = 0; a < actions; a++) {
+            long truePositive = confusion[a * actions + a];
+            long actual = 0;
+            long predicted = 0;
+            for (int b = 0; b < actions; b++) {
+                actual += confusion[a * actions + b];
+                predicted += confusion[b * actions + a];
+            }
+            if (actual == 0 && predicted == 0) {
+                continue;
+            }
+            labels++;
+            if (truePositive > 0) {
+                double precision = (double) truePositive / predicted;
+                double recall = (double) truePositive / actual;
+                sum += 2 * precision * recall / (precision + recall);
+            }
+        }
+        return labels > 0 ? sum / labels : 0.0;
+    }
+
+    /**
+     * Copy of the confusion matrix indexed [trueAction][predictedAction]
+     */
+    public long[][] getConfusionMatrix() {
+        long[][] matrix = new long[actions][actions];
+        for (int a = 0; a < actions; a++) {
+            System.arraycopy(confusion, a * actions, matrix[a], 0, actions);
+        }
+        return matrix;
+    }
+
+    /**
+     * Observed accuracy per confidence bin; NaN for empty bins
+     */
+    public double[] getCalibrationCurve() {
+        double[] curve = new double[CALIBRATION_BINS];
+        for (int i = 0; i < CALIBRATION_BINS; i++) {
+            curve[i] = binCount[i] > 0 ? (double) binCorrect[i] / binCount[i] : Double.NaN;
+        }
+        return curve;
+    }
+
+    public int getActions() {
+        return actions;
+    }
+}
@@ -3,18 +3,32 @@ package chef.sheesh.eyeAI.core.ml.validation;
 import chef.sheesh.eyeAI.core.ml.features.FeatureEngineer;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
 import chef.sheesh.eyeAI.core.sim.SimExperience;
-import chef.sheesh.eyeAI.infra.util.Async;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * Model validation and performance testing for ML components.
  * Provides comprehensive evaluation metrics and validation strategies.
+ * Validation runs on a dedicated, bounded pool so large replay datasets do not
+ * compete with training for the shared executors. Metrics are computed with
+ * mergeable streaming accumulators over partitions of the input.
  */
 public final class ModelValidator {
 
+    private static final int MAX_HISTORY = 100;
+    // Experiences per leaf task; large enough that task overhead is negligible
+    private static final int PARTITION_SIZE = 8192;
+
+    private final ForkJoinPool executor;
+
     // Validation configuration
     private double trainTestSplit = 0.8; // 80% train, 20% test
     private int crossValidationFolds = 5;
@@ -22,11 +36,29 @@ public final class ModelValidator {
     private boolean useStratifiedSampling = true;
 
     // Performance metrics
-    private final Map<String, ValidationMetrics> metricsHistory = new HashMap<>();
-    private final List<ValidationResult> validationHistory = new ArrayList<>();
+    private final Map<String, ValidationMetrics> metricsHistory = new ConcurrentHashMap<>();
+    private final Deque<ValidationResult> validationHistory = new ArrayDeque<>();
+
+    public ModelValidator() {
+        this(Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)));
+    }
+
+    /**
+     * @param parallelism maximum number of validation threads
+     */
+    public ModelValidator(int parallelism) {
+        this.executor = new ForkJoinPool(Math.max(1, parallelism), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("ModelValidator-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }, null, false);
+    }
 
     /**
-     * Validate Q-learning agent performance
+     * Validate Q-learning agent performance.
+     * The experiences are split into partitions that are scored in parallel and merged.
      */
     public CompletableFuture<ValidationResult> validateQAgent(
             Map<Long, double[]> qTable,
@@ -34,80 +66,117 @@ public final class ModelValidator {
 
         return CompletableFuture.supplyAsync(() -> {
             if (testExperiences.size() < minTestSamples) {
-                return new ValidationResult("INSUFFICIENT_DATA", 0.0, 0.0, 0.0,
-                                          Collections.emptyMap(), System.currentTimeMillis());
+                return insufficientData();
             }
 
-            double totalReward = 0.0;
-            double correctPredictions = 0.0;
-            double totalPredictions = 0.0;
-            int convergenceSteps = 0;
+            int actions = actionCount(qTable);
+            ActionMetricsAccumulator metrics = new QPartitionTask(qTable, randomAccess(testExperiences), actions,
+                    1, 0.0, 0L, 0, testExperiences.size()).invoke()[0];
 
-            Map<String, Double> additionalMetrics = new HashMap<>();
+            ValidationResult result = toQResult(metrics, qTable.size());
+            recordResult(result);
+            metricsHistory.put("Q_AGENT", new ValidationMetrics(
+                result.accuracy, result.averageReward, result.additionalMetric, (int) metrics.getCount()
+            ));
 
-            // Simulate agent performance on test data
-            for (SimExperience exp : testExperiences) {
-                long state = exp.getStateHash();
-                int trueAction = exp.getAction();
-                double reward = exp.getReward();
+            return result;
+        }, executor);
+    }
 
-                totalReward += reward;
+    /**
+     * Holdout validation of a Q-table: a deterministic pseudo-random {@code 1 - trainTestSplit}
+     * share of the experiences is scored without copying or shuffling the list.
+     */
+    public CompletableFuture<ValidationResult> holdoutValidateQAgent(
+            Map<Long, double[]> qTable,
+            List<SimExperience> experiences,
+            long seed) {
 
-                // Get Q-values for this state
-                double[] qValues = qTable.getOrDefault(state, new double[10]);
+        return CompletableFuture.supplyAsync(() -> {
+            double testFraction = 1.0 - trainTestSplit;
+            if (experiences.size() * testFraction < minTestSamples) {
+                return insufficientData();
+            }
 
-                if (qValues.length > 0) {
-                    // Find best action according to model
-                    int predictedAction = 0;
-                    double maxQ = Double.NEGATIVE_INFINITY;
+            int actions = actionCount(qTable);
+            ActionMetricsAccumulator metrics = new QPartitionTask(qTable, randomAccess(experiences), actions,
+                    1, testFraction, seed, 0, experiences.size()).invoke()[0];
 
-                    for (int i = 0; i < qValues.length; i++) {
-                        if (qValues[i] > maxQ) {
-                            maxQ = qValues[i];
-                            predictedAction = i;
-                        }
-                    }
+            ValidationResult result = toQResult(metrics, qTable.size());
+            recordResult(result);
+            metricsHistory.put("Q_AGENT_HOLDOUT", new ValidationMetrics(
+                result.accuracy, result.averageReward, result.additionalMetric, (int) metrics.getCount()
+            ));
+            return result;
+        }, executor);
+    }
 
-                    totalPredictions++;
-                    if (predictedAction == trueAction) {
-                        correctPredictions++;
-                    }
+    /**
+     * K-fold cross-validation of a Q-learning training rule.
+     * Each experience is assigned to a fold by a seeded hash of its index; for every fold
+     * {@code trainer} builds a fresh table from the other k-1 folds and that table is scored
+     * on the held-out fold only. Folds train in parallel, so {@code trainer} must be thread-safe.
+     */
+    public CompletableFuture<CrossValidationResult> crossValidateQAgent(
+            java.util.function.Function<List<SimExperience>, Map<Long, double[]>> trainer,
+            List<SimExperience> experiences,
+            long seed) {
 
-                    // Track convergence (how quickly Q-values stabilize)
-                    if (Math.abs(qValues[trueAction] - reward) < 0.1) {
-                        convergenceSteps++;
-                    }
-                }
+        return CompletableFuture.supplyAsync(() -> {
+            int folds = crossValidationFolds;
+            if (experiences.size() < folds * minTestSamples) {
+                return new CrossValidationResult(
+                    "INSUFFICIENT_DATA",
+                    new double[0],
+                    0.0, 0.0, 0.0, 0.0,
+                    System.currentTimeMillis()
+                );
             }
 
-            double accuracy = totalPredictions > 0 ? correctPredictions / totalPredictions : 0.0;
-            double avgReward = testExperiences.size() > 0 ? totalReward / testExperiences.size() : 0.0;
-            double convergenceRate = testExperiences.size() > 0 ? (double) convergenceSteps / testExperiences.size() : 0.0;
-
-            additionalMetrics.put("total_predictions", totalPredictions);
-            additionalMetrics.put("correct_predictions", correctPredictions);
-            additionalMetrics.put("total_reward", totalReward);
-            additionalMetrics.put("convergence_steps", (double) convergenceSteps);
-            additionalMetrics.put("q_table_size", (double) qTable.size());
-
-            String status = accuracy > 0.6 ? "GOOD" : accuracy > 0.4 ? "FAIR" : "POOR";
-
-            ValidationResult result = new ValidationResult(
-                status, accuracy, avgReward, convergenceRate,
-                additionalMetrics, System.currentTimeMillis()
-            );
+            List<SimExperience> source = randomAccess(experiences);
+            List<List<SimExperience>> foldData = new ArrayList<>(folds);
+            for (int fold = 0; fold < folds; fold++) {
+                foldData.add(new ArrayList<>(source.size() / folds + 1));
+            }
+            for (int index = 0; index < source.size(); index++) {
+                foldData.get(QPartitionTask.foldOf(seed, index, folds)).add(source.get(index));
+            }
 
-            validationHistory.add(result);
-            metricsHistory.put("Q_AGENT", new ValidationMetrics(
-                accuracy, avgReward, convergenceRate, testExperiences.size()
+            List<ForkJoinTask<ActionMetricsAccumulator>> tasks = new ArrayList<>(folds);
+            for (int fold = 0; fold < folds; fold++) {
+                int heldOut = fold;
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    List<SimExperience> training = new ArrayList<>(source.size() - foldData.get(heldOut).size());
+                    for (int other = 0; other < folds; other++) {
+                        if (other != heldOut) {
+                            training.addAll(foldData.get(other));
+                        }
+                    }
+                    Map<Long, double[]> table = trainer.apply(training);
+                    List<SimExperience> test = foldData.get(heldOut);
+                    return new QPartitionTask(table, test, actionCount(table), 1, 0.0, 0L, 0, test.size()).invoke()[0];
+                }));
+            }
+            ForkJoinTask.invokeAll(tasks);
+
+            double[] foldAccuracies = new double[folds];
+            double[] foldRewards = new double[folds];
+            for (int fold = 0; fold < folds; fold++) {
+                ActionMetricsAccumulator metrics = tasks.get(fold).join();
+                foldAccuracies[fold] = metrics.getAccuracy();
+                foldRewards[fold] = metrics.getAverageReward();
+            }
+            CrossValidationResult result = toCrossValidationResult(foldAccuracies, foldRewards);
+            metricsHistory.put("Q_AGENT_CV", new ValidationMetrics(
+                result.meanAccuracy, result.meanReward, result.stdAccuracy, source.size()
             ));
-
             return result;
-        });
+        }, executor);
     }
 
     /**
-     * Validate RNN movement prediction performance
+     * Validate RNN movement prediction performance.
+     * The predictor is called from a single validation thread, so it need not be thread-safe.
      */
     public CompletableFuture<ValidationResult> validateRNNMovement(
             List<double[]> testSequences,
@@ -115,16 +184,11 @@ public final class ModelValidator {
 
         return CompletableFuture.supplyAsync(() -> {
             if (testSequences.size() < minTestSamples) {
-                return new ValidationResult("INSUFFICIENT_DATA", 0.0, 0.0, 0.0,
-                                          Collections.emptyMap(), System.currentTimeMillis());
+                return insufficientData();
             }
 
-            double totalMSE = 0.0;
-            double totalMAE = 0.0;
-            int totalPredictions = 0;
-            double maxError = 0.0;
-
-            Map<String, Double> additionalMetrics = new HashMap<>();
+            RegressionMetricsAccumulator errors = new RegressionMetricsAccumulator();
+            double[] input = new double[6];
 
             // Test prediction accuracy
             for (double[] sequence : testSequences) {
@@ -132,48 +196,24 @@ public final class ModelValidator {
                     continue; // Need at least input + output
                 }
 
-                // Use first part as input
-                double[] input = new double[6];
+                // First part as input, next part as expected output (compared in place)
                 System.arraycopy(sequence, 0, input, 0, 6);
-
-                // Next part as expected output
-                double[] expected = new double[6];
-                System.arraycopy(sequence, 6, expected, 0, 6);
-
-                // Get prediction
                 double[] prediction = predictor.apply(input);
-
-                // Calculate errors
-                double mse = 0.0;
-                double mae = 0.0;
-
-                for (int i = 0; i < 6; i++) {
-                    double error = prediction[i] - expected[i];
-                    mse += error * error;
-                    mae += Math.abs(error);
-                    maxError = Math.max(maxError, Math.abs(error));
-                }
-
-                mse /= 6.0;
-                mae /= 6.0;
-
-                totalMSE += mse;
-                totalMAE += mae;
-                totalPredictions++;
+                errors.accept(prediction, sequence, 6, 6);
             }
 
-            double avgMSE = totalPredictions > 0 ? totalMSE / totalPredictions : 0.0;
-            double avgMAE = totalPredictions > 0 ? totalMAE / totalPredictions : 0.0;
-            double rmse = Math.sqrt(avgMSE);
+            double avgMAE = errors.getMae();
+            double rmse = errors.getRmse();
 
             // Convert to accuracy score (lower error = higher accuracy)
             double accuracy = Math.max(0.0, 1.0 - Math.min(1.0, avgMAE / 10.0));
 
-            additionalMetrics.put("mse", avgMSE);
+            Map<String, Double> additionalMetrics = new HashMap<>();
+            additionalMetrics.put("mse", errors.getMse());
             additionalMetrics.put("mae", avgMAE);
             additionalMetrics.put("rmse", rmse);
-            additionalMetrics.put("max_error", maxError);
-            additionalMetrics.put("total_predictions", (double) totalPredictions);
+            additionalMetrics.put("max_error", errors.getMaxError());
+            additionalMetrics.put("total_predictions", (double) errors.getCount());
 
             String status = accuracy > 0.7 ? "GOOD" : accuracy > 0.5 ? "FAIR" : "POOR";
 
@@ -182,13 +222,13 @@ public final class ModelValidator {
                 additionalMetrics, System.currentTimeMillis()
             );
 
-            validationHistory.add(result);
+            recordResult(result);
             metricsHistory.put("RNN_MOVEMENT", new ValidationMetrics(
                 accuracy, -avgMAE, rmse, testSequences.size()
             ));
 
             return result;
-        });
+        }, executor);
     }
 
     /**
@@ -257,21 +297,27 @@ public final class ModelValidator {
                 additionalMetrics, System.currentTimeMillis()
             );
 
-            validationHistory.add(result);
+            recordResult(result);
             metricsHistory.put("GA", new ValidationMetrics(
                 accuracy, bestFitness, diversityRatio, testGenomes.size()
             ));
 
             return result;
-        });
+        }, executor);
     }
 
     /**
-     * Cross-validation for robust evaluation
+     * K-fold cross-validation of any model: for each fold a model is trained on the other
+     * folds and scored on the held-out one. Folds run in parallel, so {@code trainer} and
+     * {@code scorer} must be thread-safe.
+     *
+     * @param trainer builds a fresh model from training experiences
+     * @param scorer  scores a model on experiences it was not trained on
      */
-    public CompletableFuture<CrossValidationResult> crossValidate(
+    public <M> CompletableFuture<CrossValidationResult> crossValidate(
             List<SimExperience> allExperiences,
-            java.util.function.Function<List<SimExperience>, ValidationResult> validator) {
+            java.util.function.Function<List<SimExperience>, M> trainer,
+            java.util.function.BiFunction<M, List<SimExperience>, ValidationResult> scorer) {
 
         return CompletableFuture.supplyAsync(() -> {
             if (allExperiences.size() < crossValidationFolds * minTestSamples) {
@@ -287,56 +333,209 @@ public final class ModelValidator {
             List<SimExperience> shuffled = new ArrayList<>(allExperiences);
             Collections.shuffle(shuffled, new Random());
 
-            int foldSize = shuffled.size() / crossValidationFolds;
-            double[] foldAccuracies = new double[crossValidationFolds];
-            double[] foldRewards = new double[crossValidationFolds];
+            int folds = crossValidationFolds;
+            int foldSize = shuffled.size() / folds;
+            double[] foldAccuracies = new double[folds];
+            double[] foldRewards = new double[folds];
 
-            // Perform cross-validation
-            for (int fold = 0; fold < crossValidationFolds; fold++) {
+            List<ForkJoinTask<ValidationResult>> tasks = new ArrayList<>(folds);
+            for (int fold = 0; fold < folds; fold++) {
                 int testStart = fold * foldSize;
                 int testEnd = (fold + 1) * foldSize;
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    List<SimExperience> training = new ArrayList<>(shuffled.size() - (testEnd - testStart));
+                    training.addAll(shuffled.subList(0, testStart));
+                    training.addAll(shuffled.subList(testEnd, shuffled.size()));
+                    M model = trainer.apply(training);
+                    return scorer.apply(model, shuffled.subList(testStart, testEnd));
+                }));
+            }
+            ForkJoinTask.invokeAll(tasks);
+            for (int fold = 0; fold < folds; fold++) {
+                ValidationResult foldResult = tasks.get(fold).join();
+                foldAccuracies[fold] = foldResult.accuracy;
+                foldRewards[fold] = foldResult.averageReward;
+            }
 
-                // Split data
-                List<SimExperience> testData = shuffled.subList(testStart, testEnd);
-                List<SimExperience> trainData = new ArrayList<>();
-                trainData.addAll(shuffled.subList(0, testStart));
-                trainData.addAll(shuffled.subList(testEnd, shuffled.size()));
+            return toCrossValidationResult(foldAccuracies, foldRewards);
+        }, executor);
+    }
 
-                // Note: In a real implementation, you would train on trainData here
-                // For now, we'll just validate on testData as a placeholder
+    private CrossValidationResult toCrossValidationResult(double[] foldAccuracies, double[] foldRewards) {
+        double meanAccuracy = Arrays.stream(foldAccuracies).average().orElse(0.0);
+        double stdAccuracy = calculateStdDev(foldAccuracies, meanAccuracy);
+        double meanReward = Arrays.stream(foldRewards).average().orElse(0.0);
+        double stdReward = calculateStdDev(foldRewards, meanReward);
+
+        String status = stdAccuracy < 0.1 ? "STABLE" : stdAccuracy < 0.2 ? "MODERATE" : "UNSTABLE";
+
+        return new CrossValidationResult(
+            status,
+            foldAccuracies,
+            meanAccuracy,
+            stdAccuracy,
+            meanReward,
+            stdReward,
+            System.currentTimeMillis()
+        );
+    }
 
-                ValidationResult foldResult = validator.apply(testData);
-                foldAccuracies[fold] = foldResult.accuracy;
-                foldRewards[fold] = foldResult.averageReward;
+    private ValidationResult toQResult(ActionMetricsAccumulator metrics, int qTableSize) {
+        double accuracy = metrics.getAccuracy();
+        Map<String, Double> additionalMetrics = new HashMap<>();
+        additionalMetrics.put("total_predictions", (double) metrics.getCount());
+        additionalMetrics.put("correct_predictions", (double) metrics.getCorrect());
+        additionalMetrics.put("total_reward", metrics.getRewardSum());
+        additionalMetrics.put("reward_std", metrics.getRewardStdDev());
+        additionalMetrics.put("convergence_steps", (double) metrics.getConvergentCount());
+        additionalMetrics.put("unseen_states", (double) metrics.getUnseenStates());
+        additionalMetrics.put("macro_f1", metrics.getMacroF1());
+        additionalMetrics.put("calibration_error", metrics.getExpectedCalibrationError());
+        additionalMetrics.put("q_table_size", (double) qTableSize);
+
+        String status = accuracy > 0.6 ? "GOOD" : accuracy > 0.4 ? "FAIR" : "POOR";
+
+        return new ValidationResult(
+            status, accuracy, metrics.getAverageReward(), metrics.getConvergenceRate(),
+            additionalMetrics, System.currentTimeMillis(), metrics.getConfusionMatrix()
+        );
+    }
+
+    private static ValidationResult insufficientData() {
+        return new ValidationResult("INSUFFICIENT_DATA", 0.0, 0.0, 0.0,
+                                  Collections.emptyMap(), System.currentTimeMillis());
+    }
+
+    /**
+     * Widest Q-value row, or 10 actions for an empty table
+     */
+    private static int actionCount(Map<Long, double[]> qTable) {
+        int actions = 0;
+        for (double[] row : qTable.values()) {
+            actions = Math.max(actions, row.length);
+        }
+        return actions > 0 ? actions : 10;
+    }
+
+    /**
+     * Partitions index into the list, so linked lists are copied once up front
+     */
+    private static <T> List<T> randomAccess(List<T> list) {
+        return list instanceof RandomAccess ? list : new ArrayList<>(list);
+    }
+
+    private void recordResult(ValidationResult result) {
+        synchronized (validationHistory) {
+            validationHistory.addLast(result);
+            while (validationHistory.size() > MAX_HISTORY) {
+                validationHistory.removeFirst();
             }
+        }
+    }
 
-            // Calculate statistics
-            double meanAccuracy = Arrays.stream(foldAccuracies).average().orElse(0.0);
-            double stdAccuracy = calculateStdDev(foldAccuracies, meanAccuracy);
-            double meanReward = Arrays.stream(foldRewards).average().orElse(0.0);
-            double stdReward = calculateStdDev(foldRewards, meanReward);
-
-            String status = stdAccuracy < 0.1 ? "STABLE" : stdAccuracy < 0.2 ? "MODERATE" : "UNSTABLE";
-
-            return new CrossValidationResult(
-                status,
-                foldAccuracies,
-                meanAccuracy,
-                stdAccuracy,
-                meanReward,
-                stdReward,
-                System.currentTimeMillis()
-            );
-        });
+    /**
+     * Stop the validation threads
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Scores a range of experiences against a Q-table, splitting until ranges are small.
+     * Returns one accumulator per bucket: per fold for k-fold, a single one otherwise.
+     */
+    private static final class QPartitionTask extends RecursiveTask<ActionMetricsAccumulator[]> {
+        private final Map<Long, double[]> qTable;
+        private final List<SimExperience> experiences;
+        private final int actions;
+        private final int folds;
+        private final double holdoutFraction;
+        private final long seed;
+        private final int from;
+        private final int to;
+
+        private QPartitionTask(Map<Long, double[]> qTable, List<SimExperience> experiences, int actions,
+                               int folds, double holdoutFraction, long seed, int from, int to) {
+            this.qTable = qTable;
+            this.experiences = experiences;
+            this.actions = actions;
+            this.folds = folds;
+            this.holdoutFraction = holdoutFraction;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ActionMetricsAccumulator[] compute() {
+            if (to - from > PARTITION_SIZE) {
+                int mid = (from + to) >>> 1;
+                QPartitionTask left = new QPartitionTask(qTable, randomAccess(experiences), actions, folds, holdoutFraction, seed, from, mid);
+                QPartitionTask right = new QPartitionTask(qTable, randomAccess(experiences), actions, folds, holdoutFraction, seed, mid, to);
+                left.fork();
+                ActionMetricsAccumulator[] merged = right.compute();
+                ActionMetricsAccumulator[] other = left.join();
+                for (int i = 0; i < merged.length; i++) {
+                    merged[i].merge(other[i]);
+                }
+                return merged;
+            }
+
+            ActionMetricsAccumulator[] buckets = new ActionMetricsAccumulator[folds];
+            for (int i = 0; i < folds; i++) {
+                buckets[i] = new ActionMetricsAccumulator(actions);
+            }
+            for (int index = from; index < to; index++) {
+                int bucket = bucketOf(index);
+                if (bucket < 0) {
+                    continue;
+                }
+                SimExperience exp = experiences.get(index);
+                // Unknown states score as all-zero Q-values without allocating a default row
+                double[] qValues = qTable.get(exp.getStateHash());
+                buckets[bucket].accept(exp.getAction(), exp.getReward(), qValues);
+            }
+            return buckets;
+        }
+
+        /**
+         * Fold for an index, or -1 if a holdout split excludes it
+         */
+        private int bucketOf(int index) {
+            long hash = mix(seed + index);
+            if (holdoutFraction > 0.0) {
+                return (hash >>> 11) * 0x1.0p-53 < holdoutFraction ? 0 : -1;
+            }
+            return folds == 1 ? 0 : foldOf(seed, index, folds);
+        }
+
+        private static int foldOf(long seed, int index, int folds) {
+            return (int) Long.remainderUnsigned(mix(seed + index), folds);
+        }
+
+        private static long mix(long z) {
+            z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+            z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+            return z ^ (z >>> 33);
+        }
     }
 
     /**
      * Get comprehensive validation report
      */
     public ValidationReport getValidationReport() {
+        List<ValidationResult> history;
+        synchronized (validationHistory) {
+            history = new ArrayList<>(validationHistory);
+        }
         return new ValidationReport(
             metricsHistory,
-            validationHistory,
+            history,
             System.currentTimeMillis()
         );
     }
@@ -346,7 +545,9 @@ public final class ModelValidator {
      */
     public void clearHistory() {
         metricsHistory.clear();
-        validationHistory.clear();
+        synchronized (validationHistory) {
+            validationHistory.clear();
+        }
     }
 
     // Configuration methods
@@ -387,9 +588,18 @@ public final class ModelValidator {
         public final double additionalMetric;
         public final Map<String, Double> metrics;
         public final long timestamp;
+        /** [trueAction][predictedAction] counts for action models, null otherwise. */
+        public final long[][] confusionMatrix;
 
         public ValidationResult(String status, double accuracy, double averageReward,
                               double additionalMetric, Map<String, Double> metrics, long timestamp) {
+            this(status, accuracy, averageReward, additionalMetric, metrics, timestamp, null);
+        }
+
+        public ValidationResult(String status, double accuracy, double averageReward,
+                              double additionalMetric, Map<String, Double> metrics, long timestamp,
+                              long[][] confusionMatrix) {
+            this.confusionMatrix = confusionMatrix;
             this.status = status;
             this.accuracy = accuracy;
             this.averageReward = averageReward;
@@ -0,0 +1,58 @@
+package chef.sheesh.eyeAI.core.ml.validation;
+
+/**
+ * Streaming, mergeable error metrics for vector-valued predictions.
+ * Each sample contributes its per-component mean squared and absolute error.
+ */
+public final class RegressionMetricsAccumulator {
+
+    private long count;
+    private double squaredErrorSum;
+    private double absoluteErrorSum;
+    private double maxError;
+
+    /**
+     * Add one prediction compared against {@code length} expected values starting at {@code expectedOffset}
+     */
+    public void accept(double[] prediction, double[] expected, int expectedOffset, int length) {
+        double squared = 0.0;
+        double absolute = 0.0;
+        for (int i = 0; i < length; i++) {
+            double error = prediction[i] - expected[expectedOffset + i];
+            squared += error * error;
+            absolute += Math.abs(error);
+            maxError = Math.max(maxError, Math.abs(error));
+        }
+        squaredErrorSum += squared / length;
+        absoluteErrorSum += absolute / length;
+        count++;
+    }
+
+    public RegressionMetricsAccumulator merge(RegressionMetricsAccumulator other) {
+        count += other.count;
+        squaredErrorSum += other.squaredErrorSum;
+        absoluteErrorSum += other.absoluteErrorSum;
+        maxError = Math.max(maxError, other.maxError);
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMse() {
+        return count > 0 ? squaredErrorSum / count : 0.0;
+    }
+
+    public double getMae() {
+        return count > 0 ? absoluteErrorSum / count : 0.0;
+    }
+
+    public double getRmse() {
+        return Math.sqrt(getMse());
+    }
+
+    public double getMaxError() {
+        return maxError;
+    }
+}
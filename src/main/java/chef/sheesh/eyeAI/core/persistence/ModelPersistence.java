@@ -11,7 +11,11 @@ import java.util.logging.Logger;
 /**
  * Handles the persistence of machine learning models.
  * This allows the AI's learned knowledge to be saved and loaded across server restarts.
+ *
+ * @deprecated Java serialization of GameState-keyed tables; use
+ * {@link chef.sheesh.eyeAI.core.ml.registry.ModelRegistry} with {@code ModelCodecs.Q_TABLE}
  */
+@Deprecated
 public class ModelPersistence {
 
     private static final Logger LOGGER = Logger.getLogger(ModelPersistence.class.getName());
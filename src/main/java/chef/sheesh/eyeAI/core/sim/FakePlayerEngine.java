@@ -4,19 +4,29 @@ import chef.sheesh.eyeAI.ai.core.SchedulerService;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayer;
 import chef.sheesh.eyeAI.ai.fakeplayer.FakePlayerManager;
 import chef.sheesh.eyeAI.ai.fakeplayer.IFakePlayer;
+import chef.sheesh.eyeAI.ai.movement.MutableVec3;
 import chef.sheesh.eyeAI.core.ml.MLCore;
+import chef.sheesh.eyeAI.core.ml.features.FeatureMatrix;
+import chef.sheesh.eyeAI.core.ml.features.FeaturePipeline;
+import chef.sheesh.eyeAI.core.sim.replay.SessionSeed;
+import chef.sheesh.eyeAI.core.sim.replay.TickRandom;
+import chef.sheesh.eyeAI.core.sim.replay.TickRecorder;
 import chef.sheesh.eyeAI.infra.events.EventBus;
 import chef.sheesh.eyeAI.infra.packets.PacketBridge;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
 
 public final class FakePlayerEngine {
     private final EventBus bus;
@@ -25,6 +35,18 @@ public final class FakePlayerEngine {
     private final ConcurrentMap<UUID, FakePlayer> fakePlayers = new ConcurrentHashMap<>();
     private FakePlayerManager fakePlayerManager;
     private MLTrainingMonitor trainingMonitor;
+    // Decision scratch reused across bots; tick() runs on a single thread
+    private final TrainingStep step = new TrainingStep();
+    private final TickRandom random = new TickRandom();
+    private final int[] offset = new int[3];
+    // Stable per-session bot numbers, which seed each bot's draws
+    private final Map<UUID, Integer> botIndex = new HashMap<>();
+    private final TickRecorder recorder = new TickRecorder(Logger.getLogger(FakePlayerEngine.class.getName()));
+    private long tickNumber;
+    private long servedVersion = -1;
+    // Bots of a feature sample tick and their matrix rows
+    private final List<FakePlayer> tickOrder = new ArrayList<>();
+    private int[] featureRows = new int[0];
 
     public FakePlayerEngine(EventBus bus, MLCore ml, PacketBridge packets) {
         this.bus = bus;
@@ -43,6 +65,8 @@ public final class FakePlayerEngine {
 
         // Spawn fake players for training
         Location spawnLocation = new Location(Bukkit.getWorlds().get(0), 0, 100, 0);
+        boolean applyParameters = ml.isApplyParametersToBots();
+        step.setExploration(ml.getTrainingExploration());
 
         for (int i = 0; i < count; i++) {
             String name = "AI_Trainer_" + i;
@@ -50,6 +74,10 @@ public final class FakePlayerEngine {
 
             if (fakePlayerInterface instanceof FakePlayer fakePlayer) {
                 fakePlayers.put(fakePlayer.getId(), fakePlayer);
+                botIndex.putIfAbsent(fakePlayer.getId(), botIndex.size());
+                if (applyParameters) {
+                    ml.applyBestParameters(fakePlayer);
+                }
             }
         }
 
@@ -59,6 +87,7 @@ public final class FakePlayerEngine {
         }
         trainingMonitor.startTrainingSession(count);
 
+        recorder.event(tickNumber, "start", count + " bots");
         bus.post(new TrainingStartedEvent(count));
     }
 
@@ -73,14 +102,72 @@ public final class FakePlayerEngine {
             fakePlayerManager.despawnFakePlayer(fp);
         }
         fakePlayers.clear();
+        botIndex.clear();
+        recorder.event(tickNumber, "stop", "");
         bus.post(new TrainingStoppedEvent());
     }
 
+    /**
+     * Record the inputs of every following tick to a log in a directory, for replay with
+     * {@link chef.sheesh.eyeAI.core.sim.replay.TickReplayer}
+     *
+     * @return whether recording started
+     */
+    public boolean startRecording(File directory) {
+        servedVersion = ml.getModelLifecycle().getServingModel().getVersion();
+        if (!recorder.start(directory, SessionSeed.get(), servedVersion, step.getExploration())) {
+            return false;
+        }
+        recorder.event(tickNumber, "bots", Integer.toString(fakePlayers.size()));
+        return true;
+    }
+
+    public void stopRecording() {
+        recorder.stop();
+    }
+
+    public TickRecorder getRecorder() {
+        return recorder;
+    }
+
     public void tick() {
         long tickStartTime = System.nanoTime();
+        tickNumber++;
+        if (recorder.isRecording()) {
+            long version = ml.getModelLifecycle().getServingModel().getVersion();
+            if (version != servedVersion) {
+                // Decisions follow the serving model, so a swap explains later differences in a replay
+                recorder.event(tickNumber, "model", "v" + version);
+                servedVersion = version;
+            }
+            recorder.beginTick(tickNumber);
+        }
 
-        for (FakePlayer fp : fakePlayers.values()) {
-            updateFakePlayer(fp);
+        FeaturePipeline features = ml.beginFeatureSample();
+        if (features == null) {
+            for (FakePlayer fp : fakePlayers.values()) {
+                updateFakePlayer(fp, null, -1);
+            }
+        } else {
+            // Sample tick: extract pre-action features of all bots in one batch for feature analysis
+            tickOrder.clear();
+            tickOrder.addAll(fakePlayers.values());
+            if (featureRows.length < tickOrder.size()) {
+                featureRows = new int[tickOrder.size() * 2];
+            }
+            for (int i = 0; i < tickOrder.size(); i++) {
+                FakePlayer fp = tickOrder.get(i);
+                featureRows[i] = fp.isAlive() ? features.add(fp) : -1;
+            }
+            FeatureMatrix matrix = features.finish();
+            for (int i = 0; i < tickOrder.size(); i++) {
+                updateFakePlayer(tickOrder.get(i), matrix, featureRows[i]);
+            }
+            tickOrder.clear();
+        }
+
+        if (recorder.isRecording()) {
+            recorder.endTick();
         }
 
         // Update training monitor
@@ -100,112 +187,70 @@ public final class FakePlayerEngine {
         return !fakePlayers.isEmpty();
     }
 
-    private void updateFakePlayer(FakePlayer fp) {
-        if (!fp.isAlive()) {
+    private void updateFakePlayer(FakePlayer fp, FeatureMatrix features, int featureRow) {
+        World world = fp.getWorld();
+        if (!fp.isAlive() || world == null) {
             return;
         }
 
-        Location from = fp.getLocation();
-        // For fake player training, we don't have a real player to predict from
-        // Generate a dynamic target location for training purposes
-        Location target = generateTrainingTarget(fp, from);
-
-        // Calculate state and action for Q-learning
-        long stateHash = calculateStateHash(fp, from);
-        int action = ml.selectAction(stateHash, 10); // 10 possible actions
-
-        // Execute action
-        Location nextLocation = executeAction(fp, action, from);
-
-        // Calculate reward based on action outcome
-        double reward = calculateReward(fp, from, nextLocation, target);
+        int bot = botIndex.computeIfAbsent(fp.getId(), id -> botIndex.size());
+        MutableVec3 from = fp.getPosition();
+        double health = fp.getHealth();
+        // Draws depend only on the session seed, bot and tick, so a replay can repeat them
+        random.reset(TickRandom.seedFor(SessionSeed.get(), bot, tickNumber));
+        step.decide(from.x, from.y, from.z, health, random, ml::selectAction);
+        int action = step.getAction();
+        MutableVec3 nextPosition = step.getNext();
+
+        // Calculate reward based on action outcome; while recording, every block an action
+        // could end in is read so a replay can judge other models' actions too
+        boolean solid;
+        if (recorder.isRecording()) {
+            int solidMask = solidMask(world, from);
+            solid = (solidMask >> TrainingStep.destination(action) & 1) != 0;
+            recorder.bot(bot, from.x, from.y, from.z, health, solidMask, action);
+        } else {
+            solid = isSolid(world, nextPosition.x, nextPosition.y, nextPosition.z);
+        }
+        double reward = step.reward(solid, fp.isAlive());
 
         // Create experience
-        long nextStateHash = calculateStateHash(fp, nextLocation);
-        SimExperience experience = new SimExperience(stateHash, action, reward, nextStateHash, false);
+        SimExperience experience = new SimExperience(step.getStateHash(), action, reward, step.getNextStateHash(), false);
 
         // Add to ML system
         ml.addPlayerExperience(fp, experience);
 
+        if (features != null && featureRow >= 0) {
+            ml.recordFeatureSample(features, featureRow, action, reward);
+        }
+
         // Record training data for monitoring
         if (trainingMonitor != null) {
             trainingMonitor.recordExperience(fp, experience, action, reward);
         }
 
         // Update fake player location
-        fp.moveTo(nextLocation);
-    }
+        fp.moveTo(nextPosition.x, nextPosition.y, nextPosition.z);
 
-    private long calculateStateHash(FakePlayer fp, Location location) {
-        // Simple state representation: position + health
-        return Objects.hash(
-            location.getBlockX(),
-            location.getBlockY(),
-            location.getBlockZ(),
-            (int) fp.getHealth()
-        );
+        // Bot trajectories are recorded and double as movement model training data
+        MutableVec3 velocity = fp.getVelocity();
+        ml.captureTrajectory(fp.getId(), nextPosition.x, nextPosition.y, nextPosition.z,
+                velocity.x, velocity.y, velocity.z, fp.getYaw());
     }
 
-    private Location executeAction(FakePlayer fp, int action, Location from) {
-        // Define actions: 0-3: move directions, 4-6: other actions, etc.
-        double moveDistance = 1.0;
-
-        return switch (action) {
-            case 0 -> from.clone().add(moveDistance, 0, 0);  // East
-            case 1 -> from.clone().add(-moveDistance, 0, 0); // West
-            case 2 -> from.clone().add(0, 0, moveDistance);  // South
-            case 3 -> from.clone().add(0, 0, -moveDistance); // North
-            case 4 -> from.clone().add(0, 1, 0);             // Up
-            case 5 -> from.clone().add(0, -1, 0);            // Down
-            default -> from.clone(); // Stay
-        };
-    }
-
-    private double calculateReward(FakePlayer fp, Location from, Location to, Location target) {
-        double reward = 0.0;
-
-        // Distance to target reward
-        double distanceBefore = from.distance(target);
-        double distanceAfter = to.distance(target);
-
-        if (distanceAfter < distanceBefore) {
-            reward += 0.1; // Getting closer to target
-        } else if (distanceAfter > distanceBefore) {
-            reward -= 0.05; // Getting further from target
-        }
-
-        // Movement success reward
-        if (!to.getBlock().getType().isSolid()) {
-            reward += 0.02; // Successful movement
-        } else {
-            reward -= 0.1; // Hit a wall
-        }
-
-        // Survival reward
-        if (fp.isAlive()) {
-            reward += 0.01;
+    private int solidMask(World world, MutableVec3 from) {
+        int mask = 0;
+        for (int destination = 0; destination < TrainingStep.DESTINATIONS; destination++) {
+            TrainingStep.destinationOffset(destination, offset);
+            if (isSolid(world, from.x + offset[0], from.y + offset[1], from.z + offset[2])) {
+                mask |= 1 << destination;
+            }
         }
-
-        return reward;
+        return mask;
     }
 
-    /**
-     * Generate a training target location for fake player learning
-     * This creates dynamic goals to encourage exploration and learning
-     */
-    private Location generateTrainingTarget(FakePlayer fp, Location current) {
-        // Simple exploration pattern: move toward areas with different characteristics
-        double distance = 15.0 + Math.random() * 25.0; // 15-40 block radius
-        double angle = Math.random() * 2 * Math.PI; // Random direction
-
-        // Add some vertical variation to encourage 3D movement
-        double heightOffset = (Math.random() - 0.5) * 10.0; // -5 to +5 blocks
-
-        double targetX = current.getX() + Math.cos(angle) * distance;
-        double targetY = Math.max(1, Math.min(250, current.getY() + heightOffset));
-        double targetZ = current.getZ() + Math.sin(angle) * distance;
-
-        return new Location(current.getWorld(), targetX, targetY, targetZ);
+    private static boolean isSolid(World world, double x, double y, double z) {
+        return world.getBlockAt((int) Math.floor(x), (int) Math.floor(y), (int) Math.floor(z)).getType().isSolid();
     }
 
     // Event classes
@@ -0,0 +1,185 @@
+package chef.sheesh.eyeAI.core.sim;
+
+import chef.sheesh.eyeAI.ai.movement.MutableVec3;
+import chef.sheesh.eyeAI.core.sim.replay.TickRandom;
+
+/**
+ * One training decision of a bot: goal, state, action and reward, computed only from the
+ * values passed in. {@link FakePlayerEngine} feeds it live state; a replay feeds it recorded
+ * state and gets the same decisions back. Scratch state is reused, so an instance is not
+ * thread-safe.
+ */
+public final class TrainingStep {
+
+    public static final int ACTIONS = 10;
+    /** Blocks an action can end in: the six neighbours, then the block the bot stands in */
+    public static final int DESTINATIONS = 7;
+
+    private static final int STAY = 6;
+
+    /**
+     * Source of the action for a state, e.g. {@code MLCore::selectAction} or a model snapshot
+     */
+    @FunctionalInterface
+    public interface ActionSelector {
+        int selectAction(long stateHash, int maxActions);
+    }
+
+    private final MutableVec3 from = new MutableVec3();
+    private final MutableVec3 target = new MutableVec3();
+    private final MutableVec3 next = new MutableVec3();
+    private double exploration;
+    private double health;
+    private long stateHash;
+    private long nextStateHash;
+    private int action;
+
+    /**
+     * Chance that a decision takes a uniformly random action instead of the selector's.
+     * Explored actions come from the same per-tick draws, so a replay repeats them.
+     */
+    public void setExploration(double exploration) {
+        this.exploration = Math.max(0.0, Math.min(1.0, exploration));
+    }
+
+    public double getExploration() {
+        return exploration;
+    }
+
+    /**
+     * Pick a training goal and an action for a bot; the reward follows once the destination
+     * block is known
+     */
+    public void decide(double x, double y, double z, double health, TickRandom random, ActionSelector selector) {
+        from.set(x, y, z);
+        this.health = health;
+        // For fake player training, we don't have a real player to predict from
+        // Generate a dynamic target location for training purposes
+        generateTrainingTarget(random);
+
+        stateHash = stateHash(x, y, z, health);
+        // Both always drawn, so the draws that follow do not depend on the exploration rate
+        double explore = random.nextDouble();
+        int randomAction = (int) (random.nextDouble() * ACTIONS);
+        action = explore < exploration ? randomAction : selector.selectAction(stateHash, ACTIONS);
+        executeAction(action, next);
+        nextStateHash = stateHash(next.x, next.y, next.z, health);
+    }
+
+    /**
+     * Reward of the decided action
+     *
+     * @param destinationSolid whether the block at {@link #getNext()} is solid
+     */
+    public double reward(boolean destinationSolid, boolean alive) {
+        double reward = 0.0;
+
+        // Distance to target reward
+        double distanceBefore = from.distanceSquared(target);
+        double distanceAfter = next.distanceSquared(target);
+
+        if (distanceAfter < distanceBefore) {
+            reward += 0.1; // Getting closer to target
+        } else if (distanceAfter > distanceBefore) {
+            reward -= 0.05; // Getting further from target
+        }
+
+        // Movement success reward
+        if (!destinationSolid) {
+            reward += 0.02; // Successful movement
+        } else {
+            reward -= 0.1; // Hit a wall
+        }
+
+        // Survival reward
+        if (alive) {
+            reward += 0.01;
+        }
+
+        return reward;
+    }
+
+    /**
+     * Which of the {@link #DESTINATIONS} blocks an action ends in
+     */
+    public static int destination(int action) {
+        return action >= 0 && action < STAY ? action : STAY;
+    }
+
+    /**
+     * Block offset of a destination index, as {x, y, z}
+     */
+    public static void destinationOffset(int destination, int[] out) {
+        out[0] = destination == 0 ? 1 : destination == 1 ? -1 : 0;
+        out[1] = destination == 4 ? 1 : destination == 5 ? -1 : 0;
+        out[2] = destination == 2 ? 1 : destination == 3 ? -1 : 0;
+    }
+
+    public long getStateHash() {
+        return stateHash;
+    }
+
+    public long getNextStateHash() {
+        return nextStateHash;
+    }
+
+    public int getAction() {
+        return action;
+    }
+
+    public double getHealth() {
+        return health;
+    }
+
+    /** Position after the action; overwritten by the next decision */
+    public MutableVec3 getNext() {
+        return next;
+    }
+
+    public MutableVec3 getTarget() {
+        return target;
+    }
+
+    private static long stateHash(double x, double y, double z, double health) {
+        // Simple state representation: position + health (same mixing as Objects.hash, without boxing)
+        long hash = 1;
+        hash = 31 * hash + (int) Math.floor(x);
+        hash = 31 * hash + (int) Math.floor(y);
+        hash = 31 * hash + (int) Math.floor(z);
+        hash = 31 * hash + (int) health;
+        return (int) hash;
+    }
+
+    private void executeAction(int action, MutableVec3 out) {
+        // Define actions: 0-3: move directions, 4-6: other actions, etc.
+        double moveDistance = 1.0;
+
+        out.set(from);
+        switch (action) {
+            case 0 -> out.add(moveDistance, 0, 0);  // East
+            case 1 -> out.add(-moveDistance, 0, 0); // West
+            case 2 -> out.add(0, 0, moveDistance);  // South
+            case 3 -> out.add(0, 0, -moveDistance); // North
+            case 4 -> out.add(0, 1, 0);             // Up
+            case 5 -> out.add(0, -1, 0);            // Down
+            default -> { } // Stay
+        }
+    }
+
+    /**
+     * Generate a training target location for fake player learning
+     * This creates dynamic goals to encourage exploration and learning
+     */
+    private void generateTrainingTarget(TickRandom random) {
+        // Simple exploration pattern: move toward areas with different characteristics
+        double distance = 15.0 + random.nextDouble() * 25.0; // 15-40 block radius
+        double angle = random.nextDouble() * 2 * Math.PI; // Random direction
+
+        // Add some vertical variation to encourage 3D movement
+        double heightOffset = (random.nextDouble() - 0.5) * 10.0; // -5 to +5 blocks
+
+        target.set(from.x + Math.cos(angle) * distance,
+                Math.max(1, Math.min(250, from.y + heightOffset)),
+                from.z + Math.sin(angle) * distance);
+    }
+}
@@ -0,0 +1,295 @@
+package chef.sheesh.eyeAI.core.sim.replay;
+
+import chef.sheesh.eyeAI.core.sim.TrainingStep;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A tick log decoded into flat arrays, one entry per recorded bot decision in tick order,
+ * ready to be replayed any number of times without touching the file again.
+ */
+public final class Recording {
+
+    /**
+     * Something that happened outside the bots' inputs, e.g. a model swap
+     */
+    public record Event(long tick, String name, String detail) {
+    }
+
+    private final long sessionSeed;
+    private final long startedAt;
+    private final long modelVersion;
+    private final double exploration;
+    private final boolean complete;
+    private final List<Event> events;
+
+    private final int tickCount;
+    private final long[] tickNumbers;
+    /** Decisions of tick i are {@code tickStart[i]} up to {@code tickStart[i + 1]} */
+    private final int[] tickStart;
+
+    final int[] bots;
+    final double[] x;
+    final double[] y;
+    final double[] z;
+    final double[] health;
+    final byte[] solidMask;
+    final byte[] actions;
+
+    private Recording(Decoder decoder) {
+        this.sessionSeed = decoder.sessionSeed;
+        this.startedAt = decoder.startedAt;
+        this.modelVersion = decoder.modelVersion;
+        this.exploration = decoder.exploration;
+        this.complete = decoder.complete;
+        this.events = Collections.unmodifiableList(decoder.events);
+        this.tickCount = decoder.ticks;
+        this.tickNumbers = Arrays.copyOf(decoder.tickNumbers, decoder.ticks);
+        this.tickStart = Arrays.copyOf(decoder.tickStart, decoder.ticks + 1);
+        int n = decoder.decisions;
+        this.bots = Arrays.copyOf(decoder.bots, n);
+        this.x = Arrays.copyOf(decoder.x, n);
+        this.y = Arrays.copyOf(decoder.y, n);
+        this.z = Arrays.copyOf(decoder.z, n);
+        this.health = Arrays.copyOf(decoder.health, n);
+        this.solidMask = Arrays.copyOf(decoder.solidMask, n);
+        this.actions = Arrays.copyOf(decoder.actions, n);
+    }
+
+    public static Recording read(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Decode a log; a log cut off mid-write is read up to its last whole tick
+     */
+    public static Recording read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(stream), 1 << 16));
+        if (in.readInt() != ReplayFormat.MAGIC) {
+            throw new IOException("Not a tick log");
+        }
+        short version = in.readShort();
+        if (version < ReplayFormat.MIN_VERSION || version > ReplayFormat.VERSION) {
+            throw new IOException("Unsupported tick log version " + version);
+        }
+        Decoder decoder = new Decoder(in.readLong(), in.readLong(), in.readLong(), version >= 2 ? in.readDouble() : 0.0);
+        try {
+            decoder.readRecords(in);
+        } catch (EOFException e) {
+            decoder.rollbackTick();
+        }
+        return new Recording(decoder);
+    }
+
+    /**
+     * Move a position by an action the same way {@link TrainingStep} does
+     */
+    static void applyAction(int action, int index, double[] x, double[] y, double[] z) {
+        switch (action) {
+            case 0 -> x[index] += 1.0;
+            case 1 -> x[index] -= 1.0;
+            case 2 -> z[index] += 1.0;
+            case 3 -> z[index] -= 1.0;
+            case 4 -> y[index] += 1.0;
+            case 5 -> y[index] -= 1.0;
+            default -> { } // Stay
+        }
+    }
+
+    public long getSessionSeed() {
+        return sessionSeed;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    /** Version of the model serving when recording started */
+    public long getModelVersion() {
+        return modelVersion;
+    }
+
+    /** Exploration rate of the recorded bots */
+    public double getExploration() {
+        return exploration;
+    }
+
+    /** False if the log ends without an end marker, e.g. after a crash */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public List<Event> getEvents() {
+        return events;
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    public long getTickNumber(int tickIndex) {
+        return tickNumbers[tickIndex];
+    }
+
+    public int getTickStart(int tickIndex) {
+        return tickStart[tickIndex];
+    }
+
+    public int getDecisionCount() {
+        return bots.length;
+    }
+
+    public int getBot(int decision) {
+        return bots[decision];
+    }
+
+    /** Action the recording model took */
+    public int getRecordedAction(int decision) {
+        return actions[decision];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Recording{seed=%d, model=v%d, ticks=%d, decisions=%d, events=%d%s}",
+                sessionSeed, modelVersion, tickCount, bots.length, events.size(), complete ? "" : ", truncated");
+    }
+
+    /** Growable columns filled while reading */
+    private static final class Decoder {
+        final long sessionSeed;
+        final long startedAt;
+        final long modelVersion;
+        final double exploration;
+        final List<Event> events = new ArrayList<>();
+        boolean complete;
+
+        int ticks;
+        boolean inTick;
+        long[] tickNumbers = new long[256];
+        int[] tickStart = new int[257];
+
+        int decisions;
+        int[] bots = new int[1024];
+        double[] x = new double[1024];
+        double[] y = new double[1024];
+        double[] z = new double[1024];
+        double[] health = new double[1024];
+        byte[] solidMask = new byte[1024];
+        byte[] actions = new byte[1024];
+
+        // Per bot the position and health implied for its next decision
+        double[] expectedX = new double[64];
+        double[] expectedY = new double[64];
+        double[] expectedZ = new double[64];
+        double[] lastHealth = new double[64];
+
+        Decoder(long sessionSeed, long startedAt, long modelVersion, double exploration) {
+            this.sessionSeed = sessionSeed;
+            this.startedAt = startedAt;
+            this.modelVersion = modelVersion;
+            this.exploration = exploration;
+        }
+
+        void readRecords(DataInputStream in) throws IOException {
+            while (true) {
+                byte type = in.readByte();
+                switch (type) {
+                    case ReplayFormat.END -> {
+                        complete = true;
+                        return;
+                    }
+                    case ReplayFormat.TICK -> readTick(in);
+                    case ReplayFormat.EVENT -> events.add(new Event(ReplayFormat.readVarLong(in), in.readUTF(), in.readUTF()));
+                    default -> throw new IOException("Unknown tick log record " + type);
+                }
+            }
+        }
+
+        private void readTick(DataInputStream in) throws IOException {
+            long tick = ReplayFormat.readVarLong(in);
+            int count = (int) ReplayFormat.readVarLong(in);
+            if (ticks + 1 >= tickNumbers.length) {
+                tickNumbers = Arrays.copyOf(tickNumbers, tickNumbers.length * 2);
+                tickStart = Arrays.copyOf(tickStart, tickNumbers.length + 1);
+            }
+            ensureDecisions(decisions + count);
+            tickNumbers[ticks] = tick;
+            tickStart[ticks] = decisions;
+            // Counted before the bots are read so a cut-off tick can be dropped again
+            ticks++;
+            inTick = true;
+            for (int i = 0; i < count; i++) {
+                int bot = (int) ReplayFormat.readVarLong(in);
+                int flags = in.readUnsignedByte();
+                byte mask = in.readByte();
+                byte action = in.readByte();
+                ensureBots(bot + 1);
+                if ((flags & ReplayFormat.POSITION) != 0) {
+                    expectedX[bot] = in.readDouble();
+                    expectedY[bot] = in.readDouble();
+                    expectedZ[bot] = in.readDouble();
+                }
+                if ((flags & ReplayFormat.HEALTH) != 0) {
+                    lastHealth[bot] = in.readDouble();
+                }
+                int d = decisions++;
+                bots[d] = bot;
+                x[d] = expectedX[bot];
+                y[d] = expectedY[bot];
+                z[d] = expectedZ[bot];
+                health[d] = lastHealth[bot];
+                solidMask[d] = mask;
+                actions[d] = action;
+                applyAction(action, bot, expectedX, expectedY, expectedZ);
+            }
+            tickStart[ticks] = decisions;
+            inTick = false;
+        }
+
+        void rollbackTick() {
+            if (inTick) {
+                ticks--;
+                decisions = tickStart[ticks];
+                inTick = false;
+            }
+        }
+
+        private void ensureDecisions(int count) {
+            if (bots.length >= count) {
+                return;
+            }
+            int capacity = Math.max(count, bots.length * 2);
+            bots = Arrays.copyOf(bots, capacity);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            z = Arrays.copyOf(z, capacity);
+            health = Arrays.copyOf(health, capacity);
+            solidMask = Arrays.copyOf(solidMask, capacity);
+            actions = Arrays.copyOf(actions, capacity);
+        }
+
+        private void ensureBots(int count) {
+            if (expectedX.length >= count) {
+                return;
+            }
+            int capacity = Math.max(count, expectedX.length * 2);
+            expectedX = Arrays.copyOf(expectedX, capacity);
+            expectedY = Arrays.copyOf(expectedY, capacity);
+            expectedZ = Arrays.copyOf(expectedZ, capacity);
+            lastHealth = Arrays.copyOf(lastHealth, capacity);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package chef.sheesh.eyeAI.core.sim.replay;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Layout of a tick log, gzip-compressed:
+ * <pre>
+ * header: int MAGIC, short VERSION, long sessionSeed, long startedAt, long modelVersion,
+ *         double exploration (version 2 on)
+ * TICK:   byte, varlong tick, varint bots, per bot:
+ *         varint bot, byte flags, byte solidMask, byte action,
+ *         [double x, y, z if POSITION], [double health if HEALTH]
+ * EVENT:  byte, varlong tick, utf name, utf detail
+ * END:    byte
+ * </pre>
+ * A bot's position is only written when it differs from where its recorded action should
+ * have taken it, and its health only when it changed, so a steady session costs about four
+ * bytes per bot and tick before compression.
+ */
+final class ReplayFormat {
+
+    static final int MAGIC = 0x45595250; // "EYRP"
+    static final short VERSION = 2;
+    /** Oldest version still read; its bots never explored */
+    static final short MIN_VERSION = 1;
+
+    static final byte END = 0;
+    static final byte TICK = 1;
+    static final byte EVENT = 2;
+
+    /** Position written; otherwise the previous position moved by the previous action */
+    static final int POSITION = 1;
+    /** Health written; otherwise unchanged */
+    static final int HEALTH = 1 << 1;
+
+    private ReplayFormat() {
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
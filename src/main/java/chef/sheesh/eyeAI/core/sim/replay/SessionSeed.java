@@ -0,0 +1,58 @@
+package chef.sheesh.eyeAI.core.sim.replay;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seed every random source of a session is derived from. With the same seed, the same
+ * spawn order and the same inputs, a session makes the same random choices; a
+ * {@link TickRecorder} log stores the seed so a replay can restore it.
+ */
+public final class SessionSeed {
+
+    private static volatile long seed = System.nanoTime();
+    private static final Map<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+
+    private SessionSeed() {
+    }
+
+    public static long get() {
+        return seed;
+    }
+
+    /**
+     * Use a fixed seed from now on; sources created earlier keep their stream
+     */
+    public static void set(long value) {
+        seed = value;
+        sequences.clear();
+    }
+
+    /**
+     * Random for one instance of a component, numbered in creation order; repeatable as
+     * long as instances are created in the same order
+     */
+    public static Random random(String component) {
+        long index = sequences.computeIfAbsent(component, c -> new AtomicLong()).getAndIncrement();
+        return random(component, index);
+    }
+
+    /**
+     * Random for a component keyed by something stable, e.g. a bot index
+     */
+    public static Random random(String component, long key) {
+        return new Random(mix(mix(seed, component.hashCode()), key));
+    }
+
+    /**
+     * Combine a seed with a value into a well spread seed (SplitMix64 finalizer)
+     */
+    public static long mix(long seed, long value) {
+        long z = seed + (value + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,39 @@
+package chef.sheesh.eyeAI.core.sim.replay;
+
+/**
+ * Small SplitMix64 generator that is reseeded in place for each bot and tick, so the draws
+ * of a tick depend only on the session seed, the bot and the tick number, not on the
+ * order bots are updated in or on what happened before. Not thread-safe.
+ */
+public final class TickRandom {
+
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private long state;
+
+    /**
+     * Seed of a bot's draws in one tick
+     */
+    public static long seedFor(long sessionSeed, int bot, long tick) {
+        return SessionSeed.mix(SessionSeed.mix(sessionSeed, bot), tick);
+    }
+
+    public TickRandom reset(long seed) {
+        state = seed;
+        return this;
+    }
+
+    public long nextLong() {
+        long z = (state += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Uniform in [0, 1)
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+}
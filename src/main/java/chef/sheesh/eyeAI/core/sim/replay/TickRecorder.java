@@ -0,0 +1,293 @@
+package chef.sheesh.eyeAI.core.sim.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records the inputs of training ticks to a compact binary log (see {@link ReplayFormat}):
+ * the session seed, per bot and tick its position, health, which blocks its actions could end
+ * in are solid and the action taken, and external events such as model swaps. Together with
+ * the model that is everything a decision reads, so {@link TickReplayer} reproduces the
+ * decisions offline.
+ * <p>
+ * Ticks are encoded on the tick thread and compressed and written by a daemon thread. If the
+ * writer falls too far behind, recording stops rather than leaving a gap in the log.
+ */
+public final class TickRecorder {
+
+    private static final long MAX_PENDING_BYTES = 32L << 20;
+
+    private final Logger logger;
+    private final AtomicLong pendingBytes = new AtomicLong();
+    private final AtomicLong writtenBytes = new AtomicLong();
+    private volatile boolean recording;
+    private ExecutorService writer;
+    private DataOutputStream out;
+    private File outputFile;
+    private long ticks;
+
+    // Tick being encoded; tick thread only
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(1 << 12);
+    private final DataOutputStream bodyOut = new DataOutputStream(body);
+    private final ByteArrayOutputStream frame = new ByteArrayOutputStream(1 << 12);
+    private final DataOutputStream frameOut = new DataOutputStream(frame);
+    private long currentTick;
+    private int tickBots;
+
+    // Per bot what the log implies for its next tick
+    private double[] expectedX = new double[0];
+    private double[] expectedY = new double[0];
+    private double[] expectedZ = new double[0];
+    private double[] lastHealth = new double[0];
+    private boolean[] seen = new boolean[0];
+
+    public TickRecorder(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Start a new log in a directory for bots that never explore
+     *
+     * @return whether recording started
+     */
+    public boolean start(File directory, long sessionSeed, long modelVersion) {
+        return start(directory, sessionSeed, modelVersion, 0.0);
+    }
+
+    /**
+     * Start a new log in a directory
+     *
+     * @param exploration the bots' {@link chef.sheesh.eyeAI.core.sim.TrainingStep#setExploration exploration rate}
+     * @return whether recording started
+     */
+    public synchronized boolean start(File directory, long sessionSeed, long modelVersion, double exploration) {
+        if (writer != null) {
+            return false;
+        }
+        if (!directory.exists() && !directory.mkdirs()) {
+            logger.warning("Could not create replay directory " + directory);
+            return false;
+        }
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT).format(new Date());
+        File file = new File(directory, "replay-" + stamp + ".eyrp");
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file), 1 << 16)));
+            out.writeInt(ReplayFormat.MAGIC);
+            out.writeShort(ReplayFormat.VERSION);
+            out.writeLong(sessionSeed);
+            out.writeLong(System.currentTimeMillis());
+            out.writeLong(modelVersion);
+            out.writeDouble(exploration);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not open replay log " + file, e);
+            closeQuietly();
+            return false;
+        }
+        Arrays.fill(seen, false);
+        pendingBytes.set(0);
+        writtenBytes.set(0);
+        ticks = 0;
+        outputFile = file;
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "TickRecorder-Writer");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        recording = true;
+        logger.info("Recording training ticks to " + file.getName());
+        return true;
+    }
+
+    /**
+     * Finish the log and wait for it to be written
+     */
+    public synchronized void stop() {
+        if (writer == null) {
+            return;
+        }
+        recording = false;
+        writer.execute(() -> {
+            try {
+                if (out != null) {
+                    out.writeByte(ReplayFormat.END);
+                }
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Replay log write failed", e);
+            }
+            closeQuietly();
+        });
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warning("Replay log writer did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        logger.info("Recorded " + ticks + " ticks to " + outputFile.getName());
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    public File getOutputFile() {
+        return outputFile;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /** Uncompressed bytes handed to the writer */
+    public long getWrittenBytes() {
+        return writtenBytes.get();
+    }
+
+    public void beginTick(long tick) {
+        currentTick = tick;
+        tickBots = 0;
+        body.reset();
+    }
+
+    /**
+     * Inputs and decision of one bot this tick
+     *
+     * @param solidMask bit per {@link chef.sheesh.eyeAI.core.sim.TrainingStep#destination destination}, set when solid
+     */
+    public void bot(int bot, double x, double y, double z, double health, int solidMask, int action) {
+        if (!recording) {
+            return;
+        }
+        ensureBots(bot + 1);
+        int flags = 0;
+        if (!seen[bot] || x != expectedX[bot] || y != expectedY[bot] || z != expectedZ[bot]) {
+            flags |= ReplayFormat.POSITION;
+        }
+        if (!seen[bot] || health != lastHealth[bot]) {
+            flags |= ReplayFormat.HEALTH;
+        }
+        try {
+            ReplayFormat.writeVarLong(bodyOut, bot);
+            bodyOut.writeByte(flags);
+            bodyOut.writeByte(solidMask);
+            bodyOut.writeByte(action);
+            if ((flags & ReplayFormat.POSITION) != 0) {
+                bodyOut.writeDouble(x);
+                bodyOut.writeDouble(y);
+                bodyOut.writeDouble(z);
+            }
+            if ((flags & ReplayFormat.HEALTH) != 0) {
+                bodyOut.writeDouble(health);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // In-memory stream
+        }
+        seen[bot] = true;
+        expectedX[bot] = x;
+        expectedY[bot] = y;
+        expectedZ[bot] = z;
+        Recording.applyAction(action, bot, expectedX, expectedY, expectedZ);
+        lastHealth[bot] = health;
+        tickBots++;
+    }
+
+    public void endTick() {
+        if (!recording) {
+            return;
+        }
+        try {
+            frame.reset();
+            frameOut.writeByte(ReplayFormat.TICK);
+            ReplayFormat.writeVarLong(frameOut, currentTick);
+            ReplayFormat.writeVarLong(frameOut, tickBots);
+            body.writeTo(frameOut);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        ticks++;
+        submit(frame.toByteArray());
+    }
+
+    /**
+     * Something outside the bots' inputs that explains a change in their decisions
+     */
+    public void event(long tick, String name, String detail) {
+        if (!recording) {
+            return;
+        }
+        try {
+            frame.reset();
+            frameOut.writeByte(ReplayFormat.EVENT);
+            ReplayFormat.writeVarLong(frameOut, tick);
+            frameOut.writeUTF(name);
+            frameOut.writeUTF(detail == null ? "" : detail);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        submit(frame.toByteArray());
+    }
+
+    private void submit(byte[] bytes) {
+        if (pendingBytes.addAndGet(bytes.length) > MAX_PENDING_BYTES) {
+            logger.warning("Replay log writer fell behind; recording stopped");
+            stop();
+            return;
+        }
+        writtenBytes.addAndGet(bytes.length);
+        writer.execute(() -> {
+            try {
+                if (out != null) {
+                    out.write(bytes);
+                }
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Replay log write failed; recording stopped", e);
+                recording = false;
+                closeQuietly();
+            } finally {
+                pendingBytes.addAndGet(-bytes.length);
+            }
+        });
+    }
+
+    private void closeQuietly() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not close replay log", e);
+        }
+        out = null;
+    }
+
+    private void ensureBots(int count) {
+        if (seen.length >= count) {
+            return;
+        }
+        int capacity = Math.max(count, seen.length * 2);
+        expectedX = Arrays.copyOf(expectedX, capacity);
+        expectedY = Arrays.copyOf(expectedY, capacity);
+        expectedZ = Arrays.copyOf(expectedZ, capacity);
+        lastHealth = Arrays.copyOf(lastHealth, capacity);
+        seen = Arrays.copyOf(seen, capacity);
+    }
+}
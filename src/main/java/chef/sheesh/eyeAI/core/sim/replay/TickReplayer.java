@@ -0,0 +1,151 @@
+package chef.sheesh.eyeAI.core.sim.replay;
+
+import chef.sheesh.eyeAI.core.sim.TrainingStep;
+
+/**
+ * Replays a {@link Recording} through the training decision logic, offline. Every decision
+ * sees the recorded position, health, block solidity, random draws and exploration rate, so
+ * with the recording model it reproduces the recorded actions exactly; with another model it
+ * shows what that model would have done in the same situations.
+ * <p>
+ * The replay is open loop: bots stay on their recorded paths whatever the replayed model
+ * picks, so two models are compared decision by decision on one workload. That also makes a
+ * replay a fixed workload for benchmarking the decision path.
+ */
+public final class TickReplayer {
+
+    private final TrainingStep step = new TrainingStep();
+    private final TickRandom random = new TickRandom();
+
+    /**
+     * Replay every decision of a recording with the given model
+     */
+    public Result replay(Recording recording, TrainingStep.ActionSelector selector) {
+        int decisions = recording.getDecisionCount();
+        byte[] actions = new byte[decisions];
+        long seed = recording.getSessionSeed();
+        step.setExploration(recording.getExploration());
+        long checksum = seed;
+        double totalReward = 0.0;
+        int mismatches = 0;
+        long firstMismatchTick = -1;
+
+        long start = System.nanoTime();
+        for (int t = 0; t < recording.getTickCount(); t++) {
+            long tick = recording.getTickNumber(t);
+            for (int d = recording.getTickStart(t); d < recording.getTickStart(t + 1); d++) {
+                random.reset(TickRandom.seedFor(seed, recording.bots[d], tick));
+                step.decide(recording.x[d], recording.y[d], recording.z[d], recording.health[d], random, selector);
+                int action = step.getAction();
+                boolean solid = (recording.solidMask[d] >> TrainingStep.destination(action) & 1) != 0;
+                double reward = step.reward(solid, true);
+
+                actions[d] = (byte) action;
+                totalReward += reward;
+                checksum = SessionSeed.mix(checksum, action * 31L + Double.doubleToLongBits(reward));
+                if (action != recording.actions[d]) {
+                    if (mismatches++ == 0) {
+                        firstMismatchTick = tick;
+                    }
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result(recording, actions, totalReward, checksum, mismatches, firstMismatchTick, elapsed);
+    }
+
+    /**
+     * Where two replays of the same recording decided differently
+     */
+    public static Diff compare(Result a, Result b) {
+        if (a.recording != b.recording) {
+            throw new IllegalArgumentException("Results of different recordings");
+        }
+        int differences = 0;
+        long firstTick = -1;
+        int firstBot = -1;
+        Recording recording = a.recording;
+        for (int t = 0; t < recording.getTickCount(); t++) {
+            for (int d = recording.getTickStart(t); d < recording.getTickStart(t + 1); d++) {
+                if (a.actions[d] != b.actions[d]) {
+                    if (differences++ == 0) {
+                        firstTick = recording.getTickNumber(t);
+                        firstBot = recording.getBot(d);
+                    }
+                }
+            }
+        }
+        return new Diff(a.decisions, differences, firstTick, firstBot, b.totalReward - a.totalReward);
+    }
+
+    /**
+     * Outcome of one replay
+     */
+    public static final class Result {
+        public final int decisions;
+        public final double totalReward;
+        /** Hash over all actions and rewards; equal checksums mean identical behaviour */
+        public final long checksum;
+        /** Decisions that differ from the recorded ones */
+        public final int mismatches;
+        public final long firstMismatchTick;
+        public final long elapsedNanos;
+
+        private final Recording recording;
+        private final byte[] actions;
+
+        private Result(Recording recording, byte[] actions, double totalReward, long checksum,
+                       int mismatches, long firstMismatchTick, long elapsedNanos) {
+            this.recording = recording;
+            this.actions = actions;
+            this.decisions = actions.length;
+            this.totalReward = totalReward;
+            this.checksum = checksum;
+            this.mismatches = mismatches;
+            this.firstMismatchTick = firstMismatchTick;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getAction(int decision) {
+            return actions[decision];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Replay{decisions=%d, reward=%.2f, checksum=%016x, mismatches=%d%s, %.1f ms}",
+                    decisions, totalReward, checksum, mismatches,
+                    mismatches > 0 ? " from tick " + firstMismatchTick : "", elapsedNanos / 1e6);
+        }
+    }
+
+    /**
+     * Decision-by-decision difference between two replays
+     */
+    public static final class Diff {
+        public final int decisions;
+        public final int differences;
+        public final long firstTick;
+        public final int firstBot;
+        /** Second replay's total reward minus the first's */
+        public final double rewardDelta;
+
+        private Diff(int decisions, int differences, long firstTick, int firstBot, double rewardDelta) {
+            this.decisions = decisions;
+            this.differences = differences;
+            this.firstTick = firstTick;
+            this.firstBot = firstBot;
+            this.rewardDelta = rewardDelta;
+        }
+
+        public double getAgreement() {
+            return decisions == 0 ? 1.0 : 1.0 - (double) differences / decisions;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Diff{decisions=%d, differences=%d (%.1f%% agree)%s, reward %+.2f}",
+                    decisions, differences, getAgreement() * 100,
+                    differences > 0 ? ", first at tick " + firstTick + " bot " + firstBot : "", rewardDelta);
+        }
+    }
+}
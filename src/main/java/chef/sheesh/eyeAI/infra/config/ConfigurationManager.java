@@ -33,6 +33,10 @@ public final class ConfigurationManager {
         return config.getInt(path, def);
     }
 
+    public long getLong(String path, long def) {
+        return config.getLong(path, def);
+    }
+
     public double getDouble(String path, double def) {
         return config.getDouble(path, def);
     }
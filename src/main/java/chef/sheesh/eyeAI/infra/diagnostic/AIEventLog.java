@@ -0,0 +1,475 @@
+package chef.sheesh.eyeAI.infra.diagnostic;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Structured event log for AI hot paths.
+ * Events are captured as primitive fields into a preallocated ring buffer without
+ * locks, string formatting or allocation, and a daemon writer thread drains the
+ * buffer to a JSON-lines file. Each category can be sampled (1 in N) and rate
+ * limited (events per second) at runtime. When the buffer is full, events are dropped
+ * and counted instead of blocking the tick thread. A file that reaches the size limit is
+ * closed and a new one started; only the newest few files of a run are kept.
+ */
+public final class AIEventLog {
+
+    private static final AIEventLog INSTANCE = new AIEventLog(1 << 14);
+
+    private static final int DOUBLE_FIELDS = 6;
+    private static final int LONG_FIELDS = 2;
+    private static final long DRAIN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /**
+     * Event categories with their field names and default limits
+     */
+    public enum Category {
+        MOVE("move", 20, 200, new String[]{"x", "y", "z"}, new String[0]),
+        ATTACK("attack", 1, 100, new String[]{"damage"}, new String[]{"target"}),
+        NPC_SPAWN("npc_spawn", 1, 50, new String[]{"x", "y", "z"}, new String[0]),
+        REWARD("reward", 100, 50,
+                new String[]{"total", "combat", "movement", "survival", "exploration", "time_penalty"},
+                new String[]{"calculations"});
+
+        private final String key;
+        private final int defaultSampleEvery;
+        private final int defaultMaxPerSecond;
+        private final String[] doubleFields;
+        private final String[] longFields;
+
+        Category(String key, int defaultSampleEvery, int defaultMaxPerSecond, String[] doubleFields, String[] longFields) {
+            this.key = key;
+            this.defaultSampleEvery = defaultSampleEvery;
+            this.defaultMaxPerSecond = defaultMaxPerSecond;
+            this.doubleFields = doubleFields;
+            this.longFields = longFields;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Look up a category by its key or enum name, or null if unknown
+         */
+        public static Category fromKey(String key) {
+            for (Category category : values()) {
+                if (category.key.equalsIgnoreCase(key) || category.name().equalsIgnoreCase(key)) {
+                    return category;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final int capacity;
+    private final int mask;
+
+    // Ring buffer columns; a slot is readable once published[slot] holds its sequence
+    private final AtomicLongArray published;
+    private final int[] categories;
+    private final long[] timestamps;
+    private final long[] botMost;
+    private final long[] botLeast;
+    private final double[] doubles;
+    private final long[] longs;
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    private final Limiter[] limiters = new Limiter[Category.values().length];
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile Thread writerThread;
+    private volatile File outputFile;
+    private File directory;
+    private String stamp;
+    private long maxFileBytes;
+    private int maxFiles;
+    private Logger logger = Logger.getLogger(AIEventLog.class.getName());
+
+    AIEventLog(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1L);
+        }
+        this.categories = new int[capacity];
+        this.timestamps = new long[capacity];
+        this.botMost = new long[capacity];
+        this.botLeast = new long[capacity];
+        this.doubles = new double[capacity * DOUBLE_FIELDS];
+        this.longs = new long[capacity * LONG_FIELDS];
+        for (Category category : Category.values()) {
+            limiters[category.ordinal()] = new Limiter(category.defaultSampleEvery, category.defaultMaxPerSecond);
+        }
+    }
+
+    public static AIEventLog get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Start the writer thread, writing to new files in the given directory
+     *
+     * @param maxFileBytes size at which the writer moves on to a new file
+     * @param maxFiles     files of this run to keep; older ones are deleted
+     */
+    public synchronized void start(File directory, Logger pluginLogger, long maxFileBytes, int maxFiles) {
+        if (running.get()) {
+            return;
+        }
+        if (pluginLogger != null) {
+            this.logger = pluginLogger;
+        }
+        if (!directory.exists() && !directory.mkdirs()) {
+            logger.warning("Could not create AI event log directory " + directory);
+            return;
+        }
+        this.directory = directory;
+        this.stamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT).format(new Date());
+        this.maxFileBytes = Math.max(1L << 20, maxFileBytes);
+        this.maxFiles = Math.max(1, maxFiles);
+        this.outputFile = fileFor(0);
+
+        running.set(true);
+        Thread thread = new Thread(this::writeLoop, "AIEventLog-Writer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        this.writerThread = thread;
+        thread.start();
+        logger.info("AI event log writing to " + outputFile.getName());
+    }
+
+    /**
+     * Stop the writer thread after it has drained pending events
+     */
+    public synchronized void stop() {
+        if (!running.getAndSet(false)) {
+            return;
+        }
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        writerThread = null;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Record a movement of a bot to the given position
+     */
+    public void move(UUID botId, double x, double y, double z) {
+        if (admit(Category.MOVE)) {
+            publish(Category.MOVE, botId, x, y, z, 0, 0, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Record a bot attacking an entity
+     */
+    public void attack(UUID botId, int targetEntityId, double damage) {
+        if (admit(Category.ATTACK)) {
+            publish(Category.ATTACK, botId, damage, 0, 0, 0, 0, 0, targetEntityId, 0);
+        }
+    }
+
+    /**
+     * Record the creation of a visual NPC for a bot
+     */
+    public void npcSpawn(UUID botId, double x, double y, double z) {
+        if (admit(Category.NPC_SPAWN)) {
+            publish(Category.NPC_SPAWN, botId, x, y, z, 0, 0, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Record a reward calculation and its breakdown
+     */
+    public void reward(UUID botId, long calculations, double total, double combat, double movement,
+                       double survival, double exploration, double timePenalty) {
+        if (admit(Category.REWARD)) {
+            publish(Category.REWARD, botId, total, combat, movement, survival, exploration, timePenalty, calculations, 0);
+        }
+    }
+
+    /**
+     * Whether an event of this category passes sampling and the rate limit
+     */
+    private boolean admit(Category category) {
+        return running.get() && limiters[category.ordinal()].tryAcquire();
+    }
+
+    private void publish(Category category, UUID botId, double d0, double d1, double d2, double d3,
+                         double d4, double d5, long l0, long l1) {
+        // Claim a slot; drop rather than wait when the writer has fallen behind
+        long sequence;
+        do {
+            sequence = head.get();
+            if (sequence - tail.get() >= capacity) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) (sequence & mask);
+        categories[slot] = category.ordinal();
+        timestamps[slot] = System.currentTimeMillis();
+        botMost[slot] = botId != null ? botId.getMostSignificantBits() : 0L;
+        botLeast[slot] = botId != null ? botId.getLeastSignificantBits() : 0L;
+        int d = slot * DOUBLE_FIELDS;
+        doubles[d] = d0;
+        doubles[d + 1] = d1;
+        doubles[d + 2] = d2;
+        doubles[d + 3] = d3;
+        doubles[d + 4] = d4;
+        doubles[d + 5] = d5;
+        int l = slot * LONG_FIELDS;
+        longs[l] = l0;
+        longs[l + 1] = l1;
+        // Release: the writer only reads the slot after seeing this sequence
+        published.lazySet(slot, sequence);
+    }
+
+    private void writeLoop() {
+        StringBuilder line = new StringBuilder(256);
+        FileSink sink = new FileSink();
+        try {
+            sink.open(outputFile);
+            while (running.get()) {
+                if (drain(sink, line) == 0) {
+                    sink.writer.flush();
+                    LockSupport.parkNanos(DRAIN_INTERVAL_NANOS);
+                }
+            }
+            // Final drain on shutdown
+            drain(sink, line);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "AI event log writer failed", e);
+            running.set(false);
+        } finally {
+            sink.close();
+        }
+    }
+
+    /**
+     * Write all published events in order; returns the number written
+     */
+    private int drain(FileSink sink, StringBuilder line) throws IOException {
+        int count = 0;
+        long next = tail.get();
+        while (next < head.get()) {
+            int slot = (int) (next & mask);
+            if (published.get(slot) != next) {
+                break; // Claimed but not yet published
+            }
+            line.setLength(0);
+            appendJson(line, slot);
+            line.append('\n');
+            if (sink.bytes + line.length() > maxFileBytes) {
+                rotate(sink);
+            }
+            sink.writer.append(line);
+            // Lines are plain ASCII, so chars are bytes
+            sink.bytes += line.length();
+            next++;
+            tail.lazySet(next);
+            count++;
+        }
+        if (count > 0) {
+            written.addAndGet(count);
+        }
+        return count;
+    }
+
+    /**
+     * Close the current file, start the next one and delete files beyond the limit
+     */
+    private void rotate(FileSink sink) throws IOException {
+        sink.close();
+        File next = fileFor(++sink.index);
+        sink.open(next);
+        outputFile = next;
+        while (sink.files.size() > maxFiles) {
+            File oldest = sink.files.removeFirst();
+            if (!oldest.delete()) {
+                logger.warning("Could not delete old AI event log " + oldest.getName());
+            }
+        }
+    }
+
+    private File fileFor(int index) {
+        return new File(directory, "ai-events-" + stamp + (index == 0 ? "" : "-" + index) + ".jsonl");
+    }
+
+    private void appendJson(StringBuilder line, int slot) {
+        Category category = Category.values()[categories[slot]];
+        line.append("{\"t\":").append(timestamps[slot])
+                .append(",\"type\":\"").append(category.key)
+                .append("\",\"bot\":\"").append(new UUID(botMost[slot], botLeast[slot])).append('"');
+        int d = slot * DOUBLE_FIELDS;
+        for (int i = 0; i < category.doubleFields.length; i++) {
+            line.append(",\"").append(category.doubleFields[i]).append("\":");
+            double value = doubles[d + i];
+            if (Double.isFinite(value)) {
+                line.append(value);
+            } else {
+                line.append("null");
+            }
+        }
+        int l = slot * LONG_FIELDS;
+        for (int i = 0; i < category.longFields.length; i++) {
+            line.append(",\"").append(category.longFields[i]).append("\":").append(longs[l + i]);
+        }
+        line.append('}');
+    }
+
+    /**
+     * Configure a category at runtime.
+     *
+     * @param sampleEvery  keep one in this many events (1 keeps all)
+     * @param maxPerSecond upper bound on events kept per second, 0 disables the category
+     */
+    public void configure(Category category, int sampleEvery, int maxPerSecond) {
+        Limiter limiter = limiters[category.ordinal()];
+        limiter.sampleEvery = Math.max(1, sampleEvery);
+        limiter.maxPerSecond = Math.max(0, maxPerSecond);
+    }
+
+    public int getSampleEvery(Category category) {
+        return limiters[category.ordinal()].sampleEvery;
+    }
+
+    public int getMaxPerSecond(Category category) {
+        return limiters[category.ordinal()].maxPerSecond;
+    }
+
+    public long getAccepted(Category category) {
+        return limiters[category.ordinal()].accepted.get();
+    }
+
+    public long getSuppressed(Category category) {
+        return limiters[category.ordinal()].suppressed.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Events captured but not yet written
+     */
+    public int getPending() {
+        return (int) Math.max(0, head.get() - tail.get());
+    }
+
+    public File getOutputFile() {
+        return outputFile;
+    }
+
+    /**
+     * File the writer thread is appending to and the files it wrote this run, oldest first
+     */
+    private final class FileSink {
+        private final ArrayDeque<File> files = new ArrayDeque<>();
+        private BufferedWriter writer;
+        private long bytes;
+        private int index;
+
+        private void open(File file) throws IOException {
+            writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            bytes = 0;
+            files.addLast(file);
+        }
+
+        private void close() {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.close();
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Could not close AI event log", e);
+            }
+            writer = null;
+        }
+    }
+
+    /**
+     * Per-category 1-in-N sampling followed by a per-second budget
+     */
+    private static final class Limiter {
+        private volatile int sampleEvery;
+        private volatile int maxPerSecond;
+        private final AtomicLong seen = new AtomicLong();
+        private final AtomicInteger windowCount = new AtomicInteger();
+        private volatile long windowSecond;
+        private final AtomicLong accepted = new AtomicLong();
+        private final AtomicLong suppressed = new AtomicLong();
+
+        private Limiter(int sampleEvery, int maxPerSecond) {
+            this.sampleEvery = sampleEvery;
+            this.maxPerSecond = maxPerSecond;
+        }
+
+        private boolean tryAcquire() {
+            int limit = maxPerSecond;
+            if (limit <= 0) {
+                return false;
+            }
+            int every = sampleEvery;
+            if (every > 1 && seen.getAndIncrement() % every != 0) {
+                return false;
+            }
+
+            long second = System.nanoTime() / 1_000_000_000L;
+            if (second != windowSecond) {
+                // Racing resets may admit a few extra events at the window edge, which is fine
+                windowSecond = second;
+                windowCount.set(0);
+            }
+            if (windowCount.incrementAndGet() > limit) {
+                suppressed.incrementAndGet();
+                return false;
+            }
+            accepted.incrementAndGet();
+            return true;
+        }
+    }
+}
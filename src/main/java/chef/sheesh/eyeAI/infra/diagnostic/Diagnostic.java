@@ -25,6 +25,7 @@ public final class Diagnostic {
     }
 
     public static void flush() {
-        // Flush diagnostic data
+        // Drain buffered AI events before the plugin unloads
+        AIEventLog.get().stop();
     }
 }
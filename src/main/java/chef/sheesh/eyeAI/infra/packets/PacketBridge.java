@@ -11,6 +11,7 @@ public final class PacketBridge {
     private final Plugin plugin;
     private boolean protocolLibAvailable;
     private boolean packetEventsAvailable;
+    private VirtualEntityPackets virtualEntityPackets;
 
     public PacketBridge(Plugin plugin) {
         this.plugin = plugin;
@@ -26,12 +27,12 @@ public final class PacketBridge {
 
         if (protocolLibAvailable) {
             plugin.getLogger().info("ProtocolLib detected - advanced packet features available.");
-            // TODO: Initialize ProtocolLib listeners when dependency is available
-        }
-
-        if (packetEventsAvailable) {
-            plugin.getLogger().info("PacketEvents detected - high-throughput packet handling available.");
-            // TODO: Initialize PacketEvents listeners when dependency is available
+            try {
+                this.virtualEntityPackets = new ProtocolLibVirtualEntityPackets();
+                plugin.getLogger().info("Virtual NPC packets enabled via ProtocolLib.");
+            } catch (LinkageError | RuntimeException e) {
+                plugin.getLogger().log(Level.WARNING, "ProtocolLib present but virtual NPC packets unavailable", e);
+            }
         }
 
         if (!protocolLibAvailable && !packetEventsAvailable) {
@@ -41,11 +42,17 @@ public final class PacketBridge {
 
     public void shutdown() {
         // Cleanup packet listeners if any were registered
+        virtualEntityPackets = null;
     }
 
     public boolean isPacketEventsEnabled() { return packetEventsAvailable; }
     public boolean isProtocolLibEnabled() { return protocolLibAvailable; }
 
+    /**
+     * Packet sender for client-side NPCs, or null when no packet library is available
+     */
+    public VirtualEntityPackets getVirtualEntityPackets() { return virtualEntityPackets; }
+
     public void sendMovement(Player player, Location target) {
         // Safe fallback using Bukkit API
         if (player == null || target == null) {
@@ -0,0 +1,108 @@
+package chef.sheesh.eyeAI.infra.packets;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.ProtocolLibrary;
+import com.comphenix.protocol.ProtocolManager;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.wrappers.WrappedChatComponent;
+import com.comphenix.protocol.wrappers.WrappedDataValue;
+import com.comphenix.protocol.wrappers.WrappedDataWatcher;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * ProtocolLib implementation of {@link VirtualEntityPackets}.
+ * Only loaded by {@link PacketBridge} after ProtocolLib has been detected.
+ */
+final class ProtocolLibVirtualEntityPackets implements VirtualEntityPackets {
+
+    private static final byte FLAG_INVISIBLE = 0x20;
+
+    private final ProtocolManager protocol;
+
+    ProtocolLibVirtualEntityPackets() {
+        this.protocol = ProtocolLibrary.getProtocolManager();
+    }
+
+    @Override
+    public void spawn(Player viewer, int entityId, UUID uuid, String name,
+                      double x, double y, double z, float yaw, float pitch) {
+        PacketContainer spawn = protocol.createPacket(PacketType.Play.Server.SPAWN_ENTITY);
+        spawn.getIntegers().write(0, entityId);
+        spawn.getUUIDs().write(0, uuid);
+        spawn.getEntityTypeModifier().write(0, EntityType.ARMOR_STAND);
+        spawn.getDoubles()
+                .write(0, x)
+                .write(1, y)
+                .write(2, z);
+        spawn.getBytes()
+                .write(0, toAngle(pitch))
+                .write(1, toAngle(yaw));
+
+        PacketContainer metadata = protocol.createPacket(PacketType.Play.Server.ENTITY_METADATA);
+        metadata.getIntegers().write(0, entityId);
+        metadata.getDataValueCollectionModifier().write(0, List.of(
+                new WrappedDataValue(0, WrappedDataWatcher.Registry.get(Byte.class), FLAG_INVISIBLE),
+                new WrappedDataValue(2, WrappedDataWatcher.Registry.getChatComponentSerializer(true),
+                        Optional.of(WrappedChatComponent.fromText(name).getHandle())),
+                new WrappedDataValue(3, WrappedDataWatcher.Registry.get(Boolean.class), true)
+        ));
+
+        protocol.sendServerPacket(viewer, spawn);
+        protocol.sendServerPacket(viewer, metadata);
+    }
+
+    @Override
+    public void relativeMove(Player viewer, int entityId, short dx, short dy, short dz,
+                             float yaw, float pitch, boolean rotate, boolean onGround) {
+        PacketContainer move = protocol.createPacket(rotate
+                ? PacketType.Play.Server.REL_ENTITY_MOVE_LOOK
+                : PacketType.Play.Server.REL_ENTITY_MOVE);
+        move.getIntegers().write(0, entityId);
+        move.getShorts()
+                .write(0, dx)
+                .write(1, dy)
+                .write(2, dz);
+        if (rotate) {
+            move.getBytes()
+                    .write(0, toAngle(yaw))
+                    .write(1, toAngle(pitch));
+        }
+        move.getBooleans().write(0, onGround);
+        protocol.sendServerPacket(viewer, move);
+    }
+
+    @Override
+    public void teleport(Player viewer, int entityId, double x, double y, double z,
+                         float yaw, float pitch, boolean onGround) {
+        PacketContainer teleport = protocol.createPacket(PacketType.Play.Server.ENTITY_TELEPORT);
+        teleport.getIntegers().write(0, entityId);
+        teleport.getDoubles()
+                .write(0, x)
+                .write(1, y)
+                .write(2, z);
+        teleport.getBytes()
+                .write(0, toAngle(yaw))
+                .write(1, toAngle(pitch));
+        teleport.getBooleans().write(0, onGround);
+        protocol.sendServerPacket(viewer, teleport);
+    }
+
+    @Override
+    public void destroy(Player viewer, List<Integer> entityIds) {
+        if (entityIds.isEmpty()) {
+            return;
+        }
+        PacketContainer destroy = protocol.createPacket(PacketType.Play.Server.ENTITY_DESTROY);
+        destroy.getIntLists().write(0, entityIds);
+        protocol.sendServerPacket(viewer, destroy);
+    }
+
+    private static byte toAngle(float degrees) {
+        return (byte) (int) (degrees * 256.0F / 360.0F);
+    }
+}
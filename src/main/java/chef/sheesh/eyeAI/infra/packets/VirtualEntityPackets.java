@@ -0,0 +1,37 @@
+package chef.sheesh.eyeAI.infra.packets;
+
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sends packets for client-side only (virtual) entities.
+ * Implementations wrap a packet library; callers never touch library classes directly,
+ * so the plugin still loads when no packet library is installed.
+ */
+public interface VirtualEntityPackets {
+
+    /**
+     * Spawn a named virtual entity for one viewer
+     */
+    void spawn(Player viewer, int entityId, UUID uuid, String name,
+               double x, double y, double z, float yaw, float pitch);
+
+    /**
+     * Send a relative move; deltas are in 1/4096 block units as used by the protocol
+     */
+    void relativeMove(Player viewer, int entityId, short dx, short dy, short dz,
+                      float yaw, float pitch, boolean rotate, boolean onGround);
+
+    /**
+     * Send an absolute position, used when a delta does not fit in a relative move
+     */
+    void teleport(Player viewer, int entityId, double x, double y, double z,
+                  float yaw, float pitch, boolean onGround);
+
+    /**
+     * Destroy several virtual entities for one viewer in a single packet
+     */
+    void destroy(Player viewer, List<Integer> entityIds);
+}
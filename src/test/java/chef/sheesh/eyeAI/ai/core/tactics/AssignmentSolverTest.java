@@ -0,0 +1,213 @@
+package chef.sheesh.eyeAI.ai.core.tactics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssignmentSolverTest {
+
+    private static final float DELTA = 1e-3f;
+    private static final int ROUNDS = 300;
+
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        random = new Random(42);
+    }
+
+    @Test
+    @DisplayName("Should find the optimal assignment from a cold start")
+    void testColdSolveIsOptimal() {
+        for (int round = 0; round < ROUNDS; round++) {
+            int cols = 1 + random.nextInt(7);
+            int rows = 1 + random.nextInt(cols);
+            float[] costs = randomCosts(rows, cols);
+            int[] assignment = unassigned(rows);
+
+            float total = new AssignmentSolver().solve(costs, rows, cols, assignment, new float[cols]);
+
+            assertValid(assignment, cols);
+            assertEquals(bruteForce(costs, rows, cols), total, DELTA, "round " + round);
+            assertEquals(sum(costs, cols, assignment), total, DELTA);
+        }
+    }
+
+    @Test
+    @DisplayName("Should stay optimal when warm started after costs drift")
+    void testWarmSolveIsOptimal() {
+        AssignmentSolver solver = new AssignmentSolver();
+        for (int round = 0; round < ROUNDS / 10; round++) {
+            int cols = 2 + random.nextInt(6);
+            int rows = 1 + random.nextInt(cols);
+            float[] costs = randomCosts(rows, cols);
+            int[] assignment = unassigned(rows);
+            float[] potentials = new float[cols];
+            solver.solve(costs, rows, cols, assignment, potentials);
+
+            for (int step = 0; step < 10; step++) {
+                drift(costs);
+                float total = solver.solve(costs, rows, cols, assignment, potentials);
+
+                assertValid(assignment, cols);
+                assertEquals(bruteForce(costs, rows, cols), total, DELTA, "round " + round + " step " + step);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should stay within rows times the tolerance of optimal when warm started")
+    void testWarmSolveWithinTolerance() {
+        float tolerance = 0.5f;
+        AssignmentSolver solver = new AssignmentSolver(tolerance);
+        for (int round = 0; round < ROUNDS / 10; round++) {
+            int cols = 2 + random.nextInt(6);
+            int rows = 1 + random.nextInt(cols);
+            float[] costs = randomCosts(rows, cols);
+            int[] assignment = unassigned(rows);
+            float[] potentials = new float[cols];
+            solver.solve(costs, rows, cols, assignment, potentials);
+
+            for (int step = 0; step < 10; step++) {
+                drift(costs);
+                float total = solver.solve(costs, rows, cols, assignment, potentials);
+
+                assertValid(assignment, cols);
+                float optimum = bruteForce(costs, rows, cols);
+                assertTrue(total >= optimum - DELTA);
+                assertTrue(total <= optimum + rows * tolerance + DELTA,
+                        "round " + round + " step " + step + ": " + total + " > " + optimum + " + " + rows * tolerance);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should spread attackers over threat slots like a capacity of ceil(n/m)")
+    void testSlotCapacity() {
+        float crowdPenalty = 12f;
+        AssignmentSolver solver = new AssignmentSolver();
+        for (int round = 0; round < ROUNDS; round++) {
+            int n = 1 + random.nextInt(6);
+            int m = 1 + random.nextInt(4);
+            // Same layout as TargetAssigner: ceil(n/m) slots per threat, each deeper slot costs more
+            int slots = (n + m - 1) / m;
+            int cols = m * slots;
+            float[] base = randomCosts(n, m);
+            float[] costs = new float[n * cols];
+            for (int i = 0; i < n; i++) {
+                for (int t = 0; t < m; t++) {
+                    for (int s = 0; s < slots; s++) {
+                        costs[i * cols + t * slots + s] = base[i * m + t] + s * crowdPenalty;
+                    }
+                }
+            }
+            int[] assignment = unassigned(n);
+
+            float total = solver.solve(costs, n, cols, assignment, new float[cols]);
+
+            assertValid(assignment, cols);
+            int[] load = new int[m];
+            for (int col : assignment) {
+                load[col / slots]++;
+            }
+            for (int t = 0; t < m; t++) {
+                assertTrue(load[t] <= slots, "threat " + t + " holds " + load[t] + " > " + slots);
+            }
+            assertEquals(bruteForceCapacity(base, n, m, slots, crowdPenalty), total, DELTA, "round " + round);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject more rows than columns")
+    void testMoreRowsThanColumns() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AssignmentSolver().solve(new float[6], 3, 2, unassigned(3), new float[2]));
+    }
+
+    private float[] randomCosts(int rows, int cols) {
+        float[] costs = new float[rows * cols];
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = random.nextInt(100) / 4f;
+        }
+        return costs;
+    }
+
+    private void drift(float[] costs) {
+        for (int i = 0; i < costs.length; i++) {
+            if (random.nextInt(3) == 0) {
+                costs[i] = Math.max(0f, costs[i] + (random.nextInt(9) - 4) / 2f);
+            }
+        }
+    }
+
+    private static int[] unassigned(int rows) {
+        int[] assignment = new int[rows];
+        Arrays.fill(assignment, -1);
+        return assignment;
+    }
+
+    private static void assertValid(int[] assignment, int cols) {
+        boolean[] taken = new boolean[cols];
+        for (int col : assignment) {
+            assertTrue(col >= 0 && col < cols, "column out of range: " + col);
+            assertFalse(taken[col], "column assigned twice: " + col);
+            taken[col] = true;
+        }
+    }
+
+    private static float sum(float[] costs, int cols, int[] assignment) {
+        float total = 0f;
+        for (int row = 0; row < assignment.length; row++) {
+            total += costs[row * cols + assignment[row]];
+        }
+        return total;
+    }
+
+    /** Cheapest total over every injective row to column mapping */
+    private static float bruteForce(float[] costs, int rows, int cols) {
+        return bruteForce(costs, rows, cols, 0, new boolean[cols]);
+    }
+
+    private static float bruteForce(float[] costs, int rows, int cols, int row, boolean[] taken) {
+        if (row == rows) {
+            return 0f;
+        }
+        float best = Float.POSITIVE_INFINITY;
+        for (int col = 0; col < cols; col++) {
+            if (!taken[col]) {
+                taken[col] = true;
+                best = Math.min(best, costs[row * cols + col] + bruteForce(costs, rows, cols, row + 1, taken));
+                taken[col] = false;
+            }
+        }
+        return best;
+    }
+
+    /** Cheapest total over every choice of threat per attacker, at most {@code capacity} per threat */
+    private static float bruteForceCapacity(float[] base, int n, int m, int capacity, float crowdPenalty) {
+        return bruteForceCapacity(base, n, m, capacity, crowdPenalty, 0, new int[m]);
+    }
+
+    private static float bruteForceCapacity(float[] base, int n, int m, int capacity, float crowdPenalty,
+                                            int attacker, int[] load) {
+        if (attacker == n) {
+            return 0f;
+        }
+        float best = Float.POSITIVE_INFINITY;
+        for (int t = 0; t < m; t++) {
+            if (load[t] < capacity) {
+                // The k-th attacker on a threat pays k crowd penalties
+                float cost = base[attacker * m + t] + load[t] * crowdPenalty;
+                load[t]++;
+                best = Math.min(best, cost + bruteForceCapacity(base, n, m, capacity, crowdPenalty, attacker + 1, load));
+                load[t]--;
+            }
+        }
+        return best;
+    }
+}
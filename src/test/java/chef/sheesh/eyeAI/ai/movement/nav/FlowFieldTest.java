@@ -0,0 +1,162 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlowFieldTest {
+
+    private static final int SIZE = 40;
+    private static final int FLOOR = 64;
+    private static final int RADIUS = 14;
+    private static final int HEIGHT = 4;
+    private static final float DELTA = 1e-3f;
+
+    private Random random;
+    /** Highest solid block of each column: ground on two levels and walls too tall to climb */
+    private int[][] top;
+    private NavGrid grid;
+    private long goal;
+
+    @BeforeEach
+    void setUp() {
+        random = new Random(7);
+        top = new int[SIZE][SIZE];
+        for (int x = 0; x < SIZE; x++) {
+            for (int z = 0; z < SIZE; z++) {
+                top[x][z] = randomTop();
+            }
+        }
+        int centre = SIZE / 2;
+        top[centre][centre] = FLOOR - 1;
+        goal = NavCells.pack(centre, FLOOR, centre);
+        grid = new NavGrid() {
+            @Override
+            public boolean isSolid(int x, int y, int z) {
+                if (x < 0 || z < 0 || x >= SIZE || z >= SIZE) {
+                    return true;
+                }
+                return y <= top[x][z];
+            }
+
+            @Override
+            public boolean isHazard(int x, int y, int z) {
+                return false;
+            }
+
+            @Override
+            public int getMinHeight() {
+                return 0;
+            }
+
+            @Override
+            public int getMaxHeight() {
+                return 128;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should match a fresh build after single block edits")
+    void testRepairSingleEdits() {
+        FlowField field = new FlowField(grid, goal, RADIUS, HEIGHT);
+        assertTrue(field.isValid());
+        for (int edit = 0; edit < 200; edit++) {
+            long[] changed = editColumn();
+            field.repair(changed, changed.length);
+            assertSameAsRebuild(field, "edit " + edit);
+        }
+    }
+
+    @Test
+    @DisplayName("Should match a fresh build after batches of edits")
+    void testRepairBatchedEdits() {
+        FlowField field = new FlowField(grid, goal, RADIUS, HEIGHT);
+        for (int batch = 0; batch < 60; batch++) {
+            long[] changed = new long[0];
+            int edits = 1 + random.nextInt(12);
+            for (int edit = 0; edit < edits; edit++) {
+                long[] more = editColumn();
+                long[] merged = new long[changed.length + more.length];
+                System.arraycopy(changed, 0, merged, 0, changed.length);
+                System.arraycopy(more, 0, merged, changed.length, more.length);
+                changed = merged;
+            }
+            field.repair(changed, changed.length);
+            assertSameAsRebuild(field, "batch " + batch);
+        }
+    }
+
+    @Test
+    @DisplayName("Should lead every reachable cell downhill to the goal")
+    void testStepsLeadToGoal() {
+        FlowField field = new FlowField(grid, goal, RADIUS, HEIGHT);
+        for (int edit = 0; edit < 50; edit++) {
+            long[] changed = editColumn();
+            field.repair(changed, changed.length);
+        }
+        for (int x = 0; x < SIZE; x++) {
+            for (int z = 0; z < SIZE; z++) {
+                int y = top[x][z] + 1;
+                float cost = field.cost(x, y, z);
+                if (cost == Float.POSITIVE_INFINITY) {
+                    continue;
+                }
+                long next = field.next(x, y, z);
+                assertNotEquals(FlowField.NONE, next);
+                if (cost > 0f) {
+                    float nextCost = field.cost(NavCells.x(next), NavCells.y(next), NavCells.z(next));
+                    assertTrue(nextCost < cost, "step from " + x + "," + y + "," + z + " does not descend");
+                }
+            }
+        }
+    }
+
+    private int randomTop() {
+        int roll = random.nextInt(100);
+        if (roll < 20) {
+            return FLOOR + 2; // Wall
+        }
+        return FLOOR - 1 + (roll < 35 ? 1 : 0);
+    }
+
+    /** Change one column other than the goal's and report every block that changed */
+    private long[] editColumn() {
+        int x;
+        int z;
+        do {
+            x = random.nextInt(SIZE);
+            z = random.nextInt(SIZE);
+        } while (x == NavCells.x(goal) && z == NavCells.z(goal));
+        int before = top[x][z];
+        int after = randomTop();
+        top[x][z] = after;
+        int low = Math.min(before, after) + 1;
+        int high = Math.max(before, after);
+        long[] changed = new long[Math.max(0, high - low + 1)];
+        for (int y = low; y <= high; y++) {
+            changed[y - low] = NavCells.pack(x, y, z);
+        }
+        return changed;
+    }
+
+    private void assertSameAsRebuild(FlowField repaired, String context) {
+        FlowField rebuilt = new FlowField(grid, goal, RADIUS, HEIGHT);
+        assertEquals(rebuilt.isValid(), repaired.isValid(), context);
+        int gx = NavCells.x(goal);
+        int gy = NavCells.y(goal);
+        int gz = NavCells.z(goal);
+        for (int x = gx - RADIUS; x <= gx + RADIUS; x++) {
+            for (int z = gz - RADIUS; z <= gz + RADIUS; z++) {
+                for (int y = gy - HEIGHT; y <= gy + HEIGHT; y++) {
+                    assertEquals(rebuilt.cost(x, y, z), repaired.cost(x, y, z), DELTA,
+                            context + " at " + x + "," + y + "," + z);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalPathfinderTest {
+
+    private static final int SIZE = 96;
+    private static final int FLOOR = 64;
+    private static final int QUERIES = 150;
+    /** Default heuristic weight of 1.2, plus the detour of routing through portals */
+    private static final double WORST_RATIO = 1.3;
+    private static final double MEAN_RATIO = 1.08;
+
+    private Random random;
+    /** Highest solid block of each column: ground on two levels and walls too tall to climb */
+    private int[][] top;
+    private NavGrid grid;
+
+    @BeforeEach
+    void setUp() {
+        random = new Random(3);
+        top = new int[SIZE][SIZE];
+        for (int x = 0; x < SIZE; x++) {
+            for (int z = 0; z < SIZE; z++) {
+                int roll = random.nextInt(100);
+                top[x][z] = roll < 15 ? FLOOR + 3 : roll < 35 ? FLOOR : FLOOR - 1;
+            }
+        }
+        grid = new NavGrid() {
+            @Override
+            public boolean isSolid(int x, int y, int z) {
+                if (x < 0 || z < 0 || x >= SIZE || z >= SIZE) {
+                    return true;
+                }
+                return y <= top[x][z];
+            }
+
+            @Override
+            public boolean isHazard(int x, int y, int z) {
+                return false;
+            }
+
+            @Override
+            public int getMinHeight() {
+                return 0;
+            }
+
+            @Override
+            public int getMaxHeight() {
+                return 128;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should find a connected path wherever A* does, close to the optimal cost")
+    void testPathsMatchGridSearch() {
+        HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(grid);
+        GridSearch search = new GridSearch();
+        double worst = 0.0;
+        double sum = 0.0;
+        int found = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            long start = randomCell(pathfinder);
+            long goal = randomCell(pathfinder);
+            long[] optimal = search.findPath(grid, start, goal, null, Integer.MAX_VALUE);
+            long[] path = pathfinder.findPath(start, goal);
+
+            assertEquals(optimal == null, path == null, "query " + q);
+            if (path == null) {
+                continue;
+            }
+            double cost = cost(path, start, goal, "query " + q);
+            double ratio = search.getCost() == 0f ? 1.0 : cost / search.getCost();
+            assertTrue(ratio >= 1.0 - 1e-4, "query " + q + " beat A*: " + ratio);
+            worst = Math.max(worst, ratio);
+            sum += ratio;
+            found++;
+        }
+        assertTrue(found > QUERIES / 2);
+        assertTrue(worst <= WORST_RATIO, "worst ratio " + worst);
+        assertTrue(sum / found <= MEAN_RATIO, "mean ratio " + sum / found);
+    }
+
+    @Test
+    @DisplayName("Should find the same path when the query runs in slices")
+    void testSlicedQuery() {
+        for (int q = 0; q < 20; q++) {
+            long start = randomCell(new HierarchicalPathfinder(grid));
+            long goal = randomCell(new HierarchicalPathfinder(grid));
+            long[] whole = new HierarchicalPathfinder(grid).findPath(start, goal);
+
+            HierarchicalPathfinder.Query query = new HierarchicalPathfinder(grid).query(start, goal);
+            int slices = 1;
+            while (!query.step(0L)) {
+                slices++;
+            }
+
+            assertTrue(query.isDone());
+            assertArrayEquals(whole, query.getPath(), "query " + q);
+            if (NavCells.chebyshev(start, goal) > 24) {
+                assertTrue(slices > 1, "query " + q + " ran in one slice");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should return null for a goal no path reaches")
+    void testUnreachable() {
+        int centre = SIZE / 2;
+        for (int x = centre - 2; x <= centre + 2; x++) {
+            for (int z = centre - 2; z <= centre + 2; z++) {
+                boolean ring = Math.abs(x - centre) == 2 || Math.abs(z - centre) == 2;
+                top[x][z] = ring ? FLOOR + 3 : FLOOR - 1;
+            }
+        }
+        HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(grid);
+        long goal = NavCells.pack(centre, FLOOR, centre);
+        top[4][4] = FLOOR - 1;
+        long start = NavCells.pack(4, FLOOR, 4);
+
+        assertNull(new GridSearch().findPath(grid, start, goal, null, Integer.MAX_VALUE));
+        assertNull(pathfinder.findPath(start, goal));
+        assertEquals(1, pathfinder.getStats().failures);
+    }
+
+    @Test
+    @DisplayName("Should route around a wall placed on a cached path after invalidation")
+    void testInvalidate() {
+        HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(grid);
+        for (int q = 0; q < 20; q++) {
+            long start = randomCell(pathfinder);
+            long goal = randomCell(pathfinder);
+            long[] before = pathfinder.findPath(start, goal);
+            if (before == null || before.length < 8) {
+                continue;
+            }
+            long blocked = before[before.length / 2];
+            int x = NavCells.x(blocked);
+            int z = NavCells.z(blocked);
+            top[x][z] = FLOOR + 3;
+            pathfinder.invalidate(x, NavCells.y(blocked), z);
+
+            long[] after = pathfinder.findPath(start, goal);
+            long[] optimal = new GridSearch().findPath(grid, start, goal, null, Integer.MAX_VALUE);
+            assertEquals(optimal == null, after == null, "query " + q);
+            if (after != null) {
+                cost(after, start, goal, "query " + q);
+                for (long cell : after) {
+                    assertFalse(NavCells.x(cell) == x && NavCells.z(cell) == z, "query " + q + " walks through the wall");
+                }
+            }
+        }
+    }
+
+    /** Walkable cell on one of the two ground levels */
+    private long randomCell(HierarchicalPathfinder pathfinder) {
+        while (true) {
+            long cell = pathfinder.snap(NavCells.pack(random.nextInt(SIZE), FLOOR, random.nextInt(SIZE)));
+            if (cell != Long.MIN_VALUE) {
+                return cell;
+            }
+        }
+    }
+
+    /** Cost of a path, asserting it runs from start to goal through legal moves only */
+    private double cost(long[] path, long start, long goal, String message) {
+        assertEquals(start, path[0], message);
+        assertEquals(goal, path[path.length - 1], message);
+        long[] next = new long[8];
+        float[] costs = new float[8];
+        double total = 0.0;
+        for (int i = 1; i < path.length; i++) {
+            int count = GridSearch.neighbors(grid, path[i - 1], next, costs);
+            double step = -1.0;
+            for (int k = 0; k < count; k++) {
+                if (next[k] == path[i]) {
+                    step = costs[k];
+                }
+            }
+            assertTrue(step >= 0.0, message + ": no move from step " + (i - 1) + " to " + i);
+            total += step;
+        }
+        return total;
+    }
+}
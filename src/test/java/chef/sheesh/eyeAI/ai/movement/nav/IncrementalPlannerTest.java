@@ -0,0 +1,186 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalPlannerTest {
+
+    private static final int SIZE = 48;
+    private static final int FLOOR = 64;
+    private static final float DELTA = 1e-3f;
+
+    private Random random;
+    /** Highest solid block of each column: ground on two levels and walls too tall to climb */
+    private int[][] top;
+    private NavGrid grid;
+    private final GridSearch search = new GridSearch();
+    private final long[] neighborCells = new long[8];
+    private final float[] neighborCosts = new float[8];
+
+    @BeforeEach
+    void setUp() {
+        random = new Random(11);
+        top = new int[SIZE][SIZE];
+        for (int x = 0; x < SIZE; x++) {
+            for (int z = 0; z < SIZE; z++) {
+                top[x][z] = randomTop();
+            }
+        }
+        grid = new NavGrid() {
+            @Override
+            public boolean isSolid(int x, int y, int z) {
+                if (x < 0 || z < 0 || x >= SIZE || z >= SIZE) {
+                    return true;
+                }
+                return y <= top[x][z];
+            }
+
+            @Override
+            public boolean isHazard(int x, int y, int z) {
+                return false;
+            }
+
+            @Override
+            public int getMinHeight() {
+                return 0;
+            }
+
+            @Override
+            public int getMaxHeight() {
+                return 128;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should match A* when only the target moves")
+    void testMovingTarget() {
+        IncrementalPlanner planner = new IncrementalPlanner(grid);
+        long chaser = randomGround();
+        long target = randomGround();
+        for (int round = 0; round < 150; round++) {
+            target = wander(target, 1 + random.nextInt(3));
+            assertMatchesAStar(planner, chaser, target, "round " + round);
+        }
+    }
+
+    @Test
+    @DisplayName("Should match A* while the chaser follows its path and the target moves")
+    void testChase() {
+        IncrementalPlanner planner = new IncrementalPlanner(grid);
+        long chaser = randomGround();
+        long target = randomGround();
+        for (int round = 0; round < 150; round++) {
+            long[] path = assertMatchesAStar(planner, chaser, target, "round " + round);
+            if (path != null && path.length > 1) {
+                chaser = path[Math.min(path.length - 1, 1 + random.nextInt(3))];
+            } else {
+                chaser = randomGround();
+            }
+            target = wander(target, 1 + random.nextInt(3));
+        }
+    }
+
+    @Test
+    @DisplayName("Should match A* after blocks change on and around the route")
+    void testBlockChanges() {
+        IncrementalPlanner planner = new IncrementalPlanner(grid);
+        long chaser = randomGround();
+        long target = randomGround();
+        long[] path = assertMatchesAStar(planner, chaser, target, "start");
+        for (int round = 0; round < 200; round++) {
+            int edits = 1 + random.nextInt(6);
+            for (int edit = 0; edit < edits; edit++) {
+                // Mostly on the current route, where a change has to reroute the chase
+                long near = path != null && random.nextBoolean() ? path[random.nextInt(path.length)] : randomGround();
+                int x = Math.floorMod(NavCells.x(near) + random.nextInt(3) - 1, SIZE);
+                int z = Math.floorMod(NavCells.z(near) + random.nextInt(3) - 1, SIZE);
+                editColumn(planner, x, z, chaser, target);
+            }
+            path = assertMatchesAStar(planner, chaser, target, "round " + round);
+            if (random.nextBoolean()) {
+                chaser = path != null && path.length > 1 ? path[1] : chaser;
+                target = wander(target, 1);
+            }
+        }
+    }
+
+    private int randomTop() {
+        int roll = random.nextInt(100);
+        if (roll < 22) {
+            return FLOOR + 2; // Wall
+        }
+        return FLOOR - 1 + (roll < 40 ? 1 : 0);
+    }
+
+    private long randomGround() {
+        while (true) {
+            int x = random.nextInt(SIZE);
+            int z = random.nextInt(SIZE);
+            if (top[x][z] < FLOOR + 2) {
+                return NavCells.pack(x, top[x][z] + 1, z);
+            }
+        }
+    }
+
+    /** Walk a few random legal moves */
+    private long wander(long cell, int steps) {
+        for (int i = 0; i < steps; i++) {
+            int found = GridSearch.neighbors(grid, cell, neighborCells, neighborCosts);
+            if (found == 0) {
+                return randomGround();
+            }
+            cell = neighborCells[random.nextInt(found)];
+        }
+        return cell;
+    }
+
+    /** Change a column other than the chaser's and the target's and tell the planner */
+    private void editColumn(IncrementalPlanner planner, int x, int z, long chaser, long target) {
+        if (x == NavCells.x(chaser) && z == NavCells.z(chaser) || x == NavCells.x(target) && z == NavCells.z(target)) {
+            return;
+        }
+        int before = top[x][z];
+        int after = randomTop();
+        top[x][z] = after;
+        for (int y = Math.min(before, after) + 1; y <= Math.max(before, after); y++) {
+            planner.invalidate(x, y, z);
+        }
+    }
+
+    private long[] assertMatchesAStar(IncrementalPlanner planner, long chaser, long target, String context) {
+        long[] path = planner.plan(chaser, target);
+        long[] expected = search.findPath(grid, chaser, target, null, Integer.MAX_VALUE);
+        if (expected == null) {
+            assertNull(path, context + ": planner found a path A* did not");
+            return null;
+        }
+        assertNotNull(path, context + ": planner found no path");
+        assertEquals(chaser, path[0], context);
+        assertEquals(target, path[path.length - 1], context);
+        assertEquals(search.getCost(), cost(path), DELTA, context);
+        return path;
+    }
+
+    /** Cost of a path, checking every step is a legal move */
+    private float cost(long[] path) {
+        float total = 0f;
+        for (int i = 1; i < path.length; i++) {
+            int found = GridSearch.neighbors(grid, path[i - 1], neighborCells, neighborCosts);
+            float step = Float.POSITIVE_INFINITY;
+            for (int n = 0; n < found; n++) {
+                if (neighborCells[n] == path[i]) {
+                    step = Math.min(step, neighborCosts[n]);
+                }
+            }
+            assertTrue(step < Float.POSITIVE_INFINITY, "illegal step at " + i);
+            total += step;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,229 @@
+package chef.sheesh.eyeAI.ai.movement.nav;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathSchedulerTest {
+
+    private static final int SIZE = 96;
+    private static final int FLOOR = 64;
+    /** Enough ticks for every request here even at one slice per tick */
+    private static final int MAX_TICKS = 100_000;
+
+    private Random random;
+    private int[][] top;
+    private NavGrid grid;
+    private UUID world;
+    private HierarchicalPathfinder pathfinder;
+    private PathSchedulerConfig config;
+
+    @BeforeEach
+    void setUp() {
+        random = new Random(5);
+        top = new int[SIZE][SIZE];
+        for (int x = 0; x < SIZE; x++) {
+            for (int z = 0; z < SIZE; z++) {
+                top[x][z] = random.nextInt(100) < 15 ? FLOOR + 3 : FLOOR - 1;
+            }
+        }
+        grid = new NavGrid() {
+            @Override
+            public boolean isSolid(int x, int y, int z) {
+                if (x < 0 || z < 0 || x >= SIZE || z >= SIZE) {
+                    return true;
+                }
+                return y <= top[x][z];
+            }
+
+            @Override
+            public boolean isHazard(int x, int y, int z) {
+                return false;
+            }
+
+            @Override
+            public int getMinHeight() {
+                return 0;
+            }
+
+            @Override
+            public int getMaxHeight() {
+                return 128;
+            }
+        };
+        world = UUID.randomUUID();
+        pathfinder = new HierarchicalPathfinder(grid);
+        config = new PathSchedulerConfig();
+        // No budget: every tick does one slice of work, so pausing is deterministic
+        config.budgetMillisPerTick = 0.0;
+    }
+
+    @Test
+    @DisplayName("Should pause searches at the deadline and resume them to the unsliced path")
+    void testBudget() {
+        PathScheduler scheduler = scheduler();
+        List<long[]> routes = new ArrayList<>();
+        List<CompletableFuture<long[]>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            long[] route = longRoute();
+            routes.add(route);
+            futures.add(scheduler.submit(world, route[0], route[1], null, PathScheduler.Priority.NORMAL));
+        }
+
+        int ticks = drain(scheduler);
+
+        assertTrue(ticks > routes.size(), "ran in " + ticks + " ticks");
+        assertTrue(scheduler.getStats().paused > 0);
+        assertEquals(routes.size(), scheduler.getStats().computed);
+        for (int i = 0; i < routes.size(); i++) {
+            long[] expected = new HierarchicalPathfinder(grid).findPath(routes.get(i)[0], routes.get(i)[1]);
+            assertTrue(futures.get(i).isDone());
+            assertArrayEquals(expected, futures.get(i).join(), "route " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Should finish an urgent request before an earlier normal one")
+    void testPriority() {
+        PathScheduler scheduler = scheduler();
+        long[] first = longRoute();
+        long[] second = longRoute();
+        CompletableFuture<long[]> normal = scheduler.submit(world, first[0], first[1], null, PathScheduler.Priority.NORMAL);
+        CompletableFuture<long[]> urgent = scheduler.submit(world, second[0], second[1], null, PathScheduler.Priority.URGENT);
+
+        for (int tick = 0; tick < MAX_TICKS && !urgent.isDone(); tick++) {
+            scheduler.tick();
+        }
+
+        assertTrue(urgent.isDone());
+        assertFalse(normal.isDone());
+        drain(scheduler);
+        assertNotNull(normal.join());
+    }
+
+    @Test
+    @DisplayName("Should answer a paused request with null when its world is forgotten")
+    void testForget() {
+        PathScheduler scheduler = scheduler();
+        long[] route = longRoute();
+        CompletableFuture<long[]> future = scheduler.submit(world, route[0], route[1], null, PathScheduler.Priority.NORMAL);
+        scheduler.tick();
+        assertFalse(future.isDone());
+        assertEquals(1, scheduler.getQueueSize());
+
+        scheduler.forget(world);
+
+        assertTrue(future.isDone());
+        assertNull(future.join());
+        assertEquals(0, scheduler.getQueueSize());
+        assertEquals(0, scheduler.tick());
+    }
+
+    @Test
+    @DisplayName("Should drop a cancelled request without searching further")
+    void testCancel() {
+        PathScheduler scheduler = scheduler();
+        long[] route = longRoute();
+        CompletableFuture<long[]> future = scheduler.submit(world, route[0], route[1], null, PathScheduler.Priority.NORMAL);
+        scheduler.tick();
+        assertFalse(future.isDone());
+
+        future.cancel(false);
+        HierarchicalPathfinder.Stats before = pathfinder.getStats();
+        assertEquals(1, scheduler.tick());
+        HierarchicalPathfinder.Stats after = pathfinder.getStats();
+
+        assertEquals(0, scheduler.getQueueSize());
+        assertEquals(before.abstractExpansions, after.abstractExpansions);
+        assertEquals(before.localExpansions, after.localExpansions);
+        assertEquals(0, scheduler.getStats().computed);
+    }
+
+    @Test
+    @DisplayName("Should still answer a follower whose leader was cancelled")
+    void testCancelLeader() {
+        PathScheduler scheduler = scheduler();
+        long[] route = longRoute();
+        long follower = nearby(route[0], route[1]);
+        CompletableFuture<long[]> leader = scheduler.submit(world, route[0], route[1], null, PathScheduler.Priority.NORMAL);
+        CompletableFuture<long[]> waiting = scheduler.submit(world, follower, route[1], null, PathScheduler.Priority.NORMAL);
+        assertEquals(1, scheduler.getStats().coalesced);
+
+        leader.cancel(false);
+        drain(scheduler);
+
+        long[] path = waiting.join();
+        assertNotNull(path);
+        assertEquals(follower, path[0]);
+        assertEquals(route[1], path[path.length - 1]);
+    }
+
+    @Test
+    @DisplayName("Should answer a repeated request from the cache")
+    void testCacheHit() {
+        PathScheduler scheduler = scheduler();
+        long[] route = longRoute();
+        CompletableFuture<long[]> first = scheduler.submit(world, route[0], route[1], null, PathScheduler.Priority.NORMAL);
+        drain(scheduler);
+
+        CompletableFuture<long[]> second = scheduler.submit(world, route[0], route[1], null, PathScheduler.Priority.NORMAL);
+
+        assertTrue(second.isDone());
+        assertSame(first.join(), second.join());
+        assertEquals(1, scheduler.getStats().cacheHits);
+    }
+
+    private PathScheduler scheduler() {
+        return new PathScheduler((w, profile) -> w.equals(world) ? pathfinder : null, config);
+    }
+
+    /** Tick until the queue is empty, checking no tick finishes more than its one slice allows */
+    private int drain(PathScheduler scheduler) {
+        int ticks = 0;
+        while (scheduler.getQueueSize() > 0) {
+            assertTrue(ticks < MAX_TICKS, "queue never drained");
+            assertTrue(scheduler.tick() <= 1);
+            ticks++;
+        }
+        return ticks;
+    }
+
+    /** Start and goal far enough apart to skip the direct search, with a path between them */
+    private long[] longRoute() {
+        GridSearch search = new GridSearch();
+        while (true) {
+            long start = cell(random.nextInt(SIZE), random.nextInt(SIZE));
+            long goal = cell(random.nextInt(SIZE), random.nextInt(SIZE));
+            if (start != Long.MIN_VALUE && goal != Long.MIN_VALUE && NavCells.chebyshev(start, goal) > 48
+                    && search.findPath(grid, start, goal, null, Integer.MAX_VALUE) != null) {
+                return new long[]{start, goal};
+            }
+        }
+    }
+
+    /** A different walkable cell within the coalescing radius that also reaches the goal */
+    private long nearby(long cell, long goal) {
+        GridSearch search = new GridSearch();
+        while (true) {
+            int x = NavCells.x(cell) + random.nextInt(2 * config.coalesceRadius + 1) - config.coalesceRadius;
+            int z = NavCells.z(cell) + random.nextInt(2 * config.coalesceRadius + 1) - config.coalesceRadius;
+            long candidate = cell(x, z);
+            if (candidate != Long.MIN_VALUE && candidate != cell
+                    && search.findPath(grid, candidate, goal, null, Integer.MAX_VALUE) != null) {
+                return candidate;
+            }
+        }
+    }
+
+    private long cell(int x, int z) {
+        return grid.isWalkable(x, FLOOR, z) ? NavCells.pack(x, FLOOR, z) : Long.MIN_VALUE;
+    }
+}
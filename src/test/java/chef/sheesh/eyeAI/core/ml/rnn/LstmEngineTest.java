@@ -0,0 +1,128 @@
+package chef.sheesh.eyeAI.core.ml.rnn;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LstmEngineTest {
+
+    private static final int INPUT = 3;
+    private static final int HIDDEN = 5;
+    private static final int OUTPUT = 2;
+    private static final int STEPS = 6;
+    private static final double EPSILON = 1e-6;
+
+    private LstmEngine engine;
+    private LstmWeights weights;
+    private double[] inputs;
+    private double[] targets;
+    private double[] h0;
+    private double[] c0;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(17);
+        engine = new LstmEngine(LstmKernels.scalar(), LstmEngine.Precision.DOUBLE);
+        // Scaled up from the Xavier init so the gates leave their linear region
+        LstmWeights base = LstmWeights.random(INPUT, HIDDEN, OUTPUT, random);
+        weights = LstmWeights.of(INPUT, HIDDEN, OUTPUT,
+                scaled(base.copyGates(), 2.0), uniform(4 * HIDDEN, random),
+                scaled(base.copyOutput(), 2.0), uniform(OUTPUT, random));
+        inputs = uniform(STEPS * INPUT, random);
+        targets = scaled(uniform(STEPS * OUTPUT, random), 0.9);
+        h0 = scaled(uniform(HIDDEN, random), 0.5);
+        c0 = uniform(HIDDEN, random);
+    }
+
+    @Test
+    @DisplayName("Should return the loss of the traced outputs")
+    void testBackwardLoss() {
+        double[] mask = {1.0, 0.0, 0.5, 1.0, 0.0, 2.0};
+        LstmTrace trace = new LstmTrace(weights, STEPS);
+        engine.forward(weights, inputs, 0, STEPS, h0, c0, trace);
+
+        double loss = engine.backward(weights, trace, targets, 0, mask, 0, new LstmGradients(weights));
+
+        assertEquals(loss(weights, mask), loss, 1e-12);
+        assertTrue(loss > 0.0);
+    }
+
+    @Test
+    @DisplayName("Should match finite difference gradients for every parameter")
+    void testGradients() {
+        assertGradients(null);
+    }
+
+    @Test
+    @DisplayName("Should match finite difference gradients under a mask with padded steps")
+    void testMaskedGradients() {
+        assertGradients(new double[]{1.0, 0.0, 0.5, 1.0, 0.0, 2.0});
+    }
+
+    private void assertGradients(double[] mask) {
+        LstmTrace trace = new LstmTrace(weights, STEPS);
+        LstmGradients grads = new LstmGradients(weights);
+        engine.forward(weights, inputs, 0, STEPS, h0, c0, trace);
+        engine.backward(weights, trace, targets, 0, mask, 0, grads);
+
+        double[][] params = {weights.copyGates(), weights.copyGateBias(), weights.copyOutput(), weights.copyOutputBias()};
+        double[][] analytic = {grads.gates, grads.gateBias, grads.output, grads.outputBias};
+        String[] names = {"gates", "gateBias", "output", "outputBias"};
+        for (int p = 0; p < params.length; p++) {
+            double[] values = params[p];
+            for (int k = 0; k < values.length; k++) {
+                double original = values[k];
+                values[k] = original + EPSILON;
+                double plus = loss(build(params), mask);
+                values[k] = original - EPSILON;
+                double minus = loss(build(params), mask);
+                values[k] = original;
+
+                double numeric = (plus - minus) / (2.0 * EPSILON);
+                double tolerance = 1e-7 + 1e-5 * Math.abs(numeric);
+                assertEquals(numeric, analytic[p][k], tolerance, names[p] + "[" + k + "]");
+            }
+        }
+    }
+
+    /** Weighted mean squared error recomputed from the forward outputs alone */
+    private double loss(LstmWeights w, double[] mask) {
+        LstmTrace trace = new LstmTrace(w, STEPS);
+        engine.forward(w, inputs, 0, STEPS, h0, c0, trace);
+        double[] y = new double[OUTPUT];
+        double loss = 0.0;
+        for (int t = 0; t < STEPS; t++) {
+            trace.copyOutput(t, y);
+            double stepLoss = 0.0;
+            for (int k = 0; k < OUTPUT; k++) {
+                double diff = y[k] - targets[t * OUTPUT + k];
+                stepLoss += diff * diff;
+            }
+            loss += (mask == null ? 1.0 : mask[t]) * stepLoss / OUTPUT;
+        }
+        return loss;
+    }
+
+    private static LstmWeights build(double[][] params) {
+        return LstmWeights.of(INPUT, HIDDEN, OUTPUT, params[0], params[1], params[2], params[3]);
+    }
+
+    private static double[] uniform(int n, Random random) {
+        double[] values = new double[n];
+        for (int k = 0; k < n; k++) {
+            values[k] = random.nextDouble() * 2.0 - 1.0;
+        }
+        return values;
+    }
+
+    private static double[] scaled(double[] values, double factor) {
+        for (int k = 0; k < values.length; k++) {
+            values[k] *= factor;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,187 @@
+package chef.sheesh.eyeAI.core.ml.rnn;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The vector kernels against the scalar ones. Lengths run past several vector
+ * widths so the main loops, the tails and unaligned offsets are all covered.
+ */
+class LstmKernelsTest {
+
+    private static final int MAX_LENGTH = 37;
+    private static final int MAX_OFFSET = 3;
+    private static final int PAD = 2;
+
+    private LstmKernels scalar;
+    private LstmKernels vector;
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        scalar = LstmKernels.scalar();
+        vector = LstmKernels.best();
+        random = new Random(11);
+        assumeTrue(vector.isVectorized(), "jdk.incubator.vector is not resolved");
+    }
+
+    @Test
+    @DisplayName("Should compute the same dot products")
+    void testDot() {
+        for (int n = 1; n <= MAX_LENGTH; n++) {
+            for (int off = 0; off <= MAX_OFFSET; off++) {
+                double[] a = uniform(off + n + PAD, 3.0);
+                double[] b = uniform(n + PAD, 3.0);
+                float[] af = toFloat(a);
+                float[] bf = toFloat(b);
+                double bound = 0.0;
+                for (int k = 0; k < n; k++) {
+                    bound += Math.abs(a[off + k] * b[k]);
+                }
+
+                assertEquals(scalar.dot(a, off, b, 0, n), vector.dot(a, off, b, 0, n),
+                        1e-14 * bound, "n=" + n + " off=" + off);
+                assertEquals(scalar.dot(af, off, bf, 0, n), vector.dot(af, off, bf, 0, n),
+                        1e-6 * bound, "float n=" + n + " off=" + off);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should compute the same axpy and leave the rest of the array alone")
+    void testAxpy() {
+        for (int n = 1; n <= MAX_LENGTH; n++) {
+            for (int off = 0; off <= MAX_OFFSET; off++) {
+                double alpha = random.nextDouble() * 4.0 - 2.0;
+                double[] x = uniform(n + PAD, 3.0);
+                double[] expected = uniform(off + n + PAD, 3.0);
+                double[] actual = expected.clone();
+
+                scalar.axpy(alpha, x, 1, expected, off, n);
+                vector.axpy(alpha, x, 1, actual, off, n);
+
+                assertArrayEquals(expected, actual, 1e-14, "n=" + n + " off=" + off);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should compute the same activations and leave the rest of the array alone")
+    void testActivations() {
+        for (int n = 1; n <= MAX_LENGTH; n++) {
+            for (int off = 0; off <= MAX_OFFSET; off++) {
+                // Wide enough to reach the saturated ends of both functions
+                double[] values = uniform(off + n + PAD, 12.0);
+                float[] floats = toFloat(values);
+                String where = "n=" + n + " off=" + off;
+
+                double[] expected = values.clone();
+                double[] actual = values.clone();
+                scalar.sigmoid(expected, off, n);
+                vector.sigmoid(actual, off, n);
+                assertArrayEquals(expected, actual, 1e-14, "sigmoid " + where);
+
+                expected = values.clone();
+                actual = values.clone();
+                scalar.tanh(expected, off, n);
+                vector.tanh(actual, off, n);
+                assertArrayEquals(expected, actual, 1e-14, "tanh " + where);
+
+                float[] expectedF = floats.clone();
+                float[] actualF = floats.clone();
+                scalar.sigmoid(expectedF, off, n);
+                vector.sigmoid(actualF, off, n);
+                assertArrayEquals(expectedF, actualF, 1e-6f, "float sigmoid " + where);
+
+                expectedF = floats.clone();
+                actualF = floats.clone();
+                scalar.tanh(expectedF, off, n);
+                vector.tanh(actualF, off, n);
+                assertArrayEquals(expectedF, actualF, 1e-6f, "float tanh " + where);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should train to the same outputs and gradients on either kernels")
+    void testEngine() {
+        int in = 7;
+        int hidden = 19;
+        int out = 3;
+        int steps = 9;
+        LstmWeights weights = LstmWeights.random(in, hidden, out, random);
+        double[] inputs = uniform(steps * in, 1.0);
+        double[] targets = uniform(steps * out, 0.9);
+        LstmEngine scalarEngine = new LstmEngine(scalar, LstmEngine.Precision.DOUBLE);
+        LstmEngine vectorEngine = new LstmEngine(vector, LstmEngine.Precision.DOUBLE);
+        LstmTrace scalarTrace = new LstmTrace(weights, steps);
+        LstmTrace vectorTrace = new LstmTrace(weights, steps);
+        LstmGradients scalarGrads = new LstmGradients(weights);
+        LstmGradients vectorGrads = new LstmGradients(weights);
+
+        scalarEngine.forward(weights, inputs, 0, steps, null, null, scalarTrace);
+        vectorEngine.forward(weights, inputs, 0, steps, null, null, vectorTrace);
+        double scalarLoss = scalarEngine.backward(weights, scalarTrace, targets, 0, scalarGrads);
+        double vectorLoss = vectorEngine.backward(weights, vectorTrace, targets, 0, vectorGrads);
+
+        double[] expected = new double[out];
+        double[] actual = new double[out];
+        for (int t = 0; t < steps; t++) {
+            scalarTrace.copyOutput(t, expected);
+            vectorTrace.copyOutput(t, actual);
+            assertArrayEquals(expected, actual, 1e-12, "output " + t);
+        }
+        assertEquals(scalarLoss, vectorLoss, 1e-12);
+        assertArrayEquals(scalarGrads.gates, vectorGrads.gates, 1e-12);
+        assertArrayEquals(scalarGrads.gateBias, vectorGrads.gateBias, 1e-12);
+        assertArrayEquals(scalarGrads.output, vectorGrads.output, 1e-12);
+        assertArrayEquals(scalarGrads.outputBias, vectorGrads.outputBias, 1e-12);
+    }
+
+    @Test
+    @DisplayName("Should take the same single precision steps on either kernels")
+    void testFloatStep() {
+        int in = 7;
+        int hidden = 19;
+        int out = 3;
+        LstmWeights weights = LstmWeights.random(in, hidden, out, random);
+        LstmEngine scalarEngine = new LstmEngine(scalar, LstmEngine.Precision.FLOAT);
+        LstmEngine vectorEngine = new LstmEngine(vector, LstmEngine.Precision.FLOAT);
+        double[] scalarH = new double[hidden];
+        double[] scalarC = new double[hidden];
+        double[] vectorH = new double[hidden];
+        double[] vectorC = new double[hidden];
+        double[] expected = new double[out];
+        double[] actual = new double[out];
+
+        for (int t = 0; t < 20; t++) {
+            double[] x = uniform(in, 1.0);
+            scalarEngine.step(weights, x, scalarH, scalarC, expected);
+            vectorEngine.step(weights, x, vectorH, vectorC, actual);
+            assertArrayEquals(expected, actual, 1e-5, "output " + t);
+            assertArrayEquals(scalarH, vectorH, 1e-5, "hidden " + t);
+        }
+    }
+
+    private double[] uniform(int n, double range) {
+        double[] values = new double[n];
+        for (int k = 0; k < n; k++) {
+            values[k] = (random.nextDouble() * 2.0 - 1.0) * range;
+        }
+        return values;
+    }
+
+    private static float[] toFloat(double[] values) {
+        float[] floats = new float[values.length];
+        for (int k = 0; k < values.length; k++) {
+            floats[k] = (float) values[k];
+        }
+        return floats;
+    }
+}
@@ -0,0 +1,183 @@
+package chef.sheesh.eyeAI.core.sim.replay;
+
+import chef.sheesh.eyeAI.core.sim.TrainingStep;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayRoundTripTest {
+
+    private static final long SEED = 0x5EEDL;
+    private static final long MODEL_VERSION = 3;
+    private static final double EXPLORATION = 0.2;
+    private static final int BOTS = 12;
+    private static final int TICKS = 400;
+
+    /** Stands in for a trained model: any pure function of the state */
+    private static final TrainingStep.ActionSelector MODEL =
+            (stateHash, maxActions) -> (int) Math.floorMod(stateHash * 0x9E3779B97F4A7C15L >>> 17, (long) maxActions);
+    private static final TrainingStep.ActionSelector OTHER_MODEL =
+            (stateHash, maxActions) -> (int) Math.floorMod(stateHash, (long) maxActions);
+
+    private File directory;
+    private Random random;
+    private double[] x;
+    private double[] y;
+    private double[] z;
+    private double[] health;
+    private TickRecorder recorder;
+    private int liveDecisions;
+    private int[] liveBots;
+    private int[] liveActions;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("eyeai-replay").toFile();
+        random = new Random(5);
+        x = new double[BOTS];
+        y = new double[BOTS];
+        z = new double[BOTS];
+        health = new double[BOTS];
+        for (int bot = 0; bot < BOTS; bot++) {
+            x[bot] = random.nextInt(64) + 0.5;
+            y[bot] = 64.0;
+            z[bot] = random.nextInt(64) + 0.5;
+            health[bot] = 20.0;
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    @DisplayName("Should replay a decoded recording to the live checksum")
+    void testRoundTripChecksum() throws IOException {
+        long liveChecksum = record(TICKS);
+
+        Recording recording = Recording.read(recorder.getOutputFile());
+        TickReplayer.Result result = new TickReplayer().replay(recording, MODEL);
+
+        assertTrue(recording.isComplete());
+        assertEquals(SEED, recording.getSessionSeed());
+        assertEquals(MODEL_VERSION, recording.getModelVersion());
+        assertEquals(EXPLORATION, recording.getExploration(), 0.0);
+        assertEquals(TICKS, recording.getTickCount());
+        assertEquals(liveDecisions, recording.getDecisionCount());
+        assertEquals(liveDecisions, result.decisions);
+        assertEquals(0, result.mismatches, result.toString());
+        assertEquals(liveChecksum, result.checksum, result.toString());
+    }
+
+    @Test
+    @DisplayName("Should decode the recorded actions and events")
+    void testRoundTripDecisions() throws IOException {
+        record(TICKS);
+
+        Recording recording = Recording.read(recorder.getOutputFile());
+
+        for (int d = 0; d < liveDecisions; d++) {
+            assertEquals(liveBots[d], recording.getBot(d), "decision " + d);
+            assertEquals(liveActions[d], recording.getRecordedAction(d), "decision " + d);
+        }
+        assertEquals(2, recording.getEvents().size());
+        assertEquals(new Recording.Event(1, "model", "v" + MODEL_VERSION), recording.getEvents().get(0));
+        assertEquals(new Recording.Event(TICKS / 2, "bots", Integer.toString(BOTS)), recording.getEvents().get(1));
+    }
+
+    @Test
+    @DisplayName("Should replay to the same checksum every time and differ under another model")
+    void testReplayIsDeterministic() throws IOException {
+        record(TICKS);
+
+        TickReplayer replayer = new TickReplayer();
+        TickReplayer.Result first = replayer.replay(Recording.read(recorder.getOutputFile()), MODEL);
+        TickReplayer.Result second = replayer.replay(Recording.read(recorder.getOutputFile()), MODEL);
+        Recording recording = Recording.read(recorder.getOutputFile());
+        TickReplayer.Result same = replayer.replay(recording, MODEL);
+        TickReplayer.Result other = replayer.replay(recording, OTHER_MODEL);
+
+        assertEquals(first.checksum, second.checksum);
+        assertEquals(first.totalReward, second.totalReward, 0.0);
+        assertNotEquals(same.checksum, other.checksum);
+        assertTrue(other.mismatches > 0);
+        TickReplayer.Diff diff = TickReplayer.compare(same, other);
+        assertEquals(other.mismatches, diff.differences);
+    }
+
+    /**
+     * Run bots through the decision loop the way {@link chef.sheesh.eyeAI.core.sim.FakePlayerEngine}
+     * does, recording every tick, and return the checksum a replay computes
+     */
+    private long record(int ticks) {
+        recorder = new TickRecorder(Logger.getLogger(ReplayRoundTripTest.class.getName()));
+        assertTrue(recorder.start(directory, SEED, MODEL_VERSION, EXPLORATION));
+        TrainingStep step = new TrainingStep();
+        step.setExploration(EXPLORATION);
+        TickRandom tickRandom = new TickRandom();
+        liveBots = new int[ticks * BOTS];
+        liveActions = new int[ticks * BOTS];
+        liveDecisions = 0;
+        long checksum = SEED;
+
+        recorder.event(1, "model", "v" + MODEL_VERSION);
+        for (long tick = 1; tick <= ticks; tick++) {
+            if (tick == ticks / 2) {
+                recorder.event(tick, "bots", Integer.toString(BOTS));
+            }
+            recorder.beginTick(tick);
+            for (int bot = 0; bot < BOTS; bot++) {
+                // Some bots sit a tick out, so ticks differ in size
+                if (random.nextInt(10) == 0) {
+                    continue;
+                }
+                tickRandom.reset(TickRandom.seedFor(SEED, bot, tick));
+                step.decide(x[bot], y[bot], z[bot], health[bot], tickRandom, MODEL);
+                int action = step.getAction();
+                int solidMask = random.nextInt(1 << TrainingStep.DESTINATIONS);
+                boolean solid = (solidMask >> TrainingStep.destination(action) & 1) != 0;
+                double reward = step.reward(solid, true);
+                recorder.bot(bot, x[bot], y[bot], z[bot], health[bot], solidMask, action);
+
+                checksum = SessionSeed.mix(checksum, action * 31L + Double.doubleToLongBits(reward));
+                liveBots[liveDecisions] = bot;
+                liveActions[liveDecisions] = action;
+                liveDecisions++;
+                move(bot, action, solid);
+            }
+            recorder.endTick();
+        }
+        recorder.stop();
+        return checksum;
+    }
+
+    /** Follow the action unless it hits a wall, and now and then drift, which the log has to store in full */
+    private void move(int bot, int action, boolean solid) {
+        if (!solid) {
+            Recording.applyAction(action, bot, x, y, z);
+        }
+        if (random.nextInt(8) == 0) {
+            x[bot] += random.nextDouble() - 0.5;
+            z[bot] += random.nextDouble() - 0.5;
+        }
+        if (random.nextInt(6) == 0) {
+            health[bot] = Math.max(1.0, health[bot] - random.nextInt(4));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package chef.sheesh.eyeAI.core.ml.rnn;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API kernels at the platform's preferred width.
+ * Only instantiated through {@link LstmKernels#best()} after the incubator module is known to be present;
+ * tails shorter than one vector fall through to scalar loops.
+ */
+final class VectorLstmKernels implements LstmKernels {
+
+    private static final VectorSpecies<Double> D = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> F = FloatVector.SPECIES_PREFERRED;
+
+    VectorLstmKernels() {
+    }
+
+    @Override
+    public double dot(double[] a, int aOff, double[] b, int bOff, int n) {
+        DoubleVector acc = DoubleVector.zero(D);
+        int k = 0;
+        int bound = D.loopBound(n);
+        for (; k < bound; k += D.length()) {
+            DoubleVector va = DoubleVector.fromArray(D, a, aOff + k);
+            DoubleVector vb = DoubleVector.fromArray(D, b, bOff + k);
+            acc = va.fma(vb, acc);
+        }
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; k < n; k++) {
+            sum += a[aOff + k] * b[bOff + k];
+        }
+        return sum;
+    }
+
+    @Override
+    public float dot(float[] a, int aOff, float[] b, int bOff, int n) {
+        FloatVector acc = FloatVector.zero(F);
+        int k = 0;
+        int bound = F.loopBound(n);
+        for (; k < bound; k += F.length()) {
+            FloatVector va = FloatVector.fromArray(F, a, aOff + k);
+            FloatVector vb = FloatVector.fromArray(F, b, bOff + k);
+            acc = va.fma(vb, acc);
+        }
+        float sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; k < n; k++) {
+            sum += a[aOff + k] * b[bOff + k];
+        }
+        return sum;
+    }
+
+    @Override
+    public void axpy(double alpha, double[] x, int xOff, double[] y, int yOff, int n) {
+        int k = 0;
+        int bound = D.loopBound(n);
+        DoubleVector va = DoubleVector.broadcast(D, alpha);
+        for (; k < bound; k += D.length()) {
+            DoubleVector vx = DoubleVector.fromArray(D, x, xOff + k);
+            DoubleVector vy = DoubleVector.fromArray(D, y, yOff + k);
+            vx.fma(va, vy).intoArray(y, yOff + k);
+        }
+        for (; k < n; k++) {
+            y[yOff + k] += alpha * x[xOff + k];
+        }
+    }
+
+    @Override
+    public void sigmoid(double[] a, int off, int n) {
+        int k = 0;
+        int bound = D.loopBound(n);
+        DoubleVector one = DoubleVector.broadcast(D, 1.0);
+        for (; k < bound; k += D.length()) {
+            DoubleVector v = DoubleVector.fromArray(D, a, off + k);
+            one.div(v.neg().lanewise(VectorOperators.EXP).add(1.0)).intoArray(a, off + k);
+        }
+        for (; k < n; k++) {
+            a[off + k] = 1.0 / (1.0 + Math.exp(-a[off + k]));
+        }
+    }
+
+    @Override
+    public void sigmoid(float[] a, int off, int n) {
+        int k = 0;
+        int bound = F.loopBound(n);
+        FloatVector one = FloatVector.broadcast(F, 1f);
+        for (; k < bound; k += F.length()) {
+            FloatVector v = FloatVector.fromArray(F, a, off + k);
+            one.div(v.neg().lanewise(VectorOperators.EXP).add(1f)).intoArray(a, off + k);
+        }
+        for (; k < n; k++) {
+            a[off + k] = (float) (1.0 / (1.0 + Math.exp(-a[off + k])));
+        }
+    }
+
+    @Override
+    public void tanh(double[] a, int off, int n) {
+        int k = 0;
+        int bound = D.loopBound(n);
+        for (; k < bound; k += D.length()) {
+            DoubleVector.fromArray(D, a, off + k).lanewise(VectorOperators.TANH).intoArray(a, off + k);
+        }
+        for (; k < n; k++) {
+            a[off + k] = Math.tanh(a[off + k]);
+        }
+    }
+
+    @Override
+    public void tanh(float[] a, int off, int n) {
+        int k = 0;
+        int bound = F.loopBound(n);
+        for (; k < bound; k += F.length()) {
+            FloatVector.fromArray(F, a, off + k).lanewise(VectorOperators.TANH).intoArray(a, off + k);
+        }
+        for (; k < n; k++) {
+            a[off + k] = (float) Math.tanh(a[off + k]);
+        }
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "vector(" + D.length() + "xf64, " + F.length() + "xf32)";
+    }
+}